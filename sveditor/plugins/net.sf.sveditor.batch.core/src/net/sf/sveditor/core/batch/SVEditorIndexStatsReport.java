@@ -0,0 +1,94 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import net.sf.sveditor.core.db.index.ISVDBIndex;
+import net.sf.sveditor.core.db.index.ISVDBIndexStatsProvider;
+import net.sf.sveditor.core.db.index.SVDBIndexFileStats;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
+
+/**
+ * Reports the statistics collected while building an index.
+ * Intended for use from batch scripts, eg:
+ *
+ *   SVDBArgFileBuildUtils.setCollectLexStats(true); // optional: report lex time
+ *   index = SVEditorVlogIndexFactory.vlog(args);
+ *   index.loadIndex(monitor);
+ *   SVEditorIndexStatsReport.writeJSON(index, "stats.json", 20);
+ */
+public class SVEditorIndexStatsReport {
+
+	public static final int DEFAULT_TOP_N = 10;
+
+	public static SVDBIndexStats getStats(ISVDBIndex index) {
+		if (index instanceof ISVDBIndexStatsProvider) {
+			return ((ISVDBIndexStatsProvider)index).getIndexStats();
+		} else {
+			return null;
+		}
+	}
+
+	public static void report(ISVDBIndex index) {
+		report(index, DEFAULT_TOP_N, System.out);
+	}
+
+	/**
+	 * Prints the index statistics and the 'top_n' slowest files
+	 */
+	public static void report(ISVDBIndex index, int top_n, PrintStream out) {
+		SVDBIndexStats stats = getStats(index);
+
+		if (stats == null) {
+			out.println("Note: no statistics available for index " +
+					index.getBaseLocation());
+			return;
+		}
+
+		out.println("Index " + index.getBaseLocation() + ":");
+		out.print(stats.toString());
+		out.println("* Slowest Files:");
+		for (SVDBIndexFileStats f : stats.getSlowestFiles(top_n)) {
+			out.println("*   " + f.toString() +
+					" PreProcess=" + (f.getPreProcessTimeNS()/1000) + "us" +
+					" Lex=" + (f.getLexTimeNS()/1000) + "us" +
+					" Parse=" + (f.getParseTimeNS()/1000) + "us" +
+					" DeclCache=" + (f.getDeclCacheTimeNS()/1000) + "us" +
+					" RefCache=" + (f.getRefCacheTimeNS()/1000) + "us");
+		}
+	}
+
+	public static String toJSON(ISVDBIndex index, int top_n) {
+		SVDBIndexStats stats = getStats(index);
+
+		return (stats != null)?stats.toJSON(top_n):"{}\n";
+	}
+
+	/**
+	 * Writes the index statistics, with the 'top_n' slowest files,
+	 * to 'path' in JSON format
+	 */
+	public static void writeJSON(ISVDBIndex index, String path, int top_n) throws IOException {
+		PrintStream ps = new PrintStream(new File(path));
+
+		try {
+			ps.print(toJSON(index, top_n));
+		} finally {
+			ps.close();
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.batch.format;
+
+import java.util.Arrays;
+
+import net.sf.sveditor.core.indent.SVBatchFormatter;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Batch application that indents source files. For example:
+ * 
+ *   eclipse -application net.sf.sveditor.batch.core.format -check src
+ *   
+ * Returns a non-zero exit code if any file fails, or requires 
+ * formatting in check mode
+ */
+public class SVFormatApplication implements IApplication {
+
+	public Object start(IApplicationContext context) throws Exception {
+		String args[] = (String [])context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		
+		if (args == null) {
+			// No arguments. The formatter prints the usage
+			args = new String[0];
+		}
+		
+		int status = SVBatchFormatter.run(Arrays.asList(args), System.out);
+		
+		return (status == 0)?IApplication.EXIT_OK:Integer.valueOf(status);
+	}
+
+	public void stop() { }
+
+}
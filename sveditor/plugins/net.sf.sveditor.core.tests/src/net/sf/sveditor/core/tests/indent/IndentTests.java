@@ -38,6 +38,8 @@ public class IndentTests extends SVCoreTestCaseBase {
 		suite.addTest(new TestSuite(NoHangIndentTests.class));
 		suite.addTest(new TestSuite(TestIndentScanner.class));
 		suite.addTest(new TestSuite(TestAdaptiveIndent.class));
+		suite.addTest(new TestSuite(TestIncrementalIndent.class));
+		suite.addTest(new TestSuite(TestBatchFormatter.class));
 		
 		return suite;
 	}
@@ -0,0 +1,188 @@
+package net.sf.sveditor.core.tests.indent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.sveditor.core.indent.SVBatchFormatter;
+import net.sf.sveditor.core.indent.SVBatchFormatter.FileResult;
+import net.sf.sveditor.core.indent.SVBatchFormatter.Result;
+import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
+import net.sf.sveditor.core.tests.utils.TestUtils;
+
+public class TestBatchFormatter extends SVCoreTestCaseBase {
+
+	private static final String fModule =
+		"module m;\n" +
+		"int a;\n" +
+		"initial begin\n" +
+		"a = 1;\n" +
+		"end\n" +
+		"endmodule\n"
+		;
+
+	private static final String fModuleExp =
+		"module m;\n" +
+		"	int a;\n" +
+		"	initial begin\n" +
+		"		a = 1;\n" +
+		"	end\n" +
+		"endmodule\n"
+		;
+
+	private static final String fClass =
+		"class c;\n" +
+		"  function void f();\n" +
+		"  endfunction\n" +
+		"endclass\n"
+		;
+
+	private static final String fClassExp =
+		"class c;\n" +
+		"	function void f();\n" +
+		"	endfunction\n" +
+		"endclass\n"
+		;
+
+	public void testCheckOnly() {
+		File m = createFile("rtl/m.sv", fModule);
+		File c = createFile("tb/c.svh", fClassExp);
+
+		SVBatchFormatter fmt = new SVBatchFormatter();
+		fmt.setCheckOnly(true);
+		Result result = fmt.format(Arrays.asList(m, c));
+
+		assertEquals(1, result.fNumChanged);
+		assertEquals(0, result.fNumErrors);
+		assertEquals(10, result.fLines);
+
+		FileResult r = result.fFiles.get(0);
+		assertTrue(r.fChanged);
+		assertTrue(r.fDiff.contains("@@ -2 +2 @@"));
+		assertTrue(r.fDiff.contains("-int a;"));
+		assertTrue(r.fDiff.contains("+\tint a;"));
+		assertFalse(r.fDiff.contains("-module m;"));
+		assertFalse(result.fFiles.get(1).fChanged);
+
+		// Files are not modified in check mode
+		assertEquals(fModule, read(m));
+	}
+
+	public void testFormat() {
+		File m = createFile("rtl/m.sv", fModule);
+		File c = createFile("tb/c.svh", fClass);
+
+		SVBatchFormatter fmt = new SVBatchFormatter();
+		Result result = fmt.format(Arrays.asList(m, c));
+
+		assertEquals(2, result.fNumChanged);
+		assertEquals(fModuleExp, read(m));
+		assertEquals(fClassExp, read(c));
+		assertFalse(new File(m.getParentFile(), "m.sv.fmt_tmp").exists());
+
+		fmt.setCheckOnly(true);
+		assertEquals(0, fmt.format(Arrays.asList(m, c)).fNumChanged);
+	}
+
+	public void testCRLF() {
+		File m = createFile("rtl/m.sv", fModule.replace("\n", "\r\n"));
+		File c = createFile("tb/c.svh", fClassExp.replace("\n", "\r\n"));
+
+		// Line endings alone do not require formatting
+		SVBatchFormatter fmt = new SVBatchFormatter();
+		fmt.setCheckOnly(true);
+		Result result = fmt.format(Arrays.asList(m, c));
+
+		assertEquals(1, result.fNumChanged);
+		assertFalse(result.fFiles.get(1).fChanged);
+		assertTrue(result.fFiles.get(0).fDiff.contains("-int a;"));
+		assertTrue(result.fFiles.get(0).fDiff.contains("+\tint a;"));
+
+		// Line endings are preserved when formatting
+		fmt.setCheckOnly(false);
+		result = fmt.format(Arrays.asList(m, c));
+		assertEquals(1, result.fNumChanged);
+		assertEquals(fModuleExp.replace("\n", "\r\n"), read(m));
+		assertEquals(fClassExp.replace("\n", "\r\n"), read(c));
+	}
+
+	public void testParallelFormat() {
+		List<File> files = new ArrayList<File>();
+		for (int i=0; i<64; i++) {
+			files.add(createFile("src/f" + i + ".sv", ((i%2) == 0)?fModule:fClass));
+		}
+
+		SVBatchFormatter fmt = new SVBatchFormatter();
+		fmt.setNumThreads(4);
+		Result result = fmt.format(files);
+
+		assertEquals(64, result.fNumChanged);
+		assertEquals(64, result.fFiles.size());
+		for (int i=0; i<files.size(); i++) {
+			assertSame(files.get(i), result.fFiles.get(i).fFile);
+			assertEquals(((i%2) == 0)?fModuleExp:fClassExp, read(files.get(i)));
+		}
+	}
+
+	public void testCollectFiles() {
+		createFile("proj/rtl/m.sv", fModule);
+		createFile("proj/rtl/m.txt", fModule);
+		createFile("proj/tb/c.svh", fClass);
+
+		List<File> files = SVBatchFormatter.collectFiles(
+				Arrays.asList(new File(fTmpDir, "proj")));
+
+		assertEquals(2, files.size());
+		assertEquals("m.sv", files.get(0).getName());
+		assertEquals("c.svh", files.get(1).getName());
+	}
+
+	public void testRunCheck() {
+		createFile("proj/m.sv", fModule);
+		String dir = new File(fTmpDir, "proj").getPath();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bos);
+
+		assertEquals(1, SVBatchFormatter.run(Arrays.asList("-check", dir), out));
+		assertEquals(0, SVBatchFormatter.run(Arrays.asList("-j", "2", dir), out));
+		assertEquals(0, SVBatchFormatter.run(Arrays.asList("-check", dir), out));
+		assertEquals(1, SVBatchFormatter.run(Arrays.asList("-bad", dir), out));
+		out.flush();
+
+		assertTrue(bos.toString().contains("+++ "));
+		assertTrue(bos.toString().contains("lines/sec"));
+	}
+
+	public void testRunMissingArgument() {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bos);
+
+		assertEquals(1, SVBatchFormatter.run(Arrays.asList("-j"), out));
+		assertEquals(1, SVBatchFormatter.run(Arrays.asList(fTmpDir.getPath(), "-spaces"), out));
+		assertEquals(1, SVBatchFormatter.run(new ArrayList<String>(), out));
+		out.flush();
+
+		assertTrue(bos.toString().contains("-j requires an argument"));
+		assertTrue(bos.toString().contains("-spaces requires an argument"));
+		assertFalse(bos.toString().contains("unknown option"));
+	}
+
+	private File createFile(String path, String content) {
+		File f = new File(fTmpDir, path);
+		f.getParentFile().mkdirs();
+		TestUtils.copy(content, f);
+		return f;
+	}
+
+	private static String read(File f) {
+		InputStream in = TestUtils.openFile(f);
+		String ret = TestUtils.readInput(in);
+		TestUtils.closeStream(in);
+		return ret;
+	}
+
+}
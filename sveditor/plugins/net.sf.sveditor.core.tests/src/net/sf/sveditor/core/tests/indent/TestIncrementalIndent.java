@@ -0,0 +1,193 @@
+package net.sf.sveditor.core.tests.indent;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.indent.ISVIndenter;
+import net.sf.sveditor.core.indent.SVIndentCheckpoint;
+import net.sf.sveditor.core.indent.SVIndentCheckpointList;
+import net.sf.sveditor.core.indent.SVIndentScanner;
+import net.sf.sveditor.core.scanutils.SegmentedTextScanner;
+import net.sf.sveditor.core.scanutils.StringTextScanner;
+
+public class TestIncrementalIndent extends TestCase {
+
+	private static final String fContent =
+		"package p;\n" +								// 1
+		"	// The class\n" +							// 2
+		"	class c1 extends base;\n" +					// 3
+		"		local int a;\n" +						// 4
+		"		\n" +									// 5
+		"		function void f();\n" +					// 6
+		"			if (a) begin\n" +					// 7
+		"				a = 1;\n" +						// 8
+		"			end\n" +							// 9
+		"		endfunction\n" +						// 10
+		"		\n" +									// 11
+		"		virtual\n" +							// 12
+		"		task t();\n" +							// 13
+		"			#1;\n" +							// 14
+		"		endtask\n" +							// 15
+		"	endclass\n" +								// 16
+		"	\n" +										// 17
+		"	interface class ic;\n" +					// 18
+		"		pure virtual function void g();\n" +	// 19
+		"	endclass\n" +								// 20
+		"endpackage\n" +								// 21
+		"\n" +											// 22
+		"module m(input clk);\n" +						// 23
+		"  int b;\n" +									// 24
+		"  always @(posedge clk) begin\n" +				// 25
+		"    b <= b + 1;\n" +							// 26
+		"  end\n" +										// 27
+		"  \n" +										// 28
+		"  initial begin\n" +							// 29
+		"    b = 0;\n" +								// 30
+		"  end\n" +										// 31
+		"endmodule\n"									// 32
+		;
+
+	public void testCheckpointsRecorded() {
+		List<SVIndentCheckpoint> cps = indent(fContent, 32).getCheckpoints();
+
+		SVIndentCheckpoint method = find(cps, 6);
+		assertNotNull(method);
+		assertTrue(method.getPrefix().startsWith("package "));
+		// 'local' is still in effect, and is replayed
+		assertEquals(3, method.getPrefixLines());
+		assertTrue(method.getPrefix().contains("local"));
+
+		SVIndentCheckpoint module_item = find(cps, 24);
+		assertNotNull(module_item);
+		assertEquals(1, module_item.getPrefixLines());
+
+		// No checkpoints in statements
+		assertNull(find(cps, 8));
+		assertNull(find(cps, 26));
+
+		// No checkpoints outside the adaptive-indent range
+		assertTrue(indent(fContent, 20).getCheckpoints().size() > 0);
+		for (SVIndentCheckpoint cp : indent(fContent, 20).getCheckpoints()) {
+			assertTrue(cp.getLineno() <= 20);
+		}
+	}
+
+	public void testResumeMatchesFullIndent() {
+		String lines[] = fContent.split("\n");
+		SVIndentCheckpointList list = new SVIndentCheckpointList();
+		list.update(indent(fContent, lines.length).getCheckpoints(), 1, lines.length+1);
+		int n_resumed = 0;
+
+		// Simulate a newline entered at the end of each line
+		for (int lineno=1; lineno<lines.length; lineno++) {
+			String full = insertMarker(lines, 0, lineno) + 
+					fContent.substring(lineOffset(lines, lineno));
+			String exp = indent(full, lineno).getLineIndent(lineno+1);
+
+			SVIndentCheckpoint cp = list.find(lineno);
+			String region;
+			ISVIndenter indenter;
+
+			if (cp != null) {
+				region = insertMarker(lines, cp.getLineno()-1, lineno);
+				indenter = indent(cp, region, lineno);
+				n_resumed++;
+			} else {
+				region = insertMarker(lines, 0, lineno);
+				indenter = indent(region, lineno);
+			}
+
+			assertEquals("Line " + (lineno+1), exp, indenter.getLineIndent(lineno+1));
+		}
+
+		assertTrue(n_resumed > 20);
+	}
+
+	public void testCheckpointInvalidate() {
+		SVIndentCheckpointList list = new SVIndentCheckpointList();
+		List<SVIndentCheckpoint> cps = indent(fContent, 32).getCheckpoints();
+
+		// Checkpoints beyond the edit are not retained
+		list.update(cps, 1, 24);
+		assertEquals(23, list.find(32).getLineno());
+
+		list.update(cps, 1, 33);
+		assertEquals(24, list.find(24).getLineno());
+
+		list.invalidate(13);
+		assertEquals(12, list.find(32).getLineno());
+		assertNull(list.find(0));
+	}
+
+	public void testSegmentedTextScanner() {
+		SegmentedTextScanner scanner = new SegmentedTextScanner("ab", "", "c\n", "d");
+		StringBuilder sb = new StringBuilder();
+		int ch;
+
+		assertEquals('a', scanner.get_ch());
+		assertEquals('b', scanner.get_ch());
+		assertEquals('c', scanner.get_ch());
+		scanner.unget_ch('c');
+		scanner.unget_ch('b');
+		assertEquals(1, scanner.getPos());
+
+		while ((ch = scanner.get_ch()) != -1) {
+			sb.append((char)ch);
+		}
+		assertEquals("bc\nd", sb.toString());
+		assertEquals(2, scanner.getLineno());
+	}
+
+	private static String insertMarker(String lines[], int start, int lineno) {
+		StringBuilder sb = new StringBuilder();
+		for (int i=start; i<lineno; i++) {
+			sb.append(lines[i]);
+			sb.append("\n");
+		}
+		sb.append("DUMMY=5;\n");
+		return sb.toString();
+	}
+
+	private static int lineOffset(String lines[], int lineno) {
+		int ret = 0;
+		for (int i=0; i<lineno; i++) {
+			ret += lines[i].length()+1;
+		}
+		return ret;
+	}
+
+	private static ISVIndenter indent(String content, int adaptive_end) {
+		ISVIndenter indenter = SVCorePlugin.getDefault().createIndenter();
+		indenter.init(new SVIndentScanner(new StringTextScanner(content)));
+		indenter.setAdaptiveIndent(true);
+		indenter.setAdaptiveIndentEnd(adaptive_end);
+		indenter.indent();
+
+		return indenter;
+	}
+
+	private static ISVIndenter indent(SVIndentCheckpoint cp, String region, int adaptive_end) {
+		SVIndentScanner scanner = new SVIndentScanner(
+				new SegmentedTextScanner(cp.getPrefix(), region));
+		scanner.setLineno(cp.getLineno()-cp.getPrefixLines());
+
+		ISVIndenter indenter = SVCorePlugin.getDefault().createIndenter();
+		indenter.init(scanner);
+		indenter.setAdaptiveIndent(true);
+		indenter.setAdaptiveIndentEnd(adaptive_end);
+		indenter.indent();
+
+		return indenter;
+	}
+
+	private static SVIndentCheckpoint find(List<SVIndentCheckpoint> cps, int lineno) {
+		for (SVIndentCheckpoint cp : cps) {
+			if (cp.getLineno() == lineno) {
+				return cp;
+			}
+		}
+		return null;
+	}
+
+}
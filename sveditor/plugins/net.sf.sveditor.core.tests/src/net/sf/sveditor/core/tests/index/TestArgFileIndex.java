@@ -22,13 +22,19 @@ import java.util.List;
 
 import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.ISVDBChildItem;
+import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBItem;
 import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.db.SVDBMarker;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.SVDBIndexCollection;
 import net.sf.sveditor.core.db.index.SVDBIndexRegistry;
 import net.sf.sveditor.core.db.index.SVDBWSFileSystemProvider;
+import net.sf.sveditor.core.db.index.argfile.SVDBArgFileBuildUtils;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexFactory;
 import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuild;
 import net.sf.sveditor.core.db.project.SVDBProjectData;
@@ -478,6 +484,197 @@ public class TestArgFileIndex extends SVCoreTestCaseBase {
 		LogFactory.removeLogHandle(log);
 	}
 
+	public void testMultiArgFileParallelBuild() throws IOException {
+		String testname = "testMultiArgFileParallelBuild";
+		CoreReleaseTests.clearErrors();
+		BundleUtils utils = new BundleUtils(SVCoreTestsPlugin.getDefault().getBundle());
+
+		LogHandle log = LogFactory.getLogHandle(testname);
+		SVCorePlugin.getDefault().enableDebug(false);
+	
+		final IProject project_dir = TestUtils.createProject(testname + "_project");
+		addProject(project_dir);
+		
+		utils.copyBundleDirToWS("/data/multi_arg_file/", project_dir);
+		
+		SVDBIndexRegistry rgy = SVCorePlugin.getDefault().getSVDBIndexRegistry();
+		
+		int n_threads = SVDBArgFileBuildUtils.getNumBuildThreads();
+		try {
+			SVDBArgFileBuildUtils.setNumBuildThreads(4);
+			ISVDBIndex index = rgy.findCreateIndex(new NullProgressMonitor(), "GENERIC", 
+					"${workspace_loc}/" + testname + "_project/multi_arg_file/multi_arg_file.f", 
+					SVDBArgFileIndexFactory.TYPE, null);
+			index.execIndexChangePlan(new NullProgressMonitor(), new SVDBIndexChangePlanRebuild(index));
+		
+			IndexTestUtils.assertNoErrWarn(fLog, index);
+			IndexTestUtils.assertFileHasElements(index, 
+					"top_package", "sub_package", "sub_sub_package");
+		} finally {
+			SVDBArgFileBuildUtils.setNumBuildThreads(n_threads);
+		}
+
+		assertEquals(0, CoreReleaseTests.getErrors().size());
+		LogFactory.removeLogHandle(log);
+	}
+
+	public void testParallelBuildFileIds() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		File test_dir = new File(fTmpDir, "parallel_build_file_ids");
+		assertTrue(test_dir.mkdirs());
+
+		int n_roots = 8;
+		StringBuilder argfile = new StringBuilder();
+		TestUtils.copy(
+				"`ifndef INCLUDED_COMMON_SVH\n" +
+				"`define INCLUDED_COMMON_SVH\n" +
+				"class common;\n" +
+				"endclass\n" +
+				"`endif\n",
+				new File(test_dir, "common.svh"));
+		for (int i=0; i<n_roots; i++) {
+			TestUtils.copy(
+					"`include \"common.svh\"\n" +
+					"`include \"inc_" + i + ".svh\"\n",
+					new File(test_dir, "r" + i + ".sv"));
+			TestUtils.copy(
+					"class cls_" + i + ";\n" +
+					"endclass\n",
+					new File(test_dir, "inc_" + i + ".svh"));
+			argfile.append("r" + i + ".sv\n");
+		}
+		TestUtils.copy(argfile.toString(), new File(test_dir, "files.f"));
+
+		SVDBIndexRegistry rgy = SVCorePlugin.getDefault().getSVDBIndexRegistry();
+
+		int n_threads = SVDBArgFileBuildUtils.getNumBuildThreads();
+		try {
+			ISVDBIndex index = rgy.findCreateIndex(new NullProgressMonitor(), "GENERIC",
+					new File(test_dir, "files.f").getAbsolutePath(),
+					SVDBArgFileIndexFactory.TYPE, null);
+
+			List<String> file_list = null;
+			for (int pass=0; pass<5; pass++) {
+				// The first build is sequential. Parallel builds must match it
+				SVDBArgFileBuildUtils.setNumBuildThreads((pass == 0)?1:4);
+				index.execIndexChangePlan(new NullProgressMonitor(), new SVDBIndexChangePlanRebuild(index));
+				IndexTestUtils.assertNoErrWarn(fLog, index);
+
+				List<String> pass_file_list = new ArrayList<String>();
+				for (String path : index.getFileList(new NullProgressMonitor())) {
+					pass_file_list.add(path);
+				}
+
+				if (file_list == null) {
+					file_list = pass_file_list;
+				} else {
+					// File ids are positions in the file list
+					assertEquals("File ids differ in pass " + pass, file_list, pass_file_list);
+				}
+
+				for (int i=0; i<n_roots; i++) {
+					String root = new File(test_dir, "r" + i + ".sv").getAbsolutePath();
+					SVDBFile file = index.findFile(root);
+					assertNotNull("Failed to find " + root, file);
+
+					ISVDBItemBase cls = null;
+					for (ISVDBChildItem c : file.getChildren()) {
+						if (SVDBItem.getName(c).equals("cls_" + i)) {
+							cls = c;
+						}
+					}
+					assertNotNull("Failed to find cls_" + i, cls);
+
+					int file_id = SVDBLocation.unpackFileId(cls.getLocation());
+					assertTrue(file_id > 0 && file_id <= pass_file_list.size());
+					assertTrue(pass_file_list.get(file_id-1).endsWith("inc_" + i + ".svh"));
+					
+					if (i > 0) {
+						// common.svh was first included by r0, so later roots 
+						// take its macros from the include-file cache
+						SVDBFileTree ft = index.findFileTree(root, false);
+						assertNotNull("Failed to find file tree for " + root, ft);
+						SVDBFileTree common_ft = null;
+						for (SVDBFileTree ft_i : ft.getIncludedFileTreeList()) {
+							if (ft_i.getFilePath().endsWith("common.svh")) {
+								common_ft = ft_i;
+							}
+						}
+						assertNotNull("Failed to find common.svh in " + root, common_ft);
+						assertNull("Include cache not used for " + root + " in pass " + pass, 
+								common_ft.getSVDBFile());
+					}
+				}
+			}
+		} finally {
+			SVDBArgFileBuildUtils.setNumBuildThreads(n_threads);
+		}
+	}
+
+	public void testParallelBuildManyRoots() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		File test_dir = new File(fTmpDir, "parallel_build_many_roots");
+		assertTrue(test_dir.mkdirs());
+
+		// Every root creates its own pre-processor and parsers, each of
+		// which registers log-level listeners on the shared log handles
+		int n_roots = 64;
+		StringBuilder argfile = new StringBuilder();
+		TestUtils.copy(
+				"`ifndef INCLUDED_COMMON_SVH\n" +
+				"`define INCLUDED_COMMON_SVH\n" +
+				"class common;\n" +
+				"endclass\n" +
+				"`endif\n",
+				new File(test_dir, "common.svh"));
+		for (int i=0; i<n_roots; i++) {
+			TestUtils.copy(
+					"`include \"common.svh\"\n" +
+					"class cls_" + i + " extends common;\n" +
+					"  int field_" + i + ";\n" +
+					"  function void f();\n" +
+					"    field_" + i + " = " + i + ";\n" +
+					"  endfunction\n" +
+					"endclass\n" +
+					"module m_" + i + ";\n" +
+					"endmodule\n",
+					new File(test_dir, "r" + i + ".sv"));
+			argfile.append("r" + i + ".sv\n");
+		}
+		TestUtils.copy(argfile.toString(), new File(test_dir, "files.f"));
+
+		SVDBIndexRegistry rgy = SVCorePlugin.getDefault().getSVDBIndexRegistry();
+
+		int n_threads = SVDBArgFileBuildUtils.getNumBuildThreads();
+		try {
+			SVDBArgFileBuildUtils.setNumBuildThreads(8);
+			ISVDBIndex index = rgy.findCreateIndex(new NullProgressMonitor(), "GENERIC",
+					new File(test_dir, "files.f").getAbsolutePath(),
+					SVDBArgFileIndexFactory.TYPE, null);
+
+			for (int pass=0; pass<8; pass++) {
+				index.execIndexChangePlan(new NullProgressMonitor(), new SVDBIndexChangePlanRebuild(index));
+				IndexTestUtils.assertNoErrWarn(fLog, index);
+
+				for (int i=0; i<n_roots; i++) {
+					String root = new File(test_dir, "r" + i + ".sv").getAbsolutePath();
+					SVDBFile file = index.findFile(root);
+					assertNotNull("Failed to find " + root + " in pass " + pass, file);
+				}
+				IndexTestUtils.assertFileHasElements(index, "common", "cls_0", 
+						"cls_" + (n_roots-1), "m_0", "m_" + (n_roots-1));
+			}
+		} finally {
+			SVDBArgFileBuildUtils.setNumBuildThreads(n_threads);
+		}
+
+		// Notifying the listeners walks the list the workers appended to
+		LogHandle parser_log = LogFactory.getLogHandle("ParserSVDBFileFactory");
+		int level = parser_log.getDebugLevel();
+		parser_log.setDebugLevel(level+1);
+		parser_log.setDebugLevel(level);
+	}
+
 	public void testMultiArgFileEnvVar() throws IOException {
 		String testname = "testMultiArgFileEnvVar";
 		CoreReleaseTests.clearErrors();
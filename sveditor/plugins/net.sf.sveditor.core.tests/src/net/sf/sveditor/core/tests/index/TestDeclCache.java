@@ -1,13 +1,29 @@
 package net.sf.sveditor.core.tests.index;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.db.ISVDBItemBase;
+import net.sf.sveditor.core.db.ISVDBNamedItem;
+import net.sf.sveditor.core.db.SVDBItem;
+import net.sf.sveditor.core.db.SVDBItemType;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
+import net.sf.sveditor.core.db.index.SVDBDeclNameIndex;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexFactory;
+import net.sf.sveditor.core.db.search.ISVDBFindNameMatcher;
+import net.sf.sveditor.core.db.search.SVDBAllTypeMatcher;
 import net.sf.sveditor.core.db.search.SVDBFindByNameMatcher;
+import net.sf.sveditor.core.db.search.SVDBFindClassMatcher;
+import net.sf.sveditor.core.db.search.SVDBFindContentAssistNameMatcher;
+import net.sf.sveditor.core.db.search.SVDBFindDefaultNameMatcher;
+import net.sf.sveditor.core.db.search.SVDBFindPackageDefaultNameMatcher;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
 import net.sf.sveditor.core.tests.IndexTestUtils;
@@ -135,4 +151,113 @@ public class TestDeclCache extends SVCoreTestCaseBase {
 				"m1_r1", "m1_r2", "m1_r3",
 				"m2_r1", "m2_r2", "m2_r3");
 	}
+	
+	public void testDeclItemLocation() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		BundleUtils utils = new BundleUtils(SVCoreTestsPlugin.getDefault().getBundle());
+		IProject p = TestUtils.createProject("package_cache_include", fTmpDir);
+		addProject(p);
+
+		utils.copyBundleDirToWS("/data/index/package_cache_include", p);
+	
+		ISVDBIndex index = fIndexRgy.findCreateIndex(
+				new NullProgressMonitor(),
+				p.getName(),
+				"${workspace_loc}/package_cache_include/package_cache_include/package_cache_include.f",
+				SVDBArgFileIndexFactory.TYPE,
+				null);
+	
+		index.init(new NullProgressMonitor(), SVCorePlugin.getDefault().getIndexBuilder());
+		index.loadIndex(new NullProgressMonitor());
+		
+		List<SVDBDeclCacheItem> items = index.findGlobalScopeDecl(
+				new NullProgressMonitor(), "", new ISVDBFindNameMatcher() {
+					public boolean match(ISVDBNamedItem it, String name) {
+						return true;
+					}
+				});
+		
+		List<SVDBDeclCacheItem> pkg_list = index.findGlobalScopeDecl(new NullProgressMonitor(), 
+				"package_cache_include_pkg", new SVDBFindByNameMatcher());
+		assertEquals(1, pkg_list.size());
+		items.addAll(index.findPackageDecl(new NullProgressMonitor(), pkg_list.get(0)));
+		assertTrue(items.size() > 2);
+		
+		for (SVDBDeclCacheItem item : items) {
+			assertTrue("No location for " + item.getName(), item.getLocation() != -1);
+			ISVDBItemBase it = item.getSVDBItem();
+			assertNotNull("Failed to find " + item.getName(), it);
+			assertEquals(item.getType(), it.getType());
+			assertEquals(item.getName(), SVDBItem.getName(it));
+			
+			// Subsequent lookups return the same item
+			assertSame(it, item.getSVDBItem());
+		}
+	}
+	
+	public void testDeclNameIndex() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		Map<String, List<SVDBDeclCacheItem>> decl_cache = 
+				new HashMap<String, List<SVDBDeclCacheItem>>();
+		List<SVDBDeclCacheItem> f1 = new ArrayList<SVDBDeclCacheItem>();
+		f1.add(new SVDBDeclCacheItem(null, "f1.sv", "my_pkg", SVDBItemType.PackageDecl, false));
+		f1.add(new SVDBDeclCacheItem(null, "f1.sv", "my_class", SVDBItemType.ClassDecl, false));
+		f1.add(new SVDBDeclCacheItem(null, "f1.sv", "My_Class", SVDBItemType.ClassDecl, false));
+		f1.add(new SVDBDeclCacheItem(null, "f1.sv", "my_mod", SVDBItemType.ModuleDecl, false));
+		decl_cache.put("f1.sv", f1);
+		List<SVDBDeclCacheItem> f2 = new ArrayList<SVDBDeclCacheItem>();
+		f2.add(new SVDBDeclCacheItem(null, "f2.sv", "other_class", SVDBItemType.ClassDecl, false));
+		f2.add(new SVDBDeclCacheItem(null, "f2.sv", "my_ifc", SVDBItemType.InterfaceDecl, false));
+		decl_cache.put("f2.sv", f2);
+		
+		SVDBDeclNameIndex index = new SVDBDeclNameIndex(decl_cache);
+		
+		assertEquals(1, index.findByName("my_class").size());
+		assertEquals(2, index.findByNameNoCase("MY_CLASS").size());
+		assertEquals(5, index.findByPrefixNoCase("my_").size());
+		assertEquals(3, index.findByType(SVDBItemType.ClassDecl).size());
+		
+		// Indexed queries must return the same items as a full scan
+		ISVDBFindNameMatcher matchers[] = {
+				SVDBFindDefaultNameMatcher.getDefault(),
+				new SVDBFindByNameMatcher(SVDBItemType.ClassDecl),
+				new SVDBFindContentAssistNameMatcher(),
+				new SVDBFindContentAssistNameMatcher(SVDBItemType.ModuleDecl),
+				new SVDBFindClassMatcher(),
+				new SVDBAllTypeMatcher(),
+				SVDBFindPackageDefaultNameMatcher.getDefault()
+		};
+		String names[] = {"my_class", "My", "", "my_pkg", "other_class"};
+		
+		for (ISVDBFindNameMatcher m : matchers) {
+			for (String name : names) {
+				Set<SVDBDeclCacheItem> exp = new HashSet<SVDBDeclCacheItem>();
+				for (List<SVDBDeclCacheItem> l : decl_cache.values()) {
+					for (SVDBDeclCacheItem it : l) {
+						if (m.match(it, name)) {
+							exp.add(it);
+						}
+					}
+				}
+				List<SVDBDeclCacheItem> res = index.find(name, m);
+				assertEquals(m.getClass().getName() + " \"" + name + "\"",
+						exp, new HashSet<SVDBDeclCacheItem>(res));
+				assertEquals(exp.size(), res.size());
+			}
+		}
+		
+		// Incremental update replaces the file's declarations
+		List<SVDBDeclCacheItem> f2_n = new ArrayList<SVDBDeclCacheItem>();
+		f2_n.add(new SVDBDeclCacheItem(null, "f2.sv", "my_class2", SVDBItemType.ClassDecl, false));
+		index.setFile("f2.sv", f2_n);
+		
+		assertEquals(0, index.findByName("other_class").size());
+		assertEquals(0, index.findByName("my_ifc").size());
+		assertEquals(1, index.findByName("my_class2").size());
+		assertEquals(3, index.findByType(SVDBItemType.ClassDecl).size());
+		
+		index.setFile("f1.sv", null);
+		assertEquals(1, index.findByPrefixNoCase("my").size());
+		assertEquals(1, index.getNumFiles());
+	}
 }
@@ -0,0 +1,207 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.tests.index;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.sveditor.core.StringInputStream;
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.ISVDBChildItem;
+import net.sf.sveditor.core.db.ISVDBChildParent;
+import net.sf.sveditor.core.db.ISVDBEndLocation;
+import net.sf.sveditor.core.db.ISVDBItemBase;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBItem;
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.ISVDBIndexParse;
+import net.sf.sveditor.core.db.index.SVDBIncrementalParser;
+import net.sf.sveditor.core.preproc.ISVStringPreProcessor;
+import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
+import net.sf.sveditor.core.tests.SVDBTestUtils;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Checks that an incremental re-parse produces the same file
+ * and markers as a full parse of the new content
+ *
+ * @author ballance
+ *
+ */
+public class TestIncrementalParse extends SVCoreTestCaseBase {
+
+	private static final String				fContent =
+			"`define WIDTH 8\n" +							// 1
+			"\n" +
+			"class c1;\n" +									// 3
+			"	int a;\n" +
+			"	function void f1();\n" +					// 5
+			"		a = 1;\n" +
+			"	endfunction\n" +							// 7
+			"endclass\n" +
+			"\n" +											// 9
+			"class c2;\n" +
+			"	bit [`WIDTH-1:0] b;\n" +					// 11
+			"	task t1();\n" +
+			"		b = 2;\n" +								// 13
+			"	endtask\n" +
+			"endclass\n" +									// 15
+			"\n" +
+			"module m;\n" +									// 17
+			"	c1 c1_i;\n" +
+			"	c2 c2_i;\n" +								// 19
+			"endmodule\n";
+
+	private ISVDBIndexParse					fParser = new ISVDBIndexParse() {
+
+		public Tuple<SVDBFile, SVDBFile> parse(
+				IProgressMonitor 	monitor,
+				InputStream 		in,
+				String 				path,
+				List<SVDBMarker> 	markers) {
+			return SVDBTestUtils.parse(null, in, path, markers);
+		}
+
+		public ISVStringPreProcessor createPreProc(
+				String 			path,
+				InputStream 	in,
+				int 			limit_lineno) {
+			return null;
+		}
+	};
+
+	public void testInsertLines() {
+		runTest(fContent, fContent.replace(
+				"		a = 1;\n",
+				"		a = 1;\n		a = 2;\n		a = 3;\n"), true);
+	}
+
+	public void testRemoveLines() {
+		runTest(fContent, fContent.replace(
+				"	int a;\n	function void f1();\n		a = 1;\n	endfunction\n",
+				"	int a;\n"), true);
+	}
+
+	public void testModifyLine() {
+		runTest(fContent, fContent.replace("b = 2;", "b = 2 + 4;"), true);
+	}
+
+	public void testSyntaxError() {
+		String content = fContent.replace(
+				"	int a;\n", "	int a\n	rand int a2;\n");
+		List<SVDBMarker> markers = runTest(fContent, content, true);
+		assertTrue(markers.size() > 0);
+	}
+
+	public void testStructureChange() {
+		// Splitting a class requires a full parse
+		runTest(fContent, fContent.replace(
+				"	int a;\n", "	int a;\nendclass\nclass c3;\n"), false);
+	}
+
+	public void testDirectiveChange() {
+		runTest(fContent, fContent.replace(
+				"		b = 2;\n", "		b = 2;\n`define B 2\n"), false);
+	}
+
+	public void testUnchanged() {
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+		SVDBFile file = fParser.parse(new NullProgressMonitor(),
+				new StringInputStream(fContent), "test.sv", markers).second();
+		String exp = toString(file);
+
+		// Identical content does not require a parse
+		SVDBIncrementalParser.Result r = new SVDBIncrementalParser(fParser).reparse(
+				new NullProgressMonitor(), "test.sv", file, markers,
+				fContent, new String(fContent));
+
+		assertNotNull(r);
+		assertTrue(r.fUnchanged);
+		assertSame(file, r.fFile);
+		assertSame(markers, r.fMarkers);
+		assertEquals(exp, toString(r.fFile));
+	}
+
+	public void testChangeOutsideScope() {
+		runTest(fContent, fContent.replace(
+				"endclass\n\nclass c2", "endclass\nint x;\nclass c2"), false);
+	}
+
+	private List<SVDBMarker> runTest(
+			String			old_content,
+			String			new_content,
+			boolean			exp_incr) {
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+		SVDBFile file = fParser.parse(new NullProgressMonitor(),
+				new StringInputStream(old_content), "test.sv", markers).second();
+
+		SVDBIncrementalParser.Result r = new SVDBIncrementalParser(fParser).reparse(
+				new NullProgressMonitor(), "test.sv", file, markers,
+				old_content, new_content);
+
+		if (!exp_incr) {
+			assertNull(r);
+			return null;
+		}
+
+		assertNotNull(r);
+		assertSame(file, r.fFile);
+
+		List<SVDBMarker> exp_markers = new ArrayList<SVDBMarker>();
+		SVDBFile exp_file = fParser.parse(new NullProgressMonitor(),
+				new StringInputStream(new_content), "test.sv", exp_markers).second();
+
+		assertEquals(toString(exp_file), toString(r.fFile));
+		assertEquals(toString(exp_markers), toString(r.fMarkers));
+
+		return r.fMarkers;
+	}
+
+	private static String toString(SVDBFile file) {
+		StringBuilder sb = new StringBuilder();
+		for (ISVDBChildItem c : file.getChildren()) {
+			toString(c, sb, "");
+		}
+		return sb.toString();
+	}
+
+	private static void toString(ISVDBItemBase item, StringBuilder sb, String ind) {
+		sb.append(ind + item.getType() + " " + SVDBItem.getName(item) + " " +
+				SVDBLocation.toString(item.getLocation()));
+		if (item instanceof ISVDBEndLocation) {
+			sb.append(" end=" + SVDBLocation.toString(
+					((ISVDBEndLocation)item).getEndLocation()));
+		}
+		sb.append("\n");
+		if (item instanceof ISVDBChildParent) {
+			for (ISVDBChildItem c : ((ISVDBChildParent)item).getChildren()) {
+				toString(c, sb, ind + "  ");
+			}
+		}
+	}
+
+	private static String toString(List<SVDBMarker> markers) {
+		List<String> ret = new ArrayList<String>();
+		for (SVDBMarker m : markers) {
+			ret.add(SVDBLocation.unpackLineno(m.getLocation()) + ": " + m.getMessage());
+		}
+		Collections.sort(ret);
+		return ret.toString();
+	}
+
+}
@@ -0,0 +1,205 @@
+package net.sf.sveditor.core.tests.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.sveditor.core.db.index.SVDBIndexResourceChangeEvent;
+import net.sf.sveditor.core.db.index.builder.ISVDBIndexBuildJob;
+import net.sf.sveditor.core.db.index.builder.ISVDBIndexChangePlan;
+import net.sf.sveditor.core.db.index.builder.ISVDBIndexChangePlanner;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexBuilder;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlan;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuild;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuildFiles;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuildFiles.FileListType;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRefresh;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRemoveFiles;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanType;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+public class TestIndexBuilder extends TestCase {
+
+	/**
+	 * Planner that records the plans it executes. Execution of
+	 * a plan blocks while the planner is held
+	 */
+	private static class TestPlanner implements ISVDBIndexChangePlanner {
+		private List<ISVDBIndexChangePlan>		fExecuted = new ArrayList<ISVDBIndexChangePlan>();
+		private List<Boolean>					fCanceled = new ArrayList<Boolean>();
+		private boolean							fHold;
+		private boolean							fRunning;
+
+		public ISVDBIndexChangePlan createIndexChangePlan(
+				List<SVDBIndexResourceChangeEvent> changes) {
+			return new SVDBIndexChangePlan(this, SVDBIndexChangePlanType.Empty);
+		}
+
+		public void execIndexChangePlan(IProgressMonitor monitor, ISVDBIndexChangePlan plan) {
+			synchronized (this) {
+				fRunning = true;
+				notifyAll();
+				while (fHold && !monitor.isCanceled()) {
+					try {
+						wait(10);
+					} catch (InterruptedException e) {}
+				}
+				fRunning = false;
+				fExecuted.add(plan);
+				fCanceled.add(monitor.isCanceled());
+			}
+		}
+
+		public synchronized void hold(boolean hold) {
+			fHold = hold;
+			notifyAll();
+		}
+
+		public synchronized void waitRunning() throws InterruptedException {
+			while (!fRunning) {
+				wait();
+			}
+		}
+	}
+
+	public void testPlanMerge() {
+		TestPlanner p = new TestPlanner();
+
+		// An incremental build supersedes a refresh
+		ISVDBIndexChangePlan plan = new SVDBIndexChangePlanRefresh(p).merge(
+				rebuildFiles(p, FileListType.Source, "a.sv"));
+		assertEquals(SVDBIndexChangePlanType.RebuildFiles, plan.getType());
+
+		// Files are combined
+		plan = plan.merge(rebuildFiles(p, FileListType.Source, "b.sv", "a.sv"));
+		assertEquals(SVDBIndexChangePlanType.RebuildFiles, plan.getType());
+		assertEquals(Arrays.asList("a.sv", "b.sv"),
+				((SVDBIndexChangePlanRebuildFiles)plan).getFileList());
+
+		// Source and filelist changes require a full rebuild
+		assertEquals(SVDBIndexChangePlanType.RebuildIndex, plan.merge(
+				rebuildFiles(p, FileListType.Filelist, "a.f")).getType());
+
+		SVDBIndexChangePlanRemoveFiles rm1 = new SVDBIndexChangePlanRemoveFiles(p);
+		SVDBIndexChangePlanRemoveFiles rm2 = new SVDBIndexChangePlanRemoveFiles(p);
+		rm1.addFile("a.sv");
+		rm2.addFile("b.sv");
+		plan = rm1.merge(rm2);
+		assertEquals(Arrays.asList("a.sv", "b.sv"),
+				((SVDBIndexChangePlanRemoveFiles)plan).getFiles());
+		assertEquals(SVDBIndexChangePlanType.RebuildIndex,
+				plan.merge(rebuildFiles(p, FileListType.Source, "c.sv")).getType());
+
+		// A full rebuild supersedes everything
+		assertEquals(SVDBIndexChangePlanType.RebuildIndex, rm1.merge(
+				new SVDBIndexChangePlanRebuild(p)).getType());
+		assertEquals(SVDBIndexChangePlanType.RebuildIndex, new SVDBIndexChangePlanRebuild(p).merge(
+				new SVDBIndexChangePlanRefresh(p)).getType());
+
+		// Plans for different indexes are never merged
+		assertNull(new SVDBIndexChangePlanRefresh(p).merge(
+				new SVDBIndexChangePlanRefresh(new TestPlanner())));
+	}
+
+	public void testCoalesceBurst() {
+		TestPlanner p = new TestPlanner();
+		SVDBIndexBuilder builder = new SVDBIndexBuilder();
+		builder.setDebounceDelay(200);
+
+		ISVDBIndexBuildJob job = builder.build(new SVDBIndexChangePlanRefresh(p));
+		for (int i=0; i<10; i++) {
+			assertSame(job, builder.build(rebuildFiles(p, FileListType.Source, "f" + i + ".sv")));
+		}
+		job.waitComplete();
+		builder.dispose();
+
+		assertEquals(10, builder.getNumMerged());
+		assertEquals(1, p.fExecuted.size());
+		assertEquals(10, ((SVDBIndexChangePlanRebuildFiles)p.fExecuted.get(0)).getFileList().size());
+	}
+
+	public void testQueueBehindRunningJob() throws InterruptedException {
+		TestPlanner p1 = new TestPlanner();
+		TestPlanner p2 = new TestPlanner();
+		SVDBIndexBuilder builder = new SVDBIndexBuilder();
+		builder.setDebounceDelay(0);
+
+		p1.hold(true);
+		ISVDBIndexBuildJob j1 = builder.build(rebuildFiles(p1, FileListType.Source, "a.sv"));
+		p1.waitRunning();
+
+		// Changes that arrive while the build runs are merged into one follow-on job
+		ISVDBIndexBuildJob j2 = builder.build(rebuildFiles(p1, FileListType.Source, "b.sv"));
+		assertNotSame(j1, j2);
+		assertSame(j2, builder.build(rebuildFiles(p1, FileListType.Source, "c.sv")));
+
+		// Other indexes are not held up
+		builder.build(new SVDBIndexChangePlanRebuild(p2)).waitComplete();
+		assertEquals(1, p2.fExecuted.size());
+		assertEquals(0, p1.fExecuted.size());
+
+		p1.hold(false);
+		builder.dispose();
+
+		assertEquals(2, p1.fExecuted.size());
+		assertEquals(Arrays.asList("b.sv", "c.sv"),
+				((SVDBIndexChangePlanRebuildFiles)p1.fExecuted.get(1)).getFileList());
+		assertEquals(1, builder.getNumMerged());
+	}
+
+	public void testCancelSuperseded() throws InterruptedException {
+		TestPlanner p = new TestPlanner();
+		SVDBIndexBuilder builder = new SVDBIndexBuilder();
+		builder.setDebounceDelay(0);
+
+		p.hold(true);
+		builder.build(rebuildFiles(p, FileListType.Source, "a.sv"));
+		p.waitRunning();
+
+		// The full rebuild cancels the running incremental build
+		builder.build(new SVDBIndexChangePlanRebuild(p));
+		p.hold(false);
+		builder.dispose();
+
+		assertEquals(2, p.fExecuted.size());
+		assertTrue(p.fCanceled.get(0));
+		assertEquals(SVDBIndexChangePlanType.RebuildIndex, p.fExecuted.get(1).getType());
+	}
+
+	public void testCancelBeforeRun() {
+		TestPlanner p = new TestPlanner();
+		SVDBIndexBuilder builder = new SVDBIndexBuilder();
+		builder.setDebounceDelay(60000);
+
+		// Cancel the job while it waits out the debounce delay
+		ISVDBIndexBuildJob j1 = builder.build(rebuildFiles(p, FileListType.Source, "a.sv"));
+		((Job)j1).cancel();
+		j1.waitComplete();
+		assertNull(builder.findJob(p));
+
+		// Later plans are not merged into the cancelled job
+		builder.setDebounceDelay(0);
+		ISVDBIndexBuildJob j2 = builder.build(rebuildFiles(p, FileListType.Source, "b.sv"));
+		assertNotSame(j1, j2);
+		j2.waitComplete();
+		builder.dispose();
+
+		assertEquals(1, p.fExecuted.size());
+		assertEquals(Arrays.asList("b.sv"),
+				((SVDBIndexChangePlanRebuildFiles)p.fExecuted.get(0)).getFileList());
+	}
+
+	private static SVDBIndexChangePlanRebuildFiles rebuildFiles(
+			ISVDBIndexChangePlanner planner, FileListType type, String ... files) {
+		SVDBIndexChangePlanRebuildFiles plan = new SVDBIndexChangePlanRebuildFiles(planner);
+		plan.setFileListType(type);
+		for (String f : files) {
+			plan.addFile(f);
+		}
+		return plan;
+	}
+
+}
@@ -16,6 +16,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,17 +25,24 @@ import net.sf.sveditor.core.db.ISVDBChildItem;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.SVDBItem;
 import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.db.SVDBModIfcInst;
 import net.sf.sveditor.core.db.SVDBModuleDecl;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.ISVDBIndexIterator;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
+import net.sf.sveditor.core.db.index.SVDBRefNameIndex;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexFactory;
 import net.sf.sveditor.core.db.refs.SVDBFileRefCollector;
+import net.sf.sveditor.core.db.refs.SVDBFileRefFinder;
 import net.sf.sveditor.core.db.refs.SVDBRefCacheItem;
 import net.sf.sveditor.core.db.refs.SVDBRefCollectorVisitor;
 import net.sf.sveditor.core.db.refs.SVDBRefItem;
+import net.sf.sveditor.core.db.refs.SVDBRefMatcher;
+import net.sf.sveditor.core.db.refs.SVDBRefSearchSpecByName;
 import net.sf.sveditor.core.db.refs.SVDBRefSearchSpecModIfcRefsByName;
+import net.sf.sveditor.core.db.refs.SVDBRefType;
 import net.sf.sveditor.core.db.search.SVDBFindByNameMatcher;
 import net.sf.sveditor.core.db.search.SVDBFindByTypeMatcher;
 import net.sf.sveditor.core.log.LogFactory;
@@ -42,6 +50,7 @@ import net.sf.sveditor.core.log.LogHandle;
 import net.sf.sveditor.core.tests.IndexTestUtils;
 import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
 import net.sf.sveditor.core.tests.SVCoreTestsPlugin;
+import net.sf.sveditor.core.tests.SVDBTestUtils;
 import net.sf.sveditor.core.tests.utils.BundleUtils;
 import net.sf.sveditor.core.tests.utils.TestUtils;
 
@@ -148,6 +157,81 @@ public class TestIndexFileRefs extends SVCoreTestCaseBase {
 		LogFactory.removeLogHandle(log);
 	}
 
+	public void testRefNameIndex() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		String doc =
+			"class base_c;\n" +
+			"endclass\n" +
+			"\n" +
+			"class ext_c extends base_c;\n" +
+			"	base_c		b1;\n" +
+			"	base_c		b2;\n" +
+			"endclass\n"
+			;
+		SVDBFile file = SVDBTestUtils.parse(doc, getName());
+		
+		SVDBRootFileCacheData root_data = new SVDBRootFileCacheData();
+		SVDBFileRefFinder finder = new SVDBFileRefFinder();
+		finder.setRefVisitor(new SVDBFileRefCollector(null, root_data));
+		finder.visit(file);
+		
+		assertEquals(root_data.fRefNames.size(), root_data.fRefLocations.size());
+		assertEquals(root_data.fRefNames.size(), root_data.fRefTypes.size());
+		
+		Map<String, SVDBRootFileCacheData> root_m = new HashMap<String, SVDBRootFileCacheData>();
+		root_m.put("root.sv", root_data);
+		SVDBRefNameIndex index = new SVDBRefNameIndex(root_m);
+		
+		// The index must report the same references as a walk of the file
+		SVDBRefSearchSpecByName spec = new SVDBRefSearchSpecByName("base_c");
+		SVDBRefCollectorVisitor visitor = new SVDBRefCollectorVisitor();
+		finder = new SVDBFileRefFinder();
+		finder.setRefVisitor(new SVDBRefMatcher(spec, visitor));
+		finder.visit(file);
+		
+		List<SVDBRefItem> refs = index.findByName("base_c");
+		assertEquals(3, visitor.getItemList().size());
+		assertEquals(visitor.getItemList().size(), refs.size());
+		
+		for (SVDBRefItem ref : refs) {
+			assertNull(ref.getRoot());
+			assertEquals("base_c", ref.getRefName());
+			assertTrue(ref.getLocation() != -1);
+			
+			boolean found = false;
+			for (SVDBRefItem w_ref : visitor.getItemList()) {
+				if (w_ref.getLocation() == ref.getLocation() && 
+						w_ref.getRefType() == ref.getRefType()) {
+					found = true;
+					break;
+				}
+			}
+			assertTrue("Reference at " + SVDBLocation.toString(ref.getLocation()) +
+					" not found by walking the file", found);
+		}
+		
+		// Reference types can narrow the search
+		spec = new SVDBRefSearchSpecByName("base_c", SVDBRefType.ImportReference);
+		for (SVDBRefItem ref : refs) {
+			assertFalse(spec.matches(ref.getLocation(), ref.getRefType(), null, ref.getRefName()));
+		}
+		
+		assertEquals(1, index.findFileIds("base_c").size());
+		assertEquals(0, index.findByName("ext_c").size());
+		
+		// Re-parsed root files replace their references
+		index.setFile("root.sv", new SVDBRootFileCacheData());
+		assertFalse(index.containsName("base_c"));
+		assertEquals(0, index.findByName("base_c").size());
+		
+		index.setFile("root.sv", root_data);
+		assertEquals(3, index.findByName("base_c").size());
+		
+		index.setFile("root.sv", null);
+		assertEquals(0, index.getNumFiles());
+		assertEquals(0, index.findByName("base_c").size());
+	}
+
 	public void testModuleInstRefs() {
 		SVCorePlugin.getDefault().enableDebug(false);
 		BundleUtils utils = new BundleUtils(SVCoreTestsPlugin.getDefault().getBundle());
@@ -13,6 +13,7 @@
 package net.sf.sveditor.core.tests.index;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,11 +22,13 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.NullProgressMonitor;
 
 import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.StringInputStream;
 import net.sf.sveditor.core.Tuple;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.SVDBMarker;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.ISVDBIndexChangeListener;
+import net.sf.sveditor.core.db.index.SVDBFileFingerprint;
 import net.sf.sveditor.core.db.index.SVDBIndexChangeEvent;
 import net.sf.sveditor.core.db.index.SVDBIndexChangeEvent.Type;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexFactory;
@@ -55,6 +58,89 @@ public class TestIndexPersistance extends SVCoreTestCaseBase implements ISVDBInd
 		}
 	}
 
+	public void testUnchangedContentKeepsCache() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		
+		File test_dir = new File(fTmpDir, "testUnchangedContentKeepsCache");
+		assertTrue(test_dir.mkdirs());
+		
+		File inc = new File(test_dir, "cls1.svh");
+		TestUtils.copy(
+				"class cls1;\n" +
+				"endclass\n",
+				inc);
+		TestUtils.copy(
+				"`include \"cls1.svh\"\n" +
+				"module top1;\n" +
+				"endmodule\n",
+				new File(test_dir, "top1.sv"));
+		TestUtils.copy(
+				"module top2;\n" +
+				"endmodule\n",
+				new File(test_dir, "top2.sv"));
+		TestUtils.copy(
+				"top1.sv\n" +
+				"top2.sv\n",
+				new File(test_dir, "files.f"));
+		
+		String argfile = new File(test_dir, "files.f").getAbsolutePath();
+		
+		ISVDBIndex index = fIndexRgy.findCreateIndex(new NullProgressMonitor(), 
+				"GLOBAL", argfile, SVDBArgFileIndexFactory.TYPE, null);
+		index.addChangeListener(this);
+		fRebuildCount=0;
+		index.loadIndex(new NullProgressMonitor());
+		assertEquals(1, fRebuildCount);
+		IndexTestUtils.assertFileHasElements(index, "cls1", "top1", "top2");
+		
+		// Touch the include file without changing its content
+		reinitializeIndexRegistry();
+		assertTrue(inc.setLastModified(inc.lastModified()+10000));
+		
+		index = fIndexRgy.findCreateIndex(new NullProgressMonitor(), 
+				"GLOBAL", argfile, SVDBArgFileIndexFactory.TYPE, null);
+		index.addChangeListener(this);
+		fRebuildCount=0;
+		index.loadIndex(new NullProgressMonitor());
+		assertEquals(0, fRebuildCount);
+		IndexTestUtils.assertFileHasElements(index, "cls1", "top1", "top2");
+		
+		// Change the include file. Only its root file is re-parsed
+		reinitializeIndexRegistry();
+		TestUtils.copy(
+				"class cls1_1;\n" +
+				"endclass\n",
+				inc);
+		assertTrue(inc.setLastModified(inc.lastModified()+20000));
+		
+		index = fIndexRgy.findCreateIndex(new NullProgressMonitor(), 
+				"GLOBAL", argfile, SVDBArgFileIndexFactory.TYPE, null);
+		index.addChangeListener(this);
+		fRebuildCount=0;
+		index.loadIndex(new NullProgressMonitor());
+		assertEquals(0, fRebuildCount);
+		IndexTestUtils.assertFileHasElements(index, "cls1_1", "top1", "top2");
+	}
+
+	public void testFingerprintFromRead() throws IOException {
+		String content = 
+				"class cls1;\n" +
+				"endclass\n";
+		
+		SVDBFileFingerprint.HashInputStream in = new SVDBFileFingerprint.HashInputStream(
+				new StringInputStream(content), 1000);
+		
+		// The fingerprint is only available once the content is fully read
+		in.read();
+		assertNull(in.getFingerprint());
+		while (in.read() != -1) { }
+		
+		SVDBFileFingerprint fp = in.getFingerprint();
+		assertNotNull(fp);
+		assertEquals(1000, fp.fTimestamp);
+		assertEquals(SVDBFileFingerprint.computeHash(new StringInputStream(content)), fp.fHash);
+	}
+
 	public void disabled_testWSArgFileIndex() {
 		SVCorePlugin.getDefault().enableDebug(false);
 // 		SVCorePlugin.getDefault().setDebugLevel(0);
@@ -11,13 +11,18 @@ import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.ISVDBIndexChangeListener;
+import net.sf.sveditor.core.db.index.ISVDBIndexStatsProvider;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
 import net.sf.sveditor.core.db.index.SVDBIndexChangeEvent;
+import net.sf.sveditor.core.db.index.SVDBIndexFileStats;
 import net.sf.sveditor.core.db.index.SVDBIndexResourceChangeEvent;
 import net.sf.sveditor.core.db.index.SVDBIndexResourceChangeEvent.Type;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
 import net.sf.sveditor.core.db.index.SVDBWSFileSystemProvider;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndex;
 import net.sf.sveditor.core.db.index.builder.ISVDBIndexChangePlan;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuildFiles;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanType;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
 import net.sf.sveditor.core.db.project.SVDBProjectData;
 import net.sf.sveditor.core.db.project.SVDBProjectManager;
@@ -225,6 +230,171 @@ public class TestIncrementalIndex extends SVCoreTestCaseBase implements ISVDBInd
 		index.execIndexChangePlan(new NullProgressMonitor(), plan);
 	}	
 	
+	public void testDependentRootFiles() {
+		String project_path = "${workspace_loc}/" + getName();
+		File project_dir = new File(fTmpDir, getName());
+		
+		assertTrue(project_dir.mkdirs());
+		
+		TestUtils.copy(
+				"`define WIDTH 8\n",
+				new File(project_dir, "defs.svh"));
+		TestUtils.copy(
+				"`include \"defs.svh\"\n" +
+				"package p;\n" +
+				"	class a_cls;\n" +
+				"	endclass\n" +
+				"endpackage\n",
+				new File(project_dir, "a.sv"));
+		TestUtils.copy(
+				"module b;\n" +
+				"	logic [`WIDTH-1:0] data;\n" +
+				"endmodule\n",
+				new File(project_dir, "b.sv"));
+		TestUtils.copy(
+				"module c;\n" +
+				"	import p::*;\n" +
+				"endmodule\n",
+				new File(project_dir, "c.sv"));
+		TestUtils.copy(
+				"-mfcu\n" +
+				"a.sv\n" +
+				"b.sv\n" +
+				"c.sv\n",
+				new File(project_dir, "files.f"));
+		
+		Tuple<ISVDBIndex, IProject> setup_data = setupProjectDir(
+				project_dir, project_path + "/files.f");
+		ISVDBIndex index = setup_data.first();
+		
+		IndexTestUtils.assertFileHasElements(index, "p", "b", "c");
+		
+		// Change the macro definition. b.sv consumes the macro, while
+		// c.sv only imports package 'p', which is unchanged
+		TestUtils.copy(
+				"`define WIDTH 16\n",
+				new File(project_dir, "defs.svh"));
+		
+		List<SVDBIndexResourceChangeEvent> changes = new ArrayList<SVDBIndexResourceChangeEvent>();
+		changes.add(new SVDBIndexResourceChangeEvent(Type.CHANGE, project_path + "/defs.svh"));
+		
+		ISVDBIndexChangePlan plan = index.createIndexChangePlan(changes);
+		index.execIndexChangePlan(new NullProgressMonitor(), plan);
+		
+		SVDBIndexStats stats = ((ISVDBIndexStatsProvider)index).getIndexStats();
+		assertEquals(2, stats.getLastIncrReparsedFiles());
+		assertEquals(1, stats.getLastIncrSkippedFiles());
+		
+		IndexTestUtils.assertFileHasElements(index, "p", "b", "c");
+	}
+	
+	public void testSharedIncludeFile() {
+		String project_path = "${workspace_loc}/" + getName();
+		File project_dir = new File(fTmpDir, getName());
+		
+		assertTrue(project_dir.mkdirs());
+		
+		TestUtils.copy(
+				"class shared_cls;\n" +
+				"endclass\n",
+				new File(project_dir, "shared.svh"));
+		TestUtils.copy(
+				"`include \"shared.svh\"\n" +
+				"module a;\n" +
+				"endmodule\n",
+				new File(project_dir, "a.sv"));
+		TestUtils.copy(
+				"`include \"shared.svh\"\n" +
+				"module b;\n" +
+				"endmodule\n",
+				new File(project_dir, "b.sv"));
+		TestUtils.copy(
+				"a.sv\n" +
+				"b.sv\n",
+				new File(project_dir, "files.f"));
+		
+		Tuple<ISVDBIndex, IProject> setup_data = setupProjectDir(
+				project_dir, project_path + "/files.f");
+		ISVDBIndex index = setup_data.first();
+		
+		IndexTestUtils.assertFileHasElements(index, "a", "b", "shared_cls");
+		
+		// The header is included by both root files, and defines 
+		// no macros, so both roots must be selected by the planner
+		TestUtils.copy(
+				"class shared2_cls;\n" +
+				"endclass\n",
+				new File(project_dir, "shared.svh"));
+		
+		List<SVDBIndexResourceChangeEvent> changes = new ArrayList<SVDBIndexResourceChangeEvent>();
+		changes.add(new SVDBIndexResourceChangeEvent(Type.CHANGE, project_path + "/shared.svh"));
+		
+		ISVDBIndexChangePlan plan = index.createIndexChangePlan(changes);
+		assertEquals(SVDBIndexChangePlanType.RebuildFiles, plan.getType());
+		assertEquals(2, ((SVDBIndexChangePlanRebuildFiles)plan).getFileList().size());
+		index.execIndexChangePlan(new NullProgressMonitor(), plan);
+		
+		SVDBIndexStats stats = ((ISVDBIndexStatsProvider)index).getIndexStats();
+		assertEquals(2, stats.getLastIncrReparsedFiles());
+		
+		IndexTestUtils.assertFileHasElements(index, "a", "b", "shared2_cls");
+		IndexTestUtils.assertDoesNotContain(index, "shared_cls");
+	}
+	
+	public void testPerFileStats() {
+		String project_path = "${workspace_loc}/" + getName();
+		File project_dir = new File(fTmpDir, getName());
+		
+		assertTrue(project_dir.mkdirs());
+		
+		TestUtils.copy(
+				"module a;\n" +
+				"	logic [7:0] data;\n" +
+				"endmodule\n",
+				new File(project_dir, "a.sv"));
+		TestUtils.copy(
+				"module b;\n" +
+				"	a a_inst();\n" +
+				"endmodule\n",
+				new File(project_dir, "b.sv"));
+		TestUtils.copy(
+				"a.sv\n" +
+				"b.sv\n",
+				new File(project_dir, "files.f"));
+		
+		Tuple<ISVDBIndex, IProject> setup_data = setupProjectDir(
+				project_dir, project_path + "/files.f");
+		ISVDBIndex index = setup_data.first();
+		
+		IndexTestUtils.assertFileHasElements(index, "a", "b");
+		
+		SVDBIndexStats stats = ((ISVDBIndexStatsProvider)index).getIndexStats();
+		List<SVDBIndexFileStats> files = stats.getFileStats();
+		assertEquals(2, files.size());
+		
+		long pp_time = 0;
+		for (SVDBIndexFileStats f : files) {
+			assertTrue(f.getNumLines() > 0);
+			assertTrue(f.getNumTokens() > 0);
+			pp_time += f.getPreProcessTimeNS();
+		}
+		assertTrue(stats.getNumTokens() > 0);
+		
+		// Times of files that take less than 1ms must not be lost
+		assertTrue(pp_time > 0);
+		assertTrue(stats.getLastIndexPreProcessTimeNS() >= pp_time);
+		
+		// Lex time is only measured on request
+		assertEquals(0, stats.getLastIndexLexTimeNS());
+		
+		assertEquals(1, stats.getSlowestFiles(1).size());
+		
+		String json = stats.toJSON(1);
+		fLog.debug("Stats: " + json);
+		assertTrue(json.contains("\"slowestFiles\""));
+		assertTrue(json.contains(stats.getSlowestFiles(1).get(0).getPath()));
+	}
+	
 	private ISVDBIndex setupProject(
 			String			data_dir,
 			String			argfile) {
@@ -242,6 +412,12 @@ public class TestIncrementalIndex extends SVCoreTestCaseBase implements ISVDBInd
 		
 		utils.copyBundleDirToFS(data_dir, project_dir);
 		
+		return setupProjectDir(project_dir, argfile);
+	}
+	
+	private Tuple<ISVDBIndex, IProject> setupProjectDir(
+			File			project_dir,
+			String			argfile) {
 		IProject p = TestUtils.createProject(getName(), project_dir);
 		addProject(p);
 		
@@ -21,6 +21,7 @@ public class IndexCacheTests extends TestSuite {
 		TestSuite suite = new TestSuite("IndexTests");
 //		suite.addTest(new TestSuite(TestIndexCache.class));
 		suite.addTest(new TestSuite(TestSegmentedCache.class));
+		suite.addTest(new TestSuite(TestIndexSnapshot.class));
 		
 		return suite;
 	}
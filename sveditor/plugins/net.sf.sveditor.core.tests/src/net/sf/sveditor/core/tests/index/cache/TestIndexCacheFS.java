@@ -1,11 +1,14 @@
 package net.sf.sveditor.core.tests.index.cache;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystem;
+import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystemBlockStore;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystemDataInput;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystemDataOutput;
 import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
@@ -229,5 +232,116 @@ public class TestIndexCacheFS extends SVCoreTestCaseBase {
 	
 		fs.close();
 	}
+	
+	public void testFSConcurrentReadWrite() throws Exception {
+		final SVDBFileSystem fs = new SVDBFileSystem(fTmpDir, SVCorePlugin.getVersion());
+		
+		fs.init();
+		
+		final List<byte[]> ref_data = new ArrayList<byte[]>();
+		final int file_ids[] = new int[32];
+		
+		for (int i=0; i<file_ids.length; i++) {
+			byte tdata[] = new byte[1024*(16+(i*32))];
+		
+			for (int j=0; j<tdata.length; j++) {
+				tdata[j] = (byte)(i+j);
+			}
+			
+			ref_data.add(tdata);
+		}
+		
+		// Each thread writes, reads back, deletes, and re-writes its share
+		final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+		Thread threads[] = new Thread[4];
+		for (int t=0; t<threads.length; t++) {
+			final int t_id = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						for (int x=0; x<2; x++) {
+							for (int i=t_id; i<file_ids.length; i+=4) {
+								SVDBFileSystemDataOutput out = new SVDBFileSystemDataOutput();
+								byte tdata[] = ref_data.get(i);
+								for (int j=0; j<tdata.length; j++) {
+									out.writeByte(tdata[j]);
+								}
+								if (x != 0) {
+									fs.deleteFile("", file_ids[i]);
+								}
+								file_ids[i] = fs.writeFile("", out);
+							}
+						}
+					} catch (IOException e) {
+						errors.add(e.getMessage());
+					}
+				}
+			});
+			threads[t].start();
+		}
+		
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(0, errors.size());
+		
+		fs.close();
+		
+		fs.init();
+		
+		for (int i=0; i<file_ids.length; i++) {
+			byte tdata[] = ref_data.get(i);
+			SVDBFileSystemDataInput in = fs.readFile("", file_ids[i]);
+
+			for (int j=0; j<tdata.length; j++) {
+				assertEquals("Byte " + j + " of file " + file_ids[i], 
+						tdata[j], in.readByte());
+			}
+		}
+		
+		fs.close();
+	}
+	
+	public void testMappedSmallStore() throws IOException {
+		File db_dir = new File(fTmpDir, "mapped");
+		assertTrue(db_dir.mkdirs());
+		
+		// 16 blocks is far less than a 64MB segment
+		SVDBFileSystemBlockStore store = new SVDBFileSystemBlockStore(
+				db_dir, 4096, 1024*1024, true);
+		store.open(1, 0);
+		
+		byte data[] = new byte[4096];
+		for (int x=0; x<2; x++) {
+			for (int i=0; i<16; i++) {
+				for (int j=0; j<data.length; j++) {
+					data[j] = (byte)(x+i+j);
+				}
+				store.writeBlock("", i, data);
+			}
+		}
+		
+		for (int i=0; i<16; i++) {
+			store.readBlock("", i, data);
+			for (int j=0; j<data.length; j++) {
+				assertEquals("Byte " + j + " of block " + i, 
+						(byte)(1+i+j), data[j]);
+			}
+		}
+		
+		assertEquals(1, store.test_getNumMappedSegments());
+		
+		// Blocks written beyond the mapped tail are visible once re-mapped
+		for (int j=0; j<data.length; j++) {
+			data[j] = (byte)(16+j);
+		}
+		store.writeBlock("", 16, data);
+		store.readBlock("", 16, data);
+		for (int j=0; j<data.length; j++) {
+			assertEquals("Byte " + j + " of block 16", (byte)(16+j), data[j]);
+		}
+		
+		store.close();
+	}
 
 }
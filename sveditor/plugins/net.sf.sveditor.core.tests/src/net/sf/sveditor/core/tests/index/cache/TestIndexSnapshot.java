@@ -0,0 +1,262 @@
+/****************************************************************************
+ * Copyright (c) 2008-2011 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.tests.index.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBItem;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.SVDBMarker.MarkerKind;
+import net.sf.sveditor.core.db.SVDBMarker.MarkerType;
+import net.sf.sveditor.core.db.SVDBModuleDecl;
+import net.sf.sveditor.core.db.index.ISVDBIndexFactory;
+import net.sf.sveditor.core.db.index.SVDBIndexConfig;
+import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexCacheData;
+import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache.FileType;
+import net.sf.sveditor.core.db.index.cache.InMemoryIndexCache;
+import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystem;
+import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystemDataOutput;
+import net.sf.sveditor.core.db.index.cache.file.SVDBIndexSnapshot;
+import net.sf.sveditor.core.db.index.cache.file.SVDBIndexSnapshotCache;
+import net.sf.sveditor.core.db.index.plugin.SVDBPluginLibDescriptor;
+import net.sf.sveditor.core.db.index.plugin.SVDBPluginLibIndex;
+import net.sf.sveditor.core.db.index.plugin.SVDBPluginLibIndexFactory;
+import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
+import net.sf.sveditor.core.tests.SVCoreTestsPlugin;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+public class TestIndexSnapshot extends SVCoreTestCaseBase {
+
+	private File createSnapshot(String key) throws IOException {
+		return createSnapshot(new File(fTmpDir, "snapshot"), key);
+	}
+
+	private File createSnapshot(File dir, String key) throws IOException {
+		InMemoryIndexCache cache = new InMemoryIndexCache();
+		SVDBArgFileIndexCacheData cd = new SVDBArgFileIndexCacheData("base");
+		cd.fMFCU = true;
+		cache.init(new NullProgressMonitor(), cd, "base");
+
+		SVDBFile file = new SVDBFile("/lib/a.sv");
+		file.addChildItem(new SVDBModuleDecl("a"));
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+		markers.add(new SVDBMarker(MarkerType.Warning,
+				MarkerKind.UndefinedMacro, "Macro FOO undefined"));
+
+		cache.addFile("/lib/a.sv", false);
+		cache.setLastModified("/lib/a.sv", 1000, false);
+		cache.setFile("/lib/a.sv", file, false);
+		cache.setFileTree("/lib/a.sv", new SVDBFileTree("/lib/a.sv"), false);
+		cache.setMarkers("/lib/a.sv", markers, false);
+
+		cache.addFile("/lib/lib.f", true);
+		cache.setLastModified("/lib/lib.f", 2000, true);
+		cache.setFile("/lib/lib.f", new SVDBFile("/lib/lib.f"), true);
+
+		SVDBIndexSnapshot.write(dir, key, cache);
+
+		return dir;
+	}
+
+	private static Map<String, Long> getStorageState(File dir) {
+		Map<String, Long> ret = new HashMap<String, Long>();
+		for (File f : dir.listFiles()) {
+			ret.put(f.getName(), f.length() ^ (f.lastModified() << 20));
+		}
+		return ret;
+	}
+
+	public void testSnapshotLoad() throws IOException {
+		File dir = createSnapshot("uvm;1.2;none");
+
+		SVDBIndexSnapshot snapshot = SVDBIndexSnapshot.acquire(dir, "uvm;1.2;none");
+		assertNotNull(snapshot);
+
+		SVDBIndexSnapshotCache cache = new SVDBIndexSnapshotCache(
+				snapshot, new InMemoryIndexCache());
+		SVDBArgFileIndexCacheData cd = new SVDBArgFileIndexCacheData("base");
+		assertTrue(cache.init(new NullProgressMonitor(), cd, "base"));
+		assertTrue(cd.fMFCU);
+
+		assertEquals(1, cache.getFileList(false).size());
+		assertTrue(cache.getFileList(false).contains("/lib/a.sv"));
+		assertTrue(cache.getFileList(true).contains("/lib/lib.f"));
+		assertEquals(1000, cache.getLastModified("/lib/a.sv"));
+		assertEquals(FileType.SVFile, cache.getFileType("/lib/a.sv"));
+		assertEquals(FileType.ArgFile, cache.getFileType("/lib/lib.f"));
+
+		SVDBFile file = cache.getFile(new NullProgressMonitor(), "/lib/a.sv");
+		assertNotNull(file);
+		assertEquals("a", SVDBItem.getName(file.getChildren().iterator().next()));
+		assertNotNull(cache.getFileTree(new NullProgressMonitor(), "/lib/a.sv", false));
+		assertEquals(1, cache.getMarkers("/lib/a.sv").size());
+
+		cache.dispose();
+	}
+
+	public void testSnapshotKeyMismatch() throws IOException {
+		File dir = createSnapshot("uvm;1.2;none");
+
+		assertNull(SVDBIndexSnapshot.acquire(dir, "uvm;1.2;QUESTA=1,"));
+		assertNull(SVDBIndexSnapshot.acquire(new File(fTmpDir, "missing"), "uvm;1.2;none"));
+	}
+
+	public void testSnapshotShared() throws IOException {
+		File dir = createSnapshot("uvm;1.2;none");
+
+		SVDBIndexSnapshot s1 = SVDBIndexSnapshot.acquire(dir, "uvm;1.2;none");
+		SVDBIndexSnapshot s2 = SVDBIndexSnapshot.acquire(dir, "uvm;1.2;none");
+
+		assertNotNull(s1);
+		assertSame(s1, s2);
+		assertSame(s1.getFile("/lib/a.sv"), s2.getFile("/lib/a.sv"));
+
+		s1.release();
+		// Still usable by the second client
+		assertNotNull(s2.getFile("/lib/a.sv"));
+		s2.release();
+	}
+
+	public void testSnapshotUpdatesNotPersisted() throws IOException {
+		File dir = createSnapshot("uvm;1.2;none");
+		Map<String, Long> storage = getStorageState(dir);
+
+		SVDBIndexSnapshot snapshot = SVDBIndexSnapshot.acquire(dir, "uvm;1.2;none");
+		SVDBIndexSnapshotCache cache = new SVDBIndexSnapshotCache(
+				snapshot, new InMemoryIndexCache());
+		cache.init(new NullProgressMonitor(),
+				new SVDBArgFileIndexCacheData("base"), "base");
+
+		SVDBFile file = new SVDBFile("/lib/a.sv");
+		file.addChildItem(new SVDBModuleDecl("a2"));
+		cache.setFile("/lib/a.sv", file, false);
+
+		assertSame(file, cache.getFile(new NullProgressMonitor(), "/lib/a.sv"));
+		// Data that was not updated is retained
+		assertEquals(1, cache.getMarkers("/lib/a.sv").size());
+		assertEquals("a", SVDBItem.getName(
+				snapshot.getFile("/lib/a.sv").getChildren().iterator().next()));
+
+		cache.removeFile("/lib/lib.f", true);
+		assertFalse(cache.getFileList(true).contains("/lib/lib.f"));
+		assertTrue(snapshot.containsFile("/lib/lib.f"));
+
+		cache.dispose();
+
+		assertEquals(storage, getStorageState(dir));
+	}
+
+	public void testFactorySharesSnapshot() throws IOException {
+		SVDBPluginLibDescriptor d = null;
+		for (SVDBPluginLibDescriptor d_t : SVCorePlugin.getDefault().getPluginLibList()) {
+			if (d_t.getId().equals(SVCoreTestsPlugin.OVM_LIBRARY_ID)) {
+				d = d_t;
+				break;
+			}
+		}
+		assertNotNull(d);
+
+		SVDBIndexConfig config1 = createDefineConfig("QUESTA", "1");
+		SVDBIndexConfig config2 = createDefineConfig("VCS", "1");
+		String key1 = SVDBPluginLibIndexFactory.getSnapshotKey(d, config1);
+		String key2 = SVDBPluginLibIndexFactory.getSnapshotKey(d, config2);
+		assertFalse(key1.equals(key2));
+
+		File snapshot_dir = new File(fTmpDir, "pluginlib");
+		createSnapshot(new File(snapshot_dir, 
+				SVDBPluginLibIndexFactory.getSnapshotName(d, key1)), key1);
+		createSnapshot(new File(snapshot_dir, 
+				SVDBPluginLibIndexFactory.getSnapshotName(d, key2)), key2);
+
+		String snapshot_dir_p = System.getProperty(
+				SVDBPluginLibIndexFactory.SNAPSHOT_DIR_PROPERTY);
+		System.setProperty(SVDBPluginLibIndexFactory.SNAPSHOT_DIR_PROPERTY, 
+				snapshot_dir.getAbsolutePath());
+		
+		SVDBPluginLibIndexFactory factory = new SVDBPluginLibIndexFactory();
+		SVDBPluginLibIndex i1 = null, i2 = null, i3 = null;
+		try {
+			i1 = (SVDBPluginLibIndex)factory.createSVDBIndex("GLOBAL", d.getId(),
+					new InMemoryIndexCache(), config1);
+			i2 = (SVDBPluginLibIndex)factory.createSVDBIndex("GLOBAL", d.getId(),
+					new InMemoryIndexCache(), createDefineConfig("QUESTA", "1"));
+			i3 = (SVDBPluginLibIndex)factory.createSVDBIndex("GLOBAL", d.getId(),
+					new InMemoryIndexCache(), config2);
+
+			assertTrue(i1.getCache() instanceof SVDBIndexSnapshotCache);
+			assertTrue(i2.getCache() instanceof SVDBIndexSnapshotCache);
+			assertTrue(i3.getCache() instanceof SVDBIndexSnapshotCache);
+
+			// Indexes with the same key share a snapshot
+			SVDBIndexSnapshot s1 = ((SVDBIndexSnapshotCache)i1.getCache()).getSnapshot();
+			SVDBIndexSnapshot s3 = ((SVDBIndexSnapshotCache)i3.getCache()).getSnapshot();
+			assertSame(s1, ((SVDBIndexSnapshotCache)i2.getCache()).getSnapshot());
+			assertNotSame(s1, s3);
+			assertEquals(key1, s1.getKey());
+			assertEquals(key2, s3.getKey());
+		} finally {
+			for (SVDBPluginLibIndex i : new SVDBPluginLibIndex[] {i1, i2, i3}) {
+				if (i != null) {
+					i.dispose();
+				}
+			}
+			if (snapshot_dir_p != null) {
+				System.setProperty(SVDBPluginLibIndexFactory.SNAPSHOT_DIR_PROPERTY, 
+						snapshot_dir_p);
+			} else {
+				System.clearProperty(SVDBPluginLibIndexFactory.SNAPSHOT_DIR_PROPERTY);
+			}
+		}
+	}
+
+	private static SVDBIndexConfig createDefineConfig(String name, String value) {
+		Map<String, String> define_map = new HashMap<String, String>();
+		define_map.put(name, value);
+		SVDBIndexConfig config = new SVDBIndexConfig();
+		config.put(ISVDBIndexFactory.KEY_GlobalDefineMap, define_map);
+		return config;
+	}
+
+	public void testReadOnlyFileSystem() throws IOException {
+		File dir = createSnapshot("uvm;1.2;none");
+		SVDBFileSystem fs = new SVDBFileSystem(dir, SVCorePlugin.getVersion(), true);
+
+		assertTrue(fs.init());
+		assertTrue(fs.isReadOnly());
+
+		try {
+			SVDBFileSystemDataOutput out = new SVDBFileSystemDataOutput();
+			out.writeInt(1);
+			fs.writeFile("foo", out);
+			fail("Write to a read-only filesystem succeeded");
+		} catch (IOException e) { }
+
+		fs.close();
+
+		// A read-only filesystem does not create storage
+		SVDBFileSystem fs2 = new SVDBFileSystem(
+				new File(fTmpDir, "empty"), SVCorePlugin.getVersion(), true);
+		assertFalse(fs2.init());
+		assertFalse(new File(fTmpDir, "empty/1.db").exists());
+	}
+
+}
@@ -2,8 +2,10 @@ package net.sf.sveditor.core.tests.index.cache;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.IntStream;
@@ -174,11 +176,12 @@ public class TestSegmentedCache extends SVCoreTestCaseBase {
 		SVCorePlugin.getDefault().enableDebug(false);
 		List<SVDBFileIndexCacheEntry> all_e = new ArrayList<SVDBFileIndexCacheEntry>();
 		
-		SVDBSegmentedIndexCacheMgr mgr = new SVDBSegmentedIndexCacheMgr();
+		// Use a single shard, such that LRU order is exact
+		SVDBSegmentedIndexCacheMgr mgr = new SVDBSegmentedIndexCacheMgr(1);
 		
 		assertTrue(mgr.init(fTmpDir));
 		
-		mgr.test_setMaxCacheSize(4);
+		mgr.setMaxCacheBytes(4*SVDBFileIndexCacheEntry.DEFAULT_WEIGHT);
 	
 		for (int i=0; i<4; i++) {
 			SVDBFileIndexCacheEntry entry = new SVDBFileIndexCacheEntry(0, "path_" + i, 0);
@@ -236,9 +239,9 @@ public class TestSegmentedCache extends SVCoreTestCaseBase {
 	
 	public void testMultiIndex() {
 		SVCorePlugin.getDefault().enableDebug(false);
-		SVDBSegmentedIndexCacheMgr mgr = new SVDBSegmentedIndexCacheMgr();
+		SVDBSegmentedIndexCacheMgr mgr = new SVDBSegmentedIndexCacheMgr(1);
 		
-		mgr.test_setMaxCacheSize(4);
+		mgr.setMaxCacheBytes(4*SVDBFileIndexCacheEntry.DEFAULT_WEIGHT);
 		
 		SVDBSegmentedIndexCache c1 = mgr.createIndexCache("foo", "base");
 		SVDBSegmentedIndexCache c2 = mgr.createIndexCache("foo", "base");
@@ -268,6 +271,108 @@ public class TestSegmentedCache extends SVCoreTestCaseBase {
 //		}
 	}
 	
+	public void testMemoryBudget() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		SVDBSegmentedIndexCacheMgr mgr = new SVDBSegmentedIndexCacheMgr(1);
+		
+		assertTrue(mgr.init(fTmpDir));
+		mgr.setMaxCacheBytes(4*SVDBFileIndexCacheEntry.DEFAULT_WEIGHT);
+		
+		// A large entry displaces several small ones
+		SVDBFileIndexCacheEntry large = new SVDBFileIndexCacheEntry(0, "large", 0);
+		large.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILE_MASK, 
+				3*SVDBFileIndexCacheEntry.DEFAULT_WEIGHT);
+		
+		for (int i=0; i<4; i++) {
+			mgr.addToCachedList(new SVDBFileIndexCacheEntry(0, "path_" + i, 0));
+		}
+		checkCacheEntList(mgr.test_getCachedList(), 
+				"path_0", "path_1", "path_2", "path_3");
+		
+		mgr.addToCachedList(large);
+		checkCacheEntList(mgr.test_getCachedList(), "path_3", "large");
+		assertEquals(3, mgr.test_getUnCachedList().size());
+		assertEquals(3, mgr.getNumEvictions());
+		
+		// Accesses to cached and uncached entries are counted
+		mgr.ensureUpToDate(large, 0);
+		assertEquals(1, mgr.getNumHits());
+		mgr.ensureUpToDate(mgr.test_getUnCachedList().get(0), 0);
+		assertEquals(1, mgr.getNumMisses());
+		checkCacheEntList(mgr.test_getCachedList(), "large", "path_0");
+		
+		mgr.dispose();
+	}
+	
+	public void testAddAfterAccess() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		SVDBSegmentedIndexCacheMgr mgr = new SVDBSegmentedIndexCacheMgr(1);
+		
+		assertTrue(mgr.init(fTmpDir));
+		
+		// Another thread may access a new entry before it is added
+		SVDBFileIndexCacheEntry entry = new SVDBFileIndexCacheEntry(0, "path_0", 0);
+		mgr.ensureUpToDate(entry, 0);
+		mgr.addToCachedList(entry);
+		mgr.addToCachedList(new SVDBFileIndexCacheEntry(0, "path_1", 0));
+		
+		checkCacheEntList(mgr.test_getCachedList(), "path_0", "path_1");
+		assertEquals(0, mgr.test_getUnCachedList().size());
+		
+		Map<String, SVDBFileIndexCacheEntry> entries = 
+				new HashMap<String, SVDBFileIndexCacheEntry>();
+		mgr.loadCache(0, entries);
+		assertEquals(2, entries.size());
+		assertSame(entry, entries.get("path_0"));
+		
+		mgr.dispose();
+	}
+	
+	public void testConcurrentAccess() throws InterruptedException {
+		SVCorePlugin.getDefault().enableDebug(false);
+		
+		final SVDBSegmentedIndexCache cache = (SVDBSegmentedIndexCache)
+				fCacheMgr.createIndexCache("my_proj", "base_location");
+		fCacheMgr.setMaxCacheBytes(16*SVDBFileIndexCacheEntry.DEFAULT_WEIGHT);
+		
+		final int n_files = 200;
+		for (int i=0; i<n_files; i++) {
+			String filename = "/foo/bar_" + i;
+			cache.addFile(filename, false);
+			cache.setFile(filename, new SVDBFile(filename), false);
+		}
+		
+		final List<String> errors = new ArrayList<String>();
+		Thread threads[] = new Thread[4];
+		for (int t=0; t<threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					Random r = new Random(seed);
+					for (int i=0; i<5000; i++) {
+						String path = "/foo/bar_" + r.nextInt(n_files);
+						SVDBFile file = cache.getFile(new NullProgressMonitor(), path);
+						if (file == null || !path.equals(file.getFilePath())) {
+							synchronized (errors) {
+								errors.add(path);
+							}
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		
+		for (Thread t : threads) {
+			t.join();
+		}
+		
+		assertEquals(0, errors.size());
+		assertTrue(fCacheMgr.getNumEvictions() > 0);
+		assertTrue(fCacheMgr.getNumMisses() > 0);
+		assertEquals(n_files, cache.getFileList(false).size());
+	}
+	
 	private void checkCacheEntList(
 			List<SVDBFileIndexCacheEntry> 	l, 
 			String	...						exp_l) {
@@ -2,11 +2,28 @@ package net.sf.sveditor.core.tests.index.external;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.ISVDBChildItem;
+import net.sf.sveditor.core.db.SVDBFileTreeMacroList;
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBMacroDef;
+import net.sf.sveditor.core.db.SVDBModuleDecl;
+import net.sf.sveditor.core.db.index.external.ExternalIndexerClient;
 import net.sf.sveditor.core.db.index.external.ExternalIndexerMsg;
+import net.sf.sveditor.core.db.index.external.ExternalIndexerParseResult;
+import net.sf.sveditor.core.db.index.external.ExternalIndexerServer;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
+import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
 import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
+import net.sf.sveditor.core.tests.utils.TestUtils;
 
 public class TestExternalIndexerMessaging extends SVCoreTestCaseBase {
 	
@@ -109,4 +126,193 @@ public class TestExternalIndexerMessaging extends SVCoreTestCaseBase {
 			assertEquals(i, val);
 		}
 	}	
+	
+	public void testSendRecvBytes() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		
+		ExternalIndexerMsg msg = new ExternalIndexerMsg();
+		byte data[] = new byte[5000];
+		for (int i=0; i<data.length; i++) {
+			data[i] = (byte)i;
+		}
+		msg.write_str("caf\u00e9");
+		msg.write_bytes(data);
+		msg.write32(42);
+		
+		msg.send(bos);
+		
+		ExternalIndexerMsg r_msg = new ExternalIndexerMsg();
+		r_msg.recv(new ByteArrayInputStream(bos.toByteArray()));
+		
+		assertEquals("caf\u00e9", r_msg.read_str());
+		byte r_data[] = r_msg.read_bytes();
+		assertEquals(data.length, r_data.length);
+		for (int i=0; i<data.length; i++) {
+			assertEquals(data[i], r_data[i]);
+		}
+		assertEquals(42, r_msg.read32());
+	}
+	
+	public void testRemoteParse() throws Exception {
+		File test_sv = new File(fTmpDir, "test.sv");
+		TestUtils.copy(
+				"`include \"defs.svh\"\n" +
+				"module top;\n" +
+				"  `DEF_SIG(a)\n" +
+				"endmodule\n",
+				test_sv);
+		final File defs = new File(fTmpDir, "defs.svh");
+		TestUtils.copy(
+				"`define DEF_SIG(n) logic n;\n",
+				defs);
+		
+		ExternalIndexerServer server = new ExternalIndexerServer();
+		final ExternalIndexerClient client = new ExternalIndexerClient() {
+			// Don't exit the test process
+			protected void exit() { }
+		};
+		client.connect(server.getListeningPort());
+		
+		Thread client_t = new Thread(new Runnable() {
+			public void run() {
+				client.run();
+			}
+		});
+		client_t.start();
+		server.connect();
+		
+		final List<String> files = new ArrayList<String>();
+		ISVPreProcFileMapper mapper = new ISVPreProcFileMapper() {
+			public int mapFilePathToId(String path, boolean add) {
+				int idx = files.indexOf(path);
+				if (idx == -1 && add) {
+					files.add(path);
+					idx = files.size()-1;
+				}
+				return idx+1;
+			}
+			
+			public String mapFileIdToPath(int id) {
+				return (id > 0 && id <= files.size())?files.get(id-1):null;
+			}
+		};
+		ISVPreProcIncFileProvider inc_provider = new ISVPreProcIncFileProvider() {
+			public Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(String incfile) {
+				return null;
+			}
+			
+			public void addCachedIncFile(String incfile, String rootfile) { }
+			
+			public Tuple<String, InputStream> findIncFile(String incfile) {
+				if (incfile.equals("defs.svh")) {
+					try {
+						return new Tuple<String, InputStream>(
+								defs.getAbsolutePath(), new FileInputStream(defs));
+					} catch (IOException e) { }
+				}
+				return null;
+			}
+		};
+		
+		server.do_setup(false, new ArrayList<SVDBMacroDef>());
+		final int n_files_preproc[] = {-1};
+		ExternalIndexerParseResult result = server.do_parse(
+				test_sv.getAbsolutePath(), mapper, inc_provider, new Runnable() {
+					public void run() {
+						n_files_preproc[0] = files.size();
+					}
+				});
+		
+		server.send_exit_msg();
+		client_t.join(10000);
+		server.shutdown();
+		
+		assertNotNull(result);
+		assertEquals(0, result.getMarkers().size());
+		
+		// File ids were assigned by the IDE-side mapper, all of
+		// them before the indexer reported the end of pre-processing
+		assertEquals(2, n_files_preproc[0]);
+		assertEquals(2, files.size());
+		assertTrue(files.contains(defs.getAbsolutePath()));
+		
+		SVDBModuleDecl top = null;
+		for (ISVDBChildItem it : result.getFile().getChildren()) {
+			if (it.getType() == SVDBItemType.ModuleDecl) {
+				top = (SVDBModuleDecl)it;
+			}
+		}
+		assertNotNull(top);
+		assertEquals("top", top.getName());
+		assertEquals(1, result.getFileTree().getIncludedFileTreeList().size());
+	}
+	
+	public void testInterruptedParse() throws Exception {
+		File test_sv = new File(fTmpDir, "test.sv");
+		TestUtils.copy(
+				"module top;\n" +
+				"endmodule\n",
+				test_sv);
+		
+		ExternalIndexerServer server = new ExternalIndexerServer();
+		final ExternalIndexerClient client = new ExternalIndexerClient() {
+			// Don't exit the test process
+			protected void exit() { }
+		};
+		client.connect(server.getListeningPort());
+		
+		Thread client_t = new Thread(new Runnable() {
+			public void run() {
+				client.run();
+			}
+		});
+		client_t.start();
+		server.connect();
+		
+		final List<String> files = new ArrayList<String>();
+		ISVPreProcFileMapper mapper = new ISVPreProcFileMapper() {
+			public synchronized int mapFilePathToId(String path, boolean add) {
+				int idx = files.indexOf(path);
+				if (idx == -1 && add) {
+					files.add(path);
+					idx = files.size()-1;
+				}
+				return idx+1;
+			}
+			
+			public synchronized String mapFileIdToPath(int id) {
+				return (id > 0 && id <= files.size())?files.get(id-1):null;
+			}
+		};
+		ISVPreProcIncFileProvider inc_provider = new ISVPreProcIncFileProvider() {
+			public Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(String incfile) {
+				return null;
+			}
+			public void addCachedIncFile(String incfile, String rootfile) { }
+			public Tuple<String, InputStream> findIncFile(String incfile) {
+				return null;
+			}
+		};
+		
+		server.do_setup(false, new ArrayList<SVDBMacroDef>());
+		
+		// A cancelled build interrupts the thread waiting on the indexer. 
+		// The outstanding request still completes...
+		Thread.currentThread().interrupt();
+		ExternalIndexerParseResult result = server.do_parse(
+				test_sv.getAbsolutePath(), mapper, inc_provider);
+		assertTrue(Thread.interrupted());
+		assertNotNull(result);
+		
+		// ...and the indexer remains usable
+		assertTrue(server.isConnected());
+		result = server.do_parse(test_sv.getAbsolutePath(), mapper, inc_provider);
+		
+		server.send_exit_msg();
+		client_t.join(10000);
+		server.shutdown();
+		
+		assertNotNull(result);
+		assertEquals(0, result.getMarkers().size());
+	}
 }
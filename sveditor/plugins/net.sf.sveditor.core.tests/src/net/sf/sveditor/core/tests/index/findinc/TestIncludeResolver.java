@@ -0,0 +1,213 @@
+package net.sf.sveditor.core.tests.index.findinc;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.sveditor.core.SVFileUtils;
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.index.SVDBFSFileSystemProvider;
+import net.sf.sveditor.core.db.index.SVDBIncludeFileSuffixIndex;
+import net.sf.sveditor.core.db.index.SVDBIncludeResolver;
+import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexBuildData;
+import net.sf.sveditor.core.db.index.cache.InMemoryIndexCache;
+import net.sf.sveditor.core.tests.SVCoreTestCaseBase;
+import net.sf.sveditor.core.tests.preproc.SVDBMapFileSystemProvider;
+import net.sf.sveditor.core.tests.utils.TestUtils;
+
+public class TestIncludeResolver extends SVCoreTestCaseBase {
+
+	public void testSuffixIndex() {
+		SVDBIncludeFileSuffixIndex index = new SVDBIncludeFileSuffixIndex();
+
+		assertTrue(index.add("/proj/a/foo.svh", "/proj/top1.sv"));
+		assertTrue(index.add("/proj/b/foo.svh", "/proj/top2.sv"));
+		assertTrue(index.add("/proj/b/bar.svh", "/proj/top2.sv"));
+		assertFalse(index.add("/proj/a/foo.svh", "/proj/top3.sv"));
+		assertEquals(3, index.size());
+
+		// First-added file wins
+		Tuple<String, String> e = index.find("foo.svh");
+		assertNotNull(e);
+		assertEquals("/proj/a/foo.svh", e.first());
+		assertEquals("/proj/top1.sv", e.second());
+
+		e = index.find("b/foo.svh");
+		assertNotNull(e);
+		assertEquals("/proj/b/foo.svh", e.first());
+
+		e = index.find("./b/bar.svh");
+		assertNotNull(e);
+		assertEquals("/proj/b/bar.svh", e.first());
+
+		// Matches are on whole path components
+		assertNull(index.find("ar.svh"));
+		assertNull(index.find("c/foo.svh"));
+		assertNull(index.find("../b/foo.svh"));
+	}
+
+	public void testResolverCache() {
+		File inc1 = new File(fTmpDir, "inc1");
+		File inc2 = new File(fTmpDir, "inc2");
+		File sub = new File(inc2, "sub");
+		assertTrue(sub.mkdirs());
+		assertTrue(inc1.mkdirs());
+
+		TestUtils.copy("`define A\n", new File(inc1, "a.svh"));
+		TestUtils.copy("`define B\n", new File(inc2, "b.svh"));
+		TestUtils.copy("`define C\n", new File(sub, "c.svh"));
+
+		List<String> inc_paths = new ArrayList<String>();
+		inc_paths.add(SVFileUtils.normalize(inc1.getAbsolutePath()));
+		inc_paths.add(SVFileUtils.normalize(inc2.getAbsolutePath()));
+
+		SVDBFSFileSystemProvider fs = new SVDBFSFileSystemProvider();
+		SVDBIncludeResolver r = SVDBIncludeResolver.get(fs, inc_paths);
+
+		// Indexes with the same include paths and provider share a resolver
+		assertSame(r, SVDBIncludeResolver.get(fs, inc_paths));
+		assertNotSame(r, SVDBIncludeResolver.get(new SVDBFSFileSystemProvider(), inc_paths));
+		assertNotSame(r, SVDBIncludeResolver.get(fs, inc_paths.subList(0, 1)));
+
+		assertEquals(inc_paths.get(0) + "/a.svh", r.resolve("a.svh"));
+		assertEquals(inc_paths.get(1) + "/b.svh", r.resolve("b.svh"));
+		assertEquals(inc_paths.get(1) + "/sub/c.svh", r.resolve("sub/c.svh"));
+		assertNull(r.resolve("d.svh"));
+
+		// Failed lookups are cached until the include directory changes
+		File d = new File(inc1, "d.svh");
+		TestUtils.copy("`define D\n", d);
+		assertNull(r.resolve("d.svh"));
+
+		r.fileAdded(SVFileUtils.normalize(d.getAbsolutePath()));
+		assertEquals(inc_paths.get(0) + "/d.svh", r.resolve("d.svh"));
+
+		assertTrue(d.delete());
+		r.fileRemoved(SVFileUtils.normalize(d.getAbsolutePath()));
+		assertNull(r.resolve("d.svh"));
+	}
+
+	public void testResolverPerProvider() {
+		List<String> inc_paths = new ArrayList<String>();
+		inc_paths.add("/inc");
+		
+		// Providers with the same include paths, but different content
+		Map<String, String> files1 = new HashMap<String, String>();
+		files1.put("/inc/a.svh", "`define A\n");
+		Map<String, String> files2 = new HashMap<String, String>();
+		files2.put("/inc/b.svh", "`define B\n");
+		SVDBMapFileSystemProvider fs1 = new SVDBMapFileSystemProvider(files1);
+		SVDBMapFileSystemProvider fs2 = new SVDBMapFileSystemProvider(files2);
+		
+		SVDBIncludeResolver r1 = SVDBIncludeResolver.get(fs1, inc_paths);
+		SVDBIncludeResolver r2 = SVDBIncludeResolver.get(fs2, inc_paths);
+		assertNotSame(r1, r2);
+		
+		assertEquals("/inc/a.svh", r1.resolve("a.svh"));
+		assertNull(r1.resolve("b.svh"));
+		assertEquals("/inc/b.svh", r2.resolve("b.svh"));
+		assertNull(r2.resolve("a.svh"));
+		
+		r1.release();
+		r2.release();
+	}
+
+	public void testResolverRefreshedPerBuild() {
+		File inc = new File(fTmpDir, "inc");
+		assertTrue(inc.mkdirs());
+		String inc_path = SVFileUtils.normalize(inc.getAbsolutePath());
+		SVDBFSFileSystemProvider fs = new SVDBFSFileSystemProvider();
+
+		SVDBArgFileIndexBuildData build_data = createBuildData(fs, inc_path);
+		assertNull(build_data.findIncFile("a.svh"));
+
+		// The filesystem provider does not report the new file, so the 
+		// failed lookup remains cached for the rest of the build
+		TestUtils.copy("`define A\n", new File(inc, "a.svh"));
+		assertNull(build_data.findIncFile("a.svh"));
+
+		// The next build finds the file
+		build_data = createBuildData(fs, inc_path);
+		Tuple<String, InputStream> r = build_data.findIncFile("a.svh");
+		assertNotNull(r);
+		assertEquals(inc_path + "/a.svh", r.first());
+		fs.closeStream(r.second());
+	}
+
+	public void testResolverRefresh() {
+		File inc = new File(fTmpDir, "inc");
+		File sub = new File(inc, "sub");
+		assertTrue(sub.mkdirs());
+		TestUtils.copy("`define A\n", new File(sub, "a.svh"));
+		
+		// Ensure the include directory appears unchanged since listing
+		long timestamp = System.currentTimeMillis() - 60000;
+		assertTrue(inc.setLastModified(timestamp));
+		
+		List<String> inc_paths = new ArrayList<String>();
+		inc_paths.add(SVFileUtils.normalize(inc.getAbsolutePath()));
+		SVDBFSFileSystemProvider fs = new SVDBFSFileSystemProvider();
+		SVDBIncludeResolver r = SVDBIncludeResolver.get(fs, inc_paths);
+		
+		assertEquals(inc_paths.get(0) + "/sub/a.svh", r.resolve("sub/a.svh"));
+		assertNull(r.resolve("sub/b.svh"));
+		
+		// Changes to a sub-directory are picked up without a rebuild
+		TestUtils.copy("`define B\n", new File(sub, "b.svh"));
+		assertTrue(new File(sub, "a.svh").delete());
+		r.refresh();
+		assertNull(r.resolve("sub/a.svh"));
+		assertEquals(inc_paths.get(0) + "/sub/b.svh", r.resolve("sub/b.svh"));
+		
+		// Changes to the include directory discard the cached listing
+		TestUtils.copy("`define C\n", new File(inc, "c.svh"));
+		assertNull(r.resolve("c.svh"));
+		r.refresh();
+		assertEquals(inc_paths.get(0) + "/c.svh", r.resolve("c.svh"));
+		
+		r.release();
+	}
+	
+	public void testResolverRelease() {
+		List<String> inc_paths = new ArrayList<String>();
+		inc_paths.add(SVFileUtils.normalize(fTmpDir.getAbsolutePath()));
+		SVDBFSFileSystemProvider fs = new SVDBFSFileSystemProvider();
+		
+		SVDBIncludeResolver r = SVDBIncludeResolver.get(fs, inc_paths);
+		assertSame(r, SVDBIncludeResolver.get(fs, inc_paths));
+		
+		// Resolver remains shared while any user holds it
+		r.release();
+		assertSame(r, SVDBIncludeResolver.get(fs, inc_paths));
+		r.release();
+		r.release();
+		
+		SVDBIncludeResolver r2 = SVDBIncludeResolver.get(fs, inc_paths);
+		assertNotSame(r, r2);
+		r2.release();
+		
+		// Build data releases its resolver once disposed
+		SVDBArgFileIndexBuildData build_data = createBuildData(fs, inc_paths.get(0));
+		assertNull(build_data.findIncFile("a.svh"));
+		r = SVDBIncludeResolver.get(fs, inc_paths);
+		build_data.dispose();
+		assertSame(r, SVDBIncludeResolver.get(fs, inc_paths));
+		r.release();
+		r.release();
+		assertNotSame(r, SVDBIncludeResolver.get(fs, inc_paths));
+	}
+
+	private SVDBArgFileIndexBuildData createBuildData(
+			SVDBFSFileSystemProvider fs, String inc_path) {
+		SVDBArgFileIndexBuildData build_data = new SVDBArgFileIndexBuildData(
+				new InMemoryIndexCache(),
+				fTmpDir.getAbsolutePath());
+		build_data.setFSProvider(fs);
+		build_data.addIncludePath(inc_path);
+		return build_data;
+	}
+
+}
@@ -18,11 +18,14 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 import net.sf.sveditor.core.db.SVDBItemType;
 import net.sf.sveditor.core.db.index.SVDBBaseIndexCacheData;
+import net.sf.sveditor.core.db.index.ISVDBDeclCache;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
+import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexCacheData;
 import net.sf.sveditor.core.db.persistence.DBFormatException;
 import net.sf.sveditor.core.db.persistence.DBWriteException;
 import net.sf.sveditor.core.db.persistence.IDBReader;
@@ -71,5 +74,56 @@ public class TestIndexCacheDataPersistence extends TestCase {
 		assertEquals(1, data_n.getDeclCacheMap().size());
 		assertEquals("my_item", data_n.getDeclCacheMap().get("my_file").get(0).getName());
 	}
+	
+	public void testSrcFileIndex() throws DBFormatException, DBWriteException, IOException {
+		SVDBArgFileIndexCacheData data = new SVDBArgFileIndexCacheData("base");
+		SVDBArgFileIndexCacheData data_n = new SVDBArgFileIndexCacheData("base2");
+		
+		for (int i=0; i<100; i++) {
+			data.addFile("/dir/file_" + i + ".sv", ISVDBDeclCache.FILE_ATTR_SRC_FILE);
+		}
+		// Duplicate adds must not create new entries
+		data.addFile("/dir/file_10.sv", ISVDBDeclCache.FILE_ATTR_SRC_FILE);
+		assertEquals(100, data.fSrcFileList.size());
+
+		dump_load(data, data_n);
+		
+		// The reverse map is rebuilt from the loaded list
+		assertEquals(100, data_n.fSrcFileList.size());
+		for (int i=0; i<100; i++) {
+			assertEquals(i, data_n.getSrcFileIndex("/dir/file_" + i + ".sv"));
+		}
+		assertEquals(-1, data_n.getSrcFileIndex("/dir/file_100.sv"));
+		
+		String path = new String("/dir/file_42.sv");
+		assertSame(data_n.fSrcFileList.get(42), data_n.internSrcFilePath(path));
+		
+		data_n.addFile("/dir/file_100.sv", ISVDBDeclCache.FILE_ATTR_SRC_FILE);
+		assertEquals(100, data_n.getSrcFileIndex("/dir/file_100.sv"));
+		assertTrue(data_n.containsFile("/dir/file_100.sv", ISVDBDeclCache.FILE_ATTR_SRC_FILE));
+	}
+
+	public void testSrcFileIndexDuplicatePath() {
+		SVDBArgFileIndexCacheData data = new SVDBArgFileIndexCacheData("base");
+		List<String> paths = new ArrayList<String>();
+		List<Integer> attr = new ArrayList<Integer>();
+		
+		// A loaded list may contain a path more than once
+		for (String path : new String[] {"/dir/a.sv", "/dir/b.sv", "/dir/a.sv"}) {
+			paths.add(path);
+			attr.add(ISVDBDeclCache.FILE_ATTR_SRC_FILE);
+		}
+		data.setSrcFiles(paths, attr);
+		
+		assertEquals(0, data.getSrcFileIndex("/dir/a.sv"));
+		assertEquals(1, data.getSrcFileIndex("/dir/b.sv"));
+		
+		// Paths added later are still found
+		data.addFile("/dir/c.sv", ISVDBDeclCache.FILE_ATTR_SRC_FILE);
+		assertEquals(3, data.getSrcFileIndex("/dir/c.sv"));
+		data.fSrcFileList.add("/dir/d.sv");
+		assertEquals(4, data.getSrcFileIndex("/dir/d.sv"));
+		assertEquals(0, data.getSrcFileIndex("/dir/a.sv"));
+	}
 
 }
@@ -84,19 +84,6 @@ public class TestPersistencePerformance extends SVCoreTestCaseBase {
 				System.out.println("writeString " + val);
 				super.writeString(val);
 			}
-
-			@Override
-			public SVDBLocation readSVDBLocation() throws DBFormatException {
-				System.out.println("readSVDBLocation");
-				return super.readSVDBLocation();
-			}
-
-			@Override
-			public void writeSVDBLocation(SVDBLocation loc)
-					throws DBWriteException {
-//				System.out.println("writeSVDBLocation");
-				super.writeSVDBLocation(loc);
-			}
 			
 			
 		};
@@ -18,9 +18,11 @@ import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
+import java.util.Arrays;
 
 import junit.framework.TestCase;
 import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.index.SVDBBaseIndexCacheData;
 import net.sf.sveditor.core.db.persistence.DBFormatException;
 import net.sf.sveditor.core.db.persistence.DBWriteException;
@@ -29,6 +31,7 @@ import net.sf.sveditor.core.db.persistence.IDBWriter;
 import net.sf.sveditor.core.db.persistence.SVDBPersistenceRW;
 import net.sf.sveditor.core.db.refs.SVDBRefCacheEntry;
 import net.sf.sveditor.core.db.refs.SVDBRefType;
+import net.sf.sveditor.core.tests.SVDBTestUtils;
 
 public class TestPersistenceUnit extends TestCase {
 	
@@ -81,6 +84,55 @@ public class TestPersistenceUnit extends TestCase {
 		
 	}
 	
+	public void testCompactFormatRoundTrip() throws DBFormatException, DBWriteException {
+		SVCorePlugin.getDefault().enableDebug(false);
+		String doc = 
+			"package p;\n" +
+			"	class c1;\n" +
+			"		int f1 = -5;\n" +
+			"		int f2 = 'h7fff_ffff;\n" +
+			"		function void f1_fn(int a, string b = \"abc\");\n" +
+			"		endfunction\n" +
+			"	endclass\n" +
+			"	class c2 extends c1;\n" +
+			"		c1 f1;\n" +
+			"		function void f1_fn(int a, string b);\n" +
+			"		endfunction\n" +
+			"	endclass\n" +
+			"endpackage\n";
+		SVDBFile file = SVDBTestUtils.parse(doc, "testCompactFormatRoundTrip.sv");
+		
+		byte legacy[] = writeFile(file, false);
+		byte compact[] = writeFile(file, true);
+		
+		assertTrue("compact=" + compact.length + " legacy=" + legacy.length, 
+				compact.length < legacy.length);
+	
+		// The reader accepts both formats, and the content is identical
+		SVDBFile file_c = readFile(compact);
+		SVDBFile file_l = readFile(legacy);
+		
+		assertTrue(Arrays.equals(legacy, writeFile(file_c, false)));
+		assertTrue(Arrays.equals(legacy, writeFile(file_l, false)));
+		assertTrue(Arrays.equals(compact, writeFile(file_c, true)));
+	}
+	
+	private static byte[] writeFile(SVDBFile file, boolean compact) throws DBWriteException {
+		IDBWriter writer = new SVDBPersistenceRW(compact);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		writer.init(new DataOutputStream(bos));
+		writer.writeObject(SVDBFile.class, file);
+		return bos.toByteArray();
+	}
+	
+	private static SVDBFile readFile(byte data[]) throws DBFormatException {
+		IDBReader reader = new SVDBPersistenceRW();
+		reader.init(new DataInputStream(new ByteArrayInputStream(data)));
+		SVDBFile file = new SVDBFile();
+		reader.readObject(null, SVDBFile.class, file);
+		return file;
+	}
+	
 	/*
 	// Ensures that each SVDBItemType has a corresponding class
 	@SuppressWarnings("rawtypes")
@@ -45,5 +45,64 @@ public class JobMgrTests extends TestCase {
 		mgr.dispose();
 		System.out.println("Done");
 	}
+	
+	public void testPriorityOrder() {
+		JobMgr mgr = new JobMgr(1);
+		final Object block = new Object();
+		final boolean released[] = new boolean[] {false};
+		final List<Integer> order = new ArrayList<Integer>();
+		
+		// First job holds the single worker until all jobs are queued
+		IJob blocker = mgr.createJob();
+		blocker.init("Blocker", new Runnable() {
+			public void run() {
+				synchronized (block) {
+					while (!released[0]) {
+						try {
+							block.wait();
+						} catch (InterruptedException e) {}
+					}
+				}
+			}
+		});
+		mgr.queueJob(blocker);
+		
+		int priorities[] = new int[] {5, 1, 9, 1, 5, 3};
+		List<IJob> jobs = new ArrayList<IJob>();
+		for (int i=0; i<priorities.length; i++) {
+			final int id = i;
+			IJob job = mgr.createJob();
+			job.init("Job " + i, new Runnable() {
+				public void run() {
+					synchronized (order) {
+						order.add(id);
+					}
+				}
+			});
+			job.setPriority(priorities[i]);
+			jobs.add(job);
+			mgr.queueJob(job);
+		}
+		
+		synchronized (block) {
+			released[0] = true;
+			block.notifyAll();
+		}
+		
+		for (IJob j : jobs) {
+			j.join();
+		}
+		mgr.dispose();
+		
+		// Lower priority values first; FIFO within a priority
+		assertEquals(6, order.size());
+		int exp[] = new int[] {1, 3, 5, 0, 4, 2};
+		for (int i=0; i<exp.length; i++) {
+			assertEquals("Position " + i, exp[i], order.get(i).intValue());
+		}
+		
+		assertEquals(0, mgr.getQueueDepth());
+		assertEquals(7, mgr.getNumCompletedJobs());
+	}
 
 }
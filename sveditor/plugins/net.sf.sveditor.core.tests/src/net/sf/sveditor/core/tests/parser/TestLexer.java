@@ -12,11 +12,25 @@
 
 package net.sf.sveditor.core.tests.parser;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.StringInputStream;
+import net.sf.sveditor.core.db.ISVDBChildItem;
 import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.SVDBMarker;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
+import net.sf.sveditor.core.parser.ISVTokenListener;
+import net.sf.sveditor.core.parser.SVLanguageLevel;
+import net.sf.sveditor.core.parser.SVLexerTokenCache;
 import net.sf.sveditor.core.parser.SVParseException;
+import net.sf.sveditor.core.parser.SVParser;
+import net.sf.sveditor.core.parser.SVToken;
+import net.sf.sveditor.core.preproc.SVPreProcOutput;
+import net.sf.sveditor.core.preproc.SVPreProcessor;
 import net.sf.sveditor.core.tests.SVDBTestUtils;
 import junit.framework.TestCase;
 
@@ -116,6 +130,140 @@ public class TestLexer extends TestCase {
 		runTest(testname, content, new String[] {"c", "test"});
 	}
 
+	public void testIncrementalRelex() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		String content_1 = 
+			"`define WIDTH 8\n" +
+			"module m1;\n" +
+			"	reg [`WIDTH-1:0] a, b;\n" +
+			"	initial begin\n" +
+			"		a = 1;\n" +
+			"		#10;\n" +
+			"		b = a + 2;\n" +
+			"	end\n" +
+			"endmodule\n" +
+			"\n" +
+			"class c;\n" +
+			"	int f1;\n" +
+			"	function void test();\n" +
+			"		f1 = 5;\n" +
+			"	endfunction\n" +
+			"endclass\n";
+		// Insert a line in the middle of the module
+		String content_2 = content_1.replace(
+			"		a = 1;\n",
+			"		a = 1;\n" +
+			"		a = a + 4'h3;\n");
+		// Change a single token
+		String content_3 = content_2.replace("f1 = 5", "f1 = 55");
+		// Remove a line
+		String content_4 = content_3.replace("		#10;\n", "");
+		
+		SVLexerTokenCache cache = new SVLexerTokenCache();
+		
+		List<String> toks = lex(content_1, cache);
+		assertEquals(lex(content_1, null), toks);
+		assertEquals(0, cache.getNumReused());
+
+		// Unchanged content is fully reused
+		toks = lex(content_1, cache);
+		assertEquals(lex(content_1, null), toks);
+		assertTrue("Expect tokens to be reused", cache.getNumReused() > 0);
+		assertTrue("Expect only end-of-input to be relexed", cache.getNumLexed() <= 3);
+		
+		for (String content : new String[] {content_2, content_3, content_4}) {
+			toks = lex(content, cache);
+			assertEquals(lex(content, null), toks);
+			assertTrue("Expect tokens to be reused", cache.getNumReused() > 0);
+			assertTrue("Expect only a portion to be relexed", 
+					cache.getNumLexed() < cache.getNumReused());
+		}
+	}
+	
+	public void testReplayLocations() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		String content_1 = 
+			"module m1;\n" +
+			"	int a;\n" +
+			"endmodule\n" +
+			"\n" +
+			"class c;\n" +
+			"	int f1;\n" +
+			"	int f2 f3;\n" +
+			"endclass\n";
+		// Append to the content, such that the existing tokens are replayed
+		String content_2 = content_1 + 
+			"\n" +
+			"class c2;\n" +
+			"endclass\n";
+		
+		SVLexerTokenCache cache = new SVLexerTokenCache();
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+		parse(content_1, cache, markers);
+		
+		markers.clear();
+		SVDBFile file = parse(content_2, cache, markers);
+		assertTrue("Expect tokens to be reused", cache.getNumReused() > 0);
+		
+		// Locations must match those from a parse without the cache
+		List<SVDBMarker> exp_markers = new ArrayList<SVDBMarker>();
+		SVDBFile exp_file = parse(content_2, null, exp_markers);
+		
+		assertTrue(exp_markers.size() > 0);
+		assertEquals(exp_markers.size(), markers.size());
+		assertEquals(7, SVDBLocation.unpackLineno(markers.get(0).getLocation()));
+		for (int i=0; i<markers.size(); i++) {
+			assertEquals(exp_markers.get(i).getLocation(), markers.get(i).getLocation());
+		}
+		
+		List<Long> exp_locs = new ArrayList<Long>();
+		List<Long> locs = new ArrayList<Long>();
+		for (ISVDBChildItem c : exp_file.getChildren()) {
+			exp_locs.add(c.getLocation());
+		}
+		for (ISVDBChildItem c : file.getChildren()) {
+			locs.add(c.getLocation());
+		}
+		assertEquals(3, locs.size());
+		assertEquals(5, SVDBLocation.unpackLineno(locs.get(1)));
+		assertEquals(exp_locs, locs);
+	}
+	
+	private SVDBFile parse(String content, SVLexerTokenCache cache, List<SVDBMarker> markers) {
+		SVPreProcessor preproc = new SVPreProcessor(
+				getName(), new StringInputStream(content), null, null);
+		SVPreProcOutput pp_out = preproc.preprocess();
+		SVParser parser = new SVParser();
+		parser.setTokenCache(cache);
+		
+		return parser.parse(SVLanguageLevel.SystemVerilog, pp_out, getName(), markers);
+	}
+	
+	private List<String> lex(String content, SVLexerTokenCache cache) {
+		final List<String> ret = new ArrayList<String>();
+		SVPreProcessor preproc = new SVPreProcessor(
+				getName(), new StringInputStream(content), null, null);
+		SVPreProcOutput pp_out = preproc.preprocess();
+		SVParser parser = new SVParser();
+		parser.setTokenCache(cache);
+		
+		parser.parse(SVLanguageLevel.SystemVerilog, pp_out, getName(), 
+				new ISVTokenListener() {
+					public void ungetToken(SVToken tok) {
+						ret.remove(ret.size()-1);
+					}
+					
+					public void tokenConsumed(SVToken tok) {
+						long loc = tok.getStartLocation();
+						ret.add(tok.getImage() + "@" + 
+								SVDBLocation.unpackLineno(loc) + ":" + 
+								SVDBLocation.unpackPos(loc));
+					}
+				}, null);
+		
+		return ret;
+	}
+
 	private void runTest(
 			String			testname,
 			String			doc,
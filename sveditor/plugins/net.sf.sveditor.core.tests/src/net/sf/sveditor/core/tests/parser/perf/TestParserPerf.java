@@ -298,6 +298,126 @@ public class TestParserPerf extends SVCoreTestCaseBase {
 		System.out.println("Index Stats:\n" + stats.toString());
 	}	
 	
+	/**
+	 * Measures lexer throughput on the pre-processed UVM package
+	 */
+	public void testUVMLexPerf() throws IOException {
+		SVCorePlugin.getDefault().enableDebug(false);
+		
+		File uvm_zip = new File(new File(fTestPluginPath), "/uvm.zip");
+		TestUtils.unpackZipToFS(uvm_zip, fTmpDir);
+	
+		File uvm = new File(fTmpDir, "uvm");
+		File uvm_pkg = new File(uvm, "src/uvm_pkg.sv");
+		InputStream in = new FileInputStream(uvm_pkg);
+
+		SVPathPreProcIncFileProvider inc_provider = new SVPathPreProcIncFileProvider(
+				new SVDBFSFileSystemProvider());
+		inc_provider.addIncdir(new File(uvm, "src").getAbsolutePath());
+		SVPreProcessor pp = new SVPreProcessor(uvm_pkg.getAbsolutePath(), 
+				in, inc_provider, null);
+		SVPreProcOutput pp_out = pp.preprocess();
+		in.close();
+		
+		int n_warmup = 5, n_iter = 20;
+		long total_ms = 0;
+		int tcount = 0;
+		
+		for (int i=0; i<n_warmup+n_iter; i++) {
+			SVLexer l = new SVLexer();
+			l.init(null, pp_out.duplicate());
+			
+			long lex_start = System.nanoTime();
+			tcount = 0;
+			while (l.eatTokenR() != null) {
+				tcount++;
+			}
+			long lex_end = System.nanoTime();
+			
+			if (i >= n_warmup) {
+				total_ms += (lex_end-lex_start)/1000000;
+			}
+		}
+		
+		assertTrue(tcount > 0);
+		System.out.println("Lexed " + tcount + " tokens in " + 
+				(total_ms/n_iter) + "ms (" + 
+				((total_ms > 0)?((1000L*tcount*n_iter)/total_ms):0) + " tokens/sec)");
+	}
+
+	/**
+	 * Reports the heap allocation per source line while pre-processing
+	 * and parsing the UVM package. Source locations are carried as
+	 * packed longs, so allocation should be dominated by the AST itself
+	 */
+	public void testUVMParseAllocRate() throws IOException {
+		SVCorePlugin.getDefault().enableDebug(false);
+		
+		File uvm_zip = new File(new File(fTestPluginPath), "/uvm.zip");
+		TestUtils.unpackZipToFS(uvm_zip, fTmpDir);
+	
+		File uvm = new File(fTmpDir, "uvm");
+		File uvm_pkg = new File(uvm, "src/uvm_pkg.sv");
+		
+		int n_warmup = 3, n_iter = 5;
+		long pp_bytes = 0, parse_bytes = 0;
+		int n_lines = 0;
+		
+		for (int i=0; i<n_warmup+n_iter; i++) {
+			InputStream in = new FileInputStream(uvm_pkg);
+			SVPathPreProcIncFileProvider inc_provider = new SVPathPreProcIncFileProvider(
+					new SVDBFSFileSystemProvider());
+			inc_provider.addIncdir(new File(uvm, "src").getAbsolutePath());
+			SVPreProcessor pp = new SVPreProcessor(uvm_pkg.getAbsolutePath(), 
+					in, inc_provider, null);
+			
+			long b0 = getThreadAllocatedBytes();
+			SVPreProcOutput pp_out = pp.preprocess();
+			long b1 = getThreadAllocatedBytes();
+			in.close();
+			
+			SVParser parser = new SVParser();
+			List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+			long b2 = getThreadAllocatedBytes();
+			SVDBFile file = parser.parse(SVLanguageLevel.SystemVerilog, 
+					pp_out, uvm_pkg.getAbsolutePath(), markers);
+			long b3 = getThreadAllocatedBytes();
+			
+			assertNotNull(file);
+			
+			if (i >= n_warmup) {
+				pp_bytes += (b1-b0);
+				parse_bytes += (b3-b2);
+			}
+			n_lines = pp_out.toString().split("\n").length;
+		}
+		
+		if (getThreadAllocatedBytes() < 0) {
+			fLog.debug("Thread allocation accounting not supported");
+			return;
+		}
+		
+		fLog.debug("Allocation: " + n_lines + " lines; " +
+				"pre-process " + (pp_bytes/n_iter/n_lines) + " bytes/line; " +
+				"parse " + (parse_bytes/n_iter/n_lines) + " bytes/line");
+	}
+	
+	/**
+	 * Returns the bytes allocated by the current thread, or -1 if 
+	 * the JVM does not support per-thread allocation accounting
+	 */
+	private static long getThreadAllocatedBytes() {
+		try {
+			Object mx = java.lang.management.ManagementFactory.getThreadMXBean();
+			java.lang.reflect.Method m = mx.getClass().getMethod(
+					"getThreadAllocatedBytes", long.class);
+			m.setAccessible(true);
+			return (Long)m.invoke(mx, Thread.currentThread().getId());
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
 	public void testManyIfdefs() {
 	
 		SVCorePlugin.testInit();
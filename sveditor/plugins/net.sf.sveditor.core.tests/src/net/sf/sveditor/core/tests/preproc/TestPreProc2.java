@@ -1,18 +1,26 @@
 package net.sf.sveditor.core.tests.preproc;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.StringInputStream;
+import net.sf.sveditor.core.Tuple;
 import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBFileTreeMacroList;
 import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.db.SVDBMarker;
 import net.sf.sveditor.core.db.SVDBMarker.MarkerKind;
 import net.sf.sveditor.core.db.SVDBMarker.MarkerType;
 import net.sf.sveditor.core.db.index.SVDBFSFileSystemProvider;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
 import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
+import net.sf.sveditor.core.preproc.SVMacroExpansionCache;
 import net.sf.sveditor.core.preproc.SVPathPreProcIncFileProvider;
 import net.sf.sveditor.core.preproc.SVPreProcOutput;
 import net.sf.sveditor.core.preproc.SVPreProcessor;
@@ -589,6 +597,162 @@ public class TestPreProc2 extends SVCoreTestCaseBase {
 				exp);
 	}
 	
+	public void testMacroExpansionCache() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		String doc =
+			"`define M(a) int a;\n" +
+			"`M(x)\n" +
+			"`M(x)\n" +
+			"`M(y)\n" +
+			"`define M(a) bit a;\n" +
+			"`M(x)\n" +
+			"`M(y)\n"
+			;
+		String exp = 
+			"int x;\n" +
+			"int x;\n" +
+			"int y;\n" +
+			"bit x;\n" +
+			"bit y;\n"
+			;
+		SVMacroExpansionCache cache = new SVMacroExpansionCache();
+		
+		for (int i=0; i<2; i++) {
+			SVDBIndexStats stats = new SVDBIndexStats();
+			SVPreProcessor preproc = new SVPreProcessor(
+					getName(), new StringInputStream(doc), null, null);
+			preproc.setIndexStats(stats);
+			preproc.setMacroExpansionCache(cache);
+			
+			SVPreProcOutput output = preproc.preprocess();
+			
+			assertEquals(TestPreProc2.trimLines(exp), 
+					TestPreProc2.trimLines(output.toString()));
+			
+			// Each pass re-parses the definitions, so only repeated
+			// calls of the same definition hit in the cache. Entries
+			// for the redefined macro are discarded
+			assertEquals(5, stats.getNumMacroExpansions());
+			assertEquals(1, stats.getNumMacroExpansionCacheHits());
+			assertEquals(20, stats.getMacroExpansionCacheHitRate());
+			
+			// Definitions from a previous pass are never matched again,
+			// and are left for the cache to age out
+			assertEquals(2*(i+1), cache.size());
+		}
+	}
+	
+	public void testStreamingOutput() {
+		SVCorePlugin.getDefault().enableDebug(false);
+		final Map<String, String> files = new HashMap<String, String>();
+		files.put("inc.svh",
+				"`define INC_MACRO(a) \\\n" +
+				"	int a; \\\n" +
+				"	int a``_2;\n" +
+				"// comment in include\n" +
+				"class inc_c;\n" +
+				"	`INC_MACRO(f)\n" +
+				"endclass\n");
+		StringBuilder doc = new StringBuilder();
+		doc.append("`define MSG \"message\"\n");
+		doc.append("/* block\n   comment */\n");
+		for (int i=0; i<20; i++) {
+			doc.append("`include \"inc.svh\"\n");
+			doc.append("module m" + i + ";\r\n");
+			doc.append("	string s = `MSG; // trailing\r\n");
+			doc.append("`ifdef UNDEFINED\n");
+			doc.append("	int disabled;\n");
+			doc.append("`endif\n");
+			doc.append("endmodule\n");
+		}
+		doc.append("`ifdef UNBALANCED\n");
+		
+		ISVPreProcIncFileProvider inc_provider = new ISVPreProcIncFileProvider() {
+			
+			public Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(String incfile) {
+				return null;
+			}
+			
+			public void addCachedIncFile(String incfile, String rootfile) { }
+			
+			public Tuple<String, InputStream> findIncFile(String incfile) {
+				if (files.containsKey(incfile)) {
+					return new Tuple<String, InputStream>(incfile, 
+							new StringInputStream(files.get(incfile)));
+				} else {
+					return null;
+				}
+			}
+		};
+		
+		ISVPreProcFileMapper file_mapper = new ISVPreProcFileMapper() {
+			private List<String>		fPaths = new ArrayList<String>();
+			
+			public int mapFilePathToId(String path, boolean add) {
+				if (!fPaths.contains(path)) {
+					fPaths.add(path);
+				}
+				return fPaths.indexOf(path)+1;
+			}
+			
+			public String mapFileIdToPath(int id) {
+				return fPaths.get(id-1);
+			}
+		};
+		
+		SVPreProcessor full_pp = new SVPreProcessor(getName(), 
+				new StringInputStream(doc.toString()), inc_provider, file_mapper);
+		SVPreProcOutput full = full_pp.preprocess();
+		
+		// Use a small chunk size to exercise boundaries between chunks
+		SVPreProcessor stream_pp = new SVPreProcessor(getName(), 
+				new StringInputStream(doc.toString()), inc_provider, file_mapper);
+		SVPreProcOutput stream = stream_pp.preprocessStream(7);
+		
+		assertFalse(full.isStreaming());
+		assertTrue(stream.isStreaming());
+		
+		int max_map_sz = 0, map_idx = 0;
+		int n_chars = 0;
+		while (true) {
+			int ch = full.get_ch();
+			assertEquals("char " + n_chars, ch, stream.get_ch());
+			
+			if (ch == -1) {
+				break;
+			}
+			
+			assertEquals("file " + n_chars, full.getFileId(), stream.getFileId());
+			assertEquals("line " + n_chars, full.getLineno(), stream.getLineno());
+			assertEquals("pos " + n_chars, full.getPos(), stream.getPos());
+			
+			// The retained file-map entries must be a window of the full map
+			List<SVPreProcOutput.FileChangeInfo> stream_map = stream.getFileMap();
+			while (!fileInfoEquals(full.getFileMap().get(map_idx), stream_map.get(0))) {
+				map_idx++;
+			}
+			for (int i=0; i<stream_map.size(); i++) {
+				assertTrue(fileInfoEquals(full.getFileMap().get(map_idx+i), stream_map.get(i)));
+			}
+			
+			max_map_sz = Math.max(max_map_sz, stream.getFileMap().size());
+			n_chars++;
+		}
+		
+		// Only the file-map entries for unconsumed output are retained
+		assertTrue(max_map_sz < full.getFileMap().size()/4);
+		
+		List<SVDBMarker> full_markers = new ArrayList<SVDBMarker>();
+		List<SVDBMarker> stream_markers = new ArrayList<SVDBMarker>();
+		collect_markers(full_markers, full.getFileTree());
+		collect_markers(stream_markers, stream.getFileTree());
+		
+		assertEquals(1, full_markers.size());
+		assertEquals(full_markers.size(), stream_markers.size());
+		assertEquals(full.getFileTree().getIncludedFileTreeList().size(),
+				stream.getFileTree().getIncludedFileTreeList().size());
+	}
+	
 	/*
 	public void testIfdefFILE() {
 		SVCorePlugin.getDefault().enableDebug(false);
@@ -681,6 +845,13 @@ public class TestPreProc2 extends SVCoreTestCaseBase {
 		assertEquals(exp, out);
 	}
 	
+	private static boolean fileInfoEquals(
+			SVPreProcOutput.FileChangeInfo	i1,
+			SVPreProcOutput.FileChangeInfo	i2) {
+		return (i1.fStartIdx == i2.fStartIdx && i1.fFileId == i2.fFileId &&
+				i1.fLineno == i2.fLineno);
+	}
+	
 	private static void collect_markers(List<SVDBMarker> markers, SVDBFileTree ft) {
 		for (SVDBMarker m : ft.getMarkers()) {
 			markers.add(m);
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -53,6 +54,7 @@ import net.sf.sveditor.core.builder.CoreBuilderOutputListener;
 import net.sf.sveditor.core.builder.ISVBuildProcessListener;
 import net.sf.sveditor.core.builder.ISVBuilderOutputListener;
 import net.sf.sveditor.core.db.ISVDBFileFactory;
+import net.sf.sveditor.core.db.ISVDBLanguageFileParser;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.SVDBIndexRegistry;
 import net.sf.sveditor.core.db.index.builder.SVDBIndexBuilder;
@@ -102,6 +104,9 @@ public class SVCorePlugin extends Plugin implements ILogListener {
 	private static Map<String, String>		fLocalEnvMap = new HashMap<String, String>();
 	private SVMarkerPropagationJob			fMarkerPropagationJob;
 	private static IJobMgr					fJobMgr;
+	// Maximum number of job-manager worker threads. <1 selects the 
+	// number of available processors
+	private static int						fJobMgrMaxThreads = 0;
 	private static boolean					fTestMode = false;
 	private SVParserConfig					fParserConfig;
 	private SVResourceChangeListener		fResourceChangeListener;
@@ -122,6 +127,9 @@ public class SVCorePlugin extends Plugin implements ILogListener {
 	private int								fMaxIndexThreads = 0;
 	private static boolean					fEnableAsyncCacheClear;
 	private static List<String>				fPersistenceClassPkgList;
+	private static List<ISVDBLanguageFileParser>	fLanguageFileParsers = 
+			new CopyOnWriteArrayList<ISVDBLanguageFileParser>();
+	private static volatile boolean			fLanguageFileParsersLoaded = false;
 	private ISVBuilderOutputListener		fBuilderOutputListener = new CoreBuilderOutputListener();
 	private ISVBuildProcessListener			fBuildProcessListener = new CoreBuildProcessListener();
 	private ISVDBIndex						fBuiltinLib;
@@ -288,6 +296,69 @@ public class SVCorePlugin extends Plugin implements ILogListener {
 		}
 	}
 	
+	/**
+	 * Registers a parser for source files in a language other than
+	 * SystemVerilog. Parsers contributed via the SVLanguageFileParsers
+	 * extension point are registered automatically
+	 */
+	public static void addLanguageFileParser(ISVDBLanguageFileParser parser) {
+		if (!fLanguageFileParsers.contains(parser)) {
+			fLanguageFileParsers.add(parser);
+		}
+	}
+	
+	public static void removeLanguageFileParser(ISVDBLanguageFileParser parser) {
+		fLanguageFileParsers.remove(parser);
+	}
+	
+	/**
+	 * Returns the registered parser that handles 'path', or null
+	 * if the file is SystemVerilog
+	 */
+	public static ISVDBLanguageFileParser findLanguageFileParser(String path) {
+		if (!fLanguageFileParsersLoaded) {
+			loadLanguageFileParsers();
+		}
+		for (ISVDBLanguageFileParser p : fLanguageFileParsers) {
+			if (p.accept(path)) {
+				return p;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Creates the parsers contributed via the SVLanguageFileParsers
+	 * extension point. This activates the contributing plug-ins, 
+	 * which may otherwise not have started when an index is built
+	 */
+	private static synchronized void loadLanguageFileParsers() {
+		if (fLanguageFileParsersLoaded) {
+			return;
+		}
+		
+		if (Platform.isRunning()) {
+			IExtensionRegistry rgy = Platform.getExtensionRegistry();
+			IExtensionPoint pt = rgy.getExtensionPoint(PLUGIN_ID, "SVLanguageFileParsers");
+		
+			for (IExtension ext : pt.getExtensions()) {
+				for (IConfigurationElement cel : ext.getConfigurationElements()) {
+					if (!cel.getName().equals("LanguageFileParser")) {
+						continue;
+					}
+					try {
+						addLanguageFileParser((ISVDBLanguageFileParser)
+								cel.createExecutableExtension("class"));
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}
+		
+		fLanguageFileParsersLoaded = true;
+	}
+	
 	public SVResourceChangeListener getResourceChangeListener() {
 		return fResourceChangeListener;
 	}
@@ -375,11 +446,24 @@ public class SVCorePlugin extends Plugin implements ILogListener {
 	
 	public synchronized static IJobMgr getJobMgr() {
 		if (fJobMgr == null) {
-			fJobMgr = new JobMgr();
+			fJobMgr = new JobMgr(fJobMgrMaxThreads);
 		}
 		return fJobMgr;
 	}
 	
+	/**
+	 * Sets the maximum number of job-manager worker threads. 
+	 * Values < 1 select the number of available processors
+	 * 
+	 * @param max_threads
+	 */
+	public synchronized static void setJobMgrMaxThreads(int max_threads) {
+		fJobMgrMaxThreads = max_threads;
+		if (fJobMgr instanceof JobMgr) {
+			((JobMgr)fJobMgr).setMaxThreads(max_threads);
+		}
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see org.eclipse.core.runtime.Plugin#stop(org.osgi.framework.BundleContext)
@@ -736,7 +820,8 @@ public class SVCorePlugin extends Plugin implements ILogListener {
 			"net.sf.sveditor.core.db.", 
 			"net.sf.sveditor.core.db.stmt.",
 			"net.sf.sveditor.core.db.expr.",
-			"net.sf.sveditor.core.db.argfile."
+			"net.sf.sveditor.core.db.argfile.",
+			"net.sf.sveditor.core.db.vhdl."
 		};
 	}
 	
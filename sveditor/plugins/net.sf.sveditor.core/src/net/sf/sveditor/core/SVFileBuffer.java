@@ -8,7 +8,7 @@ import java.util.List;
 public class SVFileBuffer extends InputStream {
 	private static final int				fPageSize = 4096;
 	private InputStream						fIn;
-	private long							fReadTime;
+	private long							fReadTimeNS;
 	private List<byte[]>					fPageList;
 	private int								fPageListIdx;
 	private byte[]							fCurrPage;
@@ -31,7 +31,7 @@ public class SVFileBuffer extends InputStream {
 		fIn = in;
 		if (fFullRead) {
 		fPageList.clear();
-		long start = System.currentTimeMillis();
+		long start = System.nanoTime();
 	
 		try {
 			while ((len = in.read(page, 0, fPageSize)) == fPageSize) {
@@ -45,8 +45,8 @@ public class SVFileBuffer extends InputStream {
 			fLastPageLength = len;
 		}
 		
-		long end = System.currentTimeMillis();
-		fReadTime = (end-start);
+		long end = System.nanoTime();
+		fReadTimeNS = (end-start);
 	
 		if (fPageList.size() > 0) {
 			fCurrPage = fPageList.get(0);
@@ -67,11 +67,15 @@ public class SVFileBuffer extends InputStream {
 
 		}
 		
-		return fReadTime;
+		return getReadTime();
 	}
 	
 	public long getReadTime() {
-		return fReadTime;
+		return fReadTimeNS/1000000;
+	}
+	
+	public long getReadTimeNS() {
+		return fReadTimeNS;
 	}
 
 	@Override
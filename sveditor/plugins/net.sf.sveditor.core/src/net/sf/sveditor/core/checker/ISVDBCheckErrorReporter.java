@@ -1,9 +1,7 @@
 package net.sf.sveditor.core.checker;
 
-import net.sf.sveditor.core.db.SVDBLocation;
-
 public interface ISVDBCheckErrorReporter {
 	
-	void error(SVDBLocation loc, String msg);
+	void error(long loc, String msg);
 
 }
@@ -67,15 +67,16 @@ public class SVDBFileChecker implements ISVDBChecker, ISVDBCheckErrorReporter {
 	}
 
 	@Override
-	public void error(SVDBLocation loc, String msg) {
+	public void error(long loc, String msg) {
 		String file = null;
-		if (fMapper != null && loc != null) {
-			file = fMapper.mapFileIdToPath(loc.getFileId());
+		if (fMapper != null && loc != -1) {
+			file = fMapper.mapFileIdToPath(SVDBLocation.unpackFileId(loc));
 		}
 		
 		if (file != null) {
 			fMarkerMgr.addMarker(file, 
-					ISVDBMarkerMgr.MARKER_TYPE_ERROR, loc.getLine(), msg);
+					ISVDBMarkerMgr.MARKER_TYPE_ERROR, 
+					SVDBLocation.unpackLineno(loc), msg);
 		}
 	}
 	
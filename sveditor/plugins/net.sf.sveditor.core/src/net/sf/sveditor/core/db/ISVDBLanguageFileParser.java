@@ -0,0 +1,47 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Parses source files in a language other than SystemVerilog (eg VHDL)
+ * to SVDB form. Parsers are contributed via the 
+ * net.sf.sveditor.core.SVLanguageFileParsers extension point, or are
+ * registered with {@link net.sf.sveditor.core.SVCorePlugin#addLanguageFileParser}.
+ * The index builder uses them for the files they accept.
+ *
+ * The index builder may call parse() from multiple threads concurrently
+ *
+ * @author ballance
+ *
+ */
+public interface ISVDBLanguageFileParser {
+
+	/**
+	 * Returns true if this parser handles the specified file
+	 */
+	boolean accept(String path);
+
+	/**
+	 * Parses the content of 'path'. Locations in the result and in
+	 * 'markers' must refer to 'file_id'
+	 */
+	SVDBFile parse(
+			InputStream			in,
+			String				path,
+			int					file_id,
+			List<SVDBMarker>	markers);
+
+}
@@ -224,7 +224,11 @@ public enum SVDBItemType {
 	//***************************************************************
 	//* VHDL Types
 	//***************************************************************
-//	VHEntityDecl
+	VHEntityDecl,
+	VHArchitectureDecl,
+	VHPackageDecl,
+	VHPackageBodyDecl,
+	VHComponentDecl
 	;
 	
 	public boolean isElemOf(SVDBItemType ... type_list) {
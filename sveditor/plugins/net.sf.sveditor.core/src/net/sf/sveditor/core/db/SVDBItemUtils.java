@@ -141,8 +141,6 @@ public class SVDBItemUtils {
 						f.setLong(target, f.getLong(source));
 					} else if (field_class == boolean.class) {
 						f.setBoolean(target, f.getBoolean(source));
-					} else if (SVDBLocation.class == field_class) {
-						f.set(target, duplicateSVDBLocation(f.get(source)));
 					} else if (ISVDBItemBase.class.isAssignableFrom(field_class)) {
 						f.set(target, duplicate((ISVDBItemBase)f.get(source)));
 					} else {
@@ -204,15 +202,6 @@ public class SVDBItemUtils {
 		return ret;
 	}
 	
-	private static Object duplicateSVDBLocation(Object src_obj) {
-		SVDBLocation ret = null;
-		if (src_obj != null) {
-			SVDBLocation src = (SVDBLocation)src_obj;
-			ret = new SVDBLocation(src);
-		}
-		return ret;
-	}
-	
 	private static void init() {
 		fClassMap 	= new HashMap<SVDBItemType, Class>();
 
@@ -225,6 +214,11 @@ public class SVDBItemUtils {
 				try {
 					cls = cl.loadClass(pref + key);
 				} catch (Exception e) { }
+				if (cls == null) {
+					try {
+						cls = cl.loadClass(pref + v.name());
+					} catch (Exception e) { }
+				}
 			}
 
 			if (cls == null) {
@@ -17,7 +17,7 @@ import java.util.List;
 
 public class SVDBTypeInfoUserDef extends SVDBTypeInfo {
 	public SVDBParamValueAssignList				fParamAssignList;
-	public SVDBLocation							fEndLocation;
+	public long									fEndLocation;
 	public List<ISVDBItemBase>					fItems;
 	
 	public SVDBTypeInfoUserDef() {
@@ -30,9 +30,10 @@ public class SVDBTypeInfoUserDef extends SVDBTypeInfo {
 	
 	public SVDBTypeInfoUserDef(String typename, SVDBItemType type) {
 		super(typename, type);
+		fEndLocation = -1;
 	}
 	
-	public SVDBLocation getEndLocation() {
+	public long getEndLocation() {
 		return fEndLocation;
 	}
 
@@ -40,9 +41,8 @@ public class SVDBTypeInfoUserDef extends SVDBTypeInfo {
 		return fItems;
 	}
 
-	public void setEndLocation(SVDBLocation loc) {
-		// TODO Auto-generated method stub
-		
+	public void setEndLocation(long loc) {
+		fEndLocation = loc;
 	}
 
 	public SVDBParamValueAssignList getParameters() {
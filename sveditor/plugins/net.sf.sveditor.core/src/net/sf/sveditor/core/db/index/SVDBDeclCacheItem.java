@@ -12,15 +12,18 @@
 
 package net.sf.sveditor.core.db.index;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 
 import net.sf.sveditor.core.db.ISVDBChildItem;
 import net.sf.sveditor.core.db.ISVDBChildParent;
+import net.sf.sveditor.core.db.ISVDBEndLocation;
 import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.SVDBItem;
 import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.db.SVDBTypeInfoEnum;
 import net.sf.sveditor.core.db.SVDBTypeInfoEnumerator;
 import net.sf.sveditor.core.db.attr.SVDBDoNotSaveAttr;
@@ -51,6 +54,16 @@ public class SVDBDeclCacheItem implements ISVDBNamedItem {
 	// Specifies whether this item is actually located in the FileTree view of the file.
 	// This will be the case for pre-processor items
 	public boolean						fIsFileTreeItem;
+	
+	// Location of the item. Used to locate the item within its file 
+	// without searching the entire file. -1 if unknown
+	public long							fLocation = -1;
+	
+	// Item resolved by getSVDBItem, and the file it was resolved from
+	@SVDBDoNotSaveAttr
+	private WeakReference<SVDBFile>		fItemFile;
+	@SVDBDoNotSaveAttr
+	private WeakReference<ISVDBItemBase>	fItem;
 
 	@SVDBDoNotSaveAttr
 	private static LogHandle			fLog;
@@ -71,6 +84,17 @@ public class SVDBDeclCacheItem implements ISVDBNamedItem {
 		fIsFileTreeItem = is_ft_item;
 	}
 	
+	public SVDBDeclCacheItem(
+			ISVDBDeclCache 		parent, 
+			String 				filename, 
+			String 				name, 
+			SVDBItemType 		type,
+			boolean				is_ft_item,
+			long				location) {
+		this(parent, filename, name, type, is_ft_item);
+		fLocation = location;
+	}
+	
 	public void init(ISVDBDeclCache parent) {
 		fParent = parent;
 	}
@@ -111,6 +135,14 @@ public class SVDBDeclCacheItem implements ISVDBNamedItem {
 		fType = type;
 	}
 	
+	public long getLocation() {
+		return fLocation;
+	}
+	
+	public void setLocation(long location) {
+		fLocation = location;
+	}
+	
 	public ISVDBItemBase getSVDBItem() {
 		ISVDBItemBase ret = null;
 		
@@ -118,9 +150,23 @@ public class SVDBDeclCacheItem implements ISVDBNamedItem {
 			SVDBFile file = fParent.getDeclFile(new NullProgressMonitor(), this);
 			
 			if (file != null) {
-				ret = findSVDBItem(file);
+				// Re-use the previous result if the file is unchanged
+				if (fItem != null && fItemFile.get() == file) {
+					ret = fItem.get();
+				}
+				
+				if (ret == null && fLocation != -1) {
+					ret = findSVDBItemByLocation(file);
+				}
 				
 				if (ret == null) {
+					ret = findSVDBItem(file);
+				}
+				
+				if (ret != null) {
+					fItemFile = new WeakReference<SVDBFile>(file);
+					fItem = new WeakReference<ISVDBItemBase>(ret);
+				} else {
 					if (fLog == null) {
 						fLog = LogFactory.getLogHandle("SVDBDeclCacheItem");
 					}
@@ -156,6 +202,60 @@ public class SVDBDeclCacheItem implements ISVDBNamedItem {
 		return ret;
 	}
 	
+	/**
+	 * Locates the item using its recorded location. Only the scopes 
+	 * in which declarations are cached are searched, and scopes from
+	 * the same file that do not contain the location are skipped.
+	 */
+	private ISVDBItemBase findSVDBItemByLocation(ISVDBChildParent scope) {
+		int file_id = SVDBLocation.unpackFileId(fLocation);
+		
+		for (ISVDBChildItem c : scope.getChildren()) {
+			long l = c.getLocation();
+			boolean same_file = (l != -1 && SVDBLocation.unpackFileId(l) == file_id);
+			
+			if (l == fLocation && c.getType() == fType && 
+					SVDBItem.getName(c).equals(fName)) {
+				return c;
+			}
+			
+			if (same_file && l > fLocation) {
+				// Item is located before this scope
+				continue;
+			}
+			
+			if (fType == SVDBItemType.TypeInfoEnumerator &&
+					c.getType() == SVDBItemType.TypedefStmt) {
+				SVDBTypedefStmt stmt = (SVDBTypedefStmt)c;
+				if (stmt.getTypeInfo().getType() == SVDBItemType.TypeInfoEnum) {
+					for (SVDBTypeInfoEnumerator en : 
+						((SVDBTypeInfoEnum)stmt.getTypeInfo()).getEnumerators()) {
+						if (en.getLocation() == fLocation && en.getName().equals(fName)) {
+							return en;
+						}
+					}
+				}
+			} else if (c.getType().isElemOf(SVDBItemType.PackageDecl,
+					SVDBItemType.ModuleDecl, SVDBItemType.InterfaceDecl,
+					SVDBItemType.ProgramDecl, SVDBItemType.VarDeclStmt,
+					SVDBItemType.VHPackageDecl)) {
+				if (same_file && c instanceof ISVDBEndLocation) {
+					long end = ((ISVDBEndLocation)c).getEndLocation();
+					if (end != -1 && end < fLocation) {
+						// Item is located after this scope
+						continue;
+					}
+				}
+				ISVDBItemBase ret = findSVDBItemByLocation((ISVDBChildParent)c);
+				if (ret != null) {
+					return ret;
+				}
+			}
+		}
+		
+		return null;
+	}
+	
 	private ISVDBItemBase findSVDBItem(ISVDBChildParent scope) {
 		for (ISVDBChildItem c : scope.getChildren()) {
 			if (SVDBItem.getName(c).equals(fName) && c.getType() == getType()) {
@@ -0,0 +1,278 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.search.ISVDBFindNameMatcher;
+import net.sf.sveditor.core.db.search.ISVDBIndexedNameMatcher;
+
+/**
+ * Lookup structure over the global declaration cache of an index.
+ * Declarations are indexed by exact name, by case-folded name (kept
+ * sorted to support prefix queries), and by item type.
+ *
+ * The index is updated one file at a time as the declaration cache
+ * changes. Queries with an {@link ISVDBIndexedNameMatcher} are answered
+ * from the candidate set selected by the matcher's name and type
+ * constraints. Other matchers fall back to a scan of all declarations.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBDeclNameIndex {
+	private Map<String, List<SVDBDeclCacheItem>>				fFileMap;
+	private Map<String, List<SVDBDeclCacheItem>>				fNameMap;
+	private TreeMap<String, List<SVDBDeclCacheItem>>			fFoldedNameMap;
+	private Map<SVDBItemType, Set<SVDBDeclCacheItem>>			fTypeMap;
+
+	public SVDBDeclNameIndex() {
+		fFileMap = new HashMap<String, List<SVDBDeclCacheItem>>();
+		fNameMap = new HashMap<String, List<SVDBDeclCacheItem>>();
+		fFoldedNameMap = new TreeMap<String, List<SVDBDeclCacheItem>>();
+		fTypeMap = new EnumMap<SVDBItemType, Set<SVDBDeclCacheItem>>(SVDBItemType.class);
+	}
+
+	/**
+	 * Creates an index over the content of a declaration cache
+	 */
+	public SVDBDeclNameIndex(Map<String, List<SVDBDeclCacheItem>> decl_cache) {
+		this();
+		for (Entry<String, List<SVDBDeclCacheItem>> e : decl_cache.entrySet()) {
+			addFile(e.getKey(), e.getValue());
+		}
+	}
+
+	public synchronized void clear() {
+		fFileMap.clear();
+		fNameMap.clear();
+		fFoldedNameMap.clear();
+		fTypeMap.clear();
+	}
+
+	/**
+	 * Replaces the declarations indexed for a file
+	 *
+	 * @param path
+	 * @param items declarations from the file, or null if the file was removed
+	 */
+	public synchronized void setFile(String path, List<SVDBDeclCacheItem> items) {
+		removeFile(path);
+		if (items != null) {
+			addFile(path, items);
+		}
+	}
+
+	public synchronized void addFile(String path, List<SVDBDeclCacheItem> items) {
+		// Keep a private copy, since the cache list may be updated in place
+		List<SVDBDeclCacheItem> file_items = new ArrayList<SVDBDeclCacheItem>(items);
+
+		if (fFileMap.containsKey(path)) {
+			removeFile(path);
+		}
+		fFileMap.put(path, file_items);
+
+		for (SVDBDeclCacheItem item : file_items) {
+			String name = item.getName();
+			if (name != null) {
+				add(fNameMap, name, item);
+				add(fFoldedNameMap, name.toLowerCase(), item);
+			}
+			if (item.getType() != null) {
+				Set<SVDBDeclCacheItem> type_s = fTypeMap.get(item.getType());
+				if (type_s == null) {
+					type_s = new LinkedHashSet<SVDBDeclCacheItem>();
+					fTypeMap.put(item.getType(), type_s);
+				}
+				type_s.add(item);
+			}
+		}
+	}
+
+	public synchronized void removeFile(String path) {
+		List<SVDBDeclCacheItem> file_items = fFileMap.remove(path);
+
+		if (file_items == null) {
+			return;
+		}
+
+		for (SVDBDeclCacheItem item : file_items) {
+			String name = item.getName();
+			if (name != null) {
+				remove(fNameMap, name, item);
+				remove(fFoldedNameMap, name.toLowerCase(), item);
+			}
+			if (item.getType() != null) {
+				Set<SVDBDeclCacheItem> type_s = fTypeMap.get(item.getType());
+				if (type_s != null) {
+					type_s.remove(item);
+				}
+			}
+		}
+	}
+
+	private static void add(
+			Map<String, List<SVDBDeclCacheItem>> 	map,
+			String 									key,
+			SVDBDeclCacheItem 						item) {
+		List<SVDBDeclCacheItem> l = map.get(key);
+		if (l == null) {
+			l = new ArrayList<SVDBDeclCacheItem>(1);
+			map.put(key, l);
+		}
+		l.add(item);
+	}
+
+	private static void remove(
+			Map<String, List<SVDBDeclCacheItem>> 	map,
+			String 									key,
+			SVDBDeclCacheItem 						item) {
+		List<SVDBDeclCacheItem> l = map.get(key);
+		if (l != null) {
+			// Items are unique objects, so remove by identity
+			for (int i=0; i<l.size(); i++) {
+				if (l.get(i) == item) {
+					l.remove(i);
+					break;
+				}
+			}
+			if (l.size() == 0) {
+				map.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of indexed files
+	 */
+	public synchronized int getNumFiles() {
+		return fFileMap.size();
+	}
+
+	public synchronized List<SVDBDeclCacheItem> findByName(String name) {
+		List<SVDBDeclCacheItem> ret = new ArrayList<SVDBDeclCacheItem>();
+		List<SVDBDeclCacheItem> l = fNameMap.get(name);
+		if (l != null) {
+			ret.addAll(l);
+		}
+		return ret;
+	}
+
+	public synchronized List<SVDBDeclCacheItem> findByNameNoCase(String name) {
+		List<SVDBDeclCacheItem> ret = new ArrayList<SVDBDeclCacheItem>();
+		List<SVDBDeclCacheItem> l = fFoldedNameMap.get(name.toLowerCase());
+		if (l != null) {
+			ret.addAll(l);
+		}
+		return ret;
+	}
+
+	public synchronized List<SVDBDeclCacheItem> findByPrefixNoCase(String prefix) {
+		List<SVDBDeclCacheItem> ret = new ArrayList<SVDBDeclCacheItem>();
+		for (List<SVDBDeclCacheItem> l : prefixMap(prefix.toLowerCase()).values()) {
+			ret.addAll(l);
+		}
+		return ret;
+	}
+
+	public synchronized List<SVDBDeclCacheItem> findByType(SVDBItemType ... types) {
+		List<SVDBDeclCacheItem> ret = new ArrayList<SVDBDeclCacheItem>();
+		for (SVDBItemType t : types) {
+			Set<SVDBDeclCacheItem> type_s = fTypeMap.get(t);
+			if (type_s != null) {
+				ret.addAll(type_s);
+			}
+		}
+		return ret;
+	}
+
+	private SortedMap<String, List<SVDBDeclCacheItem>> prefixMap(String prefix) {
+		if (prefix.length() == 0) {
+			return fFoldedNameMap;
+		}
+		// The upper bound is the prefix with its last character incremented
+		char last = prefix.charAt(prefix.length()-1);
+		if (last == Character.MAX_VALUE) {
+			return fFoldedNameMap.tailMap(prefix);
+		}
+		String upper = prefix.substring(0, prefix.length()-1) + (char)(last+1);
+		return fFoldedNameMap.subMap(prefix, upper);
+	}
+
+	/**
+	 * Finds declarations accepted by the matcher.
+	 *
+	 * @param name
+	 * @param matcher
+	 * @return matching declarations
+	 */
+	public synchronized List<SVDBDeclCacheItem> find(
+			String 					name,
+			ISVDBFindNameMatcher 	matcher) {
+		List<SVDBDeclCacheItem> candidates = null;
+
+		if (matcher instanceof ISVDBIndexedNameMatcher) {
+			ISVDBIndexedNameMatcher im = (ISVDBIndexedNameMatcher)matcher;
+			SVDBItemType types[] = im.getItemTypes();
+
+			switch (im.getNameMatch()) {
+				case Exact:
+					candidates = (name != null)?findByName(name):null;
+					break;
+				case ExactNoCase:
+					candidates = (name != null)?findByNameNoCase(name):null;
+					break;
+				case PrefixNoCase:
+					candidates = (name != null)?findByPrefixNoCase(name):null;
+					break;
+				default:
+					break;
+			}
+
+			if (candidates == null && types != null && types.length > 0) {
+				candidates = findByType(types);
+			}
+		}
+
+		List<SVDBDeclCacheItem> ret = new ArrayList<SVDBDeclCacheItem>();
+
+		if (candidates != null) {
+			for (SVDBDeclCacheItem item : candidates) {
+				if (matcher.match(item, name)) {
+					ret.add(item);
+				}
+			}
+		} else {
+			for (List<SVDBDeclCacheItem> l : fFileMap.values()) {
+				for (SVDBDeclCacheItem item : l) {
+					if (matcher.match(item, name)) {
+						ret.add(item);
+					}
+				}
+			}
+		}
+
+		return ret;
+	}
+
+}
@@ -0,0 +1,175 @@
+package net.sf.sveditor.core.db.index;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Records the timestamp and content hash of a source file at the time
+ * it was indexed. When a file's timestamp differs from the cached value,
+ * the content hash determines whether the file really changed.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBFileFingerprint {
+	public long							fTimestamp;
+	public long							fHash;
+
+	public SVDBFileFingerprint() { }
+
+	public SVDBFileFingerprint(long timestamp, long hash) {
+		fTimestamp = timestamp;
+		fHash = hash;
+	}
+
+	/**
+	 * Computes the fingerprint of a file
+	 *
+	 * @return fingerprint, or null if the file cannot be read
+	 */
+	public static SVDBFileFingerprint compute(
+			ISVDBFileSystemProvider 	fs_provider,
+			String 						path) {
+		long timestamp = fs_provider.getLastModifiedTime(path);
+		InputStream in = fs_provider.openStream(path);
+
+		if (in == null) {
+			return null;
+		}
+
+		try {
+			return new SVDBFileFingerprint(timestamp, computeHash(in));
+		} catch (IOException e) {
+			return null;
+		} finally {
+			fs_provider.closeStream(in);
+		}
+	}
+
+	/**
+	 * Computes a 64-bit hash of the stream content
+	 */
+	public static long computeHash(InputStream in) throws IOException {
+		MessageDigest md = createDigest();
+		byte buf[] = new byte[64*1024];
+		int len;
+
+		while ((len = in.read(buf, 0, buf.length)) > 0) {
+			md.update(buf, 0, len);
+		}
+
+		return toHash(md);
+	}
+
+	private static MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("MD5 not supported");
+		}
+	}
+
+	private static long toHash(MessageDigest md) {
+		byte digest[] = md.digest();
+		long hash = 0;
+		for (int i=0; i<8; i++) {
+			hash = (hash << 8) | (digest[i] & 0xFF);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Stream that hashes content as it is read, allowing the fingerprint
+	 * of a file to be computed while it is being parsed rather than
+	 * by reading the file a second time
+	 */
+	public static class HashInputStream extends FilterInputStream {
+		private long					fTimestamp;
+		private MessageDigest			fDigest;
+		private SVDBFileFingerprint		fFingerprint;
+
+		public HashInputStream(InputStream in, long timestamp) {
+			super(in);
+			fTimestamp = timestamp;
+			try {
+				fDigest = createDigest();
+			} catch (IOException e) { }
+		}
+
+		/**
+		 * Returns the fingerprint of the content, or null if the 
+		 * stream has not been read to the end
+		 */
+		public synchronized SVDBFileFingerprint getFingerprint() {
+			return fFingerprint;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int ch = super.read();
+
+			if (ch != -1) {
+				if (fDigest != null) {
+					fDigest.update((byte)ch);
+				}
+			} else {
+				complete();
+			}
+
+			return ch;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int ret = super.read(b, off, len);
+
+			if (ret > 0) {
+				if (fDigest != null) {
+					fDigest.update(b, off, ret);
+				}
+			} else if (ret == -1) {
+				complete();
+			}
+
+			return ret;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (n <= 0) {
+				return 0;
+			}
+
+			// Skipped content must still be hashed
+			byte buf[] = new byte[(int)Math.min(n, 4096)];
+			long ret = 0;
+
+			while (ret < n) {
+				int len = read(buf, 0, (int)Math.min(n-ret, buf.length));
+				if (len <= 0) {
+					break;
+				}
+				ret += len;
+			}
+
+			return ret;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		private synchronized void complete() {
+			if (fDigest != null) {
+				fFingerprint = new SVDBFileFingerprint(fTimestamp, toHash(fDigest));
+				fDigest = null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.sveditor.core.Tuple;
+
+/**
+ * Maps the full paths of included files to the root file that included
+ * them. Paths are stored in a tree keyed by path components, last
+ * component first, so that an `include path can be matched against
+ * the trailing components of full paths without scanning all entries.
+ *
+ * When several full paths match, the first one added is returned.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBIncludeFileSuffixIndex {
+
+	private static class Node {
+		Map<String, Node>				fChildren;
+		// First entry added whose path ends in the components leading here
+		Tuple<String, String>			fFirst;
+	}
+
+	private Node								fRoot;
+	private Map<String, Tuple<String, String>>	fPathMap;
+
+	public SVDBIncludeFileSuffixIndex() {
+		fRoot = new Node();
+		fPathMap = new HashMap<String, Tuple<String,String>>();
+	}
+
+	/**
+	 * Adds an included file
+	 *
+	 * @param path  full path of the included file
+	 * @param root  root file that includes it
+	 * @return false if the path was already present
+	 */
+	public boolean add(String path, String root) {
+		if (fPathMap.containsKey(path)) {
+			return false;
+		}
+		Tuple<String, String> entry = new Tuple<String, String>(path, root);
+		fPathMap.put(path, entry);
+
+		List<String> elems = split(path);
+		Node n = fRoot;
+		for (int i=elems.size()-1; i>=0; i--) {
+			if (n.fChildren == null) {
+				n.fChildren = new HashMap<String, Node>(4);
+			}
+			Node c = n.fChildren.get(elems.get(i));
+			if (c == null) {
+				c = new Node();
+				n.fChildren.put(elems.get(i), c);
+			}
+			if (c.fFirst == null) {
+				c.fFirst = entry;
+			}
+			n = c;
+		}
+
+		return true;
+	}
+
+	public boolean contains(String path) {
+		return fPathMap.containsKey(path);
+	}
+
+	public int size() {
+		return fPathMap.size();
+	}
+
+	/**
+	 * Finds the first-added file whose trailing path components match
+	 * the include path
+	 *
+	 * @param incfile
+	 * @return (full path, root file), or null if no file matches
+	 */
+	public Tuple<String, String> find(String incfile) {
+		List<String> elems = split(incfile);
+
+		if (elems.size() == 0 || elems.contains("..")) {
+			// Parent-relative paths cannot be matched on components
+			return null;
+		}
+
+		Node n = fRoot;
+		for (int i=elems.size()-1; i>=0; i--) {
+			if (n.fChildren == null || (n = n.fChildren.get(elems.get(i))) == null) {
+				return null;
+			}
+		}
+
+		return n.fFirst;
+	}
+
+	private static List<String> split(String path) {
+		List<String> ret = new ArrayList<String>();
+		int start = 0;
+
+		for (int i=0; i<=path.length(); i++) {
+			if (i == path.length() || path.charAt(i) == '/' || path.charAt(i) == '\\') {
+				if (i > start) {
+					String elem = path.substring(start, i);
+					if (!elem.equals(".")) {
+						ret.add(elem);
+					}
+				}
+				start = i+1;
+			}
+		}
+
+		return ret;
+	}
+
+}
@@ -0,0 +1,380 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import net.sf.sveditor.core.SVFileUtils;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+
+/**
+ * Resolves `include paths against a list of include directories.
+ * Both successful and failed lookups are cached.
+ *
+ * Resolvers are shared between indexes that have the same include-path
+ * configuration and file-system provider instance, since providers may
+ * hold per-instance content. The cached state is discarded when a file is added to
+ * or removed from one of the include directories. Each user obtains a 
+ * resolver with get(), and must call release() once done with it.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBIncludeResolver implements ISVDBFileSystemChangeListener {
+	// Directory timestamps may be as coarse as 2s. A directory modified 
+	// this close to being listed may have changed after it was listed
+	private static final long					TIMESTAMP_GRANULARITY = 2000;
+	// Resolvers for each include-path configuration, one per provider instance
+	private static Map<String, List<WeakReference<SVDBIncludeResolver>>>	fResolverMap =
+			new HashMap<String, List<WeakReference<SVDBIncludeResolver>>>();
+
+	private ISVDBFileSystemProvider				fFSProvider;
+	// File-system providers this resolver listens to
+	private Map<ISVDBFileSystemProvider, Boolean>	fListenProviders;
+	private List<String>						fIncDirs;
+	private List<Set<String>>					fIncDirFiles;
+	private List<Set<String>>					fIncDirDirs;
+	// Whether the content of each include directory could be listed
+	private List<Boolean>						fIncDirListed;
+	// Timestamp of each include directory when its content was listed
+	private List<Long>							fIncDirTimestamps;
+	// Time at which the include directories were listed
+	private long								fBuildTime;
+	private Map<String, String>					fIncludeMap;
+	private Set<String>							fFailedSearches;
+	private boolean								fValid;
+	// Number of users that obtained this resolver via get()
+	private int									fRefCount;
+	private LogHandle							fLog;
+
+	private SVDBIncludeResolver(
+			ISVDBFileSystemProvider		fs_provider,
+			List<String>				inc_dirs) {
+		fFSProvider = fs_provider;
+		fListenProviders = new WeakHashMap<ISVDBFileSystemProvider, Boolean>();
+		fIncDirs = inc_dirs;
+		fIncDirFiles = new ArrayList<Set<String>>();
+		fIncDirDirs = new ArrayList<Set<String>>();
+		fIncDirListed = new ArrayList<Boolean>();
+		fIncDirTimestamps = new ArrayList<Long>();
+		fIncludeMap = new HashMap<String, String>();
+		fFailedSearches = new HashSet<String>();
+		fLog = LogFactory.getLogHandle("SVDBIncludeResolver");
+	}
+
+	/**
+	 * Returns the resolver for an include-path configuration. 
+	 * The caller must call release() once done with the resolver
+	 *
+	 * @param fs_provider
+	 * @param inc_paths   include paths, as specified by +incdir+
+	 * @return
+	 */
+	public static SVDBIncludeResolver get(
+			ISVDBFileSystemProvider		fs_provider,
+			List<String>				inc_paths) {
+		List<String> inc_dirs = new ArrayList<String>();
+		StringBuilder key = new StringBuilder();
+
+		for (String inc_path : inc_paths) {
+			String inc_dir = SVFileUtils.resolvePath(
+					inc_path, inc_path, fs_provider, true);
+			inc_dirs.add(inc_dir);
+			key.append(inc_dir);
+			key.append('\n');
+		}
+
+		SVDBIncludeResolver ret = null;
+		synchronized (fResolverMap) {
+			List<WeakReference<SVDBIncludeResolver>> refs = fResolverMap.get(key.toString());
+
+			if (refs == null) {
+				refs = new ArrayList<WeakReference<SVDBIncludeResolver>>();
+				fResolverMap.put(key.toString(), refs);
+			}
+			
+			Iterator<WeakReference<SVDBIncludeResolver>> it = refs.iterator();
+			while (it.hasNext()) {
+				SVDBIncludeResolver r = it.next().get();
+				if (r == null) {
+					it.remove();
+				} else if (r.fFSProvider == fs_provider) {
+					ret = r;
+					break;
+				}
+			}
+
+			if (ret == null) {
+				ret = new SVDBIncludeResolver(fs_provider, inc_dirs);
+				refs.add(new WeakReference<SVDBIncludeResolver>(ret));
+			}
+			ret.fRefCount++;
+		}
+
+		ret.listen(fs_provider);
+
+		return ret;
+	}
+	
+	/**
+	 * Releases a resolver obtained with get(). Once the last user
+	 * releases the resolver, it stops listening for file-system 
+	 * changes and is no longer shared
+	 */
+	public void release() {
+		synchronized (fResolverMap) {
+			if (fRefCount <= 0 || --fRefCount > 0) {
+				return;
+			}
+			
+			Iterator<List<WeakReference<SVDBIncludeResolver>>> m_it = 
+					fResolverMap.values().iterator();
+			while (m_it.hasNext()) {
+				List<WeakReference<SVDBIncludeResolver>> refs = m_it.next();
+				Iterator<WeakReference<SVDBIncludeResolver>> it = refs.iterator();
+				while (it.hasNext()) {
+					SVDBIncludeResolver r = it.next().get();
+					if (r == null || r == this) {
+						it.remove();
+					}
+				}
+				if (refs.size() == 0) {
+					m_it.remove();
+				}
+			}
+		}
+		
+		synchronized (this) {
+			for (ISVDBFileSystemProvider fs_provider : fListenProviders.keySet()) {
+				fs_provider.removeFileSystemChangeListener(this);
+			}
+			fListenProviders.clear();
+		}
+	}
+
+	private synchronized void listen(ISVDBFileSystemProvider fs_provider) {
+		if (!fListenProviders.containsKey(fs_provider)) {
+			fListenProviders.put(fs_provider, true);
+			fs_provider.addFileSystemChangeListener(this);
+		}
+	}
+
+	public List<String> getIncDirs() {
+		return fIncDirs;
+	}
+
+	/**
+	 * Discards all cached lookups
+	 */
+	public synchronized void invalidate() {
+		fValid = false;
+	}
+	
+	/**
+	 * Checks for changes that were not reported by the file-system 
+	 * provider. Cached lookups are discarded if an include directory 
+	 * has changed. Otherwise, failed lookups are retried and resolved 
+	 * files that no longer exist are dropped, since files may have 
+	 * been added to or removed from a sub-directory
+	 */
+	public synchronized void refresh() {
+		if (!fValid) {
+			return;
+		}
+		
+		for (int i=0; i<fIncDirs.size(); i++) {
+			long timestamp = fFSProvider.getLastModifiedTime(fIncDirs.get(i));
+			if (timestamp != fIncDirTimestamps.get(i) ||
+					timestamp >= fBuildTime - TIMESTAMP_GRANULARITY) {
+				fValid = false;
+				return;
+			}
+		}
+		
+		fFailedSearches.clear();
+		
+		Iterator<String> it = fIncludeMap.values().iterator();
+		while (it.hasNext()) {
+			if (!fFSProvider.fileExists(it.next())) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Resolves an include path to the full path of the file
+	 *
+	 * @param incfile
+	 * @return full path, or null if the file cannot be found
+	 */
+	public synchronized String resolve(String incfile) {
+		String ret = null;
+
+		if (!fValid) {
+			build();
+		}
+
+		if (incfile.length() >= 2 && incfile.charAt(0) == '.' &&
+				(incfile.charAt(1) == '/' || incfile.charAt(1) == '\\')) {
+			// starts with ./
+			// Treat as a regular relative path
+			incfile = incfile.substring(2);
+		}
+
+		if ((ret = fIncludeMap.get(incfile)) != null) {
+			return ret;
+		} else if (fFailedSearches.contains(incfile)) {
+			return null;
+		}
+
+		String first_elem = SVFileUtils.getPathFirstElem(incfile);
+
+		if (incfile.contains("..")) {
+			// relative path
+			for (int i=0; i<fIncDirs.size(); i++) {
+				String try_path = SVFileUtils.resolvePath(
+						fIncDirs.get(i) + "/" + incfile,
+						fIncDirs.get(i), fFSProvider, true);
+				fLog.debug("  Resolved Path: " + try_path);
+
+				if (fFSProvider.fileExists(try_path)) {
+					ret = try_path;
+					break;
+				}
+			}
+		} else {
+			String incfile_lc = incfile.toLowerCase();
+			for (int i=0; i<fIncDirs.size(); i++) {
+				// Only probe directories that contain the first path element
+				boolean probe;
+				if (first_elem.equals(incfile)) {
+					// File names are compared case-insensitively, since the
+					// filesystem may be case-insensitive
+					probe = (!fIncDirListed.get(i) || 
+							fIncDirFiles.get(i).contains(incfile_lc));
+				} else {
+					probe = fIncDirDirs.get(i).contains(first_elem);
+				}
+				if (probe) {
+					String try_path = fIncDirs.get(i) + "/" + incfile;
+
+					if (fFSProvider.fileExists(try_path)) {
+						ret = try_path;
+					} else {
+						try_path = SVFileUtils.resolvePath(try_path,
+								fIncDirs.get(i), fFSProvider, true);
+						if (fFSProvider.fileExists(try_path)) {
+							ret = try_path;
+						}
+					}
+
+					if (ret != null) {
+						break;
+					}
+				}
+			}
+		}
+
+		// Absolute path
+		if (ret == null && incfile.length() >= 2 && (incfile.charAt(0) == '/' ||
+				(Character.isAlphabetic(incfile.charAt(0)) && incfile.charAt(1) == ':'))) {
+			if (fFSProvider.fileExists(incfile)) {
+				ret = incfile;
+			}
+		}
+
+		if (ret != null) {
+			fIncludeMap.put(incfile, ret);
+		} else {
+			fFailedSearches.add(incfile);
+		}
+
+		return ret;
+	}
+
+	private void build() {
+		fIncludeMap.clear();
+		fFailedSearches.clear();
+		fIncDirFiles.clear();
+		fIncDirDirs.clear();
+		fIncDirListed.clear();
+		fIncDirTimestamps.clear();
+		fBuildTime = System.currentTimeMillis();
+
+		for (String inc_dir : fIncDirs) {
+			Set<String> inc_dir_files = new HashSet<String>();
+			Set<String> inc_dir_dirs = new HashSet<String>();
+
+			// List all elements in the directory
+			boolean listed = fFSProvider.isDir(inc_dir);
+			if (listed) {
+				for (String fd : fFSProvider.getFiles(inc_dir)) {
+					if (fFSProvider.isDir(fd)) {
+						inc_dir_dirs.add(SVFileUtils.getPathLeaf(fd));
+					} else {
+						inc_dir_files.add(SVFileUtils.getPathLeaf(fd).toLowerCase());
+					}
+				}
+			}
+
+			fIncDirFiles.add(inc_dir_files);
+			fIncDirDirs.add(inc_dir_dirs);
+			fIncDirListed.add(listed);
+			fIncDirTimestamps.add(fFSProvider.getLastModifiedTime(inc_dir));
+		}
+
+		fValid = true;
+	}
+
+	private boolean inIncDir(String path) {
+		for (String inc_dir : fIncDirs) {
+			if (path.length() > inc_dir.length() && path.startsWith(inc_dir) &&
+					(path.charAt(inc_dir.length()) == '/' ||
+					 path.charAt(inc_dir.length()) == '\\')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void fileChanged(String path) {
+		// Content changes do not affect include resolution
+	}
+
+	public synchronized void fileRemoved(String path) {
+		if (fValid && (inIncDir(path) || fIncludeMap.containsValue(path))) {
+			fValid = false;
+		}
+	}
+
+	public synchronized void fileAdded(String path) {
+		if (fValid) {
+			if (inIncDir(path)) {
+				fValid = false;
+			} else {
+				// A parent-relative include may now resolve
+				fFailedSearches.clear();
+			}
+		}
+	}
+
+}
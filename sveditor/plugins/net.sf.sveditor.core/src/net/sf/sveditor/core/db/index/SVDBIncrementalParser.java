@@ -0,0 +1,583 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.sveditor.core.StringInputStream;
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.ISVDBChildItem;
+import net.sf.sveditor.core.db.ISVDBChildParent;
+import net.sf.sveditor.core.db.ISVDBEndLocation;
+import net.sf.sveditor.core.db.ISVDBItemBase;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.SVDBScopeItem;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Updates a parsed file after an edit by re-parsing only the innermost
+ * class, module, interface, program, or package that contains the
+ * changed lines. The new scope is spliced into the existing SVDBFile,
+ * and the locations of the items that follow it are shifted by the
+ * number of lines added or removed.
+ *
+ * The re-parse is done on a masked copy of the document in which the
+ * bodies of unrelated scopes are blanked. Pre-processor directives are
+ * kept, so macro definitions and conditional regions are unchanged,
+ * and all remaining lines keep their original line numbers.
+ *
+ * Only items reachable as children are re-located. Expression
+ * locations following the change may be stale until the next full
+ * parse.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBIncrementalParser {
+	private static final SVDBItemType		fScopeTypes[] = {
+		SVDBItemType.ClassDecl,
+		SVDBItemType.ModuleDecl,
+		SVDBItemType.InterfaceDecl,
+		SVDBItemType.ProgramDecl,
+		SVDBItemType.PackageDecl
+	};
+
+	private static final Set<String>		fDirectives;
+
+	static {
+		fDirectives = new HashSet<String>();
+		fDirectives.add("define");
+		fDirectives.add("undef");
+		fDirectives.add("undefineall");
+		fDirectives.add("ifdef");
+		fDirectives.add("ifndef");
+		fDirectives.add("elsif");
+		fDirectives.add("else");
+		fDirectives.add("endif");
+		fDirectives.add("include");
+		fDirectives.add("line");
+	}
+
+	public static class Result {
+		// The updated file. This is the original file, with the
+		// re-parsed scope spliced in
+		public SVDBFile						fFile;
+		// Pre-processor view of the updated content
+		public SVDBFile						fFilePP;
+		public List<SVDBMarker>				fMarkers;
+		// Re-parsed scope
+		public ISVDBChildItem				fScope;
+		// First and last changed line of the new content
+		public int							fFirstLine;
+		public int							fLastLine;
+		// Set when the content did not change. The file and markers
+		// are those passed in, and fFilePP and fScope are null
+		public boolean						fUnchanged;
+	}
+
+	private ISVDBIndexParse					fParser;
+	private LogHandle						fLog;
+	private boolean							fDebugEn = false;
+
+	public SVDBIncrementalParser(ISVDBIndexParse parser) {
+		fParser = parser;
+		fLog = LogFactory.getLogHandle("SVDBIncrementalParser");
+	}
+
+	/**
+	 * Updates a parsed file for new content.
+	 *
+	 * @param monitor
+	 * @param path        path of the file
+	 * @param file        file parsed from the old content. Updated in place
+	 * @param markers     markers from parsing the old content
+	 * @param old_content content that 'file' was parsed from
+	 * @param new_content new content
+	 * @return update result, or null if the change is not contained in a
+	 *         single scope and a full parse is required. When the content
+	 *         is unchanged, the result is marked fUnchanged
+	 */
+	public Result reparse(
+			IProgressMonitor		monitor,
+			String					path,
+			SVDBFile				file,
+			List<SVDBMarker>		markers,
+			String					old_content,
+			String					new_content) {
+		int old_starts[] = lineStarts(old_content);
+		int new_starts[] = lineStarts(new_content);
+		int n_common = Math.min(old_content.length(), new_content.length());
+
+		// Find the range of changed lines from the common prefix and suffix
+		int prefix = 0;
+		while (prefix < n_common && 
+				old_content.charAt(prefix) == new_content.charAt(prefix)) {
+			prefix++;
+		}
+
+		if (prefix == n_common && old_content.length() == new_content.length()) {
+			// No change. The file is left as-is
+			Result ret = new Result();
+			ret.fFile = file;
+			ret.fMarkers = markers;
+			ret.fFirstLine = 1;
+			ret.fLastLine = 0;
+			ret.fUnchanged = true;
+			return ret;
+		}
+
+		int suffix = 0;
+		while (suffix < n_common-prefix &&
+				old_content.charAt(old_content.length()-suffix-1) ==
+				new_content.charAt(new_content.length()-suffix-1)) {
+			suffix++;
+		}
+
+		// Lines entirely within the common prefix and suffix are unchanged
+		int prefix_lines = lineOf(old_starts, prefix)-1;
+		int suffix_lines = 0;
+		for (int i=old_content.length()-suffix; i<old_content.length(); i++) {
+			if (old_content.charAt(i) == '\n') {
+				suffix_lines++;
+			}
+		}
+		suffix_lines = Math.min(suffix_lines, 
+				Math.min(old_starts.length, new_starts.length)-prefix_lines);
+
+		// 1-based line numbers. When lines are only inserted,
+		// old_last is old_first-1
+		int old_first = prefix_lines+1;
+		int old_last  = old_starts.length-suffix_lines;
+		int new_last  = new_starts.length-suffix_lines;
+		int delta     = new_starts.length-old_starts.length;
+
+		if (hasDirective(old_content, old_starts, old_first, old_last) ||
+				hasDirective(new_content, new_starts, old_first, new_last)) {
+			// Changes to directives may affect the entire file
+			if (fDebugEn) {
+				fLog.debug("Change at lines " + old_first + ".." + old_last +
+						" modifies a pre-processor directive");
+			}
+			return null;
+		}
+
+		// Locate the innermost scope containing the change
+		List<ISVDBChildParent> scope_path = new ArrayList<ISVDBChildParent>();
+		ISVDBChildParent scope = null;
+		ISVDBChildParent parent = file;
+		int file_id = -1;
+
+		while (parent != null) {
+			ISVDBChildParent next = null;
+			for (ISVDBChildItem c : parent.getChildren()) {
+				if (isScope(c) && contains(c, old_first, old_last)) {
+					int c_file_id = SVDBLocation.unpackFileId(c.getLocation());
+					if (file_id == -1) {
+						file_id = c_file_id;
+					} else if (file_id != c_file_id) {
+						break;
+					}
+					next = (ISVDBChildParent)c;
+					break;
+				}
+			}
+			if (next != null) {
+				scope_path.add(parent);
+				scope = next;
+			}
+			parent = next;
+		}
+
+		if (scope == null) {
+			if (fDebugEn) {
+				fLog.debug("Change at lines " + old_first + ".." + old_last +
+						" is not within a scope");
+			}
+			return null;
+		}
+
+		int scope_start = line(scope.getLocation());
+		int scope_end = line(((ISVDBEndLocation)scope).getEndLocation());
+
+		// Blank the content of scopes that do not contain the change
+		Set<Integer> keep_lines = new HashSet<Integer>();
+		keep_lines.add(scope_start);
+		keep_lines.add(scope_end);
+		for (int i=1; i<scope_path.size(); i++) {
+			keep_lines.add(line(scope_path.get(i).getLocation()));
+			keep_lines.add(line(((ISVDBEndLocation)scope_path.get(i)).getEndLocation()));
+		}
+
+		boolean mask[] = new boolean[new_starts.length+1];
+		for (int i=0; i<scope_path.size(); i++) {
+			ISVDBChildItem next = (i+1 < scope_path.size())?scope_path.get(i+1):scope;
+			for (ISVDBChildItem c : scope_path.get(i).getChildren()) {
+				if (c == next || !(c instanceof ISVDBEndLocation) ||
+						SVDBLocation.unpackFileId(c.getLocation()) != file_id) {
+					continue;
+				}
+				int start = line(c.getLocation());
+				int end = line(((ISVDBEndLocation)c).getEndLocation());
+
+				if (start <= 0 || end < start || (end >= old_first && start <= old_last)) {
+					continue;
+				}
+
+				boolean overlap = false;
+				for (int l : keep_lines) {
+					if (l >= start && l <= end) {
+						overlap = true;
+						break;
+					}
+				}
+
+				if (!overlap) {
+					if (start > old_last) {
+						start += delta;
+						end += delta;
+					}
+					for (int l=start; l<=end && l<mask.length; l++) {
+						mask[l] = true;
+					}
+				}
+			}
+		}
+
+		String masked = mask(new_content, new_starts, mask);
+
+		List<SVDBMarker> new_markers = new ArrayList<SVDBMarker>();
+		Tuple<SVDBFile, SVDBFile> new_in = fParser.parse(
+				monitor, new StringInputStream(masked), path, new_markers);
+
+		if (new_in == null || new_in.second() == null) {
+			return null;
+		}
+
+		// Locate the re-parsed scope in the new content
+		ISVDBChildParent new_parent = new_in.second();
+		ISVDBChildItem new_scope = null;
+		for (int i=1; i<=scope_path.size(); i++) {
+			ISVDBChildParent old_s = (i < scope_path.size())?scope_path.get(i):scope;
+			int old_s_end = line(((ISVDBEndLocation)old_s).getEndLocation());
+			ISVDBChildItem new_s = null;
+
+			for (ISVDBChildItem c : new_parent.getChildren()) {
+				if (c.getType() == old_s.getType() &&
+						line(c.getLocation()) == line(old_s.getLocation())) {
+					new_s = c;
+					break;
+				}
+			}
+
+			if (new_s == null || !(new_s instanceof ISVDBEndLocation) ||
+					line(((ISVDBEndLocation)new_s).getEndLocation()) != old_s_end+delta) {
+				// Scope structure changed
+				if (fDebugEn) {
+					fLog.debug("Structure of scope at line " +
+							line(old_s.getLocation()) + " changed");
+				}
+				return null;
+			}
+
+			if (i < scope_path.size()) {
+				new_parent = (ISVDBChildParent)new_s;
+			} else {
+				new_scope = new_s;
+			}
+		}
+
+		// Content following the scope on its last line would need re-location
+		ISVDBChildParent scope_parent = scope_path.get(scope_path.size()-1);
+		for (ISVDBChildItem c : scope_parent.getChildren()) {
+			if (c != scope && line(c.getLocation()) == scope_end) {
+				return null;
+			}
+		}
+
+		// Splice the new scope in place of the old one
+		if (!(scope_parent instanceof SVDBScopeItem)) {
+			return null;
+		}
+		List<ISVDBChildItem> items = ((SVDBScopeItem)scope_parent).fItems;
+		int idx = -1;
+		for (int i=0; i<items.size(); i++) {
+			if (items.get(i) == scope) {
+				idx = i;
+				break;
+			}
+		}
+		if (idx == -1) {
+			return null;
+		}
+		new_scope.setParent(scope_parent);
+		items.set(idx, new_scope);
+
+		if (delta != 0) {
+			relocate(file, new_scope, file_id, scope_end, delta);
+		}
+
+		// Keep markers from outside the re-parsed scope
+		Result ret = new Result();
+		ret.fFile = file;
+		ret.fFilePP = new_in.first();
+		ret.fScope = new_scope;
+		ret.fFirstLine = old_first;
+		ret.fLastLine = new_last;
+		ret.fMarkers = new ArrayList<SVDBMarker>();
+
+		for (SVDBMarker m : markers) {
+			int l = line(m.getLocation());
+			if (l < scope_start) {
+				ret.fMarkers.add(m);
+			} else if (l > scope_end) {
+				m.setLocation(shift(m.getLocation(), delta));
+				ret.fMarkers.add(m);
+			}
+		}
+		for (SVDBMarker m : new_markers) {
+			int l = line(m.getLocation());
+			if (l >= scope_start && l <= scope_end+delta) {
+				ret.fMarkers.add(m);
+			}
+		}
+
+		if (fDebugEn) {
+			fLog.debug("Re-parsed lines " + scope_start + ".." + (scope_end+delta) +
+					" for change at " + old_first + ".." + new_last);
+		}
+
+		return ret;
+	}
+
+	private static boolean isScope(ISVDBChildItem item) {
+		return (item instanceof ISVDBChildParent &&
+				item instanceof ISVDBEndLocation &&
+				item.getType().isElemOf(fScopeTypes));
+	}
+
+	private static boolean contains(ISVDBChildItem item, int first, int last) {
+		int start = line(item.getLocation());
+		int end = line(((ISVDBEndLocation)item).getEndLocation());
+
+		if (start <= 0 || end < start) {
+			return false;
+		}
+
+		if (last < first) {
+			// Lines inserted between 'last' and 'first'
+			return (start <= last && end >= first);
+		} else {
+			return (start <= first && end >= last);
+		}
+	}
+
+	/**
+	 * Shifts the locations of items following the re-parsed scope
+	 */
+	private static void relocate(
+			ISVDBChildParent		scope,
+			ISVDBChildItem			skip,
+			int						file_id,
+			int						after_line,
+			int						delta) {
+		for (ISVDBChildItem c : scope.getChildren()) {
+			if (c == skip) {
+				continue;
+			}
+			relocate(c, file_id, after_line, delta);
+			if (c instanceof ISVDBChildParent) {
+				relocate((ISVDBChildParent)c, skip, file_id, after_line, delta);
+			}
+		}
+	}
+
+	private static void relocate(
+			ISVDBItemBase			item,
+			int						file_id,
+			int						after_line,
+			int						delta) {
+		long loc = item.getLocation();
+		if (loc != -1 && SVDBLocation.unpackFileId(loc) == file_id &&
+				line(loc) > after_line) {
+			item.setLocation(shift(loc, delta));
+		}
+		if (item instanceof ISVDBEndLocation) {
+			ISVDBEndLocation e = (ISVDBEndLocation)item;
+			loc = e.getEndLocation();
+			if (loc != -1 && SVDBLocation.unpackFileId(loc) == file_id &&
+					line(loc) > after_line) {
+				e.setEndLocation(shift(loc, delta));
+			}
+		}
+	}
+
+	private static long shift(long loc, int delta) {
+		return SVDBLocation.pack(
+				SVDBLocation.unpackFileId(loc),
+				SVDBLocation.unpackLineno(loc)+delta,
+				SVDBLocation.unpackPos(loc));
+	}
+
+	private static int line(long loc) {
+		return (loc == -1)?-1:SVDBLocation.unpackLineno(loc);
+	}
+
+	/**
+	 * Returns the offset of the start of each line
+	 */
+	private static int[] lineStarts(String content) {
+		int n_lines = 1;
+		for (int i=0; i<content.length(); i++) {
+			if (content.charAt(i) == '\n') {
+				n_lines++;
+			}
+		}
+
+		int ret[] = new int[n_lines];
+		int l = 1;
+		for (int i=0; i<content.length(); i++) {
+			if (content.charAt(i) == '\n') {
+				ret[l++] = i+1;
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Returns the 1-based line containing an offset
+	 */
+	private static int lineOf(int starts[], int offset) {
+		int idx = Arrays.binarySearch(starts, offset);
+		return (idx >= 0)?(idx+1):(-idx-1);
+	}
+
+	private static String getLine(String content, int starts[], int line) {
+		int end = (line < starts.length)?(starts[line]-1):content.length();
+		return content.substring(starts[line-1], end);
+	}
+
+	/**
+	 * Checks whether any of the lines first..last (1-based)
+	 * contains a pre-processor directive
+	 */
+	private static boolean hasDirective(
+			String 			content, 
+			int 			starts[], 
+			int 			first, 
+			int 			last) {
+		for (int l=first; l<=last; l++) {
+			String line = getLine(content, starts, l);
+			int idx = -1;
+			while ((idx = line.indexOf('`', idx+1)) != -1) {
+				if (fDirectives.contains(directive(line, idx))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String directive(String line, int idx) {
+		int end = idx+1;
+		while (end < line.length() &&
+				(Character.isLetterOrDigit(line.charAt(end)) || line.charAt(end) == '_')) {
+			end++;
+		}
+		return line.substring(idx+1, end);
+	}
+
+	/**
+	 * Builds a copy of the content in which masked lines are empty.
+	 * Masked lines that hold a pre-processor directive outside a
+	 * block comment, along with their continuation lines, are kept.
+	 */
+	private static String mask(String content, int starts[], boolean mask[]) {
+		StringBuilder sb = new StringBuilder(content.length());
+		boolean in_comment = false;
+		boolean continuation = false;
+
+		for (int l=1; l<=starts.length; l++) {
+			String line = getLine(content, starts, l);
+
+			if (l < mask.length && mask[l]) {
+				boolean keep = continuation;
+				if (!keep && !in_comment) {
+					String t = line.trim();
+					keep = (t.startsWith("`") && fDirectives.contains(directive(t, 0)));
+				}
+				if (keep) {
+					sb.append(line);
+					continuation = line.trim().endsWith("\\");
+				} else {
+					continuation = false;
+				}
+			} else {
+				sb.append(line);
+				continuation = false;
+			}
+			in_comment = updateCommentState(line, in_comment);
+
+			if (l < starts.length) {
+				sb.append('\n');
+			}
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Tracks whether a block comment is open at the end of a line
+	 */
+	private static boolean updateCommentState(String line, boolean in_comment) {
+		boolean in_string = false;
+
+		for (int i=0; i<line.length(); i++) {
+			char c = line.charAt(i);
+			char n = (i+1 < line.length())?line.charAt(i+1):0;
+
+			if (in_comment) {
+				if (c == '*' && n == '/') {
+					in_comment = false;
+					i++;
+				}
+			} else if (in_string) {
+				if (c == '\\') {
+					i++;
+				} else if (c == '"') {
+					in_string = false;
+				}
+			} else if (c == '"') {
+				in_string = true;
+			} else if (c == '/' && n == '/') {
+				break;
+			} else if (c == '/' && n == '*') {
+				in_comment = true;
+				i++;
+			}
+		}
+
+		return in_comment;
+	}
+
+}
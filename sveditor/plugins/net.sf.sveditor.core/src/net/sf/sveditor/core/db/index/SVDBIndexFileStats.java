@@ -0,0 +1,108 @@
+package net.sf.sveditor.core.db.index;
+
+/**
+ * Per-phase timing and counters for indexing a single root file.
+ * Times include the files included by the root file, and are
+ * held in nanoseconds
+ *
+ * @author ballance
+ *
+ */
+public class SVDBIndexFileStats {
+	private String				fPath;
+	private int					fNumLines;
+	private int					fNumTokens;
+	private long				fReadTimeNS;
+	private long				fPreProcessTimeNS;
+	private long				fLexTimeNS;
+	private long				fParseTimeNS;
+	private long				fDeclCacheTimeNS;
+	private long				fRefCacheTimeNS;
+
+	public SVDBIndexFileStats(String path) {
+		fPath = path;
+	}
+
+	public String getPath() {
+		return fPath;
+	}
+
+	public int getNumLines() {
+		return fNumLines;
+	}
+
+	public void setNumLines(int n) {
+		fNumLines = n;
+	}
+
+	public int getNumTokens() {
+		return fNumTokens;
+	}
+
+	public void setNumTokens(int n) {
+		fNumTokens = n;
+	}
+
+	public long getReadTimeNS() {
+		return fReadTimeNS;
+	}
+
+	public void setReadTimeNS(long t) {
+		fReadTimeNS = t;
+	}
+
+	public long getPreProcessTimeNS() {
+		return fPreProcessTimeNS;
+	}
+
+	public void setPreProcessTimeNS(long t) {
+		fPreProcessTimeNS = t;
+	}
+
+	public long getLexTimeNS() {
+		return fLexTimeNS;
+	}
+
+	public void setLexTimeNS(long t) {
+		fLexTimeNS = t;
+	}
+
+	public long getParseTimeNS() {
+		return fParseTimeNS;
+	}
+
+	public void setParseTimeNS(long t) {
+		fParseTimeNS = t;
+	}
+
+	public long getDeclCacheTimeNS() {
+		return fDeclCacheTimeNS;
+	}
+
+	public void setDeclCacheTimeNS(long t) {
+		fDeclCacheTimeNS = t;
+	}
+
+	public long getRefCacheTimeNS() {
+		return fRefCacheTimeNS;
+	}
+
+	public void setRefCacheTimeNS(long t) {
+		fRefCacheTimeNS = t;
+	}
+
+	/**
+	 * Returns the sum of the per-phase times. File-read time is
+	 * not included, since it is part of the pre-process time
+	 */
+	public long getTotalTimeNS() {
+		return fPreProcessTimeNS + fLexTimeNS + fParseTimeNS +
+				fDeclCacheTimeNS + fRefCacheTimeNS;
+	}
+
+	public String toString() {
+		return fPath + ": " + (getTotalTimeNS()/1000000) + "ms (" +
+				fNumLines + " lines, " + fNumTokens + " tokens)";
+	}
+
+}
@@ -1,5 +1,12 @@
 package net.sf.sveditor.core.db.index;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Provides some information on what an index is managing
  * and indexing performance
@@ -22,38 +29,84 @@ public class SVDBIndexStats {
 	private int					fNumLines;
 	
 	/**
-	 * Number of ms taken to read files during the last index
+	 * Number of ns taken to read files during the last index
 	 */
-	private long				fLastIndexFileReadTimeMS;
+	private long				fLastIndexFileReadTimeNS;
 	
 	/**
-	 * Number of ms taken to preprocess files during the last index
+	 * Number of ns taken to preprocess files during the last index
 	 */
-	private long				fLastIndexPreProcessTimeMS;
+	private long				fLastIndexPreProcessTimeNS;
 	
 	/**
-	 * Number of ms taken to parse files during the last index
+	 * Number of ns taken to parse files during the last index
 	 */
-	private long				fLastIndexParseTimeMS;
+	private long				fLastIndexParseTimeNS;
 	
 	/**
-	 * Number of ms taken to index declarations from files
+	 * Number of ns taken to index declarations from files
 	 */
-	private long				fLastIndexDeclIndexTimeMS;
+	private long				fLastIndexDeclIndexTimeNS;
 	
 	/**
-	 * Number of ms taken to index references
+	 * Number of ns taken to index references
 	 */
-	private long				fLastIndexRefIndexTimeMS;
+	private long				fLastIndexRefIndexTimeNS;
 	
 	/**
 	 * Total number of ms taken during the last index
 	 */
 	private long				fLastIndexTotalTimeMS;
 	
+	/**
+	 * Number of root files re-parsed during the last incremental build
+	 */
+	private int					fLastIncrReparsedFiles;
+	
+	/**
+	 * Number of dependent root files that the last incremental build 
+	 * determined did not need to be re-parsed
+	 */
+	private int					fLastIncrSkippedFiles;
+	
+	/**
+	 * Number of expansions of macros with parameters, and the number
+	 * of those satisfied by the macro-expansion cache
+	 */
+	private long				fNumMacroExpansions;
+	private long				fNumMacroExpansionCacheHits;
+	
+	/**
+	 * Number of ns taken to lex files during the last index. The 
+	 * lex time is not included in the parse time. Lex time is only
+	 * measured if enabled with SVDBArgFileBuildUtils.setCollectLexStats()
+	 */
+	private long				fLastIndexLexTimeNS;
+	
+	/**
+	 * Number of tokens produced by the lexer during the last index
+	 */
+	private long				fNumTokens;
+	
+	/**
+	 * Index-cache hits and misses during the last index
+	 */
+	private long				fNumIndexCacheHits;
+	private long				fNumIndexCacheMisses;
+	
+	/**
+	 * Per-root-file statistics, keyed by path. Re-parsing a file 
+	 * replaces its entry
+	 */
+	private Map<String, SVDBIndexFileStats>	fFileStats;
+	
+	// Times are accumulated in ns, such that the time for each file 
+	// is not rounded down to whole ms. The ms accessors convert
+	private static final long	NS_PER_MS = 1000000;
+	
 	
 	public SVDBIndexStats() {
-		
+		fFileStats = new LinkedHashMap<String, SVDBIndexFileStats>();
 	}
 	
 	public int getNumRootFiles() {
@@ -97,55 +150,214 @@ public class SVDBIndexStats {
 	}
 	
 	public long getLastIndexFileReadTime() {
-		return fLastIndexFileReadTimeMS;
+		return fLastIndexFileReadTimeNS/NS_PER_MS;
+	}
+	
+	public long getLastIndexFileReadTimeNS() {
+		return fLastIndexFileReadTimeNS;
 	}
 	
 	public void setLastIndexFileReadTime(long t) {
-		fLastIndexFileReadTimeMS = t;
+		fLastIndexFileReadTimeNS = t*NS_PER_MS;
+	}
+	
+	public void setLastIndexFileReadTimeNS(long t) {
+		fLastIndexFileReadTimeNS = t;
 	}
 	
 	public void incLastIndexFileReadTime(long t) {
-		fLastIndexFileReadTimeMS += t;
+		fLastIndexFileReadTimeNS += t*NS_PER_MS;
+	}
+	
+	public void incLastIndexFileReadTimeNS(long t) {
+		fLastIndexFileReadTimeNS += t;
 	}
 
 	public long getLastIndexPreProcessTime() {
-		return fLastIndexPreProcessTimeMS;
+		return fLastIndexPreProcessTimeNS/NS_PER_MS;
+	}
+	
+	public long getLastIndexPreProcessTimeNS() {
+		return fLastIndexPreProcessTimeNS;
 	}
 	
 	public void setLastIndexPreProcessTime(long t) {
-		fLastIndexPreProcessTimeMS = t;
+		fLastIndexPreProcessTimeNS = t*NS_PER_MS;
+	}
+	
+	public void setLastIndexPreProcessTimeNS(long t) {
+		fLastIndexPreProcessTimeNS = t;
 	}
 	
 	public void incLastIndexPreProcessTime(long t) {
-		fLastIndexPreProcessTimeMS += t;
+		fLastIndexPreProcessTimeNS += t*NS_PER_MS;
+	}
+	
+	public void incLastIndexPreProcessTimeNS(long t) {
+		fLastIndexPreProcessTimeNS += t;
 	}
 	
 	public long getLastIndexParseTime() {
-		return fLastIndexParseTimeMS;
+		return fLastIndexParseTimeNS/NS_PER_MS;
+	}
+	
+	public long getLastIndexParseTimeNS() {
+		return fLastIndexParseTimeNS;
 	}
 	
 	public void setLastIndexParseTime(long t) {
-		fLastIndexParseTimeMS = t;
+		fLastIndexParseTimeNS = t*NS_PER_MS;
+	}
+	
+	public void setLastIndexParseTimeNS(long t) {
+		fLastIndexParseTimeNS = t;
 	}
 	
 	public long getLastIndexDeclCacheTime() {
-		return fLastIndexDeclIndexTimeMS;
+		return fLastIndexDeclIndexTimeNS/NS_PER_MS;
 	}
 	
 	public void incLastIndexDeclCacheTime(long t) {
-		fLastIndexDeclIndexTimeMS += t;
+		fLastIndexDeclIndexTimeNS += t*NS_PER_MS;
+	}
+	
+	public void incLastIndexDeclCacheTimeNS(long t) {
+		fLastIndexDeclIndexTimeNS += t;
 	}
 	
 	public long getLastIndexRefCacheTime() {
-		return fLastIndexRefIndexTimeMS;
+		return fLastIndexRefIndexTimeNS/NS_PER_MS;
 	}
 	
 	public void incLastIndexRefCacheTime(long t) {
-		fLastIndexRefIndexTimeMS += t;
+		fLastIndexRefIndexTimeNS += t*NS_PER_MS;
+	}
+	
+	public void incLastIndexRefCacheTimeNS(long t) {
+		fLastIndexRefIndexTimeNS += t;
 	}
 	
 	public void incLastIndexParseTime(long t) {
-		fLastIndexParseTimeMS += t;
+		fLastIndexParseTimeNS += t*NS_PER_MS;
+	}
+	
+	public void incLastIndexParseTimeNS(long t) {
+		fLastIndexParseTimeNS += t;
+	}
+	
+	public int getLastIncrReparsedFiles() {
+		return fLastIncrReparsedFiles;
+	}
+	
+	public int getLastIncrSkippedFiles() {
+		return fLastIncrSkippedFiles;
+	}
+	
+	public void setLastIncrStats(int reparsed, int skipped) {
+		fLastIncrReparsedFiles = reparsed;
+		fLastIncrSkippedFiles = skipped;
+	}
+	
+	public long getNumMacroExpansions() {
+		return fNumMacroExpansions;
+	}
+	
+	public long getNumMacroExpansionCacheHits() {
+		return fNumMacroExpansionCacheHits;
+	}
+	
+	public void incMacroExpansionStats(long expansions, long cache_hits) {
+		fNumMacroExpansions += expansions;
+		fNumMacroExpansionCacheHits += cache_hits;
+	}
+	
+	/**
+	 * Returns the macro-expansion cache hit rate as a percentage,
+	 * or -1 if no macros were expanded
+	 */
+	public int getMacroExpansionCacheHitRate() {
+		if (fNumMacroExpansions <= 0) {
+			return -1;
+		}
+		return (int)((100*fNumMacroExpansionCacheHits)/fNumMacroExpansions);
+	}
+	
+	public long getLastIndexLexTime() {
+		return fLastIndexLexTimeNS/NS_PER_MS;
+	}
+	
+	public long getLastIndexLexTimeNS() {
+		return fLastIndexLexTimeNS;
+	}
+	
+	public void incLastIndexLexTime(long t) {
+		fLastIndexLexTimeNS += t*NS_PER_MS;
+	}
+	
+	public void incLastIndexLexTimeNS(long t) {
+		fLastIndexLexTimeNS += t;
+	}
+	
+	public long getNumTokens() {
+		return fNumTokens;
+	}
+	
+	public void incNumTokens(long n) {
+		fNumTokens += n;
+	}
+	
+	public long getNumIndexCacheHits() {
+		return fNumIndexCacheHits;
+	}
+	
+	public long getNumIndexCacheMisses() {
+		return fNumIndexCacheMisses;
+	}
+	
+	public void setIndexCacheStats(long hits, long misses) {
+		fNumIndexCacheHits = hits;
+		fNumIndexCacheMisses = misses;
+	}
+	
+	/**
+	 * Returns the index-cache hit rate as a percentage, or -1
+	 * if the cache was not accessed
+	 */
+	public int getIndexCacheHitRate() {
+		long total = fNumIndexCacheHits + fNumIndexCacheMisses;
+		if (total <= 0) {
+			return -1;
+		}
+		return (int)((100*fNumIndexCacheHits)/total);
+	}
+	
+	public synchronized void addFileStats(SVDBIndexFileStats stats) {
+		fFileStats.remove(stats.getPath());
+		fFileStats.put(stats.getPath(), stats);
+	}
+	
+	public synchronized List<SVDBIndexFileStats> getFileStats() {
+		return new ArrayList<SVDBIndexFileStats>(fFileStats.values());
+	}
+	
+	/**
+	 * Returns up to 'n' per-file statistics, ordered slowest first
+	 */
+	public List<SVDBIndexFileStats> getSlowestFiles(int n) {
+		List<SVDBIndexFileStats> ret = getFileStats();
+		
+		Collections.sort(ret, new Comparator<SVDBIndexFileStats>() {
+			public int compare(SVDBIndexFileStats o1, SVDBIndexFileStats o2) {
+				long t1 = o1.getTotalTimeNS(), t2 = o2.getTotalTimeNS();
+				return (t1 > t2)?-1:(t1 < t2)?1:0;
+			}
+		});
+		
+		if (n >= 0 && ret.size() > n) {
+			ret = new ArrayList<SVDBIndexFileStats>(ret.subList(0, n));
+		}
+		
+		return ret;
 	}
 	
 	public long getLastIndexTotalTime() {
@@ -165,32 +377,125 @@ public class SVDBIndexStats {
 		sb.append("* NumRootFiles: " + fNumRootFiles + "\n");
 		sb.append("* NumProcessedFiles: " + fNumProcessedFiles + "\n");
 		sb.append("* NumLines: " + fNumLines + "\n");
-		sb.append("* FileReadTime: " + fLastIndexFileReadTimeMS + "\n");
-		sb.append("* PreProcessTime: " + fLastIndexPreProcessTimeMS + "\n");
-		sb.append("* ParseTime: " + fLastIndexParseTimeMS + "\n");
+		sb.append("* FileReadTime: " + getLastIndexFileReadTime() + "\n");
+		sb.append("* PreProcessTime: " + getLastIndexPreProcessTime() + "\n");
+		sb.append("* ParseTime: " + getLastIndexParseTime() + "\n");
+		sb.append("* LexTime: " + getLastIndexLexTime() + "\n");
+		sb.append("* DeclCacheTime: " + getLastIndexDeclCacheTime() + "\n");
+		sb.append("* RefCacheTime: " + getLastIndexRefCacheTime() + "\n");
 		sb.append("* TotalIndexTime: " + fLastIndexTotalTimeMS + "\n");
+		sb.append("* MacroExpansions: " + fNumMacroExpansions + 
+				" (cache hit rate " + getMacroExpansionCacheHitRate() + "%)\n");
+		sb.append("* NumTokens: " + fNumTokens + "\n");
+		sb.append("* IndexCache: " + fNumIndexCacheHits + " hits, " +
+				fNumIndexCacheMisses + " misses (hit rate " + getIndexCacheHitRate() + "%)\n");
 		sb.append("*\n");
 		
-		sb.append("* PreProcess Lines/s: " + calcNPerS(fNumLines, fLastIndexPreProcessTimeMS) + "\n");
-		sb.append("* Parse Lines/s: " + calcNPerS(fNumLines, fLastIndexParseTimeMS) + "\n");
+		sb.append("* PreProcess Lines/s: " + calcNPerS(fNumLines, getLastIndexPreProcessTime()) + "\n");
+		sb.append("* Parse Lines/s: " + calcNPerS(fNumLines, getLastIndexParseTime()) + "\n");
+		sb.append("* Lex Tokens/s: " + calcNPerS(fNumTokens, getLastIndexLexTime()) + "\n");
 		sb.append("* Index Lines/s: " + calcNPerS(fNumLines, fLastIndexTotalTimeMS) + "\n");
 	
 		return sb.toString();
 	}
 	
+	/**
+	 * Returns the statistics as a JSON object, including the 
+	 * 'top_n' slowest files (all files if top_n < 0)
+	 */
+	public String toJSON(int top_n) {
+		StringBuilder sb = new StringBuilder();
+		
+		sb.append("{\n");
+		sb.append("  \"numRootFiles\": " + fNumRootFiles + ",\n");
+		sb.append("  \"numProcessedFiles\": " + fNumProcessedFiles + ",\n");
+		sb.append("  \"numLines\": " + fNumLines + ",\n");
+		sb.append("  \"numTokens\": " + fNumTokens + ",\n");
+		sb.append("  \"fileReadTimeMS\": " + getLastIndexFileReadTime() + ",\n");
+		sb.append("  \"preProcessTimeMS\": " + getLastIndexPreProcessTime() + ",\n");
+		sb.append("  \"lexTimeMS\": " + getLastIndexLexTime() + ",\n");
+		sb.append("  \"parseTimeMS\": " + getLastIndexParseTime() + ",\n");
+		sb.append("  \"declCacheTimeMS\": " + getLastIndexDeclCacheTime() + ",\n");
+		sb.append("  \"refCacheTimeMS\": " + getLastIndexRefCacheTime() + ",\n");
+		sb.append("  \"totalTimeMS\": " + fLastIndexTotalTimeMS + ",\n");
+		sb.append("  \"preProcessLinesPerS\": " + calcNPerS(fNumLines, getLastIndexPreProcessTime()) + ",\n");
+		sb.append("  \"parseLinesPerS\": " + calcNPerS(fNumLines, getLastIndexParseTime()) + ",\n");
+		sb.append("  \"lexTokensPerS\": " + calcNPerS(fNumTokens, getLastIndexLexTime()) + ",\n");
+		sb.append("  \"indexLinesPerS\": " + calcNPerS(fNumLines, fLastIndexTotalTimeMS) + ",\n");
+		sb.append("  \"macroExpansions\": " + fNumMacroExpansions + ",\n");
+		sb.append("  \"macroExpansionCacheHits\": " + fNumMacroExpansionCacheHits + ",\n");
+		sb.append("  \"indexCacheHits\": " + fNumIndexCacheHits + ",\n");
+		sb.append("  \"indexCacheMisses\": " + fNumIndexCacheMisses + ",\n");
+		sb.append("  \"slowestFiles\": [");
+		
+		List<SVDBIndexFileStats> files = getSlowestFiles(top_n);
+		for (int i=0; i<files.size(); i++) {
+			SVDBIndexFileStats f = files.get(i);
+			sb.append((i == 0)?"\n":",\n");
+			sb.append("    {");
+			sb.append("\"path\": \"" + escapeJSON(f.getPath()) + "\", ");
+			sb.append("\"lines\": " + f.getNumLines() + ", ");
+			sb.append("\"tokens\": " + f.getNumTokens() + ", ");
+			sb.append("\"totalTimeUS\": " + (f.getTotalTimeNS()/1000) + ", ");
+			sb.append("\"readTimeUS\": " + (f.getReadTimeNS()/1000) + ", ");
+			sb.append("\"preProcessTimeUS\": " + (f.getPreProcessTimeNS()/1000) + ", ");
+			sb.append("\"lexTimeUS\": " + (f.getLexTimeNS()/1000) + ", ");
+			sb.append("\"parseTimeUS\": " + (f.getParseTimeNS()/1000) + ", ");
+			sb.append("\"declCacheTimeUS\": " + (f.getDeclCacheTimeNS()/1000) + ", ");
+			sb.append("\"refCacheTimeUS\": " + (f.getRefCacheTimeNS()/1000));
+			sb.append("}");
+		}
+		sb.append((files.size() > 0)?"\n  ]\n":"]\n");
+		sb.append("}\n");
+		
+		return sb.toString();
+	}
+	
+	private static String escapeJSON(String str) {
+		if (str == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<str.length(); i++) {
+			char c = str.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\');
+				sb.append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int)c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+	
 	public void add(SVDBIndexStats other) {
 		fNumRootFiles += other.fNumRootFiles;
 		fNumProcessedFiles += other.fNumProcessedFiles;
 		fNumLines += other.fNumLines;
-		fLastIndexFileReadTimeMS += other.fLastIndexDeclIndexTimeMS;
-		fLastIndexPreProcessTimeMS += other.fLastIndexPreProcessTimeMS;
-		fLastIndexDeclIndexTimeMS += other.fLastIndexDeclIndexTimeMS;
-		fLastIndexRefIndexTimeMS += other.fLastIndexRefIndexTimeMS;
-		fLastIndexParseTimeMS += other.fLastIndexParseTimeMS;
+		fLastIndexFileReadTimeNS += other.fLastIndexFileReadTimeNS;
+		fLastIndexPreProcessTimeNS += other.fLastIndexPreProcessTimeNS;
+		fLastIndexDeclIndexTimeNS += other.fLastIndexDeclIndexTimeNS;
+		fLastIndexRefIndexTimeNS += other.fLastIndexRefIndexTimeNS;
+		fLastIndexParseTimeNS += other.fLastIndexParseTimeNS;
 		fLastIndexTotalTimeMS += other.fLastIndexTotalTimeMS;
+		fLastIncrReparsedFiles += other.fLastIncrReparsedFiles;
+		fLastIncrSkippedFiles += other.fLastIncrSkippedFiles;
+		fNumMacroExpansions += other.fNumMacroExpansions;
+		fNumMacroExpansionCacheHits += other.fNumMacroExpansionCacheHits;
+		fLastIndexLexTimeNS += other.fLastIndexLexTimeNS;
+		fNumTokens += other.fNumTokens;
+		fNumIndexCacheHits += other.fNumIndexCacheHits;
+		fNumIndexCacheMisses += other.fNumIndexCacheMisses;
+		if (other != this) {
+			for (SVDBIndexFileStats f : other.getFileStats()) {
+				addFileStats(f);
+			}
+		}
 	}
 	
-	public static long calcNPerS(int n, long ms) {
+	public static long calcNPerS(long n, long ms) {
 		long n_tmp = n;
 		long t_tmp = ms;
 		
@@ -0,0 +1,187 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.refs.SVDBRefItem;
+import net.sf.sveditor.core.db.refs.SVDBRefType;
+
+/**
+ * Inverted index from identifier name to the positions of references
+ * to that name. The index is built from the reference lists recorded
+ * in the per-root-file cache data, and is updated one root file at a
+ * time as root files are re-parsed or removed.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBRefNameIndex {
+	private static final SVDBRefType	fRefTypes[] = SVDBRefType.values();
+
+	private Map<String, List<SVDBRefItem>>		fFileMap;
+	private Map<String, List<SVDBRefItem>>		fNameMap;
+
+	public SVDBRefNameIndex() {
+		fFileMap = new HashMap<String, List<SVDBRefItem>>();
+		fNameMap = new HashMap<String, List<SVDBRefItem>>();
+	}
+
+	/**
+	 * Creates an index over the references of a set of root files
+	 */
+	public SVDBRefNameIndex(Map<String, SVDBRootFileCacheData> root_data) {
+		this();
+		for (Entry<String, SVDBRootFileCacheData> e : root_data.entrySet()) {
+			addFile(e.getKey(), e.getValue());
+		}
+	}
+
+	public synchronized void clear() {
+		fFileMap.clear();
+		fNameMap.clear();
+	}
+
+	/**
+	 * Replaces the references indexed for a root file
+	 *
+	 * @param path
+	 * @param root_data data for the root file, or null if the file was removed
+	 */
+	public synchronized void setFile(String path, SVDBRootFileCacheData root_data) {
+		removeFile(path);
+		if (root_data != null) {
+			addFile(path, root_data);
+		}
+	}
+
+	public synchronized void addFile(String path, SVDBRootFileCacheData root_data) {
+		if (fFileMap.containsKey(path)) {
+			removeFile(path);
+		}
+
+		int n_refs = root_data.fRefNames.size();
+		if (root_data.fRefLocations.size() != n_refs ||
+				root_data.fRefTypes.size() != n_refs) {
+			// Inconsistent data. Index nothing for this file
+			return;
+		}
+
+		List<SVDBRefItem> file_refs = new ArrayList<SVDBRefItem>(n_refs);
+		fFileMap.put(path, file_refs);
+
+		for (int i=0; i<n_refs; i++) {
+			String name = root_data.fRefNames.get(i);
+			int type = root_data.fRefTypes.get(i);
+
+			if (name == null || type < 0 || type >= fRefTypes.length) {
+				continue;
+			}
+
+			SVDBRefItem ref = new SVDBRefItem(
+					root_data.fRefLocations.get(i), name, fRefTypes[type]);
+			file_refs.add(ref);
+
+			List<SVDBRefItem> l = fNameMap.get(name);
+			if (l == null) {
+				l = new ArrayList<SVDBRefItem>(2);
+				fNameMap.put(name, l);
+			}
+			l.add(ref);
+		}
+	}
+
+	public synchronized void removeFile(String path) {
+		List<SVDBRefItem> file_refs = fFileMap.remove(path);
+
+		if (file_refs == null) {
+			return;
+		}
+
+		// Group by name, so each name list is filtered once
+		Map<String, Set<SVDBRefItem>> remove_m = new HashMap<String, Set<SVDBRefItem>>();
+		for (SVDBRefItem ref : file_refs) {
+			Set<SVDBRefItem> s = remove_m.get(ref.getRefName());
+			if (s == null) {
+				s = new LinkedHashSet<SVDBRefItem>();
+				remove_m.put(ref.getRefName(), s);
+			}
+			s.add(ref);
+		}
+
+		for (Entry<String, Set<SVDBRefItem>> e : remove_m.entrySet()) {
+			List<SVDBRefItem> l = fNameMap.get(e.getKey());
+			if (l == null) {
+				continue;
+			}
+			// Items are unique objects, and do not override equals()
+			List<SVDBRefItem> keep = new ArrayList<SVDBRefItem>(l.size());
+			for (SVDBRefItem ref : l) {
+				if (!e.getValue().contains(ref)) {
+					keep.add(ref);
+				}
+			}
+			if (keep.size() == 0) {
+				fNameMap.remove(e.getKey());
+			} else {
+				fNameMap.put(e.getKey(), keep);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of indexed root files
+	 */
+	public synchronized int getNumFiles() {
+		return fFileMap.size();
+	}
+
+	/**
+	 * Returns all references to the specified name
+	 */
+	public synchronized List<SVDBRefItem> findByName(String name) {
+		List<SVDBRefItem> ret = new ArrayList<SVDBRefItem>();
+		List<SVDBRefItem> l = fNameMap.get(name);
+		if (l != null) {
+			ret.addAll(l);
+		}
+		return ret;
+	}
+
+	public synchronized boolean containsName(String name) {
+		return fNameMap.containsKey(name);
+	}
+
+	/**
+	 * Returns the ids of files containing references to the
+	 * specified name, in order of first reference
+	 */
+	public synchronized List<Integer> findFileIds(String name) {
+		Set<Integer> ret = new LinkedHashSet<Integer>();
+		List<SVDBRefItem> l = fNameMap.get(name);
+		if (l != null) {
+			for (SVDBRefItem ref : l) {
+				ret.add(SVDBLocation.unpackFileId(ref.getLocation()));
+			}
+		}
+		return new ArrayList<Integer>(ret);
+	}
+
+}
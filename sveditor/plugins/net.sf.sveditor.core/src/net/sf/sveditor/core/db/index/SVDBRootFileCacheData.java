@@ -24,11 +24,43 @@ public class SVDBRootFileCacheData {
 	
 	// Set of identifiers referenced within this root file
 	public Set<String>						fRefCache;
+	
+	// Identifier references within this root file and its included
+	// files. Entry i of each list describes one reference: the name,
+	// the packed location, and the SVDBRefType ordinal
+	public List<String>						fRefNames;
+	public List<Long>						fRefLocations;
+	public List<Integer>					fRefTypes;
+	
+	// Macros referenced by this root file and its included files
+	public Set<String>						fReferencedMacros;
+	
+	// Macros defined by this root file and its included files,
+	// along with a hash of each definition
+	public List<String>						fDefinedMacros;
+	public List<Long>						fDefinedMacroHashes;
+	
+	// Packages imported by this root file
+	public Set<String>						fImportedPackages;
+	
+	// Packages declared in this root file, along with a 
+	// hash of the top-level declarations in each package
+	public List<String>						fDeclaredPackages;
+	public List<Long>						fDeclaredPackageHashes;
 
 	public SVDBRootFileCacheData() {
 		fIncludedFiles = new ArrayList<String>();
 		fMissingIncludeFiles = new ArrayList<String>();
 		fTopLevelDeclarations = new HashMap<String, SVDBDeclCacheItem>();
 		fRefCache = new HashSet<String>();
+		fRefNames = new ArrayList<String>();
+		fRefLocations = new ArrayList<Long>();
+		fRefTypes = new ArrayList<Integer>();
+		fReferencedMacros = new HashSet<String>();
+		fDefinedMacros = new ArrayList<String>();
+		fDefinedMacroHashes = new ArrayList<Long>();
+		fImportedPackages = new HashSet<String>();
+		fDeclaredPackages = new ArrayList<String>();
+		fDeclaredPackageHashes = new ArrayList<Long>();
 	}
 }
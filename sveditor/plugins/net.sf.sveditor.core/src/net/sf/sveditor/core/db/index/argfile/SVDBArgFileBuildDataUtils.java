@@ -32,6 +32,7 @@ import net.sf.sveditor.core.db.index.ISVDBDeclCache;
 import net.sf.sveditor.core.db.index.ISVDBFileSystemProvider;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
 import net.sf.sveditor.core.db.index.SVDBFileTreeUtils;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache.FileType;
 import net.sf.sveditor.core.db.refs.SVDBFileRefCollector;
@@ -151,6 +152,8 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 		if (ft != null) {
 			cacheFileTreeDeclarations(ft, parent, file_item_list);
 		}
+		
+		build_data.updateDeclNameIndex(file_path);
 	}
 	
 	private static void cacheFileDeclarations(
@@ -192,7 +195,7 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 				if (decl_list != null) {
 					decl_list.add(new SVDBDeclCacheItem(parent, 
 							curr_filename, pkg.getName(), 
-							item.getType(), false));
+							item.getType(), false, item.getLocation()));
 				}
 				
 				Map<String, List<SVDBDeclCacheItem>> pkg_map = 
@@ -227,7 +230,7 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 								+ ((ISVDBNamedItem) item).getName() + " to cache");
 						decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
 								((ISVDBNamedItem) item).getName(), item.getType(),
-								false));
+								false, item.getLocation()));
 					}
 				}
 				if (pkg_decl_list != null) {
@@ -235,7 +238,7 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 							+ ((ISVDBNamedItem) item).getName() + " to pkg_decl cache");
 					pkg_decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
 							((ISVDBNamedItem) item).getName(), item.getType(),
-							false));
+							false, item.getLocation()));
 				}
 				
 				// 'Global' declarations, such as classes, can be declared within Modules/Interfaces/Programs 
@@ -247,12 +250,29 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 					cacheFileDeclarations(build_data, parent, curr_fileid, 
 						decl_list, null, (ISVDBScopeItem)item, ft);
 				}
+			} else if (item.getType().isElemOf(SVDBItemType.VHEntityDecl,
+					SVDBItemType.VHArchitectureDecl, SVDBItemType.VHPackageDecl,
+					SVDBItemType.VHComponentDecl)) {
+				// VHDL design units. Package bodies are not cached, since
+				// the package declaration is the navigation target
+				if (decl_list != null) {
+					decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
+							((ISVDBNamedItem) item).getName(), item.getType(),
+							false, item.getLocation()));
+				}
+				
+				// Components declared in packages are globally visible
+				if (item.getType() == SVDBItemType.VHPackageDecl) {
+					cacheFileDeclarations(build_data, parent, curr_fileid, 
+						decl_list, null, (ISVDBScopeItem)item, ft);
+				}
 			} else if (item.getType() == SVDBItemType.ImportStmt && pkg_decl_list != null) {
 				SVDBImportStmt imp_s = (SVDBImportStmt)item;
 				for (ISVDBChildItem c : imp_s.getChildren()) {
 					SVDBImportItem imp_i = (SVDBImportItem)c;
 					pkg_decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
-							imp_i.getImport(), item.getType(), false));
+							imp_i.getImport(), item.getType(), false, 
+							item.getLocation()));
 				}
 			} else if (item.getType() == SVDBItemType.VarDeclStmt && is_root_scope) {
 				SVDBVarDeclStmt decl = (SVDBVarDeclStmt) item;
@@ -264,23 +284,27 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 
 					if (decl_list != null) {
 						decl_list.add(new SVDBDeclCacheItem(parent, curr_filename, 
-								di.getName(), SVDBItemType.VarDeclItem, false));
+								di.getName(), SVDBItemType.VarDeclItem, false,
+								di.getLocation()));
 					}
 					if (pkg_decl_list != null) {
 						pkg_decl_list.add(new SVDBDeclCacheItem(parent, curr_filename, 
-								di.getName(), SVDBItemType.VarDeclItem, false));
+								di.getName(), SVDBItemType.VarDeclItem, false,
+								di.getLocation()));
 					}
 				}
 			} else if (item.getType() == SVDBItemType.TypedefStmt && is_root_scope) {
 				// Add entries for the typedef
 				if (decl_list != null) {
 					decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
-							((ISVDBNamedItem) item).getName(), item.getType(), false));
+							((ISVDBNamedItem) item).getName(), item.getType(), false,
+							item.getLocation()));
 				}
 				
 				if (pkg_decl_list != null) {
 					pkg_decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
-							((ISVDBNamedItem) item).getName(), item.getType(), false));
+							((ISVDBNamedItem) item).getName(), item.getType(), false,
+							item.getLocation()));
 				}
 
 				SVDBTypedefStmt td = (SVDBTypedefStmt) item;
@@ -294,7 +318,7 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 						if (decl_list != null) {
 							decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
 									((ISVDBNamedItem) en).getName(), 
-									en.getType(), false));
+									en.getType(), false, en.getLocation()));
 						}
 //						if (pkg_decl_list != null) {
 //							pkg_decl_list.add(new SVDBDeclCacheItem(parent, curr_filename,
@@ -324,7 +348,8 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 							ft.getFilePath(),
 							def.getName(),
 							SVDBItemType.MacroDef,
-							true);
+							true,
+							def.getLocation());
 					file_item_list.add(item);
 				}
 			}
@@ -335,10 +360,17 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 		}
 	}
 
-	public static void cacheReferences(SVDBArgFileIndexBuildData build_data, SVDBFile file) {
+	/**
+	 * Collects the references in a root file. The position of each
+	 * reference is recorded in the root-file data, when specified
+	 */
+	public static void cacheReferences(
+			SVDBArgFileIndexBuildData	build_data, 
+			SVDBFile					file,
+			SVDBRootFileCacheData		root_data) {
 		Map<String, List<Integer>> ref_map = build_data.getReferenceCacheMap();
 		
-		SVDBFileRefCollector collector = new SVDBFileRefCollector(ref_map);
+		SVDBFileRefCollector collector = new SVDBFileRefCollector(ref_map, root_data);
 		SVDBFileRefFinder finder = new SVDBFileRefFinder();
 		finder.setRefVisitor(collector);
 		
@@ -755,19 +787,8 @@ public class SVDBArgFileBuildDataUtils implements ILogLevel {
 			IProgressMonitor				monitor,
 			String							name,
 			ISVDBFindNameMatcher			matcher) {
-		List<SVDBDeclCacheItem> ret = new ArrayList<SVDBDeclCacheItem>();
-		
-		Map<String, List<SVDBDeclCacheItem>> decl_cache = build_data.getDeclCacheMap();
-
-		for (Entry<String, List<SVDBDeclCacheItem>> e : decl_cache.entrySet()) {
-			for (SVDBDeclCacheItem item : e.getValue()) {
-				if (matcher.match(item, name)) {
-					ret.add(item);
-				}
-			}
-		}
-
-		return ret;		
+		// The name index selects candidates based on the matcher
+		return build_data.getDeclNameIndex().find(name, matcher);
 	}
 	
 	public static SVDBFile findFile(
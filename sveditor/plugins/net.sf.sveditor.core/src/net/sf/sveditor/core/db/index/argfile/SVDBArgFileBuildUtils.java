@@ -1,5 +1,6 @@
 package net.sf.sveditor.core.db.index.argfile;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -8,12 +9,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 
+import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.SVFileUtils;
+import net.sf.sveditor.core.StringInputStream;
 import net.sf.sveditor.core.builder.ISVBuilderOutput;
 import net.sf.sveditor.core.builder.SVBuilderPreProcTracker;
+import net.sf.sveditor.core.db.ISVDBLanguageFileParser;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.SVDBFileTree;
 import net.sf.sveditor.core.db.SVDBMacroDef;
@@ -21,6 +35,13 @@ import net.sf.sveditor.core.db.SVDBMarker;
 import net.sf.sveditor.core.db.index.ISVDBDeclCache;
 import net.sf.sveditor.core.db.index.ISVDBFileSystemProvider;
 import net.sf.sveditor.core.db.index.SVDBFileTreeUtils;
+import net.sf.sveditor.core.db.index.SVDBIndexFileStats;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
+import net.sf.sveditor.core.db.index.cache.ISVDBIndexCacheMgr;
+import net.sf.sveditor.core.db.index.cache.ISVDBIndexCacheMgrInt;
+import net.sf.sveditor.core.db.index.external.ExternalIndexerParseResult;
+import net.sf.sveditor.core.db.index.external.ExternalIndexerRunner;
 import net.sf.sveditor.core.log.ILogHandle;
 import net.sf.sveditor.core.log.ILogLevel;
 import net.sf.sveditor.core.log.ILogLevelListener;
@@ -30,12 +51,18 @@ import net.sf.sveditor.core.parser.ISVTokenListener;
 import net.sf.sveditor.core.parser.SVLanguageLevel;
 import net.sf.sveditor.core.parser.SVParser;
 import net.sf.sveditor.core.parser.SVToken;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
+import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
 import net.sf.sveditor.core.preproc.SVPreProcOutput;
 import net.sf.sveditor.core.preproc.SVPreProcessor;
 
 public class SVDBArgFileBuildUtils implements ILogLevel {
 	private static boolean				fDebugEn;
 	private static final LogHandle		fLog;
+	private static volatile int			fNumBuildThreads = 
+			Runtime.getRuntime().availableProcessors();
+	private static volatile int			fNumExternalIndexers = 0;
+	private static volatile boolean		fCollectLexStats = false;
 	private static final ILogLevelListener fLogLevelListener = new ILogLevelListener() {
 		
 		@Override
@@ -56,13 +83,22 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 			ISVDBDeclCache				parent,
 			SVDBArgFileParser			argfile_parser,
 			ISVBuilderOutput			out) {
-		ISVDBFileSystemProvider fs_provider = build_data.getFSProvider();
 		long start_time=-1, end_time=-1;
 		int total_work = 1000000;
 		int per_file_work = 0;
 		fDebugEn = (fLog.getDebugLevel() > 0);
 		
 		SubMonitor subMonitor = SubMonitor.convert(monitor, "Build Index", total_work);
+		
+		// Snapshot cache-manager counters, so the build's use of the 
+		// cache can be reported. The manager is shared between indexes, 
+		// so concurrent builds of other indexes are also counted
+		ISVDBIndexCacheMgr cache_mgr = build_data.getCacheMgr();
+		long cache_hits = 0, cache_misses = 0;
+		if (cache_mgr instanceof ISVDBIndexCacheMgrInt) {
+			cache_hits = ((ISVDBIndexCacheMgrInt)cache_mgr).getNumHits();
+			cache_misses = ((ISVDBIndexCacheMgrInt)cache_mgr).getNumMisses();
+		}
 
 		// First, parse the argument files
 		start_time = System.currentTimeMillis();
@@ -122,6 +158,68 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 			defines.put(key, new SVDBMacroDef(key, val));
 		}		
 		
+		if (!build_data.isMFCU() && total_files > 1 &&
+				(fNumBuildThreads > 1 || fNumExternalIndexers > 0)) {
+			// Root files are independent of each other, so parse them
+			// concurrently and merge results in root-file order
+			if (!parseFilesParallel(subMonitor, per_file_work, 
+					paths, libfile_paths, build_data, parent, defines, out)) {
+				return;
+			}
+		} else {
+			if (!parseFilesSequential(subMonitor, per_file_work, 
+					paths, libfile_paths, build_data, parent, defines, out)) {
+				return;
+			}
+		}
+
+		// End of the total index
+		end_time = System.currentTimeMillis();
+		
+		build_data.getIndexStats().incLastIndexTotalTime(end_time-start_time);
+		
+		if (cache_mgr instanceof ISVDBIndexCacheMgrInt) {
+			build_data.getIndexStats().setIndexCacheStats(
+					((ISVDBIndexCacheMgrInt)cache_mgr).getNumHits()-cache_hits,
+					((ISVDBIndexCacheMgrInt)cache_mgr).getNumMisses()-cache_misses);
+		}
+		
+//		Map<String, List<Integer>> refMap = build_data.fRefCollector.getRefMap();
+//		for (Entry<String, List<Integer>> ent : refMap.entrySet()) {
+//			System.out.print(ent.getKey() + ": ");
+//			for (Integer file : ent.getValue()) {
+//				System.out.print(file + " ");
+//			}
+//			System.out.println();
+//		}
+	
+		if (fDebugEn) {
+			fLog.debug(LEVEL_MIN, "Index " + build_data.getBaseLocation()
+					+ ": Parse source files -- " + (end_time - start_time)
+					+ "ms");
+		}
+		
+		subMonitor.done();
+	}
+	
+	/**
+	 * Parse root and library files one at a time on the calling thread. 
+	 * This mode is required for MFCU builds, since macros defined by 
+	 * one root file are visible to the root files that follow.
+	 * 
+	 * @return false if the build was cancelled
+	 */
+	private static boolean parseFilesSequential(
+			SubMonitor					subMonitor,
+			int							per_file_work,
+			List<String>				paths,
+			List<String>				libfile_paths,
+			SVDBArgFileIndexBuildData	build_data,
+			ISVDBDeclCache				parent,
+			Map<String, SVDBMacroDef>	defines,
+			ISVBuilderOutput			out) {
+		ISVDBFileSystemProvider fs_provider = build_data.getFSProvider();
+		
 		for (int i=0; i<paths.size(); i++) {
 			String path = paths.get(i);
 			
@@ -138,7 +236,7 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 				
 				if (subMonitor.isCanceled()) {
 					fLog.debug(LEVEL_MIN, "Index " + build_data.getBaseLocation() + " cancelled");
-					return;
+					return false;
 				}
 				
 				if (build_data.isMFCU()) {
@@ -175,7 +273,7 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 				if (loopMonitor.isCanceled()) {
 					fLog.debug(LEVEL_MIN, "Index " + 
 							build_data.getBaseLocation() + " cancelled");
-					return;
+					return false;
 				}
 				
 				if (build_data.isMFCU()) {
@@ -191,28 +289,329 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 				loopMonitor.worked(per_file_work);
 			}			
 		}
+		
+		return true;
+	}
+	
+	/**
+	 * Parse root and library files concurrently on a bounded pool of
+	 * worker threads. Workers pre-process root files one at a time in 
+	 * root-file order, which assigns file ids and fills the include-file 
+	 * cache just as a sequential build does, and parse concurrently. 
+	 * Results are committed to the build data (declaration cache, 
+	 * reference cache, file cache) on the calling thread in root-file 
+	 * order, such that the index content does not depend on thread 
+	 * scheduling.
+	 * 
+	 * @return false if the build was cancelled
+	 */
+	private static boolean parseFilesParallel(
+			SubMonitor							subMonitor,
+			int									per_file_work,
+			List<String>						paths,
+			List<String>						libfile_paths,
+			final SVDBArgFileIndexBuildData		build_data,
+			ISVDBDeclCache						parent,
+			final Map<String, SVDBMacroDef>		defines,
+			final ISVBuilderOutput				out) {
+		ISVDBFileSystemProvider fs_provider = build_data.getFSProvider();
+		List<String> all_paths = new ArrayList<String>();
+		
+		for (String path : paths) {
+			if (fs_provider.fileExists(path) && !fs_provider.isDir(path)) {
+				all_paths.add(path);
+			} else {
+				out.error("File " + path + " doesn't exist");
+			}
+		}
+		for (String path : libfile_paths) {
+			if (fs_provider.fileExists(path) && !fs_provider.isDir(path)) {
+				all_paths.add(path);
+			}
+		}
+		
+		// Orders pre-processing of the root files
+		final SVDBArgFileParallelFileMapper mapper = 
+				new SVDBArgFileParallelFileMapper(build_data, all_paths.size());
+		
+		// When external indexers are enabled, each worker thread 
+		// drives one indexer process
+		final BlockingQueue<ExternalIndexerRunner> runners = 
+				(fNumExternalIndexers > 0)?allocExternalIndexers(
+						Math.min(fNumExternalIndexers, all_paths.size()), 
+						build_data, defines):null;
+		
+		int n_threads = Math.min((runners != null)?runners.size():fNumBuildThreads, 
+				all_paths.size());
+		
+		if (n_threads < 1) {
+			n_threads = 1;
+		}
+		
+		if (fDebugEn) {
+			fLog.debug(LEVEL_MIN, "Index " + build_data.getBaseLocation() + 
+					": parallel parse of " + all_paths.size() + " files with " +
+					n_threads + ((runners != null)?" external indexers":" threads"));
+		}
+		
+		ExecutorService pool = Executors.newFixedThreadPool(n_threads, 
+				new ThreadFactory() {
+					private int			fId = 0;
+					
+					@Override
+					public synchronized Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "SVDBArgFileBuildWorker-" + (fId++));
+						t.setDaemon(true);
+						return t;
+					}
+				});
 
-		// End of the total index
-		end_time = System.currentTimeMillis();
+		// Limit the number of outstanding results, since each holds 
+		// a fully-parsed file until it is committed
+		int max_outstanding = 2*n_threads;
+		List<Future<SVDBArgFileParseResult>> results = 
+				new ArrayList<Future<SVDBArgFileParseResult>>();
+		int next_submit = 0;
+		boolean cancelled = false;
 		
-		build_data.getIndexStats().incLastIndexTotalTime(end_time-start_time);
+		try {
+			for (int i=0; i<all_paths.size(); i++) {
+				while (next_submit < all_paths.size() && 
+						(next_submit - i) < max_outstanding) {
+					final String path = all_paths.get(next_submit);
+					final int root_idx = next_submit;
+					results.add(pool.submit(new Callable<SVDBArgFileParseResult>() {
+						@Override
+						public SVDBArgFileParseResult call() throws Exception {
+							// Wait for the preceding root files to be pre-processed
+							mapper.beginPreProcess(root_idx);
+							
+							try {
+								out.note("Parse: " + path);
+								if (runners != null) {
+									SVDBArgFileParseResult result = 
+											externalParseFile(runners, path, mapper, root_idx);
+									if (result != null) {
+										return result;
+									} else if (Thread.currentThread().isInterrupted()) {
+										// Build was cancelled
+										return null;
+									}
+									// Fall back to parsing in-process
+								}
+								return preProcessParseFile(path, build_data, 
+										mapper, mapper, defines, out, new SVDBIndexStats(),
+										mapper, root_idx);
+							} finally {
+								// Ensure a failed root file does not stall the following ones
+								mapper.endPreProcess(root_idx, path, null);
+							}
+						}
+					}));
+					next_submit++;
+				}
+				
+				String path = all_paths.get(i);
+				subMonitor.subTask("Parse " + path);
+				
+				SVDBArgFileParseResult result = null;
+				try {
+					result = results.get(i).get();
+				} catch (InterruptedException e) {
+					cancelled = true;
+					break;
+				} catch (ExecutionException e) {
+					fLog.error("Failed to parse " + path, e);
+					out.error("Failed to parse " + path + ": " + e.getCause());
+				}
+				// Release the reference as soon as possible
+				results.set(i, null);
+				
+				if (subMonitor.isCanceled()) {
+					cancelled = true;
+					break;
+				}
+				
+				if (result != null) {
+					commitParseResult(build_data, parent, result);
+					mapper.commit(result.fPath);
+				}
+				
+				subMonitor.worked(per_file_work);
+			}
+		} finally {
+			pool.shutdownNow();
+			
+			if (runners != null) {
+				// Wait for in-flight requests, then return the indexers
+				// to the pool for use by subsequent builds
+				try {
+					pool.awaitTermination(60, TimeUnit.SECONDS);
+				} catch (InterruptedException e) { }
+				
+				ExternalIndexerRunner runner;
+				while ((runner = runners.poll()) != null) {
+					ExternalIndexerRunner.freeRunner(runner);
+				}
+			}
+		}
 		
-//		Map<String, List<Integer>> refMap = build_data.fRefCollector.getRefMap();
-//		for (Entry<String, List<Integer>> ent : refMap.entrySet()) {
-//			System.out.print(ent.getKey() + ": ");
-//			for (Integer file : ent.getValue()) {
-//				System.out.print(file + " ");
-//			}
-//			System.out.println();
-//		}
+		if (cancelled) {
+			fLog.debug(LEVEL_MIN, "Index " + build_data.getBaseLocation() + " cancelled");
+		}
+		
+		return !cancelled;
+	}
 	
-		if (fDebugEn) {
-			fLog.debug(LEVEL_MIN, "Index " + build_data.getBaseLocation()
-					+ ": Parse source files -- " + (end_time - start_time)
-					+ "ms");
+	/**
+	 * Obtains up to <code>n</code> external indexer processes and 
+	 * sends the build configuration to each.
+	 * 
+	 * @return queue of usable indexers, or null if none could be started
+	 */
+	private static BlockingQueue<ExternalIndexerRunner> allocExternalIndexers(
+			int							n,
+			SVDBArgFileIndexBuildData	build_data,
+			Map<String, SVDBMacroDef>	defines) {
+		BlockingQueue<ExternalIndexerRunner> runners = 
+				new LinkedBlockingQueue<ExternalIndexerRunner>();
+		
+		for (int i=0; i<n; i++) {
+			ExternalIndexerRunner runner = ExternalIndexerRunner.allocRunner();
+			
+			try {
+				runner.setup(build_data.getForceSV(), defines.values());
+				runners.add(runner);
+			} catch (IOException e) {
+				fLog.error("Failed to start external indexer", e);
+				runner.shutdown();
+			}
 		}
 		
-		subMonitor.done();
+		return (runners.size() > 0)?runners:null;
+	}
+	
+	/**
+	 * Parses a root file using one of the available external indexers.
+	 * The turn to pre-process is passed to the next root file once the
+	 * indexer reports that it has pre-processed this one
+	 * 
+	 * @return parse result, or null if the file must be parsed in-process
+	 */
+	private static SVDBArgFileParseResult externalParseFile(
+			BlockingQueue<ExternalIndexerRunner>	runners,
+			final String							path,
+			final SVDBArgFileParallelFileMapper		mapper,
+			final int								root_idx) {
+		// Each worker thread returns its indexer before taking on 
+		// another file, so an indexer is available unless one failed
+		ExternalIndexerRunner runner = runners.poll();
+		
+		if (runner == null) {
+			return null;
+		}
+		
+		ExternalIndexerParseResult ext_result = null;
+		try {
+			ext_result = runner.parse_file(path, mapper, mapper, new Runnable() {
+				public void run() {
+					mapper.endPreProcess(root_idx, path, null);
+				}
+			});
+			runners.add(runner);
+		} catch (IOException e) {
+			if (Thread.currentThread().isInterrupted() && runner.isAlive()) {
+				// The build was cancelled. The indexer itself is still
+				// healthy, so keep it for subsequent builds
+				runners.add(runner);
+				return null;
+			}
+			
+			// Indexer is no longer usable. Remaining files assigned to 
+			// this worker thread are parsed in-process
+			fLog.error("External indexer failed while parsing " + path, e);
+			runner.shutdown();
+			return null;
+		}
+		
+		if (ext_result == null) {
+			return null;
+		}
+		
+		SVDBArgFileParseResult result = new SVDBArgFileParseResult();
+		result.fPath = path;
+		result.fFile = ext_result.getFile();
+		result.fFileTree = ext_result.getFileTree();
+		result.fMarkers = ext_result.getMarkers();
+		result.fIndexStats = ext_result.getIndexStats();
+		
+		// The external indexer reports only aggregate times
+		SVDBIndexStats ext_stats = result.fIndexStats;
+		result.fFileStats = new SVDBIndexFileStats(path);
+		result.fFileStats.setNumLines(ext_stats.getNumLines());
+		result.fFileStats.setReadTimeNS(ext_stats.getLastIndexFileReadTimeNS());
+		result.fFileStats.setPreProcessTimeNS(ext_stats.getLastIndexPreProcessTimeNS());
+		result.fFileStats.setParseTimeNS(ext_stats.getLastIndexParseTimeNS());
+		
+		return result;
+	}
+	
+	/**
+	 * Result of pre-processing and parsing a single root file. 
+	 * Produced by {@link SVDBArgFileBuildUtils#preProcessParseFile} 
+	 * and consumed by {@link SVDBArgFileBuildUtils#commitParseResult}
+	 */
+	private static class SVDBArgFileParseResult {
+		String						fPath;
+		SVDBFile					fFile;
+		SVDBFileTree				fFileTree;
+		List<SVDBMarker>			fMarkers;
+		SVDBIndexStats				fIndexStats;
+		SVDBIndexFileStats			fFileStats;
+	}
+	
+	/**
+	 * Controls the number of threads used to parse root files 
+	 * in non-MFCU builds. A value <= 1 selects sequential parsing
+	 * 
+	 * @param n
+	 */
+	public static void setNumBuildThreads(int n) {
+		fNumBuildThreads = n;
+	}
+	
+	public static int getNumBuildThreads() {
+		return fNumBuildThreads;
+	}
+	
+	/**
+	 * Controls the number of external indexer processes used to
+	 * parse root files in non-MFCU builds. A value of 0 (the default) 
+	 * parses files within the IDE process
+	 * 
+	 * @param n
+	 */
+	public static void setNumExternalIndexers(int n) {
+		fNumExternalIndexers = n;
+	}
+	
+	public static int getNumExternalIndexers() {
+		return fNumExternalIndexers;
+	}
+	
+	/**
+	 * Controls whether lex time is measured while parsing. Measuring 
+	 * lex time requires timing each token, so it is off by default. 
+	 * When off, lex time is included in the parse time
+	 * 
+	 * @param collect
+	 */
+	public static void setCollectLexStats(boolean collect) {
+		fCollectLexStats = collect;
+	}
+	
+	public static boolean getCollectLexStats() {
+		return fCollectLexStats;
 	}
 
 	public static Map<String, SVDBMacroDef> parseFile(
@@ -221,49 +620,87 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 			ISVDBDeclCache						parent,
 			Map<String, SVDBMacroDef>			defines,
 			final ISVBuilderOutput				out) {
+		SVDBArgFileParseResult result = preProcessParseFile(
+				path, build_data, build_data, build_data, defines, out, 
+				new SVDBIndexStats(), null, -1);
+		
+		return commitParseResult(build_data, parent, result);
+	}
+
+	/**
+	 * Pre-process and parse a root file. This method only reads from 
+	 * the build data, and may be called from multiple threads concurrently.
+	 * File ids and included files are obtained through 'file_mapper'
+	 * and 'inc_provider'.
+	 * 
+	 * During a parallel build, 'parallel_mapper' is the mapper that orders
+	 * pre-processing. The root file is then pre-processed in full before 
+	 * parsing, and the turn is passed to the next root file. Otherwise, 
+	 * pre-processor output is streamed to the parser
+	 */
+	private static SVDBArgFileParseResult preProcessParseFile(
+			String 								path, 
+			final SVDBArgFileIndexBuildData 	build_data,
+			ISVPreProcFileMapper				file_mapper,
+			ISVPreProcIncFileProvider			inc_provider,
+			Map<String, SVDBMacroDef>			defines,
+			final ISVBuilderOutput				out,
+			SVDBIndexStats						stats,
+			SVDBArgFileParallelFileMapper		parallel_mapper,
+			int									root_idx) {
+		ISVDBLanguageFileParser lang_parser = SVCorePlugin.findLanguageFileParser(path);
+		
+		if (lang_parser != null) {
+			if (parallel_mapper != null) {
+				// Files in other languages are not pre-processed. Only
+				// the file id must be assigned in root-file order
+				file_mapper.mapFilePathToId(path, true);
+				parallel_mapper.endPreProcess(root_idx, path, null);
+			}
+			return parseLanguageFile(lang_parser, path, build_data, file_mapper, stats);
+		}
+		
 		ISVDBFileSystemProvider fs_provider = build_data.getFSProvider();
-		long start, end;
 		SVParser f = new SVParser();
-		f.setFileMapper(build_data);
+		f.setFileMapper(file_mapper);
+		f.setCollectLexStats(fCollectLexStats);
 		
 		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
 
 		InputStream in = fs_provider.openStream(path);
 
-		start = System.currentTimeMillis();
-		
 		// Propagate defines to the pre-processor
-		SVPreProcessor pp = new SVPreProcessor(path, in, build_data, build_data);
-		pp.setIndexStats(build_data.getIndexStats());
+		SVPreProcessor pp = new SVPreProcessor(path, 
+				build_data.fingerprintStream(path, in), inc_provider, file_mapper);
+		pp.setIndexStats(stats);
+		pp.setMacroExpansionCache(build_data.getMacroExpansionCache());
 
 		// Pass in defines
 		for (Entry<String, SVDBMacroDef> def : defines.entrySet()) {
 			pp.setMacro(def.getValue());
 		}
 
-		if (fDebugEn) {
-			fLog.debug(LEVEL_MID, "--> PreProcess " + path);
-		}
-		SVPreProcOutput pp_out = pp.preprocess();
-		pp_out.setFileChangeListener(new SVBuilderPreProcTracker(out, build_data));
-		end = System.currentTimeMillis();
-		
-		if (fDebugEn) {
-			fLog.debug(LEVEL_MID, "<-- PreProcess " + path + ": " +
-					(end-start) + "ms");
+		SVPreProcOutput pp_out;
+		if (parallel_mapper != null) {
+			// File ids and the include-file cache must not depend on when
+			// other root files are pre-processed, so this root file is 
+			// pre-processed in full while it holds the turn
+			pp_out = pp.preprocess();
+			parallel_mapper.endPreProcess(root_idx, path, pp_out.getFileTree());
+		} else {
+			// The pre-processor output is streamed to the parser, so the 
+			// expanded text of the root file is never held in memory at once.
+			// The file tree is complete once the output has been consumed
+			pp_out = pp.preprocessStream(SVPreProcessor.STREAM_CHUNK_SIZE);
 		}
+		pp_out.setFileChangeListener(new SVBuilderPreProcTracker(out, file_mapper));
 		
 		SVDBFileTree ft = pp_out.getFileTree();
 		
-		// Add a mapping between root file and included files
-		List<String> included_files = new ArrayList<String>();
-		SVDBFileTreeUtils.collectIncludedFiles(included_files, ft);
-	
-		// TODO: encapsulation seems odd here
-		build_data.getRootIncludeMap().remove(path);
-		build_data.getRootIncludeMap().put(path, included_files);
-
-		long parse_start = System.currentTimeMillis();
+		// Pre-processing performed before parsing starts is not part of 
+		// the lex or parse time
+		long pp_start_time = pp.getPreProcessTimeNS();
+		long parse_start = System.nanoTime();
 		
 		if (fDebugEn) {
 			fLog.debug(LEVEL_MID, "--> Parse " + path);
@@ -291,37 +728,179 @@ public class SVDBArgFileBuildUtils implements ILogLevel {
 		};
 		
 		SVDBFile file = f.parse(language_level, pp_out, path, tok_listener, markers);
-		long parse_end = System.currentTimeMillis();
 		
-		build_data.getIndexStats().incLastIndexParseTime(parse_end-parse_start);
+		// The lexer pulls pre-processor output, so lex time includes
+		// pre-processing performed up to this point
+		long lex_pp_time = pp.getPreProcessTimeNS()-pp_start_time;
+		
+		// Ensure pre-processing runs to completion, even if the 
+		// parser stopped early
+		while (pp_out.get_ch() != -1) { }
+		long parse_end = System.nanoTime();
+		
+		// Pre-processing is interleaved with parsing, and 
+		// is accounted for separately by the pre-processor
+		long pp_time = pp.getPreProcessTimeNS();
+		long parse_time = (parse_end-parse_start)-(pp_time-pp_start_time);
+		long lex_time = Math.max(f.lexer().getLexTimeNS()-lex_pp_time, 0);
+		
+		// Lex time is reported separately, and is not part of parse time
+		stats.incLastIndexParseTimeNS(Math.max(parse_time-lex_time, 0));
+		stats.incLastIndexLexTimeNS(lex_time);
+		stats.incNumTokens(f.lexer().getNumTokens());
+		
+		SVDBIndexFileStats file_stats = new SVDBIndexFileStats(path);
+		file_stats.setNumLines(stats.getNumLines());
+		file_stats.setNumTokens(f.lexer().getNumTokens());
+		file_stats.setReadTimeNS(stats.getLastIndexFileReadTimeNS());
+		file_stats.setPreProcessTimeNS(pp_time);
+		file_stats.setLexTimeNS(lex_time);
+		file_stats.setParseTimeNS(Math.max(parse_time-lex_time, 0));
 		
 		if (fDebugEn) {
 			fLog.debug(LEVEL_MID, "<-- Parse " + path + ": " +
-					(parse_end-parse_start) + "ms");
+					(parse_time/1000000) + "ms (PreProcess " +
+					(pp_time/1000000) + "ms)");
 		}
+		
+		SVDBArgFileParseResult result = new SVDBArgFileParseResult();
+		result.fPath = path;
+		result.fFile = file;
+		result.fFileTree = ft;
+		result.fMarkers = markers;
+		result.fIndexStats = stats;
+		result.fFileStats = file_stats;
+		
+		return result;
+	}
 
-		start = System.currentTimeMillis();
+	/**
+	 * Parse a root file in a language other than SystemVerilog, using
+	 * a parser registered by a language plug-in. These files are not
+	 * pre-processed. Like {@link #preProcessParseFile}, this may be called 
+	 * from multiple threads concurrently
+	 */
+	private static SVDBArgFileParseResult parseLanguageFile(
+			ISVDBLanguageFileParser				lang_parser,
+			String								path,
+			SVDBArgFileIndexBuildData			build_data,
+			ISVPreProcFileMapper				file_mapper,
+			SVDBIndexStats						stats) {
+		ISVDBFileSystemProvider fs_provider = build_data.getFSProvider();
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+		int file_id = file_mapper.mapFilePathToId(path, true);
+		SVDBFile file = null;
+		String content = null;
+		
+		long read_start = System.nanoTime();
+		InputStream in = fs_provider.openStream(path);
+		if (in != null) {
+			content = SVFileUtils.readInput(build_data.fingerprintStream(path, in));
+			fs_provider.closeStream(in);
+		}
+		long parse_start = System.nanoTime();
+		
+		if (content != null) {
+			file = lang_parser.parse(new StringInputStream(content), 
+					path, file_id, markers);
+		}
+		long parse_end = System.nanoTime();
+		
+		if (file == null) {
+			file = new SVDBFile(path);
+		}
+		
+		int n_lines = 0;
+		if (content != null) {
+			for (int i=0; i<content.length(); i++) {
+				if (content.charAt(i) == '\n') {
+					n_lines++;
+				}
+			}
+		}
+		
+		stats.incNumProcessedFiles();
+		stats.incNumLines(n_lines);
+		stats.incLastIndexFileReadTimeNS(parse_start-read_start);
+		stats.incLastIndexParseTimeNS(parse_end-parse_start);
+		
+		SVDBIndexFileStats file_stats = new SVDBIndexFileStats(path);
+		file_stats.setNumLines(n_lines);
+		file_stats.setReadTimeNS(parse_start-read_start);
+		file_stats.setParseTimeNS(parse_end-parse_start);
+		
+		SVDBArgFileParseResult result = new SVDBArgFileParseResult();
+		result.fPath = path;
+		result.fFile = file;
+		result.fFileTree = new SVDBFileTree(new SVDBFile(path));
+		result.fMarkers = markers;
+		result.fIndexStats = stats;
+		result.fFileStats = file_stats;
+		
+		return result;
+	}
+
+	/**
+	 * Merge the result of parsing a root file into the build data. 
+	 * Must be called from the thread that owns the build
+	 */
+	private static Map<String, SVDBMacroDef> commitParseResult(
+			SVDBArgFileIndexBuildData			build_data,
+			ISVDBDeclCache						parent,
+			SVDBArgFileParseResult				result) {
+		ISVDBFileSystemProvider fs_provider = build_data.getFSProvider();
+		String path = result.fPath;
+		SVDBFile file = result.fFile;
+		SVDBFileTree ft = result.fFileTree;
+		List<SVDBMarker> markers = result.fMarkers;
+		SVDBIndexFileStats file_stats = result.fFileStats;
+		long start, end;
+		
+		// Add a mapping between root file and included files
+		List<String> included_files = new ArrayList<String>();
+		SVDBFileTreeUtils.collectIncludedFiles(included_files, ft);
+	
+		// TODO: encapsulation seems odd here
+		build_data.getRootIncludeMap().remove(path);
+		build_data.getRootIncludeMap().put(path, included_files);
+
+		start = System.nanoTime();
 		SVDBArgFileBuildDataUtils.cacheDeclarations(build_data, parent, file, ft);
-		end = System.currentTimeMillis();
-		build_data.getIndexStats().incLastIndexDeclCacheTime(end-start);
+		end = System.nanoTime();
+		result.fIndexStats.incLastIndexDeclCacheTimeNS(end-start);
+		file_stats.setDeclCacheTimeNS(end-start);
 		
-		start = System.currentTimeMillis();
-		SVDBArgFileBuildDataUtils.cacheReferences(build_data, file);
-		end = System.currentTimeMillis();
-		build_data.getIndexStats().incLastIndexRefCacheTime(end-start);
+		// Record the dependencies of this root file
+		SVDBRootFileCacheData root_data = 
+				SVDBArgFileDependencyGraph.computeRootData(path, file, ft);
+		
+		start = System.nanoTime();
+		SVDBArgFileBuildDataUtils.cacheReferences(build_data, file, root_data);
+		end = System.nanoTime();
+		result.fIndexStats.incLastIndexRefCacheTimeNS(end-start);
+		file_stats.setRefCacheTimeNS(end-start);
+		
+		build_data.getIndexStats().add(result.fIndexStats);
+		build_data.getIndexStats().addFileStats(file_stats);
 		
-		start = System.currentTimeMillis();
 		long last_modified = fs_provider.getLastModifiedTime(path);
 		build_data.getCache().setFile(path, file, false);
 		build_data.getCache().setFileTree(path, ft, false);
 		build_data.getCache().setMarkers(path, markers, false);
 		build_data.getCache().setLastModified(path, last_modified, false);
 		
+		build_data.getRootFileCacheData().put(path, root_data);
+		build_data.updateRefNameIndex(path);
+		
+		// Record content fingerprints, used to validate the cache on reload
+		build_data.updateFingerprint(path);
+		for (String inc_path : included_files) {
+			build_data.updateFingerprint(inc_path);
+		}
+		
 		// Update source file attributes
 		SVDBArgFileBuildDataUtils.updateSrcFileAttr(build_data, ft, markers);
 
-		end = System.currentTimeMillis();
-
 		if (build_data.isMFCU()) {
 			// In MFCU mode, collect the defined macros and 
 			// return them
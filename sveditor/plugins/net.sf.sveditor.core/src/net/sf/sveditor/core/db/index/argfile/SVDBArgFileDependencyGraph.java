@@ -0,0 +1,305 @@
+package net.sf.sveditor.core.db.index.argfile;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import net.sf.sveditor.core.db.ISVDBChildItem;
+import net.sf.sveditor.core.db.ISVDBChildParent;
+import net.sf.sveditor.core.db.ISVDBNamedItem;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBMacroDef;
+import net.sf.sveditor.core.db.SVDBMacroDefParam;
+import net.sf.sveditor.core.db.SVDBPackageDecl;
+import net.sf.sveditor.core.db.index.SVDBFileTreeUtils;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
+import net.sf.sveditor.core.db.stmt.SVDBImportItem;
+import net.sf.sveditor.core.db.stmt.SVDBImportStmt;
+
+/**
+ * Reverse-dependency graph between the root files of an index. Root files
+ * depend on the files they include, the macros they reference, and the
+ * packages they import. The forward edges are persisted with the root-file
+ * cache data (see {@link SVDBRootFileCacheData}), and the reverse edges
+ * are computed when the graph is created.
+ *
+ * When a root file is re-parsed, its defined macros and declared packages
+ * are compared against the previous version, and only the root files that
+ * consume a changed macro or package are selected for re-parsing.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBArgFileDependencyGraph {
+	private Map<String, SVDBRootFileCacheData>		fRootDataMap;
+	private Map<String, Set<String>>				fIncludedByMap;
+	private Map<String, Set<String>>				fMacroConsumerMap;
+	private Map<String, Set<String>>				fPackageImporterMap;
+
+	public SVDBArgFileDependencyGraph(
+			Map<String, SVDBRootFileCacheData>		root_data_map,
+			Map<String, List<String>>				root_include_map) {
+		fRootDataMap = new HashMap<String, SVDBRootFileCacheData>(root_data_map);
+		fIncludedByMap = new HashMap<String, Set<String>>();
+		fMacroConsumerMap = new HashMap<String, Set<String>>();
+		fPackageImporterMap = new HashMap<String, Set<String>>();
+
+		for (Entry<String, List<String>> e : root_include_map.entrySet()) {
+			for (String inc : e.getValue()) {
+				addEdge(fIncludedByMap, inc, e.getKey());
+			}
+		}
+
+		for (Entry<String, SVDBRootFileCacheData> e : fRootDataMap.entrySet()) {
+			SVDBRootFileCacheData cd = e.getValue();
+			if (cd.fReferencedMacros != null) {
+				for (String m : cd.fReferencedMacros) {
+					addEdge(fMacroConsumerMap, m, e.getKey());
+				}
+			}
+			if (cd.fImportedPackages != null) {
+				for (String p : cd.fImportedPackages) {
+					addEdge(fPackageImporterMap, p, e.getKey());
+				}
+			}
+		}
+	}
+
+	private static void addEdge(Map<String, Set<String>> map, String key, String root) {
+		Set<String> roots = map.get(key);
+		if (roots == null) {
+			roots = new HashSet<String>();
+			map.put(key, roots);
+		}
+		roots.add(root);
+	}
+
+	private static void addAll(Set<String> ret, Map<String, Set<String>> map, String key) {
+		Set<String> roots = map.get(key);
+		if (roots != null) {
+			ret.addAll(roots);
+		}
+	}
+
+	public SVDBRootFileCacheData getRootData(String root) {
+		return fRootDataMap.get(root);
+	}
+
+	/**
+	 * Returns the set of root files that include the specified file
+	 */
+	public Set<String> getIncludingRoots(String path) {
+		Set<String> ret = new HashSet<String>();
+		addAll(ret, fIncludedByMap, path);
+		return ret;
+	}
+
+	/**
+	 * Returns all root files that could be affected by a change to
+	 * the specified root file: roots that share included files with it,
+	 * consume macros it defines, or import packages it declares.
+	 * This is the set that must be re-parsed in the absence of
+	 * information about what actually changed.
+	 */
+	public Set<String> getPotentialDependents(String root) {
+		Set<String> ret = new HashSet<String>();
+		SVDBRootFileCacheData cd = fRootDataMap.get(root);
+
+		if (cd != null) {
+			for (String inc : cd.fIncludedFiles) {
+				addAll(ret, fIncludedByMap, inc);
+			}
+			for (String m : cd.fDefinedMacros) {
+				addAll(ret, fMacroConsumerMap, m);
+			}
+			for (String p : cd.fDeclaredPackages) {
+				addAll(ret, fPackageImporterMap, p);
+			}
+		}
+		ret.remove(root);
+
+		return ret;
+	}
+
+	/**
+	 * Returns the root files that must be re-parsed as a result of
+	 * changes to the macros and packages exported by a root file
+	 *
+	 * @param root    re-parsed root file
+	 * @param new_cd  dependency data from the new version of the root file
+	 */
+	public Set<String> getAffectedRoots(String root, SVDBRootFileCacheData new_cd) {
+		Set<String> ret = new HashSet<String>();
+		SVDBRootFileCacheData old_cd = fRootDataMap.get(root);
+
+		if (old_cd == null) {
+			// No information about the previous version
+			for (String m : new_cd.fDefinedMacros) {
+				addAll(ret, fMacroConsumerMap, m);
+			}
+			for (String p : new_cd.fDeclaredPackages) {
+				addAll(ret, fPackageImporterMap, p);
+			}
+		} else {
+			for (String m : changedKeys(
+					old_cd.fDefinedMacros, old_cd.fDefinedMacroHashes,
+					new_cd.fDefinedMacros, new_cd.fDefinedMacroHashes)) {
+				addAll(ret, fMacroConsumerMap, m);
+			}
+			for (String p : changedKeys(
+					old_cd.fDeclaredPackages, old_cd.fDeclaredPackageHashes,
+					new_cd.fDeclaredPackages, new_cd.fDeclaredPackageHashes)) {
+				addAll(ret, fPackageImporterMap, p);
+			}
+		}
+		ret.remove(root);
+
+		return ret;
+	}
+
+	/**
+	 * Returns keys that were added, removed, or whose hash changed
+	 */
+	private static Set<String> changedKeys(
+			List<String>		old_keys,
+			List<Long>			old_hashes,
+			List<String>		new_keys,
+			List<Long>			new_hashes) {
+		Map<String, Long> old_m = new HashMap<String, Long>();
+		Set<String> ret = new HashSet<String>();
+
+		for (int i=0; i<old_keys.size(); i++) {
+			old_m.put(old_keys.get(i), old_hashes.get(i));
+		}
+
+		for (int i=0; i<new_keys.size(); i++) {
+			Long old_h = old_m.remove(new_keys.get(i));
+			if (old_h == null || old_h.longValue() != new_hashes.get(i).longValue()) {
+				ret.add(new_keys.get(i));
+			}
+		}
+
+		// Anything remaining was removed
+		ret.addAll(old_m.keySet());
+
+		return ret;
+	}
+
+	/**
+	 * Computes the dependency data for a parsed root file
+	 *
+	 * @param path
+	 * @param file
+	 * @param ft
+	 * @return
+	 */
+	public static SVDBRootFileCacheData computeRootData(
+			String				path,
+			SVDBFile			file,
+			SVDBFileTree		ft) {
+		SVDBRootFileCacheData cd = new SVDBRootFileCacheData();
+		cd.fPath = path;
+
+		if (ft != null) {
+			SVDBFileTreeUtils.collectIncludedFiles(cd.fIncludedFiles, ft);
+			collectReferencedMacros(cd.fReferencedMacros, ft);
+
+			Map<String, SVDBMacroDef> macros = new HashMap<String, SVDBMacroDef>();
+			SVDBFileTreeUtils.collectFileTreeMacros(macros, ft);
+			for (SVDBMacroDef m : macros.values()) {
+				cd.fDefinedMacros.add(m.getName());
+				cd.fDefinedMacroHashes.add(hash(m));
+			}
+		}
+
+		if (file != null) {
+			collectPackages(cd, file);
+		}
+
+		return cd;
+	}
+
+	private static void collectReferencedMacros(Set<String> macros, SVDBFileTree ft) {
+		macros.addAll(ft.fReferencedMacros.keySet());
+		for (SVDBFileTree ft_i : ft.getIncludedFileTreeList()) {
+			collectReferencedMacros(macros, ft_i);
+		}
+	}
+
+	private static void collectPackages(SVDBRootFileCacheData cd, ISVDBChildParent scope) {
+		for (ISVDBChildItem item : scope.getChildren()) {
+			if (item.getType() == SVDBItemType.PackageDecl) {
+				SVDBPackageDecl pkg = (SVDBPackageDecl)item;
+				cd.fDeclaredPackages.add(pkg.getName());
+				cd.fDeclaredPackageHashes.add(hash(pkg));
+				collectPackages(cd, pkg);
+			} else if (item.getType() == SVDBItemType.ImportStmt) {
+				for (ISVDBChildItem c : ((SVDBImportStmt)item).getChildren()) {
+					String imp = ((SVDBImportItem)c).getImport();
+					int idx;
+					if (imp != null && (idx = imp.indexOf("::")) > 0) {
+						cd.fImportedPackages.add(imp.substring(0, idx));
+					}
+				}
+			} else if (item.getType().isElemOf(
+					SVDBItemType.ModuleDecl,
+					SVDBItemType.InterfaceDecl,
+					SVDBItemType.ProgramDecl,
+					SVDBItemType.ClassDecl)) {
+				// Imports may appear within design elements
+				collectPackages(cd, (ISVDBChildParent)item);
+			}
+		}
+	}
+
+	private static long hash(SVDBMacroDef m) {
+		long h = hash(17, m.getName());
+		if (m.getParameters() != null) {
+			for (SVDBMacroDefParam p : m.getParameters()) {
+				h = hash(h, p.getName());
+				h = hash(h, p.getValue());
+			}
+		}
+		return hash(h, m.getDef());
+	}
+
+	/**
+	 * Hashes the top-level declarations in a package. Changes within
+	 * the body of a declaration do not affect the hash
+	 */
+	private static long hash(SVDBPackageDecl pkg) {
+		long h = 17;
+		for (ISVDBChildItem item : pkg.getChildren()) {
+			h = hash(h, item.getType().name());
+			if (item instanceof ISVDBNamedItem) {
+				h = hash(h, ((ISVDBNamedItem)item).getName());
+			} else if (item.getType() == SVDBItemType.ImportStmt) {
+				for (ISVDBChildItem c : ((SVDBImportStmt)item).getChildren()) {
+					h = hash(h, ((SVDBImportItem)c).getImport());
+				}
+			} else if (item instanceof ISVDBChildParent) {
+				for (ISVDBChildItem c : ((ISVDBChildParent)item).getChildren()) {
+					if (c instanceof ISVDBNamedItem) {
+						h = hash(h, ((ISVDBNamedItem)c).getName());
+					}
+				}
+			}
+		}
+		return h;
+	}
+
+	private static long hash(long h, String s) {
+		if (s != null) {
+			for (int i=0; i<s.length(); i++) {
+				h = 31*h + s.charAt(i);
+			}
+		}
+		return 31*h + 1;
+	}
+
+}
@@ -13,11 +13,18 @@ package net.sf.sveditor.core.db.index.argfile;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspaceRoot;
@@ -51,6 +58,7 @@ import net.sf.sveditor.core.db.index.ISVDBIndexInt;
 import net.sf.sveditor.core.db.index.ISVDBIndexOperation;
 import net.sf.sveditor.core.db.index.ISVDBIndexStatsProvider;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
+import net.sf.sveditor.core.db.index.SVDBFileFingerprint;
 import net.sf.sveditor.core.db.index.SVDBFilePath;
 import net.sf.sveditor.core.db.index.SVDBFileTreeUtils;
 import net.sf.sveditor.core.db.index.SVDBFindIncFileUtils;
@@ -63,6 +71,8 @@ import net.sf.sveditor.core.db.index.SVDBIndexResourceChangeEvent;
 import net.sf.sveditor.core.db.index.SVDBIndexResourceChangeEvent.Type;
 import net.sf.sveditor.core.db.index.SVDBIndexStats;
 import net.sf.sveditor.core.db.index.SVDBIndexUtil;
+import net.sf.sveditor.core.db.index.SVDBRefNameIndex;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 import net.sf.sveditor.core.db.index.builder.ISVDBIndexBuildJob;
 import net.sf.sveditor.core.db.index.builder.ISVDBIndexBuilder;
 import net.sf.sveditor.core.db.index.builder.ISVDBIndexChangePlan;
@@ -79,7 +89,9 @@ import net.sf.sveditor.core.db.refs.ISVDBRefSearchSpec;
 import net.sf.sveditor.core.db.refs.ISVDBRefSearchSpec.NameMatchType;
 import net.sf.sveditor.core.db.refs.ISVDBRefVisitor;
 import net.sf.sveditor.core.db.refs.SVDBFileRefFinder;
+import net.sf.sveditor.core.db.refs.SVDBRefItem;
 import net.sf.sveditor.core.db.refs.SVDBRefMatcher;
+import net.sf.sveditor.core.db.refs.SVDBRefSearchSpecByName;
 import net.sf.sveditor.core.db.search.ISVDBFindNameMatcher;
 import net.sf.sveditor.core.log.ILogHandle;
 import net.sf.sveditor.core.log.ILogLevel;
@@ -87,6 +99,7 @@ import net.sf.sveditor.core.log.ILogLevelListener;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
 import net.sf.sveditor.core.parser.SVLanguageLevel;
+import net.sf.sveditor.core.parser.SVLexerTokenCache;
 import net.sf.sveditor.core.parser.SVParser;
 import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
 import net.sf.sveditor.core.preproc.ISVPreProcessor;
@@ -133,6 +146,26 @@ public class SVDBArgFileIndex implements
 	
 	private ISVBuilderOutput					fOut;
 	
+	// Number of recently-edited files for which lexer tokens are retained
+	private static final int					EDITOR_TOKEN_CACHE_SIZE = 4;
+	
+	// Root files found to be out-of-date when validating the cache
+	private List<String>						fStaleRootFiles;
+	
+	// Number of files checked by each thread when validating the cache
+	private static final int					CACHE_CHECK_CHUNK = 256;
+	
+	// Tokens from the last editor parse of recently-edited files
+	private Map<String, SVLexerTokenCache>		fEditorTokenCache = 
+			new LinkedHashMap<String, SVLexerTokenCache>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Entry<String, SVLexerTokenCache> eldest) {
+					return (size() > EDITOR_TOKEN_CACHE_SIZE);
+				}
+			};
+	
 	
 	private SVDBArgFileIndex(String project) {
 		fIndexChangeListeners = new ArrayList<ISVDBIndexChangeListener>();
@@ -183,6 +216,7 @@ public class SVDBArgFileIndex implements
 			if (fBuildData.getCache() != null) {
 				fBuildData.getCache().sync();
 			}
+			fBuildData.releaseIncludeResolver();
 			if (fFileSystemProvider != null) {
 				fFileSystemProvider.dispose();
 			}
@@ -362,6 +396,7 @@ public class SVDBArgFileIndex implements
 				for (Entry<String, List<SVDBDeclCacheItem>> e : fBuildData.getDeclCacheMap().entrySet()) {
 					for (SVDBDeclCacheItem i : e.getValue()) {
 						i.init(this);
+						i.setFilename(fBuildData.internFilePath(i.getFilename()));
 					}
 				}
 			}
@@ -372,6 +407,7 @@ public class SVDBArgFileIndex implements
 						cd.getPackageCacheMap().entrySet()) {
 					for (SVDBDeclCacheItem i : e.getValue()) {
 						i.init(this);
+						i.setFilename(fBuildData.internFilePath(i.getFilename()));
 					}
 				}
 			}
@@ -390,6 +426,20 @@ public class SVDBArgFileIndex implements
 			for (String f : fBuildData.getCache().getFileList(false)) {
 				fBuildData.addFileDir(f);
 			}
+			
+			// Re-parse only the root files affected by changed files
+			if (fStaleRootFiles != null && fStaleRootFiles.size() > 0) {
+				out.note("Re-parsing " + fStaleRootFiles.size() + " of " + 
+						fBuildData.getCache().getFileList(false).size() + 
+						" root files due to changed files");
+				SVDBIndexChangePlanRebuildFiles plan = 
+						new SVDBIndexChangePlanRebuildFiles(this);
+				for (String path : fStaleRootFiles) {
+					plan.addFile(path);
+				}
+				fStaleRootFiles = null;
+				rebuild_files(subMonitor.newChild(90), plan);
+			}
 		} else {
 			out.note("Cache is invalid");
 			if (fDebugEn) {
@@ -452,6 +502,8 @@ public class SVDBArgFileIndex implements
 			// Apply the newly-built result
 			synchronized (fBuildData) {
 				fBuildData.apply(build_data);
+				// File ids may have changed
+				fEditorTokenCache.clear();
 			}
 			
 			// Notify clients that the index has new data
@@ -499,10 +551,15 @@ public class SVDBArgFileIndex implements
 //				build_data, fBuildData);
 		build_data.setFSProvider(fFileSystemProvider);
 		
+		SVDBArgFileDependencyGraph dep_graph;
 		synchronized (fBuildData) {
 			// Must initialize the file mapper state so any
 			// new files are given correct numberings
 			build_data.initFileMapperState(fBuildData);
+			
+			dep_graph = new SVDBArgFileDependencyGraph(
+					fBuildData.getRootFileCacheData(),
+					fBuildData.getRootIncludeMap());
 		}
 	
 		// Save the number of files pre, so we can update post
@@ -512,6 +569,8 @@ public class SVDBArgFileIndex implements
 		List<String> file_list = new ArrayList<String>();
 		List<String> existing_files = new ArrayList<String>();
 		List<String> added_files = new ArrayList<String>();
+		Set<String> potential_deps = new HashSet<String>();
+		List<SVDBFileTree> reparsed_trees = new ArrayList<SVDBFileTree>();
 		
 		if (plan.getFileListType() == FileListType.Source) {
 			// simple: already have it
@@ -595,7 +654,9 @@ public class SVDBArgFileIndex implements
 			// Note: only important for MFCU mode
 
 			// TODO: determine whether these are SV are .f files?
-			for (String path : file_list) {
+			// Note: dependent root files may be added to file_list while parsing
+			for (int i=0; i<file_list.size(); i++) {
+				String path = file_list.get(i);
 				SubMonitor loopMonitor = subMonitor.newChild(1000);
 				loopMonitor.beginTask("Parse " + path, 1000);
 				// path is a 'root' file
@@ -611,7 +672,8 @@ public class SVDBArgFileIndex implements
 				}
 				
 				SVPreProcessor preproc = new SVPreProcessor(
-						path, in, build_data, build_data);
+						path, build_data.fingerprintStream(path, in), 
+						build_data, build_data);
 
 				fFileSystemProvider.closeStream(in);
 				
@@ -625,6 +687,16 @@ public class SVDBArgFileIndex implements
 						for (SVDBMacroDef d : macros) {
 							preproc.setMacro(d);
 						}
+						
+						// Root files already re-parsed by this build supersede
+						// the cached macro state
+						Map<String, SVDBMacroDef> reparsed_macros = new HashMap<String, SVDBMacroDef>();
+						for (int j=reparsed_trees.size()-1; j>=0; j--) {
+							SVDBFileTreeUtils.collectFileTreeMacros(reparsed_macros, reparsed_trees.get(j));
+						}
+						for (SVDBMacroDef d : reparsed_macros.values()) {
+							preproc.setMacro(d);
+						}
 					} else {
 						// Add global defines
 						for (Entry<String, String> e : fBuildData.getDefines().entrySet()) {
@@ -640,6 +712,7 @@ public class SVDBArgFileIndex implements
 				pp_out.setFileChangeListener(
 						new SVBuilderPreProcTracker(out, build_data));
 				SVDBFileTree ft = pp_out.getFileTree();
+				reparsed_trees.add(ft);
 				
 				// Collect include files
 				List<String> included_files = new ArrayList<String>();
@@ -669,7 +742,29 @@ public class SVDBArgFileIndex implements
 				long last_modified = fFileSystemProvider.getLastModifiedTime(path);
 				build_data.getCache().setLastModified(path, last_modified, false);
 				
+				build_data.updateFingerprint(path);
+				for (String inc_path : included_files) {
+					build_data.updateFingerprint(inc_path);
+				}
+				
 				SVDBArgFileBuildDataUtils.cacheDeclarations(build_data, this, file, ft);
+				
+				// Re-parse dependent root files that consume macros or 
+				// packages whose definition changed
+				SVDBRootFileCacheData root_data = 
+						SVDBArgFileDependencyGraph.computeRootData(path, file, ft);
+				SVDBArgFileBuildDataUtils.cacheReferences(build_data, file, root_data);
+				build_data.getRootFileCacheData().put(path, root_data);
+				
+				for (String dep : dep_graph.getAffectedRoots(path, root_data)) {
+					if (!file_list.contains(dep)) {
+						if (fDebugEn) {
+							fLog.debug("Root file " + dep + " depends on changed content in " + path);
+						}
+						file_list.add(dep);
+					}
+				}
+				potential_deps.addAll(dep_graph.getPotentialDependents(path));
 			
 				if (ev != null) {
 					ev.addDelta(new SVDBIndexChangeDelta(
@@ -692,6 +787,8 @@ public class SVDBArgFileIndex implements
 					int new_id = fBuildData.mapFilePathToId(path, true);
 					fLog.debug("Add new src file: " + path + " id=" + new_id);
 				}
+				
+				fBuildData.getFingerprintMap().putAll(build_data.getFingerprintMap());
 			
 				for (String path : file_list) {
 					// Remove this file from the 'existing' list
@@ -722,6 +819,12 @@ public class SVDBArgFileIndex implements
 					long last_modified = cache.getLastModified(path);
 					fBuildData.getCache().setLastModified(path, last_modified, false);
 					
+					SVDBRootFileCacheData root_data = build_data.getRootFileCacheData().get(path);
+					if (root_data != null) {
+						fBuildData.getRootFileCacheData().put(path, root_data);
+						fBuildData.updateRefNameIndex(path);
+					}
+					
 					// All of these files (I think) will be root files
 					Map<String, List<String>> inc_map_t = fBuildData.getRootIncludeMap();
 					Map<String, List<String>> inc_map_s = build_data.getRootIncludeMap();
@@ -734,7 +837,7 @@ public class SVDBArgFileIndex implements
 			
 					if (ft != null) {
 						// Update the cached declarations
-						patch_decl_cache(ft, decl_cache, new_decl_cache);
+						patch_decl_cache(ft, fBuildData, new_decl_cache);
 					}
 
 					loopMonitor.worked(1000);
@@ -754,6 +857,9 @@ public class SVDBArgFileIndex implements
 				for (String path : existing_files) {
 //					System.out.println("Removing cache info from " + path);
 					decl_cache.remove(path);
+					fBuildData.updateDeclNameIndex(path);
+					fBuildData.getRootFileCacheData().remove(path);
+					fBuildData.updateRefNameIndex(path);
 				}
 			
 				// TODO: collect declaration info from these files and remove
@@ -765,6 +871,12 @@ public class SVDBArgFileIndex implements
 //					System.out.println("  Post-remove: " + file);
 				}
 			}
+			
+			potential_deps.removeAll(file_list);
+			out.note("Re-parsed " + file_list.size() + " root files; skipped " + 
+					potential_deps.size() + " dependent root files");
+			fBuildData.getIndexStats().setLastIncrStats(
+					file_list.size(), potential_deps.size());
 		
 			// Once everything is done, fire the index-change event
 			if (ev != null) {
@@ -779,6 +891,7 @@ public class SVDBArgFileIndex implements
 			if (cache != null) {
 				cache.dispose();
 			}
+			build_data.releaseIncludeResolver();
 			subMonitor.done();
 		}
 	}
@@ -862,6 +975,9 @@ public class SVDBArgFileIndex implements
 				// Remove the entry from the index cache
 				Map<String, List<SVDBDeclCacheItem>> decl_cache = fBuildData.getDeclCacheMap();
 				decl_cache.remove(path);
+				fBuildData.updateDeclNameIndex(path);
+				fBuildData.getRootFileCacheData().remove(path);
+				fBuildData.updateRefNameIndex(path);
 				subMonitor.worked(1);
 			}
 		}
@@ -887,13 +1003,14 @@ public class SVDBArgFileIndex implements
 	 * TODO: move to a utilities class?
 	 * 
 	 * @param ft
-	 * @param decl_cache
+	 * @param build_data
 	 * @param new_decl_cache
 	 */
 	private static void patch_decl_cache(
 			SVDBFileTree 							ft, 
-			Map<String, List<SVDBDeclCacheItem>> 	decl_cache,
+			SVDBArgFileIndexBuildData				build_data,
 			Map<String, List<SVDBDeclCacheItem>>	new_decl_cache) {
+		Map<String, List<SVDBDeclCacheItem>> decl_cache = build_data.getDeclCacheMap();
 		String path = ft.getFilePath();
 		
 		decl_cache.remove(path);
@@ -901,10 +1018,11 @@ public class SVDBArgFileIndex implements
 		if (new_decl_cache.containsKey(path)) {
 			decl_cache.put(path, new_decl_cache.get(path));
 		}
+		build_data.updateDeclNameIndex(path);
 		
 		// Now, recurse through the other included paths
 		for (SVDBFileTree ft_s : ft.fIncludedFileTrees) {
-			patch_decl_cache(ft_s, decl_cache, new_decl_cache);
+			patch_decl_cache(ft_s, build_data, new_decl_cache);
 		}
 	}
 	
@@ -913,13 +1031,7 @@ public class SVDBArgFileIndex implements
 	
 		plan.setFileListType(FileListType.Source);
 		
-		for (String sv_path : changed_sv_files) {
-			SVDBFileTree ft = SVDBArgFileBuildDataUtils.findRootFileTree(
-					fBuildData, sv_path);
-			if (ft != null) {
-				plan.addFile(ft.getFilePath());
-			}
-		}
+		addChangedRootFiles(plan, changed_sv_files);
 		
 		return plan;
 	}
@@ -949,15 +1061,35 @@ public class SVDBArgFileIndex implements
 		}
 		
 		// Then add source files
+		addChangedRootFiles(plan, changed_sv_files);
+		
+		return plan;
+	}
+	
+	/**
+	 * Adds the root files affected by changes to the specified source
+	 * files. A changed include file affects every root file that 
+	 * includes it.
+	 */
+	private void addChangedRootFiles(
+			SVDBIndexChangePlanRebuildFiles		plan,
+			List<String>						changed_sv_files) {
+		SVDBArgFileDependencyGraph dep_graph = new SVDBArgFileDependencyGraph(
+				fBuildData.getRootFileCacheData(),
+				fBuildData.getRootIncludeMap());
+		
 		for (String sv_path : changed_sv_files) {
-			SVDBFileTree ft = SVDBArgFileBuildDataUtils.findRootFileTree(
-					fBuildData, sv_path);
-			if (ft != null) {
-				plan.addFile(ft.getFilePath());
+			if (fBuildData.getRootIncludeMap().containsKey(sv_path)) {
+				plan.addFile(sv_path);
+			}
+			
+			List<String> roots = new ArrayList<String>(
+					dep_graph.getIncludingRoots(sv_path));
+			Collections.sort(roots);
+			for (String root : roots) {
+				plan.addFile(root);
 			}
 		}
-		
-		return plan;
 	}
 
 	@Override
@@ -965,6 +1097,148 @@ public class SVDBArgFileIndex implements
 		fDebugEn = handle.isEnabled();
 	}
 
+	/**
+	 * Checks the cached files against the filesystem. Timestamps are checked
+	 * in parallel, and files whose timestamp differs from the cached value 
+	 * are re-hashed. Files whose content is unchanged are simply given the
+	 * new timestamp.
+	 * 
+	 * @return root files that must be re-parsed, or null if the cache cannot be used
+	 */
+	private List<String> findStaleRootFiles() {
+		ISVDBIndexCache cache = fBuildData.getCache();
+		Map<String, SVDBFileFingerprint> fp_map = fBuildData.getFingerprintMap();
+		Set<String> roots = new HashSet<String>(cache.getFileList(false));
+		
+		// Collect the expected state of each file before going parallel
+		final List<String> paths = new ArrayList<String>(roots);
+		for (String path : fp_map.keySet()) {
+			if (!roots.contains(path)) {
+				paths.add(path);
+			}
+		}
+		final long exp_timestamp[] = new long[paths.size()];
+		final SVDBFileFingerprint exp_fp[] = new SVDBFileFingerprint[paths.size()];
+		for (int i=0; i<paths.size(); i++) {
+			String path = paths.get(i);
+			exp_fp[i] = fp_map.get(path);
+			exp_timestamp[i] = (roots.contains(path))?
+					cache.getLastModified(path):exp_fp[i].fTimestamp;
+		}
+		
+		final SVDBFileFingerprint new_fp[] = new SVDBFileFingerprint[paths.size()];
+		final boolean changed[] = new boolean[paths.size()];
+		
+		int n_threads = Math.min(
+				Runtime.getRuntime().availableProcessors(),
+				1 + paths.size()/CACHE_CHECK_CHUNK);
+		
+		if (n_threads <= 1) {
+			checkFileFingerprints(paths, 0, paths.size(), exp_timestamp, exp_fp, new_fp, changed);
+		} else {
+			ExecutorService pool = Executors.newFixedThreadPool(n_threads);
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			for (int i=0; i<paths.size(); i+=CACHE_CHECK_CHUNK) {
+				final int start = i;
+				final int end = Math.min(i+CACHE_CHECK_CHUNK, paths.size());
+				results.add(pool.submit(new Runnable() {
+					public void run() {
+						checkFileFingerprints(paths, start, end, 
+								exp_timestamp, exp_fp, new_fp, changed);
+					}
+				}));
+			}
+			try {
+				for (Future<?> f : results) {
+					f.get();
+				}
+			} catch (InterruptedException e) {
+				return null;
+			} catch (ExecutionException e) {
+				fLog.error("Failed to check file timestamps", e);
+				return null;
+			} finally {
+				pool.shutdown();
+			}
+		}
+		
+		Set<String> changed_files = new HashSet<String>();
+		for (int i=0; i<paths.size(); i++) {
+			String path = paths.get(i);
+			if (changed[i]) {
+				if (new_fp[i] == null && roots.contains(path)) {
+					// Root file no longer exists
+					if (fDebugEn) {
+						fLog.debug(LEVEL_MIN, "Cache is invalid: root file " + 
+								path + " no longer exists");
+					}
+					return null;
+				}
+				if (fDebugEn) {
+					fLog.debug(LEVEL_MIN, "File " + path + " changed: file=" + 
+							((new_fp[i] != null)?new_fp[i].fTimestamp:-1) + 
+							" cache=" + exp_timestamp[i]);
+				}
+				changed_files.add(path);
+			} else if (new_fp[i] != null) {
+				// Timestamp changed, but the content didn't
+				exp_fp[i].fTimestamp = new_fp[i].fTimestamp;
+				if (roots.contains(path)) {
+					cache.setLastModified(path, new_fp[i].fTimestamp, false);
+				}
+			}
+		}
+		
+		List<String> stale_roots = new ArrayList<String>();
+		if (changed_files.size() > 0) {
+			for (String root : roots) {
+				if (changed_files.contains(root)) {
+					stale_roots.add(root);
+				} else {
+					List<String> inc_l = fBuildData.getRootIncludeMap().get(root);
+					if (inc_l != null) {
+						for (String inc : inc_l) {
+							if (changed_files.contains(inc)) {
+								stale_roots.add(root);
+								break;
+							}
+						}
+					}
+				}
+			}
+		}
+		
+		return stale_roots;
+	}
+	
+	/**
+	 * Compares a range of files against their expected timestamps. 
+	 * Files with a different timestamp are hashed, and their new
+	 * fingerprint is stored in 'new_fp'. 'changed' is set for files whose
+	 * content differs, or that no longer exist
+	 */
+	private void checkFileFingerprints(
+			List<String>			paths,
+			int						start,
+			int						end,
+			long					exp_timestamp[],
+			SVDBFileFingerprint		exp_fp[],
+			SVDBFileFingerprint		new_fp[],
+			boolean					changed[]) {
+		for (int i=start; i<end; i++) {
+			String path = paths.get(i);
+			long fs_timestamp = fFileSystemProvider.getLastModifiedTime(path);
+			
+			if (fs_timestamp == exp_timestamp[i]) {
+				continue;
+			}
+			
+			new_fp[i] = SVDBFileFingerprint.compute(fFileSystemProvider, path);
+			changed[i] = (new_fp[i] == null || exp_fp[i] == null || 
+					new_fp[i].fHash != exp_fp[i].fHash);
+		}
+	}
+
 	/**
 	 * Called when the index is initialized to determine whether the cached
 	 * information is still valid
@@ -1041,20 +1315,25 @@ public class SVDBArgFileIndex implements
 			}
 		}
 
+		fStaleRootFiles = null;
 		if (fBuildData.getCache().getFileList(false).size() > 0) {
-			for (String path : fBuildData.getCache().getFileList(false)) {
-				long fs_timestamp = fFileSystemProvider.getLastModifiedTime(path);
-				long cache_timestamp = fBuildData.getCache().getLastModified(path);
-				if (fs_timestamp != cache_timestamp) {
-
-					if (fDebugEn) {
-						fLog.debug(LEVEL_MIN,
-								"Cache is invalid due to timestamp on " + path
-										+ ": file=" + fs_timestamp + " cache="
-										+ cache_timestamp);
-					}
+			if (valid) {
+				List<String> stale_roots = findStaleRootFiles();
+				if (stale_roots == null) {
 					valid = false;
-					break;
+				} else if (stale_roots.size() > 0) {
+					int n_roots = fBuildData.getCache().getFileList(false).size();
+					if (stale_roots.size() > n_roots/2) {
+						// Cheaper to rebuild everything
+						if (fDebugEn) {
+							fLog.debug(LEVEL_MIN, "Cache is invalid: " + 
+									stale_roots.size() + " of " + n_roots + 
+									" root files are out-of-date");
+						}
+						valid = false;
+					} else {
+						fStaleRootFiles = stale_roots;
+					}
 				}
 			}
 		} else {
@@ -1476,6 +1755,13 @@ public class SVDBArgFileIndex implements
 			SVParser f = new SVParser();
 			f.setFileMapper(fReadOnlyFileMapper);
 			
+			SVLexerTokenCache tok_cache = fEditorTokenCache.get(r_path);
+			if (tok_cache == null) {
+				tok_cache = new SVLexerTokenCache();
+				fEditorTokenCache.put(r_path, tok_cache);
+			}
+			f.setTokenCache(tok_cache);
+			
 			SVDBFileTree ft = out.getFileTree();
 			if (ft != null && ft.fMarkers != null) {
 				for (SVDBMarker m : ft.fMarkers) {
@@ -1498,7 +1784,9 @@ public class SVDBArgFileIndex implements
 			
 //			cleanExtFileElements(file_id, file);
 			end = System.currentTimeMillis();
-			fLog.debug("<-- Parse " + r_path + " " + (end-start) + "ms");
+			fLog.debug("<-- Parse " + r_path + " " + (end-start) + "ms (" +
+					tok_cache.getNumReused() + " tokens reused, " + 
+					tok_cache.getNumLexed() + " lexed)");
 			file_ft = ft.getSVDBFile();
 		}
 		
@@ -1729,18 +2017,27 @@ public class SVDBArgFileIndex implements
 			ISVDBRefSearchSpec		ref_spec,
 			ISVDBRefVisitor			ref_visitor) {
 		checkInIndexOp("findReferences");
-
-		Map<String, List<Integer>> ref_map = fBuildData.getReferenceCacheMap();
-		List<Integer> file_list = ref_map.get(ref_spec.getName());
 		
-		if (file_list != null) {
-			// Now, have a closer look
-			if (ref_spec.getNameMatchType() == NameMatchType.Equals) {
-
-				for (Integer file_id : file_list) {
+		SVDBRefNameIndex ref_index = fBuildData.getRefNameIndex();
+
+		// Now, have a closer look
+		if (ref_spec.getNameMatchType() == NameMatchType.Equals) {
+			if (ref_spec instanceof SVDBRefSearchSpecByName && 
+					!((SVDBRefSearchSpecByName)ref_spec).isVerify()) {
+				// The spec doesn't depend on scope, so answer from the index
+				for (SVDBRefItem ref : ref_index.findByName(ref_spec.getName())) {
+					if (ref_spec.matches(ref.getLocation(), ref.getRefType(), 
+							null, ref.getRefName())) {
+						ref_visitor.visitRef(ref_spec, ref);
+					}
+				}
+			} else {
+				// Only walk files known to reference the name
+				for (Integer file_id : ref_index.findFileIds(ref_spec.getName())) {
 					String filename = fBuildData.mapFileIdToPath(file_id);
-					SVDBFile file = findFile(new NullProgressMonitor(), filename);
-					
+					SVDBFile file = (filename != null)?
+							findFile(new NullProgressMonitor(), filename):null;
+
 					if (file != null) {
 						SVDBRefMatcher ref_matcher = new SVDBRefMatcher(ref_spec, ref_visitor);
 						SVDBFileRefFinder finder = new SVDBFileRefFinder();
@@ -1748,14 +2045,28 @@ public class SVDBArgFileIndex implements
 						finder.visit(file);
 					}
 				}
-			} else if (ref_spec.getNameMatchType() == NameMatchType.MayContain) {
-				// Caller is simply interested in whether there might be a match
-				if (file_list.size() > 0) {
-					ref_visitor.visitRef(ref_spec, null);
-				}
+			}
+		} else if (ref_spec.getNameMatchType() == NameMatchType.MayContain) {
+			// Caller is simply interested in whether there might be a match
+			if (ref_index.containsName(ref_spec.getName())) {
+				ref_visitor.visitRef(ref_spec, null);
 			}
 		}
 	}
+	
+	/**
+	 * Returns the location and type of all references to the 
+	 * specified name. The result is obtained from the reference 
+	 * index, and does not require loading the referencing files.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public List<SVDBRefItem> findReferenceLocations(String name) {
+		checkInIndexOp("findReferenceLocations");
+		
+		return fBuildData.getRefNameIndex().findByName(name);
+	}
 
 	@Override
 	public SVDBFile getDeclFile(IProgressMonitor monitor, SVDBDeclCacheItem item) {
@@ -4,15 +4,12 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 
-import net.sf.sveditor.core.SVFileUtils;
 import net.sf.sveditor.core.Tuple;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.SVDBFileTree;
@@ -21,13 +18,21 @@ import net.sf.sveditor.core.db.SVDBMarker;
 import net.sf.sveditor.core.db.index.ISVDBDeclCache;
 import net.sf.sveditor.core.db.index.ISVDBFileSystemProvider;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
+import net.sf.sveditor.core.db.index.SVDBDeclNameIndex;
+import net.sf.sveditor.core.db.index.SVDBFileFingerprint;
+import net.sf.sveditor.core.db.index.SVDBFileFingerprint.HashInputStream;
+import net.sf.sveditor.core.db.index.SVDBIncludeFileSuffixIndex;
+import net.sf.sveditor.core.db.index.SVDBIncludeResolver;
 import net.sf.sveditor.core.db.index.SVDBIndexStats;
+import net.sf.sveditor.core.db.index.SVDBRefNameIndex;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCacheMgr;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
 import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
 import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
+import net.sf.sveditor.core.preproc.SVMacroExpansionCache;
 
 /**
  * Collects data used during index parsing. A new instance of this class is
@@ -60,21 +65,26 @@ public class SVDBArgFileIndexBuildData implements
 //	private Set<String>							fFileDirs;
 //	private Set<String>							fMissingIncludes;
 	private SVDBIndexStats						fIndexStats;
+	// Name index over the declaration cache. Built on first use
+	private SVDBDeclNameIndex					fDeclNameIndex;
+	// Name index over the per-root-file references. Built on first use
+	private SVDBRefNameIndex					fRefNameIndex;
+	// Macro expansions, shared by the root files parsed in this build
+	private SVMacroExpansionCache				fMacroExpansionCache = new SVMacroExpansionCache();
+	// Files hashed while being read by this build, by path
+	private Map<String, HashInputStream>		fReadFingerprints = new HashMap<String, HashInputStream>();
 //	private SVDBLexerListenerRefCollector		fRefCollector;
 	private LogHandle							fLog = LogFactory.getLogHandle("SVDBArgFileIndexBuildData");
 
 	/**
 	 * Fields used to find include files
 	 */
-	// Map of leaf file to resolved include directory
 	private static boolean				fEnableIncludeCache = true;
-	private Map<String, String>			fIncludeMap;
-	private List<String>				fResolvedIncDirs;
-	private List<Set<String>>			fIncDirFiles;
-	private List<Set<String>>			fIncDirDirs;
-	private Set<String>					fFailedSearches;
+	// Resolver for the include-path configuration. Shared between indexes
+	private SVDBIncludeResolver			fIncludeResolver;
 	private boolean						fIncludeCacheValid = false;	
-	private List<Tuple<String, String>>	fIncludeFileList = new ArrayList<Tuple<String,String>>();
+	// Included files, and the root file that includes each
+	private SVDBIncludeFileSuffixIndex	fIncludeFileIndex = new SVDBIncludeFileSuffixIndex();
 	
 	public SVDBArgFileIndexBuildData(ISVDBIndexCache cache, String base_location) {
 		fCache = cache;
@@ -87,12 +97,6 @@ public class SVDBArgFileIndexBuildData implements
 		fCache.init(new NullProgressMonitor(), fIndexCacheData, base_location);
 		fIndexStats = new SVDBIndexStats();
 //		fRefCollector = new SVDBLexerListenerRefCollector();
-		
-		fIncludeMap = new HashMap<String, String>();
-		fResolvedIncDirs = new ArrayList<String>();
-		fIncDirFiles = new ArrayList<Set<String>>();
-		fIncDirDirs = new ArrayList<Set<String>>();
-		fFailedSearches = new HashSet<String>();		
 	}
 	
 	public String getBaseLocation() {
@@ -107,6 +111,10 @@ public class SVDBArgFileIndexBuildData implements
 		return fIndexStats;
 	}
 	
+	public SVMacroExpansionCache getMacroExpansionCache() {
+		return fMacroExpansionCache;
+	}
+	
 	public SVDBArgFileIndexCacheData getIndexCacheData() {
 		return fIndexCacheData;
 	}
@@ -114,6 +122,8 @@ public class SVDBArgFileIndexBuildData implements
 	public void setIndexCacheData(SVDBArgFileIndexCacheData data) {
 		// TODO: Should we check if an existing one exists?
 		fIndexCacheData = data;
+		fDeclNameIndex = null;
+		fRefNameIndex = null;
 	}
 	
 	public List<String> getFileList(int flags) {
@@ -158,21 +168,26 @@ public class SVDBArgFileIndexBuildData implements
 	
 		fFileSystemProvider = build_data.fFileSystemProvider;
 		fIndexCacheData = build_data.fIndexCacheData;
+		fDeclNameIndex = build_data.fDeclNameIndex;
+		fRefNameIndex = build_data.fRefNameIndex;
 		fCache = build_data.fCache;
 //		fFileDirs = build_data.fFileDirs;
 //		fMissingIncludes = build_data.fMissingIncludes;
 		fIndexStats = build_data.fIndexStats;
 		
-		fIncludeMap = build_data.fIncludeMap;
-		fResolvedIncDirs = build_data.fResolvedIncDirs;
-		fIncDirFiles = build_data.fIncDirFiles;
-		fIncDirDirs = build_data.fIncDirDirs;
-		fFailedSearches = build_data.fFailedSearches;
-		fIncludeFileList = build_data.fIncludeFileList;
-		fIncludeCacheValid = build_data.fIncludeCacheValid;
+		synchronized (this) {
+			if (fIncludeResolver != null) {
+				fIncludeResolver.release();
+			}
+			fIncludeResolver = build_data.fIncludeResolver;
+			fIncludeCacheValid = build_data.fIncludeCacheValid;
+		}
+		fIncludeFileIndex = build_data.fIncludeFileIndex;
 		
-		// We've transferred the cache to this build data
+		// We've transferred the cache and include resolver to this build data
 		build_data.fCache = null;
+		build_data.fIncludeResolver = null;
+		build_data.fIncludeCacheValid = false;
 
 		// Free the entries in the old cache
 		old_cache.dispose();
@@ -193,11 +208,11 @@ public class SVDBArgFileIndexBuildData implements
 		addFileDir(path);		
 	}
 	
-	public int getFileAttr(String path) {
+	public synchronized int getFileAttr(String path) {
 		return fIndexCacheData.getFileAttr(path);
 	}
 	
-	public void addFile(String path, int attr) {
+	public synchronized void addFile(String path, int attr) {
 		fIndexCacheData.addFile(path, attr);
 	}
 	
@@ -266,6 +281,19 @@ public class SVDBArgFileIndexBuildData implements
 		if (fCache != null) {
 			fCache.dispose();
 		}
+		releaseIncludeResolver();
+	}
+	
+	/**
+	 * Releases the include resolver used by this build data. 
+	 * A new resolver is obtained on the next include lookup
+	 */
+	public synchronized void releaseIncludeResolver() {
+		if (fIncludeResolver != null) {
+			fIncludeResolver.release();
+			fIncludeResolver = null;
+		}
+		fIncludeCacheValid = false;
 	}
 
 	/**
@@ -275,12 +303,9 @@ public class SVDBArgFileIndexBuildData implements
 	 * @param other
 	 */
 	void initFileMapperState(SVDBArgFileIndexBuildData other) {
-		fIndexCacheData.fSrcFileList.clear();
-		fIndexCacheData.fSrcFileAttr.clear();
-		for (int i=0; i<other.fIndexCacheData.fSrcFileList.size(); i++) {
-			fIndexCacheData.fSrcFileList.add(other.fIndexCacheData.fSrcFileList.get(i));
-			fIndexCacheData.fSrcFileAttr.add(other.fIndexCacheData.fSrcFileAttr.get(i));
-		}
+		fIndexCacheData.setSrcFiles(
+				other.fIndexCacheData.fSrcFileList,
+				other.fIndexCacheData.fSrcFileAttr);
 		fIndexCacheData.fIncludePathList.clear();
 		fIndexCacheData.fIncludePathList.addAll(other.fIndexCacheData.fIncludePathList);
 	}
@@ -298,6 +323,79 @@ public class SVDBArgFileIndexBuildData implements
 		return fIndexCacheData.fRootIncludeMap;
 	}
 	
+	/**
+	 * Returns the per-root-file dependency data
+	 */
+	public Map<String, SVDBRootFileCacheData> getRootFileCacheData() {
+		return fIndexCacheData.fRootFileCacheData;
+	}
+	
+	public Map<String, SVDBFileFingerprint> getFingerprintMap() {
+		return fIndexCacheData.fFingerprintMap;
+	}
+	
+	/**
+	 * Wraps a stream opened on 'path' such that its content is hashed
+	 * as it is read. updateFingerprint then uses this hash rather than
+	 * reading the file a second time
+	 * 
+	 * @param path
+	 * @param in
+	 * @return
+	 */
+	public InputStream fingerprintStream(String path, InputStream in) {
+		if (in == null) {
+			return null;
+		}
+		
+		HashInputStream ret = new HashInputStream(in, 
+				fFileSystemProvider.getLastModifiedTime(path));
+		
+		synchronized (fReadFingerprints) {
+			HashInputStream prev = fReadFingerprints.get(path);
+			if (prev == null || prev.getFingerprint() == null) {
+				fReadFingerprints.put(path, ret);
+			}
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Records the current timestamp and content hash of a source file.
+	 * The hash computed while the file was read by this build is used 
+	 * if available. Otherwise, the file is only re-hashed if its 
+	 * timestamp has changed since the fingerprint was last recorded
+	 * 
+	 * @param path
+	 */
+	public void updateFingerprint(String path) {
+		SVDBFileFingerprint fp = null;
+		
+		synchronized (fReadFingerprints) {
+			HashInputStream in = fReadFingerprints.remove(path);
+			if (in != null) {
+				fp = in.getFingerprint();
+			}
+		}
+		
+		if (fp == null) {
+			fp = fIndexCacheData.fFingerprintMap.get(path);
+
+			if (fp != null && fp.fTimestamp == fFileSystemProvider.getLastModifiedTime(path)) {
+				return;
+			}
+		
+			fp = SVDBFileFingerprint.compute(fFileSystemProvider, path);
+		}
+		
+		if (fp != null) {
+			fIndexCacheData.fFingerprintMap.put(path, fp);
+		} else {
+			fIndexCacheData.fFingerprintMap.remove(path);
+		}
+	}
+	
 	public void addDefine(String key, String val) {
 		fIndexCacheData.addDefine(key, val);
 	}
@@ -349,22 +447,62 @@ public class SVDBArgFileIndexBuildData implements
 	Map<String, List<SVDBDeclCacheItem>> getDeclCacheMap() {
 		return fIndexCacheData.getDeclCacheMap();
 	}
+	
+	/**
+	 * Returns the name index over the declaration cache. The index is
+	 * built from the declaration cache on first use
+	 */
+	synchronized SVDBDeclNameIndex getDeclNameIndex() {
+		if (fDeclNameIndex == null) {
+			fDeclNameIndex = new SVDBDeclNameIndex(getDeclCacheMap());
+		}
+		return fDeclNameIndex;
+	}
+	
+	/**
+	 * Updates the name index after the declaration-cache entry 
+	 * for a file has been changed or removed
+	 */
+	synchronized void updateDeclNameIndex(String path) {
+		if (fDeclNameIndex != null) {
+			fDeclNameIndex.setFile(path, getDeclCacheMap().get(path));
+		}
+	}
+
+	synchronized SVDBRefNameIndex getRefNameIndex() {
+		if (fRefNameIndex == null) {
+			fRefNameIndex = new SVDBRefNameIndex(getRootFileCacheData());
+		}
+		return fRefNameIndex;
+	}
+	
+	/**
+	 * Updates the reference index after the data for a root file
+	 * has been changed or removed
+	 */
+	synchronized void updateRefNameIndex(String path) {
+		if (fRefNameIndex != null) {
+			fRefNameIndex.setFile(path, getRootFileCacheData().get(path));
+		}
+	}
 
 	public Map<String, List<Integer>> getReferenceCacheMap() {
 		return fIndexCacheData.getReferenceCacheMap();
 	}
 	
-	public void setFileAttrBits(String path, int attr) {
+	public synchronized void setFileAttrBits(String path, int attr) {
 		fIndexCacheData.setFileAttrBits(path, attr);
 	}
 	
-	public void clrFileAttrBits(String path, int attr) {
+	public synchronized void clrFileAttrBits(String path, int attr) {
 		fIndexCacheData.clrFileAttrBits(path, attr);
 	}
 	
 	// FileMapper API
-	public int mapFilePathToId(String path, boolean add) {
-		int idx = (fIndexCacheData.fSrcFileList.indexOf(path)+1);
+	// Note: the FileMapper and PreProcIncludeFileProvider APIs are
+	// synchronized, since root files may be pre-processed in parallel
+	public synchronized int mapFilePathToId(String path, boolean add) {
+		int idx = (fIndexCacheData.getSrcFileIndex(path)+1);
 		
 		if (idx < 1 && add) {
 			idx = (fIndexCacheData.fSrcFileList.size()+1);
@@ -375,7 +513,7 @@ public class SVDBArgFileIndexBuildData implements
 		return idx;		
 	}
 	
-	public String mapFileIdToPath(int id) {
+	public synchronized String mapFileIdToPath(int id) {
 		if (id > 0 && id <= fIndexCacheData.fSrcFileList.size()) {
 			return fIndexCacheData.fSrcFileList.get(id-1);
 		}
@@ -383,7 +521,28 @@ public class SVDBArgFileIndexBuildData implements
 		return null;		
 	}
 	
+	/**
+	 * Returns the shared instance of a source-file path
+	 */
+	public synchronized String internFilePath(String path) {
+		return fIndexCacheData.internSrcFilePath(path);
+	}
+	
 	public Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(String incfile) {
+		return findCachedIncFile(incfile, null);
+	}
+	
+	/**
+	 * Locates an include file in the include-file cache. File trees of 
+	 * root files that are pre-processed, but not yet committed to the
+	 * index cache, are taken from 'pending_ft'
+	 * 
+	 * @param incfile
+	 * @param pending_ft map of root-file path to file tree. May be null
+	 */
+	public synchronized Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(
+			String							incfile,
+			Map<String, SVDBFileTree>		pending_ft) {
 		Tuple<String, List<SVDBFileTreeMacroList>> ret = null;
 		
 		if (!fEnableIncludeCache) {
@@ -392,25 +551,16 @@ public class SVDBArgFileIndexBuildData implements
 		
 		SVDBFileTree ft_root = null;
 		String incfile_fullpath = null;
-		for (Tuple<String, String> e : fIncludeFileList) {
-			if (e.first().endsWith(incfile)) {
-				String try_path = e.first();
-				boolean matches = false;
-				if (try_path.length() > incfile.length()) {
-					int prev_ch = try_path.charAt(try_path.length()-incfile.length()-2);
-					if (prev_ch == '/' || prev_ch == '\\') {
-						matches = true;
-					}
-				} else if (try_path.length() == incfile.length() && try_path.equals(incfile)) {
-					matches = true;
-				}
+		Tuple<String, String> e = fIncludeFileIndex.find(incfile);
 
-				if (matches) {
-					ft_root = fCache.getFileTree(new NullProgressMonitor(), e.second(), false);
-					incfile_fullpath = e.first();
-					break;
-				}
+		if (e != null) {
+			if (pending_ft != null) {
+				ft_root = pending_ft.get(e.second());
 			}
+			if (ft_root == null) {
+				ft_root = fCache.getFileTree(new NullProgressMonitor(), e.second(), false);
+			}
+			incfile_fullpath = e.first();
 		}
 		
 		if (ft_root != null) {
@@ -455,173 +605,52 @@ public class SVDBArgFileIndexBuildData implements
 		}
 	}
 	
-	public void addCachedIncFile(String incfile, String rootfile) {
+	public synchronized void addCachedIncFile(String incfile, String rootfile) {
 		if (fEnableIncludeCache) {
-			boolean have = false;
-			for (Tuple<String, String> e : fIncludeFileList) {
-				if (e.first().equals(incfile)) {
-					have = true;
-					break;
-				}
-			}
-
-			if (!have) {
-				fIncludeFileList.add(new Tuple<String, String>(incfile, rootfile));
-			}
+			fIncludeFileIndex.add(incfile, rootfile);
 		}
 	}
 
 	// PreProcIncludeFileProvider API
+	// Note: the include resolver synchronizes internally, so paths are
+	// resolved and opened without holding the build-data lock
 	public Tuple<String, InputStream> findIncFile(String incfile) {
-		Tuple<String, InputStream> ret = null;
-		
-		if (!fIncludeCacheValid) {
-			buildIncludeCache();
-		}
+		SVDBIncludeResolver resolver = getIncludeResolver();
 		
-		if (incfile.length() >= 2 && incfile.charAt(0) == '.' &&
-				(incfile.charAt(1) == '/' || incfile.charAt(1) == '\\')) {
-			// starts with ./
-			// Treat as a regular relative path
-			incfile = incfile.substring(2);
-		}
+		String path = resolver.resolve(incfile);
+		InputStream in = null;
 		
-		if (fIncludeMap.containsKey(incfile)) {
-			// Already have a candidate
-			String path = fIncludeMap.get(incfile);
-			InputStream in = fFileSystemProvider.openStream(path);
-			ret = new Tuple<String, InputStream>(path, in);
-		} else if (!fFailedSearches.contains(incfile)) {
-			// Need to look a bit harder, then. Could be a include-relative path
-			String first_elem = SVFileUtils.getPathFirstElem(incfile);
-			
-			// Search through all the leaf directories
-			if (incfile.contains("..")) {
-				fLog.debug("findIncFile: " + incfile);
-				// relative path
-				for (int i=0; i<fResolvedIncDirs.size(); i++) {
-					String try_path = fResolvedIncDirs.get(i) + "/" + incfile;
-					fLog.debug("  Resolve Path: " + try_path);
-					try_path = SVFileUtils.resolvePath(try_path, 
-							fResolvedIncDirs.get(i), fFileSystemProvider, true);
-					fLog.debug("  Resolved Path: " + try_path);
-					
-					InputStream in = fFileSystemProvider.openStream(try_path);
-					
-					if (in != null) {
-						ret = new Tuple<String, InputStream>(try_path, in);
-						fIncludeMap.put(incfile, try_path);
-					}
-				}
-			} else {
-				for (int i=0; i<fResolvedIncDirs.size(); i++) {
-					String try_path = null;
-					if (first_elem.equals(incfile)) {
-						try_path = fResolvedIncDirs.get(i) + "/" + incfile;
-					} else {
-						if (fIncDirDirs.get(i).contains(first_elem)) {
-							try_path = fResolvedIncDirs.get(i) + "/" + incfile;
-						}
-					}
-					
-					if (try_path != null) {
-						InputStream in = fFileSystemProvider.openStream(try_path);
-					
-						if (in != null) {
-							ret = new Tuple<String, InputStream>(try_path, in);
-							fIncludeMap.put(incfile, try_path);
-						} else {
-							try_path = SVFileUtils.resolvePath(try_path, 
-								fResolvedIncDirs.get(i), fFileSystemProvider, true);
-							in = fFileSystemProvider.openStream(try_path);
-						
-							if (in != null) {
-								ret = new Tuple<String, InputStream>(try_path, in);
-								fIncludeMap.put(incfile, try_path);
-							}
-						}
-					}
-					
-					if (ret != null) {
-						break;
-					}
-				}
-			}
-		
-			// Absolute path
-			if (ret == null && incfile.length() >= 2 && (incfile.charAt(0) == '/' || 
-					(Character.isAlphabetic(incfile.charAt(0)) && incfile.charAt(1) == ':'))) {
-				InputStream in = fFileSystemProvider.openStream(incfile);
-				if (in != null) {
-					ret = new Tuple<String, InputStream>(incfile, in);
-				}
-			}
-			
-			if (ret == null) {
-				fFailedSearches.add(incfile);
+		if (path != null && (in = fFileSystemProvider.openStream(path)) == null) {
+			// The file was removed since it was resolved
+			resolver.invalidate();
+			if ((path = resolver.resolve(incfile)) != null) {
+				in = fFileSystemProvider.openStream(path);
 			}
 		}
-		
-		/*
-		for (String path : fIndexCacheData.fIncludePathList) {
-			String fullpath = SVFileUtils.resolvePath(incfile, path, fFileSystemProvider, true);
-			if (fFileSystemProvider.fileExists(fullpath)) {
-				InputStream in = fFileSystemProvider.openStream(fullpath);
-				return new Tuple<String, InputStream>(fullpath, in);
-			}
-		}	
-		 */
 
-		return ret;
+		return (in != null)?new Tuple<String, InputStream>(path, fingerprintStream(path, in)):null;
 	}
 
-	private void buildIncludeCache() {
-		fIncludeMap.clear();
-		fResolvedIncDirs.clear();
-		fIncDirFiles.clear();
-		fIncDirDirs.clear();
-		fFailedSearches.clear();
-	
-		for (String inc_dir : fIndexCacheData.fIncludePathList) {
-			addIncDir(inc_dir);
+	private synchronized SVDBIncludeResolver getIncludeResolver() {
+		if (!fIncludeCacheValid) {
+			buildIncludeCache();
 		}
-		
-		fIncludeCacheValid = true;
+		return fIncludeResolver;
 	}
-	
-	private void addIncDir(String inc_dir) {
-		String resolved_inc_dir = SVFileUtils.resolvePath(
-				inc_dir, inc_dir, fFileSystemProvider, true);
-		
-		fLog.debug("addIncDir: " + inc_dir + " => " + resolved_inc_dir);
-		
-		Set<String> inc_dir_files = new HashSet<String>();
-		Set<String> inc_dir_dirs = new HashSet<String>();
+
+	private void buildIncludeCache() {
+		SVDBIncludeResolver resolver = SVDBIncludeResolver.get(
+				fFileSystemProvider, fIndexCacheData.fIncludePathList);
 		
-		// List all elements in the directory
-		if (fFileSystemProvider.isDir(resolved_inc_dir)) {
-			List<String> fd_l = fFileSystemProvider.getFiles(resolved_inc_dir);
-			
-			for (String fd : fd_l) {
-				if (fFileSystemProvider.isDir(fd)) {
-					inc_dir_dirs.add(SVFileUtils.getPathLeaf(fd));
-				} else {
-					String leaf = SVFileUtils.getPathLeaf(fd);
-					inc_dir_files.add(leaf);
-					
-//					if (!fIncludeMap.containsKey(leaf)) {
-//						fIncludeMap.put(leaf, fd);
-//					}
-				}
-			}
+		if (fIncludeResolver != null) {
+			fIncludeResolver.release();
 		}
-
-		fResolvedIncDirs.add(resolved_inc_dir);
-		fIncDirFiles.add(inc_dir_files);
-		fIncDirDirs.add(inc_dir_dirs);		
+		fIncludeResolver = resolver;
+		
+		// File-system providers do not necessarily report changes, so 
+		// check for changes made since a previous build
+		fIncludeResolver.refresh();
+		fIncludeCacheValid = true;
 	}
 	
 }
-
-
-
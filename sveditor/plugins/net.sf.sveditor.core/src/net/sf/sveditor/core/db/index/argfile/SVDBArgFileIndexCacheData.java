@@ -18,8 +18,10 @@ import java.util.List;
 import java.util.Map;
 
 import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.attr.SVDBDoNotSaveAttr;
 import net.sf.sveditor.core.db.index.ISVDBDeclCache;
 import net.sf.sveditor.core.db.index.SVDBBaseIndexCacheData;
+import net.sf.sveditor.core.db.index.SVDBFileFingerprint;
 import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 
 /**
@@ -46,10 +48,22 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 	// List of all source files (roots + included)
 	public List<String>						fSrcFileList;
 	public List<Integer>					fSrcFileAttr;
-
+	
+	// Reverse map from source-file path to index in fSrcFileList. 
+	// Not saved; rebuilt from fSrcFileList when the list is replaced
+	@SVDBDoNotSaveAttr
+	private Map<String, Integer>			fSrcFileIdxMap;
+	@SVDBDoNotSaveAttr
+	private List<String>					fSrcFileIdxList;
+	// Length of fSrcFileList when fSrcFileIdxMap was last brought up to date
+	@SVDBDoNotSaveAttr
+	private int								fSrcFileIdxSize;
 	// Map from root file to included files
 	public Map<String, List<String>>		fRootIncludeMap;
 	
+	// Timestamp and content hash of source files (roots + included)
+	public Map<String, SVDBFileFingerprint>	fFingerprintMap;
+	
 	public boolean							fMFCU;
 	
 	public boolean							fForceSV;
@@ -65,11 +79,64 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 		fSrcFileList = new ArrayList<String>();
 		fSrcFileAttr = new ArrayList<Integer>();
 		fRootIncludeMap = new HashMap<String, List<String>>();
+		fFingerprintMap = new HashMap<String, SVDBFileFingerprint>();
+	}
+
+	/**
+	 * Returns the index of a source file in fSrcFileList, or -1
+	 */
+	public int getSrcFileIndex(String path) {
+		Integer idx = getSrcFileIdxMap().get(path);
+		return (idx != null)?idx.intValue():-1;
+	}
+	
+	/**
+	 * Returns the instance of the path string held by the source-file
+	 * list, so that all users of a path share a single String. Returns
+	 * the argument if the path is not a source file.
+	 */
+	public String internSrcFilePath(String path) {
+		int idx = getSrcFileIndex(path);
+		return (idx != -1)?fSrcFileList.get(idx):path;
+	}
+	
+	/**
+	 * Replaces the source-file list and attributes
+	 */
+	public void setSrcFiles(List<String> paths, List<Integer> attr) {
+		fSrcFileList.clear();
+		fSrcFileAttr.clear();
+		fSrcFileList.addAll(paths);
+		fSrcFileAttr.addAll(attr);
+		fSrcFileIdxMap = null;
+	}
+	
+	private Map<String, Integer> getSrcFileIdxMap() {
+		// The list object is replaced when the cache is loaded
+		if (fSrcFileIdxMap == null || fSrcFileIdxList != fSrcFileList ||
+				fSrcFileIdxSize > fSrcFileList.size()) {
+			fSrcFileIdxMap = new HashMap<String, Integer>(
+					(4*fSrcFileList.size())/3+1);
+			fSrcFileIdxList = fSrcFileList;
+			fSrcFileIdxSize = 0;
+		}
+		
+		// Index paths appended since the map was last updated. The first 
+		// occurrence of a duplicated path is the one that is found
+		for (int i=fSrcFileIdxSize; i<fSrcFileList.size(); i++) {
+			String path = fSrcFileList.get(i);
+			if (!fSrcFileIdxMap.containsKey(path)) {
+				fSrcFileIdxMap.put(path, i);
+			}
+		}
+		fSrcFileIdxSize = fSrcFileList.size();
+		
+		return fSrcFileIdxMap;
 	}
 
 	public boolean containsFile(String path, int attr) {
 		if ((attr & ISVDBDeclCache.FILE_ATTR_SRC_FILE) != 0) {
-			if (fSrcFileList != null && fSrcFileList.contains(path)) {
+			if (fSrcFileList != null && getSrcFileIndex(path) != -1) {
 				return true;
 			}
 		}
@@ -103,9 +170,12 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 			}
 			
 			// All files are source files
-			if (!fSrcFileList.contains(path)) {
+			Map<String, Integer> idx_m = getSrcFileIdxMap();
+			if (!idx_m.containsKey(path)) {
+				idx_m.put(path, fSrcFileList.size());
 				fSrcFileList.add(path);
 				fSrcFileAttr.add(flags);
+				fSrcFileIdxSize = fSrcFileList.size();
 			}
 		} else if ((flags & ISVDBDeclCache.FILE_ATTR_ARG_FILE) != 0) {
 			if (!fArgFilePaths.contains(path)) {
@@ -119,7 +189,7 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 		int ret = 0;
 		int idx;
 		
-		if ((idx = fSrcFileList.indexOf(path)) != -1) {
+		if ((idx = getSrcFileIndex(path)) != -1) {
 			ret = fSrcFileAttr.get(idx);
 		} else if ((idx = fLibFileList.indexOf(path)) != -1) {
 			ret = fLibFileAttr.get(idx);
@@ -133,7 +203,7 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 	public void setFileAttr(String path, int flags) {
 		int idx;
 		
-		if ((idx = fSrcFileList.indexOf(path)) != -1) {
+		if ((idx = getSrcFileIndex(path)) != -1) {
 			fSrcFileAttr.set(idx, flags);
 		} else if ((idx = fLibFileList.indexOf(path)) != -1) {
 			fLibFileAttr.set(idx, flags);
@@ -145,7 +215,7 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 	public void setFileAttrBits(String path, int flags) {
 		int idx, attr;
 		
-		if ((idx = fSrcFileList.indexOf(path)) != -1) {
+		if ((idx = getSrcFileIndex(path)) != -1) {
 			attr = fSrcFileAttr.get(idx);
 			attr |= flags;
 			fSrcFileAttr.set(idx, attr);
@@ -159,7 +229,7 @@ public class SVDBArgFileIndexCacheData extends SVDBBaseIndexCacheData {
 	public void clrFileAttrBits(String path, int flags) {
 		int idx, attr;
 		
-		if ((idx = fSrcFileList.indexOf(path)) != -1) {
+		if ((idx = getSrcFileIndex(path)) != -1) {
 			attr = fSrcFileAttr.get(idx);
 			attr &= (~flags);
 			fSrcFileAttr.set(idx, attr);
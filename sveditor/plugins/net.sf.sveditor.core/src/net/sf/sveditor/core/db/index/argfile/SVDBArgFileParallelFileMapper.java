@@ -0,0 +1,117 @@
+package net.sf.sveditor.core.db.index.argfile;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBFileTreeMacroList;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
+import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
+
+/**
+ * File mapper and include provider used while root files are parsed
+ * in parallel.
+ *
+ * Root files are pre-processed one at a time, in root-file order, and
+ * parsed concurrently. A worker waits for its turn with
+ * {@link #beginPreProcess(int)}, and passes the turn to the next root
+ * file with {@link #endPreProcess(int, String, SVDBFileTree)} once its
+ * root file is pre-processed. File ids are assigned, and the include-file
+ * cache is filled, only while pre-processing. Both are therefore the
+ * same as for a sequential build, and do not depend on thread scheduling.
+ *
+ * The include-file cache refers to the file trees of root files. File
+ * trees of root files that are pre-processed, but not yet committed to
+ * the index cache, are held by this mapper until {@link #commit(String)}.
+ *
+ * @author ballance
+ *
+ */
+class SVDBArgFileParallelFileMapper implements
+	ISVPreProcFileMapper, ISVPreProcIncFileProvider {
+	private SVDBArgFileIndexBuildData			fBuildData;
+	private Map<String, SVDBFileTree>			fPendingFileTrees;
+	private boolean								fPreProcDone[];
+	private int									fNextRoot;
+
+	public SVDBArgFileParallelFileMapper(
+			SVDBArgFileIndexBuildData	build_data,
+			int							n_roots) {
+		fBuildData = build_data;
+		fPendingFileTrees = new ConcurrentHashMap<String, SVDBFileTree>();
+		fPreProcDone = new boolean[n_roots];
+		fNextRoot = 0;
+	}
+
+	public int mapFilePathToId(String path, boolean add) {
+		return fBuildData.mapFilePathToId(path, add);
+	}
+
+	public String mapFileIdToPath(int id) {
+		return fBuildData.mapFileIdToPath(id);
+	}
+
+	public Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(String incfile) {
+		return fBuildData.findCachedIncFile(incfile, fPendingFileTrees);
+	}
+
+	public void addCachedIncFile(String incfile, String rootfile) {
+		fBuildData.addCachedIncFile(incfile, rootfile);
+	}
+
+	public Tuple<String, InputStream> findIncFile(String incfile) {
+		return fBuildData.findIncFile(incfile);
+	}
+
+	/**
+	 * Waits until all preceding root files are pre-processed. Returns
+	 * immediately if the root file has already passed its turn, for
+	 * example when an external indexer failed after pre-processing it
+	 *
+	 * @param root_idx	index of the root file in root-file order
+	 */
+	public synchronized void beginPreProcess(int root_idx) throws InterruptedException {
+		while (fNextRoot < root_idx) {
+			wait();
+		}
+	}
+
+	/**
+	 * Passes the turn to the next root file. Called once the root file
+	 * is pre-processed, and again (with no effect) when the worker
+	 * completes, such that a failed root file does not stall the build
+	 *
+	 * @param root_idx	index of the root file in root-file order
+	 * @param path		root file path
+	 * @param ft		file tree of the root file. May be null
+	 */
+	public synchronized void endPreProcess(int root_idx, String path, SVDBFileTree ft) {
+		if (fPreProcDone[root_idx]) {
+			return;
+		}
+
+		if (ft != null) {
+			fPendingFileTrees.put(path, ft);
+		}
+
+		fPreProcDone[root_idx] = true;
+		while (fNextRoot < fPreProcDone.length && fPreProcDone[fNextRoot]) {
+			fNextRoot++;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Releases the file tree of a root file once it is committed to the
+	 * index cache. Must be called from the thread that owns the build
+	 *
+	 * @param path	root file path
+	 */
+	public void commit(String path) {
+		fPendingFileTrees.remove(path);
+	}
+
+}
@@ -3,7 +3,9 @@ package net.sf.sveditor.core.db.index.builder;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 
 public class SVDBIndexBuildJob extends Job implements ISVDBIndexBuildJob {
 	private SVDBIndexBuilder					fIndexBuilder;
@@ -11,6 +13,9 @@ public class SVDBIndexBuildJob extends Job implements ISVDBIndexBuildJob {
 	private Object								fSyncObj;
 	private boolean								fIsStarted;
 	private boolean								fIsDone;
+	private boolean								fIsScheduled;
+	private long								fCreateTime;
+	private int									fNumMerged;
 
 	/**
 	 * Build Jobs are only created by the build manager
@@ -25,69 +30,124 @@ public class SVDBIndexBuildJob extends Job implements ISVDBIndexBuildJob {
 		fIndexBuilder = index_builder;
 		fPlan = plan;
 		fSyncObj = new Object();
+		fCreateTime = System.currentTimeMillis();
+		
+		// A job cancelled while it waits out the debounce delay never
+		// runs, so completion is signalled when the job is done
+		addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				complete();
+			}
+		});
 	}
 	
-	public ISVDBIndexChangePlan getPlan() {
+	public synchronized ISVDBIndexChangePlan getPlan() {
 		return fPlan;
 	}
 	
 	public synchronized boolean canReplace(ISVDBIndexChangePlan plan) {
-		return (!fIsStarted && plan.equals(fPlan));
+		return (!fIsStarted && fPlan.canMerge(plan));
+	}
+
+	/**
+	 * Merges 'plan' into the plan for this job. Returns false if
+	 * the job has already started or the plans cannot be merged
+	 */
+	synchronized boolean merge(ISVDBIndexChangePlan plan) {
+		if (fIsStarted) {
+			return false;
+		}
+
+		ISVDBIndexChangePlan merged = fPlan.merge(plan);
+
+		if (merged != null) {
+			fPlan = merged;
+			fNumMerged++;
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the number of plans merged into this job
+	 */
+	public synchronized int getNumMerged() {
+		return fNumMerged;
+	}
+
+	synchronized boolean isStarted() {
+		return fIsStarted;
+	}
+
+	boolean isScheduled() {
+		return fIsScheduled;
+	}
+
+	void setScheduled() {
+		fIsScheduled = true;
+	}
+
+	long getCreateTime() {
+		return fCreateTime;
 	}
 
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
 		Exception ex = null;
+		ISVDBIndexChangePlan plan;
 		synchronized (this) {
 			fIsStarted = true;
+			plan = fPlan;
 		}
 		
 		try {
-			fPlan.getPlanner().execIndexChangePlan(monitor, fPlan);
+			if (!monitor.isCanceled()) {
+				plan.getPlanner().execIndexChangePlan(monitor, plan);
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 			ex = e;
 		} finally {
-			synchronized (this) {
-				fIsDone = true;
-			}
-			
-			synchronized (fSyncObj) {
-				fIndexBuilder.notify_job_complete(this);
-				fIsDone = true;
-				fSyncObj.notifyAll();
-			} 
-			
-			if (ex == null) {
+			if (ex == null && !monitor.isCanceled()) {
 				// Try a replan
-				if (fPlan.getType() == SVDBIndexChangePlanType.Refresh) {
-					ISVDBIndexChangePlan plan = fPlan.getPlanner().createIndexChangePlan(null);
-					if (plan.getType() != SVDBIndexChangePlanType.Empty) {
-						fIndexBuilder.build(plan);
+				if (plan.getType() == SVDBIndexChangePlanType.Refresh) {
+					ISVDBIndexChangePlan replan = plan.getPlanner().createIndexChangePlan(null);
+					if (replan.getType() != SVDBIndexChangePlanType.Empty) {
+						fIndexBuilder.build(replan);
 					}
 				}
 			}
 		}
 		
-		return Status.OK_STATUS;
+		return (monitor.isCanceled())?Status.CANCEL_STATUS:Status.OK_STATUS;
+	}
+
+	private void complete() {
+		synchronized (this) {
+			// Ensure nothing more is merged into a job that never ran
+			fIsStarted = true;
+		}
+		
+		synchronized (fSyncObj) {
+			fIndexBuilder.notify_job_complete(this);
+			fIsDone = true;
+			fSyncObj.notifyAll();
+		} 
 	}
 
 	public void waitComplete() {
-		boolean is_done = false;
+		// Don't wait out the debounce delay if someone needs the result
+		wakeUp();
 
-		while (!is_done) {
-			synchronized (fSyncObj) {
-				is_done = fIsDone;
-			}
-			
-			if (!is_done) {
-				synchronized (fSyncObj) {
-					try {
-						fSyncObj.wait();
-					} catch (InterruptedException e) {
-						e.printStackTrace();
-						break;
-					}
+		synchronized (fSyncObj) {
+			while (!fIsDone) {
+				try {
+					fSyncObj.wait();
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+					break;
 				}
 			}
 		}
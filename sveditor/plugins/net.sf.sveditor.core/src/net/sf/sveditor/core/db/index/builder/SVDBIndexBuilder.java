@@ -3,37 +3,94 @@ package net.sf.sveditor.core.db.index.builder;
 import java.util.ArrayList;
 import java.util.List;
 
+import net.sf.sveditor.core.log.ILogLevel;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+
 import org.eclipse.core.runtime.jobs.Job;
 
-public class SVDBIndexBuilder implements ISVDBIndexBuilder {
+/**
+ * Schedules index build jobs. Plans for an index that arrive while a
+ * job for that index is pending are merged into the pending job, and
+ * jobs for the same index run one at a time. New jobs are delayed
+ * briefly so that a burst of changes is built once
+ */
+public class SVDBIndexBuilder implements ISVDBIndexBuilder, ILogLevel {
+	public static final long				DEFAULT_DEBOUNCE_DELAY = 250;
+	// Bursts do not delay a pending job beyond this
+	public static final long				MAX_DEBOUNCE_DELAY     = 2000;
+
 	private List<SVDBIndexBuildJob>			fJobList;
+	private long							fDebounceDelay;
+	private int								fNumMerged;
+	private LogHandle						fLog;
 	
 	public SVDBIndexBuilder() {
 		fJobList = new ArrayList<SVDBIndexBuildJob>();
+		fDebounceDelay = DEFAULT_DEBOUNCE_DELAY;
+		fLog = LogFactory.getLogHandle("SVDBIndexBuilder");
+	}
+
+	public void setDebounceDelay(long delay) {
+		fDebounceDelay = delay;
+	}
+
+	/**
+	 * Returns the number of plans merged into pending jobs
+	 */
+	public int getNumMerged() {
+		synchronized (fJobList) {
+			return fNumMerged;
+		}
 	}
 	
 	public ISVDBIndexBuildJob build(ISVDBIndexChangePlan plan) {
 		SVDBIndexBuildJob job = null;
+		SVDBIndexBuildJob active = null;
+		SVDBIndexBuildJob running = null;
 		
 		synchronized (fJobList) {
 			for (SVDBIndexBuildJob j : fJobList) {
-				if (j.canReplace(plan)) {
+				if (j.getPlan().getPlanner() != plan.getPlanner()) {
+					continue;
+				}
+				if (j.isStarted()) {
+					running = j;
+				} else if (job == null && j.merge(plan)) {
 					job = j;
-					break;
+					fNumMerged++;
+					fLog.debug(LEVEL_MID, "Merged " + plan.getType() + " plan into pending " +
+							j.getPlan().getType() + " job (" + j.getNumMerged() + " merged)");
+
+					// Restart the debounce delay, unless the job has waited long enough
+					if (j.isScheduled() &&
+							System.currentTimeMillis()-j.getCreateTime() < MAX_DEBOUNCE_DELAY) {
+						j.wakeUp(fDebounceDelay);
+					}
 				}
+				active = j;
 			}
-		}
-		
-		if (job == null) {
-			job = new SVDBIndexBuildJob(this, plan);
-			synchronized (fJobList) {
+
+			if (job == null) {
+				job = new SVDBIndexBuildJob(this, plan);
+				job.setPriority(Job.BUILD);
 				fJobList.add(job);
+
+				if (active == null) {
+					job.setScheduled();
+					job.schedule(fDebounceDelay);
+				}
+				// Otherwise, scheduled once the active job for this index completes
+			}
+
+			if (running != null && plan.getType() == SVDBIndexChangePlanType.RebuildIndex) {
+				// The running job is superseded by the full rebuild
+				fLog.debug(LEVEL_MIN, "Cancel " + running.getPlan().getType() + 
+						" job superseded by a full rebuild");
+				running.cancel();
 			}
 		}
 	
-		job.setPriority(Job.BUILD);
-		job.schedule();
-	
 		return job;
 	}
 	
@@ -74,6 +131,22 @@ public class SVDBIndexBuilder implements ISVDBIndexBuilder {
 	void notify_job_complete(SVDBIndexBuildJob job) {
 		synchronized (fJobList) {
 			fJobList.remove(job);
+
+			if (job.getNumMerged() > 0) {
+				fLog.debug(LEVEL_MIN, "Build of " + job.getPlan().getType() + " plan completed " +
+						job.getNumMerged() + " merged plans");
+			}
+
+			// Start the next job queued for this index
+			for (SVDBIndexBuildJob j : fJobList) {
+				if (j.getPlan().getPlanner() == job.getPlan().getPlanner()) {
+					if (!j.isScheduled()) {
+						j.setScheduled();
+						j.schedule();
+					}
+					break;
+				}
+			}
 		}
 	}
 
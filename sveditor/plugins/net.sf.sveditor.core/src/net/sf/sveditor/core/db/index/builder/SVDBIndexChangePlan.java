@@ -14,11 +14,29 @@ public class SVDBIndexChangePlan implements ISVDBIndexChangePlan {
 	}
 
 	public boolean canMerge(ISVDBIndexChangePlan other) {
-		return false;
+		return (merge(other) != null);
 	}
 
+	/**
+	 * Merges a later plan for the same index with this one. An empty 
+	 * plan contributes nothing, and a full rebuild supersedes any 
+	 * other plan. Sub-classes merge plans of their own type
+	 */
 	public ISVDBIndexChangePlan merge(ISVDBIndexChangePlan other) {
-		// TODO Auto-generated method stub
+		if (other.getPlanner() != fPlanner) {
+			return null;
+		}
+		
+		if (fType == SVDBIndexChangePlanType.Empty) {
+			return other;
+		} else if (other.getType() == SVDBIndexChangePlanType.Empty) {
+			return this;
+		} else if (fType == SVDBIndexChangePlanType.RebuildIndex) {
+			return this;
+		} else if (other.getType() == SVDBIndexChangePlanType.RebuildIndex) {
+			return other;
+		}
+		
 		return null;
 	}
 
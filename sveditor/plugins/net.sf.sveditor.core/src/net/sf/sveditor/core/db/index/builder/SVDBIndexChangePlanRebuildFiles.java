@@ -36,4 +36,36 @@ public class SVDBIndexChangePlanRebuildFiles extends SVDBIndexChangePlan {
 	public FileListType getFileListType() {
 		return fFileListType;
 	}
+
+	/**
+	 * Plans for the same type of file list merge into a plan with the 
+	 * union of the files. Other incremental changes require a full rebuild
+	 */
+	@Override
+	public ISVDBIndexChangePlan merge(ISVDBIndexChangePlan other) {
+		ISVDBIndexChangePlan ret = super.merge(other);
+		
+		if (ret == null && other.getPlanner() == getPlanner()) {
+			if (other.getType() == SVDBIndexChangePlanType.Refresh) {
+				ret = this;
+			} else if (other instanceof SVDBIndexChangePlanRebuildFiles &&
+					((SVDBIndexChangePlanRebuildFiles)other).getFileListType() == fFileListType) {
+				SVDBIndexChangePlanRebuildFiles merged = 
+						new SVDBIndexChangePlanRebuildFiles(getPlanner());
+				merged.setFileListType(fFileListType);
+				for (String file : fFileList) {
+					merged.addFile(file);
+				}
+				for (String file : ((SVDBIndexChangePlanRebuildFiles)other).getFileList()) {
+					merged.addFile(file);
+				}
+				ret = merged;
+			} else if (other.getType() == SVDBIndexChangePlanType.RebuildFiles ||
+					other.getType() == SVDBIndexChangePlanType.RemoveFiles) {
+				ret = new SVDBIndexChangePlanRebuild(getPlanner());
+			}
+		}
+		
+		return ret;
+	}
 }
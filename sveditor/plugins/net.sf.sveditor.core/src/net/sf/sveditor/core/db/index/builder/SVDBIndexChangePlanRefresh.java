@@ -6,26 +6,27 @@ public class SVDBIndexChangePlanRefresh extends SVDBIndexChangePlan {
 		super(planner, SVDBIndexChangePlanType.Refresh);
 	}
 
-	@Override
-	public boolean canMerge(ISVDBIndexChangePlan other) {
-		return (merge(other) != null);
-	}
-
 	@Override
 	public ISVDBIndexChangePlan merge(ISVDBIndexChangePlan other) {
 		// We can merge if the 'other' plan supersedes 
 		// or is identical to this one 
+		ISVDBIndexChangePlan ret = super.merge(other);
 
-		if (other.getPlanner() == getPlanner()) {
-			if (other.getType() == SVDBIndexChangePlanType.RebuildIndex) {
-				// Supersedes our refresh plan
-				return other;
-			} else if (other.getType() == SVDBIndexChangePlanType.Refresh) {
+		if (ret == null && other.getPlanner() == getPlanner()) {
+			switch (other.getType()) {
 				// Equals
-				return other;
+				case Refresh:
+				// Incremental plans are only created for a loaded index,
+				// so they supersede our refresh plan
+				case RebuildFiles:
+				case RemoveFiles:
+					ret = other;
+					break;
+				default:
+					break;
 			}
 		}
-		return null;
+		return ret;
 	}
 
 }
@@ -19,4 +19,33 @@ public class SVDBIndexChangePlanRemoveFiles extends SVDBIndexChangePlan {
 		return fFiles;
 	}
 
+	/**
+	 * Removals merge into a plan with the union of the files. Files 
+	 * both removed and rebuilt require a full rebuild
+	 */
+	@Override
+	public ISVDBIndexChangePlan merge(ISVDBIndexChangePlan other) {
+		ISVDBIndexChangePlan ret = super.merge(other);
+		
+		if (ret == null && other.getPlanner() == getPlanner()) {
+			if (other.getType() == SVDBIndexChangePlanType.Refresh) {
+				ret = this;
+			} else if (other instanceof SVDBIndexChangePlanRemoveFiles) {
+				SVDBIndexChangePlanRemoveFiles merged = 
+						new SVDBIndexChangePlanRemoveFiles(getPlanner());
+				merged.fFiles.addAll(fFiles);
+				for (String file : ((SVDBIndexChangePlanRemoveFiles)other).getFiles()) {
+					if (!merged.fFiles.contains(file)) {
+						merged.addFile(file);
+					}
+				}
+				ret = merged;
+			} else if (other.getType() == SVDBIndexChangePlanType.RebuildFiles) {
+				ret = new SVDBIndexChangePlanRebuild(getPlanner());
+			}
+		}
+		
+		return ret;
+	}
+
 }
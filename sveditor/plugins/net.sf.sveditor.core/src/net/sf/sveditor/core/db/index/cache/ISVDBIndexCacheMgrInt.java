@@ -2,4 +2,14 @@ package net.sf.sveditor.core.db.index.cache;
 
 public interface ISVDBIndexCacheMgrInt extends ISVDBIndexCacheMgr {
 
+	/**
+	 * Returns the number of cache-data lookups satisfied from memory
+	 */
+	long getNumHits();
+
+	/**
+	 * Returns the number of cache-data lookups that required a load
+	 */
+	long getNumMisses();
+
 }
@@ -170,6 +170,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			int file_id = fFileSystem.writeFile(entry.getPath(), data_out);
 			
 			entry.setSVDBFileId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILE_MASK, data_out.getLength());
 			
 			fCacheMgr.freeWriter(writer);
 		} catch (IOException e) {
@@ -189,6 +190,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			reader.readObject(null, SVDBFile.class, file);
 			
 			entry.setSVDBFileRef(file);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILE_MASK, data_in.getLength());
 			
 			fCacheMgr.freeReader(reader);
 		} catch (IOException e) {
@@ -214,6 +216,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			int file_id = fFileSystem.writeFile(entry.getPath() + ":preProcFile", data_out);
 			
 			entry.setSVDBPreProcFileId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_PREPROC_FILE_MASK, data_out.getLength());
 			
 			fCacheMgr.freeWriter(writer);
 		} catch (IOException e) {
@@ -233,6 +236,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			reader.readObject(null, SVDBFile.class, file);
 			
 			entry.setSVDBPreProcFileRef(file);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_PREPROC_FILE_MASK, data_in.getLength());
 			
 			fCacheMgr.freeReader(reader);
 		} catch (IOException e) {
@@ -257,6 +261,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			int file_id = fFileSystem.writeFile(entry.getPath() + ":fileTree", data_out);
 			
 			entry.setSVDBFileTreeId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILETREE_MASK, data_out.getLength());
 			
 			fCacheMgr.freeWriter(writer);
 		} catch (IOException e) {
@@ -277,6 +282,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			reader.readObject(null, SVDBFileTree.class, ft);
 			
 			entry.setSVDBFileTreeRef(ft);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILETREE_MASK, data_in.getLength());
 			
 			fCacheMgr.freeReader(reader);
 		} catch (IOException e) {
@@ -301,6 +307,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			int file_id = fFileSystem.writeFile(entry.getPath() + ":markers", data_out);
 			
 			entry.setMarkersId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.MARKERS_MASK, data_out.getLength());
 			
 			fCacheMgr.freeWriter(writer);
 		} catch (IOException e) {
@@ -320,6 +327,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 			List<SVDBMarker> markers = (List<SVDBMarker>)reader.readItemList(null);
 			
 			entry.setMarkersRef(markers);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.MARKERS_MASK, data_in.getLength());
 			
 			fCacheMgr.freeReader(reader);
 		} catch (IOException e) {
@@ -349,7 +357,7 @@ public class SVDBSegmentedIndexCache implements ISVDBIndexCache {
 		return fCache;
 	}
 	
-	private synchronized SVDBFileIndexCacheEntry getCacheEntry(String path, int type, boolean add) {
+	private SVDBFileIndexCacheEntry getCacheEntry(String path, int type, boolean add) {
 		SVDBFileIndexCacheEntry entry = null;
 		boolean added = false;
 		
@@ -3,13 +3,16 @@ package net.sf.sveditor.core.db.index.cache.delegating;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCacheMgrInt;
+import net.sf.sveditor.core.db.index.cache.file.ISVDBFileIndexCacheStore;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileIndexCacheEntry;
+import net.sf.sveditor.core.db.index.cache.file.SVDBFileIndexCacheLRU;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystem;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystemDataInput;
 import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystemDataOutput;
@@ -22,19 +25,13 @@ import net.sf.sveditor.core.log.LogHandle;
 
 public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	
-	private SVDBFileIndexCacheEntry					fCacheHead;
-	private SVDBFileIndexCacheEntry					fCacheTail;
-	private int										fCacheSize;
-	
-	private SVDBFileIndexCacheEntry					fUnCachedHead;
-	private SVDBFileIndexCacheEntry					fUnCachedTail;
-	
-	private int										fMaxCacheSize = 100;
-//	private int										fMaxCacheSize = 10;
-//	private int										fMaxCacheSize = 1;
+	// Tracks in-memory entries. Entry content is stored by the
+	// index cache that owns the entry
+	private SVDBFileIndexCacheLRU					fLRU;
 	
 	private List<IDBReader>							fPersistenceRdrSet;
 	private List<IDBWriter>							fPersistenceWriterSet;
+	private boolean									fCompactFormat = true;
 
 	private List<SVDBSegmentedIndexCache>			fIndexList;
 	private int										fIndexId;
@@ -51,14 +48,59 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 
 	
 	public SVDBSegmentedIndexCacheMgr() {
+		this(SVDBFileIndexCacheLRU.DEFAULT_NUM_SHARDS);
+	}
+
+	public SVDBSegmentedIndexCacheMgr(int n_shards) {
 		fPersistenceRdrSet = new ArrayList<IDBReader>();
 		fPersistenceWriterSet = new ArrayList<IDBWriter>();
 		fLog = LogFactory.getLogHandle("SVDBFileIndexCacheMgr");
 		fIndexList = new ArrayList<SVDBSegmentedIndexCache>();
+		fLRU = new SVDBFileIndexCacheLRU(new ISVDBFileIndexCacheStore() {
+			
+			public void writeBackEntry(SVDBFileIndexCacheEntry entry) {
+				SVDBSegmentedIndexCacheMgr.this.writeBackEntry(entry);
+			}
+			
+			public void readBackEntry(SVDBFileIndexCacheEntry entry, int mask) {
+				SVDBSegmentedIndexCacheMgr.this.readBackEntry(entry, mask);
+			}
+		}, n_shards);
 	}
 	
-	public void test_setMaxCacheSize(int sz) {
-		fMaxCacheSize = sz;
+	/**
+	 * Sets the memory budget for in-memory entries, in bytes
+	 * of serialized entry data
+	 */
+	public void setMaxCacheBytes(long max) {
+		fLRU.setMaxCacheBytes(max);
+	}
+	
+	public long getMaxCacheBytes() {
+		return fLRU.getMaxCacheBytes();
+	}
+	
+	public long getNumHits() {
+		return fLRU.getNumHits();
+	}
+	
+	public long getNumMisses() {
+		return fLRU.getNumMisses();
+	}
+	
+	public long getNumEvictions() {
+		return fLRU.getNumEvictions();
+	}
+	
+	/**
+	 * Selects the persistence format used for newly-written cache data.
+	 * Cache data in either format can be read back
+	 */
+	public void setCompactFormat(boolean compact) {
+		synchronized (fPersistenceWriterSet) {
+			fCompactFormat = compact;
+			fPersistenceWriterSet.clear();
+		}
 	}
 
 	/**
@@ -92,14 +134,11 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 		
 		
-		fCacheHead = null;
-		fCacheTail = null;
-		fCacheSize = 0;
+		fLRU.clear();
 		
-		fUnCachedHead = null;
-		fUnCachedTail = null;
-		
-		fIndexList.clear();
+		synchronized (fIndexList) {
+			fIndexList.clear();
+		}
 		fIndexDataId = -1;
 		
 		// Attempt to load data from the filesystem
@@ -129,37 +168,28 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 		
 		// Now, write back the number of cache entries
-		int n_entries = count_entries(fCacheHead) + count_entries(fUnCachedHead);
-		int n_cached=0, n_uncached=0;
+		// Ensure entry contents are written back
+		fLRU.writeBackAll();
 		
-		dat.writeInt(n_entries);
-		SVDBFileIndexCacheEntry entry;
+		List<SVDBFileIndexCacheEntry> cached = fLRU.getCachedList();
+		List<SVDBFileIndexCacheEntry> uncached = fLRU.getUnCachedList();
 		
-		entry = fCacheHead;
-		while (entry != null) {
-			// Ensure entry contents are written back
-//			System.out.println("writeBackEntry: " + entry.getPath());
-			writeBackEntry(entry);
-			
+		dat.writeInt(cached.size() + uncached.size());
+		
+		for (SVDBFileIndexCacheEntry entry : cached) {
 			entry.write(dat);
-			entry = entry.getNext();
-			n_cached++;
 		}
 		
-		entry = fUnCachedHead;
-		while (entry != null) {
+		for (SVDBFileIndexCacheEntry entry : uncached) {
 			entry.write(dat);
-			entry = entry.getNext();
-			n_uncached++;
 		}
-		
-//		System.out.println("<-- write_state n_cached=" + n_cached + " n_uncached=" + n_uncached + " " + 
-//				(n_cached+n_uncached));
 	}
 	
 	private void read_state(SVDBFileSystemDataInput din) throws IOException {
 		try {
-		fIndexList.clear();
+		synchronized (fIndexList) {
+			fIndexList.clear();
+		}
 		
 		// Read back the number of indexes
 		int index_list_size = din.readInt();
@@ -171,7 +201,9 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			// Initialize with file system
 			cache.setFS(fs);
 			
-			fIndexList.add(cache);
+			synchronized (fIndexList) {
+				fIndexList.add(cache);
+			}
 		}
 	
 		// Read back the cache entries
@@ -179,7 +211,7 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		
 		for (int i=0; i<n_entries; i++) {
 			SVDBFileIndexCacheEntry entry = SVDBFileIndexCacheEntry.read(din);
-			addToUnCachedList(entry);
+			fLRU.addToUnCachedList(entry);
 		}
 		} catch (RuntimeException e) {
 			System.out.println("Exception in read_state");
@@ -207,17 +239,6 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		return fs;
 	}
 	
-	private int count_entries(SVDBFileIndexCacheEntry entry) {
-		int count = 0;
-		
-		while (entry != null) {
-			count++;
-			entry = entry.getNext();
-		}
-		
-		return count;
-	}
-
 	public synchronized void sync() {
 		
 		// TODO: save cache and entry data to the filesystem
@@ -303,7 +324,9 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		SVDBFileSystem fs = openFileSystem(id);
 		ret.setFS(fs);
 		
-		fIndexList.add(ret);
+		synchronized (fIndexList) {
+			fIndexList.add(ret);
+		}
 		
 		return ret;
 	}
@@ -340,37 +363,21 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param cache
 	 */
 	public synchronized void clearIndexCache(SVDBSegmentedIndexCache cache) {
-		SVDBFileIndexCacheEntry entry;
+		Map<String, SVDBFileIndexCacheEntry> entries = 
+				new HashMap<String, SVDBFileIndexCacheEntry>();
+		fLRU.getEntries(cache.getCacheId(), entries);
 		
 		try {
-			entry = fCacheHead;
-			while (entry != null) {
-				if (entry.getCacheId() == cache.getCacheId()) {
-					SVDBFileIndexCacheEntry next = entry.getNext();
-					deleteEntry(entry);
-					entry = next;
-				} else {
-					entry = entry.getNext();
-				}
-			}
-
-			entry = fUnCachedHead;
-			while (entry != null) {
-				if (entry.getCacheId() == cache.getCacheId()) {
-					SVDBFileIndexCacheEntry next = entry.getNext();
-					deleteEntry(entry);
-					entry = next;
-				} else {
-					entry = entry.getNext();
-				}
+			for (SVDBFileIndexCacheEntry entry : entries.values()) {
+				deleteEntry(entry);
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
-	private synchronized void deleteEntry(SVDBFileIndexCacheEntry entry) throws IOException {
-		if (!entry.onList()) {
+	private void deleteEntry(SVDBFileIndexCacheEntry entry) throws IOException {
+		if (!fLRU.remove(entry)) {
 			try {
 				throw new Exception("Attempting to remove " + entry.getPath() + " that isn't on list");
 			} catch (Exception e) {
@@ -378,12 +385,6 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			}
 			return;
 		}
-		if (entry.isCached()) {
-			removeFromCachedList(entry);
-		} else {
-			removeFromUnCachedList(entry);
-		}
-		entry.clrOnList();
 		
 		deleteStorage(entry);
 	}
@@ -411,7 +412,9 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		clearIndexCache(cache);
 	
 		// Remove the cache from the list after clearing entries
-		fIndexList.remove(cache);
+		synchronized (fIndexList) {
+			fIndexList.remove(cache);
+		}
 	}
 	
 	/**
@@ -423,28 +426,9 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * 
 	 * @param entry
 	 */
-	public synchronized void ensureUpToDate(SVDBFileIndexCacheEntry entry, int mask) {
-		int loaded_mask;
-		
+	public void ensureUpToDate(SVDBFileIndexCacheEntry entry, int mask) {
 		try {
-		
-		if (entry.isCached()) {
-			moveElementToCachedTail(entry);
-			loaded_mask = entry.loadedMask();
-		} else {
-			removeFromUnCachedList(entry);
-			// addToCachedList() ensures index size is observed
-			addToCachedList(entry);
-			
-			loaded_mask = entry.setCached();
-			// Need to bring back into the cache
-		}
-		
-		mask ^= loaded_mask;
-		
-		if ((mask & SVDBFileIndexCacheEntry.BACKED_MASK) != 0) {
-			readBackEntry(entry, mask);
-		}
+			fLRU.ensureUpToDate(entry, mask);
 		} catch (RuntimeException e) {
 			System.out.println("Exception in ensureUpToDate");
 			e.printStackTrace();
@@ -457,12 +441,8 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * 
 	 * @param entry
 	 */
-	public synchronized void removeEntry(SVDBFileIndexCacheEntry entry) {
-		if (entry.isCached()) {
-			removeFromCachedList(entry);
-		} else {
-			removeFromUnCachedList(entry);
-		}
+	public void removeEntry(SVDBFileIndexCacheEntry entry) {
+		fLRU.remove(entry);
 
 		try {
 			deleteStorage(entry);
@@ -472,10 +452,12 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	}
 	
 	private SVDBSegmentedIndexCache findCache(int id) {
-		for (int i=0; i<fIndexList.size(); i++) {
-			SVDBSegmentedIndexCache cache = fIndexList.get(i);
-			if (cache.getCacheId() == id) {
-				return cache;
+		synchronized (fIndexList) {
+			for (int i=0; i<fIndexList.size(); i++) {
+				SVDBSegmentedIndexCache cache = fIndexList.get(i);
+				if (cache.getCacheId() == id) {
+					return cache;
+				}
 			}
 		}
 		return null;
@@ -487,41 +469,21 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param entry
 	 * @throws IOException
 	 */
-	private synchronized void deleteStorage(SVDBFileIndexCacheEntry entry) throws IOException {
+	private void deleteStorage(SVDBFileIndexCacheEntry entry) throws IOException {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		if (cache == null) {
 			System.out.println("Failed to find cache: " + entry.getCacheId());
-			for (int i=0; i<fIndexList.size(); i++) {
-				System.out.println("  Cache: " + fIndexList.get(i).getCacheId());
+			synchronized (fIndexList) {
+				for (int i=0; i<fIndexList.size(); i++) {
+					System.out.println("  Cache: " + fIndexList.get(i).getCacheId());
+				}
 			}
 		}
 		
 		cache.deleteStorage(entry);
 	}
 
-	/**
-	 * Add a new entry to the uncached list
-	 * 
-	 * @param entry
-	 */
-	private synchronized void addToUnCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.setOnList();
-		if (fUnCachedHead == null) {
-			// First entry
-			fUnCachedHead = entry;
-			fUnCachedTail = entry;
-			entry.setPrev(null);
-			entry.setNext(null);
-		} else {
-			// Add the new file info to the linked list
-			fUnCachedTail.setNext(entry);
-			entry.setPrev(fUnCachedTail);
-			fUnCachedTail = entry;
-			entry.setNext(null);
-		}
-	}
-
 	/**
 	 * This method is used by a cache to find an entry that was previously
 	 * saved and restored but not yet associated with the cache
@@ -530,27 +492,8 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param path
 	 * @return
 	 */
-	private synchronized SVDBFileIndexCacheEntry findCacheEntry(int cache_id, String path) {
-		SVDBFileIndexCacheEntry entry = fCacheHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id && entry.getPath().equals(path)) {
-				return entry;
-			}
-			entry = entry.getNext();
-		}
-		
-		entry = fUnCachedHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id && entry.getPath().equals(path)) {
-				return entry;
-			}
-			entry = entry.getNext();
-		}
-	
-		// Failed to find
-		return null;
+	private SVDBFileIndexCacheEntry findCacheEntry(int cache_id, String path) {
+		return fLRU.find(cache_id, path);
 	}
 	
 	/**
@@ -559,211 +502,28 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param cache_id
 	 * @param cache
 	 */
-	public synchronized void loadCache(int cache_id, Map<String, SVDBFileIndexCacheEntry> cache) {
+	public void loadCache(int cache_id, Map<String, SVDBFileIndexCacheEntry> cache) {
 		cache.clear();
-		
-		SVDBFileIndexCacheEntry entry = fCacheHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id) {
-				cache.put(entry.getPath(), entry);
-			}
-			entry = entry.getNext();
-		}
-		
-		entry = fUnCachedHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id) {
-				cache.put(entry.getPath(), entry);
-			}
-			entry = entry.getNext();
-		}		
+		fLRU.getEntries(cache_id, cache);
 	}
 
 	public List<SVDBFileIndexCacheEntry> test_getCachedList() {
-		List<SVDBFileIndexCacheEntry> ret = new ArrayList<SVDBFileIndexCacheEntry>();
-		
-		SVDBFileIndexCacheEntry head = fCacheHead;
-		
-		while (head != null) {
-			ret.add(head);
-			head = head.getNext();
-		}
-		
-		return ret;
+		return fLRU.getCachedList();
 	}
 	
 	public List<SVDBFileIndexCacheEntry> test_getUnCachedList() {
-		List<SVDBFileIndexCacheEntry> ret = new ArrayList<SVDBFileIndexCacheEntry>();
-		
-		SVDBFileIndexCacheEntry head = fUnCachedHead;
-		
-		while (head != null) {
-			ret.add(head);
-			head = head.getNext();
-		}
-		
-		return ret;
+		return fLRU.getUnCachedList();
 	}
 	
-	public synchronized void addToCachedList(SVDBFileIndexCacheEntry entry) {
+	public void addToCachedList(SVDBFileIndexCacheEntry entry) {
 		try {
-		entry.setOnList();
-		entry.setCached();
-		if (fCacheHead == null) {
-			// First entry
-			fCacheHead = entry;
-			fCacheTail = entry;
-			entry.setPrev(null);
-			entry.setNext(null);
-		} else {
-			// Add the new file info to the linked list
-			fCacheTail.setNext(entry);
-			entry.setPrev(fCacheTail);
-			fCacheTail = entry;
-			entry.setNext(null);
-		}
-		
-		fCacheSize++;
-		
-		while (fCacheSize > fMaxCacheSize) {
-			if (!fCacheHead.isCached()) {
-				System.out.println("[ERROR] Head is not cached");
-				removeFromCachedList(fCacheHead);
-			} else {
-				uncacheEntry(fCacheHead);
-			}
-		}
+			fLRU.addToCachedList(entry);
 		} catch (RuntimeException e) {
 			System.out.println("Exception inside addToCachedList");
 			e.printStackTrace();
 		}
 	}
 
-	/**
-	 * Remove the specified entry from the Uncached list. It is an error
-	 * to call this method with entry.isCached() false
-	 * 
-	 * @param entry
-	 */
-	private synchronized void removeFromUnCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.clrOnList();
-
-		if (entry.getPrev() == null) {
-			fUnCachedHead = entry.getNext();
-		} else {
-			entry.getPrev().setNext(entry.getNext());
-		}
-
-		if (entry.getNext() == null) {
-			fUnCachedTail = entry.getPrev();
-		} else {
-			entry.getNext().setPrev(entry.getPrev());
-		}
-		entry.setPrev(null);
-		entry.setNext(null);
-	}
-
-	private synchronized void removeFromCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.clrOnList();
-		
-		// Ensure the entry is not marked cached
-		entry.clearCached();
-		
-		if (entry.getPrev() == null) {
-			fCacheHead = entry.getNext();
-		} else {
-			entry.getPrev().setNext(entry.getNext());
-		}
-
-		if (entry.getNext() == null) {
-			fCacheTail = entry.getPrev();
-		} else {
-			entry.getNext().setPrev(entry.getPrev());
-		}
-		entry.setPrev(null);
-		entry.setNext(null);
-		fCacheSize--;
-	}
-
-	/**
-	 * Clear references in the specified entry, such that 
-	 * the system can reclaim memory. 
-	 * Write data back to the filesystem.
-	 * 
-	 * @param info
-	 */
-	private synchronized void uncacheEntry(SVDBFileIndexCacheEntry info) {
-		// First,
-		try {
-		if (info.isCached()) {
-			// Remove the entry from the cached list, and move
-			// to the uncached list
-			removeFromCachedList(info);
-			
-			addToUnCachedList(info);
-		
-			// Write-back the data
-			writeBackEntry(info);
-			
-			// Release references
-			info.clearCached();
-		}
-		} catch (RuntimeException e) {
-			System.out.println("Exception in uncacheEntry");
-			e.printStackTrace();
-			throw e;
-		}
-	}
-	
-	private synchronized void moveElementToCachedTail(SVDBFileIndexCacheEntry info) {
-		if (!info.isCached()) {
-			try {
-				throw new Exception();
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-			return;
-		}
-		
-		if (fCacheHead == null && fCacheTail == null) {
-			try {
-				throw new Exception("moveElement with none on list: " + info.getPath() + " cached=" + info.isCached());
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		
-		if (fCacheTail != info) {
-			if (info.getPrev() == null) {
-				fCacheHead = info.getNext();
-			} else {
-				info.getPrev().setNext(info.getNext());
-			}
-
-			if (info.getNext() == null) {
-				fCacheTail = info.getPrev();
-			} else {
-				info.getNext().setPrev(info.getPrev());
-			}
-
-			if (fCacheHead == null) {
-				// First entry
-				fCacheHead = info;
-				fCacheTail = info;
-				info.setPrev(null);
-				info.setNext(null);
-			} else {
-				// Add the file info to the linked list
-				fCacheTail.setNext(info);
-				info.setPrev(fCacheTail);
-				fCacheTail = info;
-				info.setNext(null);
-			}
-		}
-	}
-	
 	public IDBReader allocReader() {
 		IDBReader reader = null;
 		synchronized (fPersistenceRdrSet) {
@@ -792,7 +552,7 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			}
 		}
 		if (writer == null) {
-			writer = new SVDBPersistenceRW();
+			writer = new SVDBPersistenceRW(fCompactFormat);
 		}
 		return writer;
 	}
@@ -803,7 +563,7 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void writeBackEntry(SVDBFileIndexCacheEntry entry) {
+	private void writeBackEntry(SVDBFileIndexCacheEntry entry) {
 		if (entry.getSVDBFileRef() != null) {
 			writeBackSVDBFile(entry);
 		}
@@ -821,7 +581,7 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void readBackEntry(SVDBFileIndexCacheEntry entry, int mask) {
+	private void readBackEntry(SVDBFileIndexCacheEntry entry, int mask) {
 		// TODO:
 		mask = SVDBFileIndexCacheEntry.ALL_MASK;
 		
@@ -860,49 +620,49 @@ public class SVDBSegmentedIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 
-	private synchronized void writeBackSVDBFile(SVDBFileIndexCacheEntry entry) {
+	private void writeBackSVDBFile(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.writeBackSVDBFile(entry);
 	}
 
-	private synchronized void readBackSVDBFile(SVDBFileIndexCacheEntry entry) {
+	private void readBackSVDBFile(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.readBackSVDBFile(entry);
 	}
 
-	private synchronized void writeBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
+	private void writeBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.writeBackSVDBPreProcFile(entry);
 	}
 	
-	private synchronized void readBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
+	private void readBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.readBackSVDBPreProcFile(entry);
 	}
 	
-	private synchronized void writeBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
+	private void writeBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.writeBackSVDBFileTree(entry);
 	}
 	
-	private synchronized void readBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
+	private void readBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.readBackSVDBFileTree(entry);
 	}
 	
-	private synchronized void writeBackMarkers(SVDBFileIndexCacheEntry entry) {
+	private void writeBackMarkers(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.writeBackMarkers(entry);
 	}	
 
-	private synchronized void readBackMarkers(SVDBFileIndexCacheEntry entry) {
+	private void readBackMarkers(SVDBFileIndexCacheEntry entry) {
 		SVDBSegmentedIndexCache cache = findCache(entry.getCacheId());
 		
 		cache.readBackMarkers(entry);
@@ -0,0 +1,33 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index.cache.file;
+
+/**
+ * Backing store for cache entries managed by SVDBFileIndexCacheLRU
+ *
+ * @author ballance
+ *
+ */
+public interface ISVDBFileIndexCacheStore {
+
+	/**
+	 * Writes the loaded content of an entry to the backing store
+	 */
+	void writeBackEntry(SVDBFileIndexCacheEntry entry);
+
+	/**
+	 * Restores the content of an entry from the backing store
+	 */
+	void readBackEntry(SVDBFileIndexCacheEntry entry, int mask);
+
+}
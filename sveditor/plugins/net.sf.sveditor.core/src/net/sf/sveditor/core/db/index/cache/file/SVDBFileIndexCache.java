@@ -132,7 +132,7 @@ public class SVDBFileIndexCache implements ISVDBIndexCache {
 		return fCache;
 	}
 	
-	synchronized SVDBFileIndexCacheEntry getCacheEntry(String path, int type, boolean add) {
+	SVDBFileIndexCacheEntry getCacheEntry(String path, int type, boolean add) {
 		SVDBFileIndexCacheEntry entry = null;
 		boolean added = false;
 		
@@ -21,6 +21,9 @@ public class SVDBFileIndexCacheEntry {
 	// Mask indicating things that are backed up in the filesystem
 	public static final int					BACKED_MASK 			= 0x1F;
 	public static final int					ALL_MASK 				= 0x1F;
+	
+	// Memory charged for an entry whose stored size is not yet known
+	public static final int					DEFAULT_WEIGHT			= 16*1024;
 
 	private int								fCacheId;
 	private String							fPath;
@@ -31,12 +34,20 @@ public class SVDBFileIndexCacheEntry {
 
 	private boolean							fOnList;
 	private boolean							fCached;
+	
+	// Incremented each time the entry is added to the cached list
+	private int								fCacheEpoch;
+	// Weight charged to the cache when the entry was added
+	private long							fCacheWeight;
+	
+	// Stored size of each backed element, indexed by mask bit
+	private int								fStoredSize[] = new int[4];
 
 	/**
 	 * Mask indicating which entries are currently 'loaded' 
 	 * into this entry. 
 	 */
-	private int								fLoadedMask;
+	private volatile int					fLoadedMask;
 
 	/**
 	 * Mask indicating which loaded entries are currently dirty.
@@ -183,6 +194,55 @@ public class SVDBFileIndexCacheEntry {
 	public boolean isCached() {
 		return fCached;
 	}
+	
+	/**
+	 * Marks the entry not cached, without releasing references
+	 */
+	void setUnCached() {
+		fCached = false;
+	}
+	
+	int getCacheEpoch() {
+		return fCacheEpoch;
+	}
+	
+	void incrCacheEpoch() {
+		fCacheEpoch++;
+	}
+	
+	long getCacheWeight() {
+		return fCacheWeight;
+	}
+	
+	void setCacheWeight(long weight) {
+		fCacheWeight = weight;
+	}
+	
+	/**
+	 * Records the stored size of an element
+	 * 
+	 * @param mask element mask (eg SVDB_FILE_MASK)
+	 * @param size size in bytes
+	 */
+	public void setStoredSize(int mask, int size) {
+		for (int i=0; i<fStoredSize.length; i++) {
+			if ((mask & (1 << i)) != 0) {
+				fStoredSize[i] = size;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the approximate memory cost of the entry, based
+	 * on the stored size of its elements
+	 */
+	public long getWeight() {
+		long weight = 0;
+		for (int sz : fStoredSize) {
+			weight += sz;
+		}
+		return (weight > 0)?weight:DEFAULT_WEIGHT;
+	}
 
 	/**
 	 * clear references and set 'cached' to false
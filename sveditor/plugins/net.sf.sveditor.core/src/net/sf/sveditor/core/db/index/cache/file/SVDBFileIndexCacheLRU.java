@@ -0,0 +1,503 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index.cache.file;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks which cache entries hold their content in memory, and
+ * evicts the least-recently-used entries once the memory budget
+ * is exceeded.
+ *
+ * Entries are partitioned into shards by cache id and path. Each
+ * shard has its own lock, LRU list, and an equal share of the
+ * budget, so eviction order is LRU within a shard and approximately
+ * LRU overall. Each shard also indexes its entries by cache id and
+ * path. Entry content is read from and written to the
+ * backing store outside the shard lock. Reads of a single entry are
+ * serialized on the entry, such that concurrent requests for an
+ * evicted entry load it once.
+ *
+ * The budget is expressed in bytes of serialized entry data. Entries
+ * that have not yet been stored are charged DEFAULT_WEIGHT.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBFileIndexCacheLRU {
+	public static final int					DEFAULT_NUM_SHARDS = 16;
+
+	private static class Shard {
+		SVDBFileIndexCacheEntry				fCacheHead;
+		SVDBFileIndexCacheEntry				fCacheTail;
+		int									fCacheSize;
+		long								fCacheBytes;
+
+		SVDBFileIndexCacheEntry				fUnCachedHead;
+		SVDBFileIndexCacheEntry				fUnCachedTail;
+
+		// cache id -> path -> entry, for all entries on either list
+		Map<Integer, Map<String, SVDBFileIndexCacheEntry>>	fEntryMap =
+				new HashMap<Integer, Map<String, SVDBFileIndexCacheEntry>>();
+
+		void addEntry(SVDBFileIndexCacheEntry entry) {
+			Map<String, SVDBFileIndexCacheEntry> m = fEntryMap.get(entry.getCacheId());
+			if (m == null) {
+				m = new HashMap<String, SVDBFileIndexCacheEntry>();
+				fEntryMap.put(entry.getCacheId(), m);
+			}
+			m.put(entry.getPath(), entry);
+			entry.setOnList();
+		}
+
+		void removeEntry(SVDBFileIndexCacheEntry entry) {
+			Map<String, SVDBFileIndexCacheEntry> m = fEntryMap.get(entry.getCacheId());
+			if (m != null && m.get(entry.getPath()) == entry) {
+				m.remove(entry.getPath());
+				if (m.size() == 0) {
+					fEntryMap.remove(entry.getCacheId());
+				}
+			}
+			entry.clrOnList();
+		}
+	}
+
+	private ISVDBFileIndexCacheStore		fStore;
+	private Shard							fShards[];
+	private long							fMaxCacheBytes;
+
+	private AtomicLong						fHits;
+	private AtomicLong						fMisses;
+	private AtomicLong						fEvictions;
+
+	public SVDBFileIndexCacheLRU(ISVDBFileIndexCacheStore store) {
+		this(store, DEFAULT_NUM_SHARDS);
+	}
+
+	public SVDBFileIndexCacheLRU(ISVDBFileIndexCacheStore store, int n_shards) {
+		fStore = store;
+		if (n_shards < 1) {
+			n_shards = 1;
+		}
+		fShards = new Shard[n_shards];
+		for (int i=0; i<n_shards; i++) {
+			fShards[i] = new Shard();
+		}
+
+		// Serialized data is a fraction of the in-memory size
+		fMaxCacheBytes = Runtime.getRuntime().maxMemory()/16;
+
+		fHits = new AtomicLong();
+		fMisses = new AtomicLong();
+		fEvictions = new AtomicLong();
+	}
+
+	public void setMaxCacheBytes(long max) {
+		fMaxCacheBytes = max;
+	}
+
+	public long getMaxCacheBytes() {
+		return fMaxCacheBytes;
+	}
+
+	/**
+	 * Returns the number of bytes charged to in-memory entries
+	 */
+	public long getCacheBytes() {
+		long ret = 0;
+		for (Shard s : fShards) {
+			synchronized (s) {
+				ret += s.fCacheBytes;
+			}
+		}
+		return ret;
+	}
+
+	public int getCacheSize() {
+		int ret = 0;
+		for (Shard s : fShards) {
+			synchronized (s) {
+				ret += s.fCacheSize;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Number of accesses to entries whose content was in memory
+	 */
+	public long getNumHits() {
+		return fHits.get();
+	}
+
+	/**
+	 * Number of accesses to entries that had been evicted
+	 */
+	public long getNumMisses() {
+		return fMisses.get();
+	}
+
+	public long getNumEvictions() {
+		return fEvictions.get();
+	}
+
+	public void clear() {
+		for (Shard s : fShards) {
+			synchronized (s) {
+				s.fCacheHead = null;
+				s.fCacheTail = null;
+				s.fCacheSize = 0;
+				s.fCacheBytes = 0;
+				s.fUnCachedHead = null;
+				s.fUnCachedTail = null;
+				s.fEntryMap.clear();
+			}
+		}
+		fHits.set(0);
+		fMisses.set(0);
+		fEvictions.set(0);
+	}
+
+	private Shard getShard(SVDBFileIndexCacheEntry entry) {
+		int h = 31*entry.getCacheId() + entry.getPath().hashCode();
+		h ^= (h >>> 16);
+		return fShards[(h & 0x7FFFFFFF) % fShards.length];
+	}
+
+	private long getShardBudget() {
+		return fMaxCacheBytes / fShards.length;
+	}
+
+	/**
+	 * Adds a new entry whose content is in memory. Does nothing if
+	 * the entry is already on a list, since another thread may have 
+	 * accessed the entry after it was published
+	 */
+	public void addToCachedList(SVDBFileIndexCacheEntry entry) {
+		List<SVDBFileIndexCacheEntry> evicted = null;
+		Shard s = getShard(entry);
+
+		synchronized (s) {
+			if (entry.onList()) {
+				return;
+			}
+			s.addEntry(entry);
+			linkCached(s, entry);
+			entry.setCached();
+			evicted = evict(s);
+		}
+
+		writeBack(s, evicted);
+	}
+
+	/**
+	 * Adds an entry whose content is in the backing store
+	 */
+	public void addToUnCachedList(SVDBFileIndexCacheEntry entry) {
+		Shard s = getShard(entry);
+
+		synchronized (s) {
+			if (entry.onList()) {
+				return;
+			}
+			s.addEntry(entry);
+			linkUnCached(s, entry);
+		}
+	}
+
+	/**
+	 * Marks the entry most-recently used, and ensures that the
+	 * content selected by 'mask' is in memory
+	 */
+	public void ensureUpToDate(SVDBFileIndexCacheEntry entry, int mask) {
+		List<SVDBFileIndexCacheEntry> evicted = null;
+		Shard s = getShard(entry);
+		int loaded_mask;
+
+		synchronized (s) {
+			if (entry.isCached()) {
+				moveToCachedTail(s, entry);
+				loaded_mask = entry.loadedMask();
+				fHits.incrementAndGet();
+			} else {
+				if (entry.onList()) {
+					unlinkUnCached(s, entry);
+				} else {
+					s.addEntry(entry);
+				}
+				linkCached(s, entry);
+				loaded_mask = entry.setCached();
+				evicted = evict(s);
+				fMisses.incrementAndGet();
+			}
+		}
+
+		writeBack(s, evicted);
+
+		if ((mask & ~loaded_mask & SVDBFileIndexCacheEntry.BACKED_MASK) != 0) {
+			// Only one thread restores a given entry. Others wait, then
+			// re-check what is missing, since it may have been restored
+			synchronized (entry) {
+				int missing = (mask & ~entry.loadedMask() & 
+						SVDBFileIndexCacheEntry.BACKED_MASK);
+				if (missing != 0) {
+					fStore.readBackEntry(entry, missing);
+					entry.setLoadedMask(entry.loadedMask() | missing);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the entry from the cache
+	 *
+	 * @return true if the entry was present
+	 */
+	public boolean remove(SVDBFileIndexCacheEntry entry) {
+		Shard s = getShard(entry);
+
+		synchronized (s) {
+			if (!entry.onList()) {
+				return false;
+			}
+			if (entry.isCached()) {
+				unlinkCached(s, entry);
+				entry.clearCached();
+			} else {
+				unlinkUnCached(s, entry);
+			}
+			s.removeEntry(entry);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Writes back the content of all in-memory entries
+	 */
+	public void writeBackAll() {
+		for (SVDBFileIndexCacheEntry entry : getCachedList()) {
+			synchronized (entry) {
+				fStore.writeBackEntry(entry);
+			}
+		}
+	}
+
+	public SVDBFileIndexCacheEntry find(int cache_id, String path) {
+		SVDBFileIndexCacheEntry tmp = new SVDBFileIndexCacheEntry(cache_id, path, 0);
+		Shard s = getShard(tmp);
+
+		synchronized (s) {
+			Map<String, SVDBFileIndexCacheEntry> m = s.fEntryMap.get(cache_id);
+			return (m != null)?m.get(path):null;
+		}
+	}
+
+	/**
+	 * Collects the entries belonging to a cache
+	 */
+	public void getEntries(int cache_id, Map<String, SVDBFileIndexCacheEntry> cache) {
+		for (Shard s : fShards) {
+			synchronized (s) {
+				Map<String, SVDBFileIndexCacheEntry> m = s.fEntryMap.get(cache_id);
+				if (m != null) {
+					cache.putAll(m);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns in-memory entries in LRU order within each shard
+	 */
+	public List<SVDBFileIndexCacheEntry> getCachedList() {
+		List<SVDBFileIndexCacheEntry> ret = new ArrayList<SVDBFileIndexCacheEntry>();
+
+		for (Shard s : fShards) {
+			synchronized (s) {
+				SVDBFileIndexCacheEntry entry = s.fCacheHead;
+				while (entry != null) {
+					ret.add(entry);
+					entry = entry.getNext();
+				}
+			}
+		}
+
+		return ret;
+	}
+
+	public List<SVDBFileIndexCacheEntry> getUnCachedList() {
+		List<SVDBFileIndexCacheEntry> ret = new ArrayList<SVDBFileIndexCacheEntry>();
+
+		for (Shard s : fShards) {
+			synchronized (s) {
+				SVDBFileIndexCacheEntry entry = s.fUnCachedHead;
+				while (entry != null) {
+					ret.add(entry);
+					entry = entry.getNext();
+				}
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Moves least-recently-used entries to the uncached list until
+	 * the shard is within budget. The most-recently-used entry is
+	 * always kept. Must be called with the shard lock held.
+	 *
+	 * Evicted entries keep their content until it is written back
+	 */
+	private List<SVDBFileIndexCacheEntry> evict(Shard s) {
+		List<SVDBFileIndexCacheEntry> ret = null;
+		long budget = getShardBudget();
+
+		while (s.fCacheBytes > budget && s.fCacheHead != s.fCacheTail) {
+			SVDBFileIndexCacheEntry entry = s.fCacheHead;
+			unlinkCached(s, entry);
+			linkUnCached(s, entry);
+
+			if (ret == null) {
+				ret = new ArrayList<SVDBFileIndexCacheEntry>();
+			}
+			ret.add(entry);
+			fEvictions.incrementAndGet();
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Writes back evicted entries, then releases their content
+	 * unless the entry was brought back into the cache meanwhile
+	 */
+	private void writeBack(Shard s, List<SVDBFileIndexCacheEntry> evicted) {
+		if (evicted == null) {
+			return;
+		}
+
+		for (SVDBFileIndexCacheEntry entry : evicted) {
+			synchronized (entry) {
+				int epoch;
+				synchronized (s) {
+					if (entry.isCached() || !entry.onList()) {
+						continue;
+					}
+					epoch = entry.getCacheEpoch();
+				}
+
+				fStore.writeBackEntry(entry);
+
+				synchronized (s) {
+					if (!entry.isCached() && entry.getCacheEpoch() == epoch) {
+						entry.clearCached();
+					}
+				}
+			}
+		}
+	}
+
+	private void linkCached(Shard s, SVDBFileIndexCacheEntry entry) {
+		if (s.fCacheHead == null) {
+			s.fCacheHead = entry;
+			s.fCacheTail = entry;
+			entry.setPrev(null);
+			entry.setNext(null);
+		} else {
+			s.fCacheTail.setNext(entry);
+			entry.setPrev(s.fCacheTail);
+			s.fCacheTail = entry;
+			entry.setNext(null);
+		}
+
+		entry.incrCacheEpoch();
+		entry.setCacheWeight(entry.getWeight());
+		s.fCacheSize++;
+		s.fCacheBytes += entry.getCacheWeight();
+	}
+
+	private void unlinkCached(Shard s, SVDBFileIndexCacheEntry entry) {
+		if (entry.getPrev() == null) {
+			s.fCacheHead = entry.getNext();
+		} else {
+			entry.getPrev().setNext(entry.getNext());
+		}
+
+		if (entry.getNext() == null) {
+			s.fCacheTail = entry.getPrev();
+		} else {
+			entry.getNext().setPrev(entry.getPrev());
+		}
+		entry.setPrev(null);
+		entry.setNext(null);
+
+		// Entry content is released separately
+		entry.setUnCached();
+		s.fCacheSize--;
+		s.fCacheBytes -= entry.getCacheWeight();
+	}
+
+	private void moveToCachedTail(Shard s, SVDBFileIndexCacheEntry entry) {
+		if (s.fCacheTail == entry) {
+			return;
+		}
+
+		if (entry.getPrev() == null) {
+			s.fCacheHead = entry.getNext();
+		} else {
+			entry.getPrev().setNext(entry.getNext());
+		}
+		entry.getNext().setPrev(entry.getPrev());
+
+		s.fCacheTail.setNext(entry);
+		entry.setPrev(s.fCacheTail);
+		entry.setNext(null);
+		s.fCacheTail = entry;
+	}
+
+	private void linkUnCached(Shard s, SVDBFileIndexCacheEntry entry) {
+		if (s.fUnCachedHead == null) {
+			s.fUnCachedHead = entry;
+			s.fUnCachedTail = entry;
+			entry.setPrev(null);
+			entry.setNext(null);
+		} else {
+			s.fUnCachedTail.setNext(entry);
+			entry.setPrev(s.fUnCachedTail);
+			s.fUnCachedTail = entry;
+			entry.setNext(null);
+		}
+	}
+
+	private void unlinkUnCached(Shard s, SVDBFileIndexCacheEntry entry) {
+		if (entry.getPrev() == null) {
+			s.fUnCachedHead = entry.getNext();
+		} else {
+			entry.getPrev().setNext(entry.getNext());
+		}
+
+		if (entry.getNext() == null) {
+			s.fUnCachedTail = entry.getPrev();
+		} else {
+			entry.getNext().setPrev(entry.getPrev());
+		}
+		entry.setPrev(null);
+		entry.setNext(null);
+	}
+
+}
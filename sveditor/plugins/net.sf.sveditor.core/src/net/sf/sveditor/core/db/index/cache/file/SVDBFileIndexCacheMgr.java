@@ -2,6 +2,7 @@ package net.sf.sveditor.core.db.index.cache.file;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,21 +21,14 @@ import net.sf.sveditor.core.log.LogHandle;
 
 public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	
-	private SVDBFileIndexCacheEntry					fCacheHead;
-	private SVDBFileIndexCacheEntry					fCacheTail;
-	private int										fCacheSize;
-	
-	private SVDBFileIndexCacheEntry					fUnCachedHead;
-	private SVDBFileIndexCacheEntry					fUnCachedTail;
-	
-	private int										fMaxCacheSize = 100;
-//	private int										fMaxCacheSize = 10;
-//	private int										fMaxCacheSize = 1;
+	// Tracks in-memory entries
+	private SVDBFileIndexCacheLRU					fLRU;
 	
 	private boolean									fUseSoftRef = true;
 	
 	private List<IDBReader>							fPersistenceRdrSet;
 	private List<IDBWriter>							fPersistenceWriterSet;
+	private boolean									fCompactFormat = true;
 
 	private List<SVDBFileIndexCache>				fIndexList;
 	private int										fIndexId;
@@ -54,11 +48,56 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		fPersistenceWriterSet = new ArrayList<IDBWriter>();
 		fLog = LogFactory.getLogHandle("SVDBFileIndexCacheMgr");
 		fIndexList = new ArrayList<SVDBFileIndexCache>();
+		fLRU = new SVDBFileIndexCacheLRU(new ISVDBFileIndexCacheStore() {
+			
+			public void writeBackEntry(SVDBFileIndexCacheEntry entry) {
+				SVDBFileIndexCacheMgr.this.writeBackEntry(entry);
+			}
+			
+			public void readBackEntry(SVDBFileIndexCacheEntry entry, int mask) {
+				SVDBFileIndexCacheMgr.this.readBackEntry(entry, mask);
+			}
+		});
+	}
+	
+	/**
+	 * Sets the memory budget for in-memory entries, in bytes
+	 * of serialized entry data
+	 */
+	public void setMaxCacheBytes(long max) {
+		fLRU.setMaxCacheBytes(max);
+	}
+	
+	public long getMaxCacheBytes() {
+		return fLRU.getMaxCacheBytes();
+	}
+	
+	public long getNumHits() {
+		return fLRU.getNumHits();
+	}
+	
+	public long getNumMisses() {
+		return fLRU.getNumMisses();
+	}
+	
+	public long getNumEvictions() {
+		return fLRU.getNumEvictions();
 	}
 	
 	public SVDBFileSystem getFileSystem() {
 		return fFileSystem;
 	}
+	
+	/**
+	 * Selects the persistence format used for newly-written cache data.
+	 * Cache data in either format can be read back
+	 */
+	public void setCompactFormat(boolean compact) {
+		synchronized (fPersistenceWriterSet) {
+			fCompactFormat = compact;
+			fPersistenceWriterSet.clear();
+		}
+	}
 
 	/**
 	 * Initialize the cache manager. This is a blocking operation
@@ -69,12 +108,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	public synchronized boolean init(SVDBFileSystem fs) {
 		fFileSystem = fs;
 		
-		fCacheHead = null;
-		fCacheTail = null;
-		fCacheSize = 0;
-		
-		fUnCachedHead = null;
-		fUnCachedTail = null;
+		fLRU.clear();
 		
 		fIndexList.clear();
 		fIndexDataId = -1;
@@ -106,32 +140,21 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 		
 		// Now, write back the number of cache entries
-		int n_entries = count_entries(fCacheHead) + count_entries(fUnCachedHead);
-		int n_cached=0, n_uncached=0;
+		// Ensure entry contents are written back
+		fLRU.writeBackAll();
 		
-		dat.writeInt(n_entries);
-		SVDBFileIndexCacheEntry entry;
+		List<SVDBFileIndexCacheEntry> cached = fLRU.getCachedList();
+		List<SVDBFileIndexCacheEntry> uncached = fLRU.getUnCachedList();
 		
-		entry = fCacheHead;
-		while (entry != null) {
-			// Ensure entry contents are written back
-//			System.out.println("writeBackEntry: " + entry.getPath());
-			writeBackEntry(entry);
-			
+		dat.writeInt(cached.size() + uncached.size());
+		
+		for (SVDBFileIndexCacheEntry entry : cached) {
 			entry.write(dat);
-			entry = entry.getNext();
-			n_cached++;
 		}
 		
-		entry = fUnCachedHead;
-		while (entry != null) {
+		for (SVDBFileIndexCacheEntry entry : uncached) {
 			entry.write(dat);
-			entry = entry.getNext();
-			n_uncached++;
 		}
-		
-//		System.out.println("<-- write_state n_cached=" + n_cached + " n_uncached=" + n_uncached + " " + 
-//				(n_cached+n_uncached));
 	}
 	
 	private void read_state(SVDBFileSystemDataInput din) throws IOException {
@@ -150,21 +173,10 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		
 		for (int i=0; i<n_entries; i++) {
 			SVDBFileIndexCacheEntry entry = SVDBFileIndexCacheEntry.read(din);
-			addToUnCachedList(entry);
+			fLRU.addToUnCachedList(entry);
 		}
 	}
 	
-	private int count_entries(SVDBFileIndexCacheEntry entry) {
-		int count = 0;
-		
-		while (entry != null) {
-			count++;
-			entry = entry.getNext();
-		}
-		
-		return count;
-	}
-
 	public synchronized void sync() {
 		
 		// TODO: save cache and entry data to the filesystem
@@ -269,29 +281,13 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param cache
 	 */
 	synchronized void clearIndexCache(SVDBFileIndexCache cache) {
-		SVDBFileIndexCacheEntry entry;
+		Map<String, SVDBFileIndexCacheEntry> entries = 
+				new HashMap<String, SVDBFileIndexCacheEntry>();
+		fLRU.getEntries(cache.getCacheId(), entries);
 
 		try {
-			entry = fCacheHead;
-			while (entry != null) {
-				if (entry.getCacheId() == cache.getCacheId()) {
-					SVDBFileIndexCacheEntry next = entry.getNext();
-					deleteEntry(entry);
-					entry = next;
-				} else {
-					entry = entry.getNext();
-				}
-			}
-
-			entry = fUnCachedHead;
-			while (entry != null) {
-				if (entry.getCacheId() == cache.getCacheId()) {
-					SVDBFileIndexCacheEntry next = entry.getNext();
-					deleteEntry(entry);
-					entry = next;
-				} else {
-					entry = entry.getNext();
-				}
+			for (SVDBFileIndexCacheEntry entry : entries.values()) {
+				deleteEntry(entry);
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -300,8 +296,8 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		fFileSystem.compactStorage();
 	}
 
-	private synchronized void deleteEntry(SVDBFileIndexCacheEntry entry) throws IOException {
-		if (!entry.onList()) {
+	private void deleteEntry(SVDBFileIndexCacheEntry entry) throws IOException {
+		if (!fLRU.remove(entry)) {
 			try {
 				throw new Exception("Attempting to remove " + entry.getPath() + " that isn't on list");
 			} catch (Exception e) {
@@ -309,12 +305,6 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			}
 			return;
 		}
-		if (entry.isCached()) {
-			removeFromCachedList(entry);
-		} else {
-			removeFromUnCachedList(entry);
-		}
-		entry.clrOnList();
 		
 		deleteStorage(entry);
 	}
@@ -353,26 +343,8 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * 
 	 * @param entry
 	 */
-	synchronized void ensureUpToDate(SVDBFileIndexCacheEntry entry, int mask) {
-		int loaded_mask;
-		
-		if (entry.isCached()) {
-			moveElementToCachedTail(entry);
-			loaded_mask = entry.loadedMask();
-		} else {
-			removeFromUnCachedList(entry);
-			// addToCachedList() ensures index size is observed
-			addToCachedList(entry);
-			
-			loaded_mask = entry.setCached();
-			// Need to bring back into the cache
-		}
-		
-		mask ^= loaded_mask;
-		
-		if ((mask & SVDBFileIndexCacheEntry.BACKED_MASK) != 0) {
-			readBackEntry(entry, mask);
-		}
+	void ensureUpToDate(SVDBFileIndexCacheEntry entry, int mask) {
+		fLRU.ensureUpToDate(entry, mask);
 	}
 	
 	/**
@@ -380,12 +352,8 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * 
 	 * @param entry
 	 */
-	synchronized void removeEntry(SVDBFileIndexCacheEntry entry) {
-		if (entry.isCached()) {
-			removeFromCachedList(entry);
-		} else {
-			removeFromUnCachedList(entry);
-		}
+	void removeEntry(SVDBFileIndexCacheEntry entry) {
+		fLRU.remove(entry);
 
 		try {
 			deleteStorage(entry);
@@ -400,7 +368,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param entry
 	 * @throws IOException
 	 */
-	private synchronized void deleteStorage(SVDBFileIndexCacheEntry entry) throws IOException {
+	private void deleteStorage(SVDBFileIndexCacheEntry entry) throws IOException {
 		if (entry.getMarkersId() != -1) {
 			fFileSystem.deleteFile(
 					entry.getPath(), entry.getMarkersId());
@@ -423,28 +391,6 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}	
 	}
 
-	/**
-	 * Add a new entry to the uncached list
-	 * 
-	 * @param entry
-	 */
-	private synchronized void addToUnCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.setOnList();
-		if (fUnCachedHead == null) {
-			// First entry
-			fUnCachedHead = entry;
-			fUnCachedTail = entry;
-			entry.setPrev(null);
-			entry.setNext(null);
-		} else {
-			// Add the new file info to the linked list
-			fUnCachedTail.setNext(entry);
-			entry.setPrev(fUnCachedTail);
-			fUnCachedTail = entry;
-			entry.setNext(null);
-		}
-	}
-
 	/**
 	 * This method is used by a cache to find an entry that was previously
 	 * saved and restored but not yet associated with the cache
@@ -453,27 +399,8 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param path
 	 * @return
 	 */
-	synchronized SVDBFileIndexCacheEntry findCacheEntry(int cache_id, String path) {
-		SVDBFileIndexCacheEntry entry = fCacheHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id && entry.getPath().equals(path)) {
-				return entry;
-			}
-			entry = entry.getNext();
-		}
-		
-		entry = fUnCachedHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id && entry.getPath().equals(path)) {
-				return entry;
-			}
-			entry = entry.getNext();
-		}
-	
-		// Failed to find
-		return null;
+	SVDBFileIndexCacheEntry findCacheEntry(int cache_id, String path) {
+		return fLRU.find(cache_id, path);
 	}
 	
 	/**
@@ -482,173 +409,13 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	 * @param cache_id
 	 * @param cache
 	 */
-	synchronized void loadCache(int cache_id, Map<String, SVDBFileIndexCacheEntry> cache) {
+	void loadCache(int cache_id, Map<String, SVDBFileIndexCacheEntry> cache) {
 		cache.clear();
-		
-		SVDBFileIndexCacheEntry entry = fCacheHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id) {
-				cache.put(entry.getPath(), entry);
-			}
-			entry = entry.getNext();
-		}
-		
-		entry = fUnCachedHead;
-		
-		while (entry != null) {
-			if (entry.getCacheId() == cache_id) {
-				cache.put(entry.getPath(), entry);
-			}
-			entry = entry.getNext();
-		}		
-	}
-
-	public synchronized void addToCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.setOnList();
-		entry.setCached();
-		
-		if (fCacheHead == null) {
-			// First entry
-			fCacheHead = entry;
-			fCacheTail = entry;
-			entry.setPrev(null);
-			entry.setNext(null);
-		} else {
-			// Add the new file info to the linked list
-			fCacheTail.setNext(entry);
-			entry.setPrev(fCacheTail);
-			fCacheTail = entry;
-			entry.setNext(null);
-		}
-		
-		fCacheSize++;
-		
-		while (fCacheSize > fMaxCacheSize) {
-			if (!fCacheHead.isCached()) {
-				System.out.println("[ERROR] Head is not cached");
-				removeFromCachedList(entry);
-			} else {
-				uncacheEntry(fCacheHead);
-			}
-		}
-	}
-
-	/**
-	 * Remove the specified entry from the Uncached list. It is an error
-	 * to call this method with entry.isCached() false
-	 * 
-	 * @param entry
-	 */
-	synchronized void removeFromUnCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.clrOnList();
-
-		if (entry.getPrev() == null) {
-			fUnCachedHead = entry.getNext();
-		} else {
-			entry.getPrev().setNext(entry.getNext());
-		}
-
-		if (entry.getNext() == null) {
-			fUnCachedTail = entry.getPrev();
-		} else {
-			entry.getNext().setPrev(entry.getPrev());
-		}
-		entry.setPrev(null);
-		entry.setNext(null);
-	}
-
-	synchronized void removeFromCachedList(SVDBFileIndexCacheEntry entry) {
-		entry.clrOnList();
-		
-		// Ensure the entry is not marked cached
-		entry.clearCached();
-		
-		if (entry.getPrev() == null) {
-			fCacheHead = entry.getNext();
-		} else {
-			entry.getPrev().setNext(entry.getNext());
-		}
-
-		if (entry.getNext() == null) {
-			fCacheTail = entry.getPrev();
-		} else {
-			entry.getNext().setPrev(entry.getPrev());
-		}
-		entry.setPrev(null);
-		entry.setNext(null);
-		fCacheSize--;
+		fLRU.getEntries(cache_id, cache);
 	}
 
-	/**
-	 * Clear references in the specified entry, such that 
-	 * the system can reclaim memory. 
-	 * Write data back to the filesystem.
-	 * 
-	 * @param info
-	 */
-	synchronized void uncacheEntry(SVDBFileIndexCacheEntry info) {
-		// First, 
-		if (info.isCached()) {
-			// Remove the entry from the cached list, and move
-			// to the uncached list
-			removeFromCachedList(info);
-			
-			addToUnCachedList(info);
-		
-			// Write-back the data
-			writeBackEntry(info);
-			
-			// Release references
-			info.clearCached();
-		}
-	}
-	
-	synchronized void moveElementToCachedTail(SVDBFileIndexCacheEntry info) {
-		if (!info.isCached()) {
-			try {
-				throw new Exception();
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-			return;
-		}
-		
-		if (fCacheHead == null && fCacheTail == null) {
-			try {
-				throw new Exception("moveElement with none on list: " + info.getPath() + " cached=" + info.isCached());
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		
-		if (fCacheTail != info) {
-			if (info.getPrev() == null) {
-				fCacheHead = info.getNext();
-			} else {
-				info.getPrev().setNext(info.getNext());
-			}
-
-			if (info.getNext() == null) {
-				fCacheTail = info.getPrev();
-			} else {
-				info.getNext().setPrev(info.getPrev());
-			}
-
-			if (fCacheHead == null) {
-				// First entry
-				fCacheHead = info;
-				fCacheTail = info;
-				info.setPrev(null);
-				info.setNext(null);
-			} else {
-				// Add the file info to the linked list
-				fCacheTail.setNext(info);
-				info.setPrev(fCacheTail);
-				fCacheTail = info;
-				info.setNext(null);
-			}
-		}
+	public void addToCachedList(SVDBFileIndexCacheEntry entry) {
+		fLRU.addToCachedList(entry);
 	}
 	
 	IDBReader allocReader() {
@@ -679,7 +446,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			}
 		}
 		if (writer == null) {
-			writer = new SVDBPersistenceRW();
+			writer = new SVDBPersistenceRW(fCompactFormat);
 		}
 		return writer;
 	}
@@ -690,7 +457,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void writeBackEntry(SVDBFileIndexCacheEntry entry) {
+	private void writeBackEntry(SVDBFileIndexCacheEntry entry) {
 		if (entry.getSVDBFileRef() != null) {
 			writeBackSVDBFile(entry);
 		}
@@ -708,7 +475,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void readBackEntry(SVDBFileIndexCacheEntry entry, int mask) {
+	private void readBackEntry(SVDBFileIndexCacheEntry entry, int mask) {
 		// TODO:
 		mask = SVDBFileIndexCacheEntry.ALL_MASK;
 		
@@ -758,7 +525,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		long end = System.currentTimeMillis();
 	}
 
-	private synchronized void writeBackSVDBFile(SVDBFileIndexCacheEntry entry) {
+	private void writeBackSVDBFile(SVDBFileIndexCacheEntry entry) {
 		try {
 			if (entry.getSVDBFileId() != -1) {
 				// Free the old file
@@ -775,6 +542,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			int file_id = fFileSystem.writeFile(entry.getPath(), data_out);
 			
 			entry.setSVDBFileId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILE_MASK, data_out.getLength());
 			
 			freeWriter(writer);
 		} catch (IOException e) {
@@ -784,7 +552,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 
-	private synchronized void readBackSVDBFile(SVDBFileIndexCacheEntry entry) {
+	private void readBackSVDBFile(SVDBFileIndexCacheEntry entry) {
 		try {
 			IDBReader reader = allocReader();
 			SVDBFile file = new SVDBFile();
@@ -793,6 +561,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			reader.readObject(null, SVDBFile.class, file);
 			
 			entry.setSVDBFileRef(file);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILE_MASK, data_in.getLength());
 			
 			freeReader(reader);
 		} catch (IOException e) {
@@ -803,7 +572,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 
-	private synchronized void writeBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
+	private void writeBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
 		try {
 			if (entry.getSVDBPreProcFileId() != -1) {
 				// Free the old file
@@ -818,6 +587,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			int file_id = fFileSystem.writeFile(entry.getPath() + ":preProcFile", data_out);
 			
 			entry.setSVDBPreProcFileId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_PREPROC_FILE_MASK, data_out.getLength());
 			
 			freeWriter(writer);
 		} catch (IOException e) {
@@ -827,7 +597,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void readBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
+	private void readBackSVDBPreProcFile(SVDBFileIndexCacheEntry entry) {
 		try {
 			IDBReader reader = allocReader();
 			SVDBFile file = new SVDBFile();
@@ -837,6 +607,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			reader.readObject(null, SVDBFile.class, file);
 			
 			entry.setSVDBPreProcFileRef(file);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_PREPROC_FILE_MASK, data_in.getLength());
 			
 			freeReader(reader);
 		} catch (IOException e) {
@@ -846,7 +617,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void writeBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
+	private void writeBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
 		try {
 			if (entry.getSVDBFileTreeId() != -1) {
 				// Free the old file
@@ -901,6 +672,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			int file_id = fFileSystem.writeFile(entry.getPath() + ":fileTree", data_out);
 			
 			entry.setSVDBFileTreeId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILETREE_MASK, data_out.getLength());
 			
 			freeWriter(writer);
 		} catch (IOException e) {
@@ -910,7 +682,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void readBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
+	private void readBackSVDBFileTree(SVDBFileIndexCacheEntry entry) {
 		try {
 			IDBReader reader = allocReader();
 			SVDBFileTree ft = new SVDBFileTree();
@@ -921,6 +693,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			reader.readObject(null, SVDBFileTree.class, ft);
 			
 			entry.setSVDBFileTreeRef(ft);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.SVDB_FILETREE_MASK, data_in.getLength());
 			
 			freeReader(reader);
 		} catch (IOException e) {
@@ -930,7 +703,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 		}
 	}
 	
-	private synchronized void writeBackMarkers(SVDBFileIndexCacheEntry entry) {
+	private void writeBackMarkers(SVDBFileIndexCacheEntry entry) {
 		try {
 			if (entry.getMarkersId() != -1) {
 				// Free the old file
@@ -945,6 +718,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			int file_id = fFileSystem.writeFile(entry.getPath() + ":markers", data_out);
 			
 			entry.setMarkersId(file_id);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.MARKERS_MASK, data_out.getLength());
 			
 			freeWriter(writer);
 		} catch (IOException e) {
@@ -955,7 +729,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 	}	
 
 	@SuppressWarnings("unchecked")
-	private synchronized void readBackMarkers(SVDBFileIndexCacheEntry entry) {
+	private void readBackMarkers(SVDBFileIndexCacheEntry entry) {
 		try {
 			IDBReader reader = allocReader();
 			SVDBFileSystemDataInput data_in = fFileSystem.readFile(
@@ -964,6 +738,7 @@ public class SVDBFileIndexCacheMgr implements ISVDBIndexCacheMgrInt {
 			List<SVDBMarker> markers = (List<SVDBMarker>)reader.readItemList(null);
 			
 			entry.setMarkersRef(markers);
+			entry.setStoredSize(SVDBFileIndexCacheEntry.MARKERS_MASK, data_in.getLength());
 			
 			freeReader(reader);
 		} catch (IOException e) {
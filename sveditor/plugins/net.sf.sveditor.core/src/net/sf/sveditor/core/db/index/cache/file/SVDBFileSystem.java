@@ -2,9 +2,10 @@ package net.sf.sveditor.core.db.index.cache.file;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import net.sf.sveditor.core.SVFileUtils;
 import net.sf.sveditor.core.log.ILogHandle;
@@ -12,8 +13,33 @@ import net.sf.sveditor.core.log.ILogLevelListener;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
 
+/**
+ * Block-structured storage for the index cache. 
+ * 
+ * Locking:
+ * <ul>
+ * <li>fLock guards the filesystem structure. File read/write/delete 
+ * operations hold the read lock, and can proceed concurrently. 
+ * init, sync, close, and compaction hold the write lock</li>
+ * <li>fAllocLock guards the block-allocation table and the list of
+ * tracked files</li>
+ * <li>Striped per-file locks serialize operations on the same file, 
+ * while allowing concurrent readers</li>
+ * </ul>
+ * Block I/O is performed by SVDBFileSystemBlockStore, which maps the 
+ * storage files into memory when enabled.
+ * 
+ * A read-only filesystem never modifies its storage. It is used to
+ * share prebuilt index snapshots, and may be opened by several 
+ * processes at once.
+ */
 public class SVDBFileSystem implements ILogLevelListener {
 	private static final int			VALID_MAGIC_NUMBER = 0xA5A5EAEA;
+	// Version of the serialized database content. Must be incremented
+	// whenever the persisted form of the database items changes, such
+	// that storage written by an incompatible build is discarded
+	// 2: SVDBLocation is no longer persisted as an object
+	public static final int				FORMAT_VERSION = 2;
 	
 	
 	private static final int			BLK_SIZE = 4096;
@@ -21,6 +47,9 @@ public class SVDBFileSystem implements ILogLevelListener {
 	private static final int			FILE_BLK_SIZE = (int)((1024L*1024L*1024L*4L)/BLK_SIZE);
 //	private static final int			FILE_BLK_SIZE = (int)((1024L*1024L*4L)/BLK_SIZE);
 	private static final int			ALLOC_PAGE_INCR = 1024;
+	private static final int			N_FILE_LOCK_STRIPES = 64;
+	private static boolean				fUseMappedIO = 
+			(!SVFileUtils.isWin() && System.getProperty("os.arch", "").contains("64"));
 	private String						fVersion;
 	private LogHandle					fLog;
 	private boolean						fDebugEn = false;
@@ -31,9 +60,12 @@ public class SVDBFileSystem implements ILogLevelListener {
 	private int							fFirstEmptyIdx;
 	private int							fAllocListFile;
 	
-	private List<RandomAccessFile>		fFileRWList;
-	private int							fLastRwBlkLen;
+	private SVDBFileSystemBlockStore	fBlockStore;
+	private ReadWriteLock				fLock;
+	private Object						fAllocLock;
+	private ReadWriteLock				fFileLocks[];
 	private boolean						fIsOpen;
+	private boolean						fReadOnly;
 	private Exception					fCloseStack;
 	
 	private class FileInfo {
@@ -46,17 +78,51 @@ public class SVDBFileSystem implements ILogLevelListener {
 	private int							fFileInfoHndl;
 	
 	public SVDBFileSystem(File db_dir, String version) {
+		this(db_dir, version, false);
+	}
+	
+	public SVDBFileSystem(File db_dir, String version, boolean read_only) {
 		fDBDir = db_dir;
-		fVersion = version;
+		fVersion = version + "-" + FORMAT_VERSION;
+		fReadOnly = read_only;
 		
 		fLog = LogFactory.getLogHandle("SVDBFileSystem");
 		fDebugEn = fLog.isEnabled();
 		fLog.addLogLevelListener(this);
 		
-		fFileRWList = new ArrayList<RandomAccessFile>();
+		fBlockStore = new SVDBFileSystemBlockStore(
+				fDBDir, BLK_SIZE, FILE_BLK_SIZE, fUseMappedIO, fReadOnly);
+		fLock = new ReentrantReadWriteLock();
+		fAllocLock = new Object();
+		fFileLocks = new ReadWriteLock[N_FILE_LOCK_STRIPES];
+		for (int i=0; i<fFileLocks.length; i++) {
+			fFileLocks[i] = new ReentrantReadWriteLock();
+		}
 		fFileList = new ArrayList<SVDBFileSystem.FileInfo>();
 	}
 	
+	/**
+	 * Controls whether filesystems created after this call 
+	 * access storage via memory-mapped I/O
+	 * 
+	 * @param en
+	 */
+	public static void setUseMappedIO(boolean en) {
+		fUseMappedIO = en;
+	}
+	
+	public static boolean getUseMappedIO() {
+		return fUseMappedIO;
+	}
+	
+	private ReadWriteLock getFileLock(int id) {
+		return fFileLocks[(id & 0x7FFFFFFF) % fFileLocks.length];
+	}
+	
+	public boolean isReadOnly() {
+		return fReadOnly;
+	}
+	
 	public void logLevelChanged(ILogHandle handle) {
 		fDebugEn = handle.isEnabled();
 	}
@@ -65,8 +131,21 @@ public class SVDBFileSystem implements ILogLevelListener {
 	 * 
 	 * @return
 	 */
-	public synchronized boolean init() throws IOException {
+	public boolean init() throws IOException {
+		fLock.writeLock().lock();
+		try {
+			return init_int();
+		} finally {
+			fLock.writeLock().unlock();
+		}
+	}
+	
+	private boolean init_int() throws IOException {
 		boolean ret = true;
+		
+		if (fReadOnly) {
+			return init_ro();
+		}
 	
 		// See if the DBDir exists
 		if (!fDBDir.isDirectory()) {
@@ -79,8 +158,6 @@ public class SVDBFileSystem implements ILogLevelListener {
 		// Try to load the first file
 		File f = new File(fDBDir, "1.db");
 		
-		fLastRwBlkLen = 0;
-		
 		if (!f.isFile()) {
 			// Initialize the filesystem
 			initialize();
@@ -108,35 +185,59 @@ public class SVDBFileSystem implements ILogLevelListener {
 		return ret;
 	}
 	
+	/**
+	 * Opens existing storage without modifying it. Returns false 
+	 * if the storage is missing, has a different version, or was
+	 * not cleanly closed
+	 */
+	private boolean init_ro() throws IOException {
+		boolean ret = false;
+		File f = new File(fDBDir, "1.db");
+		
+		if (f.isFile()) {
+			try {
+				ret = open_filesystem(f);
+			} catch (IOException e) {
+				ret = false;
+			} catch (Exception e) {
+				ret = false;
+			}
+		}
+		
+		if (ret) {
+			fIsOpen = true;
+		} else {
+			fBlockStore.close();
+		}
+		
+		return ret;
+	}
+	
 	private void initialize() {
 		File f = new File(fDBDir, "1.db");
 		
 		// Nothing here yet
-		RandomAccessFile rw = null;
 		try {
-			rw = new RandomAccessFile(f, "rw");
+			fBlockStore.open(1, 0);
 		} catch (IOException e) {
 			fLog.error("Failed to create first DB file " + 
 					f.getAbsolutePath(), e);
 		}
-		fFileRWList.add(rw);
-		fAllocList = new byte[ALLOC_PAGE_INCR];
+		synchronized (fAllocLock) {
+			fAllocList = new byte[ALLOC_PAGE_INCR];
 		
-		// Reserve the first block
-		fAllocList[0] = 1; 
+			// Reserve the first block
+			fAllocList[0] = 1; 
+			fFirstEmptyIdx = 0;
+		}
 		fAllocListFile = -1;
-		fFirstEmptyIdx = 0;
-		fLastRwBlkLen = 0;
 		fFileInfoHndl = -1;
 	}
 	
 	private boolean open_filesystem(File f) throws IOException {
 		boolean ret = true;
-		RandomAccessFile rw = null;
-		
-		rw = new RandomAccessFile(f, "rw");
 		
-		fFileRWList.add(rw);
+		fBlockStore.open(1, 0);
 		
 		// Read the root block
 		byte tmp[] = new byte[BLK_SIZE];
@@ -169,11 +270,13 @@ public class SVDBFileSystem implements ILogLevelListener {
 			if (!fVersion.equals(version)) {
 				// Version doesn't match, so re-initialize the filesystem
 				ret = false;
-				cleanup();
-				initialize();
+				if (!fReadOnly) {
+					cleanup();
+					initialize();
+				}
 			} else {
 				int n_files = in.readInt();
-				fLastRwBlkLen  = in.readInt();
+				int last_rw_blk_len = in.readInt();
 				fAllocListFile = in.readInt();
 				int alloc_list_len = in.readInt();
 				
@@ -183,7 +286,7 @@ public class SVDBFileSystem implements ILogLevelListener {
 
 				if (fTrackFiles) {
 					fTrackFiles = false;
-					SVDBFileSystemDataInput file_info_in = readFile("fileInfo", fFileInfoHndl);
+					SVDBFileSystemDataInput file_info_in = readFile_int("fileInfo", fFileInfoHndl);
 					fTrackFiles = true;
 
 					fFileList.clear();
@@ -208,19 +311,18 @@ public class SVDBFileSystem implements ILogLevelListener {
 					in.readFully(fUserData);
 				}
 
-				for (int i=2; i<=n_files; i++) {
-					f = new File(fDBDir, i + ".db");
-					rw = new RandomAccessFile(f, "rw");
-					fFileRWList.add(rw);
-				}
+				fBlockStore.open(n_files, last_rw_blk_len);
 
 				// Now we can read in the alloc list and initialize the AllocList
 				boolean track_files = fTrackFiles;
 				fTrackFiles = false;
-				SVDBFileSystemDataInput alloc_in = readFile("allocList", fAllocListFile);
+				SVDBFileSystemDataInput alloc_in = readFile_int("allocList", fAllocListFile);
 				fTrackFiles = track_files;
-				fAllocList = new byte[alloc_list_len];
-				alloc_in.readFully(fAllocList);
+				synchronized (fAllocLock) {
+					fAllocList = new byte[alloc_list_len];
+					alloc_in.readFully(fAllocList);
+					fFirstEmptyIdx = 0;
+				}
 
 				if (fTrackFiles) {
 					for (int i=0; i<fAllocList.length; i++) {
@@ -241,7 +343,7 @@ public class SVDBFileSystem implements ILogLevelListener {
 			}
 		}
 		
-		if (ret) {
+		if (ret && !fReadOnly) {
 			// Mark the filesystem as open and invalid. This enables us to 
 			// detect filesystem invalidity due to improper close
 			write32(0, tmp, ~VALID_MAGIC_NUMBER);
@@ -253,14 +355,7 @@ public class SVDBFileSystem implements ILogLevelListener {
 	
 	private void cleanup() {
 		// Close any open files we have sitting around...
-		for (RandomAccessFile rw : fFileRWList) {
-			try {
-				rw.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		}
-		fFileRWList.clear();
+		fBlockStore.close();
 		
 		File files[] = fDBDir.listFiles();
 		if (files != null) {
@@ -274,16 +369,18 @@ public class SVDBFileSystem implements ILogLevelListener {
 		}
 	}
 	
-	public synchronized int getNumAllocatedBlocks() {
+	public int getNumAllocatedBlocks() {
 		int size = 0;
 		
-		for (int i=0; i<fAllocList.length; i++) {
-			byte mask = fAllocList[i];
-		
-			if (mask != 0) {
-				for (int j=0; j<8; j++) {
-					if ((mask & (1 << j)) != 0) {
-						size++;
+		synchronized (fAllocLock) {
+			for (int i=0; i<fAllocList.length; i++) {
+				byte mask = fAllocList[i];
+
+				if (mask != 0) {
+					for (int j=0; j<8; j++) {
+						if ((mask & (1 << j)) != 0) {
+							size++;
+						}
 					}
 				}
 			}
@@ -292,65 +389,64 @@ public class SVDBFileSystem implements ILogLevelListener {
 		return size;		
 	}
 	
-	public synchronized int getNumTotalBlocks() {
-		int size = 0;
-	
-		for (int writer_id=0; writer_id<fFileRWList.size(); writer_id++) {
-			long len = 0;
-			try {
-				len = fFileRWList.get(writer_id).length();
-			} catch (IOException e) { 
-				e.printStackTrace();
-			}
-		
-			size += (len / BLK_SIZE);
+	public int getNumTotalBlocks() {
+		fLock.readLock().lock();
+		try {
+			return fBlockStore.getNumTotalBlocks();
+		} finally {
+			fLock.readLock().unlock();
 		}
-		
-		return size;
 	}
 	
-	public synchronized int blockSize() {
-		int size = 0;
-		
-		for (int i=0; i<fAllocList.length; i++) {
-			byte mask = fAllocList[i];
-			
-			for (int j=0; j<8; j++) {
-				if ((mask & (1 << j)) != 0) {
-					size++;
-				}
-			}
-		}
-		
-		return size;
+	public int blockSize() {
+		return getNumAllocatedBlocks();
 	}
 	
-	public synchronized SVDBFileSystemDataInput getUserData() {
-		if (fUserData == null) {
-			return null;
-		} else {
-			SVDBFileSystemDataInput ret = new SVDBFileSystemDataInput();
-			ret.addPage(fUserData);
-			return ret;
+	public SVDBFileSystemDataInput getUserData() {
+		fLock.readLock().lock();
+		try {
+			if (fUserData == null) {
+				return null;
+			} else {
+				SVDBFileSystemDataInput ret = new SVDBFileSystemDataInput();
+				ret.addPage(fUserData);
+				return ret;
+			}
+		} finally {
+			fLock.readLock().unlock();
 		}
 	}
 	
-	public synchronized void setUserData(SVDBFileSystemDataOutput data) {
-		if (data == null) {
-			fUserData = null;
-		} else {
-			int ud_size = (data.getLength() < 2048)?data.getLength():2048;
-//			int ud_size = 2048;
-			byte tdata[] = data.getPage(0);
-			fUserData = new byte[ud_size];
-			// Only the first 2K is available for user data
-			for (int i=0; (i<ud_size && i < tdata.length); i++) {
-				fUserData[i] = tdata[i];
+	public void setUserData(SVDBFileSystemDataOutput data) {
+		fLock.writeLock().lock();
+		try {
+			if (data == null) {
+				fUserData = null;
+			} else {
+				int ud_size = (data.getLength() < 2048)?data.getLength():2048;
+//				int ud_size = 2048;
+				byte tdata[] = data.getPage(0);
+				fUserData = new byte[ud_size];
+				// Only the first 2K is available for user data
+				for (int i=0; (i<ud_size && i < tdata.length); i++) {
+					fUserData[i] = tdata[i];
+				}
 			}
+		} finally {
+			fLock.writeLock().unlock();
 		}
 	}
 
-	public synchronized void sync() throws IOException {
+	public void sync() throws IOException {
+		fLock.writeLock().lock();
+		try {
+			sync_int();
+		} finally {
+			fLock.writeLock().unlock();
+		}
+	}
+	
+	private void sync_int() throws IOException {
 		
 		if (!fIsOpen) {
 			if (fCloseStack != null) {
@@ -358,12 +454,17 @@ public class SVDBFileSystem implements ILogLevelListener {
 			}
 			throw new IOException("Filesystem is closed");
 		}
+		
+		if (fReadOnly) {
+			// Nothing to write back
+			return;
+		}
 		// Create and save the root block
 		SVDBFileSystemDataOutput out = new SVDBFileSystemDataOutput();
 
 		if (fTrackFiles && fFileInfoHndl != -1) {
 			fTrackFiles = false;
-			deleteFile("fileInfo",  fFileInfoHndl);
+			deleteFile_int("fileInfo",  fFileInfoHndl);
 			fTrackFiles = true;
 		}
 
@@ -380,7 +481,7 @@ public class SVDBFileSystem implements ILogLevelListener {
 		
 			// Need to ensure this doesn't end up in the info list
 			fTrackFiles = false;
-			fFileInfoHndl = writeFile("fileInfo", file_info_out);
+			fFileInfoHndl = writeFile_int("fileInfo", file_info_out);
 			fTrackFiles = true;
 		}
 		
@@ -401,13 +502,16 @@ public class SVDBFileSystem implements ILogLevelListener {
 		out.writeInt(VALID_MAGIC_NUMBER);
 		out.writeString(fVersion);
 		
-		out.writeInt(fFileRWList.size());
-		out.writeInt(fLastRwBlkLen);
+		// Write back the allocation table. Note that this may
+		// extend the storage, so must be done before the storage
+		// file count and length are saved
+		int alloc_list_len = writeAllocList();
+		
+		out.writeInt(fBlockStore.getNumFiles());
+		out.writeInt(fBlockStore.getLastBlkLen());
 		
-		// Write back the allocation table
-		writeAllocList();
 		out.writeInt(fAllocListFile);
-		out.writeInt(fAllocList.length);
+		out.writeInt(alloc_list_len);
 		
 		if (fTrackFiles) {
 			out.writeInt(fFileInfoHndl);
@@ -430,29 +534,52 @@ public class SVDBFileSystem implements ILogLevelListener {
 		writeBlock("rootFile", 0, out.getPage(0));
 	}
 	
-	public synchronized void delete() throws IOException {
-		close();
+	public void delete() throws IOException {
+		if (fReadOnly) {
+			throw new IOException("Cannot delete read-only filesystem " + 
+					fDBDir.getAbsolutePath());
+		}
+		fLock.writeLock().lock();
+		try {
+			close();
 	
-		SVFileUtils.delete(fDBDir);
+			SVFileUtils.delete(fDBDir);
+		} finally {
+			fLock.writeLock().unlock();
+		}
 	}
 	
-	public synchronized void close() throws IOException {
-		sync();
+	public void close() throws IOException {
+		fLock.writeLock().lock();
+		try {
+			sync_int();
 		
-		for (RandomAccessFile rw : fFileRWList) {
-			rw.close();
-		}
-		fFileRWList.clear();
+			fBlockStore.close();
 		
-		fIsOpen = false;
+			fIsOpen = false;
+			try {
+				throw new Exception();
+			} catch (Exception e) {
+				fCloseStack = e;
+			}
+		} finally {
+			fLock.writeLock().unlock();
+		}
+	}
+	
+	public SVDBFileSystemDataInput readFile(String path, int id) throws IOException {
+		fLock.readLock().lock();
+		ReadWriteLock file_lock = getFileLock(id);
+		file_lock.readLock().lock();
 		try {
-			throw new Exception();
-		} catch (Exception e) {
-			fCloseStack = e;
+			return readFile_int(path, id);
+		} finally {
+			file_lock.readLock().unlock();
+			fLock.readLock().unlock();
 		}
 	}
 	
-	public synchronized SVDBFileSystemDataInput readFile(String path, int id) throws IOException {
+	private SVDBFileSystemDataInput readFile_int(String path, int id) throws IOException {
 		SVDBFileSystemDataInput ret = new SVDBFileSystemDataInput();
 		byte tmp[] = new byte[BLK_SIZE];
 		FileInfo info = null;
@@ -465,7 +592,9 @@ public class SVDBFileSystem implements ILogLevelListener {
 		int nblocks = ret.readInt(); // Number of non-root blocks
 		
 		if (fTrackFiles) {
-			info = findFileInfo(id);
+			synchronized (fAllocLock) {
+				info = findFileInfo(id);
+			}
 			
 			if (info == null) {
 				System.out.println("readFile: failed to find id=" + id + " " + path);
@@ -505,7 +634,19 @@ public class SVDBFileSystem implements ILogLevelListener {
 		return ret;
 	}
 	
-	public synchronized int writeFile(String path, SVDBFileSystemDataOutput data) throws IOException {
+	public int writeFile(String path, SVDBFileSystemDataOutput data) throws IOException {
+		if (fReadOnly) {
+			throw new IOException("Cannot write " + path + ": filesystem is read-only");
+		}
+		fLock.readLock().lock();
+		try {
+			return writeFile_int(path, data);
+		} finally {
+			fLock.readLock().unlock();
+		}
+	}
+	
+	private int writeFile_int(String path, SVDBFileSystemDataOutput data) throws IOException {
 		FileInfo info = null;
 		int length = data.getLength();
 		
@@ -537,66 +678,81 @@ public class SVDBFileSystem implements ILogLevelListener {
 		}
 		
 		int blocks[] = new int[reqd_blocks];
-		for (int i=0; i<blocks.length; i++) {
-			blocks[i] = allocBlock();
+		synchronized (fAllocLock) {
+			for (int i=0; i<blocks.length; i++) {
+				blocks[i] = allocBlock();
+			}
 		}
+		
+		// The blocks are newly-allocated, so no other thread can 
+		// reference them until this method returns. Still, hold the
+		// file lock to publish the content to subsequent readers
+		ReadWriteLock file_lock = getFileLock(blocks[0]);
+		file_lock.writeLock().lock();
+		try {
 
-		int blocks_idx = 0;
-		byte block[] = new byte[BLK_SIZE];
-		int idx = 0;
+			int blocks_idx = 0;
+			byte block[] = new byte[BLK_SIZE];
+			int idx = 0;
 		
-		// Fill in the base root block
-		idx = write32(idx, block, length);
-		idx = write32(idx, block, (reqd_blocks-1));
+			// Fill in the base root block
+			idx = write32(idx, block, length);
+			idx = write32(idx, block, (reqd_blocks-1));
 	
-		// Add the additional-block pointers
-		for (int i=1; i<blocks.length; i++) {
-			idx = write32(idx, block, blocks[i]);
+			// Add the additional-block pointers
+			for (int i=1; i<blocks.length; i++) {
+				idx = write32(idx, block, blocks[i]);
 			
-			if (idx >= BLK_SIZE) {
-				// write back the block and move on to the next
-				writeBlock(path, blocks[blocks_idx], block);
-				blocks_idx++;
-				idx = 0;
+				if (idx >= BLK_SIZE) {
+					// write back the block and move on to the next
+					writeBlock(path, blocks[blocks_idx], block);
+					blocks_idx++;
+					idx = 0;
+				}
 			}
-		}
 	
-		int page_idx = 0, tmp_idx = 0;
-		byte tmp[] = data.getPage(page_idx);
-		for (int i=0; i<length; i++) {
+			int page_idx = 0, tmp_idx = 0;
+			byte tmp[] = data.getPage(page_idx);
+			for (int i=0; i<length; i++) {
 
-			if (tmp_idx >= tmp.length) {
-				page_idx++;
-				tmp = data.getPage(page_idx);
-				tmp_idx = 0;
-			}
+				if (tmp_idx >= tmp.length) {
+					page_idx++;
+					tmp = data.getPage(page_idx);
+					tmp_idx = 0;
+				}
 			
-			block[idx] = tmp[tmp_idx];
-			idx++;
-			tmp_idx++;
+				block[idx] = tmp[tmp_idx];
+				idx++;
+				tmp_idx++;
 			
-			if (idx >= BLK_SIZE || i+1 >= length) {
-				// reset the block
-				writeBlock(path, blocks[blocks_idx], block);
-				idx = 0;
-				blocks_idx++;
+				if (idx >= BLK_SIZE || i+1 >= length) {
+					// reset the block
+					writeBlock(path, blocks[blocks_idx], block);
+					idx = 0;
+					blocks_idx++;
+				}
 			}
-		}
 	
-		if (fTrackFiles) {
-			for (int i=0; i<blocks.length; i++) {
-				if (fTrackFiles) {
-					if (i==0) {
-						info.fFileId = blocks[i];
-					} else {
-						info.fBlockIdList.add(blocks[i]);
+			if (fTrackFiles) {
+				for (int i=0; i<blocks.length; i++) {
+					if (fTrackFiles) {
+						if (i==0) {
+							info.fFileId = blocks[i];
+						} else {
+							info.fBlockIdList.add(blocks[i]);
+						}
 					}
 				}
-			}
 			
-			validateBlocksUnique(info);
+				synchronized (fAllocLock) {
+					validateBlocksUnique(info);
 			
-			fFileList.add(info);
+					fFileList.add(info);
+				}
+			}
+		
+		} finally {
+			file_lock.writeLock().unlock();
 		}
 		
 		return blocks[0];
@@ -617,7 +773,22 @@ public class SVDBFileSystem implements ILogLevelListener {
 		return idx;
 	}
 
-	public synchronized void deleteFile(String path, int id) throws IOException {
+	public void deleteFile(String path, int id) throws IOException {
+		if (fReadOnly) {
+			throw new IOException("Cannot delete " + path + ": filesystem is read-only");
+		}
+		fLock.readLock().lock();
+		ReadWriteLock file_lock = getFileLock(id);
+		file_lock.writeLock().lock();
+		try {
+			deleteFile_int(path, id);
+		} finally {
+			file_lock.writeLock().unlock();
+			fLock.readLock().unlock();
+		}
+	}
+	
+	private void deleteFile_int(String path, int id) throws IOException {
 		FileInfo info = null;
 		SVDBFileSystemDataInput ret = new SVDBFileSystemDataInput();
 		byte tmp[] = new byte[BLK_SIZE];
@@ -627,13 +798,15 @@ public class SVDBFileSystem implements ILogLevelListener {
 		}
 	
 		if (fTrackFiles) {
-			info = findFileInfo(id);
-			
-			if (info == null) {
-				System.out.println("deleteFile: failed to find " + id + " " + path);
+			synchronized (fAllocLock) {
+				info = findFileInfo(id);
+
+				if (info == null) {
+					fLog.error("deleteFile: failed to find " + id + " " + path);
+				}
+
+				removeFileInfo(info);
 			}
-		
-			removeFileInfo(info);
 		}
 	
 		// Read root block
@@ -649,7 +822,7 @@ public class SVDBFileSystem implements ILogLevelListener {
 		
 		if (fTrackFiles && info != null) {
 			if (nblocks != info.fBlockIdList.size()) {
-				System.out.println("deleteFile: mismatch in blocks for " + id + 
+				fLog.error("deleteFile: mismatch in blocks for " + id + 
 						" " + path + " nblocks=" + nblocks + " actual=" +
 						info.fBlockIdList.size());
 			}
@@ -661,7 +834,7 @@ public class SVDBFileSystem implements ILogLevelListener {
 			
 			if (fTrackFiles && info != null) {
 				if (block_id != info.fBlockIdList.get(i)) {
-					System.out.println("deleteFile: block " + i + " mismatch " +
+					fLog.error("deleteFile: block " + i + " mismatch " +
 							"block_id=" + block_id + " actual=" +
 							info.fBlockIdList.get(i));
 				}
@@ -672,10 +845,14 @@ public class SVDBFileSystem implements ILogLevelListener {
 				readBlock(path, block_id, tmp);
 				ret.addPage(tmp);
 			}
-			freeBlock(block_id);
+			synchronized (fAllocLock) {
+				freeBlock(block_id);
+			}
 		}		
 		
-		freeBlock(id);
+		synchronized (fAllocLock) {
+			freeBlock(id);
+		}
 	}
 
 	/**
@@ -690,10 +867,13 @@ public class SVDBFileSystem implements ILogLevelListener {
 		if (fAllocListFile != -1) {
 			boolean track_files = fTrackFiles;
 			fTrackFiles = false;
-			deleteFile("allocList", fAllocListFile);
+			deleteFile_int("allocList", fAllocListFile);
 			fTrackFiles = track_files;
 		}
 		
+		// Note: the write lock is held, so no other thread
+		// can modify the allocation table
+		
 		// Ask for enough space such that we could fully 
 		// allocate the full new space
 		int length = fAllocList.length+(fAllocList.length/8)+2;
@@ -723,8 +903,10 @@ public class SVDBFileSystem implements ILogLevelListener {
 		
 		int blocks[] = new int[reqd_blocks+1];
 		
-		for (int i=0; i<blocks.length; i++) {
-			blocks[i] = allocBlock();
+		synchronized (fAllocLock) {
+			for (int i=0; i<blocks.length; i++) {
+				blocks[i] = allocBlock();
+			}
 		}
 		
 		if (fTrackFiles) {
@@ -860,69 +1042,19 @@ public class SVDBFileSystem implements ILogLevelListener {
 	}
 	
 	private void readBlock(String path, int id, byte data[]) throws IOException {
-		int writer_id = (id / FILE_BLK_SIZE);
-		int writer_blk_id = (id % FILE_BLK_SIZE);
-		
-		if (writer_id >= fFileRWList.size()) {
-			throw new IOException("writer_id " + writer_id + " out of range; id=" + id + " size is " + fFileRWList.size());
-		}
-	
-		RandomAccessFile rw = fFileRWList.get(writer_id);
-	
-		long seek = writer_blk_id;
-		seek *= BLK_SIZE;
-		rw.seek(seek);
-
-		rw.read(data, 0, BLK_SIZE);
+		fBlockStore.readBlock(path, id, data);
 	}
 	
 	private void writeBlock(String path, int id, byte data[]) throws IOException {
-		int writer_id = (id / FILE_BLK_SIZE);
-		int writer_blk_id = (id % FILE_BLK_SIZE);
-		
-		if (id < 0) {
-			System.out.println("Error: id<0 for path " + path);
-		}
-	
-		// Backfill the writer array
-		if (writer_id >= fFileRWList.size()) {
-			// Add a new database file
-			File f = new File(fDBDir, (writer_id+1) + ".db");
-			RandomAccessFile rw = new RandomAccessFile(f, "rw");
-			fFileRWList.add(rw);
-			fLastRwBlkLen = 0;
-		}
-		
-		RandomAccessFile rw = fFileRWList.get(writer_id);
-		
-		// See if the file is long enough
-		if (writer_blk_id >= fLastRwBlkLen) {
-			byte tmp[] = new byte[BLK_SIZE];
-			
-			// Extend the length
-			long seek = fLastRwBlkLen;
-			seek *= BLK_SIZE;
-			rw.seek(seek);
-			
-			while (writer_blk_id >= fLastRwBlkLen) {
-				rw.write(tmp);
-				fLastRwBlkLen++;
-			}
-		}
-		
-		// Finally, seek to the block offset and write the block
-		long seek = writer_blk_id;
-		seek *= BLK_SIZE;
-		rw.seek(seek);
-		rw.write(data);
+		fBlockStore.writeBlock(path, id, data);
 	}
 
 	/**
-	 * Allocate a filesystem block
+	 * Allocate a filesystem block. Caller must hold fAllocLock
 	 * 
 	 * @return
 	 */
-	private synchronized int allocBlock() {
+	private int allocBlock() {
 		int blk_id = -1;
 		
 		// First, see if we can find
@@ -970,10 +1102,10 @@ public class SVDBFileSystem implements ILogLevelListener {
 	}
 	
 	/**
-	 * Free a filesystem block
+	 * Free a filesystem block. Caller must hold fAllocLock
 	 * @param id
 	 */
-	private synchronized void freeBlock(int id) {
+	private void freeBlock(int id) {
 		int alloc_idx = (id/8);
 		if (alloc_idx < fFirstEmptyIdx) {
 			fFirstEmptyIdx = alloc_idx;
@@ -982,47 +1114,36 @@ public class SVDBFileSystem implements ILogLevelListener {
 		fAllocList[alloc_idx] &= mask;
 	}
 	
-	private synchronized boolean blockAllocated(int id) {
+	private boolean blockAllocated(int id) {
 		int alloc_idx = (id/8);
 		int mask = (1 << (id & 7));
 		return ((fAllocList[alloc_idx] & mask) != 0);
 	}
 	
-	public synchronized void compactStorage() {
+	public void compactStorage() {
 		int first_storage_idx = 0;
 		
-		for (int i=fAllocList.length-1; i>=0; i--) {
-			if (fAllocList[i] != 0) {
-				first_storage_idx = i;
-				break;
-			}
+		if (fReadOnly) {
+			return;
 		}
 		
-		// Can clear out anything beyond the first storage index
-		int first_empty_id = (first_storage_idx+1)*8;
-
-		int first_empty_writer_id = (first_empty_id / FILE_BLK_SIZE);
-		int first_empty_block_id = (first_empty_id % FILE_BLK_SIZE);
-		
-		// Remove any leftover files
-		while (first_empty_writer_id+1 < fFileRWList.size()) {
-			RandomAccessFile file = fFileRWList.get(fFileRWList.size()-1);
-			try {
-				file.close();
-			} catch (IOException e) { }
-			File f = new File(fDBDir, fFileRWList.size() + ".db");
-			f.delete();
+		fLock.writeLock().lock();
+		try {
+			synchronized (fAllocLock) {
+				for (int i=fAllocList.length-1; i>=0; i--) {
+					if (fAllocList[i] != 0) {
+						first_storage_idx = i;
+						break;
+					}
+				}
+			}
 		
-			fFileRWList.remove(fFileRWList.size()-1);
-		}
+			// Can clear out anything beyond the first storage index
+			int first_empty_id = (first_storage_idx+1)*8;
 		
-		// Shrink the remaining file if needed
-		RandomAccessFile file = fFileRWList.get(first_empty_writer_id);
-		try {
-			file.setLength(first_empty_block_id*BLK_SIZE);
-			fLastRwBlkLen = first_empty_block_id;
-		} catch (IOException e) {
-			e.printStackTrace();
+			fBlockStore.truncate(first_empty_id);
+		} finally {
+			fLock.writeLock().unlock();
 		}
 	}
 }
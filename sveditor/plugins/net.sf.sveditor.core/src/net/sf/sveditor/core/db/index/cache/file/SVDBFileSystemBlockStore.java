@@ -0,0 +1,370 @@
+package net.sf.sveditor.core.db.index.cache.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+
+/**
+ * Block storage for the SVDBFileSystem. Blocks are spread across
+ * a series of storage files (1.db, 2.db, ...) in the filesystem
+ * directory. The on-disk layout is identical to the layout used by
+ * the original RandomAccessFile-based implementation.
+ *
+ * Block I/O is positional, so the store has no shared file pointer
+ * and readers and writers do not need to serialize on a common lock.
+ * When mapping is enabled, each storage file is viewed through a set of
+ * memory-mapped segments of up to 64MB. A segment maps the part of the
+ * storage file that exists when it is mapped, so the tail segment of a
+ * small file is partial. Reads and writes of mapped blocks are direct
+ * memory copies. Blocks beyond the end of the file are written through
+ * the FileChannel, which extends the file, and the tail segment is
+ * re-mapped to cover them on next access.
+ *
+ * A read-only store opens and maps its storage files read-only.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBFileSystemBlockStore {
+	// 16k blocks (64MB) per mapped segment
+	private static final int				SEGMENT_BLKS = 16*1024;
+
+	private File							fDBDir;
+	private int								fBlkSize;
+	private int								fFileBlkSize;
+	private boolean							fUseMappedIO;
+	private boolean							fReadOnly;
+	private List<StorageFile>				fFileList;
+	// Length (in blocks) of the last storage file
+	private volatile int					fLastRwBlkLen;
+	// Errors are reported via the filesystem's log handle
+	private LogHandle						fLog;
+
+	private class StorageFile {
+		private File										fPath;
+		private RandomAccessFile							fRW;
+		private FileChannel									fChannel;
+		private AtomicReferenceArray<MappedByteBuffer>		fSegments;
+
+		public StorageFile(File path) throws IOException {
+			fPath = path;
+			fRW = new RandomAccessFile(path, (fReadOnly)?"r":"rw");
+			fChannel = fRW.getChannel();
+			fSegments = new AtomicReferenceArray<MappedByteBuffer>(
+					((fFileBlkSize-1) / SEGMENT_BLKS) + 1);
+		}
+
+		public String getPath() {
+			return fPath.getAbsolutePath();
+		}
+
+		/**
+		 * Returns the mapped segment containing the specified block,
+		 * or null if the block is beyond the end of the file
+		 */
+		public MappedByteBuffer getSegment(int blk_id) throws IOException {
+			int seg_id = (blk_id / SEGMENT_BLKS);
+			int blk_end = ((blk_id % SEGMENT_BLKS)+1)*fBlkSize;
+			MappedByteBuffer seg = fSegments.get(seg_id);
+
+			if (seg == null || seg.capacity() < blk_end) {
+				synchronized (this) {
+					seg = fSegments.get(seg_id);
+
+					if (seg == null || seg.capacity() < blk_end) {
+						// Map the whole blocks of the segment that the file 
+						// now covers. The file may have grown since the 
+						// segment was last mapped
+						long seg_size = ((long)SEGMENT_BLKS)*fBlkSize;
+						long seg_start = seg_size*seg_id;
+						long size = Math.min(seg_size, fChannel.size()-seg_start);
+						size -= (size % fBlkSize);
+
+						if (size >= blk_end) {
+							seg = fChannel.map((fReadOnly)?
+									FileChannel.MapMode.READ_ONLY:
+									FileChannel.MapMode.READ_WRITE,
+									seg_start, size);
+							fSegments.set(seg_id, seg);
+						} else {
+							seg = null;
+						}
+					}
+				}
+			}
+
+			return seg;
+		}
+
+		public void readBlock(int blk_id, byte data[]) throws IOException {
+			MappedByteBuffer seg = (fUseMappedIO)?getSegment(blk_id):null;
+
+			if (seg != null) {
+				// Duplicate to obtain a private position
+				ByteBuffer buf = seg.duplicate();
+				buf.position((blk_id % SEGMENT_BLKS)*fBlkSize);
+				buf.get(data, 0, fBlkSize);
+			} else {
+				ByteBuffer buf = ByteBuffer.wrap(data, 0, fBlkSize);
+				long pos = ((long)blk_id)*fBlkSize;
+
+				while (buf.hasRemaining()) {
+					if (fChannel.read(buf, pos+buf.position()) < 0) {
+						break;
+					}
+				}
+			}
+		}
+
+		public void writeBlock(int blk_id, byte data[]) throws IOException {
+			MappedByteBuffer seg = (fUseMappedIO)?getSegment(blk_id):null;
+
+			if (seg != null) {
+				ByteBuffer buf = seg.duplicate();
+				buf.position((blk_id % SEGMENT_BLKS)*fBlkSize);
+				buf.put(data, 0, fBlkSize);
+			} else {
+				// Extends the file. The segment is re-mapped on next access
+				ByteBuffer buf = ByteBuffer.wrap(data, 0, fBlkSize);
+				long pos = ((long)blk_id)*fBlkSize;
+
+				while (buf.hasRemaining()) {
+					fChannel.write(buf, pos+buf.position());
+				}
+			}
+		}
+
+		int getNumMappedSegments() {
+			int n = 0;
+			for (int i=0; i<fSegments.length(); i++) {
+				if (fSegments.get(i) != null) {
+					n++;
+				}
+			}
+			return n;
+		}
+
+		public long length() throws IOException {
+			return fChannel.size();
+		}
+
+		public synchronized void setLength(int n_blocks) throws IOException {
+			// Drop any segments beyond the new end of the file
+			for (int i=(n_blocks / SEGMENT_BLKS); i<fSegments.length(); i++) {
+				fSegments.set(i, null);
+			}
+			fRW.setLength(((long)n_blocks)*fBlkSize);
+		}
+
+		public synchronized void close() throws IOException {
+			for (int i=0; i<fSegments.length(); i++) {
+				fSegments.set(i, null);
+			}
+			fRW.close();
+		}
+	}
+
+	public SVDBFileSystemBlockStore(
+			File		db_dir,
+			int			blk_size,
+			int			file_blk_size,
+			boolean		use_mapped_io) {
+		this(db_dir, blk_size, file_blk_size, use_mapped_io, false);
+	}
+
+	public SVDBFileSystemBlockStore(
+			File		db_dir,
+			int			blk_size,
+			int			file_blk_size,
+			boolean		use_mapped_io,
+			boolean		read_only) {
+		fDBDir = db_dir;
+		fBlkSize = blk_size;
+		fFileBlkSize = file_blk_size;
+		fUseMappedIO = use_mapped_io;
+		fReadOnly = read_only;
+		fFileList = new CopyOnWriteArrayList<StorageFile>();
+		fLog = LogFactory.getLogHandle("SVDBFileSystem");
+	}
+
+	public boolean getUseMappedIO() {
+		return fUseMappedIO;
+	}
+
+	public boolean isReadOnly() {
+		return fReadOnly;
+	}
+
+	/**
+	 * Opens the first <code>n_files</code> storage files
+	 *
+	 * @param n_files
+	 * @param last_blk_len length, in blocks, of the last storage file
+	 */
+	public synchronized void open(int n_files, int last_blk_len) throws IOException {
+		for (int i=fFileList.size(); i<n_files; i++) {
+			fFileList.add(new StorageFile(new File(fDBDir, (i+1) + ".db")));
+		}
+		fLastRwBlkLen = last_blk_len;
+	}
+
+	public int getNumFiles() {
+		return fFileList.size();
+	}
+
+	public synchronized int getLastBlkLen() {
+		return fLastRwBlkLen;
+	}
+
+	public int getNumTotalBlocks() {
+		int size = 0;
+
+		for (StorageFile f : fFileList) {
+			try {
+				size += (f.length() / fBlkSize);
+			} catch (IOException e) {
+				fLog.error("Failed to obtain the length of " + f.getPath(), e);
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Returns the number of currently-mapped segments. Used for testing
+	 */
+	public int test_getNumMappedSegments() {
+		int n = 0;
+		for (StorageFile f : fFileList) {
+			n += f.getNumMappedSegments();
+		}
+		return n;
+	}
+
+	public void readBlock(String path, int id, byte data[]) throws IOException {
+		int writer_id = (id / fFileBlkSize);
+		int writer_blk_id = (id % fFileBlkSize);
+
+		if (writer_id >= fFileList.size()) {
+			throw new IOException("writer_id " + writer_id + " out of range; id=" +
+					id + " size is " + fFileList.size());
+		}
+
+		fFileList.get(writer_id).readBlock(writer_blk_id, data);
+	}
+
+	public void writeBlock(String path, int id, byte data[]) throws IOException {
+		int writer_id = (id / fFileBlkSize);
+		int writer_blk_id = (id % fFileBlkSize);
+
+		if (id < 0) {
+			throw new IOException("Block id<0 for path " + path);
+		}
+		
+		if (fReadOnly) {
+			throw new IOException("Cannot write block " + id + 
+					" for path " + path + ": storage is read-only");
+		}
+
+		StorageFile f = getStorageFile(writer_id, writer_blk_id);
+
+		f.writeBlock(writer_blk_id, data);
+	}
+
+	/**
+	 * Obtains the storage file for the specified block, adding
+	 * storage files and updating the length of the last file as needed.
+	 * Positional writes beyond the end of a file implicitly extend
+	 * it with zero-filled blocks.
+	 */
+	private StorageFile getStorageFile(int writer_id, int writer_blk_id) throws IOException {
+		int n_files = fFileList.size();
+		if (writer_id < n_files-1 || 
+				(writer_id == n_files-1 && writer_blk_id < fLastRwBlkLen)) {
+			// Storage already exists
+			return fFileList.get(writer_id);
+		}
+
+		synchronized (this) {
+			// Backfill the storage-file list
+			while (writer_id >= fFileList.size()) {
+				fFileList.add(new StorageFile(
+						new File(fDBDir, (fFileList.size()+1) + ".db")));
+				fLastRwBlkLen = 0;
+			}
+
+			if (writer_id == fFileList.size()-1 &&
+					writer_blk_id >= fLastRwBlkLen) {
+				fLastRwBlkLen = writer_blk_id+1;
+			}
+
+			return fFileList.get(writer_id);
+		}
+	}
+
+	/**
+	 * Truncates storage such that the first <code>first_empty_id</code>
+	 * blocks are retained. Storage files beyond that point are removed.
+	 * Callers must ensure no block I/O is in progress
+	 *
+	 * @param first_empty_id
+	 */
+	public synchronized void truncate(int first_empty_id) {
+		if (fReadOnly) {
+			return;
+		}
+		int first_empty_writer_id = (first_empty_id / fFileBlkSize);
+		int first_empty_block_id = (first_empty_id % fFileBlkSize);
+
+		// Remove any leftover files
+		while (first_empty_writer_id+1 < fFileList.size()) {
+			StorageFile file = fFileList.get(fFileList.size()-1);
+			try {
+				file.close();
+			} catch (IOException e) {
+				fLog.error("Failed to close " + file.getPath(), e);
+			}
+			File f = new File(fDBDir, fFileList.size() + ".db");
+			if (!f.delete()) {
+				fLog.error("Failed to delete storage for " + f.getAbsolutePath());
+			}
+
+			fFileList.remove(fFileList.size()-1);
+		}
+
+		if (first_empty_writer_id >= fFileList.size()) {
+			return;
+		}
+
+		// Shrink the remaining file if needed
+		StorageFile file = fFileList.get(first_empty_writer_id);
+		try {
+			file.setLength(first_empty_block_id);
+			fLastRwBlkLen = first_empty_block_id;
+		} catch (IOException e) {
+			fLog.error("Failed to truncate " + file.getPath() + 
+					" to " + first_empty_block_id + " blocks", e);
+		}
+	}
+
+	public synchronized void close() {
+		for (StorageFile f : fFileList) {
+			try {
+				f.close();
+			} catch (IOException e) {
+				fLog.error("Failed to close " + f.getPath(), e);
+			}
+		}
+		fFileList.clear();
+	}
+
+}
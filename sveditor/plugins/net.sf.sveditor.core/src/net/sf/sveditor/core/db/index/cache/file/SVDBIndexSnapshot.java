@@ -0,0 +1,418 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index.cache.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.SVFileUtils;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
+import net.sf.sveditor.core.db.persistence.DBFormatException;
+import net.sf.sveditor.core.db.persistence.DBWriteException;
+import net.sf.sveditor.core.db.persistence.IDBReader;
+import net.sf.sveditor.core.db.persistence.IDBWriter;
+import net.sf.sveditor.core.db.persistence.SVDBPersistenceRW;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Prebuilt, read-only image of an index cache, stored in an
+ * SVDBFileSystem. A snapshot is identified by a key string (eg library
+ * version and define set) that is checked when the snapshot is opened.
+ *
+ * Opened snapshots are shared: all clients that acquire the same
+ * snapshot directory use a single read-only (memory-mapped) filesystem
+ * and a single set of loaded files
+ *
+ * @author ballance
+ *
+ */
+public class SVDBIndexSnapshot {
+	private static final int					FILE_ID    = 0;
+	private static final int					ARGFILE_ID = 1;
+
+	private static Map<String, SVDBIndexSnapshot>	fSnapshotMap =
+			new HashMap<String, SVDBIndexSnapshot>();
+	private static LogHandle					fLog =
+			LogFactory.getLogHandle("SVDBIndexSnapshot");
+
+	private File								fDir;
+	private String								fKey;
+	private SVDBFileSystem						fFS;
+	private int									fIndexDataId;
+	private Map<String, Entry>					fEntries;
+	private int									fRefCount;
+
+	private static class Entry {
+		int										fType;
+		long									fLastModified;
+		int										fFileId;
+		int										fFileTreeId;
+		int										fMarkersId;
+		SoftReference<SVDBFile>					fFile;
+		SoftReference<SVDBFileTree>				fFileTree;
+	}
+
+	private SVDBIndexSnapshot(File dir, String key, SVDBFileSystem fs) {
+		fDir = dir;
+		fKey = key;
+		fFS = fs;
+		fEntries = new LinkedHashMap<String, Entry>();
+	}
+
+	/**
+	 * Obtains a shared handle to the snapshot in 'dir'. Returns null
+	 * if 'dir' doesn't hold a valid snapshot for 'key'. Each successful
+	 * call must be balanced by a call to release()
+	 */
+	public static SVDBIndexSnapshot acquire(File dir, String key) {
+		String path = dir.getAbsolutePath();
+
+		synchronized (fSnapshotMap) {
+			SVDBIndexSnapshot ret = fSnapshotMap.get(path);
+
+			if (ret == null) {
+				ret = open(dir, key);
+				if (ret == null) {
+					return null;
+				}
+				fSnapshotMap.put(path, ret);
+			} else if (!ret.fKey.equals(key)) {
+				return null;
+			}
+
+			ret.fRefCount++;
+			return ret;
+		}
+	}
+
+	public void release() {
+		synchronized (fSnapshotMap) {
+			if (--fRefCount <= 0) {
+				fSnapshotMap.remove(fDir.getAbsolutePath());
+				try {
+					fFS.close();
+				} catch (IOException e) {
+					fLog.error("Failed to close snapshot " + fDir, e);
+				}
+			}
+		}
+	}
+
+	private static SVDBIndexSnapshot open(File dir, String key) {
+		if (!dir.isDirectory()) {
+			return null;
+		}
+
+		SVDBFileSystem fs = new SVDBFileSystem(dir, SVCorePlugin.getVersion(), true);
+
+		try {
+			if (!fs.init()) {
+				fLog.debug("Snapshot " + dir + " is not valid for this version");
+				return null;
+			}
+
+			SVDBFileSystemDataInput ud = fs.getUserData();
+
+			if (ud == null) {
+				fs.close();
+				return null;
+			}
+
+			SVDBFileSystemDataInput in = fs.readFile("snapshot info", ud.readInt());
+			String s_key = in.readString();
+
+			if (!s_key.equals(key)) {
+				fLog.debug("Snapshot " + dir + " key \"" + s_key +
+						"\" does not match \"" + key + "\"");
+				fs.close();
+				return null;
+			}
+
+			SVDBIndexSnapshot ret = new SVDBIndexSnapshot(dir, key, fs);
+			ret.fIndexDataId = in.readInt();
+
+			int n_entries = in.readInt();
+			for (int i=0; i<n_entries; i++) {
+				String path = in.readString();
+				Entry e = new Entry();
+				e.fType = in.readInt();
+				e.fLastModified = in.readLong();
+				e.fFileId = in.readInt();
+				e.fFileTreeId = in.readInt();
+				e.fMarkersId = in.readInt();
+				ret.fEntries.put(path, e);
+			}
+
+			return ret;
+		} catch (IOException e) {
+			fLog.error("Failed to open snapshot " + dir, e);
+			try {
+				fs.close();
+			} catch (IOException e2) { }
+		}
+
+		return null;
+	}
+
+	/**
+	 * Writes the content of 'cache' to a snapshot in 'dir'. The snapshot
+	 * is built in a temporary directory and then moved into place, such
+	 * that readers never observe a partial snapshot
+	 */
+	public static void write(
+			File 				dir,
+			String 				key,
+			ISVDBIndexCache 	cache) throws IOException {
+		File tmp_dir = new File(dir.getParentFile(),
+				dir.getName() + ".tmp" + System.nanoTime());
+		SVDBFileSystem fs = new SVDBFileSystem(tmp_dir, SVCorePlugin.getVersion());
+		SVDBPersistenceRW rw = new SVDBPersistenceRW(true);
+		NullProgressMonitor m = new NullProgressMonitor();
+
+		fs.init();
+
+		try {
+			SVDBFileSystemDataOutput info = new SVDBFileSystemDataOutput();
+			info.writeString(key);
+
+			Object index_data = cache.getIndexData();
+			if (index_data != null) {
+				info.writeInt(writeObject(fs, rw, "index data", index_data.getClass(), index_data));
+			} else {
+				info.writeInt(-1);
+			}
+
+			Set<String> files = cache.getFileList(false);
+			Set<String> argfiles = cache.getFileList(true);
+			info.writeInt(files.size() + argfiles.size());
+
+			for (int t=FILE_ID; t<=ARGFILE_ID; t++) {
+				boolean is_argfile = (t == ARGFILE_ID);
+				for (String path : (is_argfile)?argfiles:files) {
+					SVDBFile file = cache.getFile(m, path);
+					SVDBFileTree ft = cache.getFileTree(m, path, is_argfile);
+					List<SVDBMarker> markers = cache.getMarkers(path);
+
+					info.writeString(path);
+					info.writeInt(t);
+					info.writeLong(cache.getLastModified(path));
+					info.writeInt((file != null)?
+							writeObject(fs, rw, path, SVDBFile.class, file):-1);
+					info.writeInt((ft != null)?
+							writeObject(fs, rw, path + ":fileTree", SVDBFileTree.class, ft):-1);
+
+					if (markers != null) {
+						SVDBFileSystemDataOutput data_out = new SVDBFileSystemDataOutput();
+						rw.init(data_out);
+						rw.writeItemList(markers);
+						info.writeInt(fs.writeFile(path + ":markers", data_out));
+					} else {
+						info.writeInt(-1);
+					}
+				}
+			}
+
+			SVDBFileSystemDataOutput ud = new SVDBFileSystemDataOutput();
+			ud.writeInt(fs.writeFile("snapshot info", info));
+			fs.setUserData(ud);
+			fs.close();
+		} catch (DBWriteException e) {
+			fs.delete();
+			throw new IOException("Failed to write snapshot " + dir + ": " + e.getMessage());
+		} catch (IOException e) {
+			fs.delete();
+			throw e;
+		}
+
+		if (dir.isDirectory()) {
+			// Replace a stale snapshot. Processes that have the old
+			// snapshot open retain access to the storage they mapped
+			SVFileUtils.delete(dir);
+		}
+
+		if (!tmp_dir.renameTo(dir)) {
+			// Another writer got there first
+			SVFileUtils.delete(tmp_dir);
+			if (!dir.isDirectory()) {
+				throw new IOException("Failed to move snapshot into " + dir);
+			}
+		}
+	}
+
+	private static int writeObject(
+			SVDBFileSystem		fs,
+			IDBWriter			writer,
+			String				path,
+			Class<?>			cls,
+			Object				obj) throws IOException, DBWriteException {
+		SVDBFileSystemDataOutput data_out = new SVDBFileSystemDataOutput();
+		writer.init(data_out);
+		writer.writeObject(cls, obj);
+
+		return fs.writeFile(path, data_out);
+	}
+
+	public File getDir() {
+		return fDir;
+	}
+
+	public String getKey() {
+		return fKey;
+	}
+
+	/**
+	 * Loads the index data saved with the snapshot into 'data'
+	 */
+	public boolean readIndexData(Object data) {
+		if (fIndexDataId == -1) {
+			return false;
+		}
+
+		try {
+			IDBReader reader = new SVDBPersistenceRW();
+			reader.init(fFS.readFile("index data", fIndexDataId));
+			reader.readObject(null, data.getClass(), data);
+			return true;
+		} catch (IOException e) {
+			fLog.error("Failed to read index data from snapshot " + fDir, e);
+		} catch (DBFormatException e) {
+			fLog.error("Failed to read index data from snapshot " + fDir, e);
+		}
+
+		return false;
+	}
+
+	public Set<String> getFileList(boolean is_argfile) {
+		int type = (is_argfile)?ARGFILE_ID:FILE_ID;
+		Set<String> ret = new HashSet<String>();
+
+		for (Map.Entry<String, Entry> e : fEntries.entrySet()) {
+			if (e.getValue().fType == type) {
+				ret.add(e.getKey());
+			}
+		}
+
+		return ret;
+	}
+
+	public boolean containsFile(String path) {
+		return fEntries.containsKey(path);
+	}
+
+	public boolean isArgFile(String path) {
+		Entry e = fEntries.get(path);
+		return (e != null && e.fType == ARGFILE_ID);
+	}
+
+	public long getLastModified(String path) {
+		Entry e = fEntries.get(path);
+		return (e != null)?e.fLastModified:-1;
+	}
+
+	public SVDBFile getFile(String path) {
+		Entry e = fEntries.get(path);
+
+		if (e == null || e.fFileId == -1) {
+			return null;
+		}
+
+		synchronized (e) {
+			SVDBFile file = (e.fFile != null)?e.fFile.get():null;
+
+			if (file == null) {
+				file = new SVDBFile();
+				if (readObject(path, e.fFileId, SVDBFile.class, file)) {
+					e.fFile = new SoftReference<SVDBFile>(file);
+				} else {
+					file = null;
+				}
+			}
+
+			return file;
+		}
+	}
+
+	public SVDBFileTree getFileTree(String path) {
+		Entry e = fEntries.get(path);
+
+		if (e == null || e.fFileTreeId == -1) {
+			return null;
+		}
+
+		synchronized (e) {
+			SVDBFileTree ft = (e.fFileTree != null)?e.fFileTree.get():null;
+
+			if (ft == null) {
+				ft = new SVDBFileTree();
+				if (readObject(path + ":fileTree", e.fFileTreeId, SVDBFileTree.class, ft)) {
+					e.fFileTree = new SoftReference<SVDBFileTree>(ft);
+				} else {
+					ft = null;
+				}
+			}
+
+			return ft;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<SVDBMarker> getMarkers(String path) {
+		Entry e = fEntries.get(path);
+
+		if (e == null || e.fMarkersId == -1) {
+			return null;
+		}
+
+		try {
+			IDBReader reader = new SVDBPersistenceRW();
+			reader.init(fFS.readFile(path + ":markers", e.fMarkersId));
+			return (List<SVDBMarker>)reader.readItemList(null);
+		} catch (IOException ex) {
+			fLog.error("Failed to read markers for " + path, ex);
+		} catch (DBFormatException ex) {
+			fLog.error("Failed to read markers for " + path, ex);
+		}
+
+		return null;
+	}
+
+	private boolean readObject(String path, int id, Class<?> cls, Object obj) {
+		try {
+			IDBReader reader = new SVDBPersistenceRW();
+			reader.init(fFS.readFile(path, id));
+			reader.readObject(null, cls, obj);
+			return true;
+		} catch (IOException e) {
+			fLog.error("Failed to read " + path + " from snapshot " + fDir, e);
+		} catch (DBFormatException e) {
+			fLog.error("Failed to read " + path + " from snapshot " + fDir, e);
+		}
+
+		return false;
+	}
+
+}
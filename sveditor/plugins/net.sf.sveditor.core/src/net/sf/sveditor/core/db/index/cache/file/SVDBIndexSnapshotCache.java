@@ -0,0 +1,277 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.index.cache.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
+import net.sf.sveditor.core.db.index.cache.ISVDBIndexCacheMgr;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Index cache that serves data from a shared, read-only snapshot.
+ * Updates are stored in an overlay cache, and shadow the snapshot
+ * content for the affected files. The snapshot itself is never modified
+ *
+ * @author ballance
+ *
+ */
+public class SVDBIndexSnapshotCache implements ISVDBIndexCache {
+	private SVDBIndexSnapshot						fSnapshot;
+	private ISVDBIndexCache							fOverlay;
+	private Object									fIndexData;
+	// Files whose data is held by the overlay
+	private Set<String>								fOverlayFiles;
+	// Snapshot files that have been removed from the cache
+	private Set<String>								fRemoved;
+	private boolean									fSnapshotCleared;
+	private boolean									fReleased;
+	private Map<String, Map<Integer, SVDBFile>>		fSubFileMaps;
+
+	/**
+	 * Creates a cache view of 'snapshot'. The view takes ownership
+	 * of the snapshot handle and of the 'overlay' cache
+	 */
+	public SVDBIndexSnapshotCache(
+			SVDBIndexSnapshot		snapshot,
+			ISVDBIndexCache			overlay) {
+		fSnapshot = snapshot;
+		fOverlay = overlay;
+		fOverlayFiles = new HashSet<String>();
+		fRemoved = new HashSet<String>();
+		fSubFileMaps = new HashMap<String, Map<Integer,SVDBFile>>();
+	}
+
+	public SVDBIndexSnapshot getSnapshot() {
+		return fSnapshot;
+	}
+
+	/**
+	 * Returns true when data for 'path' comes from the snapshot
+	 */
+	private synchronized boolean inSnapshot(String path) {
+		return (!fSnapshotCleared &&
+				!fRemoved.contains(path) &&
+				!fOverlayFiles.contains(path) &&
+				fSnapshot.containsFile(path));
+	}
+
+	/**
+	 * Moves 'path' to the overlay prior to an update, copying 
+	 * any snapshot data for 'path' 
+	 */
+	private synchronized void promote(String path) {
+		if (!inSnapshot(path)) {
+			fOverlayFiles.add(path);
+			fRemoved.remove(path);
+			return;
+		}
+		boolean is_argfile = fSnapshot.isArgFile(path);
+		SVDBFile file = fSnapshot.getFile(path);
+		SVDBFileTree ft = fSnapshot.getFileTree(path);
+		List<SVDBMarker> markers = fSnapshot.getMarkers(path);
+
+		fOverlay.addFile(path, is_argfile);
+		fOverlay.setLastModified(path, fSnapshot.getLastModified(path), is_argfile);
+		if (file != null) {
+			fOverlay.setFile(path, file, is_argfile);
+		}
+		if (ft != null) {
+			fOverlay.setFileTree(path, ft, is_argfile);
+		}
+		if (markers != null) {
+			fOverlay.setMarkers(path, markers, is_argfile);
+		}
+		fSubFileMaps.remove(path);
+		fOverlayFiles.add(path);
+	}
+
+	public ISVDBIndexCacheMgr getCacheMgr() {
+		return fOverlay.getCacheMgr();
+	}
+
+	public void removeStoragePath(List<File> db_path_list) {
+		fOverlay.removeStoragePath(db_path_list);
+	}
+
+	public void setIndexData(Object data) {
+		fIndexData = data;
+		fOverlay.setIndexData(data);
+	}
+
+	public Object getIndexData() {
+		return fIndexData;
+	}
+
+	/**
+	 * Initializes 'index_data' from the snapshot
+	 */
+	public boolean init(
+			IProgressMonitor 	monitor,
+			Object 				index_data,
+			String 				base_location) {
+		fIndexData = index_data;
+
+		return fSnapshot.readIndexData(index_data);
+	}
+
+	public synchronized void clear(IProgressMonitor monitor) {
+		fSnapshotCleared = true;
+		fOverlayFiles.clear();
+		fSubFileMaps.clear();
+		fOverlay.clear(monitor);
+	}
+
+	public synchronized Set<String> getFileList(boolean is_argfile) {
+		Set<String> ret = new HashSet<String>(fOverlay.getFileList(is_argfile));
+
+		if (!fSnapshotCleared) {
+			for (String path : fSnapshot.getFileList(is_argfile)) {
+				if (!fRemoved.contains(path)) {
+					ret.add(path);
+				}
+			}
+		}
+
+		return ret;
+	}
+
+	public long getLastModified(String path) {
+		if (inSnapshot(path)) {
+			return fSnapshot.getLastModified(path);
+		} else {
+			return fOverlay.getLastModified(path);
+		}
+	}
+
+	public synchronized void setLastModified(String path, long timestamp, boolean is_argfile) {
+		promote(path);
+		fOverlay.setLastModified(path, timestamp, is_argfile);
+	}
+
+	public synchronized void addFile(String path, boolean is_argfile) {
+		promote(path);
+		fOverlay.addFile(path, is_argfile);
+	}
+
+	public List<SVDBMarker> getMarkers(String path) {
+		if (inSnapshot(path)) {
+			List<SVDBMarker> ret = new ArrayList<SVDBMarker>();
+			List<SVDBMarker> markers = fSnapshot.getMarkers(path);
+			if (markers != null) {
+				ret.addAll(markers);
+			}
+			return ret;
+		} else {
+			return fOverlay.getMarkers(path);
+		}
+	}
+
+	public synchronized void setMarkers(String path, List<SVDBMarker> markers, boolean is_argfile) {
+		promote(path);
+		fOverlay.setMarkers(path, markers, is_argfile);
+	}
+
+	public SVDBFile getPreProcFile(IProgressMonitor monitor, String path) {
+		// Pre-processed files are not saved in snapshots
+		return fOverlay.getPreProcFile(monitor, path);
+	}
+
+	public synchronized void setPreProcFile(String path, SVDBFile file) {
+		promote(path);
+		fOverlay.setPreProcFile(path, file);
+	}
+
+	public SVDBFileTree getFileTree(IProgressMonitor monitor, String path, boolean is_argfile) {
+		if (inSnapshot(path)) {
+			return fSnapshot.getFileTree(path);
+		} else {
+			return fOverlay.getFileTree(monitor, path, is_argfile);
+		}
+	}
+
+	public synchronized void setFileTree(String path, SVDBFileTree file, boolean is_argfile) {
+		promote(path);
+		fOverlay.setFileTree(path, file, is_argfile);
+	}
+
+	public SVDBFile getFile(IProgressMonitor monitor, String path) {
+		if (inSnapshot(path)) {
+			return fSnapshot.getFile(path);
+		} else {
+			return fOverlay.getFile(monitor, path);
+		}
+	}
+
+	public synchronized void setFile(String path, SVDBFile file, boolean is_argfile) {
+		promote(path);
+		fOverlay.setFile(path, file, is_argfile);
+	}
+
+	public synchronized void removeFile(String path, boolean is_argfile) {
+		if (fOverlayFiles.remove(path)) {
+			fOverlay.removeFile(path, is_argfile);
+		}
+		fSubFileMaps.remove(path);
+		fRemoved.add(path);
+	}
+
+	public synchronized Map<Integer, SVDBFile> getSubFileMap(String path) {
+		if (inSnapshot(path)) {
+			Map<Integer, SVDBFile> map = fSubFileMaps.get(path);
+			return (map != null)?new HashMap<Integer, SVDBFile>(map):null;
+		} else {
+			return fOverlay.getSubFileMap(path);
+		}
+	}
+
+	public synchronized void setSubFileMap(String path, Map<Integer, SVDBFile> map) {
+		if (inSnapshot(path)) {
+			fSubFileMaps.put(path, map);
+		} else {
+			fOverlay.setSubFileMap(path, map);
+		}
+	}
+
+	public FileType getFileType(String path) {
+		if (inSnapshot(path)) {
+			return (fSnapshot.isArgFile(path))?FileType.ArgFile:FileType.SVFile;
+		} else {
+			return fOverlay.getFileType(path);
+		}
+	}
+
+	public void sync() {
+		fOverlay.sync();
+	}
+
+	public synchronized void dispose() {
+		fOverlay.dispose();
+
+		if (!fReleased) {
+			fSnapshot.release();
+			fReleased = true;
+		}
+	}
+
+}
@@ -22,6 +22,7 @@ import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystem;
 import net.sf.sveditor.core.log.ILogHandle;
 import net.sf.sveditor.core.log.ILogListener;
 import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
 
 /**
  * - Need to break down the ArgFileIndex
@@ -32,8 +33,10 @@ import net.sf.sveditor.core.log.LogFactory;
 
 public class ExternalIndexerApp {
 	private SVDBFileSystem						fFS;
+	private LogHandle							fLog;
 	
 	public ExternalIndexerApp(File fs_path) {
+		fLog = LogFactory.getLogHandle("ExternalIndexerApp");
 		fFS = new SVDBFileSystem(fs_path, SVCorePlugin.getVersion());
 	
 		try {
@@ -44,8 +47,38 @@ public class ExternalIndexerApp {
 		
 	}
 	
-	public void full_build() {
+	/**
+	 * Performs a full build of the specified argument file, 
+	 * storing the result in this indexer's cache filesystem
+	 * 
+	 * @param argfile
+	 */
+	public void full_build(String argfile) {
+		SVDBFileIndexCacheMgr cache_mgr = new SVDBFileIndexCacheMgr();
+		cache_mgr.init(fFS);
+		
+		ExternalIndexFilesystemProvider fs_provider = new ExternalIndexFilesystemProvider();
+	
+		String project = "GLOBAL";
+		ISVDBIndex index = new SVDBArgFileIndex(
+				project,
+				argfile,
+				fs_provider,
+				cache_mgr.createIndexCache(project, argfile),
+				null);
+
+		index.init(new NullProgressMonitor(), null);
+		
+		long start, end;
+
+		start = System.currentTimeMillis();
+		index.execIndexChangePlan(new NullProgressMonitor(), 
+				new SVDBIndexChangePlanRebuild(index));
+		end = System.currentTimeMillis();
+		fLog.debug("full_build: " + argfile + " " + (end-start) + "ms");
 		
+		// Flushes the cache and closes the filesystem
+		cache_mgr.dispose();
 	}
 
 	/**
@@ -1,5 +1,9 @@
 package net.sf.sveditor.core.db.index.external;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -8,29 +12,71 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.eclipse.core.runtime.NullProgressMonitor;
-
-import net.sf.sveditor.core.SVCorePlugin;
-import net.sf.sveditor.core.db.index.ISVDBIndex;
-import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndex;
-import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexFactory;
-import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuild;
-import net.sf.sveditor.core.db.index.cache.file.SVDBFileIndexCacheMgr;
-import net.sf.sveditor.core.db.index.cache.file.SVDBFileSystem;
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBFileTreeMacroList;
+import net.sf.sveditor.core.db.SVDBMacroDef;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.ISVDBFileSystemProvider;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
+import net.sf.sveditor.core.db.persistence.DBFormatException;
+import net.sf.sveditor.core.db.persistence.DBWriteException;
+import net.sf.sveditor.core.db.persistence.IDBReader;
+import net.sf.sveditor.core.db.persistence.IDBWriter;
+import net.sf.sveditor.core.db.persistence.SVDBPersistenceRW;
 import net.sf.sveditor.core.log.ILogHandle;
 import net.sf.sveditor.core.log.ILogListener;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+import net.sf.sveditor.core.parser.SVLanguageLevel;
+import net.sf.sveditor.core.parser.SVParser;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
+import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
+import net.sf.sveditor.core.preproc.SVPreProcOutput;
+import net.sf.sveditor.core.preproc.SVPreProcessor;
 
+/**
+ * Runs in the external indexer process. Receives requests from 
+ * the IDE and parses files on its behalf
+ * 
+ * @author ballance
+ *
+ */
 public class ExternalIndexerClient implements ILogListener {
 	private Socket						fSock;
 	private InputStream					fIn;
 	private OutputStream				fOut;
 	private List<ExternalIndexerMsg>	fMailbox;
 	
+	// Per-build state
+	private ISVDBFileSystemProvider		fFSProvider;
+	private RemoteBuildData				fBuildProxy;
+	private boolean						fForceSV;
+	private List<SVDBMacroDef>			fDefines;
+	private Map<String, Integer>		fFileIdMap;
+	private Map<Integer, String>		fFilePathMap;
+	private Map<String, String>			fIncFileMap;
+	private IDBReader					fReader;
+	private IDBWriter					fWriter;
+	private LogHandle					fLog;
+	
 	public ExternalIndexerClient() {
+		fLog = LogFactory.getLogHandle("ExternalIndexerClient");
 		fSock = new Socket();
 		fMailbox = new ArrayList<ExternalIndexerMsg>();
+		fFSProvider = new ExternalIndexFilesystemProvider();
+		fBuildProxy = new RemoteBuildData();
+		fDefines = new ArrayList<SVDBMacroDef>();
+		fFileIdMap = new HashMap<String, Integer>();
+		fFilePathMap = new HashMap<Integer, String>();
+		fIncFileMap = new HashMap<String, String>();
+		fReader = new SVDBPersistenceRW();
+		fWriter = new SVDBPersistenceRW();
 	}
 	
 	public void connect(int port) throws IOException {
@@ -72,44 +118,269 @@ public class ExternalIndexerClient implements ILogListener {
 	protected void build_index(String argfile) {
 		File tmpdir = createTempDir();
 		File db = new File(tmpdir, "db");
-		SVDBFileSystem fs = new SVDBFileSystem(db, SVCorePlugin.getVersion());
+		
+		ExternalIndexerApp app = new ExternalIndexerApp(db);
+		app.full_build(argfile);
+	}
+	
+	/**
+	 * Applies the per-build configuration sent by the IDE
+	 */
+	@SuppressWarnings("unchecked")
+	protected void parse_setup(ExternalIndexerMsg msg) {
+		fForceSV = (msg.read32() != 0);
+		fDefines.clear();
+		
 		try {
-			fs.init();
-		} catch (IOException e) {
-			e.printStackTrace();
+			fReader.init(new DataInputStream(
+					new ByteArrayInputStream(msg.read_bytes())));
+			fDefines.addAll((List<SVDBMacroDef>)fReader.readItemList(null));
+		} catch (DBFormatException e) {
+			fLog.error("Failed to read build defines", e);
+		}
+		
+		// File ids and include paths are specific to the build
+		fFileIdMap.clear();
+		fFilePathMap.clear();
+		fIncFileMap.clear();
+	}
+	
+	/**
+	 * Pre-processes and parses a root file, then sends the 
+	 * serialized result back to the IDE
+	 */
+	protected void parse_file(String path) throws IOException {
+		ExternalIndexerMsg rsp = new ExternalIndexerMsg();
+		rsp.write_str(ExternalIndexerMsgType.PARSE_RSP_MSG.toString());
+		rsp.write_str(path);
+		
+		InputStream in = fFSProvider.openStream(path);
+		
+		if (in == null) {
+			rsp.write32(0);
+			rsp.write_str("Failed to open " + path);
+			send(rsp);
+			return;
+		}
+		
+		SVDBIndexStats stats = new SVDBIndexStats();
+		SVPreProcessor pp = new SVPreProcessor(path, in, fBuildProxy, fBuildProxy);
+		pp.setIndexStats(stats);
+		
+		for (SVDBMacroDef def : fDefines) {
+			pp.setMacro(def);
+		}
+		
+		SVPreProcOutput pp_out = pp.preprocess();
+		SVDBFileTree ft = pp_out.getFileTree();
+		
+		// File ids and include-cache entries are assigned only while 
+		// pre-processing. Let the IDE move on to the next root file
+		ExternalIndexerMsg pp_done = new ExternalIndexerMsg();
+		pp_done.write_str(ExternalIndexerMsgType.PREPROC_DONE_MSG.toString());
+		send(pp_done);
+		
+		SVLanguageLevel language_level;
+		if (fForceSV) {
+			language_level = SVLanguageLevel.SystemVerilog;
+		} else {
+			language_level = SVLanguageLevel.computeLanguageLevel(path);
 		}
 		
-		// TODO: Need a special cache manager shell that always returns the target cache
-		SVDBFileIndexCacheMgr cache_mgr = new SVDBFileIndexCacheMgr();
-		cache_mgr.init(fs);
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+		SVParser parser = new SVParser();
+		parser.setFileMapper(fBuildProxy);
 		
+		long parse_start = System.nanoTime();
+		SVDBFile file = parser.parse(language_level, pp_out, path, markers);
+		long parse_end = System.nanoTime();
 		
-		ExternalIndexFilesystemProvider fs_provider = new ExternalIndexFilesystemProvider();
+		fFSProvider.closeStream(in);
+		
+		rsp.write32(1);
+		rsp.write32(stats.getNumProcessedFiles());
+		rsp.write32(stats.getNumLines());
+		rsp.write64(stats.getLastIndexFileReadTimeNS());
+		rsp.write64(stats.getLastIndexPreProcessTimeNS());
+		rsp.write64(parse_end-parse_start);
+		
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(bos);
+			
+			fWriter.init(dos);
+			fWriter.writeObject(SVDBFile.class, file);
+			dos.flush();
+			rsp.write_bytes(bos.toByteArray());
+			
+			bos.reset();
+			fWriter.writeObject(SVDBFileTree.class, ft);
+			dos.flush();
+			rsp.write_bytes(bos.toByteArray());
+			
+			bos.reset();
+			fWriter.writeItemList(markers);
+			dos.flush();
+			rsp.write_bytes(bos.toByteArray());
+		} catch (DBWriteException e) {
+			rsp = new ExternalIndexerMsg();
+			rsp.write_str(ExternalIndexerMsgType.PARSE_RSP_MSG.toString());
+			rsp.write_str(path);
+			rsp.write32(0);
+			rsp.write_str("Failed to serialize result: " + e.getMessage());
+		}
+		
+		send(rsp);
+	}
 	
-		String project = "GLOBAL";
-		ISVDBIndex index = new SVDBArgFileIndex(
-				project,
-				argfile,
-				fs_provider,
-				cache_mgr.createIndexCache(project, argfile),
-				null);
-
-		index.init(new NullProgressMonitor(), null);
+	private void send(ExternalIndexerMsg msg) throws IOException {
+		synchronized (fOut) {
+			msg.send(fOut);
+			fOut.flush();
+		}
+	}
+	
+	/**
+	 * Sends a request to the IDE and waits for the response. The
+	 * IDE only sends responses while a file is being parsed, so the
+	 * next message received is the response to this request
+	 */
+	private ExternalIndexerMsg request(
+			ExternalIndexerMsg 		req, 
+			ExternalIndexerMsgType	rsp_t) throws IOException {
+		send(req);
+		
+		ExternalIndexerMsg rsp = new ExternalIndexerMsg();
+		rsp.recv(fIn);
+		
+		ExternalIndexerMsgType mt = ExternalIndexerMsgType.valueOf(rsp.read_str());
+		if (mt != rsp_t) {
+			throw new IOException("Expecting " + rsp_t + " ; received " + mt);
+		}
 		
-		long start, end;
+		return rsp;
+	}
+	
+	/**
+	 * Forwards file-id mapping and include-file lookups to the IDE, 
+	 * such that file ids and include resolution are identical to 
+	 * an in-process build. Results are cached for the duration
+	 * of the build
+	 */
+	private class RemoteBuildData implements 
+		ISVPreProcFileMapper, ISVPreProcIncFileProvider {
+
+		@Override
+		public int mapFilePathToId(String path, boolean add) {
+			Integer id = fFileIdMap.get(path);
+			
+			if (id == null) {
+				ExternalIndexerMsg req = new ExternalIndexerMsg();
+				req.write_str(ExternalIndexerMsgType.PATH_XLATE_REQ.toString());
+				req.write32(-1);
+				req.write_str(path);
+				req.write32((add)?1:0);
+				
+				try {
+					ExternalIndexerMsg rsp = request(req, 
+							ExternalIndexerMsgType.PATH_XLATE_RSP);
+					id = rsp.read32();
+				} catch (IOException e) {
+					fLog.error("Failed to map path " + path, e);
+					return 0;
+				}
+				
+				if (id > 0) {
+					fFileIdMap.put(path, id);
+					fFilePathMap.put(id, path);
+				}
+			}
+			
+			return id;
+		}
+
+		@Override
+		public String mapFileIdToPath(int id) {
+			String path = fFilePathMap.get(id);
+			
+			if (path == null) {
+				ExternalIndexerMsg req = new ExternalIndexerMsg();
+				req.write_str(ExternalIndexerMsgType.PATH_XLATE_REQ.toString());
+				req.write32(id);
+				req.write_str("");
+				
+				try {
+					ExternalIndexerMsg rsp = request(req, 
+							ExternalIndexerMsgType.PATH_XLATE_RSP);
+					rsp.read32();
+					path = rsp.read_str();
+				} catch (IOException e) {
+					fLog.error("Failed to map file id " + id, e);
+					return null;
+				}
+				
+				if (path.equals("")) {
+					path = null;
+				} else {
+					fFileIdMap.put(path, id);
+					fFilePathMap.put(id, path);
+				}
+			}
+			
+			return path;
+		}
+
+		@Override
+		public Tuple<String, List<SVDBFileTreeMacroList>> findCachedIncFile(String incfile) {
+			// The include-file cache refers to file trees held by the
+			// IDE. Always process include files in full
+			return null;
+		}
 
-		System.out.println("--> rebuild");
-		start = System.currentTimeMillis();
-		index.execIndexChangePlan(new NullProgressMonitor(), new SVDBIndexChangePlanRebuild(index));
-//		index.rebuildIndex(new NullProgressMonitor());
-		end = System.currentTimeMillis();
-		System.out.println("<-- rebuild: " + (end-start));
-		
-		System.out.println("--> dispose");
-		start = System.currentTimeMillis();
-		cache_mgr.dispose();
-		end = System.currentTimeMillis();
-		System.out.println("<-- dispose: " + (end-start));
+		@Override
+		public void addCachedIncFile(String incfile, String rootfile) {
+			ExternalIndexerMsg msg = new ExternalIndexerMsg();
+			msg.write_str(ExternalIndexerMsgType.INC_CACHE_ADD_MSG.toString());
+			msg.write_str(incfile);
+			msg.write_str(rootfile);
+			
+			try {
+				send(msg);
+			} catch (IOException e) {
+				fLog.error("Failed to send include-cache entry for " + incfile, e);
+			}
+		}
+
+		@Override
+		public Tuple<String, InputStream> findIncFile(String incfile) {
+			String path = fIncFileMap.get(incfile);
+			
+			if (path == null) {
+				ExternalIndexerMsg req = new ExternalIndexerMsg();
+				req.write_str(ExternalIndexerMsgType.INC_FILE_REQ.toString());
+				req.write_str(incfile);
+				
+				try {
+					ExternalIndexerMsg rsp = request(req, 
+							ExternalIndexerMsgType.INC_FILE_RSP);
+					path = rsp.read_str();
+				} catch (IOException e) {
+					fLog.error("Failed to resolve include " + incfile, e);
+					return null;
+				}
+				
+				// Failed searches are cached as well
+				fIncFileMap.put(incfile, path);
+			}
+			
+			if (path.equals("")) {
+				return null;
+			}
+			
+			InputStream in = fFSProvider.openStream(path);
+			
+			return (in != null)?new Tuple<String, InputStream>(path, in):null;
+		}
 	}
 
 	// Main loop for the client
@@ -126,11 +397,20 @@ public class ExternalIndexerClient implements ILogListener {
 			String mt_s = msg.read_str();
 			ExternalIndexerMsgType mt = ExternalIndexerMsgType.valueOf(mt_s);
 			
-			System.out.println("Client MT: " + mt);
+			fLog.debug("Client MT: " + mt);
 	
 			// Fork off as a thread so we can detect if the parent exits
 			if (mt == ExternalIndexerMsgType.EXIT_MSG) {
 				break;
+			} else if (mt == ExternalIndexerMsgType.PARSE_SETUP_MSG) {
+				parse_setup(msg);
+			} else if (mt == ExternalIndexerMsgType.PARSE_MSG) {
+				try {
+					parse_file(msg.read_str());
+				} catch (IOException e) {
+					fLog.error("Lost connection to the IDE", e);
+					break;
+				}
 			} else if (mt == ExternalIndexerMsgType.INDEX_MSG) {
 				String argfile = msg.read_str();
 				build_index(argfile);
@@ -141,7 +421,7 @@ public class ExternalIndexerClient implements ILogListener {
 					msg.send(fOut);
 					fOut.flush();
 				} catch (IOException e) {
-					e.printStackTrace();
+					fLog.error("Failed to send index response", e);
 				}
 			}
 		}
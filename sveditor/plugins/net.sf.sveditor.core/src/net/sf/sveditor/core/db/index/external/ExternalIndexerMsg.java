@@ -1,5 +1,6 @@
 package net.sf.sveditor.core.db.index.external;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -23,6 +24,11 @@ public class ExternalIndexerMsg {
 		fIdx = 0;
 	}
 	
+	// Restart reading from the beginning of a received message
+	public void rewind() {
+		fIdx = 0;
+	}
+	
 	public void init_write() {
 		fIdx = 0;
 		fMax = 0;
@@ -120,17 +126,23 @@ public class ExternalIndexerMsg {
 	}
 	
 	public void write_str(String str) {
-		int len = str.length();
+		// Length is the encoded length, which differs from 
+		// the number of characters for non-ASCII strings
+		write_bytes(str.getBytes());
+	}
+	
+	public void write_bytes(byte data[]) {
+		int len = data.length;
 		
 		if (fIdx+len+4 > fBuf.length) {
 			resize(len+4);
 		}
 	
-		// String length
+		// Data length
 		write32(len, fBuf, fIdx);
 		fIdx += 4;
 	
-		System.arraycopy(str.getBytes(), 0, fBuf, fIdx, len);
+		System.arraycopy(data, 0, fBuf, fIdx, len);
 		fIdx += len;
 	}
 	
@@ -151,6 +163,20 @@ public class ExternalIndexerMsg {
 		return ret;
 	}
 	
+	public byte [] read_bytes() {
+		if (fIdx+4 > fMax){
+			return null;
+		}
+		int len = read32(fBuf, fIdx);
+		fIdx += 4;
+		
+		byte ret[] = new byte[len];
+		System.arraycopy(fBuf, fIdx, ret, 0, len);
+		fIdx += len;
+		
+		return ret;
+	}
+	
 	private void resize(int incr) {
 		if (fIdx+incr > fBuf.length) {
 			byte tmp[] = fBuf;
@@ -192,7 +218,11 @@ public class ExternalIndexerMsg {
 		// Read the header first
 		int sz = 0;
 		do {
-			sz += in.read(header, sz, (header.length-sz));
+			int n = in.read(header, sz, (header.length-sz));
+			if (n < 0) {
+				throw new EOFException("Connection closed");
+			}
+			sz += n;
 		} while (sz != header.length);
 		
 		// First, check to see if the header checksum is correct
@@ -211,7 +241,11 @@ public class ExternalIndexerMsg {
 		sz = 0;
 		
 		do {
-			sz += in.read(fBuf, sz, (len-sz));
+			int n = in.read(fBuf, sz, (len-sz));
+			if (n < 0) {
+				throw new EOFException("Connection closed");
+			}
+			sz += n;
 		} while (sz != len);
 		
 		// Compute and check payload checksum
@@ -8,7 +8,20 @@ public enum ExternalIndexerMsgType {
 	INDEX_MSG,
 	INDEX_RSP_MSG,
 	PATH_XLATE_REQ,
-	PATH_XLATE_RSP
+	PATH_XLATE_RSP,
+	
+	// Per-build configuration (language mode, defines)
+	PARSE_SETUP_MSG,
+	// Parse a single root file
+	PARSE_MSG,
+	// Serialized result of parsing a root file
+	PARSE_RSP_MSG,
+	// Include-file resolution, performed by the IDE
+	INC_FILE_REQ,
+	INC_FILE_RSP,
+	INC_CACHE_ADD_MSG,
+	// The root file is pre-processed, and is now being parsed
+	PREPROC_DONE_MSG
 	
 	// TODO: progress monitor messages
 
@@ -0,0 +1,58 @@
+package net.sf.sveditor.core.db.index.external;
+
+import java.util.List;
+
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
+
+/**
+ * Result of parsing a root file in an external indexer process. 
+ * The parsed file, file tree and markers are transferred back 
+ * to the IDE in serialized form.
+ * 
+ * @author ballance
+ *
+ */
+public class ExternalIndexerParseResult {
+	private String						fPath;
+	private SVDBFile					fFile;
+	private SVDBFileTree				fFileTree;
+	private List<SVDBMarker>			fMarkers;
+	private SVDBIndexStats				fIndexStats;
+	
+	public ExternalIndexerParseResult(
+			String						path,
+			SVDBFile					file,
+			SVDBFileTree				ft,
+			List<SVDBMarker>			markers,
+			SVDBIndexStats				stats) {
+		fPath = path;
+		fFile = file;
+		fFileTree = ft;
+		fMarkers = markers;
+		fIndexStats = stats;
+	}
+	
+	public String getPath() {
+		return fPath;
+	}
+	
+	public SVDBFile getFile() {
+		return fFile;
+	}
+	
+	public SVDBFileTree getFileTree() {
+		return fFileTree;
+	}
+	
+	public List<SVDBMarker> getMarkers() {
+		return fMarkers;
+	}
+	
+	public SVDBIndexStats getIndexStats() {
+		return fIndexStats;
+	}
+
+}
@@ -4,7 +4,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -12,40 +16,60 @@ import org.eclipse.core.runtime.Platform;
 import org.osgi.framework.Bundle;
 
 import net.sf.sveditor.core.SVCorePlugin;
+import net.sf.sveditor.core.db.SVDBMacroDef;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexBuildData;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
+import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
 
 public class ExternalIndexerRunner {
+	// Pooled indexer processes unused for this long are shut down
+	public static final long						IDLE_TIMEOUT = 60000;
+	
 	private static List<ExternalIndexerRunner>		fRunnerList;
+	private static Timer							fIdleTimer;
 	private ExternalIndexerServer					fServer;
 	private Process									fProcess;
 	private int										fBusyCount;
 	private Listener								fStdout;
 	private Listener								fStderr;
 	private LogHandle								fLog;
-	// TODO: timeout thread
+	private long									fLastActive;
 	
 	static {
 		fRunnerList = new ArrayList<ExternalIndexerRunner>();
 	}
 	
-	public static synchronized ExternalIndexerRunner allocRunner() {
+	public static ExternalIndexerRunner allocRunner() {
 		ExternalIndexerRunner runner = null;
+		List<ExternalIndexerRunner> stale = new ArrayList<ExternalIndexerRunner>();
 		
-		while (fRunnerList.size() > 0) {
-			runner = fRunnerList.remove(0);
-		
-			// Mark the runner active so it's not automatically 
-			// killed for a little bit
-			if (runner.markActive()) {
-				break;
+		synchronized (ExternalIndexerRunner.class) {
+			while (fRunnerList.size() > 0) {
+				runner = fRunnerList.remove(0);
+
+				// Mark the runner active so it's not automatically 
+				// killed for a little bit
+				if (runner.markActive()) {
+					break;
+				}
+
+				// Runner is no longer usable
+				stale.add(runner);
+				runner = null;
 			}
 		}
 		
+		// Shutdown and startup wait on the indexer process, so 
+		// are done outside the lock
+		for (ExternalIndexerRunner r : stale) {
+			r.fLog.debug("Shutting down unusable indexer process");
+			r.shutdown();
+		}
+		
 		if (runner == null) {
 			runner = new ExternalIndexerRunner();
-			// TODO: startup
 			runner.start();
 		}
 		
@@ -53,14 +77,58 @@ public class ExternalIndexerRunner {
 	}
 	
 	public static synchronized void freeRunner(ExternalIndexerRunner runner) {
+		runner.markActive();
 		fRunnerList.add(runner);
+		
+		if (fIdleTimer == null) {
+			fIdleTimer = new Timer("ExternalIndexerIdleTimer", true);
+			fIdleTimer.schedule(new TimerTask() {
+				public void run() {
+					shutdownIdleRunners();
+				}
+			}, IDLE_TIMEOUT/4, IDLE_TIMEOUT/4);
+		}
+	}
+	
+	/**
+	 * Shuts down pooled runners that have been idle for longer 
+	 * than IDLE_TIMEOUT
+	 */
+	private static void shutdownIdleRunners() {
+		List<ExternalIndexerRunner> idle = new ArrayList<ExternalIndexerRunner>();
+		long now = System.currentTimeMillis();
+		
+		synchronized (ExternalIndexerRunner.class) {
+			Iterator<ExternalIndexerRunner> it = fRunnerList.iterator();
+			while (it.hasNext()) {
+				ExternalIndexerRunner runner = it.next();
+				if (now - runner.fLastActive > IDLE_TIMEOUT) {
+					it.remove();
+					idle.add(runner);
+				}
+			}
+		}
+		
+		// Shutdown waits for the process to exit, so is done outside the lock
+		for (ExternalIndexerRunner runner : idle) {
+			runner.fLog.debug("Shutting down idle indexer process");
+			runner.shutdown();
+		}
 	}
 	
 	public static void shutdownRunners() {
-		synchronized (fRunnerList) {
-			for (ExternalIndexerRunner runner : fRunnerList) {
-				runner.shutdown();
+		List<ExternalIndexerRunner> runners;
+		synchronized (ExternalIndexerRunner.class) {
+			if (fIdleTimer != null) {
+				fIdleTimer.cancel();
+				fIdleTimer = null;
 			}
+			runners = new ArrayList<ExternalIndexerRunner>(fRunnerList);
+			fRunnerList.clear();
+		}
+		
+		for (ExternalIndexerRunner runner : runners) {
+			runner.shutdown();
 		}
 	}
 	
@@ -72,19 +140,27 @@ public class ExternalIndexerRunner {
 	public void shutdown() {
 		// Should mark as a dead runner
 		
+		if (fServer == null || fProcess == null) {
+			// Indexer process never started
+			if (fServer != null) {
+				fServer.shutdown();
+			}
+			return;
+		}
+		
 		// Send a shutdown request
 		fServer.send_exit_msg();
 		
 		ExternalIndexerMsg msg = new ExternalIndexerMsg();
 		msg.write_str(ExternalIndexerMsgType.EXIT_MSG.toString());
 		
-		System.out.println("--> Wait process");
+		fLog.debug("--> Wait process");
 		try {
 			fProcess.waitFor(10000, TimeUnit.MILLISECONDS);
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			fLog.error("Interrupted while waiting for indexer process", e);
 		}
-		System.out.println("<-- Wait process");
+		fLog.debug("<-- Wait process");
 
 		// Somehow the process didn't actually die
 		if (fProcess.isAlive()) {
@@ -95,11 +171,11 @@ public class ExternalIndexerRunner {
 		// Ensure process is reaped
 		fProcess.exitValue();
 	
-		System.out.println("--> Shutdown I/O threads");
+		fLog.debug("--> Shutdown I/O threads");
 		// Wait for a bit for the process to exit
 		try { fStdout.join(10000); } catch (InterruptedException e) { }
 		try { fStderr.join(10000); } catch (InterruptedException e) { }
-		System.out.println("<-- Shutdown I/O threads");
+		fLog.debug("<-- Shutdown I/O threads");
 		
 		fServer.shutdown();
 		
@@ -119,7 +195,8 @@ public class ExternalIndexerRunner {
 		try {
 			fServer = new ExternalIndexerServer();
 		} catch (IOException e) {
-			e.printStackTrace();
+			fLog.error("Failed to create indexer server socket", e);
+			return;
 		}
 		
 		String this_pkg = getClass().getPackage().getName();
@@ -164,7 +241,8 @@ public class ExternalIndexerRunner {
 					cmdline.toArray(new String[cmdline.size()])
 					);
 		} catch (IOException e) {
-			e.printStackTrace();
+			fLog.error("Failed to launch indexer process", e);
+			return;
 		}
 	
 		fStdout = new Listener(fProcess.getInputStream());
@@ -174,17 +252,66 @@ public class ExternalIndexerRunner {
 		fStderr.start();
 			
 		try {
-			System.out.println("--> Connect");
+			fLog.debug("--> Connect");
 			fServer.connect();
-			System.out.println("<-- Connect");
+			fLog.debug("<-- Connect");
 		} catch (IOException e) {
-			e.printStackTrace();
+			fLog.error("Failed to connect to indexer process", e);
 		}
 			
-		//
 		markActive();
-		
-		// TODO: Launch timeout thread
+	}
+
+	public boolean isAlive() {
+		return (fServer != null && fServer.isConnected());
+	}
+	
+	/**
+	 * Sends the configuration for a new build. Must be called 
+	 * before the first call to {@link #parse_file} for a build
+	 * 
+	 * @param force_sv
+	 * @param defines
+	 */
+	public void setup(
+			boolean						force_sv,
+			Collection<SVDBMacroDef>	defines) throws IOException {
+		if (!isAlive()) {
+			throw new IOException("Indexer process is not running");
+		}
+		fServer.do_setup(force_sv, defines);
+	}
+	
+	/**
+	 * Parses a root file in the indexer process. File ids and include
+	 * files are resolved through 'mapper' and 'inc_provider', just as 
+	 * for an in-process build. 
+	 * 
+	 * @return parse result, or null if the indexer was unable to parse the file
+	 * @throws IOException if communication with the indexer process fails
+	 */
+	public ExternalIndexerParseResult parse_file(
+			String						path,
+			ISVPreProcFileMapper		mapper,
+			ISVPreProcIncFileProvider	inc_provider) throws IOException {
+		return parse_file(path, mapper, inc_provider, null);
+	}
+
+	/**
+	 * Parses a root file in the indexer process. 'preproc_done' is 
+	 * called once the indexer has pre-processed the file, and no 
+	 * more file ids will be assigned or include files added
+	 * to the include-file cache on its behalf
+	 */
+	public ExternalIndexerParseResult parse_file(
+			String						path,
+			ISVPreProcFileMapper		mapper,
+			ISVPreProcIncFileProvider	inc_provider,
+			Runnable					preproc_done) throws IOException {
+		if (!isAlive()) {
+			throw new IOException("Indexer process is not running");
+		}
+		return fServer.do_parse(path, mapper, inc_provider, preproc_done);
 	}
 
 	public void build_index(
@@ -194,9 +321,13 @@ public class ExternalIndexerRunner {
 		fServer.do_index(argfile, monitor, build_data);
 	}
 	
+	/**
+	 * Records that the runner is in use, so it is not shut down
+	 * as idle. Returns false if the runner is no longer usable
+	 */
 	private boolean markActive() {
-		// TODO:
-		return true;
+		fLastActive = System.currentTimeMillis();
+		return isAlive();
 	}
 
 	private static final class Listener extends Thread {
@@ -266,7 +397,7 @@ public class ExternalIndexerRunner {
 		return plugin_loc;
 	}
 	
-	private static void addPluginPath(
+	private void addPluginPath(
 			StringBuilder 		cp, 
 			File 				eclipse_home, 
 			String 				plugin) {
@@ -282,7 +413,7 @@ public class ExternalIndexerRunner {
 			}
 		}
 		
-		System.out.println("plugin: " + plugin + " plugin_path: " + plugin_path);
+		fLog.debug("plugin: " + plugin + " plugin_path: " + plugin_path);
 		if (plugin_path != null) {
 			addPath(cp, plugin_path.getAbsolutePath());
 		}
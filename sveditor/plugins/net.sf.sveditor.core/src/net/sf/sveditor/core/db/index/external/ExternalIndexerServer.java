@@ -1,18 +1,39 @@
 package net.sf.sveditor.core.db.index.external;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import net.sf.sveditor.core.Tuple;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBFileTree;
+import net.sf.sveditor.core.db.SVDBMacroDef;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.SVDBIndexStats;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexBuildData;
+import net.sf.sveditor.core.db.persistence.DBFormatException;
+import net.sf.sveditor.core.db.persistence.DBWriteException;
+import net.sf.sveditor.core.db.persistence.IDBReader;
+import net.sf.sveditor.core.db.persistence.IDBWriter;
+import net.sf.sveditor.core.db.persistence.SVDBPersistenceRW;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+import net.sf.sveditor.core.preproc.ISVPreProcFileMapper;
+import net.sf.sveditor.core.preproc.ISVPreProcIncFileProvider;
 
 public class ExternalIndexerServer extends Thread {
+	private static final int			CONNECT_TIMEOUT_MS = 60000;
 	private ServerSocket				fServerSock;
 	private Socket						fSocket;
 	private InputStream					fIn;
@@ -23,11 +44,17 @@ public class ExternalIndexerServer extends Thread {
 	private int							fBufIdx;
 	private List<ExternalIndexerMsg>	fMsgMailbox;
 	private boolean						fIsAlive;
+	private IDBReader					fReader;
+	private IDBWriter					fWriter;
+	private LogHandle					fLog;
 	
 	public ExternalIndexerServer() throws IOException {
+		fLog = LogFactory.getLogHandle("ExternalIndexerServer");
 		fServerSock = new ServerSocket(0);
 		fBuf = new byte[1024];
 		fMsgMailbox = new ArrayList<ExternalIndexerMsg>();
+		fReader = new SVDBPersistenceRW();
+		fWriter = new SVDBPersistenceRW();
 	}
 	
 	public void setProgressMonitor(IProgressMonitor monitor) {
@@ -39,43 +66,43 @@ public class ExternalIndexerServer extends Thread {
 	}
 
 	public void connect() throws IOException {
-		System.out.println("--> accept");
+		fLog.debug("--> accept");
+		// Don't wait forever if the indexer process fails to start
+		fServerSock.setSoTimeout(CONNECT_TIMEOUT_MS);
 		fSocket = fServerSock.accept();
-		System.out.println("<-- accept");
+		fLog.debug("<-- accept");
 		
 		try {
 			fIn = fSocket.getInputStream();
 			fOut = fSocket.getOutputStream();
 		} catch (IOException e) { 
-			e.printStackTrace();
+			fLog.error("Failed to open indexer connection streams", e);
 		}
 		fIsAlive = true;
 		start();
 	}
 	
 	public void shutdown() {
-		synchronized (this) {
+		synchronized (fMsgMailbox) {
 			fIsAlive = false;
+			fMsgMailbox.notifyAll();
+		}
+	}
+	
+	public boolean isConnected() {
+		synchronized (fMsgMailbox) {
+			return fIsAlive;
 		}
 	}
 	
 	public void run() {
 		ExternalIndexerMsg msg = new ExternalIndexerMsg();
-		ExternalIndexerMsg s_msg = new ExternalIndexerMsg();
-	
-//		s_msg.write_str(ExternalIndexerMsgType.INIT_MSG.toString());
-//		try {
-//			s_msg.send(fOut);
-//			fOut.flush();
-//		} catch (IOException e) {
-//			e.printStackTrace();
-//		}
 		
 		while (true) {
 			try {
 				msg.recv(fIn);
 			} catch (IOException e) {
-				System.out.println("Recv Thread: IOException");
+				fLog.debug("Indexer connection closed: " + e.getMessage());
 				break;
 			}
 			
@@ -86,23 +113,36 @@ public class ExternalIndexerServer extends Thread {
 			String mt_s = msg.read_str();
 			ExternalIndexerMsgType mt = ExternalIndexerMsgType.valueOf(mt_s);
 			
-			System.out.println("mt: " + mt);
 			switch (mt) {
-				case INDEX_RSP_MSG:
+				case DEBUG_MSG:
+					fLog.debug("Indexer debug message");
+					break;
+					
+				default:
+					// Responses and requests from the indexer are 
+					// processed by the thread waiting on the indexer
+					msg.rewind();
 					synchronized (fMsgMailbox) {
 						fMsgMailbox.add(msg);
 						msg = new ExternalIndexerMsg();
 						fMsgMailbox.notifyAll();
 					}
 					break;
-				case DEBUG_MSG:
-					System.out.println("Debug:");
-					break;
 			}
 		}
+		
+		// Release any thread waiting for a response
+		synchronized (fMsgMailbox) {
+			fIsAlive = false;
+			fMsgMailbox.notifyAll();
+		}
 	}
 	
 	public void send_exit_msg() {
+		if (fOut == null) {
+			// Never connected
+			return;
+		}
 		ExternalIndexerMsg msg = new ExternalIndexerMsg();
 	
 		msg.write_str(ExternalIndexerMsgType.EXIT_MSG.toString());
@@ -125,33 +165,224 @@ public class ExternalIndexerServer extends Thread {
 			msg.send(fOut);
 			fOut.flush();
 		} catch (IOException e) {
-			e.printStackTrace();
+			fLog.error("Failed to send index request for " + argfile, e);
 		}
 		
-		ExternalIndexerMsg rsp = get_msg();
-		System.out.println("Received index response");
+		get_msg();
+		fLog.debug("Received index response");
 	}
 
-	private ExternalIndexerMsg get_msg() {
-		ExternalIndexerMsg msg = null;
+	/**
+	 * Sends the per-build configuration to the indexer. The configuration
+	 * applies to all subsequent parse requests
+	 */
+	public void do_setup(
+			boolean						force_sv,
+			Collection<SVDBMacroDef>	defines) throws IOException {
+		ExternalIndexerMsg msg = new ExternalIndexerMsg();
+		msg.write_str(ExternalIndexerMsgType.PARSE_SETUP_MSG.toString());
+		msg.write32((force_sv)?1:0);
 		
-		do {
-			synchronized (fMsgMailbox) {
-				if (fMsgMailbox.size() > 0) {
-					msg = fMsgMailbox.remove(0);
-				}
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(bos);
+			fWriter.init(dos);
+			fWriter.writeItemList(new ArrayList<SVDBMacroDef>(defines));
+			dos.flush();
+			msg.write_bytes(bos.toByteArray());
+		} catch (DBWriteException e) {
+			throw new IOException("Failed to serialize defines: " + e.getMessage());
+		}
+		
+		synchronized (fOut) {
+			msg.send(fOut);
+			fOut.flush();
+		}
+	}
+	
+	/**
+	 * Requests that the indexer parse a root file. File-id and include-file 
+	 * requests from the indexer are serviced by the supplied mapper and 
+	 * include provider while the file is being parsed.
+	 * 
+	 * @return parse result or null if the indexer could not parse the file
+	 */
+	public ExternalIndexerParseResult do_parse(
+			String						path,
+			ISVPreProcFileMapper		mapper,
+			ISVPreProcIncFileProvider	inc_provider) throws IOException {
+		return do_parse(path, mapper, inc_provider, null);
+	}
+	
+	/**
+	 * Requests that the indexer parse a root file. 'preproc_done', if 
+	 * non-null, is called once the indexer reports that the file 
+	 * is pre-processed.
+	 * 
+	 * @return parse result or null if the indexer could not parse the file
+	 */
+	@SuppressWarnings("unchecked")
+	public ExternalIndexerParseResult do_parse(
+			String						path,
+			ISVPreProcFileMapper		mapper,
+			ISVPreProcIncFileProvider	inc_provider,
+			Runnable					preproc_done) throws IOException {
+		ExternalIndexerMsg msg = new ExternalIndexerMsg();
+		msg.write_str(ExternalIndexerMsgType.PARSE_MSG.toString());
+		msg.write_str(path);
+		
+		synchronized (fOut) {
+			msg.send(fOut);
+			fOut.flush();
+		}
+		
+		while (true) {
+			ExternalIndexerMsg rsp = get_msg();
+			
+			if (rsp == null) {
+				throw new IOException("Indexer connection lost while parsing " + path);
 			}
 			
-			if (msg == null) {
-				synchronized (fMsgMailbox) {
+			ExternalIndexerMsgType mt = ExternalIndexerMsgType.valueOf(rsp.read_str());
+			
+			switch (mt) {
+				case PATH_XLATE_REQ: {
+					int id = rsp.read32();
+					String req_path = rsp.read_str();
+					
+					msg.init_write();
+					msg.write_str(ExternalIndexerMsgType.PATH_XLATE_RSP.toString());
+					if (id == -1) {
+						boolean add = (rsp.read32() != 0);
+						msg.write32(mapper.mapFilePathToId(req_path, add));
+						msg.write_str(req_path);
+					} else {
+						String id_path = mapper.mapFileIdToPath(id);
+						msg.write32(id);
+						msg.write_str((id_path != null)?id_path:"");
+					}
+					synchronized (fOut) {
+						msg.send(fOut);
+						fOut.flush();
+					}
+				} break;
+				
+				case INC_FILE_REQ: {
+					String incfile = rsp.read_str();
+					Tuple<String, InputStream> inc = inc_provider.findIncFile(incfile);
+					
+					msg.init_write();
+					msg.write_str(ExternalIndexerMsgType.INC_FILE_RSP.toString());
+					if (inc != null) {
+						// Only the resolved path is returned. The indexer
+						// reads the file directly
+						try {
+							if (inc.second() != null) {
+								inc.second().close();
+							}
+						} catch (IOException e) { }
+						msg.write_str(inc.first());
+					} else {
+						msg.write_str("");
+					}
+					synchronized (fOut) {
+						msg.send(fOut);
+						fOut.flush();
+					}
+				} break;
+				
+				case INC_CACHE_ADD_MSG: {
+					String incfile = rsp.read_str();
+					String rootfile = rsp.read_str();
+					inc_provider.addCachedIncFile(incfile, rootfile);
+				} break;
+				
+				case PREPROC_DONE_MSG: {
+					if (preproc_done != null) {
+						preproc_done.run();
+					}
+				} break;
+				
+				case PARSE_RSP_MSG: {
+					String rsp_path = rsp.read_str();
+					int status = rsp.read32();
+					
+					if (status == 0) {
+						// The caller re-parses the file in-process, which
+						// reports any errors as markers
+						fLog.error("Indexer failed to parse " + 
+								rsp_path + ": " + rsp.read_str());
+						return null;
+					}
+					
+					SVDBIndexStats stats = new SVDBIndexStats();
+					stats.setNumProcessedFiles(rsp.read32());
+					stats.setNumLines(rsp.read32());
+					stats.setLastIndexFileReadTimeNS(rsp.read64());
+					stats.setLastIndexPreProcessTimeNS(rsp.read64());
+					stats.setLastIndexParseTimeNS(rsp.read64());
+				
 					try {
-						fMsgMailbox.wait();
-					} catch (InterruptedException e) {
-						break;
+						SVDBFile file = new SVDBFile();
+						fReader.init(new DataInputStream(
+								new ByteArrayInputStream(rsp.read_bytes())));
+						fReader.readObject(null, SVDBFile.class, file);
+						
+						SVDBFileTree ft = new SVDBFileTree();
+						fReader.init(new DataInputStream(
+								new ByteArrayInputStream(rsp.read_bytes())));
+						fReader.readObject(null, SVDBFileTree.class, ft);
+						
+						fReader.init(new DataInputStream(
+								new ByteArrayInputStream(rsp.read_bytes())));
+						List<SVDBMarker> markers = 
+								(List<SVDBMarker>)fReader.readItemList(null);
+						
+						return new ExternalIndexerParseResult(
+								rsp_path, file, ft, markers, stats);
+					} catch (DBFormatException e) {
+						throw new IOException("Failed to read result for " + 
+								rsp_path + ": " + e.getMessage());
 					}
 				}
+				
+				default:
+					fLog.error("Unexpected indexer message: " + mt);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Waits for the next message from the indexer. Returns null only
+	 * if the connection to the indexer is lost. 
+	 * 
+	 * Interrupting the calling thread (eg when a build is cancelled) 
+	 * does not abandon the wait: the indexer blocks until its requests
+	 * are answered, so the outstanding request must complete for the
+	 * indexer to remain usable. The interrupt status is preserved
+	 */
+	private ExternalIndexerMsg get_msg() {
+		ExternalIndexerMsg msg = null;
+		boolean interrupted = false;
+		
+		synchronized (fMsgMailbox) {
+			while (fMsgMailbox.size() == 0 && fIsAlive) {
+				try {
+					fMsgMailbox.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			
+			if (fMsgMailbox.size() > 0) {
+				msg = fMsgMailbox.remove(0);
 			}
-		} while (msg == null);
+		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
 		
 		return msg;
 	}
@@ -3,14 +3,13 @@ package net.sf.sveditor.core.db.index.ops;
 import java.util.ArrayList;
 import java.util.List;
 
-import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 import net.sf.sveditor.core.db.SVDBMacroDef;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.ISVDBIndexOperation;
 import net.sf.sveditor.core.db.index.ISVDBIndexOperationRunner;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
-import net.sf.sveditor.core.db.search.ISVDBFindNameMatcher;
+import net.sf.sveditor.core.db.search.SVDBFindByNameMatcher;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -31,13 +30,7 @@ public class SVDBFindMacroOp implements ISVDBIndexOperation {
 	public void index_operation(IProgressMonitor monitor, ISVDBIndex index) {
 		if (fMacroDef == null) {
 			List<SVDBDeclCacheItem> result = index.findGlobalScopeDecl(new NullProgressMonitor(), fMacro, 
-					new ISVDBFindNameMatcher() {
-						
-						public boolean match(ISVDBNamedItem it, String name) {
-							return (it.getType() == SVDBItemType.MacroDef &&
-									it.getName().equals(name));
-						}
-					});
+					new SVDBFindByNameMatcher(SVDBItemType.MacroDef));
 			if (result.size() > 0) {
 				fMacroDef = (SVDBMacroDef)result.get(0).getSVDBItem();
 			}
@@ -1,12 +1,19 @@
 package net.sf.sveditor.core.db.index.plugin;
 
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndex;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
+import net.sf.sveditor.core.db.index.cache.file.SVDBIndexSnapshot;
 import net.sf.sveditor.core.log.LogFactory;
 
 public class SVDBPluginLibIndex extends SVDBArgFileIndex {
+	private File				fSnapshotDir;
+	private String				fSnapshotKey;
 	
 	public SVDBPluginLibIndex(
 			String 			project, 
@@ -23,4 +30,31 @@ public class SVDBPluginLibIndex extends SVDBArgFileIndex {
 		fLog = LogFactory.getLogHandle("SVDBPluginLibIndex");
 	}
 	
+	/**
+	 * Requests that a snapshot of the index be saved to 'dir' 
+	 * once the index is built
+	 */
+	public void setSnapshotTarget(File dir, String key) {
+		fSnapshotDir = dir;
+		fSnapshotKey = key;
+	}
+
+	@Override
+	protected void rebuild_index(IProgressMonitor monitor) {
+		super.rebuild_index(monitor);
+		
+		if (fSnapshotDir != null && !monitor.isCanceled()) {
+			File parent = fSnapshotDir.getParentFile();
+			try {
+				if (!parent.isDirectory() && !parent.mkdirs()) {
+					throw new IOException("Failed to create " + parent);
+				}
+				SVDBIndexSnapshot.write(fSnapshotDir, fSnapshotKey, getCache());
+			} catch (IOException e) {
+				fLog.error("Failed to save snapshot of " + getBaseLocation(), e);
+			}
+			fSnapshotDir = null;
+		}
+	}
+	
 }
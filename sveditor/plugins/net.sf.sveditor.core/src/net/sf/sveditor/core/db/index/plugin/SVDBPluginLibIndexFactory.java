@@ -12,16 +12,52 @@
 
 package net.sf.sveditor.core.db.index.plugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
 import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.ISVDBIndexFactory;
 import net.sf.sveditor.core.db.index.SVDBIndexConfig;
 import net.sf.sveditor.core.db.index.cache.ISVDBIndexCache;
+import net.sf.sveditor.core.db.index.cache.file.SVDBIndexSnapshot;
+import net.sf.sveditor.core.db.index.cache.file.SVDBIndexSnapshotCache;
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Platform;
+import org.osgi.framework.Bundle;
 
+/**
+ * Creates indexes for the libraries registered via the SVLibraries
+ * extension point.
+ *
+ * Library indexes are loaded from a prebuilt snapshot when one exists
+ * for the library version and define set. Snapshots are located in:
+ * <ul>
+ * <li>The SNAPSHOT_DIR directory of the plugin that provides the library</li>
+ * <li>The directory named by the SNAPSHOT_DIR_PROPERTY system property,
+ * if set, or the 'pluginlib' directory of the core-plugin state location</li>
+ * </ul>
+ * When no snapshot is found, a snapshot is saved to the second location
+ * once the library is built, and is shared by subsequent clients
+ */
 public class SVDBPluginLibIndexFactory implements ISVDBIndexFactory {
 	
 	public static final String			TYPE = "net.sf.sveditor.pluginLibIndex"; 
 
+	public static final String			SNAPSHOT_DIR = "index_snapshots";
+
+	public static final String			SNAPSHOT_DIR_PROPERTY = "sveditor.pluginlib.snapshot_dir";
+
+	private static LogHandle			fLog = LogFactory.getLogHandle("SVDBPluginLibIndexFactory");
+
 	public ISVDBIndex createSVDBIndex(
 			String 					project, 
 			String 					base_location,
@@ -29,6 +65,10 @@ public class SVDBPluginLibIndexFactory implements ISVDBIndexFactory {
 			SVDBIndexConfig			config) {
 		for (SVDBPluginLibDescriptor d : SVCorePlugin.getDefault().getPluginLibList()) {
 			if (d.getId().equals(base_location)) {
+				if (!project.equals("__SVE_BUILTIN")) {
+					return createSnapshotIndex(project, d, cache, config);
+				}
+				// The built-in library is always rebuilt in-memory
 				return new SVDBPluginLibIndex(
 						project, 
 						d.getId(), 
@@ -41,4 +81,156 @@ public class SVDBPluginLibIndexFactory implements ISVDBIndexFactory {
 		return null;
 	}
 
+	/**
+	 * Creates an index for library 'd' that is loaded from a snapshot, 
+	 * if one exists, or that saves a snapshot once built
+	 */
+	private SVDBPluginLibIndex createSnapshotIndex(
+			String 						project,
+			SVDBPluginLibDescriptor		d,
+			ISVDBIndexCache				cache,
+			SVDBIndexConfig				config) {
+		String key = getSnapshotKey(d, config);
+		SVDBIndexSnapshot snapshot = findSnapshot(d, key);
+		SVDBPluginLibIndex index;
+
+		if (snapshot != null) {
+			fLog.debug("Loading library " + d.getId() + " from snapshot " +
+					snapshot.getDir());
+			// Any data saved for this index is superseded by the snapshot
+			cache.clear(new NullProgressMonitor());
+			index = new SVDBPluginLibIndex(
+					project,
+					d.getId(),
+					d.getNamespace(),
+					d.getPath(),
+					new SVDBIndexSnapshotCache(snapshot, cache));
+		} else {
+			index = new SVDBPluginLibIndex(
+					project,
+					d.getId(),
+					d.getNamespace(),
+					d.getPath(),
+					cache);
+			File dir = getSharedSnapshotDir();
+			if (dir != null) {
+				index.setSnapshotTarget(
+						new File(dir, getSnapshotName(d, key)), key);
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the key that identifies snapshots of library 'd'. The key
+	 * captures the library-plugin version, the core version, and the
+	 * global defines
+	 */
+	public static String getSnapshotKey(
+			SVDBPluginLibDescriptor		d,
+			SVDBIndexConfig				config) {
+		StringBuilder key = new StringBuilder();
+		Bundle bundle = Platform.getBundle(d.getNamespace());
+
+		key.append(d.getId());
+		key.append(";");
+		if (bundle != null) {
+			key.append(bundle.getVersion().toString());
+		}
+		key.append(";");
+		key.append(SVCorePlugin.getVersion());
+		key.append(";");
+
+		if (config != null && config.containsKey(KEY_GlobalDefineMap)) {
+			@SuppressWarnings("unchecked")
+			Map<String, String> define_map = new TreeMap<String, String>(
+					(Map<String, String>)config.get(KEY_GlobalDefineMap));
+			for (Entry<String, String> e : define_map.entrySet()) {
+				key.append(e.getKey());
+				key.append("=");
+				key.append(e.getValue());
+				key.append(",");
+			}
+		}
+
+		return key.toString();
+	}
+
+	/**
+	 * Returns the snapshot directory name for library 'd' and 'key'
+	 */
+	public static String getSnapshotName(SVDBPluginLibDescriptor d, String key) {
+		return d.getId() + "_" + Integer.toHexString(key.hashCode());
+	}
+
+	/**
+	 * Returns the directory in which snapshots built at runtime are stored
+	 */
+	public static File getSharedSnapshotDir() {
+		String dir = System.getProperty(SNAPSHOT_DIR_PROPERTY);
+
+		if (dir != null) {
+			return new File(dir);
+		} else if (SVCorePlugin.getDefault() != null) {
+			return new File(
+					SVCorePlugin.getDefault().getStateLocation().toFile(),
+					"pluginlib");
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a snapshot of 'index' to 'snapshot_dir', for example to
+	 * package in the SNAPSHOT_DIR directory of the library plugin.
+	 * Returns the snapshot directory
+	 */
+	public static File writeSnapshot(
+			File						snapshot_dir,
+			SVDBPluginLibDescriptor		d,
+			SVDBIndexConfig				config,
+			ISVDBIndex					index) throws IOException {
+		String key = getSnapshotKey(d, config);
+		File dir = new File(snapshot_dir, getSnapshotName(d, key));
+
+		if (!snapshot_dir.isDirectory() && !snapshot_dir.mkdirs()) {
+			throw new IOException("Failed to create " + snapshot_dir);
+		}
+
+		SVDBIndexSnapshot.write(dir, key, index.getCache());
+
+		return dir;
+	}
+
+	private static SVDBIndexSnapshot findSnapshot(
+			SVDBPluginLibDescriptor		d,
+			String						key) {
+		String name = getSnapshotName(d, key);
+		SVDBIndexSnapshot ret = null;
+
+		// First, look for a snapshot shipped with the library
+		Bundle bundle = Platform.getBundle(d.getNamespace());
+		URL url = (bundle != null)?bundle.getEntry(SNAPSHOT_DIR + "/" + name):null;
+
+		if (url != null) {
+			try {
+				URL file_url = FileLocator.toFileURL(url);
+				ret = SVDBIndexSnapshot.acquire(new File(file_url.getPath()), key);
+			} catch (IOException e) {
+				fLog.error("Failed to locate snapshot " + name + " in " +
+						d.getNamespace(), e);
+			}
+		}
+
+		if (ret == null) {
+			File dir = getSharedSnapshotDir();
+			if (dir != null) {
+				ret = SVDBIndexSnapshot.acquire(new File(dir, name), key);
+			}
+		}
+
+		return ret;
+	}
+
 }
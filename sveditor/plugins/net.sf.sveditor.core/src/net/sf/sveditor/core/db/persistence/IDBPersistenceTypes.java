@@ -27,7 +27,6 @@ public interface IDBPersistenceTypes {
 	int					TYPE_BOOL_TRUE		= 11;
 	int					TYPE_ENUM			= 12;
 	int					TYPE_BYTE_ARRAY		= 13;
-	int					TYPE_SVDB_LOCATION	= 14;
 	int					TYPE_MAP			= 15;
 	int					TYPE_LONG_LIST		= 16;
 	int					TYPE_OBJECT_LIST	= 17;
@@ -35,6 +34,12 @@ public interface IDBPersistenceTypes {
 	int					TYPE_INT_SET		= 19;
 	int					TYPE_LONG_SET		= 20;
 	
+	// Compact-format types
+	int					TYPE_VARINT			= 21;
+	int					TYPE_STRING_DEF		= 22;
+	int					TYPE_STRING_REF		= 23;
+	int					TYPE_ITEM_COMPACT	= 24;
+	
 	int					TYPE_MAX			= 31;
 	
 
@@ -21,7 +21,6 @@ import net.sf.sveditor.core.db.ISVDBChildItem;
 import net.sf.sveditor.core.db.ISVDBChildParent;
 import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.SVDBItemType;
-import net.sf.sveditor.core.db.SVDBLocation;
 
 @SuppressWarnings("rawtypes")
 public interface ISVDBPersistenceRWDelegateParent {
@@ -34,8 +33,6 @@ public interface ISVDBPersistenceRWDelegateParent {
 
 	void readObject(ISVDBChildItem parent, Class<?> cls, Object obj) throws DBFormatException;
 
-	SVDBLocation readSVDBLocation() throws DBFormatException;
-
 	String readString() throws DBFormatException;
 
 	int readRawType() throws DBFormatException;
@@ -94,8 +91,6 @@ public interface ISVDBPersistenceRWDelegateParent {
 	
 	void writeLongList(List<Long> items) throws DBWriteException;
 	
-	void writeSVDBLocation(SVDBLocation loc) throws DBWriteException;
-	
 	void writeString(String val) throws DBWriteException;
 	
 	void writeInt(int val) throws DBWriteException;
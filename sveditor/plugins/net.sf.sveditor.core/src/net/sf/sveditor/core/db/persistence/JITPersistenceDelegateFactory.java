@@ -29,10 +29,10 @@ import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.SVDBFile;
 import net.sf.sveditor.core.db.SVDBFileTree;
 import net.sf.sveditor.core.db.SVDBItemType;
-import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.db.attr.SVDBDoNotSaveAttr;
 import net.sf.sveditor.core.db.attr.SVDBParentAttr;
 import net.sf.sveditor.core.db.index.SVDBBaseIndexCacheData;
+import net.sf.sveditor.core.db.index.SVDBFileFingerprint;
 import net.sf.sveditor.core.db.index.SVDBDeclCacheItem;
 import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexCacheData;
@@ -61,8 +61,6 @@ public class JITPersistenceDelegateFactory implements Opcodes {
 	private static final String READ_ENUM_TYPE_SIG = "(Ljava/lang/Class;)Ljava/lang/Enum;";
 	private static final String WRITE_STRING_SIG   = "(Ljava/lang/String;)V";
 	private static final String READ_STRING_SIG   = "()Ljava/lang/String;";
-	private static final String WRITE_LOCATION_SIG   = "(Lnet/sf/sveditor/core/db/SVDBLocation;)V";
-	private static final String READ_LOCATION_SIG   = "()Lnet/sf/sveditor/core/db/SVDBLocation;";
 	private static final String READ_LIST_SIG       = "()Ljava/util/List;";
 	private static final String WRITE_LIST_SIG      = "(Ljava/util/List;)V";
 	private static final String READ_SET_SIG       = "()Ljava/util/Set;";
@@ -126,6 +124,7 @@ public class JITPersistenceDelegateFactory implements Opcodes {
 		fClassList.add(SVDBDeclCacheItem.class);
 		fClassList.add(SVDBRefCacheEntry.class);
 		fClassList.add(SVDBRootFileCacheData.class);
+		fClassList.add(SVDBFileFingerprint.class);
 		
 		fClassSet.addAll(fClassList);
 	}
@@ -140,6 +139,14 @@ public class JITPersistenceDelegateFactory implements Opcodes {
 					cls = cl.loadClass(pkg + ".SVDB" + t.name()); 
 				} catch (Exception e) {}
 				
+				if (cls == null) {
+					// Non-SystemVerilog items (eg VHEntityDecl) are 
+					// named after their type
+					try {
+						cls = cl.loadClass(pkg + "." + t.name());
+					} catch (Exception e) {}
+				}
+				
 				if (cls != null) {
 					break;
 				}
@@ -1062,38 +1069,6 @@ public class JITPersistenceDelegateFactory implements Opcodes {
 							mv.visitMethodInsn(INVOKESPECIAL, fBaseClass, "readBoolean", READ_BOOL_SIG);
 							mv.visitFieldInsn(PUTFIELD, tgt_classname, f.getName(), "Z"); 
 						}
-					} else if (SVDBLocation.class == field_class) {
-						if (fDebugEn) {
-							debug("  " + fLevel + " Field " + f.getName() + " is an SVDBLocation");
-						}
-						if (write) {
-							// Load the parent handle
-							mv.visitVarInsn(ALOAD, THIS_VAR); 
-							
-							mv.visitVarInsn(ALOAD, WRITE_OBJ_VAR);
-							mv.visitFieldInsn(GETFIELD, tgt_classname, f.getName(), 
-									"L" + field_classname + ";");
-							// field value left on stack
-							
-							// Call writeString
-							// Stack layout:
-							// field value
-							// parent handle
-							mv.visitMethodInsn(INVOKESPECIAL, fBaseClass, "writeSVDBLocation", WRITE_LOCATION_SIG);
-						} else {
-							mv.visitVarInsn(ALOAD, READ_OBJ_VAR); // used by final PUTFIELD
-							
-							// Load the parent handle
-							mv.visitVarInsn(ALOAD, THIS_VAR); 
-							
-							// Call readString
-							// Stack layout:
-							// parent handle
-							mv.visitMethodInsn(INVOKESPECIAL, fBaseClass, 
-									"readSVDBLocation", READ_LOCATION_SIG);
-							mv.visitFieldInsn(PUTFIELD, tgt_classname, f.getName(), 
-									"L" + field_classname + ";");
-						}
 					} else if (ISVDBItemBase.class.isAssignableFrom(field_class)) {
 						if (fDebugEn) {
 							debug("  " + fLevel + " Field " + f.getName() + " is an ISVDBItemBase");
@@ -28,7 +28,6 @@ import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.db.ISVDBChildItem;
 import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.SVDBItemType;
-import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.db.attr.SVDBDoNotSaveAttr;
 import net.sf.sveditor.core.db.attr.SVDBParentAttr;
 import net.sf.sveditor.core.log.LogFactory;
@@ -89,6 +88,10 @@ public class SVDBDefaultPersistenceRW extends SVDBPersistenceRWDelegateBase {
 							cls = cl.loadClass(pref + key);
 							break;
 						} catch (Exception e) { }
+						try {
+							cls = cl.loadClass(pref + v.name());
+							break;
+						} catch (Exception e) { }
 					}
 
 					if (cls == null) {
@@ -324,15 +327,6 @@ public class SVDBDefaultPersistenceRW extends SVDBPersistenceRWDelegateBase {
 						} else {
 							f.setBoolean(target, readBoolean());
 						}
-					} else if (SVDBLocation.class == field_class) {
-						if (fDebugEn) {
-							debug("  " + fLevel + " Field " + f.getName() + " is an SVDBLocation");
-						}
-						if (write) {
-							writeSVDBLocation((SVDBLocation)field_value);
-						} else {
-							f.set(target, readSVDBLocation());
-						}
 					} else if (ISVDBItemBase.class.isAssignableFrom(field_class)) {
 						if (fDebugEn) {
 							debug("  " + fLevel + " Field " + f.getName() + " is an ISVDBItemBase");
@@ -34,6 +34,7 @@ public class SVDBDelegatingPersistenceRW extends SVDBPersistenceRWBase
 	private Map<Class, ISVDBPersistenceRWDelegate>			fEnumDelegateMap;
 	private List<ISVDBPersistenceRWDelegate>				fDelegateList;
 	private ISVDBPersistenceRWDelegate						fDefaultDelegate;
+	private static final SVDBItemType						fItemTypes[] = SVDBItemType.values();
 	
 	public SVDBDelegatingPersistenceRW() {
 		fObjectDelegateMap = new HashMap<Class, ISVDBPersistenceRWDelegate>();
@@ -258,8 +259,14 @@ public class SVDBDelegatingPersistenceRW extends SVDBPersistenceRWBase
 		if (item == null) {
 			writeRawType(TYPE_NULL);
 		} else {
-			writeRawType(TYPE_ITEM);
-			writeItemType(item.getType());
+			if (fCompact) {
+				// Compact record: the item type is a single varint
+				writeRawType(TYPE_ITEM_COMPACT);
+				writeVarint(item.getType().ordinal());
+			} else {
+				writeRawType(TYPE_ITEM);
+				writeItemType(item.getType());
+			}
 			
 			ISVDBPersistenceRWDelegate d = fSVDBItemDelegateMap.get(item.getType());
 			
@@ -336,13 +343,22 @@ public class SVDBDelegatingPersistenceRW extends SVDBPersistenceRWBase
 			throws DBFormatException {
 		int type = readRawType();
 		
+		SVDBItemType item_type;
+		
 		if (type == TYPE_NULL) {
 			return null;
+		} else if (type == TYPE_ITEM_COMPACT) {
+			int ordinal = (int)readVarint();
+			if (ordinal < 0 || ordinal >= fItemTypes.length) {
+				throw new DBFormatException("Invalid item type " + ordinal);
+			}
+			item_type = fItemTypes[ordinal];
 		} else if (type != TYPE_ITEM) {
 			throw new DBFormatException("Expecting TYPE_ITEM ; received " + type);
+		} else {
+			item_type = readItemType();
 		}
 		
-		SVDBItemType item_type = readItemType();
 		ISVDBPersistenceRWDelegate d = fSVDBItemDelegateMap.get(item_type);
 		
 		if (d != null) {
@@ -15,6 +15,15 @@ package net.sf.sveditor.core.db.persistence;
 public class SVDBPersistenceRW extends SVDBDelegatingPersistenceRW {
 	
 	public SVDBPersistenceRW() {
+		this(false);
+	}
+	
+	/**
+	 * @param compact selects the compact encoding for written data. 
+	 *                Data in either encoding can be read
+	 */
+	public SVDBPersistenceRW(boolean compact) {
+		setCompact(compact);
 		addDelegate(JITPersistenceDelegateFactory.instance().newDelegate());
 	}
 
@@ -15,6 +15,7 @@ package net.sf.sveditor.core.db.persistence;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,50 +24,74 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import net.sf.sveditor.core.db.SVDBLocation;
 
+/**
+ * Base encoder/decoder for the persistence format. Two encodings are
+ * supported for writing:
+ * - Default: fixed-width tagged integers and inline strings 
+ * - Compact: varint-encoded integers and locations, with repeated
+ *   strings written as references into a per-stream string table 
+ * 
+ * The reader accepts both encodings, so caches written in either
+ * format can be read back.
+ */
 public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
+	private static final Charset					fUTF8 = Charset.forName("UTF-8");
 	private byte									fTmp[];
 	protected DataInput								fIn;
 	protected DataOutput							fOut;
+	protected boolean								fCompact;
+	protected SVDBPersistenceStringTable			fStringTable = new SVDBPersistenceStringTable();
 
 	public void init(DataInput in) {
 		fIn = in;
 		fOut = null;
+		fStringTable.clear();
 	}
 	
 	public void init(DataOutput out) {
 		fOut = out;
 		fIn = null;
+		fStringTable.clear();
+	}
+	
+	/**
+	 * Selects the compact encoding for data written by this object
+	 */
+	public void setCompact(boolean compact) {
+		fCompact = compact;
+	}
+	
+	public boolean isCompact() {
+		return fCompact;
+	}
+	
+	/**
+	 * Shares the encoding and string table of another reader/writer. 
+	 * Used by delegates that write to the same stream as their parent
+	 */
+	protected void shareFormat(SVDBPersistenceRWBase other) {
+		fCompact = other.fCompact;
+		fStringTable = other.fStringTable;
 	}
 	
 	public void close() {
 	}
 	
-	public SVDBLocation readSVDBLocation() throws DBFormatException {
+	public String readString() throws DBFormatException {
 		int type = readRawType();
 		
 		if (type == TYPE_NULL) {
 			return null;
 		}
 		
-		if (type != TYPE_SVDB_LOCATION) {
-			throw new DBFormatException("Expecting TYPE_SVDB_LOCATION ; received " + type);
-		}
-
-
-		int fileid = readInt();
-		int line = readInt();
-		int pos  = readInt();
-
-		return new SVDBLocation(fileid, line, pos);
-	}
-
-	public String readString() throws DBFormatException {
-		int type = readRawType();
-		
-		if (type == TYPE_NULL) {
-			return null;
+		if (type == TYPE_STRING_REF) {
+			return fStringTable.get((int)readVarint());
+		} else if (type == TYPE_STRING_DEF) {
+			int len = (int)readVarint();
+			String ret = new String(readBytes(len), 0, len, fUTF8);
+			fStringTable.addRead(ret);
+			return ret;
 		}
 		
 		if (type != TYPE_STRING) {
@@ -75,6 +100,15 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 		
 		int len = readInt();
 		
+		if (len < 0) {
+			throw new DBFormatException("Received string length < 0: " + len);
+		}
+		String ret = new String(readBytes(len), 0, len);
+		
+		return ret;
+	}
+	
+	private byte[] readBytes(int len) throws DBFormatException {
 		if (len < 0) {
 			throw new DBFormatException("Received string length < 0: " + len);
 		}
@@ -86,11 +120,50 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 		} catch (IOException e) {
 			throw new DBFormatException("readString failed: " + e.getMessage());
 		}
-
-		String ret = new String(fTmp, 0, len);
+		
+		return fTmp;
+	}
+	
+	/**
+	 * Reads an unsigned LEB128-encoded value
+	 */
+	protected long readVarint() throws DBFormatException {
+		long ret = 0;
+		int shift = 0;
+		
+		try {
+			while (true) {
+				int b = fIn.readByte();
+				ret |= ((long)(b & 0x7F)) << shift;
+				if ((b & 0x80) == 0) {
+					break;
+				}
+				shift += 7;
+				if (shift > 63) {
+					throw new DBFormatException("Malformed varint");
+				}
+			}
+		} catch (IOException e) {
+			throw new DBFormatException("readVarint failed: " + e.getMessage());
+		}
 		
 		return ret;
 	}
+	
+	/**
+	 * Writes an unsigned LEB128-encoded value
+	 */
+	protected void writeVarint(long val) throws DBWriteException {
+		try {
+			while ((val & ~0x7FL) != 0) {
+				fOut.write((int)((val & 0x7F) | 0x80));
+				val >>>= 7;
+			}
+			fOut.write((int)val);
+		} catch (IOException e) {
+			throw new DBWriteException("writeVarint failed: " + e.getMessage());
+		}
+	}
 
 	public int readRawType() throws DBFormatException {
 		int ret = -1;
@@ -341,6 +414,11 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 	public long readLong() throws DBFormatException {
 		int type = readRawType();
 		long ret = -1;
+		if (type == TYPE_VARINT) {
+			// zig-zag encoded
+			long v = readVarint();
+			return (v >>> 1) ^ -(v & 1);
+		}
 		if (type < TYPE_INT_8 || type > TYPE_INT_64) {
 			throw new DBFormatException("Invalid int type " + type);
 		}
@@ -370,6 +448,11 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 	public int readInt() throws DBFormatException {
 		int type = readRawType();
 		int ret = -1;
+		if (type == TYPE_VARINT) {
+			// zig-zag encoded
+			long v = readVarint();
+			return (int)((v >>> 1) ^ -(v & 1));
+		}
 		if (type < TYPE_INT_8 || type > TYPE_INT_32) {
 			throw new DBFormatException("Invalid int type " + type);
 		}
@@ -530,20 +613,25 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 		}
 	}
 
-	public void writeSVDBLocation(SVDBLocation loc) throws DBWriteException {
-		if (loc == null) {
-			writeRawType(TYPE_NULL);
-		} else {
-			writeRawType(TYPE_SVDB_LOCATION);
-			writeInt(loc.getFileId());
-			writeInt(loc.getLine());
-			writeInt(loc.getPos());
-		}
-	}
-
 	public void writeString(String val) throws DBWriteException {
 		if (val == null) {
 			writeRawType(TYPE_NULL);
+		} else if (fCompact) {
+			int idx = fStringTable.find(val);
+			if (idx != -1) {
+				writeRawType(TYPE_STRING_REF);
+				writeVarint(idx);
+			} else {
+				byte data[] = val.getBytes(fUTF8);
+				writeRawType(TYPE_STRING_DEF);
+				writeVarint(data.length);
+				try {
+					fOut.write(data);
+				} catch (IOException e) {
+					throw new DBWriteException("writeString failed: " + e.getMessage());
+				}
+				fStringTable.add(val);
+			}
 		} else {
 			try {
 				writeRawType(TYPE_STRING);
@@ -556,6 +644,11 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 	}
 
 	public void writeInt(int val) throws DBWriteException {
+		if (fCompact) {
+			writeRawType(TYPE_VARINT);
+			writeVarint(((val << 1) ^ (val >> 31)) & 0xFFFFFFFFL);
+			return;
+		}
 		try {
 			if (val < 0) {
 				if (val >= -0x000000FF) {
@@ -586,6 +679,11 @@ public abstract class SVDBPersistenceRWBase implements IDBPersistenceTypes {
 	}
 
 	public void writeLong(long val) throws DBWriteException {
+		if (fCompact) {
+			writeRawType(TYPE_VARINT);
+			writeVarint((val << 1) ^ (val >> 63));
+			return;
+		}
 		try {
 			if (val < 0) {
 				if (val >= -0x00000000000000FFL) {
@@ -26,6 +26,11 @@ public abstract class SVDBPersistenceRWDelegateBase extends SVDBPersistenceRWBas
 		fParent = parent;
 		fIn = in;
 		fOut = out;
+		
+		// Write with the same encoding as the parent
+		if (parent instanceof SVDBPersistenceRWBase) {
+			shareFormat((SVDBPersistenceRWBase)parent);
+		}
 	}
 
 	public void init(Set<SVDBItemType> supported_items,
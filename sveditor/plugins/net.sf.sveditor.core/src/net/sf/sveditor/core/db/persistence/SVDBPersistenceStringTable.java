@@ -0,0 +1,82 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-stream string table used by the compact persistence format.
+ * The first occurrence of a string in a stream is written in full and
+ * assigned the next index. Later occurrences are written as a reference
+ * to that index. The table is shared by the reader/writer and its
+ * delegates, and is reset each time the reader/writer is initialized.
+ *
+ * @author ballance
+ *
+ */
+public class SVDBPersistenceStringTable {
+	private List<String>				fStrings;
+	private Map<String, Integer>		fIndexMap;
+
+	public SVDBPersistenceStringTable() {
+		fStrings = new ArrayList<String>();
+		fIndexMap = new HashMap<String, Integer>();
+	}
+
+	public void clear() {
+		fStrings.clear();
+		fIndexMap.clear();
+	}
+
+	/**
+	 * Returns the index of the string, or -1 if it is not in the table
+	 */
+	public int find(String str) {
+		Integer idx = fIndexMap.get(str);
+		return (idx != null)?idx.intValue():-1;
+	}
+
+	/**
+	 * Adds a string to the table and returns its index
+	 */
+	public int add(String str) {
+		int idx = fStrings.size();
+		fStrings.add(str);
+		fIndexMap.put(str, idx);
+		return idx;
+	}
+
+	/**
+	 * Adds a string read from the stream. Only the index list is
+	 * maintained while reading
+	 */
+	public void addRead(String str) {
+		fStrings.add(str);
+	}
+
+	public String get(int idx) throws DBFormatException {
+		if (idx < 0 || idx >= fStrings.size()) {
+			throw new DBFormatException("String-table index " + idx +
+					" out of range (size=" + fStrings.size() + ")");
+		}
+		return fStrings.get(idx);
+	}
+
+	public int size() {
+		return fStrings.size();
+	}
+
+}
@@ -48,6 +48,7 @@ import net.sf.sveditor.core.builder.SafeSVBuilderOutput;
 import net.sf.sveditor.core.db.index.ISVDBIndex;
 import net.sf.sveditor.core.db.index.ISVDBIndexStatsProvider;
 import net.sf.sveditor.core.db.index.SVDBIndexCollection;
+import net.sf.sveditor.core.db.index.SVDBIndexFileStats;
 import net.sf.sveditor.core.db.index.SVDBIndexRegistry;
 import net.sf.sveditor.core.db.index.SVDBIndexResourceChangeEvent;
 import net.sf.sveditor.core.db.index.SVDBIndexStats;
@@ -346,9 +347,20 @@ public class SVDBProjectManager implements
 				out.note("  File Read Time: " + stats.getLastIndexFileReadTime() + "ms");
 				out.note("  Pre-Process Time: " + stats.getLastIndexPreProcessTime() + "ms");
 				out.note("  Parse Time: " + stats.getLastIndexParseTime() + "ms");
+				if (stats.getLastIndexLexTimeNS() > 0) {
+					out.note("  Lex Time: " + stats.getLastIndexLexTime() + "ms (" + 
+							SVDBIndexStats.calcNPerS(stats.getNumTokens(), stats.getLastIndexLexTime()) +
+							" tokens per second)");
+				}
 				out.note("  Ref-Cache Time: " + stats.getLastIndexRefCacheTime() + "ms");
 				out.note("  Decl-Cache Time: " + stats.getLastIndexDeclCacheTime() + "ms");
 				out.note("  Total Index Time: " + stats.getLastIndexTotalTime() + "ms");
+				if (stats.getIndexCacheHitRate() != -1) {
+					out.note("  Index-Cache Hit Rate: " + stats.getIndexCacheHitRate() + "%");
+				}
+				for (SVDBIndexFileStats f : stats.getSlowestFiles(5)) {
+					out.note("  Slow File: " + f);
+				}
 			}
 			
 			// Finally, update the markers
@@ -20,6 +20,7 @@ import java.util.Stack;
 
 import net.sf.sveditor.core.db.ISVDBItemBase;
 import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.index.SVDBRootFileCacheData;
 
 /**
  * Builds an index of the identifier references present in a given
@@ -30,16 +31,30 @@ import net.sf.sveditor.core.db.SVDBLocation;
  */
 public class SVDBFileRefCollector implements ISVDBRefFinderVisitor {
 	private Map<String, List<Integer>>	fReferences;
+	private SVDBRootFileCacheData		fRootData;
 	
 	public SVDBFileRefCollector() {
 		this(null);
 	}
 	
 	public SVDBFileRefCollector(Map<String, List<Integer>> ref_map) {
+		this(ref_map, null);
+	}
+
+	/**
+	 * 
+	 * @param ref_map   map of reference name to the ids of files containing it
+	 * @param root_data when non-null, receives the name, location, and type
+	 *                  of each reference
+	 */
+	public SVDBFileRefCollector(
+			Map<String, List<Integer>>	ref_map,
+			SVDBRootFileCacheData		root_data) {
 		if (ref_map == null) {
 			ref_map = new HashMap<String, List<Integer>>();
 		}
 		fReferences = ref_map;
+		fRootData = root_data;
 	}
 
 	public Map<String, List<Integer>> getReferences() {
@@ -78,6 +93,12 @@ public class SVDBFileRefCollector implements ISVDBRefFinderVisitor {
 				addRef(loc, name);
 			} break;
 		}
+		
+		if (fRootData != null && loc != -1 && name != null) {
+			fRootData.fRefNames.add(name);
+			fRootData.fRefLocations.add(loc);
+			fRootData.fRefTypes.add(type.ordinal());
+		}
 	}
 	
 	private void addRef(long loc, String name) {
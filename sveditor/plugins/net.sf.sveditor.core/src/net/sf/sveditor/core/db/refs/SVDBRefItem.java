@@ -1,5 +1,6 @@
 package net.sf.sveditor.core.db.refs;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.sf.sveditor.core.db.ISVDBItemBase;
@@ -9,22 +10,59 @@ public class SVDBRefItem {
 	private List<ISVDBItemBase>			fRefPath;
 	private String						fRefName;
 	private SVDBRefType					fRefType;
+	private long						fLocation = -1;
 	
 	public SVDBRefItem(
 			List<ISVDBItemBase>			ref_path,
 			String						ref_name,
 			SVDBRefType					ref_type) {
+		this(ref_path, ref_name, ref_type, 
+				(ref_path.size() > 0)?ref_path.get(ref_path.size()-1).getLocation():-1);
+	}
+	
+	public SVDBRefItem(
+			List<ISVDBItemBase>			ref_path,
+			String						ref_name,
+			SVDBRefType					ref_type,
+			long						location) {
 		fRefPath = ref_path;
 		fRefName = ref_name;
 		fRefType = ref_type;
+		fLocation = location;
+	}
+	
+	/**
+	 * Creates a reference item from the reference index. These items 
+	 * carry only the location of the reference, and have no scope path
+	 */
+	public SVDBRefItem(
+			long						location,
+			String						ref_name,
+			SVDBRefType					ref_type) {
+		fRefPath = new ArrayList<ISVDBItemBase>();
+		fRefName = ref_name;
+		fRefType = ref_type;
+		fLocation = location;
 	}
 
 	public SVDBFile getRoot() {
-		return (SVDBFile)fRefPath.get(0);
+		return (fRefPath.size() > 0)?(SVDBFile)fRefPath.get(0):null;
 	}
 	
 	public ISVDBItemBase getLeaf() {
-		return fRefPath.get(fRefPath.size()-1);
+		return (fRefPath.size() > 0)?fRefPath.get(fRefPath.size()-1):null;
+	}
+	
+	public String getRefName() {
+		return fRefName;
+	}
+	
+	public SVDBRefType getRefType() {
+		return fRefType;
+	}
+	
+	public long getLocation() {
+		return fLocation;
 	}
 
 }
@@ -55,7 +55,13 @@ public class SVDBRefMatcher implements ISVDBRefFinderVisitor {
 		if (fRefSpec.matches(loc, type, scope, name)) {
 			List<ISVDBItemBase> ref_path = new ArrayList<ISVDBItemBase>();
 			ref_path.addAll(scope);
-			SVDBRefItem ref = new SVDBRefItem(ref_path, name, type);
+			
+			// Report the location of the enclosing scope when the
+			// reference itself has none, as the reference index does
+			for (int i=scope.size()-1; loc == -1 && i>=0; i--) {
+				loc = scope.get(i).getLocation();
+			}
+			SVDBRefItem ref = new SVDBRefItem(ref_path, name, type, loc);
 			fRefCollector.visitRef(fRefSpec, ref);
 		}
 	}
@@ -0,0 +1,49 @@
+package net.sf.sveditor.core.db.refs;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.Stack;
+
+import net.sf.sveditor.core.db.ISVDBItemBase;
+
+/**
+ * Finds references by name and, optionally, reference type. This spec
+ * does not examine the enclosing scope, so indexes may answer it from 
+ * the reference index without loading the referencing files. When 
+ * verification is enabled, the files are loaded and the references 
+ * are re-located in the parsed content.
+ * 
+ * @author ballance
+ *
+ */
+public class SVDBRefSearchSpecByName extends SVDBRefSearchSpecByNameBase {
+	private Set<SVDBRefType>			fRefTypes;
+	private boolean						fVerify;
+	
+	public SVDBRefSearchSpecByName(String name, SVDBRefType ... types) {
+		super(name, NameMatchType.Equals);
+		fRefTypes = EnumSet.noneOf(SVDBRefType.class);
+		for (SVDBRefType t : types) {
+			fRefTypes.add(t);
+		}
+	}
+	
+	public void setVerify(boolean verify) {
+		fVerify = verify;
+	}
+	
+	public boolean isVerify() {
+		return fVerify;
+	}
+
+	@Override
+	public boolean matches(
+			long		 			loc, 
+			SVDBRefType 			type,
+			Stack<ISVDBItemBase> 	scope, 
+			String 					name) {
+		return (fName.equals(name) && 
+				(fRefTypes.size() == 0 || fRefTypes.contains(type)));
+	}
+
+}
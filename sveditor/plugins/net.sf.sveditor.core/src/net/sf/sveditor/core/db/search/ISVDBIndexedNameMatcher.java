@@ -0,0 +1,44 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.db.search;
+
+import net.sf.sveditor.core.db.SVDBItemType;
+
+/**
+ * Name matcher that describes its constraints, so that declaration
+ * indexes can select candidates without scanning every declaration.
+ * The candidates are still filtered with match(), so the description
+ * must select a superset of the items the matcher accepts.
+ */
+public interface ISVDBIndexedNameMatcher extends ISVDBFindNameMatcher {
+	
+	enum NameMatch {
+		// Item name equals the query name
+		Exact,
+		// Item name equals the query name, ignoring case
+		ExactNoCase,
+		// Item name starts with the query name, ignoring case
+		PrefixNoCase,
+		// No constraint on the item name
+		Any
+	};
+	
+	NameMatch getNameMatch();
+	
+	/**
+	 * Returns the item types accepted by the matcher. 
+	 * Null or empty if all types are accepted
+	 */
+	SVDBItemType[] getItemTypes();
+
+}
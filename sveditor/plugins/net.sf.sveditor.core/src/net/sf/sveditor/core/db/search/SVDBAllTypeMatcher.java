@@ -3,7 +3,15 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBAllTypeMatcher implements ISVDBFindNameMatcher {
+public class SVDBAllTypeMatcher implements ISVDBIndexedNameMatcher {
+
+	public NameMatch getNameMatch() {
+		return NameMatch.Any;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return new SVDBItemType[] {SVDBItemType.ClassDecl, SVDBItemType.ModuleDecl, SVDBItemType.InterfaceDecl};
+	}
 
 	public boolean match(ISVDBNamedItem it, String name) {
 		return it.getType().isElemOf(
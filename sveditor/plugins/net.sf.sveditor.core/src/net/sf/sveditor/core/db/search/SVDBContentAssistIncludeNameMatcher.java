@@ -24,6 +24,20 @@ public class SVDBContentAssistIncludeNameMatcher extends SVDBFindContentAssistNa
 		fWinPathPattern = Pattern.compile("\\\\");
 	}
 
+	/**
+	 * File items are matched on a portion of their path, so 
+	 * the name index cannot be used to select candidates
+	 */
+	@Override
+	public NameMatch getNameMatch() {
+		return NameMatch.Any;
+	}
+	
+	@Override
+	public SVDBItemType[] getItemTypes() {
+		return null;
+	}
+
 	@Override
 	public boolean match(ISVDBNamedItem it, String name) {
 		if (it.getType() == SVDBItemType.File) {
@@ -13,11 +13,20 @@
 package net.sf.sveditor.core.db.search;
 
 import net.sf.sveditor.core.db.ISVDBNamedItem;
+import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindAllMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindAllMatcher implements ISVDBIndexedNameMatcher {
 	
 	static SVDBFindAllMatcher 		fDefault;
 
+	public NameMatch getNameMatch() {
+		return NameMatch.Any;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return null;
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		return true;
 	}
@@ -3,7 +3,7 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindByNameMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindByNameMatcher implements ISVDBIndexedNameMatcher {
 	private SVDBItemType						fTypes[];
 	private static SVDBFindByNameMatcher		fDefault = null;
 	
@@ -11,6 +11,14 @@ public class SVDBFindByNameMatcher implements ISVDBFindNameMatcher {
 		fTypes = types;
 	}
 
+	public NameMatch getNameMatch() {
+		return NameMatch.Exact;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return fTypes;
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		if (fTypes.length == 0) {
 			return (it.getName().equals(name));
@@ -3,13 +3,21 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindByTypeMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindByTypeMatcher implements ISVDBIndexedNameMatcher {
 	private SVDBItemType			fTypes[];
 	
 	public SVDBFindByTypeMatcher(SVDBItemType ... types) {
 		fTypes = types;
 	}
 
+	public NameMatch getNameMatch() {
+		return NameMatch.Any;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return fTypes;
+	}
+
 	@Override
 	public boolean match(ISVDBNamedItem it, String name) {
 		return (fTypes == null || fTypes.length == 0 ||
@@ -3,10 +3,18 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindClassDefaultNameMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindClassDefaultNameMatcher implements ISVDBIndexedNameMatcher {
 
 	static SVDBFindClassDefaultNameMatcher 		fDefault;
 
+	public NameMatch getNameMatch() {
+		return NameMatch.Exact;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return new SVDBItemType[] {SVDBItemType.ClassDecl};
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		return (it.getType() == SVDBItemType.ClassDecl &&
 				it.getName() != null && it.getName().equals(name));
@@ -15,8 +15,16 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindClassMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindClassMatcher implements ISVDBIndexedNameMatcher {
 	
+	public NameMatch getNameMatch() {
+		return NameMatch.Any;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return new SVDBItemType[] {SVDBItemType.ClassDecl};
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		return (it.getType() == SVDBItemType.ClassDecl) ;
 	}
@@ -15,13 +15,21 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindContentAssistNameMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindContentAssistNameMatcher implements ISVDBIndexedNameMatcher {
 	private SVDBItemType			fItemTypes[];
 	
 	public SVDBFindContentAssistNameMatcher(SVDBItemType ... types) {
 		fItemTypes = types;
 	}
 
+	public NameMatch getNameMatch() {
+		return NameMatch.PrefixNoCase;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return fItemTypes;
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		if ((fItemTypes.length == 0 || it.getType().isElemOf(fItemTypes)) && it.getName() != null) {
 			String it_lower = it.getName().toLowerCase();
@@ -13,11 +13,20 @@
 package net.sf.sveditor.core.db.search;
 
 import net.sf.sveditor.core.db.ISVDBNamedItem;
+import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindDefaultNameMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindDefaultNameMatcher implements ISVDBIndexedNameMatcher {
 	
 	static SVDBFindDefaultNameMatcher 		fDefault;
 
+	public NameMatch getNameMatch() {
+		return NameMatch.Exact;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return null;
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		return (it.getName() != null && it.getName().equals(name));
 	}
@@ -15,8 +15,16 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindModuleMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindModuleMatcher implements ISVDBIndexedNameMatcher {
 	
+	public NameMatch getNameMatch() {
+		return NameMatch.Any;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return new SVDBItemType[] {SVDBItemType.ModuleDecl};
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		return (it.getType() == SVDBItemType.ModuleDecl) ;
 	}
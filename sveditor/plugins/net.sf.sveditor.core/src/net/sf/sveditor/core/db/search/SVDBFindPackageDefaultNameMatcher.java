@@ -14,10 +14,18 @@ package net.sf.sveditor.core.db.search;
 import net.sf.sveditor.core.db.ISVDBNamedItem;
 import net.sf.sveditor.core.db.SVDBItemType;
 
-public class SVDBFindPackageDefaultNameMatcher implements ISVDBFindNameMatcher {
+public class SVDBFindPackageDefaultNameMatcher implements ISVDBIndexedNameMatcher {
 
 	static SVDBFindPackageDefaultNameMatcher 		fDefault;
 
+	public NameMatch getNameMatch() {
+		return NameMatch.Exact;
+	}
+	
+	public SVDBItemType[] getItemTypes() {
+		return new SVDBItemType[] {SVDBItemType.PackageDecl};
+	}
+
 	public boolean match(ISVDBNamedItem it, String name) {
 		return (it.getType() == SVDBItemType.PackageDecl &&
 				it.getName() != null && it.getName().equals(name));
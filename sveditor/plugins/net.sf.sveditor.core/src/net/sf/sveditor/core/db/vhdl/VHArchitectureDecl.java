@@ -0,0 +1,26 @@
+package net.sf.sveditor.core.db.vhdl;
+
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBScopeItem;
+
+/**
+ * VHDL architecture body. The name is the architecture name, 
+ * and the entity it implements is recorded separately
+ */
+public class VHArchitectureDecl extends SVDBScopeItem {
+	public String				fEntityName;
+	
+	public VHArchitectureDecl() {
+		super("", SVDBItemType.VHArchitectureDecl);
+	}
+	
+	public VHArchitectureDecl(String name, String entity_name) {
+		super(name, SVDBItemType.VHArchitectureDecl);
+		fEntityName = entity_name;
+	}
+	
+	public String getEntityName() {
+		return fEntityName;
+	}
+
+}
@@ -0,0 +1,16 @@
+package net.sf.sveditor.core.db.vhdl;
+
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBScopeItem;
+
+public class VHComponentDecl extends SVDBScopeItem {
+	
+	public VHComponentDecl() {
+		super("", SVDBItemType.VHComponentDecl);
+	}
+	
+	public VHComponentDecl(String name) {
+		super(name, SVDBItemType.VHComponentDecl);
+	}
+
+}
@@ -5,9 +5,12 @@ import net.sf.sveditor.core.db.SVDBScopeItem;
 
 public class VHEntityDecl extends SVDBScopeItem {
 	
+	public VHEntityDecl() {
+		super("", SVDBItemType.VHEntityDecl);
+	}
+	
 	public VHEntityDecl(String name) {
-//		super(name, SVDBItemType.VHEntityDecl);
-		super(name, SVDBItemType.ModuleDecl);
+		super(name, SVDBItemType.VHEntityDecl);
 	}
 
 }
@@ -0,0 +1,16 @@
+package net.sf.sveditor.core.db.vhdl;
+
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBScopeItem;
+
+public class VHPackageBodyDecl extends SVDBScopeItem {
+	
+	public VHPackageBodyDecl() {
+		super("", SVDBItemType.VHPackageBodyDecl);
+	}
+	
+	public VHPackageBodyDecl(String name) {
+		super(name, SVDBItemType.VHPackageBodyDecl);
+	}
+
+}
@@ -0,0 +1,16 @@
+package net.sf.sveditor.core.db.vhdl;
+
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBScopeItem;
+
+public class VHPackageDecl extends SVDBScopeItem {
+	
+	public VHPackageDecl() {
+		super("", SVDBItemType.VHPackageDecl);
+	}
+	
+	public VHPackageDecl(String name) {
+		super(name, SVDBItemType.VHPackageDecl);
+	}
+
+}
@@ -12,6 +12,8 @@
 
 package net.sf.sveditor.core.indent;
 
+import java.util.List;
+
 public interface ISVIndenter {
 	
 	void setIndentIncr(String incr);
@@ -64,5 +66,14 @@ public interface ISVIndenter {
 	 * @param tm
 	 */
 	void setTestMode(boolean tm);
+
+	/**
+	 * Returns the checkpoints recorded by the last indent operation
+	 * within the adaptive-indent range. Indenting can resume from
+	 * a checkpoint instead of from the start of the file
+	 * 
+	 * @return
+	 */
+	List<SVIndentCheckpoint> getCheckpoints();
 	
 }
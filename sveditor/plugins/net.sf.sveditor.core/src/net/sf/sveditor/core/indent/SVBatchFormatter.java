@@ -0,0 +1,441 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.indent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.sveditor.core.log.LogFactory;
+import net.sf.sveditor.core.log.LogHandle;
+import net.sf.sveditor.core.scanutils.StringTextScanner;
+
+/**
+ * Headless formatter that re-indents a set of files with
+ * SVDefaultIndenter2. Files are processed by a pool of worker
+ * threads, each of which owns an indenter. In check mode, files
+ * are not modified and the lines that would change are reported.
+ *
+ * Each file is read into memory, since the indenter produces the
+ * formatted text as a string. Files are indented with '\n' line
+ * endings, and files that use CRLF line endings are written with
+ * CRLF line endings.
+ *
+ * Used by the 'svutils format' command and the batch 'format'
+ * application
+ *
+ * @author ballance
+ *
+ */
+public class SVBatchFormatter {
+	public static final String				SUFFIXES[] = {
+		".sv", ".svh", ".v", ".vh", ".vl", ".vlog", ".svi"
+	};
+
+	public static final String				ENCODING = "UTF-8";
+
+	private String							fIndentIncr = "\t";
+	private boolean							fCheckOnly;
+	private int								fNumThreads;
+	private LogHandle						fLog;
+
+	/**
+	 * Result of formatting a single file
+	 */
+	public static class FileResult {
+		public File							fFile;
+		public int							fLines;
+		public boolean						fChanged;
+		// Diff of the changes. Only collected in check mode
+		public List<String>					fDiff;
+		public String						fError;
+	}
+
+	/**
+	 * Result of formatting a set of files
+	 */
+	public static class Result {
+		public List<FileResult>				fFiles = new ArrayList<FileResult>();
+		public int							fNumChanged;
+		public int							fNumErrors;
+		public long							fLines;
+		public long							fTimeMS;
+
+		public long getLinesPerSecond() {
+			return (fTimeMS > 0)?((fLines * 1000) / fTimeMS):fLines;
+		}
+	}
+
+	public SVBatchFormatter() {
+		fNumThreads = Runtime.getRuntime().availableProcessors();
+		fLog = LogFactory.getLogHandle("SVBatchFormatter");
+	}
+
+	public void setIndentIncr(String incr) {
+		fIndentIncr = incr;
+	}
+
+	/**
+	 * In check mode, files are not modified. The lines that
+	 * would change are reported instead
+	 */
+	public void setCheckOnly(boolean check) {
+		fCheckOnly = check;
+	}
+
+	public void setNumThreads(int n) {
+		fNumThreads = (n > 0)?n:1;
+	}
+
+	/**
+	 * Formats 'files'. Results are returned in the order of 'files'
+	 */
+	public Result format(final List<File> files) {
+		final FileResult results[] = new FileResult[files.size()];
+		final AtomicInteger next = new AtomicInteger();
+		int n_threads = Math.min(fNumThreads, Math.max(files.size(), 1));
+		long start = System.currentTimeMillis();
+
+		ExecutorService pool = Executors.newFixedThreadPool(n_threads);
+		List<Future<?>> workers = new ArrayList<Future<?>>();
+
+		try {
+			for (int i=0; i<n_threads; i++) {
+				workers.add(pool.submit(new Runnable() {
+					public void run() {
+						// Each worker re-uses an indenter for the files it processes
+						SVDefaultIndenter2 indenter = new SVDefaultIndenter2();
+						int idx;
+
+						while ((idx = next.getAndIncrement()) < files.size()) {
+							results[idx] = format(indenter, files.get(idx));
+						}
+					}
+				}));
+			}
+
+			for (Future<?> w : workers) {
+				try {
+					w.get();
+				} catch (Exception e) {
+					fLog.error("Format worker failed", e);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		Result ret = new Result();
+		for (int i=0; i<results.length; i++) {
+			FileResult r = results[i];
+			if (r == null) {
+				r = new FileResult();
+				r.fFile = files.get(i);
+				r.fError = "not processed";
+			}
+			ret.fFiles.add(r);
+			ret.fLines += r.fLines;
+			if (r.fChanged) {
+				ret.fNumChanged++;
+			}
+			if (r.fError != null) {
+				ret.fNumErrors++;
+			}
+		}
+		ret.fTimeMS = System.currentTimeMillis() - start;
+
+		return ret;
+	}
+
+	/**
+	 * Formats a single file with 'indenter'
+	 */
+	public FileResult format(ISVIndenter indenter, File file) {
+		FileResult ret = new FileResult();
+		ret.fFile = file;
+
+		try {
+			String content = read(file);
+			boolean crlf = (content.indexOf("\r\n") != -1);
+
+			// Compare and diff with normalized line endings, such that
+			// only indent changes are reported
+			if (crlf) {
+				content = content.replace("\r\n", "\n");
+			}
+
+			indenter.init(new SVIndentScanner(new StringTextScanner(content)));
+			indenter.setIndentIncr(fIndentIncr);
+			String result = indenter.indent();
+
+			ret.fLines = count_lines(content);
+			ret.fChanged = !result.equals(content);
+
+			if (ret.fChanged) {
+				if (fCheckOnly) {
+					ret.fDiff = diff(content, result);
+				} else {
+					write(file, (crlf)?result.replace("\n", "\r\n"):result);
+				}
+			}
+		} catch (IOException e) {
+			ret.fError = e.getMessage();
+		} catch (RuntimeException e) {
+			fLog.error("Failed to format " + file, e);
+			ret.fError = e.toString();
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Prints a summary of 'result', including the diffs collected
+	 * in check mode
+	 */
+	public static void report(Result result, boolean check_only, PrintStream out) {
+		for (FileResult r : result.fFiles) {
+			if (r.fError != null) {
+				out.println("Error: " + r.fFile + ": " + r.fError);
+			} else if (r.fChanged) {
+				if (check_only) {
+					out.println("--- " + r.fFile.getPath());
+					out.println("+++ " + r.fFile.getPath() + " (formatted)");
+					for (String l : r.fDiff) {
+						out.println(l);
+					}
+				} else {
+					out.println("Formatted " + r.fFile.getPath());
+				}
+			}
+		}
+
+		out.println(result.fFiles.size() + " files, " + result.fLines + " lines: " +
+				result.fNumChanged + ((check_only)?" need formatting":" formatted") +
+				((result.fNumErrors > 0)?(", " + result.fNumErrors + " errors"):"") +
+				" (" + result.fTimeMS + "ms, " + result.getLinesPerSecond() + " lines/sec)");
+	}
+
+	/**
+	 * Collects the SystemVerilog files in 'paths'. Directories are
+	 * searched recursively
+	 */
+	public static List<File> collectFiles(List<File> paths) {
+		List<File> ret = new ArrayList<File>();
+
+		for (File p : paths) {
+			if (p.isDirectory()) {
+				File children[] = p.listFiles();
+				if (children != null) {
+					Arrays.sort(children);
+					List<File> dirs = new ArrayList<File>();
+					for (File c : children) {
+						if (c.isDirectory()) {
+							dirs.add(c);
+						} else if (isSVFile(c)) {
+							ret.add(c);
+						}
+					}
+					ret.addAll(collectFiles(dirs));
+				}
+			} else {
+				ret.add(p);
+			}
+		}
+
+		return ret;
+	}
+
+	public static boolean isSVFile(File f) {
+		String name = f.getName();
+		for (String s : SUFFIXES) {
+			if (name.endsWith(s)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Runs the formatter on the command-line arguments 'args'. Returns
+	 * a non-zero status if an error occurred or, in check mode, if any
+	 * file requires formatting
+	 */
+	public static int run(List<String> args, PrintStream out) {
+		SVBatchFormatter fmt = new SVBatchFormatter();
+		List<File> paths = new ArrayList<File>();
+		boolean check_only = false;
+
+		for (int i=0; i<args.size(); i++) {
+			String arg = args.get(i);
+
+			if (arg.startsWith("-")) {
+				if (arg.equals("-check")) {
+					check_only = true;
+				} else if (arg.equals("-j") || arg.equals("-spaces")) {
+					int val;
+					if (i+1 >= args.size()) {
+						out.println("Error: " + arg + " requires an argument");
+						printUsage(out);
+						return 1;
+					}
+					try {
+						val = Integer.parseInt(args.get(++i));
+					} catch (NumberFormatException e) {
+						out.println("Error: " + arg + " requires a numeric argument");
+						return 1;
+					}
+					if (arg.equals("-j")) {
+						fmt.setNumThreads(val);
+					} else {
+						StringBuilder incr = new StringBuilder();
+						for (int j=0; j<val; j++) {
+							incr.append(' ');
+						}
+						fmt.setIndentIncr(incr.toString());
+					}
+				} else if (arg.equals("-help")) {
+					printUsage(out);
+					return 0;
+				} else {
+					out.println("Error: unknown option " + arg);
+					printUsage(out);
+					return 1;
+				}
+			} else {
+				paths.add(new File(arg));
+			}
+		}
+
+		if (paths.size() == 0) {
+			printUsage(out);
+			return 1;
+		}
+
+		fmt.setCheckOnly(check_only);
+		Result result = fmt.format(collectFiles(paths));
+		report(result, check_only, out);
+
+		if (result.fNumErrors > 0 || (check_only && result.fNumChanged > 0)) {
+			return 1;
+		} else {
+			return 0;
+		}
+	}
+
+	public static void printUsage(PrintStream out) {
+		out.println("format [options] <file|dir>...");
+		out.println("  Options:");
+		out.println("    -check       - report files that require formatting, without");
+		out.println("                   modifying them. Exits with status 1 if any do");
+		out.println("    -j <n>       - number of worker threads (default: #cpus)");
+		out.println("    -spaces <n>  - indent with <n> spaces (default: tab)");
+	}
+
+	private static String read(File file) throws IOException {
+		StringBuilder sb = new StringBuilder((int)file.length());
+		Reader in = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), ENCODING));
+		char buf[] = new char[8192];
+		int len;
+
+		try {
+			while ((len = in.read(buf)) > 0) {
+				sb.append(buf, 0, len);
+			}
+		} finally {
+			in.close();
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Writes 'content' to a temporary file that replaces 'file'
+	 */
+	private static void write(File file, String content) throws IOException {
+		File tmp = new File(file.getParentFile(), file.getName() + ".fmt_tmp");
+		Writer out = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(tmp), ENCODING));
+
+		try {
+			out.write(content);
+		} finally {
+			out.close();
+		}
+
+		if (!tmp.renameTo(file)) {
+			// Some platforms do not support replacing a file on rename
+			if (!file.delete() || !tmp.renameTo(file)) {
+				tmp.delete();
+				throw new IOException("Failed to replace " + file);
+			}
+		}
+	}
+
+	private static int count_lines(String content) {
+		int ret = 0;
+		for (int i=0; i<content.length(); i++) {
+			if (content.charAt(i) == '\n') {
+				ret++;
+			}
+		}
+		if (content.length() > 0 && content.charAt(content.length()-1) != '\n') {
+			ret++;
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the changed lines in unified-diff style. The indenter only
+	 * changes leading whitespace, so lines are compared pairwise
+	 */
+	private static List<String> diff(String orig, String result) {
+		List<String> ret = new ArrayList<String>();
+		String orig_l[] = orig.split("\n", -1);
+		String result_l[] = result.split("\n", -1);
+		int n = Math.max(orig_l.length, result_l.length);
+
+		for (int i=0; i<n; i++) {
+			String o = (i < orig_l.length)?orig_l[i]:null;
+			String r = (i < result_l.length)?result_l[i]:null;
+
+			if (o == null || r == null || !o.equals(r)) {
+				ret.add("@@ -" + (i+1) + " +" + (i+1) + " @@");
+				if (o != null) {
+					ret.add("-" + o);
+				}
+				if (r != null) {
+					ret.add("+" + r);
+				}
+			}
+		}
+
+		return ret;
+	}
+
+}
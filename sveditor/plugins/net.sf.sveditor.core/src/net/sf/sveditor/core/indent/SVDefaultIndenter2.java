@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
 import java.util.regex.Pattern;
@@ -57,6 +58,12 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 	private int fAdaptiveIndentEnd;
 	private boolean fTestMode;
 
+	// Enclosing module/class scopes, for checkpoints
+	private Stack<String> fScopeHeaders;
+	private String fScopePrefix = "";
+	private List<SVIndentCheckpoint> fCheckpoints;
+	private boolean fCheckpointEn;
+
 	private boolean							pref_IndentIfdef = true;		// TODO: Add this to the preferences
 
 
@@ -96,6 +103,8 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 	public SVDefaultIndenter2() {
 		fIndentStack = new Stack<Tuple<String, Boolean>>();
 		fTokenList = new ArrayList<SVIndentToken>();
+		fScopeHeaders = new Stack<String>();
+		fCheckpoints = new ArrayList<SVIndentCheckpoint>();
 		fLog = LogFactory.getLogHandle("SVDefaultIndenter");
 	}
 
@@ -122,8 +131,16 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 		fTestMode = tm;
 	}
 
+	/**
+	 * Initializes the indenter for 'scanner'. An indenter may
+	 * be re-initialized to indent another source
+	 */
 	public void init(ISVIndentScanner scanner) {
 		fScanner = scanner;
+		fIndentStack.clear();
+		fCurrent = null;
+		fCurrentIndent = "";
+		fQualifiers = 0;
 		push_indent_stack("", true);
 	}
 
@@ -139,6 +156,10 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 		fNLeftParen = fNRightParen = 1;
 		
 		fTokenList.clear();
+		fScopeHeaders.clear();
+		fScopePrefix = "";
+		fCheckpoints.clear();
+		fCheckpointEn = true;
 
 		while ((tok = next()) != null) {
 
@@ -146,6 +167,7 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 			// a keyword
 			try {
 				do {
+					checkpoint(tok);
 					if (tok.getType() == SVIndentTokenType.Identifier &&
 							fQualifierMap.containsKey(tok.getImage())) {
 						fQualifiers |= fQualifierMap.get(tok.getImage());
@@ -181,6 +203,8 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 				if (fTestMode) {
 					throw e;
 				}
+				// Scope tracking is no longer reliable
+				fCheckpointEn = false;
 			}
 		}
 
@@ -270,6 +294,15 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 		return ret;
 	}
 
+	/**
+	 * Returns the checkpoints recorded by the last indent operation.
+	 * Checkpoints are only recorded for lines within the 
+	 * adaptive-indent range
+	 */
+	public List<SVIndentCheckpoint> getCheckpoints() {
+		return fCheckpoints;
+	}
+
 	public boolean isQualifierSet(String key) {
 		return ((fQualifierMap.get(key) & fQualifiers) != 0);
 	}
@@ -657,6 +690,8 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 			end = get_end_kw(tok.getImage());
 			tok = next_s();
 		}
+		push_scope_header(item, end);
+
 		// push a new scope for ports and parameters
 		start_of_scope(tok);
 
@@ -674,6 +709,7 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 
 		// Now, read body items
 		while (tok != null) {
+			checkpoint(tok);
 
 			if (tok.isId(end)) {
 				break;
@@ -728,6 +764,8 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 			}
 		}
 
+		pop_scope_header();
+
 		leave_scope(tok);
 
 		end_of_scope(tok); // restore scope previously set
@@ -1921,6 +1959,71 @@ public class SVDefaultIndenter2 implements ISVIndenter {
 		}
 	}
 
+	/**
+	 * Records the header of a module/class scope, using the indent
+	 * of the enclosing scope
+	 */
+	private void push_scope_header(String item, String end) {
+		String kw = item;
+		if (item.equals("interface") && end.equals("endclass")) {
+			kw = "interface class";
+		}
+		fScopeHeaders.push(SVIndentCheckpoint.getScopeHeader(
+				fIndentStack.get(fIndentStack.size()-2).first(), kw));
+		update_scope_prefix();
+	}
+
+	private void pop_scope_header() {
+		if (fScopeHeaders.size() > 0) {
+			fScopeHeaders.pop();
+		}
+		update_scope_prefix();
+	}
+
+	private void update_scope_prefix() {
+		StringBuilder sb = new StringBuilder();
+		for (String h : fScopeHeaders) {
+			sb.append(h);
+		}
+		fScopePrefix = sb.toString();
+	}
+
+	/**
+	 * Records a checkpoint if 'tok' begins a line at the start of a
+	 * top-level or module/class body item
+	 */
+	private void checkpoint(SVIndentToken tok) {
+		if (!fCheckpointEn || tok == null || !tok.isStartLine() || 
+				!isAdaptiveTraining(tok) ||
+				fIndentStack.size() != fScopeHeaders.size()+1) {
+			return;
+		}
+		if (fCheckpoints.size() > 0 && 
+				fCheckpoints.get(fCheckpoints.size()-1).getLineno() >= tok.getLineno()) {
+			return;
+		}
+
+		String prefix = fScopePrefix;
+		int prefix_lines = fScopeHeaders.size();
+
+		if (fQualifiers != 0) {
+			// Qualifiers that precede this item are replayed
+			StringBuilder sb = new StringBuilder(prefix);
+			sb.append(peek_indent());
+			for (Entry<String, Integer> q : fQualifierMap.entrySet()) {
+				if ((fQualifiers & q.getValue()) != 0) {
+					sb.append(q.getKey());
+					sb.append(" ");
+				}
+			}
+			sb.append("\n");
+			prefix = sb.toString();
+			prefix_lines++;
+		}
+
+		fCheckpoints.add(new SVIndentCheckpoint(tok.getLineno(), prefix, prefix_lines));
+	}
+
 	private void push_indent_stack(String indent, boolean provisional) {
 		if (fDebugEn) {
 			debug("[" + (fIndentStack.size() + 1) + 
@@ -0,0 +1,71 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.indent;
+
+/**
+ * Captures the indenter state at the start of a statement.
+ *
+ * A checkpoint is recorded at the first line of each top-level item,
+ * and each item within a module/interface/class/package body, while
+ * the indenter is sampling existing indent. The state is the chain
+ * of enclosing scopes, which is reproduced by a prefix of synthetic
+ * scope headers. Indenting the prefix followed by the document
+ * content from getLineno() reproduces the original scope and
+ * indent state.
+ *
+ * @author ballance
+ *
+ */
+public class SVIndentCheckpoint {
+	public static final String			SCOPE_NAME = "__sv_indent_checkpoint";
+
+	private int							fLineno;
+	private String						fPrefix;
+	private int							fPrefixLines;
+
+	public SVIndentCheckpoint(int lineno, String prefix, int prefix_lines) {
+		fLineno			= lineno;
+		fPrefix			= prefix;
+		fPrefixLines	= prefix_lines;
+	}
+
+	/**
+	 * Returns the line (first line is '1') at which indenting resumes
+	 */
+	public int getLineno() {
+		return fLineno;
+	}
+
+	/**
+	 * Returns the scope headers to scan ahead of line getLineno()
+	 */
+	public String getPrefix() {
+		return fPrefix;
+	}
+
+	/**
+	 * Returns the number of lines in the prefix. Scanning
+	 * must start at line (getLineno()-getPrefixLines())
+	 */
+	public int getPrefixLines() {
+		return fPrefixLines;
+	}
+
+	/**
+	 * Returns the scope-header line for the scope 'kw'
+	 */
+	static String getScopeHeader(String leading_ws, String kw) {
+		return leading_ws + kw + " " + SCOPE_NAME + ";\n";
+	}
+
+}
@@ -0,0 +1,78 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.indent;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Holds the indent checkpoints collected for a document. A checkpoint
+ * depends only on the content above it, so an edit invalidates the
+ * checkpoints at and below the edited line
+ *
+ * @author ballance
+ *
+ */
+public class SVIndentCheckpointList {
+	private TreeMap<Integer, SVIndentCheckpoint>		fCheckpoints;
+
+	public SVIndentCheckpointList() {
+		fCheckpoints = new TreeMap<Integer, SVIndentCheckpoint>();
+	}
+
+	/**
+	 * Returns the nearest checkpoint at or above 'lineno', or null
+	 * if indenting must start at the beginning of the document
+	 */
+	public synchronized SVIndentCheckpoint find(int lineno) {
+		Entry<Integer, SVIndentCheckpoint> e = fCheckpoints.floorEntry(lineno);
+
+		return (e != null)?e.getValue():null;
+	}
+
+	/**
+	 * Adds the checkpoints collected by an indent operation that
+	 * resumed at line 'start'. Checkpoints above 'start' are within
+	 * the synthetic prefix, and checkpoints at or below 'limit' may
+	 * reflect content that is not (yet) part of the document. Both
+	 * are ignored
+	 */
+	public synchronized void update(
+			List<SVIndentCheckpoint> 	checkpoints,
+			int 						start,
+			int 						limit) {
+		for (SVIndentCheckpoint cp : checkpoints) {
+			if (cp.getLineno() >= start && cp.getLineno() < limit) {
+				fCheckpoints.put(cp.getLineno(), cp);
+			}
+		}
+	}
+
+	/**
+	 * Removes checkpoints at or below 'lineno' following a change
+	 * to the document at that line
+	 */
+	public synchronized void invalidate(int lineno) {
+		fCheckpoints.tailMap(lineno).clear();
+	}
+
+	public synchronized void clear() {
+		fCheckpoints.clear();
+	}
+
+	public synchronized int size() {
+		return fCheckpoints.size();
+	}
+
+}
@@ -102,6 +102,14 @@ public class SVIndentScanner implements ISVIndentScanner {
 		fLog = LogFactory.getLogHandle("SVIndentScanner");
 		fStartLine = true;
 	}
+
+	/**
+	 * Sets the number of the first line. Used when scanning
+	 * a region that does not start at the beginning of the file
+	 */
+	public void setLineno(int lineno) {
+		fLineno = lineno;
+	}
 	
 	public SVIndentToken next() {
 		boolean start_line;
@@ -24,6 +24,17 @@ public interface IJob {
 	
 	int getPriority();
 	
+	/**
+	 * Returns the time, in ms, the job spent in the queue
+	 * before starting to run
+	 */
+	long getWaitTime();
+	
+	/**
+	 * Returns the time, in ms, the job spent running
+	 */
+	long getRunTime();
+	
 	void run(IProgressMonitor monitor);
 	
 	void addListener(IJobListener l);
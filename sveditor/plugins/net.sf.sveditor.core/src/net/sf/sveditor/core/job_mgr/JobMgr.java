@@ -2,28 +2,135 @@ package net.sf.sveditor.core.job_mgr;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import net.sf.sveditor.core.job_mgr.JobMgrWorkerThread.ThreadState;
-
+/**
+ * Runs jobs on a pool of worker threads. Jobs are held in a
+ * priority heap, ordered by priority (lower values run first) and
+ * then by submission order. Worker threads are created on demand,
+ * up to the maximum pool size, and exit once idle.
+ *
+ * @author ballance
+ *
+ */
 public class JobMgr implements IJobMgr {
-	
-	private List<IJobListener>			fJobListeners;
-	private List<JobMgrWorkerThread>	fThreadPool;
-	private List<IJob>					fJobQueue;
-	private int						fMaxThreads;
-	private boolean					fDisposed;
-	
+
+	private List<IJobListener>						fJobListeners;
+	private List<JobMgrWorkerThread>				fThreadPool;
+	private PriorityBlockingQueue<QueueEntry>		fJobQueue;
+	private AtomicLong								fJobSeq;
+	private AtomicInteger							fIdleThreads;
+	private int										fMaxThreads;
+	private volatile boolean						fDisposed;
+
+	// Statistics
+	private AtomicLong								fNumCompletedJobs;
+	private AtomicLong								fTotalWaitTimeMS;
+	private AtomicLong								fTotalRunTimeMS;
+
+	/**
+	 * Entry in the job queue. Records submission order, such that
+	 * jobs of equal priority run in FIFO order, and submission time
+	 */
+	private static class QueueEntry implements Comparable<QueueEntry> {
+		private IJob				fJob;
+		private int					fPriority;
+		private long				fSeq;
+		private long				fQueueTime;
+
+		public QueueEntry(IJob job, long seq) {
+			fJob = job;
+			fPriority = job.getPriority();
+			fSeq = seq;
+			fQueueTime = System.currentTimeMillis();
+		}
+
+		public int compareTo(QueueEntry o) {
+			if (fPriority != o.fPriority) {
+				return (fPriority < o.fPriority)?-1:1;
+			} else if (fSeq != o.fSeq) {
+				return (fSeq < o.fSeq)?-1:1;
+			} else {
+				return 0;
+			}
+		}
+	}
+
 	public JobMgr() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public JobMgr(int max_threads) {
 		fJobListeners = new ArrayList<IJobListener>();
 		fThreadPool = new ArrayList<JobMgrWorkerThread>();
-		fJobQueue = new ArrayList<IJob>();
-		
-		fMaxThreads = 4;
+		fJobQueue = new PriorityBlockingQueue<QueueEntry>();
+		fJobSeq = new AtomicLong();
+		fIdleThreads = new AtomicInteger();
+		fNumCompletedJobs = new AtomicLong();
+		fTotalWaitTimeMS = new AtomicLong();
+		fTotalRunTimeMS = new AtomicLong();
+
+		setMaxThreads(max_threads);
+	}
+
+	/**
+	 * Sets the maximum number of worker threads. Values < 1
+	 * select the number of available processors
+	 *
+	 * @param max_threads
+	 */
+	public void setMaxThreads(int max_threads) {
+		if (max_threads < 1) {
+			max_threads = Runtime.getRuntime().availableProcessors();
+		}
+		synchronized (fThreadPool) {
+			fMaxThreads = max_threads;
+		}
+	}
+
+	public int getMaxThreads() {
+		synchronized (fThreadPool) {
+			return fMaxThreads;
+		}
+	}
+
+	public int getNumThreads() {
+		synchronized (fThreadPool) {
+			return fThreadPool.size();
+		}
+	}
+
+	/**
+	 * Returns the number of jobs waiting to run
+	 */
+	public int getQueueDepth() {
+		return fJobQueue.size();
 	}
-	
+
+	public long getNumCompletedJobs() {
+		return fNumCompletedJobs.get();
+	}
+
+	/**
+	 * Returns the total time, in ms, completed jobs spent in the queue
+	 */
+	public long getTotalWaitTime() {
+		return fTotalWaitTimeMS.get();
+	}
+
+	/**
+	 * Returns the total time, in ms, completed jobs spent running
+	 */
+	public long getTotalRunTime() {
+		return fTotalRunTimeMS.get();
+	}
+
 	public void dispose() {
 		fDisposed = true;
-		
+
 		// Wait for all the threads to exit
 		synchronized (fThreadPool) {
 			while (fThreadPool.size() > 0) {
@@ -35,7 +142,7 @@ public class JobMgr implements IJobMgr {
 			}
 		}
 	}
-	
+
 	public void addJobListener(IJobListener l) {
 		synchronized (fJobListeners) {
 			fJobListeners.add(l);
@@ -47,77 +154,60 @@ public class JobMgr implements IJobMgr {
 			fJobListeners.remove(l);
 		}
 	}
-	
+
 	public IJob createJob() {
 		return new JobMgrJob();
 	}
 
 	public void queueJob(IJob job) {
+		fJobQueue.add(new QueueEntry(job, fJobSeq.getAndIncrement()));
 		checkWorkerThreads();
-		synchronized (fJobQueue) {
-			// Find an insertion point such that we preserve priority order
-			if (fJobQueue.size() == 0 || 
-					fJobQueue.get(fJobQueue.size()-1).getPriority() <= job.getPriority()) {
-				fJobQueue.add(job);
-			} else {
-				boolean added = false;
-				for (int i=0; i<fJobQueue.size(); i++) {
-					if (fJobQueue.get(i).getPriority() > job.getPriority()) {
-						fJobQueue.add(i, job);
-						added = true;
-						break;
-					}
-				}
-				if (!added) {
-					fJobQueue.add(job);
-				}
-			}
-			fJobQueue.notifyAll();
-		}
 	}
 
 	/**
 	 * Check to see if we should launch a new thread
 	 */
 	private void checkWorkerThreads() {
+		if (fJobQueue.size() <= fIdleThreads.get()) {
+			// Enough idle threads to service the queue
+			return;
+		}
 		synchronized (fThreadPool) {
-			boolean all_busy = true;
-			for (JobMgrWorkerThread t : fThreadPool) {
-				if (t.getThreadState() == ThreadState.Waiting) {
-					all_busy = false;
-				}
-			}
-			if (all_busy && fThreadPool.size() < fMaxThreads) {
+			if (fThreadPool.size() < fMaxThreads) {
 				JobMgrWorkerThread t = new JobMgrWorkerThread(this);
 				fThreadPool.add(t);
 				t.start();
 			}
 		}
 	}
-	
+
 	public IJob dequeueJob(int idle_timeout) {
-		IJob job = null;
-		for (int i=0; i<2; i++) {
-			synchronized (fJobQueue) {
-				if (fJobQueue.size() > 0) {
-					job = fJobQueue.remove(0);
-					break;
-				} else if (i == 0) {
-					// Wait for a bit
-					try {
-						fJobQueue.wait(idle_timeout);
-					} catch (InterruptedException e) {}
-				}
-			}
+		QueueEntry ent = null;
+
+		fIdleThreads.incrementAndGet();
+		try {
+			ent = fJobQueue.poll(idle_timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+		} finally {
+			fIdleThreads.decrementAndGet();
 		}
-		
-		if (job != null) {
-			jobStarted(job);
+
+		if (ent == null) {
+			return null;
+		}
+
+		long wait_time = (System.currentTimeMillis() - ent.fQueueTime);
+		fTotalWaitTimeMS.addAndGet(wait_time);
+
+		if (ent.fJob instanceof JobMgrJob) {
+			((JobMgrJob)ent.fJob).setWaitTime(wait_time);
 		}
-		
-		return job;
+
+		jobStarted(ent.fJob);
+
+		return ent.fJob;
 	}
-	
+
 	private void jobStarted(IJob job) {
 		synchronized (fJobListeners) {
 			for (IJobListener l : fJobListeners) {
@@ -126,7 +216,10 @@ public class JobMgr implements IJobMgr {
 		}
 	}
 
-	void jobEnded(IJob job) {
+	void jobEnded(IJob job, long run_time) {
+		fNumCompletedJobs.incrementAndGet();
+		fTotalRunTimeMS.addAndGet(run_time);
+
 		synchronized (fJobListeners) {
 			for (IJobListener l : fJobListeners) {
 				l.jobEnded(job);
@@ -136,14 +229,16 @@ public class JobMgr implements IJobMgr {
 
 	/**
 	 * Called by the worker thread to see if it can exit
-	 * 
+	 *
 	 * @param t
 	 * @return
 	 */
 	public boolean tryToExit(JobMgrWorkerThread t) {
 		boolean can_exit = true;
 		synchronized (fThreadPool) {
-			can_exit = (fThreadPool.size() > 1 || fDisposed);
+			// Don't exit while work remains
+			can_exit = (fJobQueue.size() == 0 &&
+					(fThreadPool.size() > 1 || fDisposed));
 			if (can_exit) {
 				fThreadPool.remove(t);
 				fThreadPool.notifyAll();
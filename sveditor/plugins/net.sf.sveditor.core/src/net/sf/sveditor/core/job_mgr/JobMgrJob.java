@@ -13,6 +13,8 @@ public class JobMgrJob implements IJob {
 	private Object					fJobDoneMutex;
 	private boolean				fJobDone;
 	private int					fPriority = 5;
+	private long					fWaitTime;
+	private long					fRunTime;
 
 	public JobMgrJob() {
 		fJobListeners = new ArrayList<IJobListener>();
@@ -37,11 +39,25 @@ public class JobMgrJob implements IJob {
 		return fPriority;
 	}
 
+	public long getWaitTime() {
+		return fWaitTime;
+	}
+	
+	void setWaitTime(long t) {
+		fWaitTime = t;
+	}
+	
+	public long getRunTime() {
+		return fRunTime;
+	}
+
 	public void run(IProgressMonitor monitor) {
+		long start = System.currentTimeMillis();
 		try {
 			jobStarted();
 			fRunnable.run();
 		} finally {
+			fRunTime = (System.currentTimeMillis() - start);
 			jobEnded();
 		}
 	}
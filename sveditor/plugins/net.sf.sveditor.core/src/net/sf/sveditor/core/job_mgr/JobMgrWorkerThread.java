@@ -21,14 +21,21 @@ public class JobMgrWorkerThread extends Thread {
 	public synchronized ThreadState getThreadState() {
 		return fState;
 	}
+	
+	private synchronized void setThreadState(ThreadState state) {
+		fState = state;
+	}
 
 	@Override
 	public void run() {
 		// Wait for a job to become available
 		while (true) {
+			setThreadState(ThreadState.Waiting);
 			IJob job = fJobMgr.dequeueJob(fIdleTimeout);
 
 			if (job != null) {
+				setThreadState(ThreadState.Working);
+				long start = System.currentTimeMillis();
 				try {
 					job.run(new NullProgressMonitor());
 				} catch (Exception e) {
@@ -36,7 +43,7 @@ public class JobMgrWorkerThread extends Thread {
 				}
 				
 				// Run the job
-				fJobMgr.jobEnded(job);
+				fJobMgr.jobEnded(job, System.currentTimeMillis()-start);
 			} else {
 				if (fJobMgr.tryToExit(this)) {
 					break;
@@ -47,22 +47,32 @@ public class LogHandle implements ILogHandle {
 	}
 	
 	public void addLogLevelListener(ILogLevelListener l) {
-		fLogLevelListeners.add(new WeakReference<ILogLevelListener>(l));
+		synchronized (fLogLevelListeners) {
+			fLogLevelListeners.add(new WeakReference<ILogLevelListener>(l));
+		}
 	}
 	
 	public void setDebugLevel(int level) {
 		if (fDebugLevel != level) {
 			fDebugLevel = level;
-			// notify listeners
-			for (int i=0; i<fLogLevelListeners.size(); i++) {
-				WeakReference<ILogLevelListener> l = fLogLevelListeners.get(i);
-				if (l == null || l.get() == null) {
-					fLogLevelListeners.remove(i);
-					i--;
-				} else {
-					l.get().logLevelChanged(this);
+			// Parsers on several build threads register listeners concurrently,
+			// so collect the live listeners under the lock and notify outside it
+			List<ILogLevelListener> listeners = new ArrayList<ILogLevelListener>();
+			synchronized (fLogLevelListeners) {
+				for (int i=0; i<fLogLevelListeners.size(); i++) {
+					WeakReference<ILogLevelListener> r = fLogLevelListeners.get(i);
+					ILogLevelListener l = (r != null)?r.get():null;
+					if (l == null) {
+						fLogLevelListeners.remove(i);
+						i--;
+					} else {
+						listeners.add(l);
+					}
 				}
 			}
+			for (ILogLevelListener l : listeners) {
+				l.logLevelChanged(this);
+			}
 		}
 		fDebugLevel = level;
 	}
@@ -0,0 +1,209 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.sveditor.core.parser.ISVKeywords.KW;
+import net.sf.sveditor.core.parser.SVLexer.Context;
+
+/**
+ * Immutable keyword-lookup table. Keywords are matched directly against
+ * the characters in the lexer's buffer, so identifiers need not be
+ * converted to a String before checking whether they are keywords.
+ *
+ * Tables are built once per language level and lexer context, and
+ * shared by all lexer instances. Each table is an open-addressed hash
+ * table, with the hash multiplier selected to minimize probing
+ *
+ * @author ballance
+ *
+ */
+public class SVKeywordTable {
+	private static final SVKeywordTable		fTables[][];
+
+	private KW								fTable[];
+	private char							fImages[][];
+	private int								fMask;
+	private int								fMult;
+	private int								fMaxLen;
+	private int								fSize;
+
+	static {
+		SVLanguageLevel levels[] = SVLanguageLevel.values();
+		Context ctxts[] = Context.values();
+		fTables = new SVKeywordTable[levels.length][ctxts.length];
+
+		for (SVLanguageLevel level : levels) {
+			List<KW> kw_l = new ArrayList<KW>();
+
+			for (KW kw : KW.values()) {
+				switch (level) {
+					case SystemVerilog:
+						if (kw.isSV() || !kw.isAMS()) {
+							kw_l.add(kw);
+						}
+						break;
+
+					case VerilogAMS:
+						if (!kw.isSV() || kw.isAMS()) {
+							kw_l.add(kw);
+						}
+						break;
+
+					default:
+					case Verilog2005:
+						if (!kw.isSV() && !kw.isAMS()) {
+							kw_l.add(kw);
+						}
+						break;
+				}
+			}
+
+			// The Constraint context recognizes the full set
+			SVKeywordTable constraint_t = new SVKeywordTable(kw_l);
+
+			// 'soft' is only a keyword within constraints and expressions
+			List<KW> default_l = new ArrayList<KW>(kw_l);
+			default_l.remove(KW.SOFT);
+			SVKeywordTable default_t = new SVKeywordTable(default_l);
+
+			// Remove 'unique' from the Expression set, since
+			// unique() is a supported function
+			List<KW> expr_l = new ArrayList<KW>(kw_l);
+			expr_l.remove(KW.UNIQUE);
+			SVKeywordTable expr_t = new SVKeywordTable(expr_l);
+
+			for (Context ctxt : ctxts) {
+				SVKeywordTable t = null;
+				switch (ctxt) {
+					case Constraint: t = constraint_t; break;
+					case Expression: t = expr_t; break;
+					default: t = default_t; break;
+				}
+				fTables[level.ordinal()][ctxt.ordinal()] = t;
+			}
+		}
+	}
+
+	/**
+	 * Returns the shared keyword table for a language level and context
+	 *
+	 * @param level
+	 * @param ctxt
+	 * @return
+	 */
+	public static SVKeywordTable get(SVLanguageLevel level, Context ctxt) {
+		return fTables[level.ordinal()][ctxt.ordinal()];
+	}
+
+	private SVKeywordTable(List<KW> keywords) {
+		fSize = keywords.size();
+
+		int size = 1;
+		while (size < 4*keywords.size()) {
+			size <<= 1;
+		}
+		fMask = size-1;
+
+		for (KW kw : keywords) {
+			if (kw.getImg().length() > fMaxLen) {
+				fMaxLen = kw.getImg().length();
+			}
+		}
+
+		// Select the multiplier that results in the fewest probes
+		int best_mult = 31, best_probes = Integer.MAX_VALUE;
+		for (int mult=31; mult<31+2*64; mult+=2) {
+			int probes = build(keywords, size, mult);
+			if (probes < best_probes) {
+				best_probes = probes;
+				best_mult = mult;
+			}
+		}
+		build(keywords, size, best_mult);
+	}
+
+	private int build(List<KW> keywords, int size, int mult) {
+		int probes = 0;
+		fTable = new KW[size];
+		fImages = new char[size][];
+		fMult = mult;
+
+		for (KW kw : keywords) {
+			String img = kw.getImg();
+			int idx = hash(img, 0, img.length()) & fMask;
+
+			while (fTable[idx] != null) {
+				idx = (idx+1) & fMask;
+				probes++;
+			}
+			fTable[idx] = kw;
+			fImages[idx] = img.toCharArray();
+		}
+
+		return probes;
+	}
+
+	private int hash(CharSequence s, int start, int len) {
+		int h = len;
+		for (int i=start; i<start+len; i++) {
+			h = h*fMult + s.charAt(i);
+		}
+		return (h ^ (h >>> 16));
+	}
+
+	/**
+	 * Returns the keyword matching the content of the character sequence,
+	 * or null if the sequence is not a keyword
+	 *
+	 * @param s
+	 * @return
+	 */
+	public KW find(CharSequence s) {
+		return find(s, 0, s.length());
+	}
+
+	public KW find(CharSequence s, int start, int len) {
+		if (len > fMaxLen || len == 0) {
+			return null;
+		}
+		int idx = hash(s, start, len) & fMask;
+
+		while (fTable[idx] != null) {
+			char img[] = fImages[idx];
+
+			if (img.length == len) {
+				int i=0;
+				while (i<len && img[i] == s.charAt(start+i)) {
+					i++;
+				}
+				if (i == len) {
+					return fTable[idx];
+				}
+			}
+			idx = (idx+1) & fMask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the number of keywords in the table
+	 */
+	public int size() {
+		return fSize;
+	}
+
+}
@@ -12,18 +12,14 @@
 package net.sf.sveditor.core.parser;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
-import com.sun.org.apache.xpath.internal.compiler.Keywords;
-
 import net.sf.sveditor.core.db.SVDBLocation;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
+import net.sf.sveditor.core.preproc.SVPreProcOutput;
 import net.sf.sveditor.core.scanner.SVCharacter;
 import net.sf.sveditor.core.scanutils.ITextScanner;
 
@@ -36,12 +32,8 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 	}
 	
 	private ITextScanner 			fScanner;
-	// 2- and 3-character operator prefixes
-	private Set<String>				fSeqPrefixes[];
-	private Set<String> 			fOperatorSet;
-	private Map<String, KW>			fDefaultKeywordSet;
-	private Map<String, KW>			fConstraintKeywordSet;
-	private Map<String, KW>			fExprKeywordSet;
+	// Keyword table for the current language level and context
+	private SVKeywordTable			fKeywordTable;
 
 	private List<ISVTokenListener>	fTokenListeners;
 
@@ -58,6 +50,15 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 	private LogHandle				fLog;
 	private Context					fContext;
 	private SVLanguageLevel			fLanguageLevel;
+	
+	// Incremental-lexing support
+	private SVLexerTokenCache		fTokenCache;
+	private int						fTokenFlags;
+	
+	// Statistics
+	private boolean					fCollectStats;
+	private int						fNumTokens;
+	private long					fLexTimeNS;
 
 
 	
@@ -65,21 +66,10 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 		this(SVLanguageLevel.SystemVerilog);
 	}
 	
-	@SuppressWarnings("unchecked")
 	public SVLexer(SVLanguageLevel level) {
 		fLanguageLevel = level;
 		
 		fLog = LogFactory.getLogHandle("SVLexer");
-		fOperatorSet = new HashSet<String>();
-		fSeqPrefixes = new Set[] {
-			fOperatorSet,
-			new HashSet<String>(),
-			new HashSet<String>()
-		};
-
-		fDefaultKeywordSet = new HashMap<String, KW>();
-		fConstraintKeywordSet = new HashMap<String, KW>();
-		fExprKeywordSet = new HashMap<String, KW>();
 
 		fStringBuffer = new StringBuilder();
 
@@ -87,49 +77,6 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 
 		fTokenListeners = new ArrayList<ISVTokenListener>();
 
-		for (String op : SVOperators.AllOperators) {
-			if (op.length() == 3) {
-				fSeqPrefixes[1].add(op.substring(0,2));
-				fSeqPrefixes[2].add(op.substring(0,3));
-			} else if (op.length() == 2) {
-				fSeqPrefixes[1].add(op.substring(0,2));
-			}
-			fOperatorSet.add(op);
-		}
-
-		for (ISVKeywords.KW kw : ISVKeywords.KW.values()) {
-			switch (fLanguageLevel) {
-				case SystemVerilog:
-					if (kw.isSV() || !kw.isAMS()) {
-						fDefaultKeywordSet.put(kw.getImg(), kw);
-					}
-					break;
-					
-				case VerilogAMS:
-					if (!kw.isSV() || kw.isAMS()) {
-						fDefaultKeywordSet.put(kw.getImg(), kw);
-					}
-					break;
-					
-				default:
-				case Verilog2005:
-					if (!kw.isSV() && !kw.isAMS()) {
-						fDefaultKeywordSet.put(kw.getImg(), kw);
-					}
-					break;
-			}
-		}
-	
-		fConstraintKeywordSet.putAll(fDefaultKeywordSet);
-		fExprKeywordSet.putAll(fDefaultKeywordSet);
-		
-		// Customize
-		fDefaultKeywordSet.remove("soft");
-		
-		// Remove 'unique' from the Expression set, since
-		// unique() is a supported function
-		fExprKeywordSet.remove("unique");
-		
 		fEOF = false;
 		
 		setContext(Context.Default);
@@ -138,12 +85,11 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 	public Context setContext(Context ctxt) {
 		Context old_ctxt = fContext;
 		fContext = ctxt;
+		fKeywordTable = SVKeywordTable.get(fLanguageLevel, ctxt);
 	
 		// Re-evaluate the current 
 		if (old_ctxt != ctxt && fIsIdentifier || fKeyword != null) {
-			Map<String, ISVKeywords.KW> kw = getKeywords(ctxt);
-		
-			fKeyword = kw.get(fImage);
+			fKeyword = (fImage != null)?fKeywordTable.find(fImage):null;
 		}
 		
 		return old_ctxt;
@@ -166,10 +112,68 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 	}
 
 	public void init(ISVParser parser, ITextScanner scanner) {
+		init(parser, scanner, null);
+	}
+	
+	/**
+	 * Initializes the lexer with a token cache. Tokens cached from a
+	 * previous lex of the same buffer are reused where the buffer
+	 * is unchanged. The cache is only used with non-streaming 
+	 * pre-processor output
+	 * 
+	 * @param parser
+	 * @param scanner
+	 * @param cache
+	 */
+	public void init(ISVParser parser, ITextScanner scanner, SVLexerTokenCache cache) {
 		fTokenConsumed = true;
 		fScanner = scanner;
 		fEOF = false;
 		fParser = parser;
+		fNumTokens = 0;
+		fLexTimeNS = 0;
+		
+		if (cache != null && scanner instanceof SVPreProcOutput &&
+				!((SVPreProcOutput)scanner).isStreaming()) {
+			fTokenCache = cache;
+			fTokenCache.begin((SVPreProcOutput)scanner);
+		} else {
+			fTokenCache = null;
+		}
+	}
+	
+	/**
+	 * Completes use of the token cache. The tokens produced 
+	 * by this lex are retained for reuse by the next lex
+	 */
+	public void endTokenCache() {
+		if (fTokenCache != null) {
+			fTokenCache.end();
+			fTokenCache = null;
+		}
+	}
+
+	/**
+	 * Enables collection of lex time. The token count is always collected
+	 */
+	public void setCollectStats(boolean collect) {
+		fCollectStats = collect;
+	}
+	
+	/**
+	 * Returns the number of tokens lexed since the lexer was initialized
+	 */
+	public int getNumTokens() {
+		return fNumTokens;
+	}
+	
+	/**
+	 * Returns the time spent lexing since the lexer was initialized,
+	 * if collection is enabled. When the pre-processor output is 
+	 * streamed, this includes time spent pre-processing
+	 */
+	public long getLexTimeNS() {
+		return fLexTimeNS;
 	}
 
 	public void init(SVToken tok) {
@@ -641,6 +645,13 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 				init(fUngetStack.pop());
 				fTokenConsumed = false;
 				return true;
+			} else if (fCollectStats) {
+				long start = System.nanoTime();
+				try {
+					return next_token_int();
+				} finally {
+					fLexTimeNS += (System.nanoTime() - start);
+				}
 			} else {
 				return next_token_int();
 			}
@@ -673,6 +684,42 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 	}
 
 	private boolean next_token_int() throws SVParseException {
+		fNumTokens++;
+		
+		if (fTokenCache == null) {
+			return lex_token();
+		}
+		
+		int state = 
+				((fInAttr)?SVLexerTokenCache.FLAG_IN_ATTR:0) |
+				((fIsDelayControl)?SVLexerTokenCache.FLAG_DELAY_CTRL:0);
+		
+		if (fTokenCache.isReplaying() || fTokenCache.resync(state)) {
+			SVToken tok = fTokenCache.replay(state, fContext);
+			
+			if (tok != null) {
+				init(tok);
+				fIsDelayControl = fTokenCache.getReplayDelayCtrl();
+				fTokenConsumed = false;
+				return true;
+			}
+			// Otherwise, the scanner is positioned to re-lex this token
+		}
+		
+		fTokenCache.mark(state);
+		fTokenFlags = 0;
+		
+		try {
+			boolean ret = lex_token();
+			fTokenCache.record((ret)?this:null, fTokenFlags, fContext);
+			return ret;
+		} catch (SVParseException e) {
+			fTokenCache.invalidate();
+			throw e;
+		}
+	}
+	
+	private boolean lex_token() throws SVParseException {
 		int ch = fScanner.get_ch();
 		int ch2 = -1;
 		
@@ -722,6 +769,7 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 				}
 			} else if (ch == '`') {
 				// Very likely an `undefined operator, but let's check
+				fTokenFlags |= SVLexerTokenCache.FLAG_CTXT_DEP;
 				fStringBuffer.setLength(0);
 				while ((ch = fScanner.get_ch()) != -1 && SVCharacter.isSVIdentifierPart(ch)) {
 					fStringBuffer.append((char)ch);
@@ -903,14 +951,21 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 			}
 			return false;
 		} else {
-			fImage = fStringBuffer.toString();
-
 			if (fIsIdentifier && !escaped_id) {
-				Map<String, KW> kw = getKeywords(fContext);
+				fTokenFlags |= SVLexerTokenCache.FLAG_WORD;
 				
-				if ((fKeyword = kw.get(fImage)) != null) {
+				// Check the buffer directly to avoid creating 
+				// a String for keywords
+				if ((fKeyword = fKeywordTable.find(fStringBuffer)) != null) {
 					fIsIdentifier = false;
-				}				
+					fImage = fKeyword.getImg();
+				} else {
+					fImage = fStringBuffer.toString();
+				}
+			} else if (fOperator != null) {
+				fImage = fOperator.getImg();
+			} else {
+				fImage = fStringBuffer.toString();
 			}
 			fTokenConsumed = false;
 			if (fDebugEn) {
@@ -939,26 +994,6 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 		 */
 	}
 	
-	private Map<String, KW> getKeywords(Context ctxt) {
-		Map<String, KW> kw = null;
-		switch (ctxt) {
-			case Behavioral:
-			case Default:
-				kw = fDefaultKeywordSet;
-				break;
-			
-			case Constraint:
-				kw = fConstraintKeywordSet;
-				break;
-			
-			case Expression:
-				kw = fExprKeywordSet;
-				break;
-		}
-		
-		return kw;
-	}
-	
 	private void operator() throws SVParseException {
 		char st = fStringBuffer.charAt(0);
 		fScanner.unget_ch(st);
@@ -987,62 +1022,6 @@ public class SVLexer extends SVToken implements ISVKeywords, ISVOperators {
 		}
 	}
 
-	private void operator_1() throws SVParseException {
-		int ch;
-		int op_idx=0; // index of the op prefix to check
-		
-		if (fDebugEn) {
-			debug("operator: " + fStringBuffer.toString());
-		}
-		while (op_idx < 2) {
-			// Add a character and check whether is a prefix for the next
-			// sequence
-			if ((ch = fScanner.get_ch()) != -1) {
-				append_ch(ch);
-				if (fDebugEn) {
-					debug("  append: " + (char)ch + "  => " + fStringBuffer.toString());
-				}
-				if (!fSeqPrefixes[op_idx+1].contains(fStringBuffer.toString()) &&
-						!fOperatorSet.contains(fStringBuffer.toString())) {
-					// Doesn't match, so don't move forward
-					fScanner.unget_ch(ch);
-					fStringBuffer.setLength(fStringBuffer.length()-1);
-					if (fDebugEn) {
-						debug("  \"" + (char)ch + "\" doesn't match");
-					}
-					break;
-				} else {
-					if (fDebugEn) {
-						debug("  " + (char)ch + " does match -- " + fStringBuffer.toString());
-					}
-				}
-			} else {
-				break;
-			}
-			
-			op_idx++;
-		}
-
-		if (fDebugEn) {
-			debug("< operator: " + fStringBuffer.toString());
-		}
-//		fIsOperator = true; // TODO:
-		String val = fStringBuffer.toString();
-		if (!fOperatorSet.contains(val)) {
-			error("Problem with operator: " + fStringBuffer.toString());
-		}
-		
-		if (val.equals("#")) {
-			// May be a delay-control expression
-			while ((ch = fScanner.get_ch()) != -1 && Character.isWhitespace(ch)) { }
-			if (ch >= '0' && ch <= '9') {
-				// delay-control
-				fIsDelayControl = true;
-			}
-			fScanner.unget_ch(ch);
-		}
-	}
-	
 	private static boolean isBaseChar(int ch) {
 		return (ch == 's' || ch == 'S' || ch == 'd' || ch == 'D' || ch == 'b'
 				|| ch == 'B' || ch == 'o' || ch == 'O' || ch == 'h' || ch == 'H');
@@ -0,0 +1,463 @@
+package net.sf.sveditor.core.parser;
+
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.parser.SVLexer.Context;
+import net.sf.sveditor.core.preproc.SVPreProcOutput;
+
+/**
+ * Retains the token stream produced by SVLexer for a pre-processed
+ * buffer, such that lexing a modified version of the buffer only
+ * re-lexes the damaged region.
+ *
+ * Each cached token records the scanner and lexer state at the point
+ * where lexing of the token began (its restart point), and the extent
+ * of the input examined while lexing it. When a new buffer is lexed:
+ * - The damaged region is located by comparing the new buffer with
+ *   the previous one (common prefix and suffix). Positions are computed
+ *   on the pre-processed text, since document offsets do not map
+ *   directly through macro expansion and include processing
+ * - Tokens that only examined text within the common prefix are replayed
+ * - Tokens in the damaged region are re-lexed
+ * - Once re-lexing reaches a restart point within the common suffix
+ *   whose state matches the state recorded for an old token, the token
+ *   stream has resynchronized and the remaining old tokens are replayed,
+ *   with line numbers adjusted for lines added or removed by the edit
+ *
+ * A replayed token is only used when the lexer state (attribute mode,
+ * delay control, and context where it matters) matches the recorded
+ * state. Otherwise, lexing resumes from the token's restart point.
+ *
+ * The cache is used by a single lexer at a time.
+ *
+ * @author ballance
+ *
+ */
+public class SVLexerTokenCache {
+	static final int				FLAG_INC_LINENO	= (1 << 0);
+	static final int				FLAG_IN_ATTR	= (1 << 1);
+	static final int				FLAG_DELAY_CTRL	= (1 << 2);
+	// Token is an identifier or keyword whose classification depends on context
+	static final int				FLAG_WORD		= (1 << 3);
+	// Lexing the token depended on the context (eg `macro in behavioral scope)
+	static final int				FLAG_CTXT_DEP	= (1 << 4);
+	static final int				CTXT_SHIFT		= 8;
+	// Lexer state that must match for a cached token to be reused
+	static final int				STATE_MASK		= (FLAG_IN_ATTR | FLAG_DELAY_CTRL);
+
+	private static class Generation {
+		private StringBuilder		fText;
+		private int					fTextLen;
+		private int					fSize;
+		private boolean				fComplete;
+
+		// Token lexed from each restart point. null for EOF
+		private SVToken				fTokens[];
+		// Scanner state at the restart point
+		private int					fStartIdx[];
+		private int					fUngetCh1[];
+		private int					fUngetCh2[];
+		private int					fLastCh[];
+		private int					fFileId[];
+		private int					fLineno[];
+		private int					fSegment[];
+		// Extent of the input examined while lexing the token
+		private int					fReadEnd[];
+		private int					fFlags[];
+
+		public Generation(StringBuilder text, int initial_size) {
+			fText = text;
+			fTextLen = text.length();
+			fTokens = new SVToken[initial_size];
+			fStartIdx = new int[initial_size];
+			fUngetCh1 = new int[initial_size];
+			fUngetCh2 = new int[initial_size];
+			fLastCh = new int[initial_size];
+			fFileId = new int[initial_size];
+			fLineno = new int[initial_size];
+			fSegment = new int[initial_size];
+			fReadEnd = new int[initial_size];
+			fFlags = new int[initial_size];
+		}
+
+		public void add(
+				SVToken		tok,
+				int			start_idx,
+				int			unget_ch1,
+				int			unget_ch2,
+				int			last_ch,
+				int			file_id,
+				int			lineno,
+				int			segment,
+				int			read_end,
+				int			flags) {
+			if (fSize >= fTokens.length) {
+				grow();
+			}
+			fTokens[fSize] = tok;
+			fStartIdx[fSize] = start_idx;
+			fUngetCh1[fSize] = unget_ch1;
+			fUngetCh2[fSize] = unget_ch2;
+			fLastCh[fSize] = last_ch;
+			fFileId[fSize] = file_id;
+			fLineno[fSize] = lineno;
+			fSegment[fSize] = segment;
+			fReadEnd[fSize] = read_end;
+			fFlags[fSize] = flags;
+			fSize++;
+		}
+
+		private void grow() {
+			int sz = 2*fTokens.length;
+			SVToken tokens[] = new SVToken[sz];
+			System.arraycopy(fTokens, 0, tokens, 0, fSize);
+			fTokens = tokens;
+			fStartIdx = grow(fStartIdx, sz);
+			fUngetCh1 = grow(fUngetCh1, sz);
+			fUngetCh2 = grow(fUngetCh2, sz);
+			fLastCh = grow(fLastCh, sz);
+			fFileId = grow(fFileId, sz);
+			fLineno = grow(fLineno, sz);
+			fSegment = grow(fSegment, sz);
+			fReadEnd = grow(fReadEnd, sz);
+			fFlags = grow(fFlags, sz);
+		}
+
+		private int [] grow(int arr[], int sz) {
+			int ret[] = new int[sz];
+			System.arraycopy(arr, 0, ret, 0, fSize);
+			return ret;
+		}
+
+		/**
+		 * Returns the first entry whose start index is >= idx
+		 */
+		public int lowerBound(int idx) {
+			int lo = 0, hi = fSize;
+
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (fStartIdx[mid] < idx) {
+					lo = mid+1;
+				} else {
+					hi = mid;
+				}
+			}
+
+			return lo;
+		}
+	}
+
+	private Generation					fPrev;
+	private Generation					fCurr;
+	private SVPreProcOutput				fScanner;
+
+	// Damaged region
+	private int							fPrefixLen;
+	private int							fNewSuffixStart;
+	private int							fDelta;
+
+	// Replay state
+	private int							fReplayIdx;
+	private boolean						fReplayPrefix;
+	private int							fNoResyncIdx;
+	private int							fResyncSegment;
+	private int							fLineDelta;
+	private int							fSegDelta;
+
+	// Pending restart point, captured by mark()
+	private int							fMarkIdx;
+	private int							fMarkUngetCh1;
+	private int							fMarkUngetCh2;
+	private int							fMarkLastCh;
+	private int							fMarkFileId;
+	private int							fMarkLineno;
+	private int							fMarkSegment;
+	private int							fMarkFlags;
+
+	// Statistics for the last lex
+	private int							fNumReused;
+	private int							fNumLexed;
+
+	public SVLexerTokenCache() {
+		fReplayIdx = -1;
+	}
+
+	/**
+	 * Begins lexing a new buffer. Called by the lexer on initialization
+	 */
+	void begin(SVPreProcOutput scanner) {
+		StringBuilder text = scanner.getText();
+		int initial_size = (fPrev != null)?(fPrev.fSize+16):1024;
+
+		fScanner = scanner;
+		fCurr = new Generation(text, initial_size);
+		fNumReused = 0;
+		fNumLexed = 0;
+		fReplayIdx = -1;
+		fNoResyncIdx = -1;
+
+		if (fPrev != null && fPrev.fComplete) {
+			StringBuilder old_t = fPrev.fText;
+			int old_len = fPrev.fTextLen;
+			int new_len = text.length();
+			int max = Math.min(old_len, new_len);
+			int prefix = 0, suffix = 0;
+
+			while (prefix < max && old_t.charAt(prefix) == text.charAt(prefix)) {
+				prefix++;
+			}
+			while (suffix < (max-prefix) &&
+					old_t.charAt(old_len-suffix-1) == text.charAt(new_len-suffix-1)) {
+				suffix++;
+			}
+
+			fPrefixLen = prefix;
+			fNewSuffixStart = new_len-suffix;
+			fDelta = new_len-old_len;
+
+			// Start by replaying the unchanged prefix
+			fReplayIdx = 0;
+			fReplayPrefix = true;
+		}
+	}
+
+	/**
+	 * Completes lexing of the current buffer. The tokens for the current
+	 * buffer replace the previous tokens if the buffer was fully lexed
+	 */
+	void end() {
+		if (fCurr != null && fCurr.fComplete) {
+			fPrev = fCurr;
+		}
+		fCurr = null;
+		fScanner = null;
+		fReplayIdx = -1;
+	}
+
+	/**
+	 * Discards the current lex, for example due to a lexer error
+	 */
+	void invalidate() {
+		fCurr = null;
+		fReplayIdx = -1;
+	}
+
+	/**
+	 * Removes all cached tokens
+	 */
+	public void clear() {
+		fPrev = null;
+		fCurr = null;
+		fReplayIdx = -1;
+	}
+
+	public int getNumTokens() {
+		return (fPrev != null)?fPrev.fSize:0;
+	}
+
+	/**
+	 * Returns the number of tokens reused during the last lex
+	 */
+	public int getNumReused() {
+		return fNumReused;
+	}
+
+	/**
+	 * Returns the number of tokens lexed during the last lex
+	 */
+	public int getNumLexed() {
+		return fNumLexed;
+	}
+
+	boolean isReplaying() {
+		return (fReplayIdx != -1);
+	}
+
+	/**
+	 * Checks whether the scanner is at a restart point in the unchanged
+	 * suffix that matches a previous restart point. If so, replay begins
+	 * with the token lexed from that restart point
+	 */
+	boolean resync(int flags) {
+		if (fCurr == null || fPrev == null || !fPrev.fComplete) {
+			return false;
+		}
+
+		int idx = fScanner.getIdx();
+
+		if (idx < fNewSuffixStart || idx <= fNoResyncIdx) {
+			return false;
+		}
+
+		Generation p = fPrev;
+		int old_idx = idx-fDelta;
+		int inc_lineno = (fScanner.getIncLineno())?FLAG_INC_LINENO:0;
+
+		for (int j=p.lowerBound(old_idx); j<p.fSize && p.fStartIdx[j] == old_idx; j++) {
+			if (p.fUngetCh1[j] == fScanner.getUngetCh1() &&
+					p.fUngetCh2[j] == fScanner.getUngetCh2() &&
+					p.fLastCh[j] == fScanner.getLastCh() &&
+					p.fFileId[j] == fScanner.getFileId() &&
+					(p.fFlags[j] & FLAG_INC_LINENO) == inc_lineno &&
+					(p.fFlags[j] & STATE_MASK) == (flags & STATE_MASK)) {
+				fReplayIdx = j;
+				fReplayPrefix = false;
+				fResyncSegment = p.fSegment[j];
+				fLineDelta = fScanner.getLineno() - p.fLineno[j];
+				fSegDelta = fScanner.getNumLineDirectives() - p.fSegment[j];
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Obtains the next cached token. Returns null if the cached token
+	 * cannot be reused. In that case, the scanner is positioned at the
+	 * token's restart point and replay stops.
+	 *
+	 * @param flags current lexer state
+	 * @param ctxt  current lexer context
+	 */
+	SVToken replay(int flags, Context ctxt) {
+		Generation p = fPrev;
+		int j = fReplayIdx;
+		boolean ok = (j < p.fSize-1 && p.fTokens[j] != null);
+		int delta = (fReplayPrefix)?0:fDelta;
+		int seg_delta = (fReplayPrefix)?0:fSegDelta;
+		boolean in_resync_seg = (!fReplayPrefix && p.fSegment[j] == fResyncSegment);
+
+		if (ok) {
+			int e_flags = p.fFlags[j];
+			ok = ((e_flags & STATE_MASK) == (flags & STATE_MASK)) &&
+					((e_flags & (FLAG_CTXT_DEP|FLAG_WORD)) == 0 ||
+						(e_flags >> CTXT_SHIFT) == ctxt.ordinal());
+
+			if (ok && fReplayPrefix) {
+				// Token must only depend on unchanged text
+				ok = (p.fReadEnd[j] <= fPrefixLen);
+			}
+		}
+
+		int lineno = p.fLineno[j] + ((in_resync_seg)?fLineDelta:0);
+
+		if (!ok) {
+			// Restart lexing from this token's restart point
+			fScanner.restoreState(
+					p.fStartIdx[j] + delta,
+					p.fUngetCh1[j],
+					p.fUngetCh2[j],
+					p.fLastCh[j],
+					p.fFileId[j],
+					lineno,
+					((p.fFlags[j] & FLAG_INC_LINENO) != 0),
+					p.fSegment[j] + seg_delta);
+			fNoResyncIdx = p.fStartIdx[j] + delta;
+			fReplayIdx = -1;
+			return null;
+		}
+
+		SVToken tok = p.fTokens[j];
+
+		// Only adjust the location of tokens that follow the edit
+		// within the same `line segment. A `line directive processed
+		// while lexing the token sets an absolute line number
+		if (in_resync_seg && fLineDelta != 0 && p.fSegment[j+1] == p.fSegment[j]) {
+			long loc = tok.fStartLocation;
+			tok = tok.duplicate();
+			tok.fStartLocation = SVDBLocation.pack(
+					SVDBLocation.unpackFileId(loc),
+					SVDBLocation.unpackLineno(loc) + fLineDelta,
+					SVDBLocation.unpackPos(loc));
+		}
+
+		fCurr.add(tok,
+				p.fStartIdx[j] + delta,
+				p.fUngetCh1[j],
+				p.fUngetCh2[j],
+				p.fLastCh[j],
+				p.fFileId[j],
+				lineno,
+				p.fSegment[j] + seg_delta,
+				p.fReadEnd[j] + delta,
+				p.fFlags[j]);
+
+		fReplayIdx++;
+		fNumReused++;
+
+		// Keep the scanner in step with the replayed tokens. The parser
+		// takes the location of new items and errors from the scanner
+		int n = j+1;
+		fScanner.restoreState(
+				p.fStartIdx[n] + delta,
+				p.fUngetCh1[n],
+				p.fUngetCh2[n],
+				p.fLastCh[n],
+				p.fFileId[n],
+				p.fLineno[n] + ((!fReplayPrefix && p.fSegment[n] == fResyncSegment)?fLineDelta:0),
+				((p.fFlags[n] & FLAG_INC_LINENO) != 0),
+				p.fSegment[n] + seg_delta);
+
+		return tok;
+	}
+
+	/**
+	 * Returns whether the lexer is in delay-control mode following
+	 * the last replayed token
+	 */
+	boolean getReplayDelayCtrl() {
+		return ((fPrev.fFlags[fReplayIdx] & FLAG_DELAY_CTRL) != 0);
+	}
+
+	/**
+	 * Captures the restart point prior to lexing a token
+	 */
+	void mark(int flags) {
+		fMarkIdx = fScanner.getIdx();
+		fMarkUngetCh1 = fScanner.getUngetCh1();
+		fMarkUngetCh2 = fScanner.getUngetCh2();
+		fMarkLastCh = fScanner.getLastCh();
+		fMarkFileId = fScanner.getFileId();
+		fMarkLineno = fScanner.getLineno();
+		fMarkSegment = fScanner.getNumLineDirectives();
+		fMarkFlags = (flags & STATE_MASK) |
+				((fScanner.getIncLineno())?FLAG_INC_LINENO:0);
+	}
+
+	/**
+	 * Records the token lexed from the last restart point
+	 *
+	 * @param tok   lexed token, or null on end-of-file
+	 * @param flags token flags (FLAG_WORD, FLAG_CTXT_DEP)
+	 * @param ctxt  lexer context while the token was lexed
+	 */
+	void record(SVToken tok, int flags, Context ctxt) {
+		if (fCurr == null) {
+			return;
+		}
+		int read_end = fScanner.getIdx();
+		
+		if (read_end >= fCurr.fTextLen) {
+			// Reached the end of input. Appending text could change this token
+			read_end = fCurr.fTextLen+1;
+		}
+		
+		fCurr.add((tok != null)?tok.duplicate():null,
+				fMarkIdx,
+				fMarkUngetCh1,
+				fMarkUngetCh2,
+				fMarkLastCh,
+				fMarkFileId,
+				fMarkLineno,
+				fMarkSegment,
+				read_end,
+				fMarkFlags | flags | (ctxt.ordinal() << CTXT_SHIFT));
+		fNumLexed++;
+
+		if (tok == null) {
+			fCurr.fComplete = true;
+		}
+	}
+
+}
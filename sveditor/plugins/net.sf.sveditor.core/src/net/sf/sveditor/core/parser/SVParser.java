@@ -84,6 +84,8 @@ public class SVParser implements ISVScanner,
 	private boolean						fDisableErrors;
 	private ISVPreProcFileMapper		fFileMapper;
 	private SVParserConfig				fConfig;
+	private SVLexerTokenCache			fTokenCache;
+	private boolean						fCollectLexStats;
 	
 	private List<ISVParserTypeListener>	fTypeListeners;
 	
@@ -127,6 +129,25 @@ public class SVParser implements ISVScanner,
 	public void setFileMapper(ISVPreProcFileMapper mapper) {
 		fFileMapper = mapper;
 	}
+	
+	/**
+	 * Sets a token cache to use when parsing pre-processor output. 
+	 * Tokens from the previous parse of the same file are reused 
+	 * where the pre-processed text is unchanged
+	 * 
+	 * @param cache
+	 */
+	public void setTokenCache(SVLexerTokenCache cache) {
+		fTokenCache = cache;
+	}
+	
+	/**
+	 * Enables collection of lex time by the lexer. Statistics
+	 * are available from {@link #lexer()} after parsing
+	 */
+	public void setCollectLexStats(boolean collect) {
+		fCollectLexStats = collect;
+	}
 
 	public ScanLocation getStmtLocation() {
 		if (fStmtLocation == null) {
@@ -627,6 +648,7 @@ public class SVParser implements ISVScanner,
 //		fLog.debug(fInput.toString());
 		
 		fLexer = new SVLexer(fLanguageLevel);
+		fLexer.setCollectStats(fCollectLexStats);
 		fLexer.init(this, fInput);
 		fSVParsers = new SVParsers();
 		fSVParsers.init(this);
@@ -687,7 +709,8 @@ public class SVParser implements ISVScanner,
 
 		fInput = in;
 		fLexer = new SVLexer(fLanguageLevel);
-		fLexer.init(this, in);
+		fLexer.setCollectStats(fCollectLexStats);
+		fLexer.init(this, in, fTokenCache);
 		
 		if (tok_listener != null) {
 			fLexer.addTokenListener(tok_listener);
@@ -723,6 +746,8 @@ public class SVParser implements ISVScanner,
 			fScopeStack.pop();
 		}
 		
+		fLexer.endTokenCache();
+		
 		return fFile;
 	}
 	
@@ -738,6 +763,7 @@ public class SVParser implements ISVScanner,
 		fInput = preproc.preprocess();
 		
 		fLexer = new SVLexer(fLanguageLevel);
+		fLexer.setCollectStats(fCollectLexStats);
 		fLexer.init(this, fInput);
 		fSVParsers = new SVParsers();
 		fSVParsers.init(this);
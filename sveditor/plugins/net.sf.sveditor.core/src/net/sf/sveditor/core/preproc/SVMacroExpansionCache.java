@@ -0,0 +1,186 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.preproc;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import net.sf.sveditor.core.db.SVDBMacroDef;
+
+/**
+ * Memoizes single-level macro expansions. Entries are keyed by the
+ * identity of the macro definition and the text of the call arguments,
+ * so a redefined macro (a new SVDBMacroDef) never matches entries
+ * created for the previous definition. Entries also record the definition
+ * text they were created from, and are discarded if it has changed.
+ *
+ * The cache is bounded, and evicts least-recently-used entries. It
+ * may be shared by pre-processors running on different threads
+ *
+ * @author ballance
+ *
+ */
+public class SVMacroExpansionCache {
+	public static final int					DEFAULT_MAX_ENTRIES = 16384;
+
+	private static class Key {
+		private SVDBMacroDef				fMacro;
+		private String						fParams[];
+		private int							fHash;
+
+		public Key(SVDBMacroDef m, String params[]) {
+			fMacro = m;
+			fParams = params;
+			fHash = 31*System.identityHashCode(m) + Arrays.hashCode(params);
+		}
+
+		@Override
+		public int hashCode() {
+			return fHash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key o = (Key)obj;
+
+			return (o.fMacro == fMacro && o.fHash == fHash &&
+					Arrays.equals(o.fParams, fParams));
+		}
+	}
+
+	private static class Expansion {
+		private String						fDef;
+		private String						fText;
+
+		public Expansion(String def, String text) {
+			fDef = def;
+			fText = text;
+		}
+	}
+
+	private Map<Key, Expansion>				fCache;
+	// Keys of the cached expansions of each macro definition
+	private Map<SVDBMacroDef, Set<Key>>		fMacroKeys;
+	private int								fMaxEntries;
+	private long							fNumLookups;
+	private long							fNumHits;
+
+	public SVMacroExpansionCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	public SVMacroExpansionCache(int max_entries) {
+		fMaxEntries = max_entries;
+		fMacroKeys = new IdentityHashMap<SVDBMacroDef, Set<Key>>();
+		fCache = new LinkedHashMap<Key, Expansion>(256, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<Key, Expansion> eldest) {
+				if (size() > fMaxEntries) {
+					removeKey(eldest.getKey());
+					return true;
+				} else {
+					return false;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached expansion of 'm' with 'params', or null
+	 */
+	public synchronized String get(SVDBMacroDef m, List<String> params) {
+		Key key = new Key(m, params.toArray(new String[params.size()]));
+		Expansion exp = fCache.get(key);
+
+		fNumLookups++;
+
+		if (exp != null) {
+			if (exp.fDef == m.getDef() || (exp.fDef != null && exp.fDef.equals(m.getDef()))) {
+				fNumHits++;
+				return exp.fText;
+			} else {
+				// Definition was changed in place
+				invalidate(m);
+			}
+		}
+
+		return null;
+	}
+
+	public synchronized void put(SVDBMacroDef m, List<String> params, String text) {
+		Key key = new Key(m, params.toArray(new String[params.size()]));
+		
+		if (fCache.put(key, new Expansion(m.getDef(), text)) == null) {
+			Set<Key> keys = fMacroKeys.get(m);
+			if (keys == null) {
+				keys = new HashSet<Key>();
+				fMacroKeys.put(m, keys);
+			}
+			keys.add(key);
+		}
+	}
+
+	/**
+	 * Discards all expansions of the specified macro definition.
+	 * Called when a macro is redefined
+	 */
+	public synchronized void invalidate(SVDBMacroDef m) {
+		Set<Key> keys = fMacroKeys.remove(m);
+		
+		if (keys != null) {
+			for (Key k : keys) {
+				fCache.remove(k);
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		fCache.clear();
+		fMacroKeys.clear();
+	}
+	
+	private void removeKey(Key key) {
+		Set<Key> keys = fMacroKeys.get(key.fMacro);
+		
+		if (keys != null) {
+			keys.remove(key);
+			if (keys.size() == 0) {
+				fMacroKeys.remove(key.fMacro);
+			}
+		}
+	}
+
+	public synchronized int size() {
+		return fCache.size();
+	}
+
+	public synchronized long getNumLookups() {
+		return fNumLookups;
+	}
+
+	public synchronized long getNumHits() {
+		return fNumHits;
+	}
+
+}
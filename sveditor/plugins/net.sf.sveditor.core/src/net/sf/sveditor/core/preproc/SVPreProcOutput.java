@@ -1,5 +1,8 @@
 package net.sf.sveditor.core.preproc;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.sf.sveditor.core.db.SVDBFileTree;
 import net.sf.sveditor.core.scanutils.AbstractTextScanner;
 
@@ -17,8 +20,31 @@ public class SVPreProcOutput extends AbstractTextScanner {
 		}
 	}
 	
+	/**
+	 * Producer of pre-processor output. Used in streaming mode, where 
+	 * the output is produced a chunk at a time as the scanner consumes it
+	 */
+	public interface IOutputSource {
+		
+		/**
+		 * Appends the next chunk of output to 'buf'
+		 * 
+		 * @return false once all output has been produced
+		 */
+		boolean fill(StringBuilder buf);
+		
+	}
+	
 	private StringBuilder						fText;
 	private int									fTextLength;
+	// Streaming mode: producer of the text and the output 
+	// offset of the first character held in fText 
+	private IOutputSource						fSource;
+	private long								fBase;
+	// Offset,file-id,line entries for the output. In streaming mode, 
+	// entries for already-consumed output are discarded
+	private List<FileChangeInfo>				fFileMap;
+	private StringBuilder						fLineBuf;
 	private SVDBFileTree						fFileTree;
 
 	private int									fFileId;
@@ -26,6 +52,8 @@ public class SVPreProcOutput extends AbstractTextScanner {
 	private int									fLastCh;
 	private boolean								fIncLineno;
 	private int									fUngetCh1, fUngetCh2;
+	// Number of `line directives processed so far
+	private int									fNumLineDirectives;
 	private ISVPreProcOutputFileChangeListener	fFileChangeListener;
 	
 	public SVPreProcOutput(StringBuilder text) {
@@ -45,14 +73,127 @@ public class SVPreProcOutput extends AbstractTextScanner {
 		fTextLength = fText.length();
 		fUngetCh1 = -1;
 		fUngetCh2 = -1;
+		fFileMap = new ArrayList<FileChangeInfo>();
+	}
+	
+	/**
+	 * Creates a streaming output. Text is pulled from 'source' 
+	 * on demand, and discarded once it has been consumed
+	 * 
+	 * @param source
+	 * @param file_map list of file-change entries, appended by the producer
+	 */
+	public SVPreProcOutput(IOutputSource source, List<FileChangeInfo> file_map) {
+		this(new StringBuilder());
+		fSource = source;
+		fFileMap = file_map;
+	}
+	
+	/**
+	 * Indicates whether the output is produced on demand. The full text
+	 * is not available from a streaming output, so getText() only returns
+	 * the unconsumed portion of the current chunk
+	 */
+	public boolean isStreaming() {
+		return (fSource != null);
+	}
+	
+	public void setFileMap(List<FileChangeInfo> file_map) {
+		fFileMap = file_map;
+	}
+	
+	public List<FileChangeInfo> getFileMap() {
+		return fFileMap;
+	}
+	
+	/**
+	 * Finds the file-change entry that covers output offset 'pos'
+	 */
+	public FileChangeInfo findFileChangeInfo(long pos) {
+		int lo = 0, hi = fFileMap.size()-1, ret = -1;
+		
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (fFileMap.get(mid).fStartIdx <= pos) {
+				ret = mid;
+				lo = mid+1;
+			} else {
+				hi = mid-1;
+			}
+		}
+		
+		return (ret != -1)?fFileMap.get(ret):null;
+	}
+	
+	/**
+	 * Pulls the next chunk of text from the source, first discarding
+	 * text that has already been consumed
+	 * 
+	 * @return false when no more text is available
+	 */
+	private boolean fill() {
+		if (fSource == null) {
+			return false;
+		}
+		
+		if (fIdx > 0) {
+			fText.delete(0, fIdx);
+			fBase += fIdx;
+			fIdx = 0;
+			
+			// Retain only the entry covering the new base offset
+			int n_drop = 0;
+			while (n_drop+1 < fFileMap.size() && 
+					fFileMap.get(n_drop+1).fStartIdx <= fBase) {
+				n_drop++;
+			}
+			if (n_drop > 0) {
+				fFileMap.subList(0, n_drop).clear();
+			}
+		}
+		
+		int start = fText.length();
+		if (!fSource.fill(fText)) {
+			fSource = null;
+		}
+		
+		int length = fText.length();
+		for (int i=start; i<length; i++) {
+			if (fText.charAt(i) == '\r') {
+				fText.setCharAt(i, '\n');
+			}
+		}
+		fTextLength = length;
+		
+		return (length > start || fSource != null);
+	}
+	
+	/**
+	 * Ensures at least one unconsumed character is available
+	 */
+	private boolean avail() {
+		while (fIdx >= fTextLength) {
+			if (!fill()) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	public void setFileChangeListener(ISVPreProcOutputFileChangeListener l) {
 		fFileChangeListener = l;
 	}
 	
+	/**
+	 * Returns a copy of the output. For a streaming output,
+	 * the copy only covers the unconsumed text of the current chunk
+	 */
 	public SVPreProcOutput duplicate() {
-		return new SVPreProcOutput(fText);
+		if (fSource != null) {
+			return new SVPreProcOutput(new StringBuilder(fText.substring(fIdx)));
+		} else {
+			return new SVPreProcOutput(fText);
+		}
 	}
 	
 	public void setFileTree(SVDBFileTree ft) {
@@ -75,17 +216,25 @@ public class SVPreProcOutput extends AbstractTextScanner {
 			ch = fUngetCh1;
 			fUngetCh1 = fUngetCh2;
 			fUngetCh2 = -1;
-		} else if (fIdx < fTextLength) {
+		} else if (avail()) {
 			ch = fText.charAt(fIdx++);
 		
 			// Only expect `line directives
-			if (ch == '`' && fIdx < fText.length() && fText.charAt(fIdx) == 'l') {
-				int start = fIdx;
-				// Directive
+			if (ch == '`' && avail() && fText.charAt(fIdx) == 'l') {
+				// Directive. Collected into a separate buffer, since
+				// a streaming output may discard text while reading it
 				String line;
+				int lch;
 				
-				while (fIdx < fText.length() && fText.charAt(fIdx++) != '\n') { }
-				line = fText.substring(start, fIdx-1);
+				if (fLineBuf == null) {
+					fLineBuf = new StringBuilder();
+				}
+				fLineBuf.setLength(0);
+				while (avail() && (lch = fText.charAt(fIdx++)) != '\n') { 
+					fLineBuf.append((char)lch);
+				}
+				line = fLineBuf.toString();
+				fNumLineDirectives++;
 				
 				int ws_idx = line.indexOf(' ');
 				int colon_idx = line.indexOf(':', ws_idx);
@@ -122,7 +271,7 @@ public class SVPreProcOutput extends AbstractTextScanner {
 					e.printStackTrace();
 				}
 				
-				ch = (fIdx < fText.length())?fText.charAt(fIdx++):-1;
+				ch = (avail())?fText.charAt(fIdx++):-1;
 			} else if (fLastCh == '\n' && fIncLineno) {
 				fLineno++;
 			}
@@ -157,8 +306,63 @@ public class SVPreProcOutput extends AbstractTextScanner {
 	}
 
 	public long getPos() {
+		return fBase + fIdx;
+	}
+	
+	public StringBuilder getText() {
+		return fText;
+	}
+	
+	/*
+	 * Scanner-state accessors. Used by the lexer token cache to 
+	 * identify token boundaries and to restart scanning from them
+	 */
+	public int getIdx() {
 		return fIdx;
 	}
+	
+	public int getUngetCh1() {
+		return fUngetCh1;
+	}
+	
+	public int getUngetCh2() {
+		return fUngetCh2;
+	}
+	
+	public int getLastCh() {
+		return fLastCh;
+	}
+	
+	public boolean getIncLineno() {
+		return fIncLineno;
+	}
+	
+	public int getNumLineDirectives() {
+		return fNumLineDirectives;
+	}
+	
+	/**
+	 * Restores scanner state previously captured via the 
+	 * state accessors. The file-change listener is not notified
+	 */
+	public void restoreState(
+			int			idx,
+			int			unget_ch1,
+			int			unget_ch2,
+			int			last_ch,
+			int			file_id,
+			int			lineno,
+			boolean		inc_lineno,
+			int			n_line_directives) {
+		fIdx = idx;
+		fUngetCh1 = unget_ch1;
+		fUngetCh2 = unget_ch2;
+		fLastCh = last_ch;
+		fFileId = file_id;
+		fLineno = lineno;
+		fIncLineno = inc_lineno;
+		fNumLineDirectives = n_line_directives;
+	}
 
 	public String toString() {
 		return fText.toString();
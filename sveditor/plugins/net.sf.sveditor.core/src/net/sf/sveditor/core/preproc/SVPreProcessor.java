@@ -46,7 +46,14 @@ public class SVPreProcessor extends AbstractTextScanner
 	private SVDBIndexStats							fIndexStats;
 	private ISVPreProcIncFileProvider				fIncFileProvider;
 	private StringBuilder							fOutput;
+	// Total length of the output produced so far. Output positions 
+	// are relative to the start of output, even when streaming
 	private int										fOutputLen;
+	private long									fPreProcessTimeNS;
+	// Scanning state carried between calls to preprocess_step()
+	private int										fPPLastCh;
+	private boolean									fPPInString;
+	private boolean									fPPIfdefEnabled;
 	private StringBuilder							fCommentBuffer;
 	private boolean									fInComment;
 	private IDocCommentParser   					fDocCommentParser;
@@ -60,7 +67,10 @@ public class SVPreProcessor extends AbstractTextScanner
 	private List<String>							fMacroParams;
 	private Stack<Integer>							fPreProcEn;
 	private boolean									fInProtectedRegion;
-	private Stack<Long>								fPreProcLoc;
+	// Locations of the active conditional directives. Kept as
+	// a primitive stack to avoid boxing each location
+	private long									fPreProcLoc[];
+	private int										fPreProcLocSz;
 	private IPreProcMacroProvider					fMacroProvider;
 	private SVSingleLevelMacroExpander				fMacroExpander;
 	private LogHandle								fLog;
@@ -93,6 +103,9 @@ public class SVPreProcessor extends AbstractTextScanner
 	private static final int	PP_THIS_LEVEL_EN_BLOCK 	= 4;
 	
 	public static final Set<String>	fIgnoredDirectives;
+	
+	// Default chunk size used when streaming output
+	public static final int			STREAM_CHUNK_SIZE = 64*1024;
 
 	static {
 		fIgnoredDirectives = new HashSet<String>();
@@ -135,7 +148,7 @@ public class SVPreProcessor extends AbstractTextScanner
 		fTmpBuffer = new StringBuilder();
 		fMacroParams = new ArrayList<String>();
 		fPreProcEn = new Stack<Integer>();
-		fPreProcLoc = new Stack<Long>();
+		fPreProcLoc = new long[16];
 		fFileMap = new ArrayList<SVPreProcOutput.FileChangeInfo>();
 		fFileList = new ArrayList<String>();
 		
@@ -167,11 +180,12 @@ public class SVPreProcessor extends AbstractTextScanner
 		fInputStack.clear();
 		fMacroExpSet.clear();
 		fOutput.setLength(0);
+		fOutputLen = 0;
 		fCommentBuffer.setLength(0);
 		fTmpBuffer.setLength(0);
 		fMacroParams.clear();
 		fPreProcEn.clear();
-		fPreProcLoc.clear();
+		fPreProcLocSz = 0;
 		fFileMap.clear();
 		fFileList.clear();
 	}
@@ -219,6 +233,15 @@ public class SVPreProcessor extends AbstractTextScanner
 		fIndexStats = stats;
 	}
 	
+	/**
+	 * Sets the cache used to memoize macro expansions. Sharing a 
+	 * cache between pre-processors allows expansions of macros from 
+	 * shared (cached) include files to be reused across files
+	 */
+	public void setMacroExpansionCache(SVMacroExpansionCache cache) {
+		fMacroExpander.setCache(cache);
+	}
+	
 	public void logLevelChanged(ILogHandle handle) {
 		fDebugEn = handle.isEnabled();
 	}
@@ -232,151 +255,250 @@ public class SVPreProcessor extends AbstractTextScanner
 	}
 	
 	public SVPreProcOutput preprocess() {
-		int ch, last_ch = -1;
-		int end_comment1 = -1, end_comment2 = -1;
-		long start, end;
-		boolean in_string = false;
-		boolean ifdef_enabled = true;
-		boolean found_single_line_comment = false;
+		long start = System.nanoTime();
+		
+		begin_preprocess();
+
+		while (preprocess_step()) { }
+		
+		fPreProcessTimeNS = (System.nanoTime()-start);
+		
+		SVPreProcOutput ret = new SVPreProcOutput(fOutput);
+		ret.setFileTree(fInputCurr.getFileTree());
+		ret.setFileMap(fFileMap);
+		ret.setFileId(fInputCurr.getFileId());
+		
+		end_preprocess();
+		
+		return ret;
+	}
+	
+	/**
+	 * Pre-processes in streaming mode. Output is produced on demand, 
+	 * in chunks of roughly 'chunk_size' characters, as the returned scanner 
+	 * is read. Peak memory use is bounded by the chunk size rather than by 
+	 * the size of the expanded file. The file tree is complete once the
+	 * returned output has been read to the end
+	 */
+	public SVPreProcOutput preprocessStream(final int chunk_size) {
+		begin_preprocess();
+		
+		SVPreProcOutput ret = new SVPreProcOutput(new SVPreProcOutput.IOutputSource() {
+			
+			public boolean fill(StringBuilder buf) {
+				return fill_output(buf, chunk_size);
+			}
+		}, fFileMap);
+		ret.setFileTree(fInputCurr.getFileTree());
+		ret.setFileId(fInputCurr.getFileId());
+		
+		return ret;
+	}
+	
+	/**
+	 * Returns the time spent pre-processing. In streaming mode, this 
+	 * excludes the time the consumer spends between requests for output
+	 */
+	public long getPreProcessTime() {
+		return (fPreProcessTimeNS / 1000000);
+	}
+	
+	public long getPreProcessTimeNS() {
+		return fPreProcessTimeNS;
+	}
+	
+	private boolean fill_output(StringBuilder buf, int chunk_size) {
+		long start = System.nanoTime();
+		boolean more = true;
+		
+		while (fOutput.length() < chunk_size) {
+			if (!preprocess_step()) {
+				more = false;
+				break;
+			}
+		}
+		
+		// Hold back a trailing '\r', since a following '\n' replaces it 
+		int len = fOutput.length();
+		if (more && len > 0 && fOutput.charAt(len-1) == '\r') {
+			len--;
+		}
+		buf.append(fOutput, 0, len);
+		fOutput.delete(0, len);
+		
+		fPreProcessTimeNS += (System.nanoTime()-start);
 		
-		start = System.currentTimeMillis();
+		if (!more) {
+			end_preprocess();
+		}
+		
+		return more;
+	}
+	
+	private void begin_preprocess() {
+		fPreProcessTimeNS = 0;
+		fPPLastCh = -1;
+		fPPInString = false;
+		fPPIfdefEnabled = true;
 		fOutput.setLength(0);
+		fOutputLen = 0;
 		fCommentBuffer.setLength(0);
 		
 		// First thing we do is emit a line directive.
 		// This initializes everything for the output 
 		emit_line();
+	}
+	
+	private void end_preprocess() {
+		long start = System.nanoTime();
+		
+		// Clean up after any unbalanced pre-processor directives
+		cleanup_preproc_leftovers();
+	
+		// Leave final file
+		fInputCurr.close();
+		
+		fPreProcessTimeNS += (System.nanoTime()-start);
+		
+		if (fIndexStats != null) {
+			if (fInputCurr.getInput() instanceof SVFileBuffer) {
+				fIndexStats.incLastIndexFileReadTimeNS(
+						((SVFileBuffer)fInputCurr.getInput()).getReadTimeNS());
+			}
+			fIndexStats.incNumLines(fInputCurr.getLineCount());
+			fIndexStats.incLastIndexPreProcessTimeNS(fPreProcessTimeNS);
+			fIndexStats.incNumProcessedFiles();
+			fIndexStats.incMacroExpansionStats(
+					fMacroExpander.getNumExpansions(),
+					fMacroExpander.getNumCacheHits());
+		}
+		
+//		if (fDebugEn && fLog.getDebugLevel() >= ILogLevel.LEVEL_MAX) {
+//			fLog.debug(ILogLevel.LEVEL_MAX, "PreProcessor Result:\n" + 
+//					fOutput.toString() + "\n");
+//		}
+	}
+	
+	/**
+	 * Processes the next input character 
+	 * 
+	 * @return false once the input is exhausted
+	 */
+	private boolean preprocess_step() {
+		int ch, last_ch = fPPLastCh;
+		int end_comment1 = -1, end_comment2 = -1;
+		boolean in_string = fPPInString;
+		boolean ifdef_enabled = fPPIfdefEnabled;
+		boolean found_single_line_comment = false;
 
-		while ((ch = get_ch()) != -1) {
-			found_single_line_comment = false;
-			if (!in_string) {
-				// Handle comment
-				if (ch == '/') {
-					int ch2 = get_ch();
-
-					if (ch2 == '/') {
-						output(' ');
-						found_single_line_comment = true;
-						beginComment();
-						while ((ch = get_ch()) != -1 && 
-								ch != '\n' && ch != '\r') { 
-							fCommentBuffer.append((char)ch);
-						}
-						fCommentBuffer.append('\n');
+		if ((ch = get_ch()) == -1) {
+			return false;
+		}
+		
+		if (!in_string) {
+			// Handle comment
+			if (ch == '/') {
+				int ch2 = get_ch();
+
+				if (ch2 == '/') {
+					output(' ');
+					found_single_line_comment = true;
+					beginComment();
+					while ((ch = get_ch()) != -1 && 
+							ch != '\n' && ch != '\r') { 
+						fCommentBuffer.append((char)ch);
+					}
+					fCommentBuffer.append('\n');
 
-						// Handle
-						if (ch == '\r') {
-							ch = get_ch();
-							if (ch != '\n') {
-								unget_ch(ch);
-							}
+					// Handle
+					if (ch == '\r') {
+						ch = get_ch();
+						if (ch != '\n') {
+							unget_ch(ch);
 						}
-						ch = '\n';
-						last_ch = ' ';
-					} else if (ch2 == '*') {
-						end_comment1 = -1;
-						end_comment2 = -1;
-
-						output(' ');
-
-						beginComment();
-						while ((ch = get_ch()) != -1) {
-							end_comment1 = end_comment2;
-							end_comment2 = ch;
-							
-							String S = fCommentBuffer.toString(); 
-
-							if (end_comment1 == '*' && end_comment2 == '/') {
-								// Remove trailing *
-								fCommentBuffer.deleteCharAt(fCommentBuffer.length()-1);
-								endComment();
-								break;
-							} else {
-								if (ch == '\n') {
-									output('\n');
-								}
-								fCommentBuffer.append((char)ch);
+					}
+					ch = '\n';
+					last_ch = ' ';
+				} else if (ch2 == '*') {
+					end_comment1 = -1;
+					end_comment2 = -1;
+
+					output(' ');
+
+					beginComment();
+					while ((ch = get_ch()) != -1) {
+						end_comment1 = end_comment2;
+						end_comment2 = ch;
+						
+						String S = fCommentBuffer.toString(); 
+
+						if (end_comment1 == '*' && end_comment2 == '/') {
+							// Remove trailing *
+							fCommentBuffer.deleteCharAt(fCommentBuffer.length()-1);
+							endComment();
+							break;
+						} else {
+							if (ch == '\n') {
+								output('\n');
 							}
+							fCommentBuffer.append((char)ch);
 						}
-						ch = ' ';
-						last_ch = ' ';
-					} else {
-						unget_ch(ch2);
-					}
-				}
-				
-				if (!Character.isWhitespace(ch) && fInComment) {
-					// Send accumlated comment to observer
-					endComment();
-				}
-				
-				if (ch == '`') {
-					// Processing an ifdef may affect enablement
-					handle_preproc_directive();
-					ifdef_enabled = ifdef_enabled();
-					if (!ifdef_enabled) {
-						output(' ');
 					}
+					ch = ' ';
+					last_ch = ' ';
 				} else {
-					if (ch == '"' && last_ch != '\\' && last_ch != '`' && !fInProtectedRegion) {
-						// Enter string
-						in_string = true;
-					}
-					if (ifdef_enabled && ch != -1) {
-						output((char)ch);
-					}
+					unget_ch(ch2);
+				}
+			}
+			
+			if (!Character.isWhitespace(ch) && fInComment) {
+				// Send accumlated comment to observer
+				endComment();
+			}
+			
+			if (ch == '`') {
+				// Processing an ifdef may affect enablement
+				handle_preproc_directive();
+				ifdef_enabled = ifdef_enabled();
+				if (!ifdef_enabled) {
+					output(' ');
 				}
-			} else { // In String
-				if (ch == '"' && last_ch != '\\' && last_ch != '`') {
-					in_string = false;
+			} else {
+				if (ch == '"' && last_ch != '\\' && last_ch != '`' && !fInProtectedRegion) {
+					// Enter string
+					in_string = true;
 				}
 				if (ifdef_enabled && ch != -1) {
 					output((char)ch);
 				}
 			}
-			
-			// Consecutive back-slashes convert to
-			// a single backslash. For tracking purposes,
-			// convert to space
-			if (last_ch == '\\' && ch == '\\') {
-				last_ch = ' ';
-			} else {
-				last_ch = ch;
+		} else { // In String
+			if (ch == '"' && last_ch != '\\' && last_ch != '`') {
+				in_string = false;
 			}
-			
-			if (fInComment && !found_single_line_comment && ch == '\n') {
-				endComment();
+			if (ifdef_enabled && ch != -1) {
+				output((char)ch);
 			}
 		}
 		
-		SVPreProcOutput ret = new SVPreProcOutput(fOutput);
-		ret.setFileTree(fInputCurr.getFileTree());
-		
-		// Clean up after any unbalanced pre-processor directives
-		cleanup_preproc_leftovers();
-	
-		// Leave final file
-		ret.setFileId(fInputCurr.getFileId());
-		fInputCurr.close();
-		
-		end = System.currentTimeMillis();
+		// Consecutive back-slashes convert to
+		// a single backslash. For tracking purposes,
+		// convert to space
+		if (last_ch == '\\' && ch == '\\') {
+			last_ch = ' ';
+		} else {
+			last_ch = ch;
+		}
 		
-		if (fIndexStats != null) {
-			if (fInputCurr.getInput() instanceof SVFileBuffer) {
-				fIndexStats.incLastIndexFileReadTime(
-						((SVFileBuffer)fInputCurr.getInput()).getReadTime());
-			}
-			fIndexStats.incNumLines(fInputCurr.getLineCount());
-			fIndexStats.incLastIndexPreProcessTime(end-start);
-			fIndexStats.incNumProcessedFiles();
+		if (fInComment && !found_single_line_comment && ch == '\n') {
+			endComment();
 		}
 		
-//		if (fDebugEn && fLog.getDebugLevel() >= ILogLevel.LEVEL_MAX) {
-//			fLog.debug(ILogLevel.LEVEL_MAX, "PreProcessor Result:\n" + 
-//					fOutput.toString() + "\n");
-//		}
+		fPPLastCh = last_ch;
+		fPPInString = in_string;
+		fPPIfdefEnabled = ifdef_enabled;
 		
-		return ret;
+		return true;
 	}
 	
 	public SVDBFileTree getFileTree() {
@@ -904,7 +1026,7 @@ public class SVPreProcessor extends AbstractTextScanner
 			if (do_event) {
 				fTmpBuffer.append(endCapture());
 				ev_s = new PreProcEvent(PreProcEvent.Type.BeginExpand);
-				ev_s.pos = fOutput.length();
+				ev_s.pos = fOutputLen;
 				ev_s.text = fTmpBuffer.toString();
 				sendEvent(ev_s);
 			}
@@ -1110,11 +1232,11 @@ public class SVPreProcessor extends AbstractTextScanner
 	private void cleanup_preproc_leftovers() {
 		int file_id = fInputCurr.getFileId();
 		long loc;
-		while (fPreProcLoc.size() > 0 && 
-				SVDBLocation.unpackFileId((loc = fPreProcLoc.peek())) == file_id) {
+		while (fPreProcLocSz > 0 && 
+				SVDBLocation.unpackFileId((loc = fPreProcLoc[fPreProcLocSz-1])) == file_id) {
 			
 			// Leftovers indicates unbalanced directives
-			fPreProcLoc.pop();
+			fPreProcLocSz--;
 			fPreProcEn.pop();
 			SVDBMarker m = new SVDBMarker(MarkerType.Error, 
 					MarkerKind.UnbalancedDirective, 
@@ -1147,8 +1269,8 @@ public class SVPreProcessor extends AbstractTextScanner
 		if (fIndexStats != null) {
 			// Update stats
 			if (old_file.getInput() instanceof SVFileBuffer) {
-				fIndexStats.incLastIndexFileReadTime(
-						((SVFileBuffer)old_file.getInput()).getReadTime());
+				fIndexStats.incLastIndexFileReadTimeNS(
+						((SVFileBuffer)old_file.getInput()).getReadTimeNS());
 			}
 			fIndexStats.incNumLines(old_file.getLineCount());
 			fIndexStats.incNumProcessedFiles();
@@ -1161,7 +1283,7 @@ public class SVPreProcessor extends AbstractTextScanner
 		if ((ev_s = curr_in.getBeginEv()) != null) {
 			if (fHaveListeners) {
 				PreProcEvent ev_e = new PreProcEvent(PreProcEvent.Type.EndExpand);
-				ev_e.pos = fOutput.length();
+				ev_e.pos = fOutputLen;
 				ev_e.text = ev_s.text;
 				sendEvent(ev_e);
 			}			
@@ -1245,7 +1367,7 @@ public class SVPreProcessor extends AbstractTextScanner
 		}
 		
 		fPreProcEn.push(e);
-		fPreProcLoc.push(scan_loc);
+		push_preproc_loc(scan_loc);
 	
 		if (fDebugEn) {
 			fLog.debug("enter_ifdef: " + SVDBLocation.unpackLineno(scan_loc) + 
@@ -1256,11 +1378,20 @@ public class SVPreProcessor extends AbstractTextScanner
 		update_unprocessed_region(scan_loc, enabled_pre);
 	}
 	
+	private void push_preproc_loc(long loc) {
+		if (fPreProcLocSz >= fPreProcLoc.length) {
+			long tmp[] = new long[2*fPreProcLoc.length];
+			System.arraycopy(fPreProcLoc, 0, tmp, 0, fPreProcLocSz);
+			fPreProcLoc = tmp;
+		}
+		fPreProcLoc[fPreProcLocSz++] = loc;
+	}
+	
 	private void leave_ifdef(long scan_loc) {
 		boolean enabled_pre = ifdef_enabled();
 		if (fPreProcEn.size() > 0) {
 			fPreProcEn.pop();
-			fPreProcLoc.pop();
+			fPreProcLocSz--;
 		}
 	
 		if (fDebugEn) {
@@ -1276,7 +1407,7 @@ public class SVPreProcessor extends AbstractTextScanner
 		boolean enabled_pre = ifdef_enabled();
 		if (fPreProcEn.size() > 0) {
 			int e = fPreProcEn.pop();
-			fPreProcLoc.pop();
+			fPreProcLocSz--;
 
 			if (enabled) {
 				// Condition evaluates true
@@ -1291,7 +1422,7 @@ public class SVPreProcessor extends AbstractTextScanner
 			}
 			
 			fPreProcEn.push(e);
-			fPreProcLoc.push(scan_loc);
+			push_preproc_loc(scan_loc);
 		}
 		update_unprocessed_region(scan_loc, enabled_pre);
 	}
@@ -1300,7 +1431,7 @@ public class SVPreProcessor extends AbstractTextScanner
 		boolean enabled_pre = ifdef_enabled();
 		if (fPreProcEn.size() > 0) {
 			int e = fPreProcEn.pop();
-			fPreProcLoc.pop();
+			fPreProcLocSz--;
 			
 			// Invert only if we're in an enabled scope and
 			// we haven't already 'taken' a branch in the 
@@ -1318,7 +1449,7 @@ public class SVPreProcessor extends AbstractTextScanner
 			
 			// Flip to 'true' only if we aren't 
 			fPreProcEn.push(e);
-			fPreProcLoc.push(scan_loc);
+			push_preproc_loc(scan_loc);
 		} else {
 			fLog.debug("Warning: encountered `else with empty PreProcEn stack");
 		}
@@ -1438,6 +1569,7 @@ public class SVPreProcessor extends AbstractTextScanner
 		if (ch == '\n') {
 			if (fOutput.length() > 0 && fOutput.charAt(fOutput.length()-1) == '\r') {
 				fOutput.setLength(fOutput.length()-1);
+				fOutputLen--;
 			}
 		}
 		fOutput.append((char)ch);
@@ -1545,8 +1677,10 @@ public class SVPreProcessor extends AbstractTextScanner
 		}
 		
 		public void addMacro(SVDBMacroDef macro) {
-			if (fMacroMap.containsKey(macro.getName())) {
-				fMacroMap.remove(macro.getName());
+			SVDBMacroDef old = fMacroMap.remove(macro.getName());
+			if (old != null && old != macro && fMacroExpander.getCache() != null) {
+				// Redefinition. Expansions of the old definition are no longer needed
+				fMacroExpander.getCache().invalidate(old);
 			}
 			fMacroMap.put(macro.getName(), macro);
 		}
@@ -1562,7 +1696,10 @@ public class SVPreProcessor extends AbstractTextScanner
 			int			lineno,
 			boolean		en_inc) {
 		if (fEmitLineDirectives) {
-			fOutput.append("\n`line " + fileid + ":" + lineno + ":" + ((en_inc)?1:0) + "\n");
+			int len = fOutput.length();
+			fOutput.append("\n`line ").append(fileid).append(':').append(lineno);
+			fOutput.append(':').append((en_inc)?1:0).append('\n');
+			fOutputLen += (fOutput.length()-len);
 		}
 	}
 	
@@ -29,31 +29,75 @@ public class SVSingleLevelMacroExpander {
 	private static final boolean		fDebugChEn				= false;
 	private LogHandle					fLog;
 	private StringBuilder				fOutput;
+	private SVMacroExpansionCache		fCache;
+	private int							fNumExpansions;
+	private int							fNumCacheHits;
 
 	public SVSingleLevelMacroExpander() {
 		fLog = LogFactory.getLogHandle("SVSingleLevelMacroExpander");
 
 		fOutput = new StringBuilder();
+		fCache = new SVMacroExpansionCache();
+	}
+	
+	/**
+	 * Sets the expansion cache. Allows expansions to be shared 
+	 * between expanders, for example across the files of a build
+	 */
+	public void setCache(SVMacroExpansionCache cache) {
+		fCache = cache;
+	}
+	
+	public SVMacroExpansionCache getCache() {
+		return fCache;
+	}
+	
+	/**
+	 * Returns the number of expansions of macros with parameters
+	 */
+	public int getNumExpansions() {
+		return fNumExpansions;
+	}
+	
+	/**
+	 * Returns the number of expansions satisfied by the cache
+	 */
+	public int getNumCacheHits() {
+		return fNumCacheHits;
 	}
 	
 	public String expandMacro(
 			SVDBMacroDef	m,
 			List<String>	params) {
-		fOutput.setLength(0);
-
+		
 		if (m.getParameters() != null && m.getParameters().size() > 0) {
+			String ret;
+			
+			fNumExpansions++;
+			if (fCache != null && (ret = fCache.get(m, params)) != null) {
+				fNumCacheHits++;
+				return ret;
+			}
+			
 			List<String> param_names = new ArrayList<String>();
 			for (SVDBMacroDefParam p : m.getParameters()) {
 				param_names.add(p.getName());
 			}
 			
+			fOutput.setLength(0);
 			expandParameterRefs(new StringTextScanner(m.getDef()), 
 					fOutput, param_names, params);
+			ret = fOutput.toString();
+			
+			if (fCache != null) {
+				fCache.put(m, params, ret);
+			}
+			
+			return ret;
 		} else {
-			fOutput.append(m.getDef());
+			// Nothing to substitute
+			return (m.getDef() != null)?m.getDef():"";
 		}
-	
-		return fOutput.toString();
 	}
 	
 	/**
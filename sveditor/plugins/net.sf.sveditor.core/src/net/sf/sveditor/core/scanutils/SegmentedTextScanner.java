@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.core.scanutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward text scanner over a sequence of character segments. Segments
+ * are read in place, allowing a region of a document to be scanned
+ * together with pending modifications without copying the document
+ *
+ * @author ballance
+ *
+ */
+public class SegmentedTextScanner extends AbstractTextScanner {
+	private List<CharSequence>			fSegments;
+	private int							fSegIdx;
+	private int							fIdx;
+	private long						fPos;
+
+	public SegmentedTextScanner() {
+		fSegments = new ArrayList<CharSequence>();
+	}
+
+	public SegmentedTextScanner(CharSequence ... segments) {
+		this();
+		for (CharSequence s : segments) {
+			addSegment(s);
+		}
+	}
+
+	public void addSegment(CharSequence segment) {
+		if (segment != null && segment.length() > 0) {
+			fSegments.add(segment);
+		}
+	}
+
+	public int get_ch() {
+		int ch = -1;
+
+		while (fSegIdx < fSegments.size()) {
+			CharSequence seg = fSegments.get(fSegIdx);
+			if (fIdx < seg.length()) {
+				ch = seg.charAt(fIdx++);
+				fPos++;
+				break;
+			} else {
+				fSegIdx++;
+				fIdx = 0;
+			}
+		}
+
+		if (ch != -1 && fCaptureEnabled) {
+			fCaptureBuffer.append((char)ch);
+		}
+
+		fLinepos++;
+		if (fLastCh == '\n') {
+			fLineno++;
+			fLinepos = 0;
+		}
+		fLastCh = ch;
+
+		if (ch > 127) {
+			ch = AbstractTextScanner.unicode2ascii(ch);
+		}
+
+		return ch;
+	}
+
+	public void unget_ch(int ch) {
+		if (ch == -1) {
+			return;
+		}
+		if (fIdx == 0) {
+			// Back up to the last character of the previous segment
+			while (fIdx == 0 && fSegIdx > 0) {
+				fSegIdx--;
+				fIdx = fSegments.get(fSegIdx).length();
+			}
+		}
+		fIdx--;
+		fPos--;
+	}
+
+	public long getPos() {
+		return fPos;
+	}
+
+}
@@ -138,6 +138,8 @@ public class SVUiPlugin extends AbstractUIPlugin
 					getPreferenceStore().getString(SVEditorPrefsConstants.P_DEBUG_LEVEL_S)));
 			SVCorePlugin.getDefault().setFileExtLanguageLevelOverride(
 					getPreferenceStore().getBoolean(SVEditorPrefsConstants.P_OVERRIDE_FILE_EXTENSION_LANGUAGE_LEVEL));
+			SVCorePlugin.setJobMgrMaxThreads(
+					getPreferenceStore().getInt(SVEditorPrefsConstants.P_INDEX_MAX_THREADS));
 			update_parser_prefs();
 		}
 	}
@@ -315,6 +317,9 @@ public class SVUiPlugin extends AbstractUIPlugin
 			update_parser_prefs();
 		} else if (event.getProperty().equals(SVEditorPrefsConstants.P_OVERRIDE_FILE_EXTENSION_LANGUAGE_LEVEL)) {
 			SVCorePlugin.getDefault().setFileExtLanguageLevelOverride(event.getNewValue().equals("true"));
+		} else if (event.getProperty().equals(SVEditorPrefsConstants.P_INDEX_MAX_THREADS)) {
+			SVCorePlugin.setJobMgrMaxThreads(
+					getPreferenceStore().getInt(SVEditorPrefsConstants.P_INDEX_MAX_THREADS));
 		}
 
 	}
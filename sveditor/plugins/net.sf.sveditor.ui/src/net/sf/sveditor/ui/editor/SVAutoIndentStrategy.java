@@ -13,20 +13,25 @@ package net.sf.sveditor.ui.editor;
 import net.sf.sveditor.core.SVCorePlugin;
 import net.sf.sveditor.core.indent.ISVIndenter;
 import net.sf.sveditor.core.indent.SVDefaultIndenter2;
+import net.sf.sveditor.core.indent.SVIndentCheckpoint;
+import net.sf.sveditor.core.indent.SVIndentCheckpointList;
 import net.sf.sveditor.core.indent.SVIndentScanner;
 import net.sf.sveditor.core.log.ILogHandle;
 import net.sf.sveditor.core.log.ILogLevelListener;
 import net.sf.sveditor.core.log.ILogListener;
 import net.sf.sveditor.core.log.LogFactory;
 import net.sf.sveditor.core.log.LogHandle;
-import net.sf.sveditor.core.scanutils.StringBIDITextScanner;
+import net.sf.sveditor.core.scanutils.SegmentedTextScanner;
 import net.sf.sveditor.ui.SVUiPlugin;
 import net.sf.sveditor.ui.pref.SVEditorPrefsConstants;
+import net.sf.sveditor.ui.scanutils.SVDocumentCharSequence;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DefaultIndentLineAutoEditStrategy;
 import org.eclipse.jface.text.DocumentCommand;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.TextUtilities;
@@ -40,11 +45,14 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 	private boolean						fDebugEn;
 	private boolean						fAutoIndentEnabled;
 	private SVEditor					editor; 
+	private SVIndentCheckpointList		fCheckpoints;
+	private IDocument					fCheckpointDoc;
 	
 	public SVAutoIndentStrategy(SVEditor editor, String p) {
 		fLog = LogFactory.getLogHandle("SVAutoIndentStrategy");
 		logLevelChanged(fLog);
 		this.editor = editor;
+		fCheckpoints = new SVIndentCheckpointList();
 		
 		fAutoIndentEnabled = SVUiPlugin.getDefault().getPreferenceStore().getBoolean(
 				SVEditorPrefsConstants.P_AUTO_INDENT_ENABLED_S);
@@ -169,37 +177,17 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 				target_lineno --;
 			}
 			
-			// Create a string containing the inserted code
-			StringBuilder doc_str = new StringBuilder();
-
-			doc_str.append(doc.get(0, cmd.offset));	// Append what's before the pasted code
-			doc_str.append(cmd.text);				// Add the pasted code
+			// The code following the pasted code is only needed up to
+			// the end of the next line
 			int start = cmd.offset+cmd.length;
-
-			// append the remaining code ... not quite sure if we need this
-			int len = (doc.getLength()-(cmd.offset+cmd.length)-1);
-			try {
-				if (len > 0) {
-					doc_str.append(doc.get(start, len));
-				}
-			} catch (BadLocationException e) {
-				System.out.println("[ERROR] start=" + start + " len=" + len + " length=" + doc.getLength());
-				throw e;
+			int tail_line = doc.getLineOfOffset(start);
+			if (tail_line+1 < doc.getNumberOfLines()) {
+				tail_line++;
 			}
-			
-			// Indent on the code
-			StringBIDITextScanner text_scanner = 
-				new StringBIDITextScanner(doc_str.toString());
-			
-			fLog.debug("    doc_str:\n" + doc_str.toString());
+			IRegion tail_info = doc.getLineInformation(tail_line);
+			int tail_end = tail_info.getOffset() + tail_info.getLength();
 			
 			ISVIndenter indenter = SVCorePlugin.getDefault().createIndenter();
-			SVIndentScanner scanner = new SVIndentScanner(text_scanner);
-			
-			indenter.init(scanner);
-			
-			indenter.setAdaptiveIndent(true);
-			indenter.setAdaptiveIndentEnd(target_lineno);
 			indenter.setIndentIncr(SVUiPlugin.getDefault().getIndentIncr());
 	
 			// The goal, here, is to format the entire document
@@ -208,7 +196,10 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 			try {
 				fLog.debug("    lineno=" + lineno + "    line_cnt=" + line_cnt + " target_lineno=" + target_lineno);
 				String result;
-				result = indenter.indent(lineno, (lineno+(line_cnt-1)));
+				result = indentRegion(indenter, doc, cmd.offset, target_lineno,
+						lineno, (lineno+(line_cnt-1)),
+						cmd.text, 
+						new SVDocumentCharSequence(doc, start, tail_end-start));
 				
 				for (int i=0; i<result.length(); i++) {
 					if (result.charAt(i) == '\n' || result.charAt(i) == '\r') {
@@ -267,6 +258,7 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 	
 	private void indentOnKeypress(IDocument doc, DocumentCommand cmd) {
 		StringBuilder doc_str = new StringBuilder();
+		String marker = null;
 		boolean indent_newline = false;
 		boolean is_closebrace = false;
 		boolean indent_on_tab = false;
@@ -309,38 +301,23 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 
 		try {
 			int target_lineno = doc.getLineOfOffset(cmd.offset);
-			doc_str.append(doc.get(0, cmd.offset));
-			doc_str.append(cmd.text);
 			
 			// If we're moving to a new line, put a dummy statement in place
-			// as a marker
+			// as a marker. Content following the marker does not affect
+			// the indent, and is not scanned
 			if (indent_newline || indent_on_tab) {
 				if (fDebugEn) {
 					fLog.debug("indent_newline | indent_on_tab");
 				}
-				doc_str.append("DUMMY=5;\n");
+				marker = "DUMMY=5;\n";
 			} else if (is_closebrace) {
-				doc_str.append(";\n");
-				doc_str.append("DUMMY=5;\n");
-			}
-			
-			if (doc.getLength() > (cmd.offset+cmd.length)) {
-				doc_str.append(doc.get(
-						cmd.offset+cmd.length, 
-						(doc.getLength()-(cmd.offset+cmd.length)-1)));
+				marker = ";\nDUMMY=5;\n";
 			}
 			
-			StringBIDITextScanner text_scanner = 
-				new StringBIDITextScanner(doc_str.toString());
-			
 			ISVIndenter indenter = SVCorePlugin.getDefault().createIndenter();
-			SVIndentScanner scanner = new SVIndentScanner(text_scanner);
-			
 			
 			// Determine the appropriate indent increment
 			indenter.setIndentIncr(SVUiPlugin.getDefault().getIndentIncr());
-			indenter.init(scanner);
-			indenter.setAdaptiveIndent(true);
 			
 			if (indent_newline) {
 				target_lineno++;
@@ -350,10 +327,15 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 				target_lineno--;
 			}
 			
-			indenter.setAdaptiveIndentEnd(target_lineno);
-			String ind_result = indenter.indent();		// ind_result used, but we need to do the indent, and capturing result is useful for debug
-			
+			// Only the remainder of the edited line is needed
 			IRegion cmd_line = doc.getLineInformationOfOffset(cmd.offset);
+			int rest = cmd.offset+cmd.length;
+			int line_end = cmd_line.getOffset()+cmd_line.getLength();
+			
+			String ind_result = indentRegion(indenter, doc, cmd.offset, 
+					target_lineno, -1, -1, cmd.text, marker,
+					new SVDocumentCharSequence(doc, rest, Math.max(0, line_end-rest)));		// ind_result used, but we need to do the indent, and capturing result is useful for debug
+			
 			String indent = null;
 			if (indent_newline) {
 				// Want the indent of the next line
@@ -370,8 +352,7 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 			
 			if (indent != null) {
 				if (indent_newline || indent_on_tab) {
-					fLog.debug("Indented Content:\n" +
-							indenter.indent());
+					fLog.debug("Indented Content:\n" + ind_result);
 					fLog.debug("indent=\"" + indent + "\"");
 					cmd.text += indent;
 					// Increment the cmd.length by the amount of leading whitespace. This
@@ -441,6 +422,89 @@ public class SVAutoIndentStrategy extends DefaultIndentLineAutoEditStrategy
 		}
 	}
 	
+	/**
+	 * Indents the region of 'doc' above 'offset', followed by the 
+	 * 'tail' segments. Indenting resumes from the nearest checkpoint
+	 * at or above 'adaptive_end', such that only the lines between 
+	 * the checkpoint and the edit are scanned. Document content is 
+	 * read in place.
+	 */
+	private String indentRegion(
+			ISVIndenter			indenter,
+			IDocument			doc,
+			int					offset,
+			int					adaptive_end,
+			int					start_line,
+			int					end_line,
+			CharSequence ...	tail) throws BadLocationException {
+		SVIndentCheckpointList checkpoints = getCheckpoints(doc);
+		SVIndentCheckpoint cp = checkpoints.find(adaptive_end);
+		SegmentedTextScanner text_scanner = new SegmentedTextScanner();
+		int region_start = 0, lineno = 1;
+		
+		if (cp != null && cp.getLineno() <= doc.getNumberOfLines()) {
+			text_scanner.addSegment(cp.getPrefix());
+			region_start = doc.getLineOffset(cp.getLineno()-1);
+			lineno = cp.getLineno()-cp.getPrefixLines();
+		} else {
+			cp = null;
+		}
+		
+		text_scanner.addSegment(new SVDocumentCharSequence(
+				doc, region_start, offset-region_start));
+		for (CharSequence s : tail) {
+			text_scanner.addSegment(s);
+		}
+		
+		if (fDebugEn) {
+			fLog.debug("indentRegion: resume at line " + 
+					((cp != null)?cp.getLineno():1) + " offset=" + offset);
+		}
+
+		SVIndentScanner scanner = new SVIndentScanner(text_scanner);
+		scanner.setLineno(lineno);
+		
+		indenter.init(scanner);
+		indenter.setAdaptiveIndent(true);
+		indenter.setAdaptiveIndentEnd(adaptive_end);
+		
+		String ret = indenter.indent(start_line, end_line);
+		
+		// Save checkpoints above the edit for subsequent edits
+		checkpoints.update(indenter.getCheckpoints(),
+				(cp != null)?cp.getLineno():1, 
+				doc.getLineOfOffset(offset)+1);
+		
+		return ret;
+	}
+	
+	private synchronized SVIndentCheckpointList getCheckpoints(IDocument doc) {
+		if (fCheckpointDoc != doc) {
+			if (fCheckpointDoc != null) {
+				fCheckpointDoc.removeDocumentListener(fDocListener);
+			}
+			fCheckpoints.clear();
+			fCheckpointDoc = doc;
+			fCheckpointDoc.addDocumentListener(fDocListener);
+		}
+		return fCheckpoints;
+	}
+	
+	private IDocumentListener fDocListener = new IDocumentListener() {
+		
+		public void documentAboutToBeChanged(DocumentEvent event) {
+			// Checkpoints below the change are no longer valid
+			try {
+				fCheckpoints.invalidate(
+						event.getDocument().getLineOfOffset(event.getOffset())+1);
+			} catch (BadLocationException e) {
+				fCheckpoints.clear();
+			}
+		}
+		
+		public void documentChanged(DocumentEvent event) { }
+	};
+	
 	private boolean is_beginning_of_line(IDocument doc, int offset) {
 		boolean ret = false;
 		try {
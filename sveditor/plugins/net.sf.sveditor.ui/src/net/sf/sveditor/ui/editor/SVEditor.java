@@ -120,6 +120,7 @@ import net.sf.sveditor.core.db.index.ISVDBIndexIterator;
 import net.sf.sveditor.core.db.index.ISVDBIndexParse;
 import net.sf.sveditor.core.db.index.SVDBFileOverrideIndex;
 import net.sf.sveditor.core.db.index.SVDBFilePath;
+import net.sf.sveditor.core.db.index.SVDBIncrementalParser;
 import net.sf.sveditor.core.db.index.SVDBIndexChangeEvent;
 import net.sf.sveditor.core.db.index.SVDBIndexCollection;
 import net.sf.sveditor.core.db.index.SVDBIndexRegistry;
@@ -211,6 +212,11 @@ public class SVEditor extends TextEditor
 	private SVDBProjectData					fPendingProjectSettingsUpdate;
 	private UpdateSVDBFileJob				fUpdateSVDBFileJob;
 	private boolean							fPendingUpdateSVDBFile;
+	// Set when the next update must re-parse the entire file
+	private boolean							fFullReparse = true;
+	// Content and markers from the last parse, used for incremental re-parse
+	private String							fSVDBFileContent;
+	private List<SVDBMarker>				fSVDBFileMarkers;
 	private boolean							fNeedUpdate;
 	private boolean							fOccurrenceHighlightDebounceActive;
 	
@@ -301,7 +307,13 @@ public class SVEditor extends TextEditor
 				return Status.OK_STATUS;
 			}
 			
-			StringInputStream sin = new StringInputStream(doc.get());
+			String content = doc.get();
+			StringInputStream sin = new StringInputStream(content);
+			boolean full_reparse;
+			synchronized (SVEditor.this) {
+				full_reparse = fFullReparse;
+				fFullReparse = false;
+			}
 			end = System.currentTimeMillis();
 			fLog.debug(LEVEL_MID, "<-- UpdateSVDBFile.GetDocument: " + (end-start));
 			
@@ -319,11 +331,30 @@ public class SVEditor extends TextEditor
 				return Status.OK_STATUS;
 			}
 			
-			Tuple<SVDBFile, SVDBFile> new_in = fFileIndexParser.parse(
-					monitor, sin, fSVDBFilePath, markers);
-			fSVDBFile.clearChildren();
+			// Re-parse only the scope containing the change when possible
+			SVDBIncrementalParser.Result incr = null;
+			if (!full_reparse && fSVDBFileContent != null && fSVDBFileMarkers != null) {
+				incr = new SVDBIncrementalParser(fFileIndexParser).reparse(
+						monitor, fSVDBFilePath, fSVDBFile, fSVDBFileMarkers,
+						fSVDBFileContent, content);
+			}
+			
+			Tuple<SVDBFile, SVDBFile> new_in = null;
+			boolean unchanged = (incr != null && incr.fUnchanged);
+			if (unchanged) {
+				// Content is unchanged since the last parse
+			} else if (incr != null) {
+				new_in = new Tuple<SVDBFile, SVDBFile>(incr.fFilePP, incr.fFile);
+				markers = incr.fMarkers;
+			} else {
+				new_in = fFileIndexParser.parse(
+						monitor, sin, fSVDBFilePath, markers);
+				fSVDBFile.clearChildren();
+			}
 			end = System.currentTimeMillis();
-			fLog.debug(LEVEL_MID, "<-- UpdateSVDBFile.Re-parse file: " + (end-start));
+			fLog.debug(LEVEL_MID, "<-- UpdateSVDBFile.Re-parse file" + 
+					((unchanged)?" (unchanged)":(incr != null)?" (incremental)":"") + 
+					": " + (end-start));
 			
 			if (!fIsOpen) {
 				return Status.OK_STATUS;
@@ -331,9 +362,13 @@ public class SVEditor extends TextEditor
 		
 			fLog.debug(LEVEL_MID, "--> UpdateSVDBFile.Re-incorporate content");
 			start = System.currentTimeMillis();
-			if (new_in != null) {
+			if (unchanged) {
+				// File, markers, and annotations are already up to date
+			} else if (new_in != null) {
 				fSVDBFile = new_in.second();
 				fSVDBFilePP = new_in.first();
+				fSVDBFileContent = content;
+				fSVDBFileMarkers = markers;
 				if (fSVDBIndex != null) {
 					fSVDBIndex.setFile(fSVDBFile);
 					fSVDBIndex.setFilePP(fSVDBFilePP);
@@ -345,9 +380,11 @@ public class SVEditor extends TextEditor
 				applyOverrideAnnotations(fSVDBFile);
 			} else {
 				fLog.debug(LEVEL_MAX, "-- UpdateSVDBFile.new_in==null");
+				fSVDBFileContent = null;
+				fSVDBFileMarkers = null;
 			}
 			
-			if (fOutline != null) {
+			if (fOutline != null && !unchanged) {
 				fOutline.refresh();
 			}
 			end = System.currentTimeMillis();
@@ -359,7 +396,7 @@ public class SVEditor extends TextEditor
 				fUpdateSVDBFileJob = null;
 				fNeedUpdate = false;
 				if (fPendingUpdateSVDBFile) {
-					updateSVDBFile(fDocument, true);
+					updateSVDBFile(fDocument, true, true);
 				}
 				end = System.currentTimeMillis();
 				fLog.debug(LEVEL_MID, "<-- UpdateSVDBFile.End: " + (end-start));
@@ -810,8 +847,27 @@ public class SVEditor extends TextEditor
 	}
 
 	void updateSVDBFile(IDocument doc, boolean force) {
+		updateSVDBFile(doc, force, false);
+	}
+
+	/**
+	 * Schedules a re-parse of the editor content
+	 * 
+	 * @param doc
+	 * @param force       schedule even if automatic re-parse is disabled
+	 * @param incremental allow re-parsing only the changed scope. A 
+	 *                    full re-parse, once requested, is not cancelled 
+	 *                    by a later incremental request
+	 */
+	void updateSVDBFile(IDocument doc, boolean force, boolean incremental) {
 		fLog.debug(LEVEL_MAX, "updateSVDBFile - fIndexMgr=" + fFileIndexParser);
 	
+		if (!incremental) {
+			synchronized (this) {
+				fFullReparse = true;
+			}
+		}
+	
 		if (fFileIndexParser != null) {
 			if (fUpdateSVDBFileJob == null) {
 				synchronized (this) {
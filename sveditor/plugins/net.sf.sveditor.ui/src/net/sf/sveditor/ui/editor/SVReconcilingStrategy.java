@@ -34,7 +34,7 @@ public class SVReconcilingStrategy implements IReconcilingStrategy,
 	public void reconcile(IRegion partition) {
 		reconcileSource();
 		if (fEditor != null) {
-			fEditor.updateSVDBFile(fDocument, false);
+			fEditor.updateSVDBFile(fDocument, false, true);
 		}
 	}
 
@@ -42,7 +42,7 @@ public class SVReconcilingStrategy implements IReconcilingStrategy,
 	public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
 		reconcileSource();
 		if (fEditor != null) {
-			fEditor.updateSVDBFile(fDocument, false);
+			fEditor.updateSVDBFile(fDocument, false, true);
 		}
 	}
 
@@ -43,6 +43,12 @@ public class SVEditorIndexPrefsPage extends FieldEditorPreferencePage implements
 				"Ed&itor Auto-Index Delay (mS):", getFieldEditorParent());
 		fEditorAutoIndexDelay.setValidRange(0, Integer.MAX_VALUE);
 		addField(fEditorAutoIndexDelay);
+		
+		IntegerFieldEditor max_threads = new IntegerFieldEditor(
+				SVEditorPrefsConstants.P_INDEX_MAX_THREADS,
+				"Index &Worker Threads (0=number of processors):", getFieldEditorParent());
+		max_threads.setValidRange(0, 1024);
+		addField(max_threads);
 	}
 
 	@Override
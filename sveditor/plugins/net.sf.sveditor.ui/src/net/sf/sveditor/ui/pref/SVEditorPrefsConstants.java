@@ -52,6 +52,8 @@ public class SVEditorPrefsConstants {
 	public static final String P_EDITOR_AUTOINDEX_ENABLE						= EDIT_SETTINGS + "autoIndexEnable";
 	public static final String P_EDITOR_AUTOINDEX_DELAY							= EDIT_SETTINGS + "autoIndexDelay";
 	
+	public static final String P_INDEX_MAX_THREADS								= INDEX_SETTINGS + "maxThreads";
+	
 	public static final String P_DEBUG_LEVEL_S 									= "debugLevel";
 	public static final String P_DEBUG_CONSOLE_S 								= "debugConsole";
 	
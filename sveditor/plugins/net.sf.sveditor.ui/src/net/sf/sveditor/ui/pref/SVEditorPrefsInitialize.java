@@ -82,6 +82,8 @@ public class SVEditorPrefsInitialize extends AbstractPreferenceInitializer {
 		// Index Preferences
 		store.setDefault(SVEditorPrefsConstants.P_EDITOR_AUTOINDEX_ENABLE, true);
 		store.setDefault(SVEditorPrefsConstants.P_EDITOR_AUTOINDEX_DELAY, 0);
+		// 0 selects the number of available processors
+		store.setDefault(SVEditorPrefsConstants.P_INDEX_MAX_THREADS, 0);
 		
 		store.setDefault(SVEditorPrefsConstants.P_CONTENT_ASSIST_TIMEOUT, 0);
 		store.setDefault(SVEditorPrefsConstants.P_CONTENT_ASSIST_HOVER_USES_BROWSER, false);
@@ -0,0 +1,62 @@
+/****************************************************************************
+ * Copyright (c) 2008-2014 Matthew Ballance and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthew Ballance - initial implementation
+ ****************************************************************************/
+
+
+package net.sf.sveditor.ui.scanutils;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Read-only view of a region of a document. Characters are read
+ * from the document on demand
+ */
+public class SVDocumentCharSequence implements CharSequence {
+	private IDocument				fDoc;
+	private int						fOffset;
+	private int						fLength;
+
+	public SVDocumentCharSequence(IDocument doc, int offset, int length) {
+		fDoc    = doc;
+		fOffset = offset;
+		fLength = length;
+	}
+
+	public int length() {
+		return fLength;
+	}
+
+	public char charAt(int index) {
+		if (index < 0 || index >= fLength) {
+			throw new IndexOutOfBoundsException("index " + index +
+					" outside range 0.." + fLength);
+		}
+		try {
+			return fDoc.getChar(fOffset+index);
+		} catch (BadLocationException e) {
+			throw new IndexOutOfBoundsException(e.getMessage());
+		}
+	}
+
+	public CharSequence subSequence(int start, int end) {
+		return new SVDocumentCharSequence(fDoc, fOffset+start, end-start);
+	}
+
+	@Override
+	public String toString() {
+		try {
+			return fDoc.get(fOffset, fLength);
+		} catch (BadLocationException e) {
+			return "";
+		}
+	}
+
+}
@@ -1,9 +1,31 @@
 package net.sf.sveditor.vhdl.core.tests.index;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import net.sf.sveditor.core.StringInputStream;
+import net.sf.sveditor.core.db.ISVDBChildItem;
+import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBItem;
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.index.ISVDBIndex;
+import net.sf.sveditor.core.db.index.argfile.SVDBArgFileIndexFactory;
+import net.sf.sveditor.core.db.index.builder.SVDBIndexChangePlanRebuild;
+import net.sf.sveditor.core.db.vhdl.VHArchitectureDecl;
+import net.sf.sveditor.core.db.vhdl.VHPackageDecl;
+import net.sf.sveditor.core.tests.IndexTestUtils;
+import net.sf.sveditor.core.tests.utils.TestUtils;
 import net.sf.sveditor.vhdl.core.parser.VhdlFileFactory;
 import net.sf.sveditor.vhdl.core.tests.VhdlCoreTestCase;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
+
 public class TestVhdlArgFileIndexBasics extends VhdlCoreTestCase {
 	
 	public void testBasicParse() {
@@ -33,4 +55,134 @@ public class TestVhdlArgFileIndexBasics extends VhdlCoreTestCase {
 		
 	}
 	
+	public void testDesignUnits() {
+		String input =
+				"package pkg is\n" +
+				"  component cmp is\n" +
+				"    port (a : in bit);\n" +
+				"  end component;\n" +
+				"end package;\n" +
+				"package body pkg is\n" +
+				"end package body;\n" +
+				"entity foo is\n" +
+				"  port (clk : in bit);\n" +
+				"end entity;\n" +
+				"architecture rtl of foo is\n" +
+				"  signal s : bit;\n" +
+				"begin\n" +
+				"end architecture;\n"
+				;
+
+		VhdlFileFactory f = new VhdlFileFactory();
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+
+		SVDBFile file = f.parse(new StringInputStream(input), "test.vhd", 1, markers);
+
+		assertEquals(0, markers.size());
+		assertDesignUnits(file,
+				SVDBItemType.VHPackageDecl, "pkg",
+				SVDBItemType.VHPackageBodyDecl, "pkg",
+				SVDBItemType.VHEntityDecl, "foo",
+				SVDBItemType.VHArchitectureDecl, "rtl");
+
+		for (ISVDBChildItem c : file.getChildren()) {
+			if (c.getType() == SVDBItemType.VHArchitectureDecl) {
+				assertEquals("foo", ((VHArchitectureDecl)c).getEntityName());
+			} else if (c.getType() == SVDBItemType.VHPackageDecl) {
+				ISVDBChildItem cmp = ((VHPackageDecl)c).getChildren().iterator().next();
+				assertEquals(SVDBItemType.VHComponentDecl, cmp.getType());
+				assertEquals("cmp", SVDBItem.getName(cmp));
+			}
+		}
+	}
+
+	public void testParseErrorMarkers() {
+		String input =
+				"entity foo is\n" +
+				"  port ( : in bit);\n" +
+				"end entity;\n"
+				;
+
+		VhdlFileFactory f = new VhdlFileFactory();
+		List<SVDBMarker> markers = new ArrayList<SVDBMarker>();
+
+		SVDBFile file = f.parse(new StringInputStream(input), "test.vhd", 1, markers);
+
+		assertTrue(markers.size() > 0);
+		assertDesignUnits(file, SVDBItemType.VHEntityDecl, "foo");
+	}
+
+	public void testConcurrentParse() throws Exception {
+		final String input =
+				"entity foo is\n" +
+				"end entity;\n" +
+				"architecture rtl of foo is\n" +
+				"begin\n" +
+				"end architecture;\n"
+				;
+		final VhdlFileFactory f = new VhdlFileFactory();
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		List<Future<SVDBFile>> results = new ArrayList<Future<SVDBFile>>();
+
+		try {
+			for (int i=0; i<64; i++) {
+				results.add(pool.submit(new Callable<SVDBFile>() {
+					public SVDBFile call() throws Exception {
+						return f.parse(new StringInputStream(input));
+					}
+				}));
+			}
+
+			for (Future<SVDBFile> r : results) {
+				assertDesignUnits(r.get(),
+						SVDBItemType.VHEntityDecl, "foo",
+						SVDBItemType.VHArchitectureDecl, "rtl");
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public void testArgFileIndexVhdlRoot() {
+		File test_dir = new File(fTmpDir, "vhdl_root");
+		assertTrue(test_dir.mkdirs());
+		
+		TestUtils.copy(
+				"package top_pkg is\n" +
+				"end package;\n" +
+				"entity top_ent is\n" +
+				"  port (clk : in bit);\n" +
+				"end entity;\n" +
+				"architecture rtl of top_ent is\n" +
+				"begin\n" +
+				"end architecture;\n",
+				new File(test_dir, "top.vhd"));
+		TestUtils.copy(
+				"top.vhd\n",
+				new File(test_dir, "files.f"));
+		
+		// The VHDL parser must be found by the index builder 
+		// without any VHDL plug-in class having been used first
+		ISVDBIndex index = fIndexRgy.findCreateIndex(new NullProgressMonitor(), 
+				"GLOBAL", new File(test_dir, "files.f").getAbsolutePath(), 
+				SVDBArgFileIndexFactory.TYPE, null);
+		index.execIndexChangePlan(new NullProgressMonitor(), new SVDBIndexChangePlanRebuild(index));
+		
+		IndexTestUtils.assertNoErrWarn(fLog, index);
+		IndexTestUtils.assertFileHasElements(fLog, index, "top_pkg", "top_ent", "rtl");
+	}
+
+	private static void assertDesignUnits(SVDBFile file, Object ... exp) {
+		List<ISVDBChildItem> units = new ArrayList<ISVDBChildItem>();
+		for (ISVDBChildItem c : file.getChildren()) {
+			units.add(c);
+		}
+
+		assertEquals(exp.length/2, units.size());
+		for (int i=0; i<units.size(); i++) {
+			assertEquals(exp[2*i], units.get(i).getType());
+			assertEquals(exp[2*i+1], SVDBItem.getName(units.get(i)));
+		}
+	}
+
 }
@@ -2,19 +2,39 @@ package net.sf.sveditor.vhdl.core.parser;
 
 import java.util.Stack;
 
-import net.sf.sveditor.core.db.ISVDBAddChildItem;
 import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBItemType;
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.SVDBScopeItem;
+import net.sf.sveditor.core.db.vhdl.VHArchitectureDecl;
+import net.sf.sveditor.core.db.vhdl.VHComponentDecl;
 import net.sf.sveditor.core.db.vhdl.VHEntityDecl;
+import net.sf.sveditor.core.db.vhdl.VHPackageBodyDecl;
+import net.sf.sveditor.core.db.vhdl.VHPackageDecl;
 import antlr.Token;
-import parser.Module;
-import parser.ModuleInstance;
 
+/**
+ * Builds the SVDB view of a VHDL file from the design units 
+ * recognized by the parser. Each parse uses its own tracker
+ */
 public class Tracker extends parser.Tracker {
-	private Stack<ISVDBAddChildItem>			fActiveScope;
+	private SVDBFile							fFile;
+	private int									fFileId;
+	private Stack<SVDBScopeItem>				fActiveScope;
 	
 	public Tracker() {
-		fActiveScope = new Stack<ISVDBAddChildItem>();
-		fActiveScope.push(new SVDBFile());
+		this(new SVDBFile(), 0);
+	}
+	
+	public Tracker(SVDBFile file, int file_id) {
+		fFile = file;
+		fFileId = file_id;
+		fActiveScope = new Stack<SVDBScopeItem>();
+		fActiveScope.push(fFile);
+	}
+	
+	public SVDBFile getFile() {
+		return fFile;
 	}
 
 	public void addInstance(Token ref, Token m) {
@@ -26,11 +46,81 @@ public class Tracker extends parser.Tracker {
 	}
 	
 	public void beginEntityDecl(Token id) {
-		VHEntityDecl entity = new VHEntityDecl(id.getText());
-		fActiveScope.push(entity);
+		beginDesignUnit(new VHEntityDecl(id.getText()), id);
+	}
+	
+	public void endEntityDecl(Token end) {
+		endScope(SVDBItemType.VHEntityDecl, end);
+	}
+	
+	public void beginArchitecture(Token id, Token entity) {
+		beginDesignUnit(new VHArchitectureDecl(id.getText(), 
+				(entity != null)?entity.getText():null), id);
+	}
+	
+	public void endArchitecture(Token end) {
+		endScope(SVDBItemType.VHArchitectureDecl, end);
+	}
+	
+	public void beginPackageDecl(Token id) {
+		beginDesignUnit(new VHPackageDecl(id.getText()), id);
+	}
+	
+	public void endPackageDecl(Token end) {
+		endScope(SVDBItemType.VHPackageDecl, end);
+	}
+	
+	public void beginPackageBody(Token id) {
+		beginDesignUnit(new VHPackageBodyDecl(id.getText()), id);
+	}
+	
+	public void endPackageBody(Token end) {
+		endScope(SVDBItemType.VHPackageBodyDecl, end);
+	}
+	
+	public void beginComponentDecl(Token id) {
+		beginScope(new VHComponentDecl(id.getText()), id);
+	}
+	
+	public void endComponentDecl(Token end) {
+		endScope(SVDBItemType.VHComponentDecl, end);
+	}
+	
+	private void beginDesignUnit(SVDBScopeItem item, Token id) {
+		// Design units are always top-level. Discard any scopes 
+		// left open by a parse error
+		while (fActiveScope.size() > 1) {
+			fActiveScope.pop();
+		}
+		beginScope(item, id);
+	}
+	
+	private void beginScope(SVDBScopeItem item, Token id) {
+		item.setLocation(getLocation(id));
+		fActiveScope.peek().addChildItem(item);
+		fActiveScope.push(item);
+	}
+	
+	private void endScope(SVDBItemType type, Token end) {
+		// Only close the scope if it is open. Scopes nested within
+		// it are left open when a parse error causes an end to be skipped
+		int idx = fActiveScope.size()-1;
+		while (idx > 0 && fActiveScope.get(idx).getType() != type) {
+			idx--;
+		}
+		
+		if (idx > 0) {
+			while (fActiveScope.size() > idx+1) {
+				fActiveScope.pop();
+			}
+			fActiveScope.pop().setEndLocation(getLocation(end));
+		}
 	}
 	
-	public void endEntityDecl() {
-		fActiveScope.pop();
+	private long getLocation(Token tok) {
+		if (tok == null) {
+			return -1;
+		}
+		return SVDBLocation.pack(fFileId, tok.getLine(), tok.getColumn());
 	}
 }
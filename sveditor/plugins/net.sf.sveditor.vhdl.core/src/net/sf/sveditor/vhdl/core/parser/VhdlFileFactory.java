@@ -1,39 +1,74 @@
 package net.sf.sveditor.vhdl.core.parser;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import antlr.RecognitionException;
 import antlr.TokenStreamException;
-import antlr.collections.AST;
+import net.sf.sveditor.core.db.ISVDBLanguageFileParser;
 import net.sf.sveditor.core.db.SVDBFile;
+import net.sf.sveditor.core.db.SVDBLocation;
+import net.sf.sveditor.core.db.SVDBMarker;
+import net.sf.sveditor.core.db.SVDBMarker.MarkerKind;
+import net.sf.sveditor.core.db.SVDBMarker.MarkerType;
 
-public class VhdlFileFactory {
+/**
+ * Parses VHDL files to SVDB form. Each call uses its own lexer, parser, 
+ * and tracker, so files may be parsed on multiple threads concurrently
+ */
+public class VhdlFileFactory implements ISVDBLanguageFileParser {
+	
+	public boolean accept(String path) {
+		String lc_path = path.toLowerCase();
+		return (lc_path.endsWith(".vhd") || lc_path.endsWith(".vhdl"));
+	}
 	
 	public SVDBFile parse(InputStream in) {
-		VhdlLexer lexer = new VhdlLexer(in);
-		VhdlParser p = new VhdlParser(lexer);
-		SVDBFile ret = null;
-//		Tracker tracker = new Tracker();
+		return parse(in, "", 0, new ArrayList<SVDBMarker>());
+	}
 	
-		synchronized (VhdlParser.class) {
-
-			try {
-				p.design_file();
-				AST ast = p.getAST();
-				System.out.println("ast=" + ast + " ast.child=" + ast.getNumberOfChildren());
-				System.out.println("  sib=" + ast.getNextSibling());
-				for (AST c = ast.getNextSibling(); c != null; c = c.getNextSibling()) {
-					System.out.println("c=" + c);
-				}
-
-			} catch (TokenStreamException e) {
-				e.printStackTrace();
-			} catch (RecognitionException e) {
-				e.printStackTrace();
+	public SVDBFile parse(
+			InputStream					in,
+			String						path,
+			final int					file_id,
+			final List<SVDBMarker>		markers) {
+		SVDBFile file = new SVDBFile(path);
+		VhdlLexer lexer = new VhdlLexer(in) {
+			@Override
+			public void reportError(RecognitionException e) {
+				addError(markers, file_id, e);
 			}
+		};
+		lexer.setFilename(path);
+		VhdlParser p = new VhdlParser(lexer) {
+			@Override
+			public void reportError(RecognitionException e) {
+				addError(markers, file_id, e);
+			}
+		};
+		p.setFilename(path);
+		p.stTracker = new Tracker(file, file_id);
+	
+		try {
+			p.design_file();
+		} catch (TokenStreamException e) {
+			markers.add(new SVDBMarker(MarkerType.Error, MarkerKind.ParseError,
+					e.getMessage(), SVDBLocation.pack(file_id, 1, 0)));
+		} catch (RecognitionException e) {
+			addError(markers, file_id, e);
 		}
 	
-		return ret;
+		return file;
+	}
+	
+	private static void addError(
+			List<SVDBMarker>		markers,
+			int						file_id,
+			RecognitionException	e) {
+		markers.add(new SVDBMarker(MarkerType.Error, MarkerKind.ParseError,
+				e.getMessage(), 
+				SVDBLocation.pack(file_id, e.getLine(), e.getColumn())));
 	}
 
 }
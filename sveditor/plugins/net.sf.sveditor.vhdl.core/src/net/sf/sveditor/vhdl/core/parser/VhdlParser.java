@@ -1377,24 +1377,30 @@ inputState.guessing--;
 		returnAST = null;
 		ASTPair currentAST = new ASTPair();
 		AST architecture_body_AST = null;
+		Token  e = null;
+		AST e_AST = null;
+		Token id = null, ent = null;
 		
 		try {      // for error handling
 			AST tmp37_AST = null;
 			tmp37_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp37_AST);
 			match(K_ARCHITECTURE);
-			identifier();
+			id=identifier();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp38_AST = null;
 			tmp38_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp38_AST);
 			match(K_OF);
-			name();
+			ent=name();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp39_AST = null;
 			tmp39_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp39_AST);
 			match(K_IS);
+			if ( inputState.guessing==0 ) {
+				stTracker.beginArchitecture(id, ent);
+			}
 			architecture_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp40_AST = null;
@@ -1448,10 +1454,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp43_AST = null;
-			tmp43_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp43_AST);
+			e = LT(1);
+			e_AST = astFactory.create(e);
+			astFactory.addASTChild(currentAST, e_AST);
 			match(SEMI);
+			if ( inputState.guessing==0 ) {
+				stTracker.endArchitecture(e);
+			}
 			architecture_body_AST = (AST)currentAST.root;
 		}
 		catch (RecognitionException ex) {
@@ -1956,13 +1965,13 @@ inputState.guessing--;
 		AST unconstrained_array_definition_AST = null;
 		
 		try {      // for error handling
+			AST tmp43_AST = null;
+			tmp43_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp43_AST);
+			match(K_ARRAY);
 			AST tmp44_AST = null;
 			tmp44_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp44_AST);
-			match(K_ARRAY);
-			AST tmp45_AST = null;
-			tmp45_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp45_AST);
 			match(LPAREN);
 			index_subtype_definition();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -1970,9 +1979,9 @@ inputState.guessing--;
 			_loop594:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp46_AST = null;
-					tmp46_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp46_AST);
+					AST tmp45_AST = null;
+					tmp45_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp45_AST);
 					match(COMMA);
 					index_subtype_definition();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -1983,13 +1992,13 @@ inputState.guessing--;
 				
 			} while (true);
 			}
+			AST tmp46_AST = null;
+			tmp46_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp46_AST);
+			match(RPAREN);
 			AST tmp47_AST = null;
 			tmp47_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp47_AST);
-			match(RPAREN);
-			AST tmp48_AST = null;
-			tmp48_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp48_AST);
 			match(K_OF);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -2013,15 +2022,15 @@ inputState.guessing--;
 		AST constrained_array_definition_AST = null;
 		
 		try {      // for error handling
-			AST tmp49_AST = null;
-			tmp49_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp49_AST);
+			AST tmp48_AST = null;
+			tmp48_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp48_AST);
 			match(K_ARRAY);
 			index_constraint();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp50_AST = null;
-			tmp50_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp50_AST);
+			AST tmp49_AST = null;
+			tmp49_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp49_AST);
 			match(K_OF);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -2045,9 +2054,9 @@ inputState.guessing--;
 		AST assertion_AST = null;
 		
 		try {      // for error handling
-			AST tmp51_AST = null;
-			tmp51_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp51_AST);
+			AST tmp50_AST = null;
+			tmp50_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp50_AST);
 			match(K_ASSERT);
 			condition();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -2055,9 +2064,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_REPORT:
 			{
-				AST tmp52_AST = null;
-				tmp52_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp52_AST);
+				AST tmp51_AST = null;
+				tmp51_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp51_AST);
 				match(K_REPORT);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -2078,9 +2087,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_SEVERITY:
 			{
-				AST tmp53_AST = null;
-				tmp53_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp53_AST);
+				AST tmp52_AST = null;
+				tmp52_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp52_AST);
 				match(K_SEVERITY);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -2159,9 +2168,9 @@ inputState.guessing--;
 			}
 			assertion();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp54_AST = null;
-			tmp54_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp54_AST);
+			AST tmp53_AST = null;
+			tmp53_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp53_AST);
 			match(SEMI);
 			assertion_statement_AST = (AST)currentAST.root;
 		}
@@ -2185,9 +2194,9 @@ inputState.guessing--;
 		try {      // for error handling
 			label();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp55_AST = null;
-			tmp55_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp55_AST);
+			AST tmp54_AST = null;
+			tmp54_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp54_AST);
 			match(COLON);
 			label_colon_AST = (AST)currentAST.root;
 		}
@@ -2230,9 +2239,9 @@ inputState.guessing--;
 			if ( synPredMatched40 ) {
 				formal_part();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp56_AST = null;
-				tmp56_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp56_AST);
+				AST tmp55_AST = null;
+				tmp55_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp55_AST);
 				match(EQGRT);
 			}
 			else if ((_tokenSet_7.member(LA(1))) && (_tokenSet_8.member(LA(2)))) {
@@ -2270,15 +2279,15 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case LPAREN:
 			{
-				AST tmp57_AST = null;
-				tmp57_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp57_AST);
+				AST tmp56_AST = null;
+				tmp56_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp56_AST);
 				match(LPAREN);
 				name();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp58_AST = null;
-				tmp58_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp58_AST);
+				AST tmp57_AST = null;
+				tmp57_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp57_AST);
 				match(RPAREN);
 				break;
 			}
@@ -2312,21 +2321,21 @@ inputState.guessing--;
 		AST attribute_declaration_AST = null;
 		
 		try {      // for error handling
+			AST tmp58_AST = null;
+			tmp58_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp58_AST);
+			match(K_ATTRIBUTE);
+			identifier();
+			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp59_AST = null;
 			tmp59_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp59_AST);
-			match(K_ATTRIBUTE);
-			identifier();
+			match(COLON);
+			name();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp60_AST = null;
 			tmp60_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp60_AST);
-			match(COLON);
-			name();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp61_AST = null;
-			tmp61_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp61_AST);
 			match(SEMI);
 			attribute_declaration_AST = (AST)currentAST.root;
 		}
@@ -2370,9 +2379,9 @@ inputState.guessing--;
 		AST tic_attribute_designator_AST = null;
 		
 		try {      // for error handling
-			AST tmp62_AST = null;
-			tmp62_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp62_AST);
+			AST tmp61_AST = null;
+			tmp61_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp61_AST);
 			match(TIC_SIMPLE_NAME);
 			tic_attribute_designator_AST = (AST)currentAST.root;
 		}
@@ -2394,27 +2403,27 @@ inputState.guessing--;
 		AST attribute_specification_AST = null;
 		
 		try {      // for error handling
+			AST tmp62_AST = null;
+			tmp62_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp62_AST);
+			match(K_ATTRIBUTE);
+			attribute_designator();
+			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp63_AST = null;
 			tmp63_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp63_AST);
-			match(K_ATTRIBUTE);
-			attribute_designator();
+			match(K_OF);
+			entity_specification();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp64_AST = null;
 			tmp64_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp64_AST);
-			match(K_OF);
-			entity_specification();
+			match(K_IS);
+			expression();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp65_AST = null;
 			tmp65_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp65_AST);
-			match(K_IS);
-			expression();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp66_AST = null;
-			tmp66_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp66_AST);
 			match(SEMI);
 			attribute_specification_AST = (AST)currentAST.root;
 		}
@@ -2438,9 +2447,9 @@ inputState.guessing--;
 		try {      // for error handling
 			entity_name_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp67_AST = null;
-			tmp67_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp67_AST);
+			AST tmp66_AST = null;
+			tmp66_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp66_AST);
 			match(COLON);
 			entity_class();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -2490,9 +2499,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_USE:
 			{
-				AST tmp68_AST = null;
-				tmp68_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp68_AST);
+				AST tmp67_AST = null;
+				tmp67_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp67_AST);
 				match(K_USE);
 				entity_aspect();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -2570,9 +2579,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_ENTITY:
 			{
-				AST tmp69_AST = null;
-				tmp69_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp69_AST);
+				AST tmp68_AST = null;
+				tmp68_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp68_AST);
 				match(K_ENTITY);
 				name();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -2580,15 +2589,15 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case LPAREN:
 				{
-					AST tmp70_AST = null;
-					tmp70_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp70_AST);
+					AST tmp69_AST = null;
+					tmp69_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp69_AST);
 					match(LPAREN);
 					identifier();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp71_AST = null;
-					tmp71_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp71_AST);
+					AST tmp70_AST = null;
+					tmp70_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp70_AST);
 					match(RPAREN);
 					break;
 				}
@@ -2609,9 +2618,9 @@ inputState.guessing--;
 			}
 			case K_CONFIGURATION:
 			{
-				AST tmp72_AST = null;
-				tmp72_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp72_AST);
+				AST tmp71_AST = null;
+				tmp71_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp71_AST);
 				match(K_CONFIGURATION);
 				name();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -2620,9 +2629,9 @@ inputState.guessing--;
 			}
 			case K_OPEN:
 			{
-				AST tmp73_AST = null;
-				tmp73_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp73_AST);
+				AST tmp72_AST = null;
+				tmp72_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp72_AST);
 				match(K_OPEN);
 				entity_aspect_AST = (AST)currentAST.root;
 				break;
@@ -2651,23 +2660,23 @@ inputState.guessing--;
 		AST generic_map_aspect_AST = null;
 		
 		try {      // for error handling
+			AST tmp73_AST = null;
+			tmp73_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp73_AST);
+			match(K_GENERIC);
 			AST tmp74_AST = null;
 			tmp74_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp74_AST);
-			match(K_GENERIC);
+			match(K_MAP);
 			AST tmp75_AST = null;
 			tmp75_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp75_AST);
-			match(K_MAP);
-			AST tmp76_AST = null;
-			tmp76_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp76_AST);
 			match(LPAREN);
 			association_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp77_AST = null;
-			tmp77_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp77_AST);
+			AST tmp76_AST = null;
+			tmp76_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp76_AST);
 			match(RPAREN);
 			generic_map_aspect_AST = (AST)currentAST.root;
 		}
@@ -2689,23 +2698,23 @@ inputState.guessing--;
 		AST port_map_aspect_AST = null;
 		
 		try {      // for error handling
+			AST tmp77_AST = null;
+			tmp77_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp77_AST);
+			match(K_PORT);
 			AST tmp78_AST = null;
 			tmp78_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp78_AST);
-			match(K_PORT);
+			match(K_MAP);
 			AST tmp79_AST = null;
 			tmp79_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp79_AST);
-			match(K_MAP);
-			AST tmp80_AST = null;
-			tmp80_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp80_AST);
 			match(LPAREN);
 			association_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp81_AST = null;
-			tmp81_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp81_AST);
+			AST tmp80_AST = null;
+			tmp80_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp80_AST);
 			match(RPAREN);
 			port_map_aspect_AST = (AST)currentAST.root;
 		}
@@ -2727,9 +2736,9 @@ inputState.guessing--;
 		AST bit_string_literal_AST = null;
 		
 		try {      // for error handling
-			AST tmp82_AST = null;
-			tmp82_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp82_AST);
+			AST tmp81_AST = null;
+			tmp81_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp81_AST);
 			match(BIT_STRING_LITERAL);
 			bit_string_literal_AST = (AST)currentAST.root;
 		}
@@ -2751,9 +2760,9 @@ inputState.guessing--;
 		AST block_configuration_AST = null;
 		
 		try {      // for error handling
-			AST tmp83_AST = null;
-			tmp83_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp83_AST);
+			AST tmp82_AST = null;
+			tmp82_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp82_AST);
 			match(K_FOR);
 			block_specification();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -2783,17 +2792,17 @@ inputState.guessing--;
 				
 			} while (true);
 			}
+			AST tmp83_AST = null;
+			tmp83_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp83_AST);
+			match(K_END);
 			AST tmp84_AST = null;
 			tmp84_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp84_AST);
-			match(K_END);
+			match(K_FOR);
 			AST tmp85_AST = null;
 			tmp85_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp85_AST);
-			match(K_FOR);
-			AST tmp86_AST = null;
-			tmp86_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp86_AST);
 			match(SEMI);
 			block_configuration_AST = (AST)currentAST.root;
 		}
@@ -2835,15 +2844,15 @@ inputState.guessing--;
 			if ( synPredMatched77 ) {
 				label();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp87_AST = null;
-				tmp87_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp87_AST);
+				AST tmp86_AST = null;
+				tmp86_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp86_AST);
 				match(LPAREN);
 				index_specification();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp88_AST = null;
-				tmp88_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp88_AST);
+				AST tmp87_AST = null;
+				tmp87_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp87_AST);
 				match(RPAREN);
 				block_specification_AST = (AST)currentAST.root;
 			}
@@ -2875,9 +2884,9 @@ inputState.guessing--;
 		AST use_clause_AST = null;
 		
 		try {      // for error handling
-			AST tmp89_AST = null;
-			tmp89_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp89_AST);
+			AST tmp88_AST = null;
+			tmp88_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp88_AST);
 			match(K_USE);
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -2885,9 +2894,9 @@ inputState.guessing--;
 			_loop597:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp90_AST = null;
-					tmp90_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp90_AST);
+					AST tmp89_AST = null;
+					tmp89_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp89_AST);
 					match(COMMA);
 					name();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -2898,9 +2907,9 @@ inputState.guessing--;
 				
 			} while (true);
 			}
-			AST tmp91_AST = null;
-			tmp91_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp91_AST);
+			AST tmp90_AST = null;
+			tmp90_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp90_AST);
 			match(SEMI);
 			use_clause_AST = (AST)currentAST.root;
 		}
@@ -2973,9 +2982,9 @@ inputState.guessing--;
 		try {      // for error handling
 			subprogram_specification();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp92_AST = null;
-			tmp92_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp92_AST);
+			AST tmp91_AST = null;
+			tmp91_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp91_AST);
 			match(SEMI);
 			subprogram_declaration_AST = (AST)currentAST.root;
 		}
@@ -2999,21 +3008,21 @@ inputState.guessing--;
 		try {      // for error handling
 			subprogram_specification();
 			astFactory.addASTChild(currentAST, returnAST);
+			AST tmp92_AST = null;
+			tmp92_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp92_AST);
+			match(K_IS);
+			subprogram_declarative_part();
+			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp93_AST = null;
 			tmp93_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp93_AST);
-			match(K_IS);
-			subprogram_declarative_part();
+			match(K_BEGIN);
+			subprogram_statement_part();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp94_AST = null;
 			tmp94_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp94_AST);
-			match(K_BEGIN);
-			subprogram_statement_part();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp95_AST = null;
-			tmp95_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp95_AST);
 			match(K_END);
 			{
 			switch ( LA(1)) {
@@ -3057,9 +3066,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp96_AST = null;
-			tmp96_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp96_AST);
+			AST tmp95_AST = null;
+			tmp95_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp95_AST);
 			match(SEMI);
 			subprogram_body_AST = (AST)currentAST.root;
 		}
@@ -3130,21 +3139,21 @@ inputState.guessing--;
 		AST subtype_declaration_AST = null;
 		
 		try {      // for error handling
+			AST tmp96_AST = null;
+			tmp96_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp96_AST);
+			match(K_SUBTYPE);
+			identifier();
+			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp97_AST = null;
 			tmp97_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp97_AST);
-			match(K_SUBTYPE);
-			identifier();
+			match(K_IS);
+			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp98_AST = null;
 			tmp98_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp98_AST);
-			match(K_IS);
-			subtype_indication();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp99_AST = null;
-			tmp99_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp99_AST);
 			match(SEMI);
 			subtype_declaration_AST = (AST)currentAST.root;
 		}
@@ -3166,15 +3175,15 @@ inputState.guessing--;
 		AST constant_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp100_AST = null;
-			tmp100_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp100_AST);
+			AST tmp99_AST = null;
+			tmp99_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp99_AST);
 			match(K_CONSTANT);
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp101_AST = null;
-			tmp101_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp101_AST);
+			AST tmp100_AST = null;
+			tmp100_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp100_AST);
 			match(COLON);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -3182,9 +3191,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case COLONEQ:
 			{
-				AST tmp102_AST = null;
-				tmp102_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp102_AST);
+				AST tmp101_AST = null;
+				tmp101_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp101_AST);
 				match(COLONEQ);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -3200,9 +3209,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp103_AST = null;
-			tmp103_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp103_AST);
+			AST tmp102_AST = null;
+			tmp102_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp102_AST);
 			match(SEMI);
 			constant_declaration_AST = (AST)currentAST.root;
 		}
@@ -3224,15 +3233,15 @@ inputState.guessing--;
 		AST signal_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp104_AST = null;
-			tmp104_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp104_AST);
+			AST tmp103_AST = null;
+			tmp103_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp103_AST);
 			match(K_SIGNAL);
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp105_AST = null;
-			tmp105_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp105_AST);
+			AST tmp104_AST = null;
+			tmp104_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp104_AST);
 			match(COLON);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -3260,9 +3269,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case COLONEQ:
 			{
-				AST tmp106_AST = null;
-				tmp106_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp106_AST);
+				AST tmp105_AST = null;
+				tmp105_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp105_AST);
 				match(COLONEQ);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -3278,9 +3287,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp107_AST = null;
-			tmp107_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp107_AST);
+			AST tmp106_AST = null;
+			tmp106_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp106_AST);
 			match(SEMI);
 			signal_declaration_AST = (AST)currentAST.root;
 		}
@@ -3306,9 +3315,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_SHARED:
 			{
-				AST tmp108_AST = null;
-				tmp108_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp108_AST);
+				AST tmp107_AST = null;
+				tmp107_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp107_AST);
 				match(K_SHARED);
 				break;
 			}
@@ -3322,15 +3331,15 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp109_AST = null;
-			tmp109_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp109_AST);
+			AST tmp108_AST = null;
+			tmp108_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp108_AST);
 			match(K_VARIABLE);
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp110_AST = null;
-			tmp110_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp110_AST);
+			AST tmp109_AST = null;
+			tmp109_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp109_AST);
 			match(COLON);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -3338,9 +3347,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case COLONEQ:
 			{
-				AST tmp111_AST = null;
-				tmp111_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp111_AST);
+				AST tmp110_AST = null;
+				tmp110_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp110_AST);
 				match(COLONEQ);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -3356,9 +3365,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp112_AST = null;
-			tmp112_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp112_AST);
+			AST tmp111_AST = null;
+			tmp111_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp111_AST);
 			match(SEMI);
 			variable_declaration_AST = (AST)currentAST.root;
 		}
@@ -3380,15 +3389,15 @@ inputState.guessing--;
 		AST file_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp113_AST = null;
-			tmp113_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp113_AST);
+			AST tmp112_AST = null;
+			tmp112_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp112_AST);
 			match(K_FILE);
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp114_AST = null;
-			tmp114_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp114_AST);
+			AST tmp113_AST = null;
+			tmp113_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp113_AST);
 			match(COLON);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -3411,9 +3420,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp115_AST = null;
-			tmp115_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp115_AST);
+			AST tmp114_AST = null;
+			tmp114_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp114_AST);
 			match(SEMI);
 			file_declaration_AST = (AST)currentAST.root;
 		}
@@ -3433,21 +3442,27 @@ inputState.guessing--;
 		returnAST = null;
 		ASTPair currentAST = new ASTPair();
 		AST component_declaration_AST = null;
+		Token  e = null;
+		AST e_AST = null;
+		Token id = null;
 		
 		try {      // for error handling
-			AST tmp116_AST = null;
-			tmp116_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp116_AST);
+			AST tmp115_AST = null;
+			tmp115_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp115_AST);
 			match(K_COMPONENT);
-			identifier();
+			id=identifier();
 			astFactory.addASTChild(currentAST, returnAST);
+			if ( inputState.guessing==0 ) {
+				stTracker.beginComponentDecl(id);
+			}
 			{
 			switch ( LA(1)) {
 			case K_IS:
 			{
-				AST tmp117_AST = null;
-				tmp117_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp117_AST);
+				AST tmp116_AST = null;
+				tmp116_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp116_AST);
 				match(K_IS);
 				break;
 			}
@@ -3500,13 +3515,13 @@ inputState.guessing--;
 			}
 			}
 			}
+			AST tmp117_AST = null;
+			tmp117_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp117_AST);
+			match(K_END);
 			AST tmp118_AST = null;
 			tmp118_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp118_AST);
-			match(K_END);
-			AST tmp119_AST = null;
-			tmp119_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp119_AST);
 			match(K_COMPONENT);
 			{
 			switch ( LA(1)) {
@@ -3527,10 +3542,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp120_AST = null;
-			tmp120_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp120_AST);
+			e = LT(1);
+			e_AST = astFactory.create(e);
+			astFactory.addASTChild(currentAST, e_AST);
 			match(SEMI);
+			if ( inputState.guessing==0 ) {
+				stTracker.endComponentDecl(e);
+			}
 			component_declaration_AST = (AST)currentAST.root;
 		}
 		catch (RecognitionException ex) {
@@ -3551,17 +3569,17 @@ inputState.guessing--;
 		AST configuration_specification_AST = null;
 		
 		try {      // for error handling
-			AST tmp121_AST = null;
-			tmp121_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp121_AST);
+			AST tmp119_AST = null;
+			tmp119_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp119_AST);
 			match(K_FOR);
 			component_specification();
 			astFactory.addASTChild(currentAST, returnAST);
 			binding_indication();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp122_AST = null;
-			tmp122_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp122_AST);
+			AST tmp120_AST = null;
+			tmp120_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp120_AST);
 			match(SEMI);
 			configuration_specification_AST = (AST)currentAST.root;
 		}
@@ -3583,21 +3601,21 @@ inputState.guessing--;
 		AST disconnection_specification_AST = null;
 		
 		try {      // for error handling
-			AST tmp123_AST = null;
-			tmp123_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp123_AST);
+			AST tmp121_AST = null;
+			tmp121_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp121_AST);
 			match(K_DISCONNECT);
 			guarded_signal_specification();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp124_AST = null;
-			tmp124_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp124_AST);
+			AST tmp122_AST = null;
+			tmp122_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp122_AST);
 			match(K_AFTER);
 			expression();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp125_AST = null;
-			tmp125_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp125_AST);
+			AST tmp123_AST = null;
+			tmp123_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp123_AST);
 			match(SEMI);
 			disconnection_specification_AST = (AST)currentAST.root;
 		}
@@ -3619,31 +3637,31 @@ inputState.guessing--;
 		AST group_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp126_AST = null;
-			tmp126_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp126_AST);
+			AST tmp124_AST = null;
+			tmp124_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp124_AST);
 			match(K_GROUP);
 			identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp127_AST = null;
-			tmp127_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp127_AST);
+			AST tmp125_AST = null;
+			tmp125_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp125_AST);
 			match(COLON);
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp128_AST = null;
-			tmp128_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp128_AST);
+			AST tmp126_AST = null;
+			tmp126_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp126_AST);
 			match(LPAREN);
 			group_constituent_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp129_AST = null;
-			tmp129_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp129_AST);
+			AST tmp127_AST = null;
+			tmp127_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp127_AST);
 			match(RPAREN);
-			AST tmp130_AST = null;
-			tmp130_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp130_AST);
+			AST tmp128_AST = null;
+			tmp128_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp128_AST);
 			match(SEMI);
 			group_declaration_AST = (AST)currentAST.root;
 		}
@@ -3665,29 +3683,29 @@ inputState.guessing--;
 		AST group_template_declaration_AST = null;
 		
 		try {      // for error handling
+			AST tmp129_AST = null;
+			tmp129_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp129_AST);
+			match(K_GROUP);
+			identifier();
+			astFactory.addASTChild(currentAST, returnAST);
+			AST tmp130_AST = null;
+			tmp130_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp130_AST);
+			match(K_IS);
 			AST tmp131_AST = null;
 			tmp131_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp131_AST);
-			match(K_GROUP);
-			identifier();
+			match(LPAREN);
+			entity_class_entry_list();
 			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp132_AST = null;
 			tmp132_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp132_AST);
-			match(K_IS);
+			match(RPAREN);
 			AST tmp133_AST = null;
 			tmp133_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp133_AST);
-			match(LPAREN);
-			entity_class_entry_list();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp134_AST = null;
-			tmp134_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp134_AST);
-			match(RPAREN);
-			AST tmp135_AST = null;
-			tmp135_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp135_AST);
 			match(SEMI);
 			group_template_declaration_AST = (AST)currentAST.root;
 		}
@@ -3754,9 +3772,9 @@ inputState.guessing--;
 				{
 					generic_map_aspect();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp136_AST = null;
-					tmp136_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp136_AST);
+					AST tmp134_AST = null;
+					tmp134_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp134_AST);
 					match(SEMI);
 					break;
 				}
@@ -3832,9 +3850,9 @@ inputState.guessing--;
 				{
 					port_map_aspect();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp137_AST = null;
-					tmp137_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp137_AST);
+					AST tmp135_AST = null;
+					tmp135_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp135_AST);
 					match(SEMI);
 					break;
 				}
@@ -3916,23 +3934,23 @@ inputState.guessing--;
 		AST generic_clause_AST = null;
 		
 		try {      // for error handling
+			AST tmp136_AST = null;
+			tmp136_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp136_AST);
+			match(K_GENERIC);
+			AST tmp137_AST = null;
+			tmp137_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp137_AST);
+			match(LPAREN);
+			generic_list();
+			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp138_AST = null;
 			tmp138_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp138_AST);
-			match(K_GENERIC);
+			match(RPAREN);
 			AST tmp139_AST = null;
 			tmp139_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp139_AST);
-			match(LPAREN);
-			generic_list();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp140_AST = null;
-			tmp140_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp140_AST);
-			match(RPAREN);
-			AST tmp141_AST = null;
-			tmp141_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp141_AST);
 			match(SEMI);
 			generic_clause_AST = (AST)currentAST.root;
 		}
@@ -3954,23 +3972,23 @@ inputState.guessing--;
 		AST port_clause_AST = null;
 		
 		try {      // for error handling
+			AST tmp140_AST = null;
+			tmp140_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp140_AST);
+			match(K_PORT);
+			AST tmp141_AST = null;
+			tmp141_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp141_AST);
+			match(LPAREN);
+			port_list();
+			astFactory.addASTChild(currentAST, returnAST);
 			AST tmp142_AST = null;
 			tmp142_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp142_AST);
-			match(K_PORT);
+			match(RPAREN);
 			AST tmp143_AST = null;
 			tmp143_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp143_AST);
-			match(LPAREN);
-			port_list();
-			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp144_AST = null;
-			tmp144_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp144_AST);
-			match(RPAREN);
-			AST tmp145_AST = null;
-			tmp145_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp145_AST);
 			match(SEMI);
 			port_clause_AST = (AST)currentAST.root;
 		}
@@ -4068,27 +4086,27 @@ inputState.guessing--;
 		try {      // for error handling
 			label();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp146_AST = null;
-			tmp146_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp146_AST);
+			AST tmp144_AST = null;
+			tmp144_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp144_AST);
 			match(COLON);
-			AST tmp147_AST = null;
-			tmp147_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp147_AST);
+			AST tmp145_AST = null;
+			tmp145_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp145_AST);
 			match(K_BLOCK);
 			{
 			switch ( LA(1)) {
 			case LPAREN:
 			{
-				AST tmp148_AST = null;
-				tmp148_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp148_AST);
+				AST tmp146_AST = null;
+				tmp146_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp146_AST);
 				match(LPAREN);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp149_AST = null;
-				tmp149_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp149_AST);
+				AST tmp147_AST = null;
+				tmp147_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp147_AST);
 				match(RPAREN);
 				break;
 			}
@@ -4127,9 +4145,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_IS:
 			{
-				AST tmp150_AST = null;
-				tmp150_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp150_AST);
+				AST tmp148_AST = null;
+				tmp148_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp148_AST);
 				match(K_IS);
 				break;
 			}
@@ -4167,19 +4185,19 @@ inputState.guessing--;
 			astFactory.addASTChild(currentAST, returnAST);
 			block_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp151_AST = null;
-			tmp151_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp151_AST);
+			AST tmp149_AST = null;
+			tmp149_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp149_AST);
 			match(K_BEGIN);
 			block_statement_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp152_AST = null;
-			tmp152_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp152_AST);
+			AST tmp150_AST = null;
+			tmp150_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp150_AST);
 			match(K_END);
-			AST tmp153_AST = null;
-			tmp153_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp153_AST);
+			AST tmp151_AST = null;
+			tmp151_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp151_AST);
 			match(K_BLOCK);
 			{
 			switch ( LA(1)) {
@@ -4200,9 +4218,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp154_AST = null;
-			tmp154_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp154_AST);
+			AST tmp152_AST = null;
+			tmp152_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp152_AST);
 			match(SEMI);
 			block_statement_AST = (AST)currentAST.root;
 		}
@@ -4276,15 +4294,15 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp155_AST = null;
-			tmp155_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp155_AST);
+			AST tmp153_AST = null;
+			tmp153_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp153_AST);
 			match(K_CASE);
 			expression();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp156_AST = null;
-			tmp156_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp156_AST);
+			AST tmp154_AST = null;
+			tmp154_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp154_AST);
 			match(K_IS);
 			{
 			int _cnt88=0;
@@ -4301,13 +4319,13 @@ inputState.guessing--;
 				_cnt88++;
 			} while (true);
 			}
-			AST tmp157_AST = null;
-			tmp157_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp157_AST);
+			AST tmp155_AST = null;
+			tmp155_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp155_AST);
 			match(K_END);
-			AST tmp158_AST = null;
-			tmp158_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp158_AST);
+			AST tmp156_AST = null;
+			tmp156_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp156_AST);
 			match(K_CASE);
 			{
 			switch ( LA(1)) {
@@ -4328,9 +4346,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp159_AST = null;
-			tmp159_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp159_AST);
+			AST tmp157_AST = null;
+			tmp157_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp157_AST);
 			match(SEMI);
 			case_statement_AST = (AST)currentAST.root;
 		}
@@ -4352,15 +4370,15 @@ inputState.guessing--;
 		AST case_statement_alternative_AST = null;
 		
 		try {      // for error handling
-			AST tmp160_AST = null;
-			tmp160_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp160_AST);
+			AST tmp158_AST = null;
+			tmp158_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp158_AST);
 			match(K_WHEN);
 			choices();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp161_AST = null;
-			tmp161_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp161_AST);
+			AST tmp159_AST = null;
+			tmp159_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp159_AST);
 			match(EQGRT);
 			sequence_of_statements();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -4390,9 +4408,9 @@ inputState.guessing--;
 			_loop99:
 			do {
 				if ((LA(1)==BAR)) {
-					AST tmp162_AST = null;
-					tmp162_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp162_AST);
+					AST tmp160_AST = null;
+					tmp160_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp160_AST);
 					match(BAR);
 					choice();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -4505,9 +4523,9 @@ inputState.guessing--;
 					choice_AST = (AST)currentAST.root;
 				}
 				else if ((LA(1)==K_OTHERS)) {
-					AST tmp163_AST = null;
-					tmp163_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp163_AST);
+					AST tmp161_AST = null;
+					tmp161_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp161_AST);
 					match(K_OTHERS);
 					choice_AST = (AST)currentAST.root;
 				}
@@ -4650,9 +4668,9 @@ inputState.guessing--;
 		AST component_configuration_AST = null;
 		
 		try {      // for error handling
-			AST tmp164_AST = null;
-			tmp164_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp164_AST);
+			AST tmp162_AST = null;
+			tmp162_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp162_AST);
 			match(K_FOR);
 			component_specification();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -4665,9 +4683,9 @@ inputState.guessing--;
 			{
 				binding_indication();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp165_AST = null;
-				tmp165_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp165_AST);
+				AST tmp163_AST = null;
+				tmp163_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp163_AST);
 				match(SEMI);
 				break;
 			}
@@ -4700,17 +4718,17 @@ inputState.guessing--;
 			}
 			}
 			}
+			AST tmp164_AST = null;
+			tmp164_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp164_AST);
+			match(K_END);
+			AST tmp165_AST = null;
+			tmp165_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp165_AST);
+			match(K_FOR);
 			AST tmp166_AST = null;
 			tmp166_AST = astFactory.create(LT(1));
 			astFactory.addASTChild(currentAST, tmp166_AST);
-			match(K_END);
-			AST tmp167_AST = null;
-			tmp167_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp167_AST);
-			match(K_FOR);
-			AST tmp168_AST = null;
-			tmp168_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp168_AST);
 			match(SEMI);
 			component_configuration_AST = (AST)currentAST.root;
 		}
@@ -4734,9 +4752,9 @@ inputState.guessing--;
 		try {      // for error handling
 			instantiation_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp169_AST = null;
-			tmp169_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp169_AST);
+			AST tmp167_AST = null;
+			tmp167_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp167_AST);
 			match(COLON);
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -4763,9 +4781,9 @@ inputState.guessing--;
 		try {      // for error handling
 			instNm=label();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp170_AST = null;
-			tmp170_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp170_AST);
+			AST tmp168_AST = null;
+			tmp168_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp168_AST);
 			match(COLON);
 			refNm=instantiated_unit();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -4809,9 +4827,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp171_AST = null;
-			tmp171_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp171_AST);
+			AST tmp169_AST = null;
+			tmp169_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp169_AST);
 			match(SEMI);
 			component_instantiation_statement_AST = (AST)currentAST.root;
 		}
@@ -4845,9 +4863,9 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_COMPONENT:
 				{
-					AST tmp172_AST = null;
-					tmp172_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp172_AST);
+					AST tmp170_AST = null;
+					tmp170_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp170_AST);
 					match(K_COMPONENT);
 					break;
 				}
@@ -4870,9 +4888,9 @@ inputState.guessing--;
 			}
 			case K_ENTITY:
 			{
-				AST tmp173_AST = null;
-				tmp173_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp173_AST);
+				AST tmp171_AST = null;
+				tmp171_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp171_AST);
 				match(K_ENTITY);
 				tok=name();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -4880,15 +4898,15 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case LPAREN:
 				{
-					AST tmp174_AST = null;
-					tmp174_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp174_AST);
+					AST tmp172_AST = null;
+					tmp172_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp172_AST);
 					match(LPAREN);
 					identifier();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp175_AST = null;
-					tmp175_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp175_AST);
+					AST tmp173_AST = null;
+					tmp173_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp173_AST);
 					match(RPAREN);
 					break;
 				}
@@ -4909,9 +4927,9 @@ inputState.guessing--;
 			}
 			case K_CONFIGURATION:
 			{
-				AST tmp176_AST = null;
-				tmp176_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp176_AST);
+				AST tmp174_AST = null;
+				tmp174_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp174_AST);
 				match(K_CONFIGURATION);
 				name();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -4953,9 +4971,9 @@ inputState.guessing--;
 				_loop303:
 				do {
 					if ((LA(1)==COMMA)) {
-						AST tmp177_AST = null;
-						tmp177_AST = astFactory.create(LT(1));
-						astFactory.addASTChild(currentAST, tmp177_AST);
+						AST tmp175_AST = null;
+						tmp175_AST = astFactory.create(LT(1));
+						astFactory.addASTChild(currentAST, tmp175_AST);
 						match(COMMA);
 						label();
 						astFactory.addASTChild(currentAST, returnAST);
@@ -4971,18 +4989,18 @@ inputState.guessing--;
 			}
 			case K_OTHERS:
 			{
-				AST tmp178_AST = null;
-				tmp178_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp178_AST);
+				AST tmp176_AST = null;
+				tmp176_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp176_AST);
 				match(K_OTHERS);
 				instantiation_list_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ALL:
 			{
-				AST tmp179_AST = null;
-				tmp179_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp179_AST);
+				AST tmp177_AST = null;
+				tmp177_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp177_AST);
 				match(K_ALL);
 				instantiation_list_AST = (AST)currentAST.root;
 				break;
@@ -5050,9 +5068,9 @@ inputState.guessing--;
 		AST record_type_definition_AST = null;
 		
 		try {      // for error handling
-			AST tmp180_AST = null;
-			tmp180_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp180_AST);
+			AST tmp178_AST = null;
+			tmp178_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp178_AST);
 			match(K_RECORD);
 			{
 			int _cnt470=0;
@@ -5069,13 +5087,13 @@ inputState.guessing--;
 				_cnt470++;
 			} while (true);
 			}
-			AST tmp181_AST = null;
-			tmp181_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp181_AST);
+			AST tmp179_AST = null;
+			tmp179_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp179_AST);
 			match(K_END);
-			AST tmp182_AST = null;
-			tmp182_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp182_AST);
+			AST tmp180_AST = null;
+			tmp180_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp180_AST);
 			match(K_RECORD);
 			{
 			switch ( LA(1)) {
@@ -5140,9 +5158,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_POSTPONED:
 			{
-				AST tmp183_AST = null;
-				tmp183_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp183_AST);
+				AST tmp181_AST = null;
+				tmp181_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp181_AST);
 				match(K_POSTPONED);
 				break;
 			}
@@ -5158,9 +5176,9 @@ inputState.guessing--;
 			}
 			assertion();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp184_AST = null;
-			tmp184_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp184_AST);
+			AST tmp182_AST = null;
+			tmp182_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp182_AST);
 			match(SEMI);
 			concurrent_assertion_statement_AST = (AST)currentAST.root;
 		}
@@ -5205,9 +5223,9 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_POSTPONED:
 				{
-					AST tmp185_AST = null;
-					tmp185_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp185_AST);
+					AST tmp183_AST = null;
+					tmp183_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp183_AST);
 					match(K_POSTPONED);
 					break;
 				}
@@ -5225,9 +5243,9 @@ inputState.guessing--;
 				}
 				procedure_call();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp186_AST = null;
-				tmp186_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp186_AST);
+				AST tmp184_AST = null;
+				tmp184_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp184_AST);
 				match(SEMI);
 				concurrent_procedure_call_statement_AST = (AST)currentAST.root;
 			}
@@ -5236,9 +5254,9 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_POSTPONED:
 				{
-					AST tmp187_AST = null;
-					tmp187_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp187_AST);
+					AST tmp185_AST = null;
+					tmp185_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp185_AST);
 					match(K_POSTPONED);
 					break;
 				}
@@ -5256,9 +5274,9 @@ inputState.guessing--;
 				}
 				procedure_call();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp188_AST = null;
-				tmp188_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp188_AST);
+				AST tmp186_AST = null;
+				tmp186_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp186_AST);
 				match(SEMI);
 				concurrent_procedure_call_statement_AST = (AST)currentAST.root;
 			}
@@ -5291,15 +5309,15 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case LPAREN:
 			{
-				AST tmp189_AST = null;
-				tmp189_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp189_AST);
+				AST tmp187_AST = null;
+				tmp187_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp187_AST);
 				match(LPAREN);
 				actual_parameter_part();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp190_AST = null;
-				tmp190_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp190_AST);
+				AST tmp188_AST = null;
+				tmp188_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp188_AST);
 				match(RPAREN);
 				break;
 			}
@@ -5356,9 +5374,9 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_POSTPONED:
 				{
-					AST tmp191_AST = null;
-					tmp191_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp191_AST);
+					AST tmp189_AST = null;
+					tmp189_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp189_AST);
 					match(K_POSTPONED);
 					break;
 				}
@@ -5385,9 +5403,9 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_POSTPONED:
 				{
-					AST tmp192_AST = null;
-					tmp192_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp192_AST);
+					AST tmp190_AST = null;
+					tmp190_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp190_AST);
 					match(K_POSTPONED);
 					break;
 				}
@@ -5476,17 +5494,17 @@ inputState.guessing--;
 		try {      // for error handling
 			target();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp193_AST = null;
-			tmp193_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp193_AST);
+			AST tmp191_AST = null;
+			tmp191_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp191_AST);
 			match(LSTEQ);
 			voptions();
 			astFactory.addASTChild(currentAST, returnAST);
 			conditional_waveforms();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp194_AST = null;
-			tmp194_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp194_AST);
+			AST tmp192_AST = null;
+			tmp192_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp192_AST);
 			match(SEMI);
 			conditional_signal_assignment_AST = (AST)currentAST.root;
 		}
@@ -5508,29 +5526,29 @@ inputState.guessing--;
 		AST selected_signal_assignment_AST = null;
 		
 		try {      // for error handling
-			AST tmp195_AST = null;
-			tmp195_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp195_AST);
+			AST tmp193_AST = null;
+			tmp193_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp193_AST);
 			match(K_WITH);
 			expression();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp196_AST = null;
-			tmp196_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp196_AST);
+			AST tmp194_AST = null;
+			tmp194_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp194_AST);
 			match(K_SELECT);
 			target();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp197_AST = null;
-			tmp197_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp197_AST);
+			AST tmp195_AST = null;
+			tmp195_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp195_AST);
 			match(LSTEQ);
 			voptions();
 			astFactory.addASTChild(currentAST, returnAST);
 			selected_waveforms();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp198_AST = null;
-			tmp198_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp198_AST);
+			AST tmp196_AST = null;
+			tmp196_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp196_AST);
 			match(SEMI);
 			selected_signal_assignment_AST = (AST)currentAST.root;
 		}
@@ -5576,9 +5594,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_POSTPONED:
 			{
-				AST tmp199_AST = null;
-				tmp199_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp199_AST);
+				AST tmp197_AST = null;
+				tmp197_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp197_AST);
 				match(K_POSTPONED);
 				break;
 			}
@@ -5592,23 +5610,23 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp200_AST = null;
-			tmp200_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp200_AST);
+			AST tmp198_AST = null;
+			tmp198_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp198_AST);
 			match(K_PROCESS);
 			{
 			switch ( LA(1)) {
 			case LPAREN:
 			{
-				AST tmp201_AST = null;
-				tmp201_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp201_AST);
+				AST tmp199_AST = null;
+				tmp199_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp199_AST);
 				match(LPAREN);
 				sensitivity_list();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp202_AST = null;
-				tmp202_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp202_AST);
+				AST tmp200_AST = null;
+				tmp200_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp200_AST);
 				match(RPAREN);
 				break;
 			}
@@ -5641,9 +5659,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_IS:
 			{
-				AST tmp203_AST = null;
-				tmp203_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp203_AST);
+				AST tmp201_AST = null;
+				tmp201_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp201_AST);
 				match(K_IS);
 				break;
 			}
@@ -5673,23 +5691,23 @@ inputState.guessing--;
 			}
 			process_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp204_AST = null;
-			tmp204_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp204_AST);
+			AST tmp202_AST = null;
+			tmp202_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp202_AST);
 			match(K_BEGIN);
 			process_statement_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp205_AST = null;
-			tmp205_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp205_AST);
+			AST tmp203_AST = null;
+			tmp203_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp203_AST);
 			match(K_END);
 			{
 			switch ( LA(1)) {
 			case K_POSTPONED:
 			{
-				AST tmp206_AST = null;
-				tmp206_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp206_AST);
+				AST tmp204_AST = null;
+				tmp204_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp204_AST);
 				match(K_POSTPONED);
 				break;
 			}
@@ -5703,9 +5721,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp207_AST = null;
-			tmp207_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp207_AST);
+			AST tmp205_AST = null;
+			tmp205_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp205_AST);
 			match(K_PROCESS);
 			{
 			switch ( LA(1)) {
@@ -5726,9 +5744,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp208_AST = null;
-			tmp208_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp208_AST);
+			AST tmp206_AST = null;
+			tmp206_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp206_AST);
 			match(SEMI);
 			process_statement_AST = (AST)currentAST.root;
 		}
@@ -5752,15 +5770,15 @@ inputState.guessing--;
 		try {      // for error handling
 			label();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp209_AST = null;
-			tmp209_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp209_AST);
+			AST tmp207_AST = null;
+			tmp207_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp207_AST);
 			match(COLON);
 			generation_scheme();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp210_AST = null;
-			tmp210_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp210_AST);
+			AST tmp208_AST = null;
+			tmp208_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp208_AST);
 			match(K_GENERATE);
 			{
 			switch ( LA(1)) {
@@ -5797,9 +5815,9 @@ inputState.guessing--;
 					
 				} while (true);
 				}
-				AST tmp211_AST = null;
-				tmp211_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp211_AST);
+				AST tmp209_AST = null;
+				tmp209_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp209_AST);
 				match(K_BEGIN);
 				break;
 			}
@@ -5834,13 +5852,13 @@ inputState.guessing--;
 				
 			} while (true);
 			}
-			AST tmp212_AST = null;
-			tmp212_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp212_AST);
+			AST tmp210_AST = null;
+			tmp210_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp210_AST);
 			match(K_END);
-			AST tmp213_AST = null;
-			tmp213_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp213_AST);
+			AST tmp211_AST = null;
+			tmp211_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp211_AST);
 			match(K_GENERATE);
 			{
 			switch ( LA(1)) {
@@ -5861,9 +5879,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp214_AST = null;
-			tmp214_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp214_AST);
+			AST tmp212_AST = null;
+			tmp212_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp212_AST);
 			match(SEMI);
 			generate_statement_AST = (AST)currentAST.root;
 		}
@@ -5885,9 +5903,9 @@ inputState.guessing--;
 		AST condition_clause_AST = null;
 		
 		try {      // for error handling
-			AST tmp215_AST = null;
-			tmp215_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp215_AST);
+			AST tmp213_AST = null;
+			tmp213_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp213_AST);
 			match(K_UNTIL);
 			condition();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -5956,9 +5974,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_GUARDED:
 			{
-				AST tmp216_AST = null;
-				tmp216_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp216_AST);
+				AST tmp214_AST = null;
+				tmp214_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp214_AST);
 				match(K_GUARDED);
 				break;
 			}
@@ -6079,9 +6097,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_WHEN:
 			{
-				AST tmp217_AST = null;
-				tmp217_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp217_AST);
+				AST tmp215_AST = null;
+				tmp215_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp215_AST);
 				match(K_WHEN);
 				condition();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -6139,9 +6157,9 @@ inputState.guessing--;
 				_loop610:
 				do {
 					if ((LA(1)==COMMA)) {
-						AST tmp218_AST = null;
-						tmp218_AST = astFactory.create(LT(1));
-						astFactory.addASTChild(currentAST, tmp218_AST);
+						AST tmp216_AST = null;
+						tmp216_AST = astFactory.create(LT(1));
+						astFactory.addASTChild(currentAST, tmp216_AST);
 						match(COMMA);
 						waveform_element();
 						astFactory.addASTChild(currentAST, returnAST);
@@ -6157,9 +6175,9 @@ inputState.guessing--;
 			}
 			case K_UNAFFECTED:
 			{
-				AST tmp219_AST = null;
-				tmp219_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp219_AST);
+				AST tmp217_AST = null;
+				tmp217_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp217_AST);
 				match(K_UNAFFECTED);
 				waveform_AST = (AST)currentAST.root;
 				break;
@@ -6188,15 +6206,15 @@ inputState.guessing--;
 		AST conditional_waveforms_2_AST = null;
 		
 		try {      // for error handling
-			AST tmp220_AST = null;
-			tmp220_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp220_AST);
+			AST tmp218_AST = null;
+			tmp218_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp218_AST);
 			match(K_WHEN);
 			condition();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp221_AST = null;
-			tmp221_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp221_AST);
+			AST tmp219_AST = null;
+			tmp219_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp219_AST);
 			match(K_ELSE);
 			waveform();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -6250,37 +6268,37 @@ inputState.guessing--;
 		AST configuration_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp222_AST = null;
-			tmp222_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp222_AST);
+			AST tmp220_AST = null;
+			tmp220_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp220_AST);
 			match(K_CONFIGURATION);
 			identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp223_AST = null;
-			tmp223_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp223_AST);
+			AST tmp221_AST = null;
+			tmp221_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp221_AST);
 			match(K_OF);
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp224_AST = null;
-			tmp224_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp224_AST);
+			AST tmp222_AST = null;
+			tmp222_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp222_AST);
 			match(K_IS);
 			configuration_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
 			block_configuration();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp225_AST = null;
-			tmp225_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp225_AST);
+			AST tmp223_AST = null;
+			tmp223_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp223_AST);
 			match(K_END);
 			{
 			switch ( LA(1)) {
 			case K_CONFIGURATION:
 			{
-				AST tmp226_AST = null;
-				tmp226_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp226_AST);
+				AST tmp224_AST = null;
+				tmp224_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp224_AST);
 				match(K_CONFIGURATION);
 				break;
 			}
@@ -6315,9 +6333,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp227_AST = null;
-			tmp227_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp227_AST);
+			AST tmp225_AST = null;
+			tmp225_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp225_AST);
 			match(SEMI);
 			configuration_declaration_AST = (AST)currentAST.root;
 		}
@@ -6424,9 +6442,9 @@ inputState.guessing--;
 			_loop283:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp228_AST = null;
-					tmp228_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp228_AST);
+					AST tmp226_AST = null;
+					tmp226_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp226_AST);
 					match(COMMA);
 					identifier();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -6457,9 +6475,9 @@ inputState.guessing--;
 		AST index_constraint_AST = null;
 		
 		try {      // for error handling
-			AST tmp229_AST = null;
-			tmp229_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp229_AST);
+			AST tmp227_AST = null;
+			tmp227_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp227_AST);
 			match(LPAREN);
 			discrete_range();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -6467,9 +6485,9 @@ inputState.guessing--;
 			_loop293:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp230_AST = null;
-					tmp230_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp230_AST);
+					AST tmp228_AST = null;
+					tmp228_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp228_AST);
 					match(COMMA);
 					discrete_range();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -6480,9 +6498,9 @@ inputState.guessing--;
 				
 			} while (true);
 			}
-			AST tmp231_AST = null;
-			tmp231_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp231_AST);
+			AST tmp229_AST = null;
+			tmp229_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp229_AST);
 			match(RPAREN);
 			index_constraint_AST = (AST)currentAST.root;
 		}
@@ -6543,9 +6561,9 @@ inputState.guessing--;
 		AST range_constraint_AST = null;
 		
 		try {      // for error handling
-			AST tmp232_AST = null;
-			tmp232_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp232_AST);
+			AST tmp230_AST = null;
+			tmp230_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp230_AST);
 			match(K_RANGE);
 			range();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -6641,15 +6659,15 @@ inputState.guessing--;
 		AST library_clause_AST = null;
 		
 		try {      // for error handling
-			AST tmp233_AST = null;
-			tmp233_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp233_AST);
+			AST tmp231_AST = null;
+			tmp231_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp231_AST);
 			match(K_LIBRARY);
 			logical_name_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp234_AST = null;
-			tmp234_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp234_AST);
+			AST tmp232_AST = null;
+			tmp232_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp232_AST);
 			match(SEMI);
 			library_clause_AST = (AST)currentAST.root;
 		}
@@ -6945,21 +6963,23 @@ inputState.guessing--;
 		returnAST = null;
 		ASTPair currentAST = new ASTPair();
 		AST entity_declaration_AST = null;
+		Token  e = null;
+		AST e_AST = null;
 		Token id = null;
 		
 		try {      // for error handling
-			AST tmp235_AST = null;
-			tmp235_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp235_AST);
+			AST tmp233_AST = null;
+			tmp233_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp233_AST);
 			match(K_ENTITY);
 			id=identifier();
 			astFactory.addASTChild(currentAST, returnAST);
 			if ( inputState.guessing==0 ) {
 				stTracker.beginEntityDecl(id);
 			}
-			AST tmp236_AST = null;
-			tmp236_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp236_AST);
+			AST tmp234_AST = null;
+			tmp234_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp234_AST);
 			match(K_IS);
 			entity_header();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -6969,9 +6989,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_BEGIN:
 			{
-				AST tmp237_AST = null;
-				tmp237_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp237_AST);
+				AST tmp235_AST = null;
+				tmp235_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp235_AST);
 				match(K_BEGIN);
 				entity_statement_part();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -6987,17 +7007,17 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp238_AST = null;
-			tmp238_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp238_AST);
+			AST tmp236_AST = null;
+			tmp236_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp236_AST);
 			match(K_END);
 			{
 			switch ( LA(1)) {
 			case K_ENTITY:
 			{
-				AST tmp239_AST = null;
-				tmp239_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp239_AST);
+				AST tmp237_AST = null;
+				tmp237_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp237_AST);
 				match(K_ENTITY);
 				break;
 			}
@@ -7032,12 +7052,12 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp240_AST = null;
-			tmp240_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp240_AST);
+			e = LT(1);
+			e_AST = astFactory.create(e);
+			astFactory.addASTChild(currentAST, e_AST);
 			match(SEMI);
 			if ( inputState.guessing==0 ) {
-				stTracker.endEntityDecl();
+				stTracker.endEntityDecl(e);
 			}
 			entity_declaration_AST = (AST)currentAST.root;
 		}
@@ -7057,31 +7077,37 @@ inputState.guessing--;
 		returnAST = null;
 		ASTPair currentAST = new ASTPair();
 		AST package_declaration_AST = null;
+		Token  e = null;
+		AST e_AST = null;
+		Token id = null;
 		
 		try {      // for error handling
-			AST tmp241_AST = null;
-			tmp241_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp241_AST);
+			AST tmp238_AST = null;
+			tmp238_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp238_AST);
 			match(K_PACKAGE);
-			identifier();
+			id=identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp242_AST = null;
-			tmp242_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp242_AST);
+			AST tmp239_AST = null;
+			tmp239_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp239_AST);
 			match(K_IS);
+			if ( inputState.guessing==0 ) {
+				stTracker.beginPackageDecl(id);
+			}
 			package_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp243_AST = null;
-			tmp243_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp243_AST);
+			AST tmp240_AST = null;
+			tmp240_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp240_AST);
 			match(K_END);
 			{
 			switch ( LA(1)) {
 			case K_PACKAGE:
 			{
-				AST tmp244_AST = null;
-				tmp244_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp244_AST);
+				AST tmp241_AST = null;
+				tmp241_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp241_AST);
 				match(K_PACKAGE);
 				break;
 			}
@@ -7116,10 +7142,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp245_AST = null;
-			tmp245_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp245_AST);
+			e = LT(1);
+			e_AST = astFactory.create(e);
+			astFactory.addASTChild(currentAST, e_AST);
 			match(SEMI);
+			if ( inputState.guessing==0 ) {
+				stTracker.endPackageDecl(e);
+			}
 			package_declaration_AST = (AST)currentAST.root;
 		}
 		catch (RecognitionException ex) {
@@ -7143,9 +7172,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_TRANSPORT:
 			{
-				AST tmp246_AST = null;
-				tmp246_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp246_AST);
+				AST tmp242_AST = null;
+				tmp242_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp242_AST);
 				match(K_TRANSPORT);
 				delay_mechanism_AST = (AST)currentAST.root;
 				break;
@@ -7157,9 +7186,9 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_REJECT:
 				{
-					AST tmp247_AST = null;
-					tmp247_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp247_AST);
+					AST tmp243_AST = null;
+					tmp243_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp243_AST);
 					match(K_REJECT);
 					expression();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -7175,9 +7204,9 @@ inputState.guessing--;
 				}
 				}
 				}
-				AST tmp248_AST = null;
-				tmp248_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp248_AST);
+				AST tmp244_AST = null;
+				tmp244_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp244_AST);
 				match(K_INERTIAL);
 				delay_mechanism_AST = (AST)currentAST.root;
 				break;
@@ -7373,18 +7402,18 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_TO:
 			{
-				AST tmp249_AST = null;
-				tmp249_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp249_AST);
+				AST tmp245_AST = null;
+				tmp245_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp245_AST);
 				match(K_TO);
 				direction_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_DOWNTO:
 			{
-				AST tmp250_AST = null;
-				tmp250_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp250_AST);
+				AST tmp246_AST = null;
+				tmp246_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp246_AST);
 				match(K_DOWNTO);
 				direction_AST = (AST)currentAST.root;
 				break;
@@ -7415,9 +7444,9 @@ inputState.guessing--;
 		try {      // for error handling
 			signal_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp251_AST = null;
-			tmp251_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp251_AST);
+			AST tmp247_AST = null;
+			tmp247_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp247_AST);
 			match(COLON);
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -7498,15 +7527,15 @@ inputState.guessing--;
 		try {      // for error handling
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp252_AST = null;
-			tmp252_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp252_AST);
+			AST tmp248_AST = null;
+			tmp248_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp248_AST);
 			match(COLON);
 			element_subtype_definition();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp253_AST = null;
-			tmp253_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp253_AST);
+			AST tmp249_AST = null;
+			tmp249_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp249_AST);
 			match(SEMI);
 			element_declaration_AST = (AST)currentAST.root;
 		}
@@ -7553,135 +7582,135 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_ENTITY:
 			{
-				AST tmp254_AST = null;
-				tmp254_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp254_AST);
+				AST tmp250_AST = null;
+				tmp250_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp250_AST);
 				match(K_ENTITY);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_PROCEDURE:
 			{
-				AST tmp255_AST = null;
-				tmp255_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp255_AST);
+				AST tmp251_AST = null;
+				tmp251_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp251_AST);
 				match(K_PROCEDURE);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_TYPE:
 			{
-				AST tmp256_AST = null;
-				tmp256_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp256_AST);
+				AST tmp252_AST = null;
+				tmp252_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp252_AST);
 				match(K_TYPE);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
-			case K_SIGNAL:
-			{
-				AST tmp257_AST = null;
-				tmp257_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp257_AST);
+			case K_SIGNAL:
+			{
+				AST tmp253_AST = null;
+				tmp253_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp253_AST);
 				match(K_SIGNAL);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_LABEL:
 			{
-				AST tmp258_AST = null;
-				tmp258_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp258_AST);
+				AST tmp254_AST = null;
+				tmp254_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp254_AST);
 				match(K_LABEL);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ARCHITECTURE:
 			{
-				AST tmp259_AST = null;
-				tmp259_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp259_AST);
+				AST tmp255_AST = null;
+				tmp255_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp255_AST);
 				match(K_ARCHITECTURE);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_FUNCTION:
 			{
-				AST tmp260_AST = null;
-				tmp260_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp260_AST);
+				AST tmp256_AST = null;
+				tmp256_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp256_AST);
 				match(K_FUNCTION);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_SUBTYPE:
 			{
-				AST tmp261_AST = null;
-				tmp261_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp261_AST);
+				AST tmp257_AST = null;
+				tmp257_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp257_AST);
 				match(K_SUBTYPE);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_VARIABLE:
 			{
-				AST tmp262_AST = null;
-				tmp262_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp262_AST);
+				AST tmp258_AST = null;
+				tmp258_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp258_AST);
 				match(K_VARIABLE);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_LITERAL:
 			{
-				AST tmp263_AST = null;
-				tmp263_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp263_AST);
+				AST tmp259_AST = null;
+				tmp259_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp259_AST);
 				match(K_LITERAL);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_CONFIGURATION:
 			{
-				AST tmp264_AST = null;
-				tmp264_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp264_AST);
+				AST tmp260_AST = null;
+				tmp260_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp260_AST);
 				match(K_CONFIGURATION);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_PACKAGE:
 			{
-				AST tmp265_AST = null;
-				tmp265_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp265_AST);
+				AST tmp261_AST = null;
+				tmp261_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp261_AST);
 				match(K_PACKAGE);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_CONSTANT:
 			{
-				AST tmp266_AST = null;
-				tmp266_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp266_AST);
+				AST tmp262_AST = null;
+				tmp262_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp262_AST);
 				match(K_CONSTANT);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_COMPONENT:
 			{
-				AST tmp267_AST = null;
-				tmp267_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp267_AST);
+				AST tmp263_AST = null;
+				tmp263_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp263_AST);
 				match(K_COMPONENT);
 				entity_class_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_UNITS:
 			{
-				AST tmp268_AST = null;
-				tmp268_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp268_AST);
+				AST tmp264_AST = null;
+				tmp264_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp264_AST);
 				match(K_UNITS);
 				entity_class_AST = (AST)currentAST.root;
 				break;
@@ -7716,9 +7745,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case LSTGRT:
 			{
-				AST tmp269_AST = null;
-				tmp269_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp269_AST);
+				AST tmp265_AST = null;
+				tmp265_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp265_AST);
 				match(LSTGRT);
 				break;
 			}
@@ -7759,9 +7788,9 @@ inputState.guessing--;
 			_loop202:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp270_AST = null;
-					tmp270_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp270_AST);
+					AST tmp266_AST = null;
+					tmp266_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp266_AST);
 					match(COMMA);
 					entity_class_entry();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -8220,9 +8249,9 @@ inputState.guessing--;
 				_loop224:
 				do {
 					if ((LA(1)==COMMA)) {
-						AST tmp271_AST = null;
-						tmp271_AST = astFactory.create(LT(1));
-						astFactory.addASTChild(currentAST, tmp271_AST);
+						AST tmp267_AST = null;
+						tmp267_AST = astFactory.create(LT(1));
+						astFactory.addASTChild(currentAST, tmp267_AST);
 						match(COMMA);
 						entity_designator();
 						astFactory.addASTChild(currentAST, returnAST);
@@ -8238,18 +8267,18 @@ inputState.guessing--;
 			}
 			case K_OTHERS:
 			{
-				AST tmp272_AST = null;
-				tmp272_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp272_AST);
+				AST tmp268_AST = null;
+				tmp268_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp268_AST);
 				match(K_OTHERS);
 				entity_name_list_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ALL:
 			{
-				AST tmp273_AST = null;
-				tmp273_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp273_AST);
+				AST tmp269_AST = null;
+				tmp269_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp269_AST);
 				match(K_ALL);
 				entity_name_list_AST = (AST)currentAST.root;
 				break;
@@ -8389,9 +8418,9 @@ inputState.guessing--;
 		AST enumeration_type_definition_AST = null;
 		
 		try {      // for error handling
-			AST tmp274_AST = null;
-			tmp274_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp274_AST);
+			AST tmp270_AST = null;
+			tmp270_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp270_AST);
 			match(LPAREN);
 			enumeration_literal();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -8399,9 +8428,9 @@ inputState.guessing--;
 			_loop238:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp275_AST = null;
-					tmp275_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp275_AST);
+					AST tmp271_AST = null;
+					tmp271_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp271_AST);
 					match(COMMA);
 					enumeration_literal();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -8412,9 +8441,9 @@ inputState.guessing--;
 				
 			} while (true);
 			}
-			AST tmp276_AST = null;
-			tmp276_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp276_AST);
+			AST tmp272_AST = null;
+			tmp272_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp272_AST);
 			match(RPAREN);
 			enumeration_type_definition_AST = (AST)currentAST.root;
 		}
@@ -8455,9 +8484,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp277_AST = null;
-			tmp277_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp277_AST);
+			AST tmp273_AST = null;
+			tmp273_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp273_AST);
 			match(K_EXIT);
 			{
 			switch ( LA(1)) {
@@ -8483,9 +8512,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_WHEN:
 			{
-				AST tmp278_AST = null;
-				tmp278_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp278_AST);
+				AST tmp274_AST = null;
+				tmp274_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp274_AST);
 				match(K_WHEN);
 				condition();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -8501,9 +8530,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp279_AST = null;
-			tmp279_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp279_AST);
+			AST tmp275_AST = null;
+			tmp275_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp275_AST);
 			match(SEMI);
 			exit_statement_AST = (AST)currentAST.root;
 		}
@@ -8596,54 +8625,54 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_AND:
 			{
-				AST tmp280_AST = null;
-				tmp280_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp280_AST);
+				AST tmp276_AST = null;
+				tmp276_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp276_AST);
 				match(K_AND);
 				logical_op_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_OR:
 			{
-				AST tmp281_AST = null;
-				tmp281_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp281_AST);
+				AST tmp277_AST = null;
+				tmp277_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp277_AST);
 				match(K_OR);
 				logical_op_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_XOR:
 			{
-				AST tmp282_AST = null;
-				tmp282_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp282_AST);
+				AST tmp278_AST = null;
+				tmp278_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp278_AST);
 				match(K_XOR);
 				logical_op_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_NAND:
 			{
-				AST tmp283_AST = null;
-				tmp283_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp283_AST);
+				AST tmp279_AST = null;
+				tmp279_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp279_AST);
 				match(K_NAND);
 				logical_op_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_NOR:
 			{
-				AST tmp284_AST = null;
-				tmp284_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp284_AST);
+				AST tmp280_AST = null;
+				tmp280_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp280_AST);
 				match(K_NOR);
 				logical_op_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_XNOR:
 			{
-				AST tmp285_AST = null;
-				tmp285_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp285_AST);
+				AST tmp281_AST = null;
+				tmp281_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp281_AST);
 				match(K_XNOR);
 				logical_op_AST = (AST)currentAST.root;
 				break;
@@ -8688,9 +8717,9 @@ inputState.guessing--;
 				astFactory.addASTChild(currentAST, returnAST);
 				{
 				if ((LA(1)==STAR2) && (_tokenSet_102.member(LA(2)))) {
-					AST tmp286_AST = null;
-					tmp286_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp286_AST);
+					AST tmp282_AST = null;
+					tmp282_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp282_AST);
 					match(STAR2);
 					primary();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -8707,9 +8736,9 @@ inputState.guessing--;
 			}
 			case K_ABS:
 			{
-				AST tmp287_AST = null;
-				tmp287_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp287_AST);
+				AST tmp283_AST = null;
+				tmp283_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp283_AST);
 				match(K_ABS);
 				primary();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -8718,9 +8747,9 @@ inputState.guessing--;
 			}
 			case K_NOT:
 			{
-				AST tmp288_AST = null;
-				tmp288_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp288_AST);
+				AST tmp284_AST = null;
+				tmp284_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp284_AST);
 				match(K_NOT);
 				primary();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -8875,15 +8904,15 @@ inputState.guessing--;
 inputState.guessing--;
 						}
 						if ( synPredMatched415 ) {
-							AST tmp289_AST = null;
-							tmp289_AST = astFactory.create(LT(1));
-							astFactory.addASTChild(currentAST, tmp289_AST);
+							AST tmp285_AST = null;
+							tmp285_AST = astFactory.create(LT(1));
+							astFactory.addASTChild(currentAST, tmp285_AST);
 							match(LPAREN);
 							expression();
 							astFactory.addASTChild(currentAST, returnAST);
-							AST tmp290_AST = null;
-							tmp290_AST = astFactory.create(LT(1));
-							astFactory.addASTChild(currentAST, tmp290_AST);
+							AST tmp286_AST = null;
+							tmp286_AST = astFactory.create(LT(1));
+							astFactory.addASTChild(currentAST, tmp286_AST);
 							match(RPAREN);
 							primary_AST = (AST)currentAST.root;
 						}
@@ -8929,9 +8958,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_OPEN:
 			{
-				AST tmp291_AST = null;
-				tmp291_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp291_AST);
+				AST tmp287_AST = null;
+				tmp287_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp287_AST);
 				match(K_OPEN);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -8947,9 +8976,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp292_AST = null;
-			tmp292_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp292_AST);
+			AST tmp288_AST = null;
+			tmp288_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp288_AST);
 			match(K_IS);
 			file_logical_name();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -8995,13 +9024,13 @@ inputState.guessing--;
 		AST file_type_definition_AST = null;
 		
 		try {      // for error handling
-			AST tmp293_AST = null;
-			tmp293_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp293_AST);
+			AST tmp289_AST = null;
+			tmp289_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp289_AST);
 			match(K_FILE);
-			AST tmp294_AST = null;
-			tmp294_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp294_AST);
+			AST tmp290_AST = null;
+			tmp290_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp290_AST);
 			match(K_OF);
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -9075,9 +9104,9 @@ inputState.guessing--;
 			_loop317:
 			do {
 				if ((LA(1)==SEMI)) {
-					AST tmp295_AST = null;
-					tmp295_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp295_AST);
+					AST tmp291_AST = null;
+					tmp291_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp291_AST);
 					match(SEMI);
 					interface_element();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -9108,21 +9137,21 @@ inputState.guessing--;
 		AST full_type_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp296_AST = null;
-			tmp296_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp296_AST);
+			AST tmp292_AST = null;
+			tmp292_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp292_AST);
 			match(K_TYPE);
 			identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp297_AST = null;
-			tmp297_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp297_AST);
+			AST tmp293_AST = null;
+			tmp293_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp293_AST);
 			match(K_IS);
 			type_definition();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp298_AST = null;
-			tmp298_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp298_AST);
+			AST tmp294_AST = null;
+			tmp294_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp294_AST);
 			match(SEMI);
 			full_type_declaration_AST = (AST)currentAST.root;
 		}
@@ -9212,15 +9241,15 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case LPAREN:
 			{
-				AST tmp299_AST = null;
-				tmp299_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp299_AST);
+				AST tmp295_AST = null;
+				tmp295_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp295_AST);
 				match(LPAREN);
 				actual_parameter_part();
 				astFactory.addASTChild(currentAST, returnAST);
-				AST tmp300_AST = null;
-				tmp300_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp300_AST);
+				AST tmp296_AST = null;
+				tmp296_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp296_AST);
 				match(RPAREN);
 				break;
 			}
@@ -9307,9 +9336,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_FOR:
 			{
-				AST tmp301_AST = null;
-				tmp301_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp301_AST);
+				AST tmp297_AST = null;
+				tmp297_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp297_AST);
 				match(K_FOR);
 				parameter_specification();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -9318,9 +9347,9 @@ inputState.guessing--;
 			}
 			case K_IF:
 			{
-				AST tmp302_AST = null;
-				tmp302_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp302_AST);
+				AST tmp298_AST = null;
+				tmp298_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp298_AST);
 				match(K_IF);
 				condition();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -9353,9 +9382,9 @@ inputState.guessing--;
 		try {      // for error handling
 			identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp303_AST = null;
-			tmp303_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp303_AST);
+			AST tmp299_AST = null;
+			tmp299_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp299_AST);
 			match(K_IN);
 			discrete_range();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -9448,9 +9477,9 @@ inputState.guessing--;
 			_loop276:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp304_AST = null;
-					tmp304_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp304_AST);
+					AST tmp300_AST = null;
+					tmp300_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp300_AST);
 					match(COMMA);
 					group_constituent();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -9492,9 +9521,9 @@ inputState.guessing--;
 				_loop544:
 				do {
 					if ((LA(1)==COMMA)) {
-						AST tmp305_AST = null;
-						tmp305_AST = astFactory.create(LT(1));
-						astFactory.addASTChild(currentAST, tmp305_AST);
+						AST tmp301_AST = null;
+						tmp301_AST = astFactory.create(LT(1));
+						astFactory.addASTChild(currentAST, tmp301_AST);
 						match(COMMA);
 						name();
 						astFactory.addASTChild(currentAST, returnAST);
@@ -9510,18 +9539,18 @@ inputState.guessing--;
 			}
 			case K_OTHERS:
 			{
-				AST tmp306_AST = null;
-				tmp306_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp306_AST);
+				AST tmp302_AST = null;
+				tmp302_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp302_AST);
 				match(K_OTHERS);
 				signal_list_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ALL:
 			{
-				AST tmp307_AST = null;
-				tmp307_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp307_AST);
+				AST tmp303_AST = null;
+				tmp303_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp303_AST);
 				match(K_ALL);
 				signal_list_AST = (AST)currentAST.root;
 				break;
@@ -9569,15 +9598,15 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp308_AST = null;
-			tmp308_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp308_AST);
+			AST tmp304_AST = null;
+			tmp304_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp304_AST);
 			match(K_IF);
 			condition();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp309_AST = null;
-			tmp309_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp309_AST);
+			AST tmp305_AST = null;
+			tmp305_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp305_AST);
 			match(K_THEN);
 			sequence_of_statements();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -9585,15 +9614,15 @@ inputState.guessing--;
 			_loop287:
 			do {
 				if ((LA(1)==K_ELSIF)) {
-					AST tmp310_AST = null;
-					tmp310_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp310_AST);
+					AST tmp306_AST = null;
+					tmp306_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp306_AST);
 					match(K_ELSIF);
 					condition();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp311_AST = null;
-					tmp311_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp311_AST);
+					AST tmp307_AST = null;
+					tmp307_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp307_AST);
 					match(K_THEN);
 					sequence_of_statements();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -9608,9 +9637,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_ELSE:
 			{
-				AST tmp312_AST = null;
-				tmp312_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp312_AST);
+				AST tmp308_AST = null;
+				tmp308_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp308_AST);
 				match(K_ELSE);
 				sequence_of_statements();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -9626,13 +9655,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp313_AST = null;
-			tmp313_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp313_AST);
+			AST tmp309_AST = null;
+			tmp309_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp309_AST);
 			match(K_END);
-			AST tmp314_AST = null;
-			tmp314_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp314_AST);
+			AST tmp310_AST = null;
+			tmp310_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp310_AST);
 			match(K_IF);
 			{
 			switch ( LA(1)) {
@@ -9653,9 +9682,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp315_AST = null;
-			tmp315_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp315_AST);
+			AST tmp311_AST = null;
+			tmp311_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp311_AST);
 			match(SEMI);
 			if_statement_AST = (AST)currentAST.root;
 		}
@@ -9677,15 +9706,15 @@ inputState.guessing--;
 		AST incomplete_type_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp316_AST = null;
-			tmp316_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp316_AST);
+			AST tmp312_AST = null;
+			tmp312_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp312_AST);
 			match(K_TYPE);
 			identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp317_AST = null;
-			tmp317_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp317_AST);
+			AST tmp313_AST = null;
+			tmp313_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp313_AST);
 			match(SEMI);
 			incomplete_type_declaration_AST = (AST)currentAST.root;
 		}
@@ -9709,13 +9738,13 @@ inputState.guessing--;
 		try {      // for error handling
 			name();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp318_AST = null;
-			tmp318_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp318_AST);
+			AST tmp314_AST = null;
+			tmp314_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp314_AST);
 			match(K_RANGE);
-			AST tmp319_AST = null;
-			tmp319_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp319_AST);
+			AST tmp315_AST = null;
+			tmp315_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp315_AST);
 			match(LSTGRT);
 			index_subtype_definition_AST = (AST)currentAST.root;
 		}
@@ -9741,9 +9770,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_CONSTANT:
 			{
-				AST tmp320_AST = null;
-				tmp320_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp320_AST);
+				AST tmp316_AST = null;
+				tmp316_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp316_AST);
 				match(K_CONSTANT);
 				break;
 			}
@@ -9760,17 +9789,17 @@ inputState.guessing--;
 			}
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp321_AST = null;
-			tmp321_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp321_AST);
+			AST tmp317_AST = null;
+			tmp317_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp317_AST);
 			match(COLON);
 			{
 			switch ( LA(1)) {
 			case K_IN:
 			{
-				AST tmp322_AST = null;
-				tmp322_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp322_AST);
+				AST tmp318_AST = null;
+				tmp318_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp318_AST);
 				match(K_IN);
 				break;
 			}
@@ -9792,9 +9821,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case COLONEQ:
 			{
-				AST tmp323_AST = null;
-				tmp323_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp323_AST);
+				AST tmp319_AST = null;
+				tmp319_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp319_AST);
 				match(COLONEQ);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -9836,9 +9865,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_SIGNAL:
 			{
-				AST tmp324_AST = null;
-				tmp324_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp324_AST);
+				AST tmp320_AST = null;
+				tmp320_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp320_AST);
 				match(K_SIGNAL);
 				break;
 			}
@@ -9855,9 +9884,9 @@ inputState.guessing--;
 			}
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp325_AST = null;
-			tmp325_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp325_AST);
+			AST tmp321_AST = null;
+			tmp321_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp321_AST);
 			match(COLON);
 			{
 			switch ( LA(1)) {
@@ -9889,9 +9918,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_BUS:
 			{
-				AST tmp326_AST = null;
-				tmp326_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp326_AST);
+				AST tmp322_AST = null;
+				tmp322_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp322_AST);
 				match(K_BUS);
 				break;
 			}
@@ -9912,9 +9941,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case COLONEQ:
 			{
-				AST tmp327_AST = null;
-				tmp327_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp327_AST);
+				AST tmp323_AST = null;
+				tmp323_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp323_AST);
 				match(COLONEQ);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -9956,9 +9985,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_VARIABLE:
 			{
-				AST tmp328_AST = null;
-				tmp328_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp328_AST);
+				AST tmp324_AST = null;
+				tmp324_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp324_AST);
 				match(K_VARIABLE);
 				break;
 			}
@@ -9975,9 +10004,9 @@ inputState.guessing--;
 			}
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp329_AST = null;
-			tmp329_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp329_AST);
+			AST tmp325_AST = null;
+			tmp325_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp325_AST);
 			match(COLON);
 			{
 			switch ( LA(1)) {
@@ -10009,9 +10038,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case COLONEQ:
 			{
-				AST tmp330_AST = null;
-				tmp330_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp330_AST);
+				AST tmp326_AST = null;
+				tmp326_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp326_AST);
 				match(COLONEQ);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -10049,15 +10078,15 @@ inputState.guessing--;
 		AST interface_file_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp331_AST = null;
-			tmp331_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp331_AST);
+			AST tmp327_AST = null;
+			tmp327_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp327_AST);
 			match(K_FILE);
 			identifier_list();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp332_AST = null;
-			tmp332_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp332_AST);
+			AST tmp328_AST = null;
+			tmp328_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp328_AST);
 			match(COLON);
 			subtype_indication();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -10106,45 +10135,45 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_IN:
 			{
-				AST tmp333_AST = null;
-				tmp333_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp333_AST);
+				AST tmp329_AST = null;
+				tmp329_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp329_AST);
 				match(K_IN);
 				mode_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_OUT:
 			{
-				AST tmp334_AST = null;
-				tmp334_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp334_AST);
+				AST tmp330_AST = null;
+				tmp330_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp330_AST);
 				match(K_OUT);
 				mode_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_INOUT:
 			{
-				AST tmp335_AST = null;
-				tmp335_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp335_AST);
+				AST tmp331_AST = null;
+				tmp331_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp331_AST);
 				match(K_INOUT);
 				mode_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_BUFFER:
 			{
-				AST tmp336_AST = null;
-				tmp336_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp336_AST);
+				AST tmp332_AST = null;
+				tmp332_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp332_AST);
 				match(K_BUFFER);
 				mode_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_LINKAGE:
 			{
-				AST tmp337_AST = null;
-				tmp337_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp337_AST);
+				AST tmp333_AST = null;
+				tmp333_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp333_AST);
 				match(K_LINKAGE);
 				mode_AST = (AST)currentAST.root;
 				break;
@@ -10176,9 +10205,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_WHILE:
 			{
-				AST tmp338_AST = null;
-				tmp338_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp338_AST);
+				AST tmp334_AST = null;
+				tmp334_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp334_AST);
 				match(K_WHILE);
 				condition();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -10187,9 +10216,9 @@ inputState.guessing--;
 			}
 			case K_FOR:
 			{
-				AST tmp339_AST = null;
-				tmp339_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp339_AST);
+				AST tmp335_AST = null;
+				tmp335_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp335_AST);
 				match(K_FOR);
 				parameter_specification();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -10226,9 +10255,9 @@ inputState.guessing--;
 			_loop340:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp340_AST = null;
-					tmp340_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp340_AST);
+					AST tmp336_AST = null;
+					tmp336_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp336_AST);
 					match(COMMA);
 					logical_name();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -10354,9 +10383,9 @@ inputState.guessing--;
 			}
 			case K_NULL:
 			{
-				AST tmp341_AST = null;
-				tmp341_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp341_AST);
+				AST tmp337_AST = null;
+				tmp337_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp337_AST);
 				match(K_NULL);
 				literal_AST = (AST)currentAST.root;
 				break;
@@ -10465,9 +10494,9 @@ inputState.guessing--;
 		AST string_literal_AST = null;
 		
 		try {      // for error handling
-			AST tmp342_AST = null;
-			tmp342_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp342_AST);
+			AST tmp338_AST = null;
+			tmp338_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp338_AST);
 			match(STRING_LITERAL);
 			string_literal_AST = (AST)currentAST.root;
 		}
@@ -10514,54 +10543,54 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_AND:
 			{
-				AST tmp343_AST = null;
-				tmp343_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp343_AST);
+				AST tmp339_AST = null;
+				tmp339_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp339_AST);
 				match(K_AND);
 				logical_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_OR:
 			{
-				AST tmp344_AST = null;
-				tmp344_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp344_AST);
+				AST tmp340_AST = null;
+				tmp340_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp340_AST);
 				match(K_OR);
 				logical_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_NAND:
 			{
-				AST tmp345_AST = null;
-				tmp345_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp345_AST);
+				AST tmp341_AST = null;
+				tmp341_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp341_AST);
 				match(K_NAND);
 				logical_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_NOR:
 			{
-				AST tmp346_AST = null;
-				tmp346_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp346_AST);
+				AST tmp342_AST = null;
+				tmp342_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp342_AST);
 				match(K_NOR);
 				logical_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_XOR:
 			{
-				AST tmp347_AST = null;
-				tmp347_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp347_AST);
+				AST tmp343_AST = null;
+				tmp343_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp343_AST);
 				match(K_XOR);
 				logical_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_XNOR:
 			{
-				AST tmp348_AST = null;
-				tmp348_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp348_AST);
+				AST tmp344_AST = null;
+				tmp344_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp344_AST);
 				match(K_XNOR);
 				logical_operator_AST = (AST)currentAST.root;
 				break;
@@ -10630,19 +10659,19 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp349_AST = null;
-			tmp349_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp349_AST);
+			AST tmp345_AST = null;
+			tmp345_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp345_AST);
 			match(K_LOOP);
 			sequence_of_statements();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp350_AST = null;
-			tmp350_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp350_AST);
+			AST tmp346_AST = null;
+			tmp346_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp346_AST);
 			match(K_END);
-			AST tmp351_AST = null;
-			tmp351_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp351_AST);
+			AST tmp347_AST = null;
+			tmp347_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp347_AST);
 			match(K_LOOP);
 			{
 			switch ( LA(1)) {
@@ -10663,9 +10692,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp352_AST = null;
-			tmp352_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp352_AST);
+			AST tmp348_AST = null;
+			tmp348_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp348_AST);
 			match(SEMI);
 			loop_statement_AST = (AST)currentAST.root;
 		}
@@ -10690,27 +10719,27 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case STAR2:
 			{
-				AST tmp353_AST = null;
-				tmp353_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp353_AST);
+				AST tmp349_AST = null;
+				tmp349_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp349_AST);
 				match(STAR2);
 				miscellaneous_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ABS:
 			{
-				AST tmp354_AST = null;
-				tmp354_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp354_AST);
+				AST tmp350_AST = null;
+				tmp350_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp350_AST);
 				match(K_ABS);
 				miscellaneous_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_NOT:
 			{
-				AST tmp355_AST = null;
-				tmp355_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp355_AST);
+				AST tmp351_AST = null;
+				tmp351_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp351_AST);
 				match(K_NOT);
 				miscellaneous_operator_AST = (AST)currentAST.root;
 				break;
@@ -10742,36 +10771,36 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case STAR:
 			{
-				AST tmp356_AST = null;
-				tmp356_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp356_AST);
+				AST tmp352_AST = null;
+				tmp352_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp352_AST);
 				match(STAR);
 				multiplying_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case SLASH:
 			{
-				AST tmp357_AST = null;
-				tmp357_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp357_AST);
+				AST tmp353_AST = null;
+				tmp353_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp353_AST);
 				match(SLASH);
 				multiplying_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_MOD:
 			{
-				AST tmp358_AST = null;
-				tmp358_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp358_AST);
+				AST tmp354_AST = null;
+				tmp354_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp354_AST);
 				match(K_MOD);
 				multiplying_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_REM:
 			{
-				AST tmp359_AST = null;
-				tmp359_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp359_AST);
+				AST tmp355_AST = null;
+				tmp355_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp355_AST);
 				match(K_REM);
 				multiplying_operator_AST = (AST)currentAST.root;
 				break;
@@ -10827,9 +10856,9 @@ inputState.guessing--;
 			}
 			case K_ALL:
 			{
-				AST tmp360_AST = null;
-				tmp360_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp360_AST);
+				AST tmp356_AST = null;
+				tmp356_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp356_AST);
 				match(K_ALL);
 				suffix_AST = (AST)currentAST.root;
 				break;
@@ -10878,9 +10907,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp361_AST = null;
-			tmp361_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp361_AST);
+			AST tmp357_AST = null;
+			tmp357_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp357_AST);
 			match(K_NEXT);
 			{
 			switch ( LA(1)) {
@@ -10906,9 +10935,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_WHEN:
 			{
-				AST tmp362_AST = null;
-				tmp362_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp362_AST);
+				AST tmp358_AST = null;
+				tmp358_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp358_AST);
 				match(K_WHEN);
 				condition();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -10924,9 +10953,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp363_AST = null;
-			tmp363_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp363_AST);
+			AST tmp359_AST = null;
+			tmp359_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp359_AST);
 			match(SEMI);
 			next_statement_AST = (AST)currentAST.root;
 		}
@@ -10967,13 +10996,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp364_AST = null;
-			tmp364_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp364_AST);
+			AST tmp360_AST = null;
+			tmp360_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp360_AST);
 			match(K_NULL);
-			AST tmp365_AST = null;
-			tmp365_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp365_AST);
+			AST tmp361_AST = null;
+			tmp361_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp361_AST);
 			match(SEMI);
 			null_statement_AST = (AST)currentAST.root;
 		}
@@ -11036,39 +11065,45 @@ inputState.guessing--;
 		returnAST = null;
 		ASTPair currentAST = new ASTPair();
 		AST package_body_AST = null;
+		Token  e = null;
+		AST e_AST = null;
+		Token id = null;
 		
 		try {      // for error handling
-			AST tmp366_AST = null;
-			tmp366_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp366_AST);
+			AST tmp362_AST = null;
+			tmp362_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp362_AST);
 			match(K_PACKAGE);
-			AST tmp367_AST = null;
-			tmp367_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp367_AST);
+			AST tmp363_AST = null;
+			tmp363_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp363_AST);
 			match(K_BODY);
-			simple_name();
+			id=simple_name();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp368_AST = null;
-			tmp368_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp368_AST);
+			AST tmp364_AST = null;
+			tmp364_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp364_AST);
 			match(K_IS);
+			if ( inputState.guessing==0 ) {
+				stTracker.beginPackageBody(id);
+			}
 			package_body_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp369_AST = null;
-			tmp369_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp369_AST);
+			AST tmp365_AST = null;
+			tmp365_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp365_AST);
 			match(K_END);
 			{
 			switch ( LA(1)) {
 			case K_PACKAGE:
 			{
-				AST tmp370_AST = null;
-				tmp370_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp370_AST);
+				AST tmp366_AST = null;
+				tmp366_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp366_AST);
 				match(K_PACKAGE);
-				AST tmp371_AST = null;
-				tmp371_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp371_AST);
+				AST tmp367_AST = null;
+				tmp367_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp367_AST);
 				match(K_BODY);
 				break;
 			}
@@ -11103,10 +11138,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp372_AST = null;
-			tmp372_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp372_AST);
+			e = LT(1);
+			e_AST = astFactory.create(e);
+			astFactory.addASTChild(currentAST, e_AST);
 			match(SEMI);
+			if ( inputState.guessing==0 ) {
+				stTracker.endPackageBody(e);
+			}
 			package_body_AST = (AST)currentAST.root;
 		}
 		catch (RecognitionException ex) {
@@ -11486,9 +11524,9 @@ inputState.guessing--;
 		try {      // for error handling
 			range_constraint();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp373_AST = null;
-			tmp373_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp373_AST);
+			AST tmp368_AST = null;
+			tmp368_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp368_AST);
 			match(K_UNITS);
 			base_unit_declaration();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -11511,13 +11549,13 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp374_AST = null;
-			tmp374_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp374_AST);
+			AST tmp369_AST = null;
+			tmp369_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp369_AST);
 			match(K_END);
-			AST tmp375_AST = null;
-			tmp375_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp375_AST);
+			AST tmp370_AST = null;
+			tmp370_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp370_AST);
 			match(K_UNITS);
 			{
 			switch ( LA(1)) {
@@ -11560,15 +11598,15 @@ inputState.guessing--;
 		try {      // for error handling
 			identifier();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp376_AST = null;
-			tmp376_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp376_AST);
+			AST tmp371_AST = null;
+			tmp371_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp371_AST);
 			match(EQ);
 			physical_literal();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp377_AST = null;
-			tmp377_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp377_AST);
+			AST tmp372_AST = null;
+			tmp372_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp372_AST);
 			match(SEMI);
 			secondary_unit_declaration_AST = (AST)currentAST.root;
 		}
@@ -11626,9 +11664,9 @@ inputState.guessing--;
 			}
 			procedure_call();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp378_AST = null;
-			tmp378_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp378_AST);
+			AST tmp373_AST = null;
+			tmp373_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp373_AST);
 			match(SEMI);
 			procedure_call_statement_AST = (AST)currentAST.root;
 		}
@@ -11846,9 +11884,9 @@ inputState.guessing--;
 			_loop493:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp379_AST = null;
-					tmp379_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp379_AST);
+					AST tmp374_AST = null;
+					tmp374_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp374_AST);
 					match(COMMA);
 					name();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -12365,27 +12403,27 @@ inputState.guessing--;
 		AST protected_type_body_AST = null;
 		
 		try {      // for error handling
-			AST tmp380_AST = null;
-			tmp380_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp380_AST);
+			AST tmp375_AST = null;
+			tmp375_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp375_AST);
 			match(K_PROTECTED);
-			AST tmp381_AST = null;
-			tmp381_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp381_AST);
+			AST tmp376_AST = null;
+			tmp376_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp376_AST);
 			match(K_BODY);
 			protected_type_body_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp382_AST = null;
-			tmp382_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp382_AST);
+			AST tmp377_AST = null;
+			tmp377_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp377_AST);
 			match(K_END);
-			AST tmp383_AST = null;
-			tmp383_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp383_AST);
+			AST tmp378_AST = null;
+			tmp378_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp378_AST);
 			match(K_PROTECTED);
-			AST tmp384_AST = null;
-			tmp384_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp384_AST);
+			AST tmp379_AST = null;
+			tmp379_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp379_AST);
 			match(K_BODY);
 			{
 			switch ( LA(1)) {
@@ -12616,19 +12654,19 @@ inputState.guessing--;
 		AST protected_type_declaration_AST = null;
 		
 		try {      // for error handling
-			AST tmp385_AST = null;
-			tmp385_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp385_AST);
+			AST tmp380_AST = null;
+			tmp380_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp380_AST);
 			match(K_PROTECTED);
 			protected_type_declarative_part();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp386_AST = null;
-			tmp386_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp386_AST);
+			AST tmp381_AST = null;
+			tmp381_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp381_AST);
 			match(K_END);
-			AST tmp387_AST = null;
-			tmp387_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp387_AST);
+			AST tmp382_AST = null;
+			tmp382_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp382_AST);
 			match(K_PROTECTED);
 			{
 			switch ( LA(1)) {
@@ -12754,9 +12792,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_PROCEDURE:
 			{
-				AST tmp388_AST = null;
-				tmp388_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp388_AST);
+				AST tmp383_AST = null;
+				tmp383_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp383_AST);
 				match(K_PROCEDURE);
 				designator();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -12764,15 +12802,15 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case LPAREN:
 				{
-					AST tmp389_AST = null;
-					tmp389_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp389_AST);
+					AST tmp384_AST = null;
+					tmp384_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp384_AST);
 					match(LPAREN);
 					formal_parameter_list();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp390_AST = null;
-					tmp390_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp390_AST);
+					AST tmp385_AST = null;
+					tmp385_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp385_AST);
 					match(RPAREN);
 					break;
 				}
@@ -12805,17 +12843,17 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case K_PURE:
 				{
-					AST tmp391_AST = null;
-					tmp391_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp391_AST);
+					AST tmp386_AST = null;
+					tmp386_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp386_AST);
 					match(K_PURE);
 					break;
 				}
 				case K_IMPURE:
 				{
-					AST tmp392_AST = null;
-					tmp392_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp392_AST);
+					AST tmp387_AST = null;
+					tmp387_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp387_AST);
 					match(K_IMPURE);
 					break;
 				}
@@ -12829,9 +12867,9 @@ inputState.guessing--;
 				}
 				}
 				}
-				AST tmp393_AST = null;
-				tmp393_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp393_AST);
+				AST tmp388_AST = null;
+				tmp388_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp388_AST);
 				match(K_FUNCTION);
 				designator();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -12839,15 +12877,15 @@ inputState.guessing--;
 				switch ( LA(1)) {
 				case LPAREN:
 				{
-					AST tmp394_AST = null;
-					tmp394_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp394_AST);
+					AST tmp389_AST = null;
+					tmp389_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp389_AST);
 					match(LPAREN);
 					formal_parameter_list();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp395_AST = null;
-					tmp395_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp395_AST);
+					AST tmp390_AST = null;
+					tmp390_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp390_AST);
 					match(RPAREN);
 					break;
 				}
@@ -12861,9 +12899,9 @@ inputState.guessing--;
 				}
 				}
 				}
-				AST tmp396_AST = null;
-				tmp396_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp396_AST);
+				AST tmp391_AST = null;
+				tmp391_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp391_AST);
 				match(K_RETURN);
 				name();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -13004,54 +13042,54 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case EQ:
 			{
-				AST tmp397_AST = null;
-				tmp397_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp397_AST);
+				AST tmp392_AST = null;
+				tmp392_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp392_AST);
 				match(EQ);
 				relational_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case SLASHEQ:
 			{
-				AST tmp398_AST = null;
-				tmp398_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp398_AST);
+				AST tmp393_AST = null;
+				tmp393_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp393_AST);
 				match(SLASHEQ);
 				relational_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case LST:
 			{
-				AST tmp399_AST = null;
-				tmp399_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp399_AST);
+				AST tmp394_AST = null;
+				tmp394_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp394_AST);
 				match(LST);
 				relational_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case LSTEQ:
 			{
-				AST tmp400_AST = null;
-				tmp400_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp400_AST);
+				AST tmp395_AST = null;
+				tmp395_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp395_AST);
 				match(LSTEQ);
 				relational_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case GRT:
 			{
-				AST tmp401_AST = null;
-				tmp401_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp401_AST);
+				AST tmp396_AST = null;
+				tmp396_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp396_AST);
 				match(GRT);
 				relational_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case GRTEQ:
 			{
-				AST tmp402_AST = null;
-				tmp402_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp402_AST);
+				AST tmp397_AST = null;
+				tmp397_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp397_AST);
 				match(GRTEQ);
 				relational_operator_AST = (AST)currentAST.root;
 				break;
@@ -13099,9 +13137,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp403_AST = null;
-			tmp403_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp403_AST);
+			AST tmp398_AST = null;
+			tmp398_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp398_AST);
 			match(K_REPORT);
 			expression();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -13109,9 +13147,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_SEVERITY:
 			{
-				AST tmp404_AST = null;
-				tmp404_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp404_AST);
+				AST tmp399_AST = null;
+				tmp399_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp399_AST);
 				match(K_SEVERITY);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -13127,9 +13165,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp405_AST = null;
-			tmp405_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp405_AST);
+			AST tmp400_AST = null;
+			tmp400_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp400_AST);
 			match(SEMI);
 			report_statement_AST = (AST)currentAST.root;
 		}
@@ -13170,9 +13208,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp406_AST = null;
-			tmp406_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp406_AST);
+			AST tmp401_AST = null;
+			tmp401_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp401_AST);
 			match(K_RETURN);
 			{
 			switch ( LA(1)) {
@@ -13205,9 +13243,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp407_AST = null;
-			tmp407_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp407_AST);
+			AST tmp402_AST = null;
+			tmp402_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp402_AST);
 			match(SEMI);
 			return_statement_AST = (AST)currentAST.root;
 		}
@@ -13286,9 +13324,9 @@ inputState.guessing--;
 		try {      // for error handling
 			waveform();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp408_AST = null;
-			tmp408_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp408_AST);
+			AST tmp403_AST = null;
+			tmp403_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp403_AST);
 			match(K_WHEN);
 			choices();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -13296,15 +13334,15 @@ inputState.guessing--;
 			_loop489:
 			do {
 				if ((LA(1)==COMMA)) {
-					AST tmp409_AST = null;
-					tmp409_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp409_AST);
+					AST tmp404_AST = null;
+					tmp404_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp404_AST);
 					match(COMMA);
 					waveform();
 					astFactory.addASTChild(currentAST, returnAST);
-					AST tmp410_AST = null;
-					tmp410_AST = astFactory.create(LT(1));
-					astFactory.addASTChild(currentAST, tmp410_AST);
+					AST tmp405_AST = null;
+					tmp405_AST = astFactory.create(LT(1));
+					astFactory.addASTChild(currentAST, tmp405_AST);
 					match(K_WHEN);
 					choices();
 					astFactory.addASTChild(currentAST, returnAST);
@@ -13335,9 +13373,9 @@ inputState.guessing--;
 		AST sensitivity_clause_AST = null;
 		
 		try {      // for error handling
-			AST tmp411_AST = null;
-			tmp411_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp411_AST);
+			AST tmp406_AST = null;
+			tmp406_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp406_AST);
 			match(K_ON);
 			sensitivity_list();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -13380,9 +13418,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp412_AST = null;
-			tmp412_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp412_AST);
+			AST tmp407_AST = null;
+			tmp407_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp407_AST);
 			match(K_WAIT);
 			{
 			switch ( LA(1)) {
@@ -13441,9 +13479,9 @@ inputState.guessing--;
 			}
 			}
 			}
-			AST tmp413_AST = null;
-			tmp413_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp413_AST);
+			AST tmp408_AST = null;
+			tmp408_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp408_AST);
 			match(SEMI);
 			wait_statement_AST = (AST)currentAST.root;
 		}
@@ -13479,15 +13517,15 @@ inputState.guessing--;
 			}
 			target();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp414_AST = null;
-			tmp414_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp414_AST);
+			AST tmp409_AST = null;
+			tmp409_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp409_AST);
 			match(COLONEQ);
 			expression();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp415_AST = null;
-			tmp415_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp415_AST);
+			AST tmp410_AST = null;
+			tmp410_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp410_AST);
 			match(SEMI);
 			variable_assignment_statement_AST = (AST)currentAST.root;
 		}
@@ -13523,9 +13561,9 @@ inputState.guessing--;
 			}
 			target();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp416_AST = null;
-			tmp416_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp416_AST);
+			AST tmp411_AST = null;
+			tmp411_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp411_AST);
 			match(LSTEQ);
 			{
 			switch ( LA(1)) {
@@ -13563,9 +13601,9 @@ inputState.guessing--;
 			}
 			waveform();
 			astFactory.addASTChild(currentAST, returnAST);
-			AST tmp417_AST = null;
-			tmp417_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp417_AST);
+			AST tmp412_AST = null;
+			tmp412_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp412_AST);
 			match(SEMI);
 			signal_assignment_statement_AST = (AST)currentAST.root;
 		}
@@ -13590,54 +13628,54 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_SLL:
 			{
-				AST tmp418_AST = null;
-				tmp418_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp418_AST);
+				AST tmp413_AST = null;
+				tmp413_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp413_AST);
 				match(K_SLL);
 				shift_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_SRL:
 			{
-				AST tmp419_AST = null;
-				tmp419_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp419_AST);
+				AST tmp414_AST = null;
+				tmp414_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp414_AST);
 				match(K_SRL);
 				shift_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_SLA:
 			{
-				AST tmp420_AST = null;
-				tmp420_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp420_AST);
+				AST tmp415_AST = null;
+				tmp415_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp415_AST);
 				match(K_SLA);
 				shift_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_SRA:
 			{
-				AST tmp421_AST = null;
-				tmp421_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp421_AST);
+				AST tmp416_AST = null;
+				tmp416_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp416_AST);
 				match(K_SRA);
 				shift_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ROL:
 			{
-				AST tmp422_AST = null;
-				tmp422_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp422_AST);
+				AST tmp417_AST = null;
+				tmp417_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp417_AST);
 				match(K_ROL);
 				shift_operator_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_ROR:
 			{
-				AST tmp423_AST = null;
-				tmp423_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp423_AST);
+				AST tmp418_AST = null;
+				tmp418_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp418_AST);
 				match(K_ROR);
 				shift_operator_AST = (AST)currentAST.root;
 				break;
@@ -13669,18 +13707,18 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case PLUS:
 			{
-				AST tmp424_AST = null;
-				tmp424_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp424_AST);
+				AST tmp419_AST = null;
+				tmp419_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp419_AST);
 				match(PLUS);
 				sign_AST = (AST)currentAST.root;
 				break;
 			}
 			case MINUS:
 			{
-				AST tmp425_AST = null;
-				tmp425_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp425_AST);
+				AST tmp420_AST = null;
+				tmp420_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp420_AST);
 				match(MINUS);
 				sign_AST = (AST)currentAST.root;
 				break;
@@ -13712,18 +13750,18 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_REGISTER:
 			{
-				AST tmp426_AST = null;
-				tmp426_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp426_AST);
+				AST tmp421_AST = null;
+				tmp421_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp421_AST);
 				match(K_REGISTER);
 				signal_kind_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_BUS:
 			{
-				AST tmp427_AST = null;
-				tmp427_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp427_AST);
+				AST tmp422_AST = null;
+				tmp422_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp422_AST);
 				match(K_BUS);
 				signal_kind_AST = (AST)currentAST.root;
 				break;
@@ -13858,18 +13896,18 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_PROCEDURE:
 			{
-				AST tmp428_AST = null;
-				tmp428_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp428_AST);
+				AST tmp423_AST = null;
+				tmp423_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp423_AST);
 				match(K_PROCEDURE);
 				subprogram_kind_AST = (AST)currentAST.root;
 				break;
 			}
 			case K_FUNCTION:
 			{
-				AST tmp429_AST = null;
-				tmp429_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp429_AST);
+				AST tmp424_AST = null;
+				tmp424_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp424_AST);
 				match(K_FUNCTION);
 				subprogram_kind_AST = (AST)currentAST.root;
 				break;
@@ -14055,9 +14093,9 @@ inputState.guessing--;
 		AST timeout_clause_AST = null;
 		
 		try {      // for error handling
-			AST tmp430_AST = null;
-			tmp430_AST = astFactory.create(LT(1));
-			astFactory.addASTChild(currentAST, tmp430_AST);
+			AST tmp425_AST = null;
+			tmp425_AST = astFactory.create(LT(1));
+			astFactory.addASTChild(currentAST, tmp425_AST);
 			match(K_FOR);
 			expression();
 			astFactory.addASTChild(currentAST, returnAST);
@@ -14087,9 +14125,9 @@ inputState.guessing--;
 			switch ( LA(1)) {
 			case K_AFTER:
 			{
-				AST tmp431_AST = null;
-				tmp431_AST = astFactory.create(LT(1));
-				astFactory.addASTChild(currentAST, tmp431_AST);
+				AST tmp426_AST = null;
+				tmp426_AST = astFactory.create(LT(1));
+				astFactory.addASTChild(currentAST, tmp426_AST);
 				match(K_AFTER);
 				expression();
 				astFactory.addASTChild(currentAST, returnAST);
@@ -109,10 +109,12 @@ allocator
 
 // CAPTURE:
 architecture_body
-:   K_ARCHITECTURE identifier K_OF name K_IS
+{ Token id = null, ent = null;}
+:   K_ARCHITECTURE id=identifier K_OF ent=name K_IS
+			{stTracker.beginArchitecture(id, ent);}
         architecture_declarative_part
         K_BEGIN architecture_statement_part K_END
-        (K_ARCHITECTURE)? (simple_name)? SEMI
+        (K_ARCHITECTURE)? (simple_name)? e:SEMI {stTracker.endArchitecture(e);}
 ;
 
 architecture_declarative_part
@@ -260,9 +262,10 @@ component_configuration
 ;
 
 component_declaration
-:   K_COMPONENT identifier (K_IS)?
+{ Token id = null;}
+:   K_COMPONENT id=identifier {stTracker.beginComponentDecl(id);} (K_IS)?
         (generic_clause)? (port_clause)?
-        K_END K_COMPONENT (simple_name)? SEMI
+        K_END K_COMPONENT (simple_name)? e:SEMI {stTracker.endComponentDecl(e);}
 ;
 
 component_instantiation_statement
@@ -487,7 +490,7 @@ entity_declaration
 :   K_ENTITY id=identifier {stTracker.beginEntityDecl(id);}
 		K_IS entity_header entity_declarative_part
         (K_BEGIN entity_statement_part)?
-        K_END (K_ENTITY)? (simple_name)? SEMI { stTracker.endEntityDecl(); }
+        K_END (K_ENTITY)? (simple_name)? e:SEMI { stTracker.endEntityDecl(e); }
 ;
 
 entity_declarative_item
@@ -889,9 +892,10 @@ operator_symbol
 //NOTE: options: see "voptions"
 
 package_body
-:   K_PACKAGE K_BODY simple_name K_IS
+{ Token id = null;}
+:   K_PACKAGE K_BODY id=simple_name K_IS {stTracker.beginPackageBody(id);}
         package_body_declarative_part K_END
-        (K_PACKAGE K_BODY)? (simple_name)? SEMI
+        (K_PACKAGE K_BODY)? (simple_name)? e:SEMI {stTracker.endPackageBody(e);}
 ;
 
 package_body_declarative_item
@@ -913,8 +917,10 @@ package_body_declarative_part
 ;
 
 package_declaration
-:   K_PACKAGE identifier K_IS package_declarative_part 
-        K_END (K_PACKAGE)? (simple_name)? SEMI
+{ Token id = null;}
+:   K_PACKAGE id=identifier K_IS {stTracker.beginPackageDecl(id);}
+		package_declarative_part 
+        K_END (K_PACKAGE)? (simple_name)? e:SEMI {stTracker.endPackageDecl(e);}
 ;
 
 package_declarative_item
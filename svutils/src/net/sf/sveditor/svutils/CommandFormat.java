@@ -0,0 +1,32 @@
+package net.sf.sveditor.svutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.sveditor.core.indent.SVBatchFormatter;
+
+public class CommandFormat extends CommandBase {
+	
+	public CommandFormat() {
+		super("format");
+	}
+	
+	@Override
+	public int run(List<Argument> args) {
+		List<String> fmt_args = new ArrayList<String>();
+		
+		// Skip the command name
+		for (int i=1; i<args.size(); i++) {
+			fmt_args.add(args.get(i).fArg);
+		}
+		
+		if (fmt_args.size() == 0) {
+			System.out.print("svutils ");
+			SVBatchFormatter.printUsage(System.out);
+			return 0;
+		}
+		
+		return SVBatchFormatter.run(fmt_args, System.out);
+	}
+
+}
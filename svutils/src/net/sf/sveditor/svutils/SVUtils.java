@@ -10,10 +10,12 @@ import net.sf.sveditor.core.log.LogFactory;
 public class SVUtils implements ILogListener {
 	
 	private String			commands[] = {
-			"template", "          - Generate sources using SV Templates"
+			"template", "          - Generate sources using SV Templates",
+			"format", "            - Indent source files. Use -check to only report changes"
 	};
 	private CommandBase		command_h[] = {
-			new CommandTemplate()
+			new CommandTemplate(),
+			new CommandFormat()
 	};
 	
 	private boolean			fHookLog = true;